@@ -0,0 +1,204 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark;
+
+import com.alibaba.polardbx.executor.operator.ConsumerExecutor;
+import com.alibaba.polardbx.executor.operator.Executor;
+import com.alibaba.polardbx.executor.operator.ProducerExecutor;
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.memory.MemoryManager;
+import com.alibaba.polardbx.optimizer.memory.MemorySetting;
+import com.alibaba.polardbx.optimizer.memory.MemoryType;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Shared data generators and drivers for the operator benchmarks.
+ * <p>
+ * All generated chunks consist of BIGINT columns, the first column being the key drawn from
+ * the requested {@link KeyDistribution}. Generation is seeded so that runs are comparable across versions.
+ */
+public final class BenchmarkData {
+
+    public static final int CHUNK_SIZE = 1024;
+
+    private static final long SEED = 20210923L;
+
+    public enum KeyDistribution {
+        /**
+         * keys are 0, 1, 2, ... wrapped at the cardinality
+         */
+        SEQUENTIAL,
+        /**
+         * keys are uniformly drawn from [0, cardinality)
+         */
+        UNIFORM,
+        /**
+         * keys are log-uniformly drawn from [0, cardinality), a few keys are very hot
+         */
+        SKEWED
+    }
+
+    private BenchmarkData() {
+    }
+
+    public static ExecutionContext newContext() {
+        ExecutionContext context = new ExecutionContext();
+        context.setMemoryPool(MemoryManager.getInstance().getGlobalMemoryPool().getOrCreatePool(
+            "benchmark-" + Thread.currentThread().getId(), MemorySetting.UNLIMITED_SIZE, MemoryType.QUERY));
+        return context;
+    }
+
+    public static List<DataType> longTypes(int columnCount) {
+        return Collections.nCopies(columnCount, DataTypes.LongType);
+    }
+
+    /**
+     * Generate {@code rowCount} rows of {@code columnCount} BIGINT columns, split into chunks of {@link #CHUNK_SIZE}.
+     * Column 0 is the key, the remaining columns are uniformly random payload.
+     */
+    public static List<Chunk> longChunks(int rowCount, int columnCount, long cardinality,
+                                         KeyDistribution distribution) {
+        Random random = new Random(SEED);
+        List<Chunk> chunks = new ArrayList<>(rowCount / CHUNK_SIZE + 1);
+        long nextKey = 0;
+        for (int start = 0; start < rowCount; start += CHUNK_SIZE) {
+            int size = Math.min(CHUNK_SIZE, rowCount - start);
+            Block[] blocks = new Block[columnCount];
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                switch (distribution) {
+                case SEQUENTIAL:
+                    keys[i] = nextKey;
+                    nextKey = nextKey + 1 == cardinality ? 0 : nextKey + 1;
+                    break;
+                case UNIFORM:
+                    keys[i] = (long) (random.nextDouble() * cardinality);
+                    break;
+                case SKEWED:
+                    keys[i] = (long) Math.pow(cardinality, random.nextDouble()) - 1;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown key distribution: " + distribution);
+                }
+            }
+            blocks[0] = LongBlock.wrap(keys);
+            for (int c = 1; c < columnCount; c++) {
+                long[] values = new long[size];
+                for (int i = 0; i < size; i++) {
+                    values[i] = random.nextLong();
+                }
+                blocks[c] = LongBlock.wrap(values);
+            }
+            chunks.add(new Chunk(blocks));
+        }
+        return chunks;
+    }
+
+    /**
+     * Feed all chunks into a consumer side of an operator (build side of join, input of agg / sort).
+     */
+    public static void consume(ConsumerExecutor consumer, List<Chunk> chunks) {
+        consumer.openConsume();
+        for (Chunk chunk : chunks) {
+            consumer.consumeChunk(chunk);
+        }
+        consumer.buildConsume();
+    }
+
+    /**
+     * Pull all output of the executor and return the number of rows produced.
+     */
+    public static long drain(Executor executor) {
+        long rowCount = 0;
+        executor.open();
+        try {
+            Chunk chunk;
+            while ((chunk = executor.nextChunk()) != null) {
+                rowCount += chunk.getPositionCount();
+            }
+        } finally {
+            executor.close();
+        }
+        return rowCount;
+    }
+
+    /**
+     * Replays a fixed list of chunks, the chunks are shared by all invocations and never copied.
+     */
+    public static class ChunksExec implements Executor {
+
+        private final List<DataType> dataTypes;
+        private final List<Chunk> chunks;
+        private int index;
+        private boolean finished;
+
+        public ChunksExec(List<DataType> dataTypes, List<Chunk> chunks) {
+            this.dataTypes = dataTypes;
+            this.chunks = chunks;
+        }
+
+        @Override
+        public void open() {
+            index = 0;
+            finished = false;
+        }
+
+        @Override
+        public Chunk nextChunk() {
+            if (index < chunks.size()) {
+                return chunks.get(index++);
+            }
+            finished = true;
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public List<DataType> getDataTypes() {
+            return dataTypes;
+        }
+
+        @Override
+        public List<Executor> getInputs() {
+            return ImmutableList.of();
+        }
+
+        @Override
+        public boolean produceIsFinished() {
+            return finished;
+        }
+
+        @Override
+        public ListenableFuture<?> produceIsBlocked() {
+            return ProducerExecutor.NOT_BLOCKED;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark;
+
+import com.alibaba.polardbx.benchmark.BenchmarkData.KeyDistribution;
+import com.alibaba.polardbx.executor.operator.HashAggExec;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.expression.calc.Aggregator;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.CountRow;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Long2LongSum0;
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * select k, count(*), sum(v) from t group by k
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HashAggBenchmark {
+
+    @Param({"1000000"})
+    private int rowCount;
+
+    @Param({"16", "65536", "1000000"})
+    private int groupCount;
+
+    @Param({"UNIFORM", "SKEWED"})
+    private KeyDistribution distribution;
+
+    private List<DataType> inputTypes;
+    private List<Chunk> input;
+
+    @Setup
+    public void setup() {
+        inputTypes = BenchmarkData.longTypes(2);
+        input = BenchmarkData.longChunks(rowCount, 2, groupCount, distribution);
+    }
+
+    @Benchmark
+    public long hashAgg() {
+        List<Aggregator> aggregators = ImmutableList.of(
+            new CountRow(new int[] {}, false, -1),
+            new Long2LongSum0(1, false, DataTypes.LongType, DataTypes.LongType, -1));
+        HashAggExec exec = new HashAggExec(inputTypes, new int[] {0}, aggregators,
+            ImmutableList.of(DataTypes.LongType, DataTypes.LongType, DataTypes.LongType),
+            groupCount, BenchmarkData.newContext());
+        BenchmarkData.consume(exec, input);
+        return BenchmarkData.drain(exec);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark;
+
+import com.alibaba.polardbx.benchmark.BenchmarkData.ChunksExec;
+import com.alibaba.polardbx.benchmark.BenchmarkData.KeyDistribution;
+import com.alibaba.polardbx.executor.operator.HybridHashJoinExec;
+import com.alibaba.polardbx.executor.operator.ParallelHashJoinExec;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.join.EquiJoinKey;
+import com.google.common.collect.ImmutableList;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * select * from probe inner join build on probe.k = build.k
+ * <p>
+ * The build side has {@code buildRowCount} rows with distinct keys, the probe side keys are drawn from
+ * [0, buildRowCount / matchRatio), so roughly {@code matchRatio} of the probe rows find a match.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HashJoinBenchmark {
+
+    private static final List<EquiJoinKey> JOIN_KEYS =
+        ImmutableList.of(new EquiJoinKey(0, 0, DataTypes.LongType, false, false));
+
+    @Param({"10000", "1000000"})
+    private int buildRowCount;
+
+    @Param({"1000000"})
+    private int probeRowCount;
+
+    @Param({"1.0", "0.1"})
+    private double matchRatio;
+
+    @Param({"UNIFORM", "SKEWED"})
+    private KeyDistribution distribution;
+
+    private List<DataType> types;
+    private List<Chunk> build;
+    private List<Chunk> probe;
+
+    @Setup
+    public void setup() {
+        types = BenchmarkData.longTypes(2);
+        build = BenchmarkData.longChunks(buildRowCount, 2, buildRowCount, KeyDistribution.SEQUENTIAL);
+        probe = BenchmarkData.longChunks(probeRowCount, 2, (long) (buildRowCount / matchRatio), distribution);
+    }
+
+    @Benchmark
+    public long parallelHashJoin() {
+        ParallelHashJoinExec exec = new ParallelHashJoinExec(new ParallelHashJoinExec.Synchronizer(1, false),
+            new ChunksExec(types, probe), new ChunksExec(types, build), JoinRelType.INNER, false, JOIN_KEYS,
+            null, null, false, BenchmarkData.newContext(), 0);
+        BenchmarkData.consume(exec, build);
+        return BenchmarkData.drain(exec);
+    }
+
+    @Benchmark
+    public long hybridHashJoin() {
+        // single partition and bucket without spiller, i.e. the in-memory path of hybrid hash join
+        HybridHashJoinExec exec = new HybridHashJoinExec(
+            new ChunksExec(types, probe), new ChunksExec(types, build), JoinRelType.INNER, false, JOIN_KEYS,
+            null, null, BenchmarkData.newContext(), 1, 0, 1, null);
+        BenchmarkData.consume(exec, build);
+        return BenchmarkData.drain(exec);
+    }
+}
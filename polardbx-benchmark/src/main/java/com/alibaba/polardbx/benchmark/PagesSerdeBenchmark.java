@@ -0,0 +1,114 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark;
+
+import com.alibaba.polardbx.benchmark.BenchmarkData.KeyDistribution;
+import com.alibaba.polardbx.executor.mpp.execution.buffer.PagesSerde;
+import com.alibaba.polardbx.executor.mpp.execution.buffer.PagesSerdeFactory;
+import com.alibaba.polardbx.executor.mpp.execution.buffer.SerializedChunk;
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.chunk.BlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.BlockBuilders;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialize / deserialize of chunks exchanged between MPP tasks and written to spill files.
+ * Each invocation processes all chunks, i.e. {@code rowCount} rows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PagesSerdeBenchmark {
+
+    @Param({"100000"})
+    private int rowCount;
+
+    @Param({"BIGINT", "VARCHAR"})
+    private String columnType;
+
+    @Param({"false", "true"})
+    private boolean compressed;
+
+    private PagesSerde serde;
+    private List<Chunk> chunks;
+    private List<SerializedChunk> serializedChunks;
+
+    @Setup
+    public void setup() {
+        List<Chunk> longChunks = BenchmarkData.longChunks(rowCount, 2, rowCount / 16, KeyDistribution.UNIFORM);
+        List<DataType> types;
+        if ("VARCHAR".equals(columnType)) {
+            types = ImmutableList.of(DataTypes.LongType, DataTypes.StringType);
+            chunks = new ArrayList<>(longChunks.size());
+            ExecutionContext context = new ExecutionContext();
+            for (Chunk chunk : longChunks) {
+                // key column + its text form, which compresses like typical short strings do
+                BlockBuilder builder = BlockBuilders.create(DataTypes.StringType, context, chunk.getPositionCount());
+                Block keys = chunk.getBlock(0);
+                for (int i = 0; i < chunk.getPositionCount(); i++) {
+                    builder.writeString("value-" + keys.getLong(i));
+                }
+                chunks.add(new Chunk(keys, builder.build()));
+            }
+        } else {
+            types = BenchmarkData.longTypes(2);
+            chunks = longChunks;
+        }
+        serde = new PagesSerdeFactory(compressed).createPagesSerde(types);
+        serializedChunks = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks) {
+            serializedChunks.add(serde.serialize(false, chunk));
+        }
+    }
+
+    @Benchmark
+    public void serialize(Blackhole blackhole) {
+        for (Chunk chunk : chunks) {
+            blackhole.consume(serde.serialize(false, chunk));
+        }
+    }
+
+    @Benchmark
+    public void deserialize(Blackhole blackhole) {
+        for (SerializedChunk serializedChunk : serializedChunks) {
+            blackhole.consume(serde.deserialize(serializedChunk));
+        }
+    }
+}
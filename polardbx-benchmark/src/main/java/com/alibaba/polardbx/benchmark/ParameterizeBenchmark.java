@@ -0,0 +1,93 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark;
+
+import com.alibaba.polardbx.optimizer.parse.SqlParameterizeUtils;
+import com.alibaba.polardbx.optimizer.parse.bean.SqlParameterized;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL parameterization, executed for every statement before the plan cache lookup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParameterizeBenchmark {
+
+    @Param({"POINT_SELECT", "IN_LIST", "INSERT_VALUES", "JOIN"})
+    private String query;
+
+    /**
+     * length of IN list / number of VALUES rows
+     */
+    @Param({"10", "1000"})
+    private int listSize;
+
+    private String sql;
+
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder();
+        switch (query) {
+        case "POINT_SELECT":
+            builder.append("select id, k, c, pad from sbtest1 where id = 1024");
+            break;
+        case "IN_LIST":
+            builder.append("select id, k, c, pad from sbtest1 where id in (");
+            for (int i = 0; i < listSize; i++) {
+                builder.append(i == 0 ? "" : ", ").append(i * 7);
+            }
+            builder.append(")");
+            break;
+        case "INSERT_VALUES":
+            builder.append("insert into sbtest1 (id, k, c, pad) values ");
+            for (int i = 0; i < listSize; i++) {
+                builder.append(i == 0 ? "" : ", ")
+                    .append('(').append(i).append(", ").append(i * 31)
+                    .append(", '68487932199-96439406143-93774651418-41631865787', '22195207048-70116052123')");
+            }
+            break;
+        case "JOIN":
+            builder.append("select a.id, b.k from sbtest1 a join sbtest2 b on a.id = b.id "
+                + "where a.k between 100 and 200 and b.c like 'abc%' order by a.id limit 10");
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown query: " + query);
+        }
+        sql = builder.toString();
+    }
+
+    @Benchmark
+    public SqlParameterized parameterize() {
+        return SqlParameterizeUtils.parameterize(sql);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark;
+
+import com.alibaba.polardbx.common.utils.Pair;
+import com.alibaba.polardbx.config.ConfigDataMode;
+import com.alibaba.polardbx.druid.sql.dialect.mysql.ast.statement.MySqlCreateTableStatement;
+import com.alibaba.polardbx.optimizer.OptimizerContext;
+import com.alibaba.polardbx.optimizer.PlannerContext;
+import com.alibaba.polardbx.optimizer.config.table.SchemaManager;
+import com.alibaba.polardbx.optimizer.config.table.SimpleSchemaManager;
+import com.alibaba.polardbx.optimizer.config.table.TableMeta;
+import com.alibaba.polardbx.optimizer.config.table.statistic.StatisticManager;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.CursorMeta;
+import com.alibaba.polardbx.optimizer.core.planner.ExecutionPlan;
+import com.alibaba.polardbx.optimizer.core.planner.PlanCache;
+import com.alibaba.polardbx.optimizer.core.planner.SqlConverter;
+import com.alibaba.polardbx.optimizer.parse.FastsqlParser;
+import com.alibaba.polardbx.optimizer.parse.FastsqlUtils;
+import com.alibaba.polardbx.optimizer.parse.SqlParameterizeUtils;
+import com.alibaba.polardbx.optimizer.parse.TableMetaParser;
+import com.alibaba.polardbx.optimizer.parse.bean.SqlParameterized;
+import com.alibaba.polardbx.optimizer.planmanager.PlanManagerUtil;
+import com.alibaba.polardbx.optimizer.utils.CalciteUtils;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.sql.SqlNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plan cache hit path: cache key building, lookup and validation.
+ * <p>
+ * The cache is pre-populated with the validated logical plans of {@code planCount} templates over
+ * {@link #TABLE_COUNT} real tables, so cache keys carry table metas and validation looks them up like
+ * in production. Lookups follow the requested access pattern over the templates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PlanCacheBenchmark {
+
+    private static final String SCHEMA = "benchmark";
+
+    private static final int LOOKUP_COUNT = 1 << 16;
+
+    private static final int TABLE_COUNT = 16;
+
+    private static final String TABLE_DDL = "CREATE TABLE `sbtest%d` (\n"
+        + "  `id` int(11) NOT NULL AUTO_INCREMENT,\n"
+        + "  `k` int(11) NOT NULL DEFAULT '0',\n"
+        + "  `c` char(120) NOT NULL DEFAULT '',\n"
+        + "  `pad` char(60) NOT NULL DEFAULT '',\n"
+        + "  PRIMARY KEY (`id`),\n"
+        + "  KEY `k_1` (`k`)\n"
+        + ")";
+
+    @Param({"100", "10000"})
+    private int planCount;
+
+    @Param({"UNIFORM", "SKEWED"})
+    private BenchmarkData.KeyDistribution distribution;
+
+    private PlanCache planCache;
+    private PlannerContext plannerContext;
+    private SqlParameterized[] lookups;
+    private int next;
+
+    @Setup
+    public void setup() {
+        ConfigDataMode.setMode(ConfigDataMode.Mode.MOCK);
+        SimpleSchemaManager schemaManager = new SimpleSchemaManager(SCHEMA, null);
+        for (int i = 0; i < TABLE_COUNT; i++) {
+            MySqlCreateTableStatement stmt =
+                (MySqlCreateTableStatement) FastsqlUtils.parseSql(String.format(TABLE_DDL, i)).get(0);
+            TableMeta tableMeta = new TableMetaParser().parse(stmt, new ExecutionContext(SCHEMA));
+            tableMeta.setSchemaName(SCHEMA);
+            schemaManager.putTable(tableMeta.getTableName(), tableMeta);
+        }
+        OptimizerContext optimizerContext = new OptimizerContext(SCHEMA);
+        optimizerContext.setSchemaManager(schemaManager);
+        optimizerContext.setStatisticManager(
+            new StatisticManager(SCHEMA, null, null, null, null, new HashMap<>()));
+        OptimizerContext.loadContext(optimizerContext);
+
+        ExecutionContext executionContext = new ExecutionContext(SCHEMA);
+        Map<String, SchemaManager> schemaManagers = new HashMap<>();
+        schemaManagers.put(SCHEMA, schemaManager);
+        executionContext.setSchemaManagers(schemaManagers);
+        plannerContext = new PlannerContext(executionContext);
+
+        planCache = new PlanCache(SCHEMA);
+        SqlParameterized[] templates = new SqlParameterized[planCount];
+        for (int i = 0; i < planCount; i++) {
+            // distinct aliases make distinct templates, every fourth one is a top-n query
+            String sql = "select c as c" + i + ", pad from " + SCHEMA + ".sbtest" + (i % TABLE_COUNT)
+                + " where id = " + i + (i % 4 == 0 ? " order by k limit 10" : "");
+            templates[i] = SqlParameterizeUtils.parameterize(sql);
+            PlanCache.CacheKey cacheKey = PlanCache.getCacheKey(templates[i], plannerContext, false);
+            planCache.putCachePlan(cacheKey, buildPlan(templates[i], cacheKey, executionContext));
+        }
+
+        Random random = new Random(planCount);
+        lookups = new SqlParameterized[LOOKUP_COUNT];
+        for (int i = 0; i < LOOKUP_COUNT; i++) {
+            int index = distribution == BenchmarkData.KeyDistribution.SKEWED
+                ? (int) Math.pow(planCount, random.nextDouble()) - 1
+                : random.nextInt(planCount);
+            lookups[i] = templates[index];
+        }
+    }
+
+    @Benchmark
+    public ExecutionPlan get() throws ExecutionException {
+        SqlParameterized sqlParameterized = lookups[next];
+        next = (next + 1) & (LOOKUP_COUNT - 1);
+        return planCache.get(sqlParameterized, plannerContext, false);
+    }
+
+    /**
+     * Validated logical plan of the template, with the same cache state as a plan built by the cache loader
+     */
+    private static ExecutionPlan buildPlan(SqlParameterized sqlParameterized, PlanCache.CacheKey cacheKey,
+                                           ExecutionContext executionContext) {
+        SqlNode ast = new FastsqlParser()
+            .parse(sqlParameterized.getSql(), sqlParameterized.getParameters(), executionContext).get(0);
+        Set<Pair<String, String>> tableSet = PlanManagerUtil.getTableSetFromAst(ast);
+        SqlConverter converter = SqlConverter.getInstance(SCHEMA, executionContext);
+        RelNode plan = converter.toRel(converter.validate(ast), new PlannerContext(executionContext));
+        ExecutionPlan executionPlan =
+            new ExecutionPlan(ast, plan, CursorMeta.build(CalciteUtils.buildColumnMeta(plan, "benchmark")));
+        executionPlan.saveCacheState(tableSet,
+            PlanManagerUtil.computeTablesHashCode(tableSet, SCHEMA, executionContext),
+            cacheKey,
+            PlanManagerUtil.getTableMetaSetByTableSet(tableSet, executionContext));
+        return executionPlan;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark;
+
+import com.alibaba.polardbx.benchmark.BenchmarkData.KeyDistribution;
+import com.alibaba.polardbx.executor.operator.SortExec;
+import com.alibaba.polardbx.executor.utils.OrderByOption;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.google.common.collect.ImmutableList;
+import org.apache.calcite.rel.RelFieldCollation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * select * from t order by k [, v]
+ * <p>
+ * SortExec without spiller, which sorts in memory by {@code MemSortor}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SortBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int rowCount;
+
+    @Param({"1000", "1000000"})
+    private int cardinality;
+
+    @Param({"SEQUENTIAL", "UNIFORM", "SKEWED"})
+    private KeyDistribution distribution;
+
+    @Param({"1", "2"})
+    private int sortKeyCount;
+
+    private List<DataType> types;
+    private List<OrderByOption> orderBys;
+    private List<Chunk> input;
+
+    @Setup
+    public void setup() {
+        types = BenchmarkData.longTypes(2);
+        input = BenchmarkData.longChunks(rowCount, 2, cardinality, distribution);
+        ImmutableList.Builder<OrderByOption> builder = ImmutableList.builder();
+        for (int i = 0; i < sortKeyCount; i++) {
+            builder.add(new OrderByOption(i, RelFieldCollation.Direction.ASCENDING,
+                RelFieldCollation.NullDirection.FIRST));
+        }
+        orderBys = builder.build();
+    }
+
+    @Benchmark
+    public long sort() {
+        SortExec exec = new SortExec(types, orderBys, BenchmarkData.newContext(), null);
+        BenchmarkData.consume(exec, input);
+        return BenchmarkData.drain(exec);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.benchmark;
+
+import com.alibaba.polardbx.benchmark.BenchmarkData.KeyDistribution;
+import com.alibaba.polardbx.executor.vectorized.InputRefVectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.LiteralVectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpressionRegistry;
+import com.alibaba.polardbx.executor.vectorized.metadata.ArgumentInfo;
+import com.alibaba.polardbx.executor.vectorized.metadata.ArgumentKind;
+import com.alibaba.polardbx.executor.vectorized.metadata.ExpressionMode;
+import com.alibaba.polardbx.executor.vectorized.metadata.ExpressionSignature;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.MutableChunk;
+import com.alibaba.polardbx.optimizer.chunk.RandomAccessBlock;
+import com.alibaba.polardbx.optimizer.context.EvaluationContext;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Code generated comparison expressions over BIGINT columns: {@code k op const} and {@code k op v}.
+ * <p>
+ * FILTER mode expressions narrow the selection array in place, PROJECT mode expressions write a
+ * boolean column, which is what VectorizedFilterExec evaluates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VectorizedFilterBenchmark {
+
+    private static final int KEY_INDEX = 0;
+    private static final int VALUE_INDEX = 1;
+    private static final int OUTPUT_INDEX = 2;
+    private static final int LITERAL_INDEX = 3;
+
+    @Param({"100000"})
+    private int rowCount;
+
+    @Param({">", "=", "<="})
+    private String operator;
+
+    @Param({"true", "false"})
+    private boolean constOperand;
+
+    @Param({"FILTER", "PROJECT"})
+    private ExpressionMode mode;
+
+    /**
+     * fraction of rows satisfying {@code k > const} or {@code k <= const}
+     */
+    @Param({"0.01", "0.5"})
+    private double selectivity;
+
+    private List<Chunk> input;
+    private VectorizedExpression expression;
+    private MutableChunk preAllocatedChunk;
+    private EvaluationContext evaluationContext;
+    private int[] selection;
+
+    @Setup
+    public void setup() {
+        final long cardinality = 1_000_000L;
+        input = BenchmarkData.longChunks(rowCount, 2, cardinality, KeyDistribution.UNIFORM);
+
+        long literal = ">".equals(operator)
+            ? (long) (cardinality * (1 - selectivity))
+            : (long) (cardinality * selectivity);
+
+        ArgumentKind rightKind = constOperand ? ArgumentKind.Const : ArgumentKind.Variable;
+        ExpressionSignature signature = new ExpressionSignature(operator, new ArgumentInfo[] {
+            new ArgumentInfo(DataTypes.LongType, ArgumentKind.Variable),
+            new ArgumentInfo(DataTypes.LongType, rightKind)}, mode);
+        VectorizedExpression right = constOperand
+            ? new LiteralVectorizedExpression(DataTypes.LongType, literal, LITERAL_INDEX)
+            : new InputRefVectorizedExpression(DataTypes.LongType, VALUE_INDEX, VALUE_INDEX);
+        VectorizedExpression[] children = new VectorizedExpression[] {
+            new InputRefVectorizedExpression(DataTypes.LongType, KEY_INDEX, KEY_INDEX), right};
+        expression = VectorizedExpressionRegistry.builderConstructorOf(signature)
+            .orElseThrow(() -> new IllegalArgumentException("No vectorized expression for " + signature))
+            .build(OUTPUT_INDEX, children);
+
+        List<DataType<?>> slotTypes = ImmutableList.of(
+            DataTypes.LongType, DataTypes.LongType, DataTypes.LongType, DataTypes.LongType);
+        selection = new int[BenchmarkData.CHUNK_SIZE];
+        preAllocatedChunk = MutableChunk.newBuilder(BenchmarkData.CHUNK_SIZE)
+            .addSlotsByTypes(slotTypes)
+            .build();
+        evaluationContext = new EvaluationContext(preAllocatedChunk, new ExecutionContext());
+    }
+
+    @Benchmark
+    public long evaluate() {
+        long selected = 0;
+        for (Chunk chunk : input) {
+            int chunkSize = chunk.getPositionCount();
+            preAllocatedChunk.setSlotAt((RandomAccessBlock) chunk.getBlock(KEY_INDEX), KEY_INDEX);
+            preAllocatedChunk.setSlotAt((RandomAccessBlock) chunk.getBlock(VALUE_INDEX), VALUE_INDEX);
+            preAllocatedChunk.setSelection(selection);
+            preAllocatedChunk.setSelectionInUse(false);
+            preAllocatedChunk.setBatchSize(chunkSize);
+            preAllocatedChunk.reallocate(chunkSize, 2);
+
+            expression.eval(evaluationContext);
+            // FILTER mode shrinks the batch size to the selected rows
+            selected += preAllocatedChunk.batchSize();
+        }
+        return selected;
+    }
+}
@@ -29,6 +29,7 @@ import org.apache.calcite.sql.SqlExplainLevel;
 import org.apache.calcite.util.JsonBuilder;
 import org.apache.calcite.util.Pair;
 import org.apache.calcite.util.trace.CalcitePlanOptimizerTrace;
+import org.apache.calcite.util.trace.RuntimeStatisticsProfile;
 import org.apache.calcite.util.trace.RuntimeStatisticsSketch;
 
 import com.google.common.collect.ImmutableList;
@@ -130,6 +131,22 @@ public class RelDrdsJsonWriter implements RelWriter {
                 }
 
                 node.put("instances", sketch.getInstances());
+
+                RuntimeStatisticsProfile profile = sketch.getProfile();
+                if (profile != null) {
+                    node.put("actual_wall_time", profile.getWallDuration());
+                    node.put("actual_blocked_time", profile.getBlockedDurations());
+                    node.put("actual_input_rowcount", profile.getInputRowCount());
+                    node.put("actual_input_bytes", profile.getInputBytes());
+                    node.put("actual_output_bytes", sketch.getOutputBytes());
+                    node.put("hash_probes", profile.getHashProbeCount());
+                    node.put("hash_collisions", profile.getHashCollisionCount());
+                    List<Object> histogram = jsonBuilder.list();
+                    for (long count : profile.getDurationHistogram()) {
+                        histogram.add(count);
+                    }
+                    node.put("cpu_time_histogram", histogram);
+                }
             }
         }
 
@@ -30,11 +30,13 @@ import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.sql.SqlExplainLevel;
 import org.apache.calcite.util.Pair;
 import org.apache.calcite.util.trace.CalcitePlanOptimizerTrace;
+import org.apache.calcite.util.trace.RuntimeStatisticsProfile;
 import org.apache.calcite.util.trace.RuntimeStatisticsSketch;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -186,6 +188,33 @@ public class RelDrdsWriter implements RelWriter {
                 }
 
                 s.append(", instances = ").append(sketch.getInstances());
+
+                RuntimeStatisticsProfile profile = sketch.getProfile();
+                if (profile != null) {
+                    s.append(", wall time = ").append(String.format("%.3f", profile.getWallDuration()));
+                    if (!profile.getBlockedDurations().isEmpty()) {
+                        s.append(", blocked = {");
+                        int k = 0;
+                        for (Map.Entry<String, Double> blocked : profile.getBlockedDurations().entrySet()) {
+                            if (k++ > 0) {
+                                s.append(", ");
+                            }
+                            s.append(blocked.getKey()).append(" = ")
+                                    .append(String.format("%.3f", blocked.getValue()));
+                        }
+                        s.append("}");
+                    }
+                    if (profile.getInputRowCount() > 0) {
+                        s.append(", input rowcount = ").append(profile.getInputRowCount());
+                        s.append(", input bytes = ").append(profile.getInputBytes());
+                    }
+                    s.append(", output bytes = ").append(sketch.getOutputBytes());
+                    if (profile.getHashProbeCount() > 0) {
+                        s.append(", hash probes = ").append(profile.getHashProbeCount());
+                        s.append(", hash collisions = ").append(profile.getHashCollisionCount());
+                    }
+                    s.append(", cpu histogram = ").append(Arrays.toString(profile.getDurationHistogram()));
+                }
             }
         }
 
@@ -1043,6 +1043,14 @@ public enum SqlKind {
      * TDDL ADD {@code  BIT_XOR}
      */
     BIT_XOR,
+    /**
+     * The {@code APPROX_COUNT_DISTINCT} aggregate function, and its internal partial and merge phases.
+     */
+    APPROX_COUNT_DISTINCT,
+    /**
+     * The {@code APPROX_PERCENTILE} aggregate function, and its internal partial and merge phases.
+     */
+    APPROX_PERCENTILE,
     // Group functions
 
     /**
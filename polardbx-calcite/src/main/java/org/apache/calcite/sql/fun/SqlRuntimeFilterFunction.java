@@ -31,7 +31,16 @@ public class SqlRuntimeFilterFunction extends SqlFunction {
     private int id;
     private double guessSelectivity;
 
+    /**
+     * Whether this filter is pushed down to storage as range and IN-list predicates instead of bloom filter
+     */
+    private boolean usingRange;
+
     public SqlRuntimeFilterFunction(int id, double guessSelectivity) {
+        this(id, guessSelectivity, false);
+    }
+
+    public SqlRuntimeFilterFunction(int id, double guessSelectivity, boolean usingRange) {
         super(
             "BLOOMFILTER",
             SqlKind.RUNTIME_FILTER,
@@ -42,6 +51,7 @@ public class SqlRuntimeFilterFunction extends SqlFunction {
         );
         this.id = id;
         this.guessSelectivity = guessSelectivity;
+        this.usingRange = usingRange;
     }
 
     public int getId() {
@@ -52,8 +62,16 @@ public class SqlRuntimeFilterFunction extends SqlFunction {
         return guessSelectivity;
     }
 
+    public boolean isUsingRange() {
+        return usingRange;
+    }
+
     @Override
     public void unparse(SqlWriter writer, SqlCall call, int leftPrec, int rightPrec) {
+        if (usingRange) {
+            unparseRange(writer, call.operand(0));
+            return;
+        }
         writer.keyword("BLOOMFILTER");
         final SqlWriter.Frame frame =
             writer.startList(SqlWriter.FrameTypeEnum.FUN_CALL, "(", ")");
@@ -73,4 +91,28 @@ public class SqlRuntimeFilterFunction extends SqlFunction {
         }
         writer.endList(frame);
     }
+
+    /**
+     * Unparse as (key BETWEEN ? AND ? AND (? OR key IN (?))), the place holders are the min and max value of
+     * build keys, whether to skip the IN-list, and the IN-list which is expanded to build keys before execution.
+     */
+    private void unparseRange(SqlWriter writer, SqlNode key) {
+        final SqlWriter.Frame frame = writer.startList("(", ")");
+        key.unparse(writer, 0, 0);
+        writer.keyword("BETWEEN");
+        writer.print("?");
+        writer.keyword("AND");
+        writer.print("?");
+        writer.keyword("AND");
+        final SqlWriter.Frame inListFrame = writer.startList("(", ")");
+        writer.print("?");
+        writer.keyword("OR");
+        key.unparse(writer, 0, 0);
+        writer.keyword("IN");
+        final SqlWriter.Frame valuesFrame = writer.startList("(", ")");
+        writer.print("?");
+        writer.endList(valuesFrame);
+        writer.endList(inListFrame);
+        writer.endList(frame);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.calcite.util.trace;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Detailed profile of an operator, attached to the sketch only if the profile metric level is enabled
+ */
+public class RuntimeStatisticsProfile {
+
+    /**
+     * Total wall time during execution in seconds
+     */
+    private double wallDuration;
+
+    /**
+     * Sum of consumed rows and bytes, only for the operators fed by drivers
+     */
+    private long inputRowCount;
+
+    private long inputBytes;
+
+    /**
+     * Blocked time in seconds by the name of blocked reason
+     */
+    private final Map<String, Double> blockedDurations;
+
+    /**
+     * Histogram of CPU time of each call, see OperatorStatistics for the bucket bounds
+     */
+    private long[] durationHistogram;
+
+    /**
+     * Count of hash table lookups, and the ones colliding with other hash codes
+     */
+    private long hashProbeCount;
+
+    private long hashCollisionCount;
+
+    public RuntimeStatisticsProfile() {
+        this.blockedDurations = new TreeMap<>();
+        this.durationHistogram = new long[0];
+    }
+
+    @JsonCreator
+    public RuntimeStatisticsProfile(@JsonProperty("wallDuration") double wallDuration,
+                                    @JsonProperty("inputRowCount") long inputRowCount,
+                                    @JsonProperty("inputBytes") long inputBytes,
+                                    @JsonProperty("blockedDurations") Map<String, Double> blockedDurations,
+                                    @JsonProperty("durationHistogram") long[] durationHistogram,
+                                    @JsonProperty("hashProbeCount") long hashProbeCount,
+                                    @JsonProperty("hashCollisionCount") long hashCollisionCount) {
+        this.wallDuration = wallDuration;
+        this.inputRowCount = inputRowCount;
+        this.inputBytes = inputBytes;
+        this.blockedDurations = blockedDurations == null ? new TreeMap<>() : new TreeMap<>(blockedDurations);
+        this.durationHistogram = durationHistogram == null ? new long[0] : durationHistogram.clone();
+        this.hashProbeCount = hashProbeCount;
+        this.hashCollisionCount = hashCollisionCount;
+    }
+
+    public void addWallDuration(double seconds) {
+        this.wallDuration += seconds;
+    }
+
+    public void addInput(long rowCount, long bytes) {
+        this.inputRowCount += rowCount;
+        this.inputBytes += bytes;
+    }
+
+    public void addBlockedDuration(String reason, double seconds) {
+        this.blockedDurations.merge(reason, seconds, Double::sum);
+    }
+
+    public void addDurationHistogram(long[] histogram) {
+        if (histogram == null) {
+            return;
+        }
+        if (durationHistogram.length < histogram.length) {
+            long[] newHistogram = new long[histogram.length];
+            System.arraycopy(durationHistogram, 0, newHistogram, 0, durationHistogram.length);
+            durationHistogram = newHistogram;
+        }
+        for (int i = 0; i < histogram.length; i++) {
+            durationHistogram[i] += histogram[i];
+        }
+    }
+
+    public void addHashProbe(long probeCount, long collisionCount) {
+        this.hashProbeCount += probeCount;
+        this.hashCollisionCount += collisionCount;
+    }
+
+    public RuntimeStatisticsProfile merge(RuntimeStatisticsProfile other) {
+        if (other != null) {
+            addWallDuration(other.wallDuration);
+            addInput(other.inputRowCount, other.inputBytes);
+            other.blockedDurations.forEach(this::addBlockedDuration);
+            addDurationHistogram(other.durationHistogram);
+            addHashProbe(other.hashProbeCount, other.hashCollisionCount);
+        }
+        return this;
+    }
+
+    @JsonProperty
+    public double getWallDuration() {
+        return wallDuration;
+    }
+
+    @JsonProperty
+    public long getInputRowCount() {
+        return inputRowCount;
+    }
+
+    @JsonProperty
+    public long getInputBytes() {
+        return inputBytes;
+    }
+
+    @JsonProperty
+    public Map<String, Double> getBlockedDurations() {
+        return blockedDurations;
+    }
+
+    @JsonProperty
+    public long[] getDurationHistogram() {
+        return durationHistogram;
+    }
+
+    @JsonProperty
+    public long getHashProbeCount() {
+        return hashProbeCount;
+    }
+
+    @JsonProperty
+    public long getHashCollisionCount() {
+        return hashCollisionCount;
+    }
+}
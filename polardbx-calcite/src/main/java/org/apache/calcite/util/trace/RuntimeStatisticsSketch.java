@@ -67,6 +67,11 @@ public class RuntimeStatisticsSketch {
      */
     protected final int spillCnt;
 
+    /**
+     * Detailed profile of operator, null if not collected
+     */
+    protected RuntimeStatisticsProfile profile;
+
     public RuntimeStatisticsSketch(double startupDuration, double duration, double workerDuration, long rowCount,
                                    long outputBytes, long memory, int instances, int spillCnt) {
         this.startupDuration = startupDuration;
@@ -110,4 +115,12 @@ public class RuntimeStatisticsSketch {
     public int getSpillCnt() {
         return spillCnt;
     }
+
+    public RuntimeStatisticsProfile getProfile() {
+        return profile;
+    }
+
+    public void setProfile(RuntimeStatisticsProfile profile) {
+        this.profile = profile;
+    }
 }
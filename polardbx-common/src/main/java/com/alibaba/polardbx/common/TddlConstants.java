@@ -30,6 +30,7 @@ public class TddlConstants {
     public static final int DEFAULT_OPTIMIZER_CACHE_SIZE = 2000;
     public static final int MAX_OPTIMIZER_CACHE_SIZE = 10000;
     public static final int DEFAULT_PARSER_CACHE_SIZE = 1000;
+    public static final long DEFAULT_RESULT_CACHE_SIZE = 64 * 1024 * 1024L;
     public static final int DEFAULT_DIGEST_CACHE_SIZE = 1000;
 
     public static final int DEFAULT_CCL_CACHE_NOT_MATCH_CONN_SIZE = 20000;
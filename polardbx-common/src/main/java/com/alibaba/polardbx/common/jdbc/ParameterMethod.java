@@ -45,12 +45,17 @@ public enum ParameterMethod {
     setCharacterStream, setClob, setDate1, setDate2, setDouble, setFloat, setInt, setLong, setBit,
     setNull1, setNull2, setObject1, setObject2, setObject3, setRef, setShort, setString,
     setTime1, setTime2, setTimestamp1, setTimestamp2, setURL, setUnicodeStream, setTableName,
-    setBloomFilterData, setBloomFilterDataLength, setBloomFilterFuncNum;
+    setBloomFilterData, setBloomFilterDataLength, setBloomFilterFuncNum,
+    setRuntimeFilterMinValue, setRuntimeFilterMaxValue, setRuntimeFilterSkipInList, setRuntimeFilterInList;
 
     public boolean isBloomFilterParameterMethod() {
         return (this == setBloomFilterData)
             || (this == setBloomFilterDataLength)
-            || (this == setBloomFilterFuncNum);
+            || (this == setBloomFilterFuncNum)
+            || (this == setRuntimeFilterMinValue)
+            || (this == setRuntimeFilterMaxValue)
+            || (this == setRuntimeFilterSkipInList)
+            || (this == setRuntimeFilterInList);
     }
 
     public static void setParameters(PreparedStatement stmt, List<Object[]> methodAndArgsList) throws SQLException {
@@ -214,8 +219,28 @@ public enum ParameterMethod {
         case setBloomFilterFuncNum:
             stmt.setInt(index, ((BloomFilterInfo) args[2]).getHashFuncNum());
             break;
+        case setRuntimeFilterMinValue:
+            stmt.setLong(index, getRuntimeFilterMinValue((BloomFilterInfo) args[2]));
+            break;
+        case setRuntimeFilterMaxValue:
+            Long maxValue = ((BloomFilterInfo) args[2]).getMaxValue();
+            stmt.setLong(index, maxValue == null ? Long.MAX_VALUE : maxValue);
+            break;
+        case setRuntimeFilterSkipInList:
+            // IN-list is skipped unless it has been expanded to the actual values
+            stmt.setInt(index, 1);
+            break;
+        case setRuntimeFilterInList:
+            // placeholder of the skipped IN-list, any value is fine
+            stmt.setLong(index, getRuntimeFilterMinValue((BloomFilterInfo) args[2]));
+            break;
         default:
             throw new IllegalArgumentException("Unhandled ParameterMethod:" + this.name());
         }
     }
+
+    private static long getRuntimeFilterMinValue(BloomFilterInfo bloomFilterInfo) {
+        Long minValue = bloomFilterInfo.getMinValue();
+        return minValue == null ? Long.MIN_VALUE : minValue;
+    }
 }
@@ -58,6 +58,16 @@ public class ConnectionParams {
             false,
             false);
 
+    public static final BooleanConfigParam ENABLE_SEQUENCE_PREFETCH =
+        new BooleanConfigParam(ConnectionProperties.ENABLE_SEQUENCE_PREFETCH,
+            true,
+            true);
+
+    public static final BooleanConfigParam ENABLE_METADB_CHANGE_PUSH =
+        new BooleanConfigParam(ConnectionProperties.ENABLE_METADB_CHANGE_PUSH,
+            true,
+            true);
+
     public static final BooleanConfigParam PURE_ASYNC_DDL_MODE =
         new BooleanConfigParam(ConnectionProperties.PURE_ASYNC_DDL_MODE,
             false,
@@ -730,6 +740,25 @@ public class ConnectionParams {
         4,
         false);
 
+    public static final BooleanConfigParam ENABLE_FASTCHECKER_RANGE_CHECK = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_FASTCHECKER_RANGE_CHECK,
+        true,
+        true);
+
+    public static final IntConfigParam FASTCHECKER_RANGE_ROW_COUNT = new IntConfigParam(
+        ConnectionProperties.FASTCHECKER_RANGE_ROW_COUNT,
+        1000,
+        Integer.MAX_VALUE,
+        1000000,
+        true);
+
+    public static final IntConfigParam FASTCHECKER_MAX_RANGE_COUNT = new IntConfigParam(
+        ConnectionProperties.FASTCHECKER_MAX_RANGE_COUNT,
+        1,
+        65536,
+        1024,
+        true);
+
     public static final StringConfigParam GSI_BACKFILL_POSITION_MARK = new StringConfigParam(
         ConnectionProperties.GSI_BACKFILL_POSITION_MARK,
         "",
@@ -910,6 +939,15 @@ public class ConnectionParams {
     public static final IntConfigParam PREFETCH_SHARDS = new IntConfigParam(
         ConnectionProperties.PREFETCH_SHARDS, -1, Integer.MAX_VALUE, -1, true);
 
+    public static final BooleanConfigParam ENABLE_ADAPTIVE_PREFETCH = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_ADAPTIVE_PREFETCH, true, true);
+
+    public static final BooleanConfigParam ENABLE_X_COLUMNAR_FETCH = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_X_COLUMNAR_FETCH, true, true);
+
+    public static final BooleanConfigParam ENABLE_X_PIPELINE_WRITE = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_X_PIPELINE_WRITE, true, true);
+
     public static final BooleanConfigParam ENABLE_PUSH_PROJECT = new BooleanConfigParam(
         ConnectionProperties.ENABLE_PUSH_PROJECT, true, true);
 
@@ -1080,6 +1118,24 @@ public class ConnectionParams {
     public static final BooleanConfigParam PLAN_CACHE = new BooleanConfigParam(ConnectionProperties.PLAN_CACHE, true,
         true);
 
+    public static final BooleanConfigParam ENABLE_FAST_PARAMETERIZE = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_FAST_PARAMETERIZE, true, true);
+
+    public static final BooleanConfigParam ENABLE_PREPARED_PLAN_BINDING = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_PREPARED_PLAN_BINDING, true, true);
+
+    public static final BooleanConfigParam ENABLE_PLAN_CACHE_ADMISSION = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_PLAN_CACHE_ADMISSION, true, true);
+
+    public static final BooleanConfigParam ENABLE_RESULT_CACHE = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_RESULT_CACHE, false, true);
+
+    public static final LongConfigParam RESULT_CACHE_MAX_ROWS = new LongConfigParam(
+        ConnectionProperties.RESULT_CACHE_MAX_ROWS, 1L, Long.MAX_VALUE, 10000L, true);
+
+    public static final LongConfigParam RESULT_CACHE_EXPIRE_TIME = new LongConfigParam(
+        ConnectionProperties.RESULT_CACHE_EXPIRE_TIME, 0L, Long.MAX_VALUE, 60 * 1000L, true);
+
     public static final BooleanConfigParam SKIP_READONLY_CHECK = new BooleanConfigParam(
         ConnectionProperties.SKIP_READONLY_CHECK, false, true);
 
@@ -1164,7 +1220,7 @@ public class ConnectionParams {
         ConnectionProperties.POLARDBX_SLAVE_INSTANCE_FIRST, true, true);
 
     public static final IntConfigParam MPP_METRIC_LEVEL = new IntConfigParam(
-        ConnectionProperties.MPP_METRIC_LEVEL, 0, 3, 3, true);
+        ConnectionProperties.MPP_METRIC_LEVEL, 0, 4, 3, true);
 
     public static final BooleanConfigParam MPP_QUERY_NEED_RESERVE = new BooleanConfigParam(
         ConnectionProperties.MPP_QUERY_NEED_RESERVE, false, true);
@@ -1248,6 +1304,9 @@ public class ConnectionParams {
     public static final BooleanConfigParam ENABLE_SPILL = new BooleanConfigParam(
         ConnectionProperties.ENABLE_SPILL, false, true);
 
+    public static final BooleanConfigParam ENABLE_PARTITION_WISE_JOIN = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_PARTITION_WISE_JOIN, true, true);
+
     public static final IntConfigParam HYBRID_HASH_JOIN_BUCKET_NUM = new IntConfigParam(
         ConnectionProperties.HYBRID_HASH_JOIN_BUCKET_NUM, 1, Integer.MAX_VALUE,
         4, true);
@@ -1510,6 +1569,12 @@ public class ConnectionParams {
     public static final BooleanConfigParam STORAGE_SUPPORTS_BLOOM_FILTER = new BooleanConfigParam(
         ConnectionProperties.STORAGE_SUPPORTS_BLOOM_FILTER, false, false);
 
+    public static final BooleanConfigParam ENABLE_RUNTIME_FILTER_RANGE_PUSHDOWN = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_RUNTIME_FILTER_RANGE_PUSHDOWN, false, true);
+
+    public static final IntConfigParam RUNTIME_FILTER_IN_LIST_MAX_SIZE = new IntConfigParam(
+        ConnectionProperties.RUNTIME_FILTER_IN_LIST_MAX_SIZE, 0, Integer.MAX_VALUE, 2048, true);
+
     public static final IntConfigParam WAIT_BLOOM_FILTER_TIMEOUT_MS = new IntConfigParam(
         ConnectionProperties.WAIT_BLOOM_FILTER_TIMEOUT_MS, 1, Integer.MAX_VALUE, 60000, true);
 
@@ -1697,6 +1762,15 @@ public class ConnectionParams {
     public static final StringConfigParam STATISTIC_NDV_SKETCH_SAMPLE_RATE = new StringConfigParam(
         ConnectionProperties.STATISTIC_NDV_SKETCH_SAMPLE_RATE, null, true);
 
+    public static final BooleanConfigParam ENABLE_INCREMENTAL_STATISTIC = new BooleanConfigParam(
+        ConnectionProperties.ENABLE_INCREMENTAL_STATISTIC, true, true);
+
+    public static final FloatConfigParam STATISTIC_SHARD_SKETCH_REFRESH_RATIO = new FloatConfigParam(
+        ConnectionProperties.STATISTIC_SHARD_SKETCH_REFRESH_RATIO, 0f, 1f, 0.1f, true);
+
+    public static final IntConfigParam STATISTIC_SHARD_SKETCH_EXPIRE_TIME = new IntConfigParam(
+        ConnectionProperties.STATISTIC_SHARD_SKETCH_EXPIRE_TIME, 60, Integer.MAX_VALUE, 60 * 60 * 24 * 7, true);
+
     public static final IntConfigParam CDC_STARTUP_MODE = new IntConfigParam(
         ConnectionProperties.CDC_STARTUP_MODE, 0, 2, 1, true);
 
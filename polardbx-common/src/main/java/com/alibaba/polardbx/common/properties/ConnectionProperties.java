@@ -22,6 +22,36 @@ public class ConnectionProperties {
     public static final String PLAN_CACHE = "PLAN_CACHE";
     public static final String PREPARE_OPTIMIZE = "PREPARE_OPTIMIZE";
 
+    /**
+     * 是否对已验证的 SQL 模板只做词法分析参数化, 跳过 AST 解析
+     */
+    public static final String ENABLE_FAST_PARAMETERIZE = "ENABLE_FAST_PARAMETERIZE";
+
+    /**
+     * 是否将计划缓存中的执行计划绑定到服务端预处理语句, 执行时跳过计划缓存查找
+     */
+    public static final String ENABLE_PREPARED_PLAN_BINDING = "ENABLE_PREPARED_PLAN_BINDING";
+
+    /**
+     * 是否只将访问频繁的大执行计划放入计划缓存
+     */
+    public static final String ENABLE_PLAN_CACHE_ADMISSION = "ENABLE_PLAN_CACHE_ADMISSION";
+
+    /**
+     * 是否缓存只读查询的结果
+     */
+    public static final String ENABLE_RESULT_CACHE = "ENABLE_RESULT_CACHE";
+
+    /**
+     * 单条查询结果可以被缓存的最大行数
+     */
+    public static final String RESULT_CACHE_MAX_ROWS = "RESULT_CACHE_MAX_ROWS";
+
+    /**
+     * 结果缓存的过期时间(ms), 限制其他节点的修改造成的数据延迟
+     */
+    public static final String RESULT_CACHE_EXPIRE_TIME = "RESULT_CACHE_EXPIRE_TIME";
+
     public static final String ENABLE_RECYCLEBIN = "ENABLE_RECYCLEBIN";
 
     public static final String SHOW_TABLES_CACHE = "SHOW_TABLES_CACHE";
@@ -146,6 +176,16 @@ public class ConnectionProperties {
 
     public static final String ALLOW_SIMPLE_SEQUENCE = "ALLOW_SIMPLE_SEQUENCE";
 
+    /**
+     * 是否在后台预取 group sequence 的下一个区间
+     */
+    public static final String ENABLE_SEQUENCE_PREFETCH = "ENABLE_SEQUENCE_PREFETCH";
+
+    /**
+     * 是否通过节点间同步推送 metadb 配置变更，开启后定时全量扫描降为兜底
+     */
+    public static final String ENABLE_METADB_CHANGE_PUSH = "ENABLE_METADB_CHANGE_PUSH";
+
     public static final String PURE_ASYNC_DDL_MODE = "PURE_ASYNC_DDL_MODE";
 
     public static final String AUTO_ADD_APP_MODE = "AUTO_ADD_APP_MODE";
@@ -438,6 +478,18 @@ public class ConnectionProperties {
 
     public static final String GSI_FASTCHECKER_PARALLELISM = "GSI_FASTCHECKER_PARALLELISM";
 
+    /**
+     * split physical tables into primary key ranges and check them range by range
+     */
+    public static final String ENABLE_FASTCHECKER_RANGE_CHECK = "ENABLE_FASTCHECKER_RANGE_CHECK";
+
+    /**
+     * expected row count of one range in FastChecker
+     */
+    public static final String FASTCHECKER_RANGE_ROW_COUNT = "FASTCHECKER_RANGE_ROW_COUNT";
+
+    public static final String FASTCHECKER_MAX_RANGE_COUNT = "FASTCHECKER_MAX_RANGE_COUNT";
+
     public static final String SCALEOUT_DML_PUSHDOWN_OPTIMIZATION = "SCALEOUT_DML_PUSHDOWN_OPTIMIZATION";
 
     public static final String SCALEOUT_DML_PUSHDOWN_BATCH_LIMIT = "SCALEOUT_DML_PUSHDOWN_BATCH_LIMIT";
@@ -519,6 +571,24 @@ public class ConnectionProperties {
 
     public static final String PREFETCH_SHARDS = "PREFETCH_SHARDS";
 
+    /**
+     * adjust the prefetch concurrency of table scan by the consumer speed,
+     * and dispatch splits to the storage nodes with less latency first
+     */
+    public static final String ENABLE_ADAPTIVE_PREFETCH = "ENABLE_ADAPTIVE_PREFETCH";
+
+    /**
+     * decode the chunk results of X-Protocol into blocks column by column in table scan,
+     * instead of appending the values to block builders one by one
+     */
+    public static final String ENABLE_X_COLUMNAR_FETCH = "ENABLE_X_COLUMNAR_FETCH";
+
+    /**
+     * pipeline the physical writes on the same group with one X-Protocol session,
+     * instead of waiting for the result of each statement before sending the next one
+     */
+    public static final String ENABLE_X_PIPELINE_WRITE = "ENABLE_X_PIPELINE_WRITE";
+
     public static final String MAX_CACHE_PARAMS = "MAX_CACHE_PARAMS";
 
     public static final String MAX_EXECUTE_MEMORY = "MAX_EXECUTE_MEMORY";
@@ -815,6 +885,22 @@ public class ConnectionProperties {
 
     public static final String MPP_MAX_SPILL_FD_THRESHOLD = "MPP_MAX_SPILL_FD_THRESHOLD";
 
+    /**
+     * compression of spill files: NONE, LZ4 or ADAPTIVE(LZ4 by default, DEFLATE for well-compressible chunks)
+     */
+    public static final String MPP_SPILL_COMPRESSION = "MPP_SPILL_COMPRESSION";
+
+    /**
+     * whether to write and verify the checksum of each chunk in spill files
+     */
+    public static final String MPP_SPILL_CHECKSUM = "MPP_SPILL_CHECKSUM";
+
+    /**
+     * whether to build and probe one hash table per partition when both join inputs are partitioned
+     * on the join key in the same table group
+     */
+    public static final String ENABLE_PARTITION_WISE_JOIN = "ENABLE_PARTITION_WISE_JOIN";
+
     public static final String HYBRID_HASH_JOIN_BUCKET_NUM = "HYBRID_HASH_JOIN_BUCKET_NUM";
 
     public static final String HYBRID_HASH_JOIN_RECURSIVE_BUCKET_NUM = "HYBRID_HASH_JOIN_RECURSIVE_BUCKET_NUM";
@@ -955,6 +1041,17 @@ public class ConnectionProperties {
 
     public static final String STORAGE_SUPPORTS_BLOOM_FILTER = "STORAGE_SUPPORTS_BLOOM_FILTER";
 
+    /**
+     * push runtime filters down to storage as range and IN-list predicates on integer columns,
+     * used when storage does not support bloom filter
+     */
+    public static final String ENABLE_RUNTIME_FILTER_RANGE_PUSHDOWN = "ENABLE_RUNTIME_FILTER_RANGE_PUSHDOWN";
+
+    /**
+     * max number of distinct build keys to push down as IN-list along with the range
+     */
+    public static final String RUNTIME_FILTER_IN_LIST_MAX_SIZE = "RUNTIME_FILTER_IN_LIST_MAX_SIZE";
+
     public static final String WAIT_BLOOM_FILTER_TIMEOUT_MS = "WAIT_BLOOM_FILTER_TIMEOUT_MS";
 
     public static final String RESUME_SCAN_STEP_SIZE = "RESUME_SCAN_STEP_SIZE";
@@ -1069,6 +1166,21 @@ public class ConnectionProperties {
 
     public static final String STATISTIC_NDV_SKETCH_SAMPLE_RATE = "STATISTIC_NDV_SKETCH_SAMPLE_RATE";
 
+    /**
+     * maintain per physical table sketches of histogram and topN, and only re-sample the changed ones
+     */
+    public static final String ENABLE_INCREMENTAL_STATISTIC = "ENABLE_INCREMENTAL_STATISTIC";
+
+    /**
+     * re-sample a physical table if rows modified since its last sampling exceed this ratio of table rows
+     */
+    public static final String STATISTIC_SHARD_SKETCH_REFRESH_RATIO = "STATISTIC_SHARD_SKETCH_REFRESH_RATIO";
+
+    /**
+     * re-sample a physical table if its sketches are older than this, in seconds
+     */
+    public static final String STATISTIC_SHARD_SKETCH_EXPIRE_TIME = "STATISTIC_SHARD_SKETCH_EXPIRE_TIME";
+
     public static final String AUTO_COLLECT_NDV_SKETCH = "AUTO_COLLECT_NDV_SKETCH";
 
     public static final String CDC_STARTUP_MODE = "CDC_STARTUP_MODE";
@@ -43,6 +43,14 @@ public class DynamicConfig {
                 autoPartitionPartitions = parseValue(value, Long.class, autoPartitionPartitionsDefault);
                 break;
 
+            case ConnectionProperties.ENABLE_SEQUENCE_PREFETCH:
+                enableSequencePrefetch = parseValue(value, Boolean.class, enableSequencePrefetchDefault);
+                break;
+
+            case ConnectionProperties.ENABLE_METADB_CHANGE_PUSH:
+                enableMetaDbChangePush = parseValue(value, Boolean.class, enableMetaDbChangePushDefault);
+                break;
+
             default:
                 break;
             }
@@ -81,6 +89,22 @@ public class DynamicConfig {
         return autoPartitionPartitions;
     }
 
+    private static final boolean enableSequencePrefetchDefault =
+        parseValue(ConnectionParams.ENABLE_SEQUENCE_PREFETCH.getDefault(), Boolean.class, true);
+    private volatile boolean enableSequencePrefetch = enableSequencePrefetchDefault;
+
+    public boolean isEnableSequencePrefetch() {
+        return enableSequencePrefetch;
+    }
+
+    private static final boolean enableMetaDbChangePushDefault =
+        parseValue(ConnectionParams.ENABLE_METADB_CHANGE_PUSH.getDefault(), Boolean.class, true);
+    private volatile boolean enableMetaDbChangePush = enableMetaDbChangePushDefault;
+
+    public boolean isEnableMetaDbChangePush() {
+        return enableMetaDbChangePush;
+    }
+
     public static <T> T parseValue(String value, Class<T> type, T defaultValue) {
         if (value == null) {
             return defaultValue;
@@ -21,7 +21,8 @@ public enum MetricLevel {
     DEFAULT(0),
     SQL(1),
     PIPELINE(2),
-    OPERATOR(3);
+    OPERATOR(3),
+    PROFILE(4);
 
     MetricLevel(int metricLevel) {
         this.metricLevel = metricLevel;
@@ -38,6 +39,8 @@ public enum MetricLevel {
             return 2;
         } else if ("operator".equalsIgnoreCase(strLevel)) {
             return 3;
+        } else if ("profile".equalsIgnoreCase(strLevel)) {
+            return 4;
         } else {
             return 0;
         }
@@ -53,6 +56,8 @@ public enum MetricLevel {
             return "pipeline";
         case 3:
             return "operator";
+        case 4:
+            return "profile";
         default:
             return "default";
         }
@@ -69,4 +74,11 @@ public enum MetricLevel {
     public static boolean isOperatorMetricEnabled(int metricLevel) {
         return metricLevel >= MetricLevel.OPERATOR.metricLevel;
     }
+
+    /**
+     * Operator metrics with wall time, blocked time, histograms, etc.
+     */
+    public static boolean isOperatorProfileEnabled(int metricLevel) {
+        return metricLevel >= MetricLevel.PROFILE.metricLevel;
+    }
 }
\ No newline at end of file
@@ -78,6 +78,8 @@ import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_QU
 import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_QUERY_REMOTE_TASK_MIN_ERROR;
 import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_REMOTE_TASK_CALLBACK_THREAD_SIZE;
 import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_SCHEMA_MAX_MEM;
+import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_SPILL_CHECKSUM;
+import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_SPILL_COMPRESSION;
 import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_SPILL_PATHS;
 import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_SPLIT_RUN_QUANTA;
 import static com.alibaba.polardbx.common.properties.ConnectionProperties.MPP_STATUS_REFRESH_MAX_WAIT;
@@ -288,6 +290,12 @@ public class MppConfig {
             case MPP_MAX_SPILL_FD_THRESHOLD:
                 maxSpillFdThreshold = parseValue(value, Integer.class, DEFAULT_MAX_SPILL_FD_THRESHOLD);
                 break;
+            case MPP_SPILL_COMPRESSION:
+                spillCompression = parseValue(value, String.class, DEFAULT_SPILL_COMPRESSION).toUpperCase();
+                break;
+            case MPP_SPILL_CHECKSUM:
+                spillChecksumEnabled = parseValue(value, Boolean.class, DEFAULT_SPILL_CHECKSUM_ENABLED);
+                break;
             case MPP_MAX_SPILL_SPACE_THRESHOLD:
                 maxSpillSpaceThreshold = parseValue(value, Double.class, DEFAULT_MAX_SPILL_SPACE_THRESHOLD);
                 break;
@@ -720,6 +728,20 @@ public class MppConfig {
         return maxSpillFdThreshold;
     }
 
+    private static final String DEFAULT_SPILL_COMPRESSION = "ADAPTIVE";
+    private String spillCompression = DEFAULT_SPILL_COMPRESSION;
+
+    public String getSpillCompression() {
+        return spillCompression;
+    }
+
+    private static final boolean DEFAULT_SPILL_CHECKSUM_ENABLED = true;
+    private boolean spillChecksumEnabled = DEFAULT_SPILL_CHECKSUM_ENABLED;
+
+    public boolean isSpillChecksumEnabled() {
+        return spillChecksumEnabled;
+    }
+
     private static final double DEFAULT_MAX_SPILL_SPACE_THRESHOLD = 0.1;
     private double maxSpillSpaceThreshold = DEFAULT_MAX_SPILL_SPACE_THRESHOLD;
 
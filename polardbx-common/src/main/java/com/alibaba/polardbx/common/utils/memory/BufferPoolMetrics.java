@@ -0,0 +1,63 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.common.utils.memory;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of a network buffer pool. A hit is an allocation served from the
+ * pool, a miss is an allocation that had to create a new (non-pooled) buffer,
+ * and an overflow is a recycled buffer that was dropped because the pool did
+ * not create it or already holds it.
+ */
+public final class BufferPoolMetrics {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+
+    public void hit() {
+        hits.increment();
+    }
+
+    public void miss() {
+        misses.increment();
+    }
+
+    public void overflow() {
+        overflows.increment();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getOverflowCount() {
+        return overflows.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "BufferPoolMetrics{hit=" + getHitCount() + ", miss=" + getMissCount() + ", overflow="
+            + getOverflowCount() + '}';
+    }
+}
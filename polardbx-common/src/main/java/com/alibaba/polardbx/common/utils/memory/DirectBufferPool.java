@@ -0,0 +1,246 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.common.utils.memory;
+
+import com.google.common.collect.MapMaker;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free pool of direct byte buffers shared by the frontend and the rpc
+ * network layers.
+ * <p>
+ * Buffers are grouped into power-of-two size classes starting at the chunk
+ * size. The smallest class is fully allocated up front, the bigger ones are
+ * populated lazily and are bounded so that each of them holds at most half of
+ * the memory of the previous one. Every size class is split into stripes
+ * picked by the calling thread, so the reactor thread and the handler threads
+ * of a processor rarely touch the same queue; a stripe that runs dry steals
+ * from its neighbours. Stripes are lock-free queues.
+ * <p>
+ * Requests that do not fit any size class, or arrive when the pool has been
+ * drained, are served with heap buffers which are simply ignored on recycle.
+ * The pool tracks the buffers it created by identity and drops any other
+ * buffer on recycle, as well as a buffer recycled twice.
+ */
+public final class DirectBufferPool {
+
+    private static final int MAX_STRIPES = 16;
+
+    private final int chunkSize;
+    private final ByteOrder order;
+    private final SizeClass[] sizeClasses;
+    private final BufferPoolMetrics metrics = new BufferPoolMetrics();
+
+    public DirectBufferPool(int bufferSize, int chunkSize, int sizeClassCount, ByteOrder order) {
+        if (chunkSize <= 0 || bufferSize < chunkSize || sizeClassCount <= 0) {
+            throw new IllegalArgumentException(
+                "Illegal buffer pool config: bufferSize=" + bufferSize + ", chunkSize=" + chunkSize
+                    + ", sizeClassCount=" + sizeClassCount);
+        }
+        this.chunkSize = chunkSize;
+        this.order = order;
+        int capacity = bufferSize / chunkSize;
+        capacity = (bufferSize % chunkSize == 0) ? capacity : capacity + 1;
+        this.sizeClasses = new SizeClass[sizeClassCount];
+        this.sizeClasses[0] = new SizeClass(chunkSize, capacity);
+        for (int i = 1; i < sizeClassCount; i++) {
+            long size = (long) chunkSize << i;
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Size class too large: " + size);
+            }
+            int maxItems = (int) Math.max(1, (bufferSize >> i) / size);
+            this.sizeClasses[i] = new SizeClass((int) size, maxItems);
+        }
+        // Only the smallest size class is preallocated.
+        this.sizeClasses[0].fill();
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Number of buffers of chunk size the pool may hold.
+     */
+    public int capacity() {
+        return sizeClasses[0].maxItems;
+    }
+
+    /**
+     * Number of free buffers of chunk size currently in the pool.
+     */
+    public int size() {
+        return sizeClasses[0].size();
+    }
+
+    public BufferPoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    public ByteBuffer allocate() {
+        return allocate(sizeClasses[0]);
+    }
+
+    /**
+     * Allocate a buffer with at least {@code size} bytes of capacity.
+     */
+    public ByteBuffer allocate(int size) {
+        SizeClass sizeClass = sizeClassOf(size);
+        if (sizeClass == null) {
+            metrics.miss();
+            return ByteBuffer.allocate(size).order(order);
+        }
+        return allocate(sizeClass);
+    }
+
+    public void recycle(ByteBuffer buffer) {
+        // Only direct buffers of an exact size class are reused.
+        if (buffer == null || !buffer.isDirect()) {
+            return;
+        }
+        SizeClass sizeClass = sizeClassOf(buffer.capacity());
+        if (sizeClass == null || sizeClass.size != buffer.capacity()) {
+            return;
+        }
+        if (!sizeClass.offer(buffer)) {
+            // Not created by the pool or already recycled, keeping it would let the pool hold more
+            // direct memory than its bound or hand out the same buffer twice.
+            metrics.overflow();
+        }
+    }
+
+    private ByteBuffer allocate(SizeClass sizeClass) {
+        ByteBuffer buffer = sizeClass.poll();
+        if (buffer != null) {
+            metrics.hit();
+            return buffer;
+        }
+        metrics.miss();
+        buffer = sizeClass.tryCreate();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(sizeClass.size).order(order);
+        }
+        return buffer;
+    }
+
+    private SizeClass sizeClassOf(int size) {
+        for (SizeClass sizeClass : sizeClasses) {
+            if (size <= sizeClass.size) {
+                return sizeClass;
+            }
+        }
+        return null;
+    }
+
+    private static int stripeCount(int maxItems) {
+        int stripes = Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors());
+        stripes = Math.max(1, Math.min(stripes, maxItems));
+        // Round down to a power of two so the stripe can be picked with a mask.
+        return Integer.highestOneBit(stripes);
+    }
+
+    private final class SizeClass {
+
+        private final int size;
+        private final int maxItems;
+        private final ConcurrentLinkedQueue<ByteBuffer>[] stripes;
+        private final int stripeMask;
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicInteger free = new AtomicInteger();
+        /**
+         * Buffers created by this size class, compared by identity, mapped to whether it is in the pool.
+         * Weak keys let a leaked buffer be collected.
+         */
+        private final ConcurrentMap<ByteBuffer, AtomicBoolean> owned = new MapMaker().weakKeys().makeMap();
+
+        @SuppressWarnings("unchecked")
+        SizeClass(int size, int maxItems) {
+            this.size = size;
+            this.maxItems = maxItems;
+            int stripeCount = stripeCount(maxItems);
+            this.stripes = new ConcurrentLinkedQueue[stripeCount];
+            for (int i = 0; i < stripeCount; i++) {
+                stripes[i] = new ConcurrentLinkedQueue<>();
+            }
+            this.stripeMask = stripeCount - 1;
+        }
+
+        void fill() {
+            for (int i = 0; i < maxItems; i++) {
+                ByteBuffer buffer = tryCreate();
+                if (buffer == null) {
+                    break;
+                }
+                owned.get(buffer).set(true);
+                stripes[i & stripeMask].offer(buffer);
+                free.incrementAndGet();
+            }
+        }
+
+        ByteBuffer tryCreate() {
+            if (created.incrementAndGet() > maxItems) {
+                created.decrementAndGet();
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.allocateDirect(size).order(order);
+            owned.put(buffer, new AtomicBoolean(false));
+            return buffer;
+        }
+
+        ByteBuffer poll() {
+            int home = stripeIndex();
+            for (int i = 0; i < stripes.length; i++) {
+                ByteBuffer buffer = stripes[(home + i) & stripeMask].poll();
+                if (buffer != null) {
+                    free.decrementAndGet();
+                    owned.get(buffer).set(false);
+                    return buffer;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return false if the buffer is not created by the pool or is already in the pool
+         */
+        boolean offer(ByteBuffer buffer) {
+            AtomicBoolean inPool = owned.get(buffer);
+            if (inPool == null || !inPool.compareAndSet(false, true)) {
+                return false;
+            }
+            buffer.clear();
+            stripes[stripeIndex()].offer(buffer);
+            free.incrementAndGet();
+            return true;
+        }
+
+        int size() {
+            return free.get();
+        }
+
+        private int stripeIndex() {
+            return (int) Thread.currentThread().getId() & stripeMask;
+        }
+    }
+}
@@ -156,6 +156,45 @@ public class TimeStorage {
         return t;
     }
 
+    /**
+     * Read the fields of non-negative packed datetime / date directly,
+     * without creating MysqlDateTime object.
+     */
+    public static long readYear(long l) {
+        return (l >> (24 + 17 + 5)) / 13;
+    }
+
+    public static long readMonth(long l) {
+        return (l >> (24 + 17 + 5)) % 13;
+    }
+
+    public static long readDay(long l) {
+        return (l >> (24 + 17)) % (1L << 5);
+    }
+
+    public static long readHour(long l) {
+        return (l >> (24 + 12)) % (1L << 5);
+    }
+
+    public static long readMinute(long l) {
+        return (l >> (24 + 6)) % (1L << 6);
+    }
+
+    public static long readSecond(long l) {
+        return (l >> 24) % (1L << 6);
+    }
+
+    public static long readMicroSecond(long l) {
+        return l % (1L << 24);
+    }
+
+    /**
+     * Truncate the time part of packed datetime, the result is the packed date.
+     */
+    public static long truncateToDate(long l) {
+        return (l >> (24 + 17)) << (24 + 17);
+    }
+
     public static byte[] storeAsBinary(long l, int decimal) {
 
         Preconditions.checkArgument(decimal <= 6);
@@ -22,7 +22,12 @@ import com.google.common.base.Preconditions;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 
+/**
+ * Data of a runtime filter, the bloom filter bitmap and optionally the range and the distinct values
+ * of single integer build key, which could be pushed down to storage as range and IN-list predicates.
+ */
 public class BloomFilterInfo {
     private static final int LONG_BYTES_SIZE = 8;
     private final Integer id;
@@ -31,16 +36,37 @@ public class BloomFilterInfo {
     private final HashMethodInfo hashMethodInfo;
     private byte[] bytesData;
 
+    /**
+     * Null if the range of build keys is unknown. Min value is greater than max value if build side is empty.
+     */
+    private Long minValue;
+    private Long maxValue;
+
+    /**
+     * Sorted distinct build keys, null if unknown or too many
+     */
+    private long[] inValues;
+
+    public BloomFilterInfo(Integer id, long[] data, int hashFuncNum, HashMethodInfo hashMethodInfo) {
+        this(id, data, hashFuncNum, hashMethodInfo, null, null, null);
+    }
+
     @JsonCreator
     public BloomFilterInfo(
         @JsonProperty("id") Integer id,
         @JsonProperty("data") long[] data,
         @JsonProperty("hashFuncNum") int hashFuncNum,
-        @JsonProperty("hashMethodInfo") HashMethodInfo hashMethodInfo) {
+        @JsonProperty("hashMethodInfo") HashMethodInfo hashMethodInfo,
+        @JsonProperty("minValue") Long minValue,
+        @JsonProperty("maxValue") Long maxValue,
+        @JsonProperty("inValues") long[] inValues) {
         this.id = id;
         this.data = data;
         this.hashFuncNum = hashFuncNum;
         this.hashMethodInfo = hashMethodInfo;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        this.inValues = inValues;
     }
 
     @JsonProperty
@@ -77,6 +103,21 @@ public class BloomFilterInfo {
         return hashMethodInfo;
     }
 
+    @JsonProperty
+    public synchronized Long getMinValue() {
+        return minValue;
+    }
+
+    @JsonProperty
+    public synchronized Long getMaxValue() {
+        return maxValue;
+    }
+
+    @JsonProperty
+    public synchronized long[] getInValues() {
+        return inValues;
+    }
+
     public synchronized void mergeBloomFilter(BloomFilterInfo other) {
         Preconditions.checkArgument(this.id.equals(other.id), "Bloom filter info id should be same!");
         Preconditions.checkArgument(this.hashMethodInfo.equals(other.hashMethodInfo),
@@ -92,6 +133,19 @@ public class BloomFilterInfo {
         }
 
         this.bytesData = null;
+
+        if (minValue != null && other.minValue != null) {
+            this.minValue = Math.min(minValue, other.minValue);
+            this.maxValue = Math.max(maxValue, other.maxValue);
+        } else {
+            this.minValue = null;
+            this.maxValue = null;
+        }
+        if (inValues != null && other.inValues != null) {
+            this.inValues = unionSorted(inValues, other.inValues);
+        } else {
+            this.inValues = null;
+        }
     }
 
     public BloomFilter toBloomFilter() {
@@ -106,6 +160,23 @@ public class BloomFilterInfo {
             '}';
     }
 
+    private static long[] unionSorted(long[] left, long[] right) {
+        long[] result = new long[left.length + right.length];
+        int i = 0, j = 0, size = 0;
+        while (i < left.length || j < right.length) {
+            long value;
+            if (j == right.length || (i < left.length && left[i] <= right[j])) {
+                value = left[i++];
+            } else {
+                value = right[j++];
+            }
+            if (size == 0 || result[size - 1] != value) {
+                result[size++] = value;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
     private static byte[] toBytes(long[] data) {
         byte[] buffer = new byte[data.length * LONG_BYTES_SIZE];
         ByteBuffer bb = ByteBuffer.wrap(buffer);
@@ -0,0 +1,135 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.common.utils.memory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class DirectBufferPoolTest {
+
+    @Test
+    public void testAllocateAndRecycle() {
+        DirectBufferPool pool = new DirectBufferPool(8 * 1024, 1024, 3, ByteOrder.LITTLE_ENDIAN);
+        Assert.assertEquals(8, pool.capacity());
+        Assert.assertEquals(8, pool.size());
+
+        List<ByteBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            ByteBuffer buffer = pool.allocate();
+            Assert.assertTrue(buffer.isDirect());
+            Assert.assertEquals(1024, buffer.capacity());
+            Assert.assertEquals(ByteOrder.LITTLE_ENDIAN, buffer.order());
+            buffers.add(buffer);
+        }
+        Assert.assertEquals(0, pool.size());
+        Assert.assertEquals(8, pool.getMetrics().getHitCount());
+
+        // Drained, falls back to heap.
+        ByteBuffer heap = pool.allocate();
+        Assert.assertFalse(heap.isDirect());
+        Assert.assertEquals(1, pool.getMetrics().getMissCount());
+        pool.recycle(heap);
+        Assert.assertEquals(0, pool.size());
+
+        for (ByteBuffer buffer : buffers) {
+            buffer.put((byte) 1);
+            pool.recycle(buffer);
+        }
+        Assert.assertEquals(8, pool.size());
+        ByteBuffer reused = pool.allocate();
+        Assert.assertEquals(0, reused.position());
+        Assert.assertEquals(reused.capacity(), reused.limit());
+
+        // Foreign buffer of the right size is rejected, even if the pool has room for it.
+        pool.recycle(ByteBuffer.allocateDirect(1024));
+        Assert.assertEquals(7, pool.size());
+        Assert.assertEquals(1, pool.getMetrics().getOverflowCount());
+
+        // Recycling the same buffer twice keeps only one copy.
+        pool.recycle(reused);
+        pool.recycle(reused);
+        Assert.assertEquals(8, pool.size());
+        Assert.assertEquals(2, pool.getMetrics().getOverflowCount());
+
+        // The dropped buffers do not make room for new direct ones.
+        for (int i = 0; i < 8; i++) {
+            Assert.assertTrue(pool.allocate().isDirect());
+        }
+        Assert.assertFalse(pool.allocate().isDirect());
+    }
+
+    @Test
+    public void testSizeClasses() {
+        DirectBufferPool pool = new DirectBufferPool(8 * 1024, 1024, 3, ByteOrder.BIG_ENDIAN);
+        ByteBuffer buffer = pool.allocate(1500);
+        Assert.assertTrue(buffer.isDirect());
+        Assert.assertEquals(2048, buffer.capacity());
+        pool.recycle(buffer);
+        Assert.assertSame(buffer, pool.allocate(2048));
+
+        ByteBuffer large = pool.allocate(4000);
+        Assert.assertEquals(4096, large.capacity());
+
+        ByteBuffer huge = pool.allocate(5000);
+        Assert.assertFalse(huge.isDirect());
+        Assert.assertEquals(5000, huge.capacity());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final DirectBufferPool pool = new DirectBufferPool(64 * 1024, 1024, 1, ByteOrder.BIG_ENDIAN);
+        final Set<ByteBuffer> inUse = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        ByteBuffer buffer = pool.allocate();
+                        if (buffer.isDirect()) {
+                            Assert.assertTrue("buffer handed out twice", inUse.add(buffer));
+                            inUse.remove(buffer);
+                        }
+                        pool.recycle(buffer);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        // Every buffer created by the pool finds its slot back.
+        Assert.assertEquals(pool.capacity(), pool.size());
+        Assert.assertEquals(0, pool.getMetrics().getOverflowCount());
+    }
+}
@@ -0,0 +1,228 @@
+<@pp.dropOutputFile />
+
+<#list strOperators.likeOperators as operator>
+    <#list strOperators.stringTypes as type1>
+    <#list strOperators.stringTypes as type2>
+        <#assign className = "${operator.classHeader}${type1}Col${type2}ConstVectorizedExpression">
+        <@pp.changeOutputFile name="/com/alibaba/polardbx/executor/vectorized/string/${className}.java" />
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.metadata.ExpressionSignatures;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+
+import static com.alibaba.polardbx.executor.vectorized.metadata.ArgumentKind.*;
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+@ExpressionSignatures(names = {${operator.functionNames}}, argumentTypes = {"${type1}", "${type2}"}, argumentKinds = {Variable, Const})
+public class ${className} extends AbstractLikeVectorizedExpression {
+    public ${className}(DataType<?> outputDataType, int outputIndex, VectorizedExpression[] children) {
+        super(outputDataType, outputIndex, children, ${operator.isNot});
+    }
+}
+
+    </#list>
+    </#list>
+</#list>
+
+<#list strOperators.inOperators as operator>
+    <#list strOperators.stringTypes as type1>
+    <#list strOperators.stringTypes as type2>
+        <#assign className = "${operator.classHeader}${type1}Col${type2}ConstVectorizedExpression">
+        <@pp.changeOutputFile name="/com/alibaba/polardbx/executor/vectorized/string/${className}.java" />
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.metadata.ExpressionSignatures;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+
+import static com.alibaba.polardbx.executor.vectorized.metadata.ArgumentKind.*;
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+@ExpressionSignatures(names = {${operator.functionNames}}, argumentTypes = {"${type1}", "${type2}"}, argumentKinds = {Variable, ConstVargs})
+public class ${className} extends AbstractInVectorizedExpression {
+    public ${className}(DataType<?> outputDataType, int outputIndex, VectorizedExpression[] children) {
+        super(outputDataType, outputIndex, children, ${operator.isNot});
+    }
+}
+
+    </#list>
+    </#list>
+</#list>
+
+<#list strOperators.caseConversionOperators as operator>
+    <#list strOperators.stringTypes as type>
+        <#assign className = "${operator.classHeader}${type}ColVectorizedExpression">
+        <@pp.changeOutputFile name="/com/alibaba/polardbx/executor/vectorized/string/${className}.java" />
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.metadata.ExpressionSignatures;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+
+import static com.alibaba.polardbx.executor.vectorized.metadata.ArgumentKind.*;
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+@ExpressionSignatures(names = {${operator.functionNames}}, argumentTypes = {"${type}"}, argumentKinds = {Variable})
+public class ${className} extends AbstractCaseConversionVectorizedExpression {
+    public ${className}(DataType<?> outputDataType, int outputIndex, VectorizedExpression[] children) {
+        super(outputDataType, outputIndex, children, ${operator.toUpper});
+    }
+}
+
+    </#list>
+</#list>
+
+<#list strOperators.lengthOperators as operator>
+    <#list strOperators.stringTypes as type>
+        <#assign className = "${operator.classHeader}${type}ColVectorizedExpression">
+        <@pp.changeOutputFile name="/com/alibaba/polardbx/executor/vectorized/string/${className}.java" />
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.metadata.ExpressionSignatures;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+
+import static com.alibaba.polardbx.executor.vectorized.metadata.ArgumentKind.*;
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+@ExpressionSignatures(names = {${operator.functionNames}}, argumentTypes = {"${type}"}, argumentKinds = {Variable})
+public class ${className} extends AbstractLengthVectorizedExpression {
+    public ${className}(DataType<?> outputDataType, int outputIndex, VectorizedExpression[] children) {
+        super(outputDataType, outputIndex, children, ${operator.inCharacters});
+    }
+}
+
+    </#list>
+</#list>
+
+<#assign operator = strOperators.substringOperator>
+<#list strOperators.stringTypes as type>
+    <#list strOperators.integerTypes as posType>
+        <#assign className = "${operator.classHeader}${type}Col${posType}ConstVectorizedExpression">
+        <@pp.changeOutputFile name="/com/alibaba/polardbx/executor/vectorized/string/${className}.java" />
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.metadata.ExpressionSignatures;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+
+import static com.alibaba.polardbx.executor.vectorized.metadata.ArgumentKind.*;
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+@ExpressionSignatures(names = {${operator.functionNames}}, argumentTypes = {"${type}", "${posType}"}, argumentKinds = {Variable, Const})
+public class ${className} extends AbstractSubstringVectorizedExpression {
+    public ${className}(DataType<?> outputDataType, int outputIndex, VectorizedExpression[] children) {
+        super(outputDataType, outputIndex, children);
+    }
+}
+
+    <#list strOperators.integerTypes as lenType>
+        <#assign className = "${operator.classHeader}${type}Col${posType}Const${lenType}ConstVectorizedExpression">
+        <@pp.changeOutputFile name="/com/alibaba/polardbx/executor/vectorized/string/${className}.java" />
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.metadata.ExpressionSignatures;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+
+import static com.alibaba.polardbx.executor.vectorized.metadata.ArgumentKind.*;
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+@ExpressionSignatures(names = {${operator.functionNames}}, argumentTypes = {"${type}", "${posType}", "${lenType}"}, argumentKinds = {Variable, Const, Const})
+public class ${className} extends AbstractSubstringVectorizedExpression {
+    public ${className}(DataType<?> outputDataType, int outputIndex, VectorizedExpression[] children) {
+        super(outputDataType, outputIndex, children);
+    }
+}
+
+    </#list>
+    </#list>
+</#list>
+
+<#assign operator = strOperators.concatOperator>
+<#list strOperators.stringTypes as type1>
+    <#list strOperators.stringTypes as type2>
+        <#assign className = "${operator.classHeader}${type1}Col${type2}ColVectorizedExpression">
+        <@pp.changeOutputFile name="/com/alibaba/polardbx/executor/vectorized/string/${className}.java" />
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.metadata.ExpressionSignatures;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+
+import static com.alibaba.polardbx.executor.vectorized.metadata.ArgumentKind.*;
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+@ExpressionSignatures(names = {${operator.functionNames}}, argumentTypes = {"${type1}", "${type2}"}, argumentKinds = {Variable, Variable})
+public class ${className} extends AbstractConcatVectorizedExpression {
+    public ${className}(DataType<?> outputDataType, int outputIndex, VectorizedExpression[] children) {
+        super(outputDataType, outputIndex, children);
+    }
+}
+
+        <#assign className = "${operator.classHeader}${type1}Col${type2}ConstVectorizedExpression">
+        <@pp.changeOutputFile name="/com/alibaba/polardbx/executor/vectorized/string/${className}.java" />
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.metadata.ExpressionSignatures;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+
+import static com.alibaba.polardbx.executor.vectorized.metadata.ArgumentKind.*;
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+@ExpressionSignatures(names = {${operator.functionNames}}, argumentTypes = {"${type1}", "${type2}"}, argumentKinds = {Variable, Const})
+public class ${className} extends AbstractConcatVectorizedExpression {
+    public ${className}(DataType<?> outputDataType, int outputIndex, VectorizedExpression[] children) {
+        super(outputDataType, outputIndex, children);
+    }
+}
+
+        <#assign className = "${operator.classHeader}${type1}Const${type2}ColVectorizedExpression">
+        <@pp.changeOutputFile name="/com/alibaba/polardbx/executor/vectorized/string/${className}.java" />
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.metadata.ExpressionSignatures;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+
+import static com.alibaba.polardbx.executor.vectorized.metadata.ArgumentKind.*;
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+@ExpressionSignatures(names = {${operator.functionNames}}, argumentTypes = {"${type1}", "${type2}"}, argumentKinds = {Const, Variable})
+public class ${className} extends AbstractConcatVectorizedExpression {
+    public ${className}(DataType<?> outputDataType, int outputIndex, VectorizedExpression[] children) {
+        super(outputDataType, outputIndex, children);
+    }
+}
+
+    </#list>
+</#list>
@@ -0,0 +1,153 @@
+<@pp.dropOutputFile />
+
+<#list timeOperators.comparisonOperators as operator>
+    <#list timeOperators.temporalTypes as type1>
+    <#list timeOperators.constTypes as type2>
+        <#assign className = "${operator.classHeader}${type1}Col${type2}ConstVectorizedExpression">
+        <@pp.changeOutputFile name="/com/alibaba/polardbx/executor/vectorized/time/${className}.java" />
+package com.alibaba.polardbx.executor.vectorized.time;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.metadata.ExpressionSignatures;
+
+import static com.alibaba.polardbx.executor.vectorized.metadata.ArgumentKind.*;
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+@ExpressionSignatures(names = {${operator.functionNames}}, argumentTypes = {"${type1}", "${type2}"}, argumentKinds = {Variable, Const})
+public class ${className} extends AbstractTemporalComparisonVectorizedExpression {
+    public ${className}(int outputIndex, VectorizedExpression[] children) {
+        super(outputIndex, children, Operator.${operator.operator});
+    }
+}
+
+        <#assign className = "${operator.classHeader}${type2}Const${type1}ColVectorizedExpression">
+        <@pp.changeOutputFile name="/com/alibaba/polardbx/executor/vectorized/time/${className}.java" />
+package com.alibaba.polardbx.executor.vectorized.time;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.metadata.ExpressionSignatures;
+
+import static com.alibaba.polardbx.executor.vectorized.metadata.ArgumentKind.*;
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+@ExpressionSignatures(names = {${operator.functionNames}}, argumentTypes = {"${type2}", "${type1}"}, argumentKinds = {Const, Variable})
+public class ${className} extends AbstractTemporalComparisonVectorizedExpression {
+    public ${className}(int outputIndex, VectorizedExpression[] children) {
+        super(outputIndex, children, Operator.${operator.operator});
+    }
+}
+
+    </#list>
+    </#list>
+</#list>
+
+<#list timeOperators.fieldOperators as operator>
+    <#list timeOperators.temporalTypes as type>
+        <#assign className = "${operator.classHeader}${type}ColVectorizedExpression">
+        <@pp.changeOutputFile name="/com/alibaba/polardbx/executor/vectorized/time/${className}.java" />
+package com.alibaba.polardbx.executor.vectorized.time;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.metadata.ExpressionSignatures;
+
+import static com.alibaba.polardbx.executor.vectorized.metadata.ArgumentKind.*;
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+@ExpressionSignatures(names = {${operator.functionNames}}, argumentTypes = {"${type}"}, argumentKinds = {Variable})
+public class ${className} extends AbstractTemporalFieldVectorizedExpression {
+    public ${className}(int outputIndex, VectorizedExpression[] children) {
+        super(outputIndex, children, Field.${operator.field});
+    }
+}
+
+    </#list>
+</#list>
+
+<#list timeOperators.temporalTypes as type>
+    <#assign className = "${timeOperators.dateOperator.classHeader}${type}ColVectorizedExpression">
+    <@pp.changeOutputFile name="/com/alibaba/polardbx/executor/vectorized/time/${className}.java" />
+package com.alibaba.polardbx.executor.vectorized.time;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.metadata.ExpressionSignatures;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+
+import static com.alibaba.polardbx.executor.vectorized.metadata.ArgumentKind.*;
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+@ExpressionSignatures(names = {${timeOperators.dateOperator.functionNames}}, argumentTypes = {"${type}"}, argumentKinds = {Variable})
+public class ${className} extends AbstractDateVectorizedExpression {
+    public ${className}(DataType<?> outputDataType, int outputIndex, VectorizedExpression[] children) {
+        super(outputDataType, outputIndex, children);
+    }
+}
+
+</#list>
+
+<#list timeOperators.temporalTypes as type1>
+<#list timeOperators.stringTypes as type2>
+    <#assign className = "${timeOperators.dateFormatOperator.classHeader}${type1}Col${type2}ConstVectorizedExpression">
+    <@pp.changeOutputFile name="/com/alibaba/polardbx/executor/vectorized/time/${className}.java" />
+package com.alibaba.polardbx.executor.vectorized.time;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.metadata.ExpressionSignatures;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+
+import static com.alibaba.polardbx.executor.vectorized.metadata.ArgumentKind.*;
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+@ExpressionSignatures(names = {${timeOperators.dateFormatOperator.functionNames}}, argumentTypes = {"${type1}", "${type2}"}, argumentKinds = {Variable, Const})
+public class ${className} extends AbstractDateFormatVectorizedExpression {
+    public ${className}(DataType<?> outputDataType, int outputIndex, VectorizedExpression[] children) {
+        super(outputDataType, outputIndex, children);
+    }
+}
+
+</#list>
+</#list>
+
+<#list timeOperators.dateAddOperators as operator>
+    <#list timeOperators.temporalTypes as type1>
+    <#list timeOperators.intervalValueTypes as type2>
+    <#list timeOperators.stringTypes as type3>
+        <#assign className = "${operator.classHeader}${type1}Col${type2}Const${type3}ConstVectorizedExpression">
+        <@pp.changeOutputFile name="/com/alibaba/polardbx/executor/vectorized/time/${className}.java" />
+package com.alibaba.polardbx.executor.vectorized.time;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.metadata.ExpressionSignatures;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+
+import static com.alibaba.polardbx.executor.vectorized.metadata.ArgumentKind.*;
+
+/*
+* This class is generated using freemarker and the ${.template_name} template.
+*/
+@SuppressWarnings("unused")
+@ExpressionSignatures(names = {${operator.functionNames}}, argumentTypes = {"${type1}", "${type2}", "${type3}"}, argumentKinds = {Variable, Const, Const})
+public class ${className} extends AbstractDateAddVectorizedExpression {
+    public ${className}(DataType<?> outputDataType, int outputIndex, VectorizedExpression[] children) {
+        super(outputDataType, outputIndex, children, ${operator.isSub});
+    }
+}
+
+    </#list>
+    </#list>
+    </#list>
+</#list>
@@ -19,8 +19,11 @@ package com.alibaba.polardbx.executor;
 import com.alibaba.polardbx.common.model.lifecycle.AbstractLifecycle;
 import com.alibaba.polardbx.common.properties.ConnectionParams;
 import com.alibaba.polardbx.common.utils.GeneralUtil;
+import com.alibaba.polardbx.common.utils.Pair;
 import com.alibaba.polardbx.executor.cursor.Cursor;
 import com.alibaba.polardbx.executor.cursor.ResultCursor;
+import com.alibaba.polardbx.executor.cursor.impl.ResultCacheCaptureCursor;
+import com.alibaba.polardbx.executor.cursor.impl.ResultCacheCursor;
 import com.alibaba.polardbx.executor.mpp.client.MppResultCursor;
 import com.alibaba.polardbx.executor.utils.ExecUtils;
 import com.alibaba.polardbx.executor.utils.ExplainExecutorUtil;
@@ -28,13 +31,16 @@ import com.alibaba.polardbx.optimizer.PlannerContext;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.CursorMeta;
 import com.alibaba.polardbx.optimizer.core.planner.ExecutionPlan;
+import com.alibaba.polardbx.optimizer.core.planner.ResultCache;
 import com.alibaba.polardbx.optimizer.core.planner.SqlConverter;
 import com.alibaba.polardbx.optimizer.core.rel.HashAgg;
 import com.alibaba.polardbx.optimizer.core.rel.HashGroupJoin;
 import com.alibaba.polardbx.optimizer.core.rel.SortWindow;
 import com.alibaba.polardbx.optimizer.memory.MemoryPoolUtils;
 import com.alibaba.polardbx.optimizer.planmanager.PlanManagerUtil;
+import com.alibaba.polardbx.optimizer.utils.ExecutionPlanProperties;
 import com.alibaba.polardbx.optimizer.utils.ExplainResult;
+import com.alibaba.polardbx.optimizer.utils.RelUtils;
 import com.alibaba.polardbx.optimizer.workload.WorkloadUtil;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.RelVisitor;
@@ -73,7 +79,14 @@ public class PlanExecutor extends AbstractLifecycle {
             if (plan.isExplain()) {
                 result = ExplainExecutorUtil.explain(plan, context, explain);
             } else {
-                result = execByExecPlanNodeByOne(plan, context);
+                if (useResultCache(plan, context)) {
+                    result = execWithResultCache(plan, context);
+                } else {
+                    result = execByExecPlanNodeByOne(plan, context);
+                }
+                if (plan.checkProperty(ExecutionPlanProperties.MODIFY_TABLE)) {
+                    recordModifiedTables(plan, context);
+                }
                 // Only used for Async DDL.
                 context.getMultiDdlContext().incrementPlanIndex();
             }
@@ -122,6 +135,45 @@ public class PlanExecutor extends AbstractLifecycle {
         }
     }
 
+    private static boolean useResultCache(ExecutionPlan plan, ExecutionContext ec) {
+        return ec.getParamManager().getBoolean(ConnectionParams.ENABLE_RESULT_CACHE)
+            && plan.getCursorMeta() != null
+            && ResultCache.isCacheable(plan, ec);
+    }
+
+    /**
+     * 命中时直接回放缓存的 Chunk, 否则执行查询并在结果读完后放入缓存
+     */
+    private static ResultCursor execWithResultCache(ExecutionPlan plan, ExecutionContext ec) {
+        final ResultCache resultCache = ResultCache.getInstance();
+        final ResultCache.CacheKey cacheKey = ResultCache.getCacheKey(plan, ec);
+        final CursorMeta cursorMeta = plan.getCursorMeta();
+
+        ResultCache.Entry entry =
+            resultCache.get(cacheKey, ec.getParamManager().getLong(ConnectionParams.RESULT_CACHE_EXPIRE_TIME));
+        if (entry != null) {
+            return wrapResultCursor(new ResultCacheCursor(entry.getChunks(), cursorMeta.getColumns()), cursorMeta);
+        }
+
+        // taken before execution, so that results racing with a modification are not cached
+        final long modifyStamp = resultCache.getModifyStamp(cacheKey);
+        ResultCursor cursor = execByExecPlanNodeByOne(plan, ec);
+        return wrapResultCursor(new ResultCacheCaptureCursor(cursor, cursorMeta.getColumns(), cacheKey, modifyStamp,
+            ec.getParamManager().getLong(ConnectionParams.RESULT_CACHE_MAX_ROWS), ec), cursorMeta);
+    }
+
+    /**
+     * DML 之后记录修改过的表, 由 TConnection 在事务(包括自动提交的事务)成功提交后失效相关的结果缓存
+     */
+    private static void recordModifiedTables(ExecutionPlan plan, ExecutionContext ec) {
+        if (plan.getModifiedTables() == null) {
+            return;
+        }
+        for (RelUtils.TableProperties table : plan.getModifiedTables()) {
+            ec.getTrxModifiedTables().add(Pair.of(table.getSchemaName(), table.getTableName()));
+        }
+    }
+
     private static ResultCursor wrapResultCursor(Cursor cursor, CursorMeta cursorMeta) {
         ResultCursor resultCursor;
         // 包装为可以传输的ResultCursor
@@ -48,4 +48,14 @@ public interface Cursor {
     default ListenableFuture<?> isBlocked() {
         return NOT_BLOCKED;
     }
+
+    /**
+     * Skip the remaining rows of the chunk holding the row last returned by {@link #next()}, so that
+     * the caller can read them from the chunk directly.
+     *
+     * @return false if this cursor does not produce rows out of chunks, nothing is skipped then
+     */
+    default boolean skipCurrentChunk() {
+        return false;
+    }
 }
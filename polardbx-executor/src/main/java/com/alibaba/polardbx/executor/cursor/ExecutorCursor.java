@@ -68,6 +68,14 @@ public class ExecutorCursor extends AbstractCursor {
         }
     }
 
+    @Override
+    public boolean skipCurrentChunk() {
+        if (chunk != null) {
+            position = chunk.getPositionCount();
+        }
+        return true;
+    }
+
     @Override
     public List<Throwable> doClose(List<Throwable> exceptions) {
         try {
@@ -52,6 +52,11 @@ public class ResultCursor extends AbstractCursor {
         return row;
     }
 
+    @Override
+    public boolean skipCurrentChunk() {
+        return !closed && cursor != null && cursor.skipCurrentChunk();
+    }
+
     @Override
     public List<Throwable> doClose(List<Throwable> exceptions) {
         if (closed) {
@@ -0,0 +1,197 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.cursor.impl;
+
+import com.alibaba.polardbx.executor.cursor.AbstractCursor;
+import com.alibaba.polardbx.executor.cursor.Cursor;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.ChunkBuilder;
+import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.planner.ResultCache;
+import com.alibaba.polardbx.optimizer.core.row.Row;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Pass through the rows of a query and put them into result cache once the cursor is exhausted.
+ * <p>
+ * Chunks produced by vectorized executors are kept by reference, other rows are copied into new chunks.
+ * Capturing is given up when the result turns out to be too large, or not all rows are read.
+ */
+public class ResultCacheCaptureCursor extends AbstractCursor {
+
+    private final Cursor cursor;
+    private final ResultCache.CacheKey cacheKey;
+    private final long modifyStamp;
+    private final long maxRows;
+    private final long maxSize;
+    private final ExecutionContext context;
+
+    private List<Chunk> chunks = new ArrayList<>();
+    private ChunkBuilder chunkBuilder;
+    private Chunk currentChunk;
+    private int currentPosition;
+    private long rowCount;
+    private long size;
+    private boolean capturing = true;
+
+    public ResultCacheCaptureCursor(Cursor cursor, List<ColumnMeta> columns, ResultCache.CacheKey cacheKey,
+                                    long modifyStamp, long maxRows, ExecutionContext context) {
+        super(false);
+        this.cursor = cursor;
+        this.returnColumns = columns;
+        this.cacheKey = cacheKey;
+        this.modifyStamp = modifyStamp;
+        this.maxRows = maxRows;
+        this.maxSize = ResultCache.getInstance().getCapacity();
+        this.context = context;
+    }
+
+    @Override
+    public Row doNext() {
+        Row row;
+        try {
+            row = cursor.next();
+        } catch (Throwable t) {
+            giveUp();
+            throw t;
+        }
+        if (capturing) {
+            if (row == null) {
+                finish();
+            } else {
+                capture(row);
+            }
+        }
+        return row;
+    }
+
+    private void capture(Row row) {
+        if (++rowCount > maxRows) {
+            giveUp();
+            return;
+        }
+        if (row instanceof Chunk.ChunkRow) {
+            Chunk chunk = ((Chunk.ChunkRow) row).getChunk();
+            int position = ((Chunk.ChunkRow) row).getPosition();
+            if (chunk == currentChunk && position == currentPosition + 1) {
+                currentPosition = position;
+                return;
+            }
+            if (position != 0 || !closeCurrentChunk()) {
+                giveUp();
+                return;
+            }
+            flushBuilder();
+            addChunk(chunk);
+            currentChunk = chunk;
+            currentPosition = 0;
+        } else {
+            if (!closeCurrentChunk()) {
+                giveUp();
+                return;
+            }
+            if (chunkBuilder == null) {
+                List<DataType> types =
+                    returnColumns.stream().map(ColumnMeta::getDataType).collect(Collectors.toList());
+                chunkBuilder = new ChunkBuilder(types, context.getExecutorChunkLimit(), context);
+            }
+            for (int i = 0; i < returnColumns.size(); i++) {
+                chunkBuilder.getBlockBuilder(i).writeObject(chunkBuilder.getType(i).convertFrom(row.getObject(i)));
+            }
+            chunkBuilder.declarePosition();
+            if (chunkBuilder.isFull()) {
+                flushBuilder();
+            }
+        }
+    }
+
+    /**
+     * @return whether all rows of the current chunk have been read
+     */
+    private boolean closeCurrentChunk() {
+        if (currentChunk == null) {
+            return true;
+        }
+        boolean complete = currentPosition == currentChunk.getPositionCount() - 1;
+        currentChunk = null;
+        return complete;
+    }
+
+    private void flushBuilder() {
+        if (chunkBuilder != null && !chunkBuilder.isEmpty()) {
+            addChunk(chunkBuilder.build());
+            chunkBuilder.reset();
+        }
+    }
+
+    private void addChunk(Chunk chunk) {
+        chunks.add(chunk);
+        size += chunk.estimateSize();
+        if (size > maxSize) {
+            giveUp();
+        }
+    }
+
+    private void finish() {
+        if (!closeCurrentChunk()) {
+            giveUp();
+            return;
+        }
+        flushBuilder();
+        if (capturing) {
+            ResultCache.getInstance().put(cacheKey, modifyStamp, chunks);
+            capturing = false;
+            chunks = null;
+        }
+    }
+
+    private void giveUp() {
+        capturing = false;
+        chunks = null;
+        chunkBuilder = null;
+        currentChunk = null;
+    }
+
+    @Override
+    public boolean skipCurrentChunk() {
+        boolean skipped = cursor.skipCurrentChunk();
+        if (skipped && capturing) {
+            if (currentChunk == null) {
+                // the rows skipped were not produced out of chunks
+                giveUp();
+            } else {
+                rowCount += currentChunk.getPositionCount() - 1 - currentPosition;
+                currentPosition = currentChunk.getPositionCount() - 1;
+                if (rowCount > maxRows) {
+                    giveUp();
+                }
+            }
+        }
+        return skipped;
+    }
+
+    @Override
+    public List<Throwable> doClose(List<Throwable> exceptions) {
+        giveUp();
+        return cursor.close(exceptions);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.cursor.impl;
+
+import com.alibaba.polardbx.executor.cursor.AbstractCursor;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
+import com.alibaba.polardbx.optimizer.core.row.Row;
+
+import java.util.List;
+
+/**
+ * Replay a query result from result cache
+ */
+public class ResultCacheCursor extends AbstractCursor {
+
+    private final List<Chunk> chunks;
+    private int chunkIndex;
+    private int position;
+
+    public ResultCacheCursor(List<Chunk> chunks, List<ColumnMeta> columns) {
+        super(false);
+        this.chunks = chunks;
+        this.returnColumns = columns;
+    }
+
+    @Override
+    public Row doNext() {
+        while (chunkIndex < chunks.size()) {
+            Chunk chunk = chunks.get(chunkIndex);
+            if (position < chunk.getPositionCount()) {
+                return chunk.rowAt(position++);
+            }
+            chunkIndex++;
+            position = 0;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean skipCurrentChunk() {
+        if (chunkIndex < chunks.size()) {
+            position = chunks.get(chunkIndex).getPositionCount();
+        }
+        return true;
+    }
+}
@@ -21,6 +21,7 @@ import com.alibaba.polardbx.common.exception.code.ErrorCode;
 import com.alibaba.polardbx.common.jdbc.ITransactionPolicy;
 import com.alibaba.polardbx.common.jdbc.MasterSlave;
 import com.alibaba.polardbx.common.jdbc.ParameterContext;
+import com.alibaba.polardbx.common.jdbc.ParameterMethod;
 import com.alibaba.polardbx.common.properties.ConnectionParams;
 import com.alibaba.polardbx.common.properties.ConnectionProperties;
 import com.alibaba.polardbx.common.utils.GeneralUtil;
@@ -28,6 +29,7 @@ import com.alibaba.polardbx.executor.ExecutorHelper;
 import com.alibaba.polardbx.executor.common.ExecutorContext;
 import com.alibaba.polardbx.executor.common.TopologyHandler;
 import com.alibaba.polardbx.executor.cursor.Cursor;
+import com.alibaba.polardbx.executor.ddl.newengine.utils.DdlJobManagerUtils;
 import com.alibaba.polardbx.executor.gsi.CheckerManager;
 import com.alibaba.polardbx.executor.gsi.GsiUtils;
 import com.alibaba.polardbx.executor.gsi.PhysicalPlanBuilder;
@@ -40,9 +42,12 @@ import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
 import com.alibaba.polardbx.optimizer.config.table.SchemaManager;
 import com.alibaba.polardbx.optimizer.config.table.TableMeta;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypeUtil;
 import com.alibaba.polardbx.optimizer.core.rel.PhyTableOperation;
 import com.alibaba.polardbx.optimizer.core.row.Row;
+import com.alibaba.polardbx.optimizer.partition.PartitionInfoManager;
 import com.alibaba.polardbx.optimizer.utils.PlannerUtils;
+import com.alibaba.polardbx.rule.TableRule;
 import com.alibaba.polardbx.statistics.SQLRecorderLogger;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -50,6 +55,7 @@ import com.google.common.collect.ImmutableSet;
 import org.apache.calcite.util.Pair;
 import org.apache.commons.lang3.StringUtils;
 
+import java.math.BigInteger;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
@@ -67,6 +73,7 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
@@ -96,6 +103,21 @@ public class FastChecker {
     private final PhyTableOperation planIdleSelectSrc;
     private final PhyTableOperation planIdleSelectDst;
 
+    /**
+     * Times to recheck the ranges whose hash tasks failed, in the same read view
+     */
+    static final int MAX_RANGE_RETRY_TIMES = 2;
+
+    /**
+     * Single column integer primary key to split tables into ranges, null if range check is not used
+     */
+    String rangeKey;
+    long rangeRowCount;
+    int maxRangeCount;
+    private PhyTableOperation planSelectMinMaxPkSrc;
+    private RangeHashCheckPlans rangePlansSrc;
+    private RangeHashCheckPlans rangePlansDst;
+
     enum ParallelPolicy {
         /**
          * parallel by group, one group only allows single task at the same time.
@@ -167,13 +189,45 @@ public class FastChecker {
 
         final PhysicalPlanBuilder builder = new PhysicalPlanBuilder(schemaName, ec);
 
-        return new FastChecker(schemaName, tableName, tableName, sourceTargetGroup, srcPhyDbAndTables,
-            dstPhyDbAndTables, allColumns, allColumnsDst,
-            builder.buildSelectHashCheckForChecker(tableMeta, allColumns),
-            builder.buildSelectHashCheckForChecker(tableMeta, allColumnsDst),
-            builder.buildIdleSelectForChecker(tableMeta, allColumns),
-            builder.buildIdleSelectForChecker(tableMeta, allColumnsDst),
-            parallelism, lockTimeOut);
+        final FastChecker fastChecker =
+            new FastChecker(schemaName, tableName, tableName, sourceTargetGroup, srcPhyDbAndTables,
+                dstPhyDbAndTables, allColumns, allColumnsDst,
+                builder.buildSelectHashCheckForChecker(tableMeta, allColumns),
+                builder.buildSelectHashCheckForChecker(tableMeta, allColumnsDst),
+                builder.buildIdleSelectForChecker(tableMeta, allColumns),
+                builder.buildIdleSelectForChecker(tableMeta, allColumnsDst),
+                parallelism, lockTimeOut);
+        fastChecker.initRangeCheck(tableMeta, tableMeta, builder, ec);
+        return fastChecker;
+    }
+
+    /**
+     * Enable range check if src table has a single column integer primary key which also exists in dst table.
+     */
+    protected void initRangeCheck(TableMeta srcTableMeta, TableMeta dstTableMeta, PhysicalPlanBuilder builder,
+                                  ExecutionContext ec) {
+        if (!ec.getParamManager().getBoolean(ConnectionParams.ENABLE_FASTCHECKER_RANGE_CHECK)
+            || !srcTableMeta.isHasPrimaryKey() || srcTableMeta.getPrimaryKey().size() != 1) {
+            return;
+        }
+        final ColumnMeta pkColumn = srcTableMeta.getPrimaryKey().iterator().next();
+        if (!DataTypeUtil.isIntType(pkColumn.getDataType()) || dstTableMeta.getColumn(pkColumn.getName()) == null) {
+            return;
+        }
+        final List<String> primaryKeys = ImmutableList.of(pkColumn.getName());
+
+        this.rangeKey = pkColumn.getName();
+        this.rangeRowCount = ec.getParamManager().getInt(ConnectionParams.FASTCHECKER_RANGE_ROW_COUNT);
+        this.maxRangeCount = ec.getParamManager().getInt(ConnectionParams.FASTCHECKER_MAX_RANGE_COUNT);
+        this.planSelectMinMaxPkSrc = builder.buildSelectMinMaxPkForChecker(srcTableMeta, rangeKey);
+        this.rangePlansSrc = new RangeHashCheckPlans(
+            builder.buildSelectHashCheckForChecker(srcTableMeta, srcColumns, primaryKeys, false, true),
+            builder.buildSelectHashCheckForChecker(srcTableMeta, srcColumns, primaryKeys, true, true),
+            builder.buildSelectHashCheckForChecker(srcTableMeta, srcColumns, primaryKeys, true, false));
+        this.rangePlansDst = new RangeHashCheckPlans(
+            builder.buildSelectHashCheckForChecker(dstTableMeta, dstColumns, primaryKeys, false, true),
+            builder.buildSelectHashCheckForChecker(dstTableMeta, dstColumns, primaryKeys, true, true),
+            builder.buildSelectHashCheckForChecker(dstTableMeta, dstColumns, primaryKeys, true, false));
     }
 
     // use Long to store uint64_t hash result generated by DN, since java doesn't support unsigned type.
@@ -193,7 +247,49 @@ public class FastChecker {
         params.put(1, PlannerUtils.buildParameterContextForTableName(phyTable, 1));
         plan.setParam(params);
 
-        Long checkResult = GsiUtils.retryOnException(
+        Long checkResult = executeHashCheck(plan, baseEc);
+
+        SQLRecorderLogger.ddlLogger.warn(MessageFormat
+            .format("[{0}] FastChecker finish phy hash for {1}[{2}][{3}], time use[{4}], table hash value[{5}]",
+                baseEc.getTraceId(),
+                phyDbName,
+                phyTable,
+                isSrcTableTask ? "src" : "dst",
+                (System.currentTimeMillis() - startTime) / 1000.0,
+                checkResult
+            ));
+
+        return Pair.of(checkResult, isSrcTableTask);
+    }
+
+    /**
+     * Hash rows of one physical table whose primary key is in (lowerBound, upperBound],
+     * null bound means the range is unbounded on that side.
+     */
+    RangeHash hashcheckForSingleRange(String phyDbName, String phyTable, ExecutionContext baseEc,
+                                      boolean isSrcTableTask, int rangeIndex, Object lowerBound,
+                                      Object upperBound) {
+        final RangeHashCheckPlans plans = isSrcTableTask ? this.rangePlansSrc : this.rangePlansDst;
+        PhyTableOperation plan = new PhyTableOperation(plans.get(lowerBound != null, upperBound != null));
+        plan.setDbIndex(phyDbName);
+        plan.setTableNames(ImmutableList.of(ImmutableList.of(phyTable)));
+        final Map<Integer, ParameterContext> params = new HashMap<>(3);
+        params.put(1, PlannerUtils.buildParameterContextForTableName(phyTable, 1));
+        int nextParamIndex = 2;
+        for (Object bound : new Object[] {lowerBound, upperBound}) {
+            if (bound != null) {
+                params.put(nextParamIndex,
+                    new ParameterContext(ParameterMethod.setObject1, new Object[] {nextParamIndex, bound}));
+                nextParamIndex++;
+            }
+        }
+        plan.setParam(params);
+
+        return new RangeHash(rangeIndex, isSrcTableTask, executeHashCheck(plan, baseEc));
+    }
+
+    private Long executeHashCheck(PhyTableOperation plan, ExecutionContext baseEc) {
+        return GsiUtils.retryOnException(
             () -> {
                 Cursor cursor = null;
                 Long result = null;
@@ -231,18 +327,6 @@ public class FastChecker {
                 }
             }
         );
-
-        SQLRecorderLogger.ddlLogger.warn(MessageFormat
-            .format("[{0}] FastChecker finish phy hash for {1}[{2}][{3}], time use[{4}], table hash value[{5}]",
-                baseEc.getTraceId(),
-                phyDbName,
-                phyTable,
-                isSrcTableTask ? "src" : "dst",
-                (System.currentTimeMillis() - startTime) / 1000.0,
-                checkResult
-            ));
-
-        return Pair.of(checkResult, isSrcTableTask);
     }
 
     public boolean check(ExecutionContext baseEc) {
@@ -466,6 +550,13 @@ public class FastChecker {
         // Force master first and following will copy this EC.
         baseEc.getExtraCmds().put(ConnectionProperties.MASTER, true);
 
+        if (rangeKey != null) {
+            Boolean rangeCheckResult = parallelRangeCheck(srcDbAndTb, dstDbAndTb, baseEc, parallelism, policy);
+            if (rangeCheckResult != null) {
+                return rangeCheckResult;
+            }
+        }
+
         List<Pair<Long, Boolean>> result = new ArrayList<>();
 
         int srcTableTaskCount = 0;
@@ -602,6 +693,281 @@ public class FastChecker {
         return checkResult;
     }
 
+    /**
+     * Split tables into primary key ranges by the min and max key of src tables, hash every range of every table
+     * under the parallel policy, and compare the digests of src and dst range by range.
+     * Ranges are checked in batches so that mismatches are found and progress is reported along the way.
+     * All ranges are hashed in the read view of this check, and the ranges whose hash tasks failed are
+     * checked again in it, at most MAX_RANGE_RETRY_TIMES times.
+     *
+     * @return null if tables could not be split, e.g. src tables are empty
+     */
+    Boolean parallelRangeCheck(Map<String, Set<String>> srcDbAndTb, Map<String, Set<String>> dstDbAndTb,
+                               ExecutionContext baseEc, long parallelism, ParallelPolicy policy) {
+        final RangeCheckState state = buildRangeCheckState(srcDbAndTb, baseEc);
+        if (state == null) {
+            return null;
+        }
+
+        final long startTime = System.currentTimeMillis();
+        final int srcTableCount = countTables(srcDbAndTb);
+        final int dstTableCount = countTables(dstDbAndTb);
+        final int rangeCount = state.pendingRanges.size();
+        final int rangeBatchSize =
+            Math.max(1, (int) Math.max(parallelism, 1) * 4 / Math.max(1, srcTableCount + dstTableCount));
+        final Set<Integer> mismatchRanges = new TreeSet<>();
+        for (int retry = 0; retry <= MAX_RANGE_RETRY_TIMES && !state.pendingRanges.isEmpty(); retry++) {
+            if (retry > 0) {
+                SQLRecorderLogger.ddlLogger.warn(MessageFormat.format(
+                    "[{0}] FastChecker recheck {1} failed ranges for {2}, retry[{3}]",
+                    baseEc.getTraceId(), state.pendingRanges.size(), srcLogicalTableName, retry));
+            }
+            final List<Integer> ranges = new ArrayList<>(state.pendingRanges);
+            final Set<Integer> failedRanges = new TreeSet<>();
+            for (int from = 0; from < ranges.size(); from += rangeBatchSize) {
+                final List<Integer> batch = ranges.subList(from, Math.min(from + rangeBatchSize, ranges.size()));
+                final Map<String, List<Callable<RangeHash>>> tasksByGroup =
+                    new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+                for (int rangeIndex : batch) {
+                    final Object lowerBound = state.lowerBound(rangeIndex);
+                    final Object upperBound = state.upperBound(rangeIndex);
+                    addRangeTasks(srcDbAndTb, true, rangeIndex, lowerBound, upperBound, baseEc, tasksByGroup);
+                    addRangeTasks(dstDbAndTb, false, rangeIndex, lowerBound, upperBound, baseEc, tasksByGroup);
+                }
+
+                final List<RangeHash> result = new ArrayList<>();
+                runTasksWithPolicy(tasksByGroup, policy, parallelism, result);
+
+                for (int rangeIndex : batch) {
+                    final RangeCompareResult compareResult =
+                        compareRange(rangeIndex, result, srcTableCount, dstTableCount);
+                    if (compareResult == RangeCompareResult.MISMATCH) {
+                        mismatchRanges.add(rangeIndex);
+                        SQLRecorderLogger.ddlLogger.warn(MessageFormat.format(
+                            "[{0}] FastChecker range mismatch for {1}, {2} in ({3}, {4}]",
+                            baseEc.getTraceId(), srcLogicalTableName, rangeKey,
+                            String.valueOf(state.lowerBound(rangeIndex)),
+                            String.valueOf(state.upperBound(rangeIndex))));
+                    } else if (compareResult == RangeCompareResult.FAILED) {
+                        failedRanges.add(rangeIndex);
+                    }
+                }
+                if (retry == 0) {
+                    reportRangeProgress(baseEc, from + batch.size(), rangeCount);
+                }
+            }
+            state.pendingRanges = failedRanges;
+        }
+
+        SQLRecorderLogger.ddlLogger.warn(MessageFormat.format(
+            "[{0}] FastChecker finish range check for {1}, checked ranges[{2}], mismatched ranges[{3}], "
+                + "failed ranges[{4}], time use[{5}]",
+            baseEc.getTraceId(), srcLogicalTableName, rangeCount, mismatchRanges.size(), state.pendingRanges.size(),
+            (System.currentTimeMillis() - startTime) / 1000.0));
+
+        return mismatchRanges.isEmpty() && state.pendingRanges.isEmpty();
+    }
+
+    private RangeCheckState buildRangeCheckState(Map<String, Set<String>> srcDbAndTb, ExecutionContext baseEc) {
+        BigInteger min = null;
+        BigInteger max = null;
+        for (Map.Entry<String, Set<String>> entry : srcDbAndTb.entrySet()) {
+            for (String phyTable : entry.getValue()) {
+                Pair<BigInteger, BigInteger> minMax = selectMinMaxKey(entry.getKey(), phyTable, baseEc);
+                if (minMax != null) {
+                    min = min == null ? minMax.getKey() : min.min(minMax.getKey());
+                    max = max == null ? minMax.getValue() : max.max(minMax.getValue());
+                }
+            }
+        }
+        if (min == null) {
+            return null;
+        }
+
+        final List<Object> bounds =
+            buildRangeBounds(min, max, estimateRowCount(srcDbAndTb), rangeRowCount, maxRangeCount);
+        return bounds == null ? null : new RangeCheckState(bounds);
+    }
+
+    /**
+     * Split [min, max] into ranges of about rangeRowCount rows, at most maxRangeCount ones.
+     *
+     * @return upper bounds of ranges except the last one, null if there would be only one range
+     */
+    static List<Object> buildRangeBounds(BigInteger min, BigInteger max, long rowCount, long rangeRowCount,
+                                         int maxRangeCount) {
+        final BigInteger span = max.subtract(min).add(BigInteger.ONE);
+        final long rangeCount = Math.min(Math.min(maxRangeCount, Math.max(1L, rowCount / Math.max(1L, rangeRowCount))),
+            span.min(BigInteger.valueOf(Integer.MAX_VALUE)).longValue());
+        if (rangeCount <= 1) {
+            return null;
+        }
+
+        // ranges: (-inf, b1], (b1, b2], ... , (b(n-1), +inf)
+        final List<Object> bounds = new ArrayList<>((int) rangeCount - 1);
+        for (long i = 1; i < rangeCount; i++) {
+            BigInteger bound = min.add(span.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(rangeCount)))
+                .subtract(BigInteger.ONE);
+            bounds.add(bound.bitLength() < Long.SIZE ? (Object) bound.longValue() : bound);
+        }
+        return bounds;
+    }
+
+    /**
+     * @return min and max primary key of the physical table, null if it is empty
+     */
+    Pair<BigInteger, BigInteger> selectMinMaxKey(String phyDb, String phyTable, ExecutionContext baseEc) {
+        PhyTableOperation plan = new PhyTableOperation(this.planSelectMinMaxPkSrc);
+        plan.setDbIndex(phyDb);
+        plan.setTableNames(ImmutableList.of(ImmutableList.of(phyTable)));
+        final Map<Integer, ParameterContext> params = new HashMap<>(1);
+        params.put(1, PlannerUtils.buildParameterContextForTableName(phyTable, 1));
+        plan.setParam(params);
+
+        Cursor cursor = null;
+        try {
+            cursor = ExecutorHelper.executeByCursor(plan, baseEc, false);
+            Row row;
+            if (cursor != null && (row = cursor.next()) != null
+                && row.getObject(0) != null && row.getObject(1) != null) {
+                return Pair.of(new BigInteger(row.getObject(0).toString()),
+                    new BigInteger(row.getObject(1).toString()));
+            }
+            return null;
+        } finally {
+            if (cursor != null) {
+                cursor.close(new ArrayList<>());
+            }
+        }
+    }
+
+    /**
+     * Estimate rows of the given physical tables from the row count of the logical table,
+     * as if rows are spread evenly among all its physical tables.
+     */
+    long estimateRowCount(Map<String, Set<String>> phyDbAndTables) {
+        final OptimizerContext optimizerContext = OptimizerContext.getContext(schemaName);
+        final long logicalRowCount =
+            optimizerContext.getStatisticManager().getRowCount(srcLogicalTableName).getLongValue();
+
+        Map<String, Set<String>> topology = null;
+        final PartitionInfoManager partitionInfoManager = optimizerContext.getPartitionInfoManager();
+        if (partitionInfoManager.isNewPartDbTable(srcLogicalTableName)) {
+            topology = partitionInfoManager.getPartitionInfo(srcLogicalTableName).getTopology();
+        } else {
+            final TableRule tableRule = optimizerContext.getRuleManager().getTableRule(srcLogicalTableName);
+            if (tableRule != null) {
+                topology = tableRule.getActualTopology();
+            }
+        }
+        final int allTableCount = topology == null ? 0 : countTables(topology);
+        if (allTableCount <= 0) {
+            return logicalRowCount;
+        }
+        return logicalRowCount * Math.min(countTables(phyDbAndTables), allTableCount) / allTableCount;
+    }
+
+    private void addRangeTasks(Map<String, Set<String>> dbAndTb, boolean isSrc, int rangeIndex, Object lowerBound,
+                               Object upperBound, ExecutionContext baseEc,
+                               Map<String, List<Callable<RangeHash>>> tasksByGroup) {
+        dbAndTb.forEach((phyDb, phyTables) -> phyTables.forEach(phyTable -> tasksByGroup
+            .computeIfAbsent(phyDb, k -> new ArrayList<>())
+            .add(() -> hashcheckForSingleRange(phyDb, phyTable, baseEc, isSrc, rangeIndex, lowerBound, upperBound))));
+    }
+
+    /**
+     * if ParallelPolicy is PhyTableParallel, all tasks run in parallel (subject to parallelism limitation).
+     * if ParallelPolicy is PhyGroupParallel, we once run single task of each group.
+     */
+    private <T> void runTasksWithPolicy(Map<String, List<Callable<T>>> tasksByGroup, ParallelPolicy policy,
+                                        long parallelism, List<T> result) {
+        if (policy == ParallelPolicy.PhyGroupParallel) {
+            final int maxTaskCount = tasksByGroup.values().stream().mapToInt(List::size).max().orElse(0);
+            for (int i = 0; i < maxTaskCount; i++) {
+                final List<Callable<T>> tasks = new ArrayList<>(tasksByGroup.size());
+                for (List<Callable<T>> groupTasks : tasksByGroup.values()) {
+                    if (i < groupTasks.size()) {
+                        tasks.add(groupTasks.get(i));
+                    }
+                }
+                runCallables(tasks, parallelism, result);
+            }
+        } else {
+            final List<Callable<T>> tasks = new ArrayList<>();
+            tasksByGroup.values().forEach(tasks::addAll);
+            Collections.shuffle(tasks);
+            runCallables(tasks, parallelism, result);
+        }
+    }
+
+    private <T> void runCallables(List<Callable<T>> tasks, long parallelism, List<T> result) {
+        final BlockingQueue<Object> blockingQueue = parallelism <= 0 ? null : new ArrayBlockingQueue<>(
+            (int) parallelism);
+        final List<FutureTask<T>> futureTasks = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futureTasks.add(new FutureTask<>(() -> {
+                try {
+                    return task.call();
+                } finally {
+                    // Poll in finally to prevent dead lock on putting blockingQueue.
+                    if (blockingQueue != null) {
+                        blockingQueue.poll(); // Parallelism control notify.
+                    }
+                }
+            }));
+        }
+        runTasks(futureTasks, blockingQueue, result, parallelism);
+    }
+
+    /**
+     * Null hash means no row in the range, and a range with failed task could be checked again.
+     */
+    private RangeCompareResult compareRange(int rangeIndex, List<RangeHash> result, int srcTableCount,
+                                            int dstTableCount) {
+        final HashCaculator srcCaculator = new HashCaculator();
+        final HashCaculator dstCaculator = new HashCaculator();
+        int srcCount = 0;
+        int dstCount = 0;
+        for (RangeHash rangeHash : result) {
+            if (rangeHash == null || rangeHash.rangeIndex != rangeIndex) {
+                continue;
+            }
+            if (rangeHash.isSrc) {
+                srcCount++;
+                if (rangeHash.hash != null) {
+                    srcCaculator.caculate(rangeHash.hash);
+                }
+            } else {
+                dstCount++;
+                if (rangeHash.hash != null) {
+                    dstCaculator.caculate(rangeHash.hash);
+                }
+            }
+        }
+        if (srcCount != srcTableCount || dstCount != dstTableCount) {
+            return RangeCompareResult.FAILED;
+        }
+        return srcCaculator.getHashVal().equals(dstCaculator.getHashVal()) ? RangeCompareResult.MATCH :
+            RangeCompareResult.MISMATCH;
+    }
+
+    private void reportRangeProgress(ExecutionContext baseEc, int checkedRanges, int totalRanges) {
+        final Long jobId = baseEc.getDdlJobId();
+        if (jobId == null || jobId <= 0) {
+            return;
+        }
+        try {
+            DdlJobManagerUtils.updateProgress(jobId, (int) (100L * checkedRanges / totalRanges));
+        } catch (Throwable e) {
+            // progress is only informative
+            SQLRecorderLogger.ddlLogger.warn("FastChecker update progress failed", e);
+        }
+    }
+
+    private static int countTables(Map<String, Set<String>> dbAndTb) {
+        return dbAndTb.values().stream().mapToInt(Set::size).sum();
+    }
+
     private boolean compare(List<Long> src, List<Long> dst) {
         final HashCaculator srcCaculator = new HashCaculator();
         final HashCaculator dstCaculator = new HashCaculator();
@@ -610,8 +976,8 @@ public class FastChecker {
         return srcCaculator.getHashVal().equals(dstCaculator.getHashVal());
     }
 
-    private void runTasks(List<FutureTask<Pair<Long, Boolean>>> futures, BlockingQueue<Object> blockingQueue,
-                          List<Pair<Long, Boolean>> result, long parallelism) {
+    private <T> void runTasks(List<FutureTask<T>> futures, BlockingQueue<Object> blockingQueue,
+                              List<T> result, long parallelism) {
         AtomicReference<Exception> excep = new AtomicReference<>(null);
         if (parallelism <= 0) {
             futures.forEach(task -> PriorityWorkQueue.getInstance()
@@ -640,7 +1006,7 @@ public class FastChecker {
             });
         }
 
-        for (FutureTask<Pair<Long, Boolean>> future : futures) {
+        for (FutureTask<T> future : futures) {
             try {
                 result.add(future.get());
             } catch (Exception e) {
@@ -708,6 +1074,74 @@ public class FastChecker {
 
     ;
 
+    enum RangeCompareResult {
+        MATCH,
+        MISMATCH,
+        /**
+         * some hash task of the range failed
+         */
+        FAILED
+    }
+
+    static class RangeHash {
+        final int rangeIndex;
+        final boolean isSrc;
+        final Long hash;
+
+        RangeHash(int rangeIndex, boolean isSrc, Long hash) {
+            this.rangeIndex = rangeIndex;
+            this.isSrc = isSrc;
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * hash check plans of one table with primary key range condition
+     */
+    static class RangeHashCheckPlans {
+        private final PhyTableOperation withUpperBound;
+        private final PhyTableOperation withBothBounds;
+        private final PhyTableOperation withLowerBound;
+
+        RangeHashCheckPlans(PhyTableOperation withUpperBound, PhyTableOperation withBothBounds,
+                            PhyTableOperation withLowerBound) {
+            this.withUpperBound = withUpperBound;
+            this.withBothBounds = withBothBounds;
+            this.withLowerBound = withLowerBound;
+        }
+
+        PhyTableOperation get(boolean hasLowerBound, boolean hasUpperBound) {
+            if (hasLowerBound && hasUpperBound) {
+                return withBothBounds;
+            }
+            return hasLowerBound ? withLowerBound : withUpperBound;
+        }
+    }
+
+    static class RangeCheckState {
+        /**
+         * upper bounds of ranges except the last one, range i is (bounds[i - 1], bounds[i]]
+         */
+        final List<Object> bounds;
+        Set<Integer> pendingRanges;
+
+        RangeCheckState(List<Object> bounds) {
+            this.bounds = bounds;
+            this.pendingRanges = new TreeSet<>();
+            for (int i = 0; i <= bounds.size(); i++) {
+                pendingRanges.add(i);
+            }
+        }
+
+        Object lowerBound(int rangeIndex) {
+            return rangeIndex == 0 ? null : bounds.get(rangeIndex - 1);
+        }
+
+        Object upperBound(int rangeIndex) {
+            return rangeIndex == bounds.size() ? null : bounds.get(rangeIndex);
+        }
+    }
+
     /**
      * use TableLocker to lock phyTables.
      * we save all the connections to execute unlock.
@@ -904,6 +904,27 @@ public class PhysicalPlanBuilder extends PhyOperationBuilderCommon {
      * @return Query plan
      */
     public PhyTableOperation buildSelectHashCheckForChecker(TableMeta tableMeta, List<String> selectKeys) {
+        return buildSelectHashCheckForChecker(tableMeta, selectKeys, ImmutableList.of(), false, false);
+    }
+
+    /**
+     * <pre>
+     *  SELECT HASHCKECK({all_select_keys})
+     *  FROM ?
+     *  WHERE (pk0, ... , pkn) > (?, ... , ?)
+     *    AND (pk0, ... , pkn) <= (?, ... , ?)
+     * </pre>
+     *
+     * @param tableMeta Table meta
+     * @param selectKeys Keys that need to be hash
+     * @param primaryKeys Primary key list, for condition building
+     * @param withLowerBound With lower bound condition
+     * @param withUpperBound With upper bound condition
+     * @return Query plan
+     */
+    public PhyTableOperation buildSelectHashCheckForChecker(TableMeta tableMeta, List<String> selectKeys,
+                                                            List<String> primaryKeys, boolean withLowerBound,
+                                                            boolean withUpperBound) {
 
         initParams(0);
 
@@ -914,6 +935,21 @@ public class PhysicalPlanBuilder extends PhyOperationBuilderCommon {
         // build target table
         buildTargetTable();
 
+        // build where
+        SqlNode condition = null;
+        if (withLowerBound) {
+            // WHERE (pk0, ... , pkn) > (?, ... , ?)
+            condition = buildCondition(primaryKeys, SqlStdOperatorTable.GREATER_THAN);
+        }
+
+        if (withUpperBound) {
+            // WHERE (pk0, ... , pkn) <= (?, ... , ?)
+            final SqlNode upperBound = buildCondition(primaryKeys, SqlStdOperatorTable.LESS_THAN_OR_EQUAL);
+
+            condition = null == condition ? upperBound : PlannerUtils
+                .buildAndTree(ImmutableList.of(condition, upperBound));
+        }
+
         final SqlNode functionCallNode = new SqlBasicCall(new SqlHashCheckAggFunction(), selectList.toArray(), SqlParserPos.ZERO);
 
         final SqlNodeList selectListWithFunctionCall = new SqlNodeList(SqlParserPos.ZERO);
@@ -922,6 +958,48 @@ public class PhysicalPlanBuilder extends PhyOperationBuilderCommon {
             null,
             selectListWithFunctionCall,
             targetTableNode,
+            condition,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null
+        );
+
+        return buildPhyTableOperation(sqlSelect, rowType, LockMode.UNDEF, ec);
+    }
+
+    /**
+     * <pre>
+     *  SELECT MIN(pk), MAX(pk)
+     *  FROM ?
+     * </pre>
+     *
+     * @param tableMeta Table meta
+     * @param primaryKey Single column primary key
+     * @return Query plan
+     */
+    public PhyTableOperation buildSelectMinMaxPkForChecker(TableMeta tableMeta, String primaryKey) {
+        initParams(0);
+
+        // build select list
+        SqlNodeList selectList = new SqlNodeList(SqlParserPos.ZERO);
+        RelDataType rowType = buildRowTypeForSelect(ImmutableList.of(primaryKey, primaryKey), tableMeta, selectList);
+
+        // build target table
+        buildTargetTable();
+
+        final SqlNodeList minMaxList = new SqlNodeList(SqlParserPos.ZERO);
+        minMaxList.add(new SqlBasicCall(SqlStdOperatorTable.MIN, new SqlNode[] {selectList.get(0)},
+            SqlParserPos.ZERO));
+        minMaxList.add(new SqlBasicCall(SqlStdOperatorTable.MAX, new SqlNode[] {selectList.get(1)},
+            SqlParserPos.ZERO));
+
+        final SqlSelect sqlSelect = new SqlSelect(SqlParserPos.ZERO,
+            null,
+            minMaxList,
+            targetTableNode,
             null,
             null,
             null,
@@ -80,7 +80,7 @@ public class GsiFastChecker extends FastChecker {
 
         final int lockTimeOut = ec.getParamManager().getInt(ConnectionParams.FASTCHECKER_LOCK_TIMEOUT);
 
-        return new GsiFastChecker(schemaName, tableName, indexName,
+        final GsiFastChecker fastChecker = new GsiFastChecker(schemaName, tableName, indexName,
             srcPhyDbAndTables, dstPhyDbAndTables,
             baseTableColumns, indexColumns,
             builder.buildSelectHashCheckForChecker(baseTableMeta, baseTableColumns),
@@ -88,6 +88,8 @@ public class GsiFastChecker extends FastChecker {
             builder.buildIdleSelectForChecker(baseTableMeta, baseTableColumns),
             builder.buildIdleSelectForChecker(indexTableMeta, indexColumns),
             parallelism, lockTimeOut);
+        fastChecker.initRangeCheck(baseTableMeta, indexTableMeta, builder, ec);
+        return fastChecker;
     }
 
     /**
@@ -36,6 +36,7 @@ import com.alibaba.polardbx.executor.ExecutorHelper;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.executor.common.ExecutorContext;
 import com.alibaba.polardbx.executor.cursor.Cursor;
+import com.alibaba.polardbx.executor.cursor.impl.AffectRowCursor;
 import com.alibaba.polardbx.executor.cursor.impl.FirstThenOtherCursor;
 import com.alibaba.polardbx.executor.cursor.impl.GroupConcurrentUnionCursor;
 import com.alibaba.polardbx.executor.cursor.impl.GroupSequentialCursor;
@@ -66,6 +67,7 @@ import com.alibaba.polardbx.optimizer.memory.MemoryAllocatorCtx;
 import com.alibaba.polardbx.optimizer.utils.QueryConcurrencyPolicy;
 import com.alibaba.polardbx.optimizer.utils.RelUtils;
 import com.alibaba.polardbx.repo.mysql.spi.MyDataSourceGetter;
+import com.alibaba.polardbx.repo.mysql.spi.MyRepository;
 import com.alibaba.polardbx.statistics.RuntimeStatHelper;
 import com.alibaba.polardbx.util.RexMemoryLimitHelper;
 import org.apache.calcite.linq4j.Ord;
@@ -74,9 +76,11 @@ import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.util.Pair;
 import org.apache.calcite.util.mapping.Mappings;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -309,6 +313,58 @@ public abstract class HandlerCommon implements PlanHandler {
         executeByInstance(plansByInstance, subCursors, ec, schemaName, exceptions);
     }
 
+    /**
+     * Pipeline the physical DMLs on the same group with one X-Protocol session, so that the statements are sent
+     * back to back instead of waiting for the result of each one. Groups are executed one by one as
+     * {@link QueryConcurrencyPolicy#SEQUENTIAL}.
+     *
+     * @return false if pipeline is not applicable, and nothing is executed
+     */
+    protected boolean executeGroupPipeline(ExecutionContext executionContext, List<RelNode> inputs,
+                                           List<Cursor> inputCursors, String schemaName) {
+        if (!executionContext.getParamManager().getBoolean(ConnectionParams.ENABLE_X_PIPELINE_WRITE)
+            || !(repo instanceof MyRepository) || executionContext.useReturning()) {
+            return false;
+        }
+
+        final Map<String, List<BaseQueryOperation>> groupAndPlans = new LinkedHashMap<>();
+        boolean pipelined = false;
+        for (RelNode input : inputs) {
+            if (!(input instanceof PhyTableOperation) || ((PhyTableOperation) input).getBatchParameters() != null) {
+                return false;
+            }
+            final List<BaseQueryOperation> plans =
+                groupAndPlans.computeIfAbsent(((PhyTableOperation) input).getDbIndex(), k -> new ArrayList<>());
+            plans.add((PhyTableOperation) input);
+            pipelined |= plans.size() > 1;
+        }
+        if (!pipelined) {
+            return false;
+        }
+        final MyDataSourceGetter dsGetter = new MyDataSourceGetter(schemaName);
+        for (String groupName : groupAndPlans.keySet()) {
+            final TGroupDataSource dataSource = dsGetter.getDataSource(groupName);
+            if (null == dataSource || !dataSource.isXDataSource()) {
+                return false;
+            }
+        }
+
+        final ITopologyExecutor executor = ExecutorContext.getContext(schemaName).getTopologyExecutor();
+        for (List<BaseQueryOperation> plans : groupAndPlans.values()) {
+            if (plans.size() == 1) {
+                inputCursors.add(executor.execByExecPlanNode(plans.get(0), executionContext));
+                continue;
+            }
+            try {
+                inputCursors.add(
+                    new AffectRowCursor(((MyRepository) repo).executeUpdatePipeline(plans, executionContext)));
+            } catch (SQLException e) {
+                throw GeneralUtil.nestedException(e);
+            }
+        }
+        return true;
+    }
+
     protected void executeWithConcurrentPolicy(ExecutionContext executionContext, List<RelNode> inputs,
                                                QueryConcurrencyPolicy queryConcurrencyPolicy,
                                                List<Cursor> inputCursors, String schemaName) {
@@ -41,6 +41,7 @@ import com.alibaba.polardbx.executor.handler.subhandler.InformationSchemaMoveDat
 import com.alibaba.polardbx.executor.handler.subhandler.InformationSchemaPhysicalProcesslistHandler;
 import com.alibaba.polardbx.executor.handler.subhandler.InformationSchemaPlanCacheCapacityHandler;
 import com.alibaba.polardbx.executor.handler.subhandler.InformationSchemaPlanCacheHandler;
+import com.alibaba.polardbx.executor.handler.subhandler.InformationSchemaResultCacheHandler;
 import com.alibaba.polardbx.executor.handler.subhandler.InformationSchemaProcesslistHandler;
 import com.alibaba.polardbx.executor.handler.subhandler.InformationSchemaProfilingHandler;
 import com.alibaba.polardbx.executor.handler.subhandler.InformationSchemaQueryInfoHandler;
@@ -114,6 +115,7 @@ public class VirtualViewHandler extends HandlerCommon {
         subHandler.add(new InformationSchemaInnodbLockWaitsHandler(this));
         subHandler.add(new InformationSchemaPhysicalProcesslistHandler(this));
         subHandler.add(new InformationSchemaPlanCacheHandler(this));
+        subHandler.add(new InformationSchemaResultCacheHandler(this));
         subHandler.add(new InformationSchemaInnodbBufferHandler(this));
         subHandler.add(new InformationSchemaStatisticTaskHandler(this));
         subHandler.add(new InformationSchemaCclRuleHandler(this));
@@ -33,7 +33,7 @@ import java.util.Map;
 import java.util.Set;
 
 /**
- * 获取每个schema下plan cache的entry数量与总容量
+ * 获取每个schema下plan cache的entry数量、总容量与命中统计
  */
 public class InformationSchemaPlanCacheCapacityHandler extends BaseVirtualViewSubClassHandler {
 
@@ -70,12 +70,22 @@ public class InformationSchemaPlanCacheCapacityHandler extends BaseVirtualViewSu
                     final String host = DataTypes.StringType.convertFrom(row.get("COMPUTE_NODE"));
                     final String cacheKeyCount = DataTypes.StringType.convertFrom(row.get("CACHE_KEY_CNT"));
                     final Long capacity = DataTypes.LongType.convertFrom(row.get("CAPACITY"));
+                    final Long cacheWeight = DataTypes.LongType.convertFrom(row.get("CACHE_WEIGHT"));
+                    final Long hitCount = DataTypes.LongType.convertFrom(row.get("HIT_COUNT"));
+                    final Long missCount = DataTypes.LongType.convertFrom(row.get("MISS_COUNT"));
+                    final Long evictionCount = DataTypes.LongType.convertFrom(row.get("EVICTION_COUNT"));
+                    final Long rejectCount = DataTypes.LongType.convertFrom(row.get("REJECT_COUNT"));
 
                     cursor.addRow(new Object[] {
                         host,
                         schemaName,
                         cacheKeyCount,
-                        capacity
+                        capacity,
+                        cacheWeight,
+                        hitCount,
+                        missCount,
+                        evictionCount,
+                        rejectCount
                     });
                 }
             }
@@ -84,7 +84,10 @@ public class InformationSchemaReactorPerfHandler extends BaseVirtualViewSubClass
 
                     DataTypes.LongType.convertFrom(row.get("BUFFER_SIZE")),
                     DataTypes.LongType.convertFrom(row.get("BUFFER_CHUNK_SIZE")),
-                    DataTypes.LongType.convertFrom(row.get("POOLED_BUFFER_COUNT"))
+                    DataTypes.LongType.convertFrom(row.get("POOLED_BUFFER_COUNT")),
+                    DataTypes.LongType.convertFrom(row.get("BUFFER_HIT")),
+                    DataTypes.LongType.convertFrom(row.get("BUFFER_MISS")),
+                    DataTypes.LongType.convertFrom(row.get("BUFFER_OVERFLOW"))
                 });
             }
         }
@@ -0,0 +1,80 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.handler.subhandler;
+
+import com.alibaba.polardbx.executor.cursor.Cursor;
+import com.alibaba.polardbx.executor.cursor.impl.ArrayResultCursor;
+import com.alibaba.polardbx.executor.handler.VirtualViewHandler;
+import com.alibaba.polardbx.executor.sync.FetchResultCacheSyncAction;
+import com.alibaba.polardbx.executor.sync.SyncManagerHelper;
+import com.alibaba.polardbx.gms.topology.SystemDbHelper;
+import com.alibaba.polardbx.optimizer.OptimizerContext;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.view.InformationSchemaResultCache;
+import com.alibaba.polardbx.optimizer.view.VirtualView;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class InformationSchemaResultCacheHandler extends BaseVirtualViewSubClassHandler {
+
+    public InformationSchemaResultCacheHandler(VirtualViewHandler virtualViewHandler) {
+        super(virtualViewHandler);
+    }
+
+    @Override
+    public boolean isSupport(VirtualView virtualView) {
+        return virtualView instanceof InformationSchemaResultCache;
+    }
+
+    @Override
+    public Cursor handle(VirtualView virtualView, ExecutionContext executionContext, ArrayResultCursor cursor) {
+
+        Set<String> schemaNames = OptimizerContext.getActiveSchemaNames();
+        for (String schemaName : schemaNames) {
+
+            if (SystemDbHelper.CDC_DB_NAME.equalsIgnoreCase(schemaName)) {
+                continue;
+            }
+
+            List<List<Map<String, Object>>> results =
+                SyncManagerHelper.sync(new FetchResultCacheSyncAction(schemaName), schemaName);
+
+            for (List<Map<String, Object>> nodeRows : results) {
+                if (nodeRows == null) {
+                    continue;
+                }
+
+                for (Map<String, Object> row : nodeRows) {
+                    cursor.addRow(new Object[] {
+                        DataTypes.StringType.convertFrom(row.get("COMPUTE_NODE")),
+                        schemaName,
+                        DataTypes.StringType.convertFrom(row.get("TABLE_NAMES")),
+                        DataTypes.StringType.convertFrom(row.get("ID")),
+                        DataTypes.LongType.convertFrom(row.get("HIT_COUNT")),
+                        DataTypes.LongType.convertFrom(row.get("ROW_COUNT")),
+                        DataTypes.LongType.convertFrom(row.get("SIZE_IN_BYTES")),
+                        DataTypes.StringType.convertFrom(row.get("SQL"))
+                    });
+                }
+            }
+        }
+        return cursor;
+    }
+}
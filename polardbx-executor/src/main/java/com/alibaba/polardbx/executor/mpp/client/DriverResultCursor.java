@@ -168,6 +168,14 @@ public class DriverResultCursor extends AbstractCursor {
         return currentValue;
     }
 
+    @Override
+    public boolean skipCurrentChunk() {
+        if (currentChunk != null) {
+            nextPos = currentChunk.getPositionCount();
+        }
+        return true;
+    }
+
     @Override
     public boolean isFinished() {
         boolean finish = driverExec.isFinished();
@@ -92,6 +92,14 @@ public class MppResultCursor extends AbstractCursor {
         return currentValue;
     }
 
+    @Override
+    public boolean skipCurrentChunk() {
+        if (currentChunk != null) {
+            nextPos = currentChunk.getPositionCount();
+        }
+        return true;
+    }
+
     @Override
     public List<Throwable> doClose(List<Throwable> exceptions) {
         if (exceptions == null || exceptions.size() == 0) {
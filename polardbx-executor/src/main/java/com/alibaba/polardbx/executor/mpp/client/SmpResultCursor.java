@@ -124,6 +124,14 @@ public class SmpResultCursor extends AbstractCursor {
         return currentValue;
     }
 
+    @Override
+    public boolean skipCurrentChunk() {
+        if (currentChunk != null) {
+            nextPos = currentChunk.getPositionCount();
+        }
+        return true;
+    }
+
     @Override
     public boolean isFinished() {
         if (!isFinished && parent != null) {
@@ -286,7 +286,7 @@ public class PipelineContext {
                                 operator.getOperatorType(),
                                 operator.getOperatorId(), operator.getOutputRowCount(), operator.getOutputBytes(),
                                 operator.getStartupDuration(), operator.getDuration(), operator.getMemory(),
-                                operator.getInstances(), operator.getSpillCnt()));
+                                operator.getInstances(), operator.getSpillCnt(), operator.getProfile()));
                         }
                     } else {
                         if (taskStats.getOperatorStats() != null) {
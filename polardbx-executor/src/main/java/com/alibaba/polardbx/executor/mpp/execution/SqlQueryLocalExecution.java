@@ -247,6 +247,19 @@ public class SqlQueryLocalExecution extends QueryExecution {
             drivers.stream().filter(driver -> driver.matchSource(sourceId)).collect(Collectors.toList());
         Preconditions.checkArgument(filterDrivers.size() > 0, "filterDrivers is null!");
 
+        if (splitInfo.isPartitionWise()) {
+            // The i-th driver sends its chunks to the i-th hash join executor through DIRECT local exchange,
+            // so the buckets of both join inputs must be scanned by the drivers of the same index
+            Preconditions.checkState(splitInfo.getSplits().size() == filterDrivers.size(),
+                "bucket number %s of partition-wise join does not match driver number %s",
+                splitInfo.getSplits().size(), filterDrivers.size());
+            int index = 0;
+            for (List<Split> bucket : splitInfo.getSplits()) {
+                filterDrivers.get(index++).processNewSources(sourceId, bucket, expand, true);
+            }
+            return;
+        }
+
         if (filterDrivers.size() == 1) {
             //并发度==1
             if (splitInfo.getSplits().size() > 1) {
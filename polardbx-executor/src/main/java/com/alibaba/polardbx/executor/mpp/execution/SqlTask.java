@@ -735,7 +735,7 @@ public class SqlTask {
                                 new OperatorStats(Optional.empty(), driverContext.getPipelineContext().getPipelineId(),
                                     Optional.of(idToName.get(operatorId)), operatorId, ret.getRowCount(),
                                     ret.getOutputBytes(), ret.getStartupDuration(), ret.getDuration(),
-                                    ret.getMemory(), ret.getInstances(), ret.getSpillCnt());
+                                    ret.getMemory(), ret.getInstances(), ret.getSpillCnt(), ret.getProfile());
                             operatorStatsList.add(operatorStats);
                             finishedStatics.add(operatorId);
                         }
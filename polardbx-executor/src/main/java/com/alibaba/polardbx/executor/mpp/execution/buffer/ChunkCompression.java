@@ -22,7 +22,11 @@ import com.alibaba.polardbx.common.exception.code.ErrorCode;
 public enum ChunkCompression {
 
     UNCOMPRESSED((byte) 0),
-    COMPRESSED((byte) 1);
+    COMPRESSED((byte) 1),
+    /**
+     * Compressed by deflate, only used in spill files
+     */
+    DEFLATED((byte) 2);
 
     private final byte marker;
 
@@ -35,9 +39,11 @@ public enum ChunkCompression {
     }
 
     public static ChunkCompression lookupCodecFromMarker(byte marker) {
-        if (marker != UNCOMPRESSED.getMarker() && marker != COMPRESSED.getMarker()) {
-            throw new TddlRuntimeException(ErrorCode.ERR_CORRUPT_PAGE, "Page marker did not contain expected value");
+        for (ChunkCompression compression : values()) {
+            if (compression.getMarker() == marker) {
+                return compression;
+            }
         }
-        return UNCOMPRESSED.getMarker() == marker ? UNCOMPRESSED : COMPRESSED;
+        throw new TddlRuntimeException(ErrorCode.ERR_CORRUPT_PAGE, "Page marker did not contain expected value");
     }
 }
@@ -16,6 +16,8 @@
 
 package com.alibaba.polardbx.executor.mpp.execution.buffer;
 
+import com.alibaba.polardbx.common.exception.TddlRuntimeException;
+import com.alibaba.polardbx.common.exception.code.ErrorCode;
 import com.alibaba.polardbx.optimizer.chunk.BlockEncoding;
 import com.alibaba.polardbx.optimizer.chunk.BlockEncodingBuilders;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
@@ -29,6 +31,9 @@ import io.airlift.slice.Slices;
 import javax.annotation.concurrent.NotThreadSafe;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
@@ -36,24 +41,59 @@ import static io.airlift.compress.lz4.Lz4RawCompressor.maxCompressedLength;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
 
+/**
+ * Serialize chunks for exchange and spill.
+ * <p>
+ * With adaptive compression (used by spill), the serde backs off compressing after incompressible chunks
+ * and periodically probes deflate against lz4, switching to deflate when it is clearly smaller,
+ * which is usually the case for string-heavy chunks.
+ */
 @NotThreadSafe
 public class PagesSerde {
     private static final double MINIMUM_COMPRESSION_RATIO = 0.8;
 
+    /**
+     * Deflate is preferred only if its output is smaller than this ratio of lz4 output
+     */
+    private static final double DEFLATE_GAIN_RATIO = 0.75;
+    private static final int DEFLATE_PROBE_INTERVAL = 16;
+    private static final int MAX_SKIPPED_CHUNKS = 32;
+
     private final Optional<Compressor> compressor;
     private final Optional<Decompressor> decompressor;
     private final List<BlockEncoding> blockEncodings;
+    private final boolean adaptive;
+    private final boolean checksumEnabled;
+
+    private ChunkCompression preferredCompression = ChunkCompression.COMPRESSED;
+    private int chunksSinceProbe;
+    private int chunksToSkip;
+    private int skippedChunks;
 
     public PagesSerde(Optional<Compressor> compressor,
                       Optional<Decompressor> decompressor,
                       List<DataType> types) {
+        this(compressor, decompressor, types, false, false);
+    }
+
+    public PagesSerde(Optional<Compressor> compressor,
+                      Optional<Decompressor> decompressor,
+                      List<DataType> types,
+                      boolean adaptive,
+                      boolean checksumEnabled) {
         this.compressor = requireNonNull(compressor, "compressor is null");
         this.decompressor = requireNonNull(decompressor, "decompressor is null");
         this.blockEncodings = BlockEncodingBuilders.create(types);
+        this.adaptive = adaptive;
+        this.checksumEnabled = checksumEnabled;
         checkArgument(compressor.isPresent() == decompressor.isPresent(),
             "compressor and decompressor must both be present or both be absent");
     }
 
+    public boolean isChecksumEnabled() {
+        return checksumEnabled;
+    }
+
     public SerializedChunk serialize(boolean localChunk, Chunk page) {
         if (localChunk) {
             return new SerializedChunk(page, (int) page.getSizeInBytes(), ChunkCompression.UNCOMPRESSED,
@@ -73,22 +113,89 @@ public class PagesSerde {
                 page.getPositionCount(), serializationBuffer.size());
         }
 
-        int maxCompressedLength = maxCompressedLength(serializationBuffer.size());
-        byte[] compressionBuffer = new byte[maxCompressedLength];
-        int actualCompressedLength = compressor.get()
-            .compress(serializationBuffer.slice().getBytes(), 0, serializationBuffer.size(), compressionBuffer, 0,
-                maxCompressedLength);
+        if (adaptive && skippedChunks < chunksToSkip) {
+            skippedChunks++;
+            return new SerializedChunk(serializationBuffer.slice(), ChunkCompression.UNCOMPRESSED,
+                page.getPositionCount(), serializationBuffer.size());
+        }
+        skippedChunks = 0;
+
+        byte[] uncompressed = serializationBuffer.slice().getBytes();
+        SerializedChunk compressed;
+        if (!adaptive) {
+            compressed = compressLz4(uncompressed, page.getPositionCount());
+        } else if (++chunksSinceProbe >= DEFLATE_PROBE_INTERVAL) {
+            chunksSinceProbe = 0;
+            SerializedChunk lz4Chunk = compressLz4(uncompressed, page.getPositionCount());
+            SerializedChunk deflatedChunk = compressDeflate(uncompressed, page.getPositionCount());
+            int lz4Size = lz4Chunk == null ? uncompressed.length : lz4Chunk.getSizeInBytes();
+            if (deflatedChunk != null && deflatedChunk.getSizeInBytes() < lz4Size * DEFLATE_GAIN_RATIO) {
+                preferredCompression = ChunkCompression.DEFLATED;
+                compressed = deflatedChunk;
+            } else {
+                preferredCompression = ChunkCompression.COMPRESSED;
+                compressed = lz4Chunk;
+            }
+        } else if (preferredCompression == ChunkCompression.DEFLATED) {
+            compressed = compressDeflate(uncompressed, page.getPositionCount());
+        } else {
+            compressed = compressLz4(uncompressed, page.getPositionCount());
+        }
 
-        if (((1.0 * actualCompressedLength) / serializationBuffer.size()) > MINIMUM_COMPRESSION_RATIO) {
+        if (compressed == null
+            || ((1.0 * compressed.getSizeInBytes()) / serializationBuffer.size()) > MINIMUM_COMPRESSION_RATIO) {
+            if (adaptive) {
+                // back off exponentially on incompressible data, and probe again later
+                chunksToSkip = Math.min(Math.max(chunksToSkip * 2, 1), MAX_SKIPPED_CHUNKS);
+            }
             return new SerializedChunk(serializationBuffer.slice(), ChunkCompression.UNCOMPRESSED,
                 page.getPositionCount(), serializationBuffer.size());
         }
+        chunksToSkip = 0;
+        return compressed;
+    }
 
+    private SerializedChunk compressLz4(byte[] uncompressed, int positionCount) {
+        int maxCompressedLength = maxCompressedLength(uncompressed.length);
+        byte[] compressionBuffer = new byte[maxCompressedLength];
+        int actualCompressedLength = compressor.get()
+            .compress(uncompressed, 0, uncompressed.length, compressionBuffer, 0, maxCompressedLength);
+        if (actualCompressedLength >= uncompressed.length) {
+            return null;
+        }
         return new SerializedChunk(
             Slices.copyOf(Slices.wrappedBuffer(compressionBuffer, 0, actualCompressedLength)),
             ChunkCompression.COMPRESSED,
-            page.getPositionCount(),
-            serializationBuffer.size());
+            positionCount,
+            uncompressed.length);
+    }
+
+    /**
+     * @return null if the deflated data is not smaller than the uncompressed data
+     */
+    private static SerializedChunk compressDeflate(byte[] uncompressed, int positionCount) {
+        // PagesSerde has no close hook, so the native memory of deflater is released right after use
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        byte[] compressionBuffer = new byte[uncompressed.length];
+        int actualCompressedLength = 0;
+        try {
+            deflater.setInput(uncompressed, 0, uncompressed.length);
+            deflater.finish();
+            while (!deflater.finished() && actualCompressedLength < compressionBuffer.length) {
+                actualCompressedLength += deflater.deflate(compressionBuffer, actualCompressedLength,
+                    compressionBuffer.length - actualCompressedLength);
+            }
+            if (!deflater.finished() || actualCompressedLength >= uncompressed.length) {
+                return null;
+            }
+        } finally {
+            deflater.end();
+        }
+        return new SerializedChunk(
+            Slices.copyOf(Slices.wrappedBuffer(compressionBuffer, 0, actualCompressedLength)),
+            ChunkCompression.DEFLATED,
+            positionCount,
+            uncompressed.length);
     }
 
     public Chunk deserialize(SerializedChunk serializedChunk) {
@@ -98,19 +205,46 @@ public class PagesSerde {
             return serializedChunk.getPage();
         }
 
-        if (!decompressor.isPresent() || serializedChunk.getCompression() == ChunkCompression.UNCOMPRESSED) {
+        if (serializedChunk.getCompression() == ChunkCompression.UNCOMPRESSED
+            || (!decompressor.isPresent() && serializedChunk.getCompression() == ChunkCompression.COMPRESSED)) {
             return PagesSerdeUtil.readRawPage(serializedChunk.getPositionCount(), serializedChunk.getSlice().getInput(),
                 blockEncodings);
         }
 
         int uncompressedSize = serializedChunk.getUncompressedSizeInBytes();
         byte[] decompressed = new byte[uncompressedSize];
-        int actualUncompressedSize = decompressor.get()
-            .decompress(serializedChunk.getSlice().getBytes(), 0, serializedChunk.getSlice().length(), decompressed, 0,
-                uncompressedSize);
+        int actualUncompressedSize;
+        if (serializedChunk.getCompression() == ChunkCompression.DEFLATED) {
+            actualUncompressedSize = inflate(serializedChunk.getSlice().getBytes(), decompressed);
+        } else {
+            actualUncompressedSize = decompressor.get()
+                .decompress(serializedChunk.getSlice().getBytes(), 0, serializedChunk.getSlice().length(),
+                    decompressed, 0, uncompressedSize);
+        }
         checkState(uncompressedSize == actualUncompressedSize);
 
         return PagesSerdeUtil.readRawPage(serializedChunk.getPositionCount(), Slices
             .wrappedBuffer(decompressed, 0, uncompressedSize).getInput(), blockEncodings);
     }
+
+    private static int inflate(byte[] compressed, byte[] decompressed) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed);
+            int actualUncompressedSize = 0;
+            while (!inflater.finished() && actualUncompressedSize < decompressed.length) {
+                int n = inflater.inflate(decompressed, actualUncompressedSize,
+                    decompressed.length - actualUncompressedSize);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                actualUncompressedSize += n;
+            }
+            return actualUncompressedSize;
+        } catch (DataFormatException e) {
+            throw new TddlRuntimeException(ErrorCode.ERR_CORRUPT_PAGE, e, "Failed to inflate chunk");
+        } finally {
+            inflater.end();
+        }
+    }
 }
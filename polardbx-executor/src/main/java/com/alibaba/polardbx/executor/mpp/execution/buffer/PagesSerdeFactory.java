@@ -16,6 +16,7 @@
 
 package com.alibaba.polardbx.executor.mpp.execution.buffer;
 
+import com.alibaba.polardbx.common.properties.MppConfig;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 import io.airlift.compress.lz4.Lz4Compressor;
 import io.airlift.compress.lz4.Lz4Decompressor;
@@ -26,16 +27,41 @@ import java.util.Optional;
 public class PagesSerdeFactory {
 
     private final boolean compressionEnabled;
+    private final boolean adaptive;
+    private final boolean checksumEnabled;
 
     public PagesSerdeFactory(boolean compressionEnabled) {
+        this(compressionEnabled, false, false);
+    }
+
+    public PagesSerdeFactory(boolean compressionEnabled, boolean adaptive, boolean checksumEnabled) {
         this.compressionEnabled = compressionEnabled;
+        this.adaptive = adaptive;
+        this.checksumEnabled = checksumEnabled;
+    }
+
+    /**
+     * Create the serde factory of spill files according to MPP_SPILL_COMPRESSION and MPP_SPILL_CHECKSUM
+     */
+    public static PagesSerdeFactory createSpillSerdeFactory() {
+        String compression = MppConfig.getInstance().getSpillCompression();
+        boolean checksumEnabled = MppConfig.getInstance().isSpillChecksumEnabled();
+        switch (compression) {
+            case "NONE":
+                return new PagesSerdeFactory(false, false, checksumEnabled);
+            case "LZ4":
+                return new PagesSerdeFactory(true, false, checksumEnabled);
+            default:
+                return new PagesSerdeFactory(true, true, checksumEnabled);
+        }
     }
 
     public PagesSerde createPagesSerde(List<DataType> types) {
         if (compressionEnabled) {
-            return new PagesSerde(Optional.of(new Lz4Compressor()), Optional.of(new Lz4Decompressor()), types);
+            return new PagesSerde(Optional.of(new Lz4Compressor()), Optional.of(new Lz4Decompressor()), types,
+                adaptive, checksumEnabled);
         } else {
-            return new PagesSerde(Optional.empty(), Optional.empty(), types);
+            return new PagesSerde(Optional.empty(), Optional.empty(), types, false, checksumEnabled);
         }
     }
 }
@@ -16,6 +16,8 @@
 
 package com.alibaba.polardbx.executor.mpp.execution.buffer;
 
+import com.alibaba.polardbx.common.exception.TddlRuntimeException;
+import com.alibaba.polardbx.common.exception.code.ErrorCode;
 import com.alibaba.polardbx.optimizer.chunk.Block;
 import com.alibaba.polardbx.optimizer.chunk.BlockEncoding;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
@@ -23,6 +25,7 @@ import com.clearspring.analytics.util.AbstractIterator;
 import io.airlift.slice.Slice;
 import io.airlift.slice.SliceInput;
 import io.airlift.slice.SliceOutput;
+import io.airlift.slice.XxHash64;
 
 import java.util.Iterator;
 import java.util.List;
@@ -58,6 +61,18 @@ public class PagesSerdeUtil {
         return Integer.BYTES * 3 + Byte.BYTES + page.getSlice().length();
     }
 
+    /**
+     * Write the serialized chunk, followed by the checksum of chunk data if checksum of serde is enabled.
+     */
+    public static long writeSerializedChunk(PagesSerde serde, SliceOutput output, SerializedChunk page) {
+        long size = writeSerializedChunk(output, page);
+        if (serde.isChecksumEnabled()) {
+            output.writeLong(XxHash64.hash(page.getSlice()));
+            size += Long.BYTES;
+        }
+        return size;
+    }
+
     private static SerializedChunk readSerializedChunk(SliceInput sliceInput) {
         int positionCount = sliceInput.readInt();
         byte codecMarker = sliceInput.readByte();
@@ -101,7 +116,7 @@ public class PagesSerdeUtil {
     }
 
     public static long writeChunk(PagesSerde serde, SliceOutput sliceOutput, Chunk page) {
-        return writeSerializedChunk(sliceOutput, serde.serialize(false, page));
+        return writeSerializedChunk(serde, sliceOutput, serde.serialize(false, page));
     }
 
     public static Iterator<Chunk> readPages(PagesSerde serde, SliceInput sliceInput) {
@@ -124,6 +139,12 @@ public class PagesSerdeUtil {
                 return endOfData();
             }
             SerializedChunk serializedChunk = readSerializedChunk(input);
+            if (serde.isChecksumEnabled()) {
+                long checksum = input.readLong();
+                if (checksum != XxHash64.hash(serializedChunk.getSlice())) {
+                    throw new TddlRuntimeException(ErrorCode.ERR_CORRUPT_PAGE, "Checksum of chunk mismatched");
+                }
+            }
             return serde.deserialize(serializedChunk);
         }
     }
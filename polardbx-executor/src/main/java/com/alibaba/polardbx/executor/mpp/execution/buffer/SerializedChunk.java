@@ -43,7 +43,7 @@ public class SerializedChunk {
         checkArgument(uncompressedSizeInBytes >= 0, "uncompressedSizeInBytes is negative");
         checkArgument(compression == ChunkCompression.UNCOMPRESSED || uncompressedSizeInBytes > slice.length(),
             "compressed size must be smaller than uncompressed size when compressed");
-        checkArgument(compression == ChunkCompression.COMPRESSED || uncompressedSizeInBytes == slice.length(),
+        checkArgument(compression != ChunkCompression.UNCOMPRESSED || uncompressedSizeInBytes == slice.length(),
             "uncompressed size must be equal to slice length when uncompressed");
         this.uncompressedSizeInBytes = uncompressedSizeInBytes;
         this.page = null;
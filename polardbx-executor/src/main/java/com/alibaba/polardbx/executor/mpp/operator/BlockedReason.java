@@ -30,5 +30,9 @@
 package com.alibaba.polardbx.executor.mpp.operator;
 
 public enum BlockedReason {
-    WAITING_FOR_MEMORY
+    WAITING_FOR_MEMORY,
+    WAITING_FOR_SPILL,
+    WAITING_FOR_INPUT,
+    WAITING_FOR_OUTPUT,
+    WAITING_FOR_STORAGE
 }
@@ -31,12 +31,15 @@ import com.alibaba.polardbx.executor.mpp.execution.ScheduledSplit;
 import com.alibaba.polardbx.executor.mpp.execution.TaskContext;
 import com.alibaba.polardbx.executor.mpp.execution.TaskSource;
 import com.alibaba.polardbx.executor.mpp.metadata.Split;
+import com.alibaba.polardbx.executor.operator.AbstractExecutor;
 import com.alibaba.polardbx.executor.operator.ConsumerExecutor;
 import com.alibaba.polardbx.executor.operator.Executor;
 import com.alibaba.polardbx.executor.operator.ProducerExecutor;
 import com.alibaba.polardbx.executor.operator.SourceExec;
+import com.alibaba.polardbx.executor.operator.TableScanExec;
 import com.alibaba.polardbx.executor.operator.spill.MemoryRevoker;
 import com.alibaba.polardbx.executor.utils.ExecUtils;
+import com.alibaba.polardbx.optimizer.statis.OperatorStatistics;
 
 import javax.annotation.concurrent.GuardedBy;
 import java.io.Closeable;
@@ -99,6 +102,16 @@ public class Driver implements Closeable {
 
     private boolean flagConsumerFinished;
 
+    /**
+     * Whether to attribute the blocked time to operators, see MetricLevel.PROFILE
+     */
+    private final boolean profileEnabled;
+
+    /**
+     * Blocked futures being profiled, the same future may be returned again before it is done
+     */
+    private final Set<ListenableFuture<?>> profilingBlocked = Sets.newConcurrentHashSet();
+
     public Driver(DriverContext driverContext, DriverExec driverExec) {
         this.driverContext = driverContext;
         this.driverExec = driverExec;
@@ -112,6 +125,7 @@ public class Driver implements Closeable {
             PipelineDepTree.TreeNode pipeline = pipelineDepTree.getNode(driverExec.getPipelineId());
             buildDepOnAllConsumers = pipeline.isBuildDepOnAllConsumers();
         }
+        this.profileEnabled = ExecUtils.isOperatorProfileEnabled(taskContext.getContext());
     }
 
     @Override
@@ -426,18 +440,18 @@ public class Driver implements Closeable {
                 }
 
                 if (!revokingBlocked.isDone()) {
-                    return revokingBlocked;
+                    return profileBlocked(revokingBlocked, driverExec.getConsumer(), BlockedReason.WAITING_FOR_SPILL);
                 }
 
                 for (MemoryRevoker memoryRevoker : driverExec.getMemoryRevokers()) {
                     if (memoryRevoker.getMemoryAllocatorCtx() != null) {
                         ListenableFuture<?> blocked = memoryRevoker.getMemoryAllocatorCtx().isWaitingForMemory();
                         if (blocked != null && !blocked.isDone()) {
-                            return blocked;
+                            return profileBlocked(blocked, memoryRevoker, BlockedReason.WAITING_FOR_MEMORY);
                         }
                         blocked = memoryRevoker.getMemoryAllocatorCtx().isWaitingForTryMemory();
                         if (blocked != null && !blocked.isDone()) {
-                            return blocked;
+                            return profileBlocked(blocked, memoryRevoker, BlockedReason.WAITING_FOR_MEMORY);
                         }
                     }
                 }
@@ -478,15 +492,22 @@ public class Driver implements Closeable {
                             Chunk ret = producer.nextChunk();
                             if (ret != null) {
                                 driverContext.addOutputSize(ret.getPositionCount());
+                                if (profileEnabled && consumer instanceof AbstractExecutor) {
+                                    OperatorStatistics statistics = ((AbstractExecutor) consumer).getStatistics();
+                                    if (statistics != null) {
+                                        statistics.addInput(ret.getPositionCount(), ret.getSizeInBytes());
+                                    }
+                                }
                                 consumer.consumeChunk(ret);
                                 movedPage = true;
-                                blocked = consumer.consumeIsBlocked();
+                                blocked = profileBlocked(
+                                    consumer.consumeIsBlocked(), consumer, BlockedReason.WAITING_FOR_OUTPUT);
                             } else {
                                 boolean finished = driverExec.getProducer().produceIsFinished();
                                 if (finished) {
                                     blocked = buildConsumerAndClose(true);
                                 } else {
-                                    blocked = driverExec.getProducer().produceIsBlocked();
+                                    blocked = profileProducerBlocked(producer, producer.produceIsBlocked());
                                 }
                             }
                         } catch (Throwable e) {
@@ -500,7 +521,8 @@ public class Driver implements Closeable {
                         if (consumer.consumeIsFinished()) {
                             blocked = buildConsumerAndClose(true);
                         } else {
-                            blocked = consumer.consumeIsBlocked();
+                            blocked = profileBlocked(
+                                consumer.consumeIsBlocked(), consumer, BlockedReason.WAITING_FOR_OUTPUT);
                         }
                     }
                 }
@@ -524,6 +546,48 @@ public class Driver implements Closeable {
         }
     }
 
+    /**
+     * Attribute the blocked time of the producer to the leaf operator which actually waits,
+     * i.e. the table scan waiting for storage or the exchange waiting for upstream tasks.
+     */
+    private ListenableFuture<?> profileProducerBlocked(Executor producer, ListenableFuture<?> blocked) {
+        if (!profileEnabled || blocked.isDone()) {
+            return blocked;
+        }
+        Executor leaf = producer;
+        while (leaf.getInputs() != null && !leaf.getInputs().isEmpty()) {
+            leaf = leaf.getInputs().get(0);
+        }
+        return profileBlocked(blocked, leaf,
+            leaf instanceof TableScanExec ? BlockedReason.WAITING_FOR_STORAGE : BlockedReason.WAITING_FOR_INPUT);
+    }
+
+    private ListenableFuture<?> profileBlocked(ListenableFuture<?> blocked, Object executor, BlockedReason reason) {
+        if (!profileEnabled || blocked.isDone() || !(executor instanceof AbstractExecutor)) {
+            return blocked;
+        }
+        OperatorStatistics statistics = ((AbstractExecutor) executor).getStatistics();
+        if (statistics != null) {
+            addBlockedListener(blocked, statistics, reason, profilingBlocked);
+        }
+        return blocked;
+    }
+
+    /**
+     * Add the blocked time to statistics once the future is done, only one listener is added for each future.
+     */
+    static void addBlockedListener(ListenableFuture<?> blocked, OperatorStatistics statistics,
+                                   BlockedReason reason, Set<ListenableFuture<?>> profilingBlocked) {
+        if (!profilingBlocked.add(blocked)) {
+            return;
+        }
+        final long start = System.nanoTime();
+        blocked.addListener(() -> {
+            statistics.addBlockedDuration(reason.name(), System.nanoTime() - start);
+            profilingBlocked.remove(blocked);
+        }, directExecutor());
+    }
+
     private ListenableFuture<?> buildConsumerAndClose(boolean closeProducer) {
         if (driverContext.isDone()) {
             driverExec.close();
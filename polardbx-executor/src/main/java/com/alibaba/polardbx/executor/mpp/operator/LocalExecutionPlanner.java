@@ -69,6 +69,7 @@ import com.alibaba.polardbx.executor.mpp.planner.PipelineFragment;
 import com.alibaba.polardbx.executor.mpp.planner.PlanFragment;
 import com.alibaba.polardbx.executor.mpp.planner.RemoteSourceNode;
 import com.alibaba.polardbx.executor.mpp.planner.WrapPipelineFragment;
+import com.alibaba.polardbx.executor.mpp.split.PartitionWiseSplitAssigner;
 import com.alibaba.polardbx.executor.mpp.split.SplitInfo;
 import com.alibaba.polardbx.executor.mpp.split.SplitManager;
 import com.alibaba.polardbx.executor.operator.spill.SpillerFactory;
@@ -79,6 +80,7 @@ import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 import com.alibaba.polardbx.optimizer.core.join.EquiJoinKey;
 import com.alibaba.polardbx.optimizer.core.join.EquiJoinUtils;
+import com.alibaba.polardbx.optimizer.core.join.PartitionWiseJoinUtils;
 import com.alibaba.polardbx.optimizer.core.planner.rule.util.CBOUtil;
 import com.alibaba.polardbx.optimizer.core.rel.BKAJoin;
 import com.alibaba.polardbx.optimizer.core.rel.BaseTableOperation;
@@ -934,6 +936,8 @@ public class LocalExecutionPlanner {
         } else {
             OutputBufferMemoryManager localBufferManager = createLocalMemoryManager();
             ExecutorFactory probeExecutorFactory = visit(current, probeNode, fragment);
+            boolean partitionWise =
+                tryPartitionWiseJoin(current, buildFramgent, fragment, childFactory, probeExecutorFactory);
             //generate current executorFactory
             int numPartitions = buildFramgent.getParallelism() > fragment.getParallelism() ?
                 fragment.getParallelism() : buildFramgent.getParallelism();
@@ -941,11 +945,15 @@ public class LocalExecutionPlanner {
                 new ParallelHashJoinExecutorFactory(current, otherCond, equalCond, maxOneRow, oprands,
                     emptybuildFactory,
                     probeExecutorFactory, fragment.getParallelism(), numPartitions, driverBuilder);
+            if (partitionWise) {
+                joinExecutorFactory.enablePartitionWise();
+            }
 
             //generate child's pipelineFactory
             LocalExchange localExchange =
                 new LocalExchange(CalciteUtils.getTypes(buildNode.getRowType()), ImmutableList.of(),
-                    LocalExchange.LocalExchangeMode.RANDOM, true);
+                    partitionWise ? LocalExchange.LocalExchangeMode.DIRECT : LocalExchange.LocalExchangeMode.RANDOM,
+                    true);
             LocalExchangeConsumerFactory consumerFactory =
                 new LocalExchangeConsumerFactory(joinExecutorFactory, localBufferManager, localExchange);
 
@@ -969,6 +977,59 @@ public class LocalExecutionPlanner {
         }
     }
 
+    /**
+     * Execute hash join partition by partition if both inputs are partitioned on the join keys in the same
+     * table group. The splits of both inputs are aligned by partition, so that the build and probe side of
+     * the same parallel index always scan the same partitions, and each executor only builds a small
+     * hash table of its own partitions.
+     */
+    private boolean tryPartitionWiseJoin(Join join, PipelineFragment buildFragment, PipelineFragment probeFragment,
+                                         ExecutorFactory buildFactory, ExecutorFactory probeFactory) {
+        if (isCluster || forbidMultipleReadConn
+            || !context.getParamManager().getBoolean(ConnectionParams.ENABLE_PARTITION_WISE_JOIN)) {
+            return false;
+        }
+        if (ExecUtils.useExplicitTransaction(context)) {
+            // splits of one group are merged into a single split on the transaction connection
+            return false;
+        }
+        if (!(buildFactory instanceof LogicalViewExecutorFactory)
+            || !(probeFactory instanceof LogicalViewExecutorFactory)) {
+            return false;
+        }
+        LogicalViewExecutorFactory buildViewFactory = (LogicalViewExecutorFactory) buildFactory;
+        LogicalViewExecutorFactory probeViewFactory = (LogicalViewExecutorFactory) probeFactory;
+        int parallelism = probeFragment.getParallelism();
+        if (parallelism <= 1 || buildFragment.getParallelism() != parallelism
+            || buildViewFactory.getParallelism() != parallelism || probeViewFactory.getParallelism() != parallelism
+            || buildViewFactory.isPushDownSort() || probeViewFactory.isPushDownSort()) {
+            return false;
+        }
+        if (!PartitionWiseJoinUtils.isPartitionWise(join, context)) {
+            return false;
+        }
+
+        LogicalView buildView = buildViewFactory.getLogicalView();
+        LogicalView probeView = probeViewFactory.getLogicalView();
+        SplitInfo buildSplitInfo = buildFragment.getSource(buildView.getRelatedId());
+        SplitInfo probeSplitInfo = probeFragment.getSource(probeView.getRelatedId());
+        if (buildSplitInfo == null || probeSplitInfo == null) {
+            return false;
+        }
+        PartitionWiseSplitAssigner assigner = new PartitionWiseSplitAssigner(
+            PartitionWiseJoinUtils.getPartitionInfo(buildView, context),
+            PartitionWiseJoinUtils.getPartitionInfo(probeView, context), parallelism);
+        SplitInfo[] alignedSplitInfos = assigner.assign(buildSplitInfo, probeSplitInfo);
+        if (alignedSplitInfos == null) {
+            return false;
+        }
+        buildFragment.putSource(buildView.getRelatedId(), alignedSplitInfos[0]);
+        probeFragment.putSource(probeView.getRelatedId(), alignedSplitInfos[1]);
+        buildViewFactory.enablePartitionWise();
+        probeViewFactory.enablePartitionWise();
+        return true;
+    }
+
     private ExecutorFactory visitBKAJoin(Join current, PipelineFragment pipelineFragment) {
 
         if (defaultParallelism != 1 && ExecUtils.useExplicitTransaction(context)) {
@@ -20,6 +20,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableList;
 import com.alibaba.polardbx.executor.mpp.execution.StageId;
+import org.apache.calcite.util.trace.RuntimeStatisticsProfile;
 import org.apache.calcite.util.trace.RuntimeStatisticsSketch;
 
 import javax.annotation.concurrent.Immutable;
@@ -38,6 +39,7 @@ public class OperatorStats {
     private final long memory;
     private final int instances;
     private final int spillCnt;
+    private final RuntimeStatisticsProfile profile;
 
     @JsonCreator
     public OperatorStats(
@@ -62,7 +64,9 @@ public class OperatorStats {
         @JsonProperty("instances")
             int instances,
         @JsonProperty("spillCnt")
-            int spillCnt) {
+            int spillCnt,
+        @JsonProperty("profile")
+            RuntimeStatisticsProfile profile) {
         this.operatorType = operatorType;
         this.stageId = stageId;
         this.pipelineId = pipelineId;
@@ -74,6 +78,7 @@ public class OperatorStats {
         this.memory = memory;
         this.instances = instances;
         this.spillCnt = spillCnt;
+        this.profile = profile;
     }
 
     @JsonProperty
@@ -121,6 +126,11 @@ public class OperatorStats {
         return spillCnt;
     }
 
+    @JsonProperty
+    public RuntimeStatisticsProfile getProfile() {
+        return profile;
+    }
+
     @JsonProperty
     public Optional<StageId> getStageId() {
         return stageId;
@@ -143,6 +153,8 @@ public class OperatorStats {
         long memory = this.memory;
         int instances = this.instances;
         int spillCnt = 0;
+        RuntimeStatisticsProfile profile =
+            this.profile == null ? null : new RuntimeStatisticsProfile().merge(this.profile);
         for (OperatorStats operator : operators) {
             outputRowCount += operator.outputRowCount;
             outputBytes += operator.outputBytes;
@@ -151,13 +163,19 @@ public class OperatorStats {
             memory += operator.memory;
             instances += operator.instances;
             spillCnt += operator.spillCnt;
+            if (operator.profile != null) {
+                profile = profile == null ? new RuntimeStatisticsProfile() : profile;
+                profile.merge(operator.profile);
+            }
         }
         return new OperatorStats(stageId, pipelineId, operatorType, operatorId, outputRowCount, outputBytes,
-            startupDuration, duration, memory, instances, spillCnt);
+            startupDuration, duration, memory, instances, spillCnt, profile);
     }
 
     public RuntimeStatisticsSketch toSketch() {
-        return new RuntimeStatisticsSketch(startupDuration, duration, 0, outputRowCount, outputBytes,
-            memory, instances, spillCnt);
+        RuntimeStatisticsSketch sketch = new RuntimeStatisticsSketch(startupDuration, duration, 0, outputRowCount,
+            outputBytes, memory, instances, spillCnt);
+        sketch.setProfile(profile);
+        return sketch;
     }
 }
\ No newline at end of file
@@ -75,6 +75,11 @@ public class LogicalViewExecutorFactory extends ExecutorFactory {
 
     private boolean enableDrivingResume;
 
+    /**
+     * Each scan reads its own splits, which are aligned with the other input of partition-wise join
+     */
+    private boolean partitionWise;
+
     private List<EquiJoinKey> allJoinKeys; // including null-safe equal (`<=>`)
     private LookupPredicate predicates;
     private List<DataType> dataTypeList;
@@ -142,7 +147,7 @@ public class LogicalViewExecutorFactory extends ExecutorFactory {
                     this.scanClient = new MergeSortTableScanClient(
                         context, meta, useTransactionConnection, totalPrefetch);
                 }
-            } else if (useTransactionConnection || enablePassiveResume || enableDrivingResume) {
+            } else if (useTransactionConnection || enablePassiveResume || enableDrivingResume || partitionWise) {
                 int prefetch = calculatePrefetchNum(counter.incrementAndGet(), parallelism);
                 this.scanClient = new TableScanClient(context, meta, useTransactionConnection, prefetch);
             } else {
@@ -214,6 +219,10 @@ public class LogicalViewExecutorFactory extends ExecutorFactory {
             !(enablePassiveResume && enableDrivingResume), "Don't support stream scan in different mode");
     }
 
+    public void enablePartitionWise() {
+        this.partitionWise = true;
+    }
+
     public TableScanExec createLookupScanExec(ExecutionContext context, boolean canShard,
                                               LookupPredicate predicate, List<EquiJoinKey> allJoinKeys) {
         boolean allowMultipleReadConn = ExecUtils.allowMultipleReadConns(context, logicalView);
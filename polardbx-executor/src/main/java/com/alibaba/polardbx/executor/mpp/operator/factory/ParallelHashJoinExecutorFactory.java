@@ -46,6 +46,7 @@ public class ParallelHashJoinExecutorFactory extends ExecutorFactory {
     private int probeParallelism;
     private int numPartitions;
     private boolean streamJoin;
+    private boolean partitionWise;
 
     public ParallelHashJoinExecutorFactory(Join join, RexNode otherCond, RexNode equalCond, boolean maxOneRow,
                                            List<RexNode> operands, ExecutorFactory build, ExecutorFactory probe,
@@ -80,8 +81,12 @@ public class ParallelHashJoinExecutorFactory extends ExecutorFactory {
                 alreadyUseRuntimeFilter = ((HashJoin) join).isRuntimeFilterPushedDown();
             }
             ParallelHashJoinExec.Synchronizer synchronizer =
-                new ParallelHashJoinExec.Synchronizer(numPartitions, alreadyUseRuntimeFilter);
+                new ParallelHashJoinExec.Synchronizer(partitionWise ? 1 : numPartitions, alreadyUseRuntimeFilter);
             for (int i = 0; i < probeParallelism; i++) {
+                if (partitionWise && i > 0) {
+                    // each executor builds a small hash table for its own partitions
+                    synchronizer = new ParallelHashJoinExec.Synchronizer(1, alreadyUseRuntimeFilter);
+                }
                 Executor inner;
                 Executor outerInput;
                 if (driverBuilder) {
@@ -121,4 +126,8 @@ public class ParallelHashJoinExecutorFactory extends ExecutorFactory {
     public void enableStreamJoin(boolean streamJoin) {
         this.streamJoin = streamJoin;
     }
+
+    public void enablePartitionWise() {
+        this.partitionWise = true;
+    }
 }
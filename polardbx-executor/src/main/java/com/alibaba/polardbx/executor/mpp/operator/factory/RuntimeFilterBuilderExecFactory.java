@@ -88,8 +88,13 @@ public class RuntimeFilterBuilderExecFactory extends ExecutorFactory {
                 BloomFilter intBloomFilter = BloomFilter.createEmpty(bloomFilterSize, fpp);
                 bloomFilters.add(intBloomFilter);
             }
+            // key range is only needed when runtime filters are pushed down as range predicates
+            boolean collectKeyRange =
+                context.getParamManager().getBoolean(ConnectionParams.ENABLE_RUNTIME_FILTER_RANGE_PUSHDOWN)
+                    && !context.getParamManager().getBoolean(ConnectionParams.STORAGE_SUPPORTS_BLOOM_FILTER);
             bloomFilterProduce = BloomFilterProduce.create(
-                bloomfilterId, keyHash, bloomFilters, client, uri, context.getTraceId());
+                bloomfilterId, keyHash, bloomFilters, client, uri, context.getTraceId(), collectKeyRange,
+                context.getParamManager().getInt(ConnectionParams.RUNTIME_FILTER_IN_LIST_MAX_SIZE));
         }
         bloomFilterProduce.addCounter();
         Executor input = getInputs().get(0).createExecutor(context, idx);
@@ -0,0 +1,110 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.mpp.split;
+
+import com.alibaba.polardbx.executor.mpp.metadata.Split;
+import com.alibaba.polardbx.optimizer.partition.PartitionInfo;
+import com.alibaba.polardbx.optimizer.partition.PartitionSpec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Assign the splits of both inputs of a partition-wise join to buckets, so that the partitions at the same
+ * position of both inputs are always scanned by the same parallel index.
+ * <p>
+ * The bucket of a split is decided by the position of its partition if every split scans only one partition,
+ * otherwise by its group, since the partitions at the same position of one table group are always
+ * located in the same group.
+ */
+public class PartitionWiseSplitAssigner {
+
+    private final int bucketNum;
+    private final Map<String, Integer> phyTablePositions = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, Integer> groupOrdinals = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    public PartitionWiseSplitAssigner(PartitionInfo leftPartInfo, PartitionInfo rightPartInfo, int bucketNum) {
+        this.bucketNum = bucketNum;
+        for (PartitionInfo partitionInfo : new PartitionInfo[] {leftPartInfo, rightPartInfo}) {
+            for (PartitionSpec spec : partitionInfo.getPartitionBy().getPartitions()) {
+                phyTablePositions.put(spec.getLocation().getPhyTableName(), spec.getPosition().intValue());
+                groupOrdinals.put(spec.getLocation().getGroupKey(), 0);
+            }
+        }
+        int ordinal = 0;
+        for (Map.Entry<String, Integer> entry : groupOrdinals.entrySet()) {
+            entry.setValue(ordinal++);
+        }
+    }
+
+    /**
+     * @return the bucketed split info of both inputs, or null if splits can not be aligned
+     */
+    public SplitInfo[] assign(SplitInfo leftSplitInfo, SplitInfo rightSplitInfo) {
+        if (leftSplitInfo.isExpand() || rightSplitInfo.isExpand()) {
+            return null;
+        }
+        boolean byPartition = isSinglePartition(leftSplitInfo) && isSinglePartition(rightSplitInfo);
+        SplitInfo left = assign(leftSplitInfo, byPartition);
+        SplitInfo right = assign(rightSplitInfo, byPartition);
+        if (left == null || right == null) {
+            return null;
+        }
+        return new SplitInfo[] {left, right};
+    }
+
+    private SplitInfo assign(SplitInfo splitInfo, boolean byPartition) {
+        List<List<Split>> buckets = new ArrayList<>(bucketNum);
+        for (int i = 0; i < bucketNum; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (List<Split> splits : splitInfo.getSplits()) {
+            for (Split split : splits) {
+                int bucket = bucketOf((JdbcSplit) split.getConnectorSplit(), byPartition);
+                if (bucket < 0) {
+                    return null;
+                }
+                buckets.get(bucket).add(split);
+            }
+        }
+        return new SplitInfo(splitInfo.getSourceId(), false, splitInfo.getConcurrencyPolicy(), buckets,
+            splitInfo.getGroups(), splitInfo.getInsCount(), splitInfo.getSplitCount(), splitInfo.isUnderSort(), true);
+    }
+
+    private int bucketOf(JdbcSplit split, boolean byPartition) {
+        if (byPartition) {
+            Integer position = phyTablePositions.get(split.getTableNames().get(0).get(0));
+            return position == null ? -1 : position % bucketNum;
+        }
+        Integer ordinal = groupOrdinals.get(split.getDbIndex());
+        return ordinal == null ? -1 : ordinal % bucketNum;
+    }
+
+    private static boolean isSinglePartition(SplitInfo splitInfo) {
+        for (List<Split> splits : splitInfo.getSplits()) {
+            for (Split split : splits) {
+                List<List<String>> tableNames = ((JdbcSplit) split.getConnectorSplit()).getTableNames();
+                if (tableNames.size() != 1 || tableNames.get(0).size() != 1) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
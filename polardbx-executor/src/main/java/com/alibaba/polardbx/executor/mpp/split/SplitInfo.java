@@ -37,9 +37,20 @@ public class SplitInfo {
     private final int splitCount;
     private final boolean underSort;
 
+    /**
+     * Whether the splits are bucketed for partition-wise join, the i-th bucket must be scanned by the i-th driver
+     */
+    private final boolean partitionWise;
+
     public SplitInfo(int sourceId, boolean expand, QueryConcurrencyPolicy concurrencyPolicy,
                      Collection<List<Split>> splits, HashMap<String, String> groups, int insCount, int splitCount,
                      boolean underSort) {
+        this(sourceId, expand, concurrencyPolicy, splits, groups, insCount, splitCount, underSort, false);
+    }
+
+    public SplitInfo(int sourceId, boolean expand, QueryConcurrencyPolicy concurrencyPolicy,
+                     Collection<List<Split>> splits, HashMap<String, String> groups, int insCount, int splitCount,
+                     boolean underSort, boolean partitionWise) {
         this.sourceId = sourceId;
         this.expand = expand;
         this.concurrencyPolicy = concurrencyPolicy;
@@ -48,6 +59,7 @@ public class SplitInfo {
         this.insCount = insCount;
         this.splitCount = splitCount;
         this.underSort = underSort;
+        this.partitionWise = partitionWise;
     }
 
     public QueryConcurrencyPolicy getConcurrencyPolicy() {
@@ -85,4 +97,8 @@ public class SplitInfo {
     public HashMap<String, String> getGroups() {
         return groups;
     }
+
+    public boolean isPartitionWise() {
+        return partitionWise;
+    }
 }
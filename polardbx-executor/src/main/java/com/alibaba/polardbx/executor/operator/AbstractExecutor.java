@@ -57,6 +57,8 @@ public abstract class AbstractExecutor implements Executor {
     protected OperatorStatistics statistics = new OperatorStatistics();
     protected long startTime = -1;
     protected final boolean enableCpuProfile;
+    protected final boolean enableOperatorProfile;
+    protected long startWallTime = 0;
     protected final String executorName;
     // Use For stat the time cost for fetch jdbc resultSet
     protected long startTimeCostNano = 0;
@@ -82,6 +84,7 @@ public abstract class AbstractExecutor implements Executor {
         this.chunkLimit = context.getParamManager().getInt(ConnectionParams.CHUNK_SIZE);
         this.executorName = this.getClass().getSimpleName() + "@" + System.identityHashCode(this);
         this.enableCpuProfile = ExecUtils.isOperatorMetricEnabled(context);
+        this.enableOperatorProfile = enableCpuProfile && ExecUtils.isOperatorProfileEnabled(context);
     }
 
     abstract void doOpen();
@@ -175,6 +178,9 @@ public abstract class AbstractExecutor implements Executor {
         if (statistics != null && enableCpuProfile) {
             assert startTime <= 0;
             startTime = ThreadCpuStatUtil.getThreadCpuTimeNano();
+            if (enableOperatorProfile) {
+                startWallTime = System.nanoTime();
+            }
         }
     }
 
@@ -187,6 +193,13 @@ public abstract class AbstractExecutor implements Executor {
             if (result != null) {
                 statistics.addRowCount(result.getPositionCount());
             }
+            if (enableOperatorProfile) {
+                statistics.addProcessWallDuration(System.nanoTime() - startWallTime);
+                statistics.addProcessDurationToHistogram(duration);
+                if (result != null) {
+                    statistics.addOutputBytes(result.getSizeInBytes());
+                }
+            }
         }
     }
 
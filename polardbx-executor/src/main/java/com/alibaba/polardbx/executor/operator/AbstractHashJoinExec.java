@@ -19,7 +19,7 @@ package com.alibaba.polardbx.executor.operator;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
-import com.alibaba.polardbx.executor.operator.util.ConcurrentRawHashTable;
+import com.alibaba.polardbx.executor.operator.util.RadixClusteredHashTable;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.expression.calc.IExpression;
 import com.alibaba.polardbx.optimizer.core.join.EquiJoinKey;
@@ -39,12 +39,17 @@ public abstract class AbstractHashJoinExec extends AbstractBufferedJoinExec impl
     /**
      * A placeholder to mark there is no more element in this position link
      */
-    public static final int LIST_END = ConcurrentRawHashTable.NOT_EXISTS;
+    public static final int LIST_END = RadixClusteredHashTable.NOT_EXISTS;
 
-    ConcurrentRawHashTable hashTable;
-    int[] positionLinks;
+    RadixClusteredHashTable hashTable;
     IntBloomFilter bloomFilter;
 
+    /**
+     * Heads of matched positions of the current probe chunk, which are looked up in batch
+     */
+    private int[] probeHeads;
+    private int[] probeHeadsHashCodes;
+
     public AbstractHashJoinExec(Executor outerInput,
                                 Executor innerInput,
                                 JoinRelType joinType,
@@ -73,34 +78,43 @@ public abstract class AbstractHashJoinExec extends AbstractBufferedJoinExec impl
         closeConsume(true);
 
         this.hashTable = null;
-        this.positionLinks = null;
+        this.probeHeads = null;
+        this.probeHeadsHashCodes = null;
     }
 
     @Override
     int matchInit(Chunk keyChunk, int[] hashCodes, int position) {
-        int hashCode = hashCodes[position];
-        if (bloomFilter != null && !bloomFilter.mightContain(hashCode)) {
-            return LIST_END;
+        if (hashCodes != probeHeadsHashCodes) {
+            // look up the whole probe chunk at once
+            final int positionCount = keyChunk.getPositionCount();
+            if (probeHeads == null || probeHeads.length < positionCount) {
+                probeHeads = new int[positionCount];
+            }
+            int collisions = hashTable.getAll(hashCodes, positionCount, probeHeads, bloomFilter);
+            if (enableOperatorProfile) {
+                statistics.addHashProbe(positionCount, collisions);
+            }
+            probeHeadsHashCodes = hashCodes;
         }
 
-        int matchedPosition = hashTable.get(hashCode);
+        int matchedPosition = probeHeads[position];
         while (matchedPosition != LIST_END) {
             if (buildKeyChunks.equals(matchedPosition, keyChunk, position)) {
                 break;
             }
-            matchedPosition = positionLinks[matchedPosition];
+            matchedPosition = hashTable.next(matchedPosition);
         }
         return matchedPosition;
     }
 
     @Override
     int matchNext(int current, Chunk keyChunk, int position) {
-        int matchedPosition = positionLinks[current];
+        int matchedPosition = hashTable.next(current);
         while (matchedPosition != LIST_END) {
             if (buildKeyChunks.equals(matchedPosition, keyChunk, position)) {
                 break;
             }
-            matchedPosition = positionLinks[matchedPosition];
+            matchedPosition = hashTable.next(matchedPosition);
         }
         return matchedPosition;
     }
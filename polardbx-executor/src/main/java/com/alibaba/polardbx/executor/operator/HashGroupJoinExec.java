@@ -89,6 +89,14 @@ public class HashGroupJoinExec extends AbstractJoinExec implements ConsumerExecu
 
     private Chunk nullChunk = new Chunk(new NullBlock(1));
 
+    /**
+     * Probe positions and their groups to be accumulated by non-distinct aggregators in one batch.
+     * A position appears at most once in a batch, since group ids are indexed by position.
+     */
+    private int[] batchGroupIds = new int[0];
+    private int[] batchSelection = new int[0];
+    private int batchSize = 0;
+
     private int groupId = 0;
 
     private ElementaryChunksIndex outerChunks;
@@ -359,6 +367,11 @@ public class HashGroupJoinExec extends AbstractJoinExec implements ConsumerExecu
         boolean isMatching = false;
         boolean matched = false;
         int matchedPosition = LIST_END;
+        if (batchGroupIds.length < positionCount) {
+            batchGroupIds = new int[positionCount];
+            batchSelection = new int[positionCount];
+        }
+        batchSize = 0;
         for (; position < positionCount; position++) {
 
             // reset matched flag unless it's still during matching
@@ -385,6 +398,22 @@ public class HashGroupJoinExec extends AbstractJoinExec implements ConsumerExecu
                 matched = true;
             }
         }
+        flushBatch(inputChunk);
+    }
+
+    /**
+     * Accumulate the pending positions by non-distinct aggregators
+     */
+    private void flushBatch(Chunk inputChunk) {
+        if (batchSize == 0) {
+            return;
+        }
+        for (int aggIndex = 0; aggIndex < aggregators.size(); aggIndex++) {
+            if (distinctSets[aggIndex] == null) {
+                aggregators.get(aggIndex).accumulate(batchGroupIds, inputChunk, batchSelection, batchSize);
+            }
+        }
+        batchSize = 0;
     }
 
     private boolean checkJoinCondition(Chunk outerChunk, int outerPosition, int innerPosition) {
@@ -476,18 +505,24 @@ public class HashGroupJoinExec extends AbstractJoinExec implements ConsumerExecu
         }
 
         for (int aggIndex = 0; aggIndex < aggregators.size(); aggIndex++) {
-            boolean[] isDistinct = null;
             if (distinctSets[aggIndex] != null) {
                 final IntegerBlockBuilder integerBlockBuilder = new IntegerBlockBuilder(1);
                 integerBlockBuilder.writeInt(keys[matchedPosition]);
-                isDistinct = distinctSets[aggIndex]
+                boolean[] isDistinct = distinctSets[aggIndex]
                     .checkDistinct(integerBlockBuilder.build(), inputChunk, position);
+                if (isDistinct[0]) {
+                    //to accumulate the Aggregate function result，here need 'aggregate convert' and 'aggregate accumulator'
+                    doAggregate(inputChunk, aggIndex, position, keys[matchedPosition]);
+                }
             }
-            if (isDistinct == null || isDistinct[0]) {
-                //to accumulate the Aggregate function result，here need 'aggregate convert' and 'aggregate accumulator'
-                doAggregate(inputChunk, aggIndex, position, keys[matchedPosition]);
-            }
         }
+
+        // the position matches another group, accumulate the pending ones first
+        if (batchSize > 0 && batchSelection[batchSize - 1] == position) {
+            flushBatch(inputChunk);
+        }
+        batchSelection[batchSize++] = position;
+        batchGroupIds[position] = keys[matchedPosition];
     }
 
     public void buildNullRow(Chunk inputChunk, int position, int matchedPosition) {
@@ -31,7 +31,7 @@ import com.alibaba.polardbx.executor.operator.spill.MemoryRevoker;
 import com.alibaba.polardbx.executor.operator.spill.SingleStreamSpiller;
 import com.alibaba.polardbx.executor.operator.spill.SingleStreamSpillerFactory;
 import com.alibaba.polardbx.executor.operator.util.ChunksIndex;
-import com.alibaba.polardbx.executor.operator.util.ConcurrentRawHashTable;
+import com.alibaba.polardbx.executor.operator.util.RadixClusteredHashTable;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 import com.alibaba.polardbx.optimizer.core.expression.calc.IExpression;
@@ -50,7 +50,6 @@ import java.util.Optional;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static com.alibaba.polardbx.executor.operator.AbstractHashJoinExec.LIST_END;
-import static com.alibaba.polardbx.executor.utils.ExecUtils.buildOneChunk;
 
 // TODO: spillCnt应该是一直使用最外层的，但现在迭代生成新的spillCnt，统计失效。
 public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoker, ConsumerExecutor {
@@ -617,10 +616,13 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
         int bucketIndex;
 
         //build
-        ConcurrentRawHashTable hashTable;
-        int[] positionLinks;
+        RadixClusteredHashTable hashTable;
         IntBloomFilter bloomFilter;
 
+        // heads of matched positions of the current probe chunk, looked up in batch
+        private int[] probeHeads;
+        private int[] probeHeadsHashCodes;
+
         // Special mode only for semi/anti-join
         private boolean directOutputProbe;
         private boolean noJoinChunkOutput;
@@ -731,8 +733,7 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
                     produceBlocked = this.spillHandler.getProbeSpillerExec().spillIsBlocked();
                 } else {
                     while (saveProbePosition < positionCount) {
-                        int hashCode = saveProbeHashCodes[saveProbePosition];
-                        this.join(saveProbeChunk, saveProbeKeyChunk, hashCode);
+                        this.join(saveProbeChunk, saveProbeKeyChunk, saveProbeHashCodes);
                         saveProbePosition++;
                         if (resultChunkBuffer.hasNextChunk()) {
                             break;
@@ -789,7 +790,7 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
             this.innerChunks = new ChunksIndex();
             this.innerKeyChunks = new ChunksIndex();
             this.hashTable = null;
-            this.positionLinks = null;
+            this.probeHeadsHashCodes = null;
             //释放内存
             if (state == BucketState.INPUT_UNSPILLED_AND_BUILT) {
                 //因为unSpill是从reserved申请的，所以这里需要单独释放UnSpill分区的内存
@@ -811,7 +812,7 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
             this.innerChunks = null;
             this.innerKeyChunks = null;
             this.hashTable = null;
-            this.positionLinks = null;
+            this.probeHeadsHashCodes = null;
             this.state = BucketState.DISPOSED;
             if (spillHandler != null) {
                 spillHandler.close();
@@ -868,10 +869,6 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
             }
 
             final int size = innerChunks.getPositionCount();
-            this.hashTable = new ConcurrentRawHashTable(size);
-
-            this.positionLinks = new int[size];
-            Arrays.fill(positionLinks, LIST_END);
 
             if (!alreadyBuild) {
                 if (size <= BLOOM_FILTER_ROWS_LIMIT && size > 0) {
@@ -879,45 +876,55 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
                 }
             }
 
+            List<RadixClusteredHashTable.ClusteredChunk> clusteredChunks =
+                new ArrayList<>(innerKeyChunks.getChunkCount());
             int position = 0;
-            for (int chunkId = 0; chunkId < innerChunks.getChunkCount(); ++chunkId) {
+            for (int chunkId = 0; chunkId < innerKeyChunks.getChunkCount(); ++chunkId) {
                 Chunk keyChunk = innerKeyChunks.getChunk(chunkId);
-                if (alreadyBuild) {
-                    buildOneChunk(keyChunk, position, hashTable, positionLinks, null);
-                } else {
-                    buildOneChunk(keyChunk, position, hashTable, positionLinks, bloomFilter);
-                }
-
+                RadixClusteredHashTable.ClusteredChunk clusteredChunk = RadixClusteredHashTable.cluster(keyChunk);
+                clusteredChunk.setBasePosition(position);
+                clusteredChunks.add(clusteredChunk);
                 position += keyChunk.getPositionCount();
             }
+            this.hashTable = new RadixClusteredHashTable(clusteredChunks, size);
+            this.hashTable.buildPartitions(clusteredChunks, 0, 1, alreadyBuild ? null : bloomFilter);
+            this.probeHeadsHashCodes = null;
             alreadyBuild = true;
             //TODO 这里计算HashTable的内存开销，主要考虑到tryUnSpill过程中无法预知HashTable的内存消耗
 //            memoryAllocator.allocateReservedMemory(hashTable.estimateSize());
-//            memoryAllocator.allocateReservedMemory(SizeOf.sizeOf(positionLinks));
         }
 
-        int matchInit(Chunk keyChunk, int position, int hashCode) {
-            if (bloomFilter != null && !bloomFilter.mightContain(hashCode)) {
-                return LIST_END;
+        int matchInit(Chunk keyChunk, int[] hashCodes, int position) {
+            if (hashCodes != probeHeadsHashCodes) {
+                // look up the whole probe chunk at once
+                final int positionCount = keyChunk.getPositionCount();
+                if (probeHeads == null || probeHeads.length < positionCount) {
+                    probeHeads = new int[positionCount];
+                }
+                int collisions = hashTable.getAll(hashCodes, positionCount, probeHeads, bloomFilter);
+                if (enableOperatorProfile) {
+                    statistics.addHashProbe(positionCount, collisions);
+                }
+                probeHeadsHashCodes = hashCodes;
             }
 
-            int matchedPosition = hashTable.get(hashCode);
+            int matchedPosition = probeHeads[position];
             while (matchedPosition != LIST_END) {
                 if (innerKeyChunks.equals(matchedPosition, keyChunk, position)) {
                     break;
                 }
-                matchedPosition = positionLinks[matchedPosition];
+                matchedPosition = hashTable.next(matchedPosition);
             }
             return matchedPosition;
         }
 
         int matchNext(int current, Chunk keyChunk, int position) {
-            int matchedPosition = positionLinks[current];
+            int matchedPosition = hashTable.next(current);
             while (matchedPosition != LIST_END) {
                 if (innerKeyChunks.equals(matchedPosition, keyChunk, position)) {
                     break;
                 }
-                matchedPosition = positionLinks[matchedPosition];
+                matchedPosition = hashTable.next(matchedPosition);
             }
             return matchedPosition;
         }
@@ -933,8 +940,8 @@ public class HybridHashJoinExec extends AbstractJoinExec implements MemoryRevoke
             }
         }
 
-        void join(Chunk probeChunk, Chunk probeKeyChunk, int hashCode) {
-            int matchedPosition = matchInit(probeKeyChunk, saveProbePosition, hashCode);
+        void join(Chunk probeChunk, Chunk probeKeyChunk, int[] hashCodes) {
+            int matchedPosition = matchInit(probeKeyChunk, hashCodes, saveProbePosition);
             boolean matched = false;
             for (; matchValid(matchedPosition); matchedPosition = matchNext(matchedPosition, probeKeyChunk,
                 saveProbePosition)) {
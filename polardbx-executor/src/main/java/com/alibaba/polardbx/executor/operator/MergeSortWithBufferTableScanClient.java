@@ -176,4 +176,8 @@ public class MergeSortWithBufferTableScanClient extends TableScanClient {
         }
     }
 
+    @Override
+    protected boolean supportAdaptivePrefetch() {
+        return false;
+    }
 }
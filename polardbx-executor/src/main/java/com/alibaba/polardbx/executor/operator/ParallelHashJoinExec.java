@@ -18,11 +18,10 @@ package com.alibaba.polardbx.executor.operator;
 
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.ListenableFuture;
-import com.alibaba.polardbx.common.utils.memory.SizeOf;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.optimizer.chunk.ChunkConverter;
 import com.alibaba.polardbx.executor.operator.util.ChunksIndex;
-import com.alibaba.polardbx.executor.operator.util.ConcurrentRawHashTable;
+import com.alibaba.polardbx.executor.operator.util.RadixClusteredHashTable;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.expression.calc.IExpression;
 import com.alibaba.polardbx.optimizer.core.join.EquiJoinKey;
@@ -33,15 +32,13 @@ import com.alibaba.polardbx.optimizer.memory.MemoryPoolUtils;
 import com.alibaba.polardbx.util.IntBloomFilter;
 import org.apache.calcite.rel.core.JoinRelType;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
-import static com.alibaba.polardbx.executor.utils.ExecUtils.buildOneChunk;
-
 /**
  * Parallel Hash-Join Executor
  *
@@ -114,7 +111,6 @@ public class ParallelHashJoinExec extends AbstractHashJoinExec {
             this.buildChunks = shared.builderChunks;
             this.buildKeyChunks = shared.builderKeyChunks;
             this.hashTable = shared.hashTable;
-            this.positionLinks = shared.positionLinks;
             this.bloomFilter = shared.bloomFilter;
             if (buildChunks.isEmpty() && joinType == JoinRelType.INNER) {
                 passNothing = true;
@@ -155,13 +151,17 @@ public class ParallelHashJoinExec extends AbstractHashJoinExec {
 
     @Override
     public void consumeChunk(Chunk inputChunk) {
+        // hash and cluster the keys out of lock, so that build threads can do it concurrently
+        Chunk keyChunk = getBuildKeyChunkGetter().apply(inputChunk);
+        RadixClusteredHashTable.ClusteredChunk clusteredChunk = RadixClusteredHashTable.cluster(keyChunk);
         synchronized (shared) {
+            clusteredChunk.setBasePosition(shared.builderKeyChunks.getPositionCount());
             shared.builderChunks.addChunk(inputChunk);
-
-            Chunk keyChunk = getBuildKeyChunkGetter().apply(inputChunk);
             shared.builderKeyChunks.addChunk(keyChunk);
+            shared.clusteredChunks.add(clusteredChunk);
 
-            memoryAllocator.allocateReservedMemory(inputChunk.estimateSize() + keyChunk.estimateSize());
+            memoryAllocator.allocateReservedMemory(
+                inputChunk.estimateSize() + keyChunk.estimateSize() + clusteredChunk.estimateSize());
         }
     }
 
@@ -363,8 +363,9 @@ public class ParallelHashJoinExec extends AbstractHashJoinExec {
         private final ChunksIndex builderChunks = new ChunksIndex();
         private final ChunksIndex builderKeyChunks = new ChunksIndex();
 
-        private ConcurrentRawHashTable hashTable;
-        private int[] positionLinks;
+        private final List<RadixClusteredHashTable.ClusteredChunk> clusteredChunks = new ArrayList<>();
+
+        private RadixClusteredHashTable hashTable;
         private IntBloomFilter bloomFilter;
         private boolean alreadyUseRuntimeFilter;
 
@@ -382,13 +383,9 @@ public class ParallelHashJoinExec extends AbstractHashJoinExec {
         private synchronized void initHashTable(MemoryAllocatorCtx ctx) {
             if (hashTable == null) {
                 final int size = builderKeyChunks.getPositionCount();
-                hashTable = new ConcurrentRawHashTable(size);
-
-                positionLinks = new int[size];
-                Arrays.fill(positionLinks, LIST_END);
+                hashTable = new RadixClusteredHashTable(clusteredChunks, size);
 
                 ctx.allocateReservedMemory(hashTable.estimateSize());
-                ctx.allocateReservedMemory(SizeOf.sizeOf(positionLinks));
 
                 if (!alreadyUseRuntimeFilter && size <= BLOOM_FILTER_ROWS_LIMIT_FOR_PARALLEL && size > 0) {
                     bloomFilter = IntBloomFilter.create(size);
@@ -399,24 +396,8 @@ public class ParallelHashJoinExec extends AbstractHashJoinExec {
 
         private void buildHashTable(int partition, MemoryAllocatorCtx ctx) {
             initHashTable(ctx);
-            final int partitionSize = -Math.floorDiv(-builderKeyChunks.getChunkCount(), numPartitions);
-            final int startChunkId = partitionSize * partition;
-
-            if (startChunkId >= builderKeyChunks.getChunkCount()) {
-                return; // skip invalid chunk ranges
-            }
-
-            final int endChunkId = Math.min(startChunkId + partitionSize, builderKeyChunks.getChunkCount());
-            final int startPosition = builderKeyChunks.getChunkOffset(startChunkId);
-            final int endPosition = builderKeyChunks.getChunkOffset(endChunkId);
-
-            int position = startPosition;
-            for (int chunkId = startChunkId; chunkId < endChunkId; ++chunkId) {
-                final Chunk keyChunk = builderKeyChunks.getChunk(chunkId);
-                buildOneChunk(keyChunk, position, hashTable, positionLinks, bloomFilter);
-                position += keyChunk.getPositionCount();
-            }
-            assert position == endPosition;
+            // each build thread owns a disjoint set of radix partitions of the hash table
+            hashTable.buildPartitions(clusteredChunks, partition, numPartitions, bloomFilter);
         }
 
         private synchronized void recordOperatorIds(int operatorId) {
@@ -45,6 +45,13 @@ public class SortAggExec extends AbstractExecutor {
 
     private int currentInputChunkPosition;
 
+    /**
+     * All zeros since there is only one group at a time
+     */
+    private int[] groupIds = new int[0];
+
+    private int[] selection = new int[0];
+
     private boolean finished;
     private ListenableFuture<?> blocked;
 
@@ -71,8 +78,11 @@ public class SortAggExec extends AbstractExecutor {
     @Override
     Chunk doNextChunk() {
         while (currentPosition() < chunkLimit) {
-            Chunk.ChunkRow row = nextRow();
-            if (row == null) {
+            if (currentInputChunk == null || currentInputChunkPosition >= currentInputChunk.getPositionCount()) {
+                currentInputChunk = input.nextChunk();
+                currentInputChunkPosition = 0;
+            }
+            if (currentInputChunk == null) {
                 finished = input.produceIsFinished();
                 blocked = input.produceIsBlocked();
                 if (!finished) {
@@ -84,22 +94,35 @@ public class SortAggExec extends AbstractExecutor {
                 }
                 break;
             }
+            if (currentInputChunk.getPositionCount() == 0) {
+                continue;
+            }
 
-            // first row, new a group
+            final int start = currentInputChunkPosition;
+            Chunk.ChunkRow row = currentInputChunk.rowAt(start);
             if (currentKey == null) {
-                aggregators.forEach(t -> t.accumulate(0, currentInputChunk, row.getPosition()));
+                // first row, new a group
                 currentKey = row;
-                // no group by or key equal in the same group
-            } else if (groups.length == 0 || checkKeyEqual(currentKey, row)) {
-                aggregators.forEach(t -> t.accumulate(0, currentInputChunk, row.getPosition()));
+            } else if (groups.length != 0 && !checkKeyEqual(currentKey, row)) {
                 // key not equal, new a group
-            } else {
                 buildRow();
                 aggregators.forEach(t -> t.resetToInitValue(0));
-                aggregators.forEach(t -> t.accumulate(0, currentInputChunk, row.getPosition()));
                 hasAddToResult = false;
                 currentKey = row;
             }
+
+            // rows of the same group are adjacent, accumulate them in one batch
+            final int positionCount = currentInputChunk.getPositionCount();
+            int end = start + 1;
+            if (groups.length == 0) {
+                end = positionCount;
+            } else {
+                while (end < positionCount && checkKeyEqual(currentKey, currentInputChunk.rowAt(end))) {
+                    end++;
+                }
+            }
+            accumulate(currentInputChunk, start, end);
+            currentInputChunkPosition = end;
         }
 
         if (currentPosition() == 0) {
@@ -109,6 +132,30 @@ public class SortAggExec extends AbstractExecutor {
         }
     }
 
+    /**
+     * Accumulate positions [start, end) of the chunk into the only group
+     */
+    private void accumulate(Chunk chunk, int start, int end) {
+        final int positionCount = chunk.getPositionCount();
+        if (groupIds.length < positionCount) {
+            groupIds = new int[positionCount];
+            selection = new int[positionCount];
+        }
+        if (start == 0 && end == positionCount) {
+            for (Aggregator aggregator : aggregators) {
+                aggregator.accumulate(groupIds, chunk, null, positionCount);
+            }
+            return;
+        }
+        final int selSize = end - start;
+        for (int i = 0; i < selSize; i++) {
+            selection[i] = start + i;
+        }
+        for (Aggregator aggregator : aggregators) {
+            aggregator.accumulate(groupIds, chunk, selection, selSize);
+        }
+    }
+
     private void buildRow() {
         int col = 0;
         Chunk.ChunkRow chunkRow = currentKey;
@@ -132,19 +179,6 @@ public class SortAggExec extends AbstractExecutor {
         return true;
     }
 
-    private Chunk.ChunkRow nextRow() {
-        if (currentInputChunk == null || currentInputChunkPosition >= currentInputChunk.getPositionCount()) {
-            currentInputChunk = input.nextChunk();
-            currentInputChunkPosition = 0;
-        }
-
-        if (currentInputChunk == null) {
-            return null;
-        } else {
-            return currentInputChunk.rowAt(currentInputChunkPosition++);
-        }
-    }
-
     @Override
     public List<DataType> getDataTypes() {
         return outputColumnMeta;
@@ -32,6 +32,7 @@ import com.alibaba.polardbx.common.jdbc.ZeroDate;
 import com.alibaba.polardbx.common.jdbc.ZeroTimestamp;
 import com.alibaba.polardbx.common.properties.ConnectionParams;
 import com.alibaba.polardbx.common.utils.GeneralUtil;
+import com.alibaba.polardbx.common.utils.Pair;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
 import com.alibaba.polardbx.common.utils.logger.MDC;
@@ -41,18 +42,28 @@ import com.alibaba.polardbx.common.utils.thread.NamedThreadFactory;
 import com.alibaba.polardbx.common.utils.thread.ThreadCpuStatUtil;
 import com.alibaba.polardbx.config.ConfigDataMode;
 import com.alibaba.polardbx.executor.Xprotocol.XRowSet;
+import com.alibaba.polardbx.optimizer.chunk.Block;
 import com.alibaba.polardbx.optimizer.chunk.BlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.BlockBuilders;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.DoubleBlock;
+import com.alibaba.polardbx.optimizer.chunk.IntegerBlock;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
+import com.alibaba.polardbx.optimizer.chunk.SliceBlock;
 import com.alibaba.polardbx.optimizer.chunk.SliceBlockBuilder;
 import com.alibaba.polardbx.executor.common.ExecutorContext;
 import com.alibaba.polardbx.executor.mpp.deploy.ServiceProvider;
 import com.alibaba.polardbx.executor.mpp.metadata.Split;
 import com.alibaba.polardbx.executor.mpp.split.JdbcSplit;
+import com.alibaba.polardbx.executor.operator.util.AdaptivePrefetchScheduler;
+import com.alibaba.polardbx.executor.operator.util.bloomfilter.RuntimeFilterInListRewriter;
 import com.alibaba.polardbx.executor.utils.ExecUtils;
 import com.alibaba.polardbx.group.jdbc.TGroupDataSource;
 import com.alibaba.polardbx.group.jdbc.TGroupDirectConnection;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.CursorMeta;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.SliceType;
 import com.alibaba.polardbx.optimizer.core.row.ResultSetRow;
 import com.alibaba.polardbx.optimizer.core.row.Row;
 import com.alibaba.polardbx.optimizer.planmanager.feedback.PhyFeedBack;
@@ -76,6 +87,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import com.mysql.cj.polarx.protobuf.PolarxResultset;
 import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
 import org.apache.commons.lang.StringUtils;
 
 import javax.annotation.Nullable;
@@ -149,6 +161,7 @@ public class TableScanClient {
     protected RuntimeStatistics runtimeStat;
     protected List<PrefetchThread> prefetchThreads = new ArrayList<>();
     protected Queue<SplitResultSet> readyResultSet = new ConcurrentLinkedQueue<>();
+    protected final AdaptivePrefetchScheduler prefetchScheduler;
 
     protected volatile TddlRuntimeException exception = null;
     protected volatile boolean isClosed;
@@ -157,6 +170,7 @@ public class TableScanClient {
     private volatile ScheduledFuture<?> monitorWaitBloomFilterFuture = null;
     private boolean needWaitBloomFilter;
     private volatile Map<Integer, BloomFilterInfo> bloomFilterInfos = null;
+    private final int runtimeFilterInListMaxSize;
     private boolean killStreaming;
     private boolean lessMy56Version = false;
 
@@ -167,6 +181,9 @@ public class TableScanClient {
         this.useTransaction = useTransaction;
         this.socketTimeout = (int) context.getParamManager().getLong(ConnectionParams.SOCKET_TIMEOUT);
         this.prefetchNum = prefetchNum;
+        this.prefetchScheduler = new AdaptivePrefetchScheduler(prefetchNum,
+            context.getParamManager().getBoolean(ConnectionParams.ENABLE_ADAPTIVE_PREFETCH)
+                && supportAdaptivePrefetch());
         this.slowTimeThreshold = context.getPhysicalRecorder().getSlowSqlTime();
         this.scanStrategy =
             getConnectionStrategy(context.getParamManager().getInt(ConnectionParams.MPP_TABLESCAN_CONNECTION_STRATEGY));
@@ -175,6 +192,8 @@ public class TableScanClient {
             this.runtimeStat = (RuntimeStatistics) context.getRuntimeStatistics();
         }
         this.needWaitBloomFilter = false;
+        this.runtimeFilterInListMaxSize =
+            context.getParamManager().getInt(ConnectionParams.RUNTIME_FILTER_IN_LIST_MAX_SIZE);
         this.killStreaming = context.getParamManager().getBoolean(
             ConnectionParams.KILL_CLOSE_STREAM);
         try {
@@ -238,6 +257,15 @@ public class TableScanClient {
 
     public void addSplit(Split split) {
         this.splitList.add(split);
+        this.prefetchScheduler.addSplit(split);
+    }
+
+    /**
+     * Whether the prefetch concurrency could be adjusted by the consumer speed.
+     * Not for the clients which need all splits ready before consuming, e.g. merge sort.
+     */
+    protected boolean supportAdaptivePrefetch() {
+        return true;
     }
 
     private void registerBloomFilter(List<BloomFilterInfo> bloomFilterInfos) {
@@ -275,7 +303,11 @@ public class TableScanClient {
 
         if (needFetchNum > 0) {
             for (int i = 0; i < needFetchNum; i++) {
-                PrefetchThread thread = new PrefetchThread(splitList.get(pushdownSplitIndex.get()));
+                Split split = prefetchScheduler.next();
+                if (split == null) {
+                    break;
+                }
+                PrefetchThread thread = new PrefetchThread(split);
                 prefetchThreads.add(thread);
                 // Use async X-protocol or original jdbc.
                 if (thread.isPureAsyncMode()) {
@@ -295,7 +327,8 @@ public class TableScanClient {
     }
 
     protected int needFetch() {
-        return Math.min(splitList.size() - pushdownSplitIndex.get(), prefetchNum - connectionCount());
+        return Math.min(splitList.size() - pushdownSplitIndex.get(),
+            prefetchScheduler.getTargetPrefetch() - connectionCount());
     }
 
     public int getSplitNum() {
@@ -354,7 +387,9 @@ public class TableScanClient {
     }
 
     public synchronized SplitResultSet popResultSet() {
-        return readyResultSet.poll();
+        SplitResultSet splitResultSet = readyResultSet.poll();
+        prefetchScheduler.onConsume(splitResultSet != null, readyResultSet.size(), connectionCount());
+        return splitResultSet;
     }
 
     public synchronized ListenableFuture<?> isBlocked() {
@@ -384,6 +419,9 @@ public class TableScanClient {
         notifyBlockedCallers();
         prefetchThreads.clear();
         readyResultSet.clear();
+        synchronized (splitList) {
+            prefetchScheduler.reset(splitList);
+        }
         this.isClosed = false;
     }
 
@@ -426,6 +464,12 @@ public class TableScanClient {
     public synchronized void close(SourceExec sourceExec) {
         sourceExecHashSet.remove(sourceExec);
         if (sourceExecHashSet.isEmpty()) {
+            if (!isClosed && targetPlanStatGroup != null) {
+                targetPlanStatGroup.prefetchMaxConcurrency.accumulateAndGet(
+                    prefetchScheduler.getMaxConcurrency(), Math::max);
+                targetPlanStatGroup.prefetchThrottleCount.addAndGet(prefetchScheduler.getThrottleCount());
+                targetPlanStatGroup.prefetchReorderedSplitCount.addAndGet(prefetchScheduler.getReorderedCount());
+            }
             cancelAllThreads();
             isClosed = true;
             prefetchThreads.clear();
@@ -447,6 +491,50 @@ public class TableScanClient {
         return new SplitResultSet(jdbcSplit);
     }
 
+    /**
+     * Decode rowCount rows of X-Protocol chunk column into the value arrays of block directly.
+     *
+     * @return null if the type can not be decoded column by column, and the decoder is not moved
+     */
+    static Block decodeColumnarBlock(DataType type, PolarxResultset.ColumnMetaData metaData, BlockDecoder src,
+                                     int rowCount) throws Exception {
+        final Class clazz = type.getDataClass();
+        final boolean[] nulls = new boolean[rowCount];
+        if (clazz == Long.class) {
+            final long[] values = new long[rowCount];
+            final boolean hasNull = src.nextLongs(values, nulls, rowCount);
+            return new LongBlock(0, rowCount, hasNull ? nulls : null, values);
+        } else if (clazz == Integer.class) {
+            final long[] longs = new long[rowCount];
+            final boolean hasNull = src.nextLongs(longs, nulls, rowCount);
+            final int[] values = new int[rowCount];
+            for (int i = 0; i < rowCount; ++i) {
+                values[i] = (int) longs[i];
+            }
+            return new IntegerBlock(0, rowCount, hasNull ? nulls : null, values);
+        } else if (clazz == Double.class) {
+            final double[] values = new double[rowCount];
+            final boolean hasNull = src.nextDoubles(values, nulls, rowCount);
+            return new DoubleBlock(0, rowCount, hasNull ? nulls : null, values);
+        } else if (clazz == Slice.class && type instanceof SliceType
+            && metaData.hasCollation() && CharsetMapping.isUtf8((int) metaData.getCollation())) {
+            final int[] ends = new int[rowCount];
+            byte[] data = src.nextStrings(ends, nulls, rowCount);
+            final int length = rowCount > 0 ? ends[rowCount - 1] : 0;
+            if (data.length > length * 2) {
+                // Do not hold the rest of chunk when only a part of rows is fetched.
+                data = Arrays.copyOf(data, length);
+            }
+            boolean hasNull = false;
+            for (int i = 0; i < rowCount && !hasNull; ++i) {
+                hasNull = nulls[i];
+            }
+            return new SliceBlock((SliceType) type, 0, rowCount, hasNull ? nulls : null, ends,
+                Slices.wrappedBuffer(data, 0, length));
+        }
+        return null;
+    }
+
     public class SplitResultSet {
 
         protected JdbcSplit jdbcSplit;
@@ -618,8 +706,11 @@ public class TableScanClient {
                 startPrepStmtEnvNano = ThreadCpuStatUtil.getThreadCpuTimeNano();
             }
             try {
+                String sql = jdbcSplit.getHintSql(false);
+                List<ParameterContext> params = jdbcSplit.getFlattedParams();
                 if (bloomFilterInfos != null) {
-                    for (ParameterContext paramContext : jdbcSplit.getFlattedParams()) {
+                    boolean hasInList = false;
+                    for (ParameterContext paramContext : params) {
                         if (paramContext.getParameterMethod().isBloomFilterParameterMethod()) {
                             Object[] args = paramContext.getArgs();
                             int runtimeFilterId = (Integer) args[ARG_IDX_RUNTIME_FILTER_ID];
@@ -628,10 +719,20 @@ public class TableScanClient {
                             } else {
                                 throw new IllegalStateException("Runtime filter id not found: " + runtimeFilterId);
                             }
+                            hasInList |= paramContext.getParameterMethod() == ParameterMethod.setRuntimeFilterInList;
+                        }
+                    }
+                    if (hasInList) {
+                        // push the build keys down to storage as IN-list
+                        Pair<String, List<ParameterContext>> rewritten =
+                            RuntimeFilterInListRewriter.rewrite(sql, params, runtimeFilterInListMaxSize);
+                        if (rewritten != null) {
+                            sql = rewritten.getKey();
+                            params = rewritten.getValue();
                         }
                     }
                 }
-                stmt = preparedSplit(conn, jdbcSplit.getHintSql(false), jdbcSplit.getFlattedParams());
+                stmt = preparedSplit(conn, sql, params);
                 if (enableTaskCpu && targetPlanStatGroup != null) {
                     targetPlanStatGroup.prepareStmtEnvDuration
                         .addAndGet(ThreadCpuStatUtil.getThreadCpuTimeNano() - startPrepStmtEnvNano);
@@ -1043,16 +1144,7 @@ public class TableScanClient {
                 return 1;
             } else {
                 // Chunk to chunk.
-                if (null == resultObject.getDecoders()) {
-                    // Dealing second chunks.
-                    final List<PolarxResultset.ColumnMetaData> metaData = xResult.getMetaData();
-                    while (resultObject.getChunkColumnCount() < metaData.size()) {
-                        resultObject = xResult.mergeNext(resultObject);
-                    }
-                    resultObject.intiForChunkDecode(metaData);
-                }
-                final List<BlockDecoder> decoders = resultObject.getDecoders();
-                assert decoders != null;
+                final List<BlockDecoder> decoders = initChunkDecoders(resultObject);
                 int fetchNumber = decoders.get(0).restCount();
                 if (maxFill > 0 && fetchNumber > maxFill) {
                     fetchNumber = maxFill;
@@ -1069,6 +1161,64 @@ public class TableScanClient {
             }
         }
 
+        private List<BlockDecoder> initChunkDecoders(XResultObject resultObject) throws Exception {
+            if (null == resultObject.getDecoders()) {
+                // Dealing second chunks.
+                final List<PolarxResultset.ColumnMetaData> metaData = xResult.getMetaData();
+                while (resultObject.getChunkColumnCount() < metaData.size()) {
+                    resultObject = xResult.mergeNext(resultObject);
+                }
+                resultObject.intiForChunkDecode(metaData);
+            }
+            final List<BlockDecoder> decoders = resultObject.getDecoders();
+            assert decoders != null;
+            return decoders;
+        }
+
+        /**
+         * Decode the rest rows (at most maxFill) of current X-Protocol chunk into blocks column by column.
+         * Fixed width columns are decoded into the value arrays of blocks directly, and utf-8 strings are
+         * copied from the chunk into the data of slice block, so there is no block builder in between.
+         * Other columns fall back to block builders.
+         *
+         * @return null if current result is in row layout or has less than minFill rows,
+         * then fillChunk should be used instead
+         */
+        // Pure async(X-Protocol only)
+        protected Chunk fetchColumnarChunk(DataType[] dataTypes, int maxFill, int minFill) throws Exception {
+            assert xResult != null;
+            final XResultObject resultObject = xResult.current();
+            if (null == resultObject || resultObject.getRow() != null) {
+                return null;
+            }
+            final List<BlockDecoder> decoders = initChunkDecoders(resultObject);
+            final List<PolarxResultset.ColumnMetaData> metaData = xResult.getMetaData();
+            int fetchNumber = decoders.get(0).restCount();
+            if (maxFill > 0 && fetchNumber > maxFill) {
+                fetchNumber = maxFill;
+            }
+            if (fetchNumber < minFill) {
+                return null;
+            }
+            final Block[] blocks = new Block[dataTypes.length];
+            for (int i = 0; i < dataTypes.length; ++i) {
+                blocks[i] = decodeBlock(dataTypes[i], metaData.get(i), decoders.get(i), fetchNumber);
+            }
+            count += fetchNumber;
+            return new Chunk(fetchNumber, blocks);
+        }
+
+        private Block decodeBlock(DataType type, PolarxResultset.ColumnMetaData metaData, BlockDecoder src,
+                                  int rowCount) throws Exception {
+            final Block block = decodeColumnarBlock(type, metaData, src, rowCount);
+            if (block != null) {
+                return block;
+            }
+            final BlockBuilder builder = BlockBuilders.create(type, context, rowCount);
+            block2block(type, metaData, src, builder, rowCount);
+            return builder.build();
+        }
+
         private boolean chunkNext() throws SQLException {
             final XResultObject current = xResult.current();
             if (null == current || current.getRow() != null) {
@@ -1141,6 +1291,7 @@ public class TableScanClient {
                     context.getTracer().trace(op);
                     op = null;
                 }
+                prefetchScheduler.onComplete(jdbcSplit);
                 completeExecuteNum.incrementAndGet();
             }
         }
@@ -1215,6 +1366,7 @@ public class TableScanClient {
         final SplitResultSet resultSet;
         JdbcSplit split;
         AtomicReference<ScheduledFuture> timeoutNotify = new AtomicReference<>(null);
+        final long dispatchNanos = System.nanoTime();
 
         public PrefetchThread(Split split) {
             this.split = (JdbcSplit) split.getConnectorSplit();
@@ -1261,6 +1413,7 @@ public class TableScanClient {
                         resultSet.finishAsyncQuery();
 
                         if (!isClosed) {
+                            prefetchScheduler.onReady(split, System.nanoTime() - dispatchNanos);
                             addSplitResultSet(resultSet);
                         }
                     } catch (Throwable t) {
@@ -1324,6 +1477,7 @@ public class TableScanClient {
                             callback.run();
                         }
                     } else {
+                        prefetchScheduler.onReady(split, System.nanoTime() - dispatchNanos);
                         addSplitResultSet(resultSet);
                     }
                 }
@@ -20,6 +20,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.alibaba.polardbx.common.exception.TddlRuntimeException;
 import com.alibaba.polardbx.common.exception.code.ErrorCode;
+import com.alibaba.polardbx.common.properties.ConnectionParams;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
@@ -47,6 +48,15 @@ public class TableScanExec extends SourceExec implements Closeable {
 
     protected AtomicLong fetchTimeCost = new AtomicLong();
 
+    private final boolean enableColumnarFetch;
+    private boolean lastChunkColumnar = false;
+
+    // Rows and time cost of the chunks decoded column by column or row by row, to compare the throughput
+    private long columnarFetchRows = 0;
+    private long columnarFetchNanos = 0;
+    private long rowFetchRows = 0;
+    private long rowFetchNanos = 0;
+
     //reset
     protected TableScanClient scanClient;
     protected TableScanClient.SplitResultSet consumeResultSet;
@@ -62,6 +72,7 @@ public class TableScanExec extends SourceExec implements Closeable {
         this.scanClient.registerSouceExec(this);
         this.spillerFactory = spillerFactory;
         this.dataTypeList = dataTypeList;
+        this.enableColumnarFetch = context.getParamManager().getBoolean(ConnectionParams.ENABLE_X_COLUMNAR_FETCH);
     }
 
     @Override
@@ -121,10 +132,23 @@ public class TableScanExec extends SourceExec implements Closeable {
     @Override
     Chunk doSourceNextChunk() {
         long fetchStartNano = System.nanoTime();
+        Chunk chunk = null;
         try {
-            return fetchChunk();
+            lastChunkColumnar = false;
+            chunk = fetchChunk();
+            return chunk;
         } finally {
-            fetchTimeCost.addAndGet(System.nanoTime() - fetchStartNano);
+            final long fetchNano = System.nanoTime() - fetchStartNano;
+            fetchTimeCost.addAndGet(fetchNano);
+            if (chunk != null) {
+                if (lastChunkColumnar) {
+                    columnarFetchRows += chunk.getPositionCount();
+                    columnarFetchNanos += fetchNano;
+                } else {
+                    rowFetchRows += chunk.getPositionCount();
+                    rowFetchNanos += fetchNano;
+                }
+            }
         }
     }
 
@@ -192,6 +216,14 @@ public class TableScanExec extends SourceExec implements Closeable {
                     }
                 }
                 if (consumeResultSet.isPureAsyncMode()) {
+                    if (count == 0 && enableColumnarFetch) {
+                        // Take the whole chunk from X-Protocol chunk directly if it is large enough.
+                        final Chunk chunk = consumeResultSet.fetchColumnarChunk(dataTypes, chunkLimit, chunkLimit / 2);
+                        if (chunk != null) {
+                            lastChunkColumnar = true;
+                            return chunk;
+                        }
+                    }
                     final int filled = consumeResultSet.fillChunk(dataTypes, blockBuilders, chunkLimit - count);
                     count += filled;
                 } else {
@@ -225,6 +257,11 @@ public class TableScanExec extends SourceExec implements Closeable {
     synchronized void doClose() {
         if (targetPlanStatGroup != null) {
             targetPlanStatGroup.fetchJdbcResultSetDuration.addAndGet(fetchTimeCost.getAndSet(0));
+            targetPlanStatGroup.columnarFetchRowCount.addAndGet(columnarFetchRows);
+            targetPlanStatGroup.columnarFetchDuration.addAndGet(columnarFetchNanos);
+            targetPlanStatGroup.rowFetchRowCount.addAndGet(rowFetchRows);
+            targetPlanStatGroup.rowFetchDuration.addAndGet(rowFetchNanos);
+            columnarFetchRows = columnarFetchNanos = rowFetchRows = rowFetchNanos = 0;
         }
         forceClose();
         scanClient.throwIfFailed();
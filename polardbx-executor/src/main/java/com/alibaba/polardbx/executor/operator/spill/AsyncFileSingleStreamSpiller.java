@@ -153,8 +153,9 @@ public class AsyncFileSingleStreamSpiller
         try (Closer closer = Closer.create()) {
             log.info(
                 String.format(
-                    "AsyncFileSingleStreamSpiller file:%s total spilled bytes:%s", id.getFilePath(),
-                    spillMonitor.totalSpilledBytes()));
+                    "AsyncFileSingleStreamSpiller file:%s total spilled bytes:%s, uncompressed bytes:%s, "
+                        + "compressed bytes:%s", id.getFilePath(), spillMonitor.totalSpilledBytes(),
+                    spillMonitor.totalUncompressedBytes(), spillMonitor.totalCompressedBytes()));
             closer.register(id);
             closer.register(spillMonitor);
             closer.register(this::closeReader);
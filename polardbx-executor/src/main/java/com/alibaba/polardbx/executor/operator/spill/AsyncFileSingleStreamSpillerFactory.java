@@ -129,7 +129,7 @@ public class AsyncFileSingleStreamSpillerFactory implements SingleStreamSpillerF
 
         log.info("load AsyncFileSingleStreamSpillerFactory as SingleStreamSpillerFactory");
         requireNonNull(theSpillerRootPaths, "paths is null");
-        this.serdeFactory = new PagesSerdeFactory(false);
+        this.serdeFactory = PagesSerdeFactory.createSpillSerdeFactory();
         this.fileCleaner = requireNonNull(fileCleaner, "fileCleaner is null");
         this.maxThreadNum = maxThreadNum;
 
@@ -34,6 +34,7 @@ import com.google.common.util.concurrent.SettableFuture;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.executor.mpp.execution.buffer.PagesSerde;
 import com.alibaba.polardbx.executor.mpp.execution.buffer.PagesSerdeUtil;
+import com.alibaba.polardbx.executor.mpp.execution.buffer.SerializedChunk;
 import com.alibaba.polardbx.optimizer.spill.SpillMonitor;
 import io.airlift.slice.OutputStreamSliceOutput;
 import io.airlift.slice.SliceOutput;
@@ -242,9 +243,12 @@ public class AsyncPageFileChannelWriter {
             if (closed) {
                 return 0;
             }
-            long writeSizeInBytes = PagesSerdeUtil.writeChunk(serde, output, page);
+            SerializedChunk serializedChunk = serde.serialize(false, page);
+            long writeSizeInBytes = PagesSerdeUtil.writeSerializedChunk(serde, output, serializedChunk);
             free = true;
             spillMonitor.updateBytes(writeSizeInBytes);
+            spillMonitor.updateCompressionBytes(serializedChunk.getUncompressedSizeInBytes(),
+                serializedChunk.getSizeInBytes());
             return writeSizeInBytes;
         }
 
@@ -320,8 +324,11 @@ public class AsyncPageFileChannelWriter {
                         return 0;
                     }
                     nextPage = pageIterator.next();
-                    long writeSizeInBytes = PagesSerdeUtil.writeChunk(serde, output, nextPage);
+                    SerializedChunk serializedChunk = serde.serialize(false, nextPage);
+                    long writeSizeInBytes = PagesSerdeUtil.writeSerializedChunk(serde, output, serializedChunk);
                     spillMonitor.updateBytes(writeSizeInBytes);
+                    spillMonitor.updateCompressionBytes(serializedChunk.getUncompressedSizeInBytes(),
+                        serializedChunk.getSizeInBytes());
                     return writeSizeInBytes;
                 } finally {
                 }
@@ -182,8 +182,10 @@ public class FileSingleStreamSpiller implements SingleStreamSpiller {
                 while (pageIterator.hasNext() && !closed) {
                     Chunk page = pageIterator.next();
                     SerializedChunk serializedPage = serde.serialize(false, page);
-                    writeSerializedChunk(output, serializedPage);
-                    spillMonitor.updateBytes(serializedPage.getSizeInBytes());
+                    long writeSizeInBytes = writeSerializedChunk(serde, output, serializedPage);
+                    spillMonitor.updateBytes(writeSizeInBytes);
+                    spillMonitor.updateCompressionBytes(serializedPage.getUncompressedSizeInBytes(),
+                        serializedPage.getSizeInBytes());
                 }
             } catch (UncheckedIOException | IOException e) {
                 throw new TddlRuntimeException(ErrorCode.ERR_EXECUTE_SPILL, e, "Failed to spill pages");
@@ -99,7 +99,7 @@ public class FileSingleStreamSpillerFactory implements SingleStreamSpillerFactor
         List<Path> spillPaths,
         double maxUsedSpaceThreshold) {
         log.info("load FileSingleStreamSpillerFactory as SingleStreamSpillerFactory");
-        this.serdeFactory = new PagesSerdeFactory(false);
+        this.serdeFactory = PagesSerdeFactory.createSpillSerdeFactory();
         this.executor = requireNonNull(executor, "executor is null");
         this.fileCleaner = requireNonNull(fileCleaner, "fileCleaner is null");
         requireNonNull(spillPaths, "spillPaths is null");
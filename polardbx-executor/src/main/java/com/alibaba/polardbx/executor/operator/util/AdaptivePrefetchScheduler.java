@@ -0,0 +1,233 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import com.alibaba.polardbx.executor.mpp.metadata.Split;
+import com.alibaba.polardbx.executor.mpp.split.JdbcSplit;
+import com.alibaba.polardbx.rpc.pool.XConnectionManager;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decide how many splits of a table scan are prefetched concurrently, and which split goes next.
+ * <p>
+ * The concurrency starts from the max prefetch number, halves when the consumer falls behind (ready
+ * result sets pile up and hold buffered data) and grows by one each time the consumer is starved.
+ * <p>
+ * Splits are queued per storage node. The next split is taken from the node with the least expected wait,
+ * estimated by the observed latency of that node in this scan, the in-flight splits on it, and the active
+ * sessions on it reported by X-protocol pools. So a hot storage node does not hold up the idle ones.
+ */
+public class AdaptivePrefetchScheduler {
+
+    private static final double LATENCY_EWMA_ALPHA = 0.3;
+
+    /**
+     * Weight of one active session of other queries on the storage node, compared with one in-flight split
+     */
+    private static final double SESSION_WEIGHT = 0.1;
+
+    private final int maxPrefetch;
+    private final boolean adaptive;
+    private int targetPrefetch;
+
+    private final Map<String, NodeQueue> nodeQueues = new HashMap<>();
+    private long nextSequence;
+
+    private int maxConcurrency;
+    private long throttleCount;
+    private long reorderedCount;
+
+    public AdaptivePrefetchScheduler(int maxPrefetch, boolean adaptive) {
+        this.maxPrefetch = maxPrefetch;
+        this.adaptive = adaptive && maxPrefetch > 1;
+        this.targetPrefetch = this.maxPrefetch;
+    }
+
+    public synchronized void addSplit(Split split) {
+        String node = nodeOf(split);
+        NodeQueue queue = nodeQueues.get(node);
+        if (queue == null) {
+            queue = new NodeQueue(node);
+            nodeQueues.put(node, queue);
+        }
+        queue.splits.add(new PendingSplit(split, nextSequence++));
+    }
+
+    /**
+     * @return the next split to prefetch, or null if no split is pending.
+     * Splits are returned in the order they were added if the scheduler is not adaptive
+     */
+    public synchronized Split next() {
+        NodeQueue first = null;
+        NodeQueue best = null;
+        double bestCost = Double.MAX_VALUE;
+        double defaultLatency = adaptive ? averageLatency() : 0;
+        for (NodeQueue queue : nodeQueues.values()) {
+            if (queue.splits.isEmpty()) {
+                continue;
+            }
+            long sequence = queue.splits.peek().sequence;
+            if (first == null || sequence < first.splits.peek().sequence) {
+                first = queue;
+            }
+            if (!adaptive) {
+                continue;
+            }
+            double latency = queue.latencyNanos > 0 ? queue.latencyNanos : defaultLatency;
+            double cost = (queue.inflight + 1 + queue.activeSessions * SESSION_WEIGHT) * latency;
+            if (best == null || cost < bestCost
+                || (cost == bestCost && sequence < best.splits.peek().sequence)) {
+                best = queue;
+                bestCost = cost;
+            }
+        }
+        if (first == null) {
+            return null;
+        }
+        NodeQueue chosen = adaptive ? best : first;
+        if (chosen != first) {
+            reorderedCount++;
+        }
+        chosen.inflight++;
+        return chosen.splits.poll().split;
+    }
+
+    /**
+     * Called when the result set of split is ready to consume
+     */
+    public synchronized void onReady(JdbcSplit split, long latencyNanos) {
+        NodeQueue queue = nodeQueues.get(nodeOf(split));
+        if (queue == null) {
+            return;
+        }
+        queue.latencyNanos = queue.latencyNanos > 0 ?
+            LATENCY_EWMA_ALPHA * latencyNanos + (1 - LATENCY_EWMA_ALPHA) * queue.latencyNanos : latencyNanos;
+        queue.refreshActiveSessions();
+    }
+
+    /**
+     * Called when the result set of split is closed
+     */
+    public synchronized void onComplete(JdbcSplit split) {
+        NodeQueue queue = nodeQueues.get(nodeOf(split));
+        if (queue != null && queue.inflight > 0) {
+            queue.inflight--;
+        }
+    }
+
+    /**
+     * Called when the consumer polls a ready result set
+     *
+     * @param hit whether there was a ready result set
+     * @param backlog ready result sets left after polling
+     * @param connections current prefetched but not finished splits
+     */
+    public synchronized void onConsume(boolean hit, int backlog, int connections) {
+        maxConcurrency = Math.max(maxConcurrency, connections);
+        if (!adaptive) {
+            return;
+        }
+        if (!hit) {
+            targetPrefetch = Math.min(maxPrefetch, targetPrefetch + 1);
+        } else if (backlog > 1 && backlog >= targetPrefetch / 2) {
+            targetPrefetch = Math.max(1, targetPrefetch / 2);
+            throttleCount++;
+        }
+    }
+
+    public synchronized int getTargetPrefetch() {
+        return targetPrefetch;
+    }
+
+    public synchronized void reset(List<Split> splits) {
+        nodeQueues.clear();
+        nextSequence = 0;
+        targetPrefetch = maxPrefetch;
+        for (Split split : splits) {
+            addSplit(split);
+        }
+    }
+
+    public synchronized int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public synchronized long getThrottleCount() {
+        return throttleCount;
+    }
+
+    public synchronized long getReorderedCount() {
+        return reorderedCount;
+    }
+
+    private double averageLatency() {
+        double sum = 0;
+        int count = 0;
+        for (NodeQueue queue : nodeQueues.values()) {
+            if (queue.latencyNanos > 0) {
+                sum += queue.latencyNanos;
+                count++;
+            }
+        }
+        // unknown nodes are tried first
+        return count == 0 ? 1 : sum / count / 2;
+    }
+
+    private static String nodeOf(Split split) {
+        return nodeOf((JdbcSplit) split.getConnectorSplit());
+    }
+
+    private static String nodeOf(JdbcSplit split) {
+        return split.getHostAddress() != null ? split.getHostAddress() : split.getDbIndex();
+    }
+
+    private static class PendingSplit {
+        final Split split;
+        final long sequence;
+
+        PendingSplit(Split split, long sequence) {
+            this.split = split;
+            this.sequence = sequence;
+        }
+    }
+
+    private static class NodeQueue {
+        final String host;
+        final ArrayDeque<PendingSplit> splits = new ArrayDeque<>();
+        int inflight;
+        double latencyNanos;
+        long activeSessions;
+
+        NodeQueue(String node) {
+            int pos = node.lastIndexOf(':');
+            this.host = pos > 0 ? node.substring(0, pos) : node;
+            refreshActiveSessions();
+        }
+
+        void refreshActiveSessions() {
+            try {
+                activeSessions = XConnectionManager.getInstance().getSessionActiveCount(host);
+            } catch (Throwable t) {
+                activeSessions = 0;
+            }
+        }
+    }
+}
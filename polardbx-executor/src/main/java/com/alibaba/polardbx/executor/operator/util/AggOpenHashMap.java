@@ -106,17 +106,26 @@ public class AggOpenHashMap extends GroupOpenHashMap implements AggHashMap {
                 groupIds[pos] = 0;
             }
         } else {
-            for (int pos = 0; pos < inputChunk.getPositionCount(); pos++) {
-                groupIds[pos] = innerPut(keyChunk, pos, -1);
-            }
+            innerPutChunk(keyChunk, groupIds);
         }
         final Block groupIdBlock = IntegerBlock.wrap(groupIds);
+        final int positionCount = inputChunk.getPositionCount();
+        int[] selection = null;
         for (int aggIndex = 0; aggIndex < aggregators.size(); aggIndex++) {
             boolean[] isDistinct = null;
             if (distinctSets[aggIndex] != null) {
                 isDistinct = distinctSets[aggIndex].checkDistinct(groupIdBlock, inputChunk);
             }
-            for (int pos = 0; pos < inputChunk.getPositionCount(); pos++) {
+            if (filterArgs[aggIndex] == -1 && isDistinct == null) {
+                aggregators.get(aggIndex).accumulate(groupIds, inputChunk, null, positionCount);
+                continue;
+            }
+
+            if (selection == null) {
+                selection = new int[positionCount];
+            }
+            int selSize = 0;
+            for (int pos = 0; pos < positionCount; pos++) {
                 boolean noFilter = true;
                 if (filterArgs[aggIndex] > -1) {
                     Object obj = inputChunk.getBlock(filterArgs[aggIndex]).getObject(pos);
@@ -131,10 +140,11 @@ public class AggOpenHashMap extends GroupOpenHashMap implements AggHashMap {
                 }
                 if (noFilter) {
                     if (isDistinct == null || isDistinct[pos]) {
-                        aggregators.get(aggIndex).accumulate(groupIds[pos], inputChunk, pos);
+                        selection[selSize++] = pos;
                     }
                 }
             }
+            aggregators.get(aggIndex).accumulate(groupIds, inputChunk, selection, selSize);
         }
     }
 
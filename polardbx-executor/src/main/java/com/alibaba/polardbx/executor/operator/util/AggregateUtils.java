@@ -22,6 +22,8 @@ import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
 import com.alibaba.polardbx.optimizer.core.expression.calc.Aggregator;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.ApproxCountDistinct;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.ApproxPercentile;
 import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Avg;
 import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.BitAnd;
 import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.BitOr;
@@ -97,6 +99,7 @@ import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Sum;
 import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Sum0;
 import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.WrapedLong2WarpedLongMax;
 import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.WrapedLong2WarpedLongMin;
+import com.alibaba.polardbx.optimizer.core.function.SqlApproxAggFunction;
 import com.alibaba.polardbx.optimizer.memory.MemoryAllocatorCtx;
 import org.apache.calcite.rel.core.AggregateCall;
 import org.apache.calcite.rel.core.GroupConcatAggregateCall;
@@ -357,6 +360,17 @@ public abstract class AggregateUtils {
                 aggList.add(new InternalFirstValue(index, outputType, filterArg, executionContext));
                 break;
             }
+            case APPROX_COUNT_DISTINCT: {
+                SqlApproxAggFunction.Phase phase = ((SqlApproxAggFunction) call.getAggregation()).getPhase();
+                aggList.add(new ApproxCountDistinct(index, isDistinct, inputType, outputType, phase, filterArg));
+                break;
+            }
+            case APPROX_PERCENTILE: {
+                SqlApproxAggFunction.Phase phase = ((SqlApproxAggFunction) call.getAggregation()).getPhase();
+                int[] argIndexes = call.getArgList().stream().mapToInt(Integer::intValue).toArray();
+                aggList.add(new ApproxPercentile(argIndexes, inputType, outputType, phase, filterArg));
+                break;
+            }
             default:
                 throw new UnsupportedOperationException(
                     "Unsupported agg function to convert:" + function.name());
@@ -425,6 +439,7 @@ public abstract class AggregateUtils {
 
     public static boolean supportSpill(Aggregator aggregator) {
         return !(aggregator instanceof Avg) && !(aggregator instanceof SpecificType2DecimalAvg)
-            && !(aggregator instanceof SpecificType2DoubleAvgV2) && !(aggregator instanceof GroupConcat);
+            && !(aggregator instanceof SpecificType2DoubleAvgV2) && !(aggregator instanceof GroupConcat)
+            && !(aggregator instanceof ApproxCountDistinct) && !(aggregator instanceof ApproxPercentile);
     }
 }
@@ -21,7 +21,12 @@ import com.google.common.net.MediaType;
 import com.alibaba.polardbx.common.utils.GeneralUtil;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.chunk.ByteBlock;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.IntegerBlock;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
+import com.alibaba.polardbx.optimizer.chunk.ShortBlock;
 import com.alibaba.polardbx.executor.mpp.deploy.ServiceProvider;
 import com.alibaba.polardbx.executor.mpp.execution.QueryManager;
 import com.alibaba.polardbx.util.bloomfilter.BloomFilter;
@@ -33,9 +38,11 @@ import io.airlift.http.client.JsonBodyGenerator;
 import io.airlift.http.client.Request;
 import io.airlift.http.client.StatusResponseHandler;
 import io.airlift.json.JsonCodec;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -52,6 +59,11 @@ public class BloomFilterProduce {
     private List<List<Integer>> hashKeys;
     private List<BloomFilter> bloomFilters;
 
+    /**
+     * Range and distinct values of single integer key for each bloom filter, null if not collected
+     */
+    private List<KeyRangeCollector> rangeCollectors;
+
     private HttpClient client;
     private URI uri;
     private String query;
@@ -59,19 +71,37 @@ public class BloomFilterProduce {
     private AtomicInteger counter = new AtomicInteger(0);
 
     private BloomFilterProduce(List<List<Integer>> bloomfilterId, List<List<Integer>> hashKeys,
-                               List<BloomFilter> bloomFilters, HttpClient client, URI uri, String query) {
+                               List<BloomFilter> bloomFilters, HttpClient client, URI uri, String query,
+                               boolean collectKeyRange, int maxInValues) {
         this.bloomfilterId = bloomfilterId;
         this.hashKeys = hashKeys;
         this.bloomFilters = bloomFilters;
         this.client = client;
         this.uri = uri;
         this.query = query;
+        this.rangeCollectors = new ArrayList<>(hashKeys.size());
+        for (List<Integer> hashColumns : hashKeys) {
+            this.rangeCollectors.add(
+                collectKeyRange && hashColumns.size() == 1 ? new KeyRangeCollector(maxInValues) : null);
+        }
     }
 
     public static BloomFilterProduce create(List<List<Integer>> bloomfilterId, List<List<Integer>> hashKeys,
                                             List<BloomFilter> bloomFilters, HttpClient client, URI uri,
                                             String query) {
-        return new BloomFilterProduce(bloomfilterId, hashKeys, bloomFilters, client, uri, query);
+        return create(bloomfilterId, hashKeys, bloomFilters, client, uri, query, false, 0);
+    }
+
+    /**
+     * @param collectKeyRange whether to collect the range and distinct values of single integer key,
+     * which would be pushed down to storage as range and IN-list predicates
+     * @param maxInValues max number of distinct values to collect
+     */
+    public static BloomFilterProduce create(List<List<Integer>> bloomfilterId, List<List<Integer>> hashKeys,
+                                            List<BloomFilter> bloomFilters, HttpClient client, URI uri,
+                                            String query, boolean collectKeyRange, int maxInValues) {
+        return new BloomFilterProduce(bloomfilterId, hashKeys, bloomFilters, client, uri, query,
+            collectKeyRange, maxInValues);
     }
 
     public void addChunk(Chunk input) {
@@ -83,6 +113,10 @@ public class BloomFilterProduce {
                 Chunk.ChunkRow row = input.rowAt(pos);
                 bloomFilter.put(row.hashCode(hasher, hashColumns));
             }
+            KeyRangeCollector rangeCollector = rangeCollectors.get(index);
+            if (rangeCollector != null) {
+                rangeCollector.add(input.getBlock(hashColumns.get(0)));
+            }
         }
     }
 
@@ -93,12 +127,21 @@ public class BloomFilterProduce {
     public List<BloomFilterInfo> convertBloomFilterInfo() {
         List<BloomFilterInfo> bloomFilterInfos = new ArrayList<>();
         for (int i = 0; i < bloomFilters.size(); i++) {
+            KeyRangeCollector rangeCollector = rangeCollectors.get(i);
             for (Integer id : bloomfilterId.get(i)) {
                 logger.info(String
                     .format("Produce bloom filter id: %d, first value %x", id, bloomFilters.get(i).getBitmap()[0]));
-                bloomFilterInfos.add(
-                    new BloomFilterInfo(id, bloomFilters.get(i).getBitmap(), bloomFilters.get(i).getNumHashFunctions(),
-                        bloomFilters.get(i).getHashMethodInfo()));
+                if (rangeCollector != null && rangeCollector.isSupported()) {
+                    bloomFilterInfos.add(
+                        new BloomFilterInfo(id, bloomFilters.get(i).getBitmap(),
+                            bloomFilters.get(i).getNumHashFunctions(), bloomFilters.get(i).getHashMethodInfo(),
+                            rangeCollector.getMinValue(), rangeCollector.getMaxValue(),
+                            rangeCollector.getSortedValues()));
+                } else {
+                    bloomFilterInfos.add(
+                        new BloomFilterInfo(id, bloomFilters.get(i).getBitmap(),
+                            bloomFilters.get(i).getNumHashFunctions(), bloomFilters.get(i).getHashMethodInfo()));
+                }
             }
         }
         return bloomFilterInfos;
@@ -135,6 +178,101 @@ public class BloomFilterProduce {
                 logger.info("Http send the bloom-filters " + filterInfos + ", uri: " + uri + ", query: " + query);
             }
             this.bloomFilters = null;
+            this.rangeCollectors = null;
+        }
+    }
+
+    /**
+     * Collect min, max and distinct values of integer key, ignoring nulls since they never match in join.
+     * Collection is given up once a non-integer block is seen.
+     */
+    private static class KeyRangeCollector {
+        private final int maxInValues;
+
+        private volatile boolean supported = true;
+        private long minValue = Long.MAX_VALUE;
+        private long maxValue = Long.MIN_VALUE;
+
+        /**
+         * Null if there are more than maxInValues distinct values
+         */
+        private volatile LongOpenHashSet values;
+
+        KeyRangeCollector(int maxInValues) {
+            this.maxInValues = maxInValues;
+            this.values = maxInValues > 0 ? new LongOpenHashSet() : null;
+        }
+
+        void add(Block block) {
+            if (!supported) {
+                return;
+            }
+            if (!(block instanceof LongBlock || block instanceof IntegerBlock
+                || block instanceof ShortBlock || block instanceof ByteBlock)) {
+                supported = false;
+                return;
+            }
+            final int positionCount = block.getPositionCount();
+            long[] chunkValues = values == null ? null : new long[positionCount];
+            int count = 0;
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int pos = 0; pos < positionCount; pos++) {
+                if (block.isNull(pos)) {
+                    continue;
+                }
+                long value = getLong(block, pos);
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                if (chunkValues != null) {
+                    chunkValues[count++] = value;
+                }
+            }
+            synchronized (this) {
+                minValue = Math.min(minValue, min);
+                maxValue = Math.max(maxValue, max);
+                if (chunkValues != null && values != null) {
+                    for (int i = 0; i < count; i++) {
+                        values.add(chunkValues[i]);
+                    }
+                    if (values.size() > maxInValues) {
+                        values = null;
+                    }
+                }
+            }
+        }
+
+        private static long getLong(Block block, int position) {
+            if (block instanceof LongBlock) {
+                return ((LongBlock) block).getLong(position);
+            } else if (block instanceof IntegerBlock) {
+                return ((IntegerBlock) block).getInt(position);
+            } else if (block instanceof ShortBlock) {
+                return ((ShortBlock) block).getShort(position);
+            } else {
+                return ((ByteBlock) block).getByte(position);
+            }
+        }
+
+        boolean isSupported() {
+            return supported;
+        }
+
+        synchronized long getMinValue() {
+            return minValue;
+        }
+
+        synchronized long getMaxValue() {
+            return maxValue;
+        }
+
+        synchronized long[] getSortedValues() {
+            if (values == null) {
+                return null;
+            }
+            long[] sortedValues = values.toLongArray();
+            Arrays.sort(sortedValues);
+            return sortedValues;
         }
     }
 }
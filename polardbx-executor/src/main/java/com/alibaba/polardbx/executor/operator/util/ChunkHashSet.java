@@ -31,9 +31,7 @@ public class ChunkHashSet {
     }
 
     public void addChunk(Chunk chunk) {
-        for (int i = 0; i < chunk.getPositionCount(); i++) {
-            put(chunk, i);
-        }
+        groupOpenHashMap.innerPutChunk(chunk, new int[chunk.getPositionCount()]);
     }
 
     public void put(Chunk chunk, int position) {
@@ -29,12 +29,25 @@ public class ChunkWithPositionComparator {
 
     private final Comparator<Row> rowComparator;
 
+    private final SortKeyComparator[] sortKeyComparators;
+
+    private final int[] sortKeyColumns;
+
     public ChunkWithPositionComparator(List<OrderByOption> orderBys, List<DataType> columnMetas) {
         this.rowComparator = ExecUtils.getComparator(orderBys, columnMetas);
+        this.sortKeyComparators = SortKeyComparator.create(orderBys, columnMetas);
+        this.sortKeyColumns = orderBys.stream().mapToInt(OrderByOption::getIndex).toArray();
     }
 
     public int compareTo(Chunk left, int leftPosition, Chunk right, int rightPosition) {
-        return rowComparator.compare(left.rowAt(leftPosition), right.rowAt(rightPosition));
+        for (int i = 0; i < sortKeyComparators.length; i++) {
+            int n = sortKeyComparators[i].compare(left.getBlock(sortKeyColumns[i]), leftPosition,
+                right.getBlock(sortKeyColumns[i]), rightPosition);
+            if (n != 0) {
+                return n;
+            }
+        }
+        return 0;
     }
 
     public int compareTo(Row row, Chunk right, int rightPosition) {
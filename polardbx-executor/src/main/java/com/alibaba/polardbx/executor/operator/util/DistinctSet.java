@@ -44,10 +44,17 @@ public class DistinctSet {
     public boolean[] checkDistinct(Block groupIdBlock, Chunk aggInputChunk) {
         Chunk chunk = distinctAndConcat(groupIdBlock, aggInputChunk, distinctIndexes);
 
+        int[] groupIds = new int[chunk.getPositionCount()];
+        int nextGroupId = groupHashMap.getGroupCount();
+        groupHashMap.innerPutChunk(chunk, groupIds);
+
+        // new groups are numbered in the order they are put
         boolean[] isDistinct = new boolean[groupIdBlock.getPositionCount()];
         for (int i = 0; i < chunk.getPositionCount(); i++) {
-            int currentSize = groupHashMap.getGroupCount();
-            isDistinct[i] = groupHashMap.innerPut(chunk, i, -1) == currentSize;
+            if (groupIds[i] == nextGroupId) {
+                isDistinct[i] = true;
+                nextGroupId++;
+            }
         }
         return isDistinct;
     }
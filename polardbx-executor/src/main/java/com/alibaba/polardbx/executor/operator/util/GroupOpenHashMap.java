@@ -18,7 +18,10 @@ package com.alibaba.polardbx.executor.operator.util;
 
 import com.google.common.base.Preconditions;
 import com.alibaba.polardbx.common.utils.memory.ObjectSizeUtils;
+import com.alibaba.polardbx.optimizer.chunk.Block;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.IntegerBlock;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 import it.unimi.dsi.fastutil.Hash;
@@ -31,6 +34,11 @@ class GroupOpenHashMap implements GroupHashMap, Hash {
 
     private static final int NOT_EXISTS = -1;
 
+    /**
+     * Group keys made of at most this number of BIGINT/INT columns are also stored unboxed
+     */
+    private static final int MAX_FIXED_KEY_WIDTH = 2;
+
     final int expectedSize;
 
     final int chunkSize;
@@ -45,6 +53,11 @@ class GroupOpenHashMap implements GroupHashMap, Hash {
      * The array of keys (buckets)
      */
     protected int[] keys;
+    /**
+     * Hash codes of the keys, stored next to the buckets to reject most mismatches before comparing
+     * the group keys, and to rehash without touching the group keys
+     */
+    private int[] hashes;
     /**
      * The mask for wrapping a position counter
      */
@@ -66,6 +79,17 @@ class GroupOpenHashMap implements GroupHashMap, Hash {
      */
     private int maxFill;
 
+    /**
+     * Number of columns of a fixed-width group key, or 0 if the group key is not fixed-width
+     */
+    private final int fixedKeyWidth;
+    /**
+     * Unboxed fixed-width group keys, {@link #fixedKeyWidth} values per group. Set to null once
+     * a group key comes from a block which can not be read as long
+     */
+    private long[] fixedKeys;
+    private boolean[] fixedKeyNulls;
+
     protected ExecutionContext context;
 
     public GroupOpenHashMap(DataType[] groupKeyType, int expectedSize, int chunkSize, ExecutionContext context) {
@@ -87,30 +111,50 @@ class GroupOpenHashMap implements GroupHashMap, Hash {
         int[] keys = new int[n];
         Arrays.fill(keys, NOT_EXISTS);
         this.keys = keys;
+        this.hashes = new int[n];
         this.groupKeyType = groupKeyType;
         this.groupKeyBuffer = TypedBuffer.create(groupKeyType, chunkSize, context);
         this.chunkSize = chunkSize;
         this.expectedSize = expectedSize;
         this.context = context;
+
+        this.fixedKeyWidth = isFixedWidth(groupKeyType) ? groupKeyType.length : 0;
+        if (fixedKeyWidth > 0) {
+            this.fixedKeys = new long[Math.max(expectedSize, 16) * fixedKeyWidth];
+            this.fixedKeyNulls = new boolean[fixedKeys.length];
+        }
     }
 
     /**
      * @param groupId if groupId == -1 means need to generate a new groupid
      */
     int innerPut(Chunk chunk, int position, int groupId) {
-        int h = HashCommon.mix(chunk.hashCode(position)) & mask;
-        int k = keys[h];
+        return innerPut(chunk, position, chunk.hashCode(position), isFixedWidth(chunk), groupId);
+    }
 
-        if (k != NOT_EXISTS) {
-            if (groupKeyBuffer.equals(k, chunk, position)) {
+    /**
+     * Put all positions of the chunk, whose hash codes are computed block by block at once
+     *
+     * @param groupIds output group id of each position
+     */
+    void innerPutChunk(Chunk chunk, int[] groupIds) {
+        final int[] hashCodes = chunk.hashCodeVector();
+        final boolean fixedWidth = isFixedWidth(chunk);
+        for (int position = 0; position < chunk.getPositionCount(); position++) {
+            groupIds[position] = innerPut(chunk, position, hashCodes[position], fixedWidth, -1);
+        }
+    }
+
+    private int innerPut(Chunk chunk, int position, int hashCode, boolean fixedWidth, int groupId) {
+        int h = HashCommon.mix(hashCode) & mask;
+        int k;
+
+        // Open-address probing
+        while ((k = keys[h]) != NOT_EXISTS) {
+            if (hashes[h] == hashCode && keyEquals(k, chunk, position, fixedWidth)) {
                 return k;
             }
-            // Open-address probing
-            while ((k = keys[h = (h + 1) & mask]) != NOT_EXISTS) {
-                if (groupKeyBuffer.equals(k, chunk, position)) {
-                    return k;
-                }
-            }
+            h = (h + 1) & mask;
         }
 
         if (groupId == -1) {
@@ -119,6 +163,7 @@ class GroupOpenHashMap implements GroupHashMap, Hash {
 
         // otherwise, insert this position
         keys[h] = groupId;
+        hashes[h] = hashCode;
 
         if (size++ >= maxFill) {
             rehash();
@@ -126,34 +171,121 @@ class GroupOpenHashMap implements GroupHashMap, Hash {
         return groupId;
     }
 
+    private boolean keyEquals(int groupId, Chunk chunk, int position, boolean fixedWidth) {
+        if (!fixedWidth) {
+            return groupKeyBuffer.equals(groupId, chunk, position);
+        }
+        final int base = groupId * fixedKeyWidth;
+        for (int i = 0; i < fixedKeyWidth; i++) {
+            final Block block = chunk.getBlock(i);
+            final boolean isNull = block.isNull(position);
+            if (isNull != fixedKeyNulls[base + i]) {
+                return false;
+            }
+            if (!isNull && getFixedWidth(block, position) != fixedKeys[base + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private void rehash() {
+        final int[] oldKeys = this.keys;
+        final int[] oldHashes = this.hashes;
+
         this.n *= 2;
         this.mask = n - 1;
         this.maxFill = HashCommon.maxFill(n, this.f);
-        this.size = 0;
         int[] keys = new int[n];
         Arrays.fill(keys, NOT_EXISTS);
-        this.keys = keys;
+        int[] hashes = new int[n];
 
-        List<Chunk> groupChunks = groupKeyBuffer.buildChunks();
-        int groupId = 0;
-        for (Chunk chunk : groupChunks) {
-            for (int i = 0; i < chunk.getPositionCount(); i++) {
-                innerPut(chunk, i, groupId++);
+        // hash codes are stored so group keys need not to be rebuilt nor rehashed
+        for (int i = 0; i < oldKeys.length; i++) {
+            final int groupId = oldKeys[i];
+            if (groupId == NOT_EXISTS) {
+                continue;
+            }
+            int h = HashCommon.mix(oldHashes[i]) & mask;
+            while (keys[h] != NOT_EXISTS) {
+                h = (h + 1) & mask;
             }
+            keys[h] = groupId;
+            hashes[h] = oldHashes[i];
         }
+        this.keys = keys;
+        this.hashes = hashes;
     }
 
     int appendGroup(Chunk chunk, int position) {
         groupKeyBuffer.appendRow(chunk, position);
+        if (fixedKeys != null) {
+            appendFixedKey(chunk, position, groupCount);
+        }
         return groupCount++;
     }
 
+    private void appendFixedKey(Chunk chunk, int position, int groupId) {
+        if (!isFixedWidth(chunk)) {
+            // fall back to typed buffer comparison from now on
+            fixedKeys = null;
+            fixedKeyNulls = null;
+            return;
+        }
+        final int base = groupId * fixedKeyWidth;
+        if (base + fixedKeyWidth > fixedKeys.length) {
+            final int newLength = Math.max(fixedKeys.length * 2, base + fixedKeyWidth);
+            fixedKeys = Arrays.copyOf(fixedKeys, newLength);
+            fixedKeyNulls = Arrays.copyOf(fixedKeyNulls, newLength);
+        }
+        for (int i = 0; i < fixedKeyWidth; i++) {
+            final Block block = chunk.getBlock(i);
+            if (block.isNull(position)) {
+                fixedKeyNulls[base + i] = true;
+            } else {
+                fixedKeys[base + i] = getFixedWidth(block, position);
+            }
+        }
+    }
+
+    private static boolean isFixedWidth(DataType[] types) {
+        if (types.length == 0 || types.length > MAX_FIXED_KEY_WIDTH) {
+            return false;
+        }
+        for (DataType type : types) {
+            final Class clazz = type.getDataClass();
+            if (clazz != Long.class && clazz != Integer.class) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isFixedWidth(Chunk chunk) {
+        if (fixedKeys == null) {
+            return false;
+        }
+        for (int i = 0; i < fixedKeyWidth; i++) {
+            final Block block = chunk.getBlock(i);
+            if (!(block instanceof LongBlock) && !(block instanceof IntegerBlock)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long getFixedWidth(Block block, int position) {
+        return block instanceof LongBlock ? block.getLong(position) : block.getInt(position);
+    }
+
     List<Chunk> buildGroupChunks() {
         List<Chunk> chunks = groupKeyBuffer.buildChunks();
 
         // set null to deallocate memory
         this.keys = null;
+        this.hashes = null;
+        this.fixedKeys = null;
+        this.fixedKeyNulls = null;
         this.groupKeyBuffer = null;
 
         return chunks;
@@ -169,6 +301,12 @@ class GroupOpenHashMap implements GroupHashMap, Hash {
         if (keys != null) {
             size += keys.length * ObjectSizeUtils.SIZE_INTEGER;
         }
+        if (hashes != null) {
+            size += hashes.length * ObjectSizeUtils.SIZE_INTEGER;
+        }
+        if (fixedKeys != null) {
+            size += fixedKeys.length * (Long.BYTES + Byte.BYTES);
+        }
         if (groupKeyBuffer != null) {
             size += groupKeyBuffer.estimateSize();
         }
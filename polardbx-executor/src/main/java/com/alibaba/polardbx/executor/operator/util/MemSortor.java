@@ -24,14 +24,11 @@ import com.alibaba.polardbx.optimizer.chunk.BlockBuilder;
 import com.alibaba.polardbx.optimizer.chunk.BlockBuilders;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.executor.operator.ProducerExecutor;
-import com.alibaba.polardbx.executor.utils.ExecUtils;
 import com.alibaba.polardbx.executor.utils.OrderByOption;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 import com.alibaba.polardbx.optimizer.memory.MemoryAllocatorCtx;
-import it.unimi.dsi.fastutil.ints.AbstractIntComparator;
 import it.unimi.dsi.fastutil.ints.IntArrays;
-import it.unimi.dsi.fastutil.ints.IntComparator;
 
 import java.util.Iterator;
 import java.util.List;
@@ -40,7 +37,7 @@ public class MemSortor extends Sorter {
 
     private BlockBuilder[] blockBuilders;
     private ChunksIndex chunksIndex;
-    private IntComparator comparator;
+    private final SortKeyComparator[] sortKeyComparators;
     private int resultPosition;
     private int[] index;
     private boolean revokeMem;
@@ -57,26 +54,7 @@ public class MemSortor extends Sorter {
         }
         this.chunksIndex = new ChunksIndex();
         this.resultPosition = 0;
-        this.comparator = new AbstractIntComparator() {
-            @Override
-            public int compare(int position1, int position2) {
-                for (int i = 0; i < orderBys.size(); i++) {
-                    int index = orderBys.get(i).getIndex();
-                    Object o1 = chunksIndex.getObjectForCmp(index, position1);
-                    Object o2 = chunksIndex.getObjectForCmp(index, position2);
-                    if (o1 == null && o2 == null) {
-                        continue;
-                    }
-
-                    int n = ExecUtils.comp(o1, o2, columnMetas.get(index), orderBys.get(i).isAsc());
-                    if (n != 0) {
-                        return n;
-                    }
-                }
-                return 0;
-            }
-
-        };
+        this.sortKeyComparators = SortKeyComparator.create(orderBys, columnMetas);
     }
 
     @Override
@@ -104,8 +82,23 @@ public class MemSortor extends Sorter {
             index[i] = i;
         }
 
+        // materialize unboxed sort keys, which are only needed during sorting
+        SortKeyComparator.MaterializedKeys sortKeys = SortKeyComparator.materialize(sortKeyComparators, chunksIndex);
+        final long sortKeysSize = sortKeys.estimateSize();
+        if (revokeMem) {
+            memoryAllocator.allocateRevocableMemory(sortKeysSize);
+        } else {
+            memoryAllocator.allocateReservedMemory(sortKeysSize);
+        }
+
         // sort
-        IntArrays.quickSort(index, comparator);
+        IntArrays.quickSort(index, sortKeys);
+
+        if (revokeMem) {
+            memoryAllocator.releaseRevocableMemory(sortKeysSize, true);
+        } else {
+            memoryAllocator.releaseReservedMemory(sortKeysSize, true);
+        }
     }
 
     @Override
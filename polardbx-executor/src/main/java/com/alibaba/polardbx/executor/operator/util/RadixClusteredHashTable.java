@@ -0,0 +1,296 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import com.alibaba.polardbx.common.utils.memory.SizeOf;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.util.IntBloomFilter;
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.HashCommon;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.alibaba.polardbx.executor.utils.ExecUtils.checkJoinKeysAllNotNull;
+import static com.alibaba.polardbx.executor.utils.ExecUtils.checkJoinKeysNotNull;
+
+/**
+ * Join hash table with radix-clustered build, mapping a hash code to the chain of build positions
+ * with exactly the same hash code.
+ * <p>
+ * Build rows are clustered by the high bits of their hash codes into radix partitions when they are consumed,
+ * and each radix partition owns a separate region of slots, so that the partitions can be built by
+ * different threads without any CAS, and the inserts of one partition hit a small range of memory.
+ * Each slot stores the whole hash code as a tag besides the head position, and collisions of different
+ * hash codes are resolved by linear probing inside the region, so probing rarely compares the keys
+ * which do not match.
+ */
+public class RadixClusteredHashTable implements Hash {
+
+    private static final long INSTANCE_SIZE = ClassLayout.parseClass(RadixClusteredHashTable.class).instanceSize();
+
+    public static final int NOT_EXISTS = -1;
+
+    /**
+     * Number of bits of hash code to choose the radix partition
+     */
+    public static final int RADIX_BITS = 8;
+
+    public static final int RADIX_PARTITIONS = 1 << RADIX_BITS;
+
+    private static final long EMPTY_SLOT = -1L;
+
+    /**
+     * Slots of all the regions, with the hash code in high 32 bits and the head position in low 32 bits
+     */
+    private final long[] slots;
+    /**
+     * The first slot of each radix partition
+     */
+    private final int[] regionOffsets;
+    /**
+     * The mask for wrapping a slot index inside each region
+     */
+    private final int[] regionMasks;
+    /**
+     * The next position with the same hash code
+     */
+    private final int[] positionLinks;
+
+    /**
+     * @param clusteredChunks the clustered hash codes of all build chunks
+     * @param size total number of build positions
+     */
+    public RadixClusteredHashTable(List<ClusteredChunk> clusteredChunks, int size) {
+        Preconditions.checkArgument(size >= 0, "The number of elements must be non-negative");
+        final float loadFactor = selectLoadFactor(size);
+
+        int[] partitionSizes = new int[RADIX_PARTITIONS];
+        for (ClusteredChunk chunk : clusteredChunks) {
+            for (int partition = 0; partition < RADIX_PARTITIONS; partition++) {
+                partitionSizes[partition] += chunk.partitionStarts[partition + 1] - chunk.partitionStarts[partition];
+            }
+        }
+
+        this.regionOffsets = new int[RADIX_PARTITIONS + 1];
+        this.regionMasks = new int[RADIX_PARTITIONS];
+        int offset = 0;
+        for (int partition = 0; partition < RADIX_PARTITIONS; partition++) {
+            int regionSize = HashCommon.arraySize(partitionSizes[partition], loadFactor);
+            regionOffsets[partition] = offset;
+            regionMasks[partition] = regionSize - 1;
+            offset += regionSize;
+        }
+        regionOffsets[RADIX_PARTITIONS] = offset;
+
+        this.slots = new long[offset];
+        Arrays.fill(slots, EMPTY_SLOT);
+        this.positionLinks = new int[size];
+        Arrays.fill(positionLinks, NOT_EXISTS);
+    }
+
+    private static float selectLoadFactor(int size) {
+        if (size >= 100_000_000) { // more than 100M records
+            return DEFAULT_LOAD_FACTOR;
+        } else if (size >= 10_000_000) { // more than 10M records
+            return FAST_LOAD_FACTOR;
+        } else { // otherwise
+            return VERY_FAST_LOAD_FACTOR;
+        }
+    }
+
+    /**
+     * Cluster the positions of a build key chunk by radix partitions, leaving out the rows with null keys.
+     * It is designed to be called by multiple build threads concurrently.
+     */
+    public static ClusteredChunk cluster(Chunk keyChunk) {
+        final int positionCount = keyChunk.getPositionCount();
+        final int[] hashes = keyChunk.hashCodeVector();
+        final boolean allNotNull = checkJoinKeysAllNotNull(keyChunk);
+
+        int[] partitionStarts = new int[RADIX_PARTITIONS + 1];
+        for (int offset = 0; offset < positionCount; offset++) {
+            if (allNotNull || checkJoinKeysNotNull(keyChunk, offset)) {
+                partitionStarts[partitionOf(hashes[offset]) + 1]++;
+            }
+        }
+        for (int partition = 0; partition < RADIX_PARTITIONS; partition++) {
+            partitionStarts[partition + 1] += partitionStarts[partition];
+        }
+
+        int[] offsets = new int[partitionStarts[RADIX_PARTITIONS]];
+        int[] cursors = Arrays.copyOf(partitionStarts, RADIX_PARTITIONS);
+        for (int offset = 0; offset < positionCount; offset++) {
+            if (allNotNull || checkJoinKeysNotNull(keyChunk, offset)) {
+                offsets[cursors[partitionOf(hashes[offset])]++] = offset;
+            }
+        }
+        return new ClusteredChunk(hashes, offsets, partitionStarts);
+    }
+
+    /**
+     * Build the radix partitions assigned to the given worker, i.e. partition % workerCount == workerIndex.
+     * Different workers never touch the same slots, so they can build concurrently without synchronization.
+     */
+    public void buildPartitions(List<ClusteredChunk> clusteredChunks, int workerIndex, int workerCount,
+                                IntBloomFilter bloomFilter) {
+        for (int partition = workerIndex; partition < RADIX_PARTITIONS; partition += workerCount) {
+            for (ClusteredChunk chunk : clusteredChunks) {
+                final int end = chunk.partitionStarts[partition + 1];
+                for (int i = chunk.partitionStarts[partition]; i < end; i++) {
+                    final int offset = chunk.offsets[i];
+                    final int hash = chunk.hashes[offset];
+                    insert(partition, hash, chunk.basePosition + offset);
+                    if (bloomFilter != null) {
+                        bloomFilter.put(hash);
+                    }
+                }
+            }
+        }
+    }
+
+    private void insert(int partition, int hash, int position) {
+        final long[] slots = this.slots;
+        final int regionOffset = regionOffsets[partition];
+        final int mask = regionMasks[partition];
+        int h = HashCommon.mix(hash) & mask;
+        while (true) {
+            long slot = slots[regionOffset + h];
+            if (slot == EMPTY_SLOT) {
+                break;
+            }
+            if ((int) (slot >>> 32) == hash) {
+                // the same hash code, link the previous head after this position
+                positionLinks[position] = (int) slot;
+                break;
+            }
+            h = (h + 1) & mask;
+        }
+        slots[regionOffset + h] = ((long) hash << 32) | position;
+    }
+
+    /**
+     * Get the head of positions with the given hash code
+     *
+     * @return the first position, or NOT_EXISTS if not found
+     */
+    public int get(int hash) {
+        final int partition = partitionOf(hash);
+        return lookup(regionOffsets[partition], regionMasks[partition], HashCommon.mix(hash), hash);
+    }
+
+    /**
+     * Get the heads of positions for a batch of hash codes, e.g. the join keys of a probe chunk.
+     * Slot indexes of the whole batch are computed before touching any slot, so the random memory accesses
+     * of different rows are independent of each other and can be overlapped by the CPU.
+     *
+     * @param bloomFilter skip the rows not contained in the bloom filter if not null
+     * @return number of rows colliding with other hash codes in the slots
+     */
+    public int getAll(int[] hashes, int positionCount, int[] heads, IntBloomFilter bloomFilter) {
+        int collisions = 0;
+        for (int i = 0; i < positionCount; i++) {
+            final int hash = hashes[i];
+            if (bloomFilter != null && !bloomFilter.mightContain(hash)) {
+                heads[i] = NOT_EXISTS;
+            } else {
+                final int partition = partitionOf(hash);
+                heads[i] = regionOffsets[partition] + (HashCommon.mix(hash) & regionMasks[partition]);
+            }
+        }
+        for (int i = 0; i < positionCount; i++) {
+            final int slotIndex = heads[i];
+            if (slotIndex != NOT_EXISTS) {
+                final long slot = slots[slotIndex];
+                final int hash = hashes[i];
+                if ((int) (slot >>> 32) == hash && slot != EMPTY_SLOT) {
+                    heads[i] = (int) slot;
+                } else if (slot == EMPTY_SLOT) {
+                    heads[i] = NOT_EXISTS;
+                } else {
+                    // collided with another hash code, fall back to linear probing
+                    final int partition = partitionOf(hash);
+                    heads[i] = lookup(regionOffsets[partition], regionMasks[partition], HashCommon.mix(hash), hash);
+                    collisions++;
+                }
+            }
+        }
+        return collisions;
+    }
+
+    private int lookup(int regionOffset, int mask, int mixedHash, int hash) {
+        int h = mixedHash & mask;
+        while (true) {
+            long slot = slots[regionOffset + h];
+            if (slot == EMPTY_SLOT) {
+                return NOT_EXISTS;
+            }
+            if ((int) (slot >>> 32) == hash) {
+                return (int) slot;
+            }
+            h = (h + 1) & mask;
+        }
+    }
+
+    /**
+     * Get the next position with the same hash code
+     */
+    public int next(int position) {
+        return positionLinks[position];
+    }
+
+    public long estimateSize() {
+        return INSTANCE_SIZE + SizeOf.sizeOf(slots) + SizeOf.sizeOf(positionLinks) + SizeOf.sizeOf(regionOffsets)
+            + SizeOf.sizeOf(regionMasks);
+    }
+
+    /**
+     * Use the high bits to choose the partition, which are independent of the low bits to choose the slot
+     */
+    private static int partitionOf(int hash) {
+        return HashCommon.murmurHash3(hash) >>> (Integer.SIZE - RADIX_BITS);
+    }
+
+    /**
+     * Hash codes of a build key chunk, with the positions clustered by radix partition
+     */
+    public static final class ClusteredChunk {
+        private final int[] hashes;
+        private final int[] offsets;
+        private final int[] partitionStarts;
+        private int basePosition;
+
+        private ClusteredChunk(int[] hashes, int[] offsets, int[] partitionStarts) {
+            this.hashes = hashes;
+            this.offsets = offsets;
+            this.partitionStarts = partitionStarts;
+        }
+
+        /**
+         * Set the position of the first row of this chunk among all build rows
+         */
+        public void setBasePosition(int basePosition) {
+            this.basePosition = basePosition;
+        }
+
+        public long estimateSize() {
+            return SizeOf.sizeOf(hashes) + SizeOf.sizeOf(offsets) + SizeOf.sizeOf(partitionStarts);
+        }
+    }
+}
@@ -0,0 +1,403 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import com.alibaba.polardbx.common.charset.SortKey;
+import com.alibaba.polardbx.common.datatype.Decimal;
+import com.alibaba.polardbx.common.datatype.DecimalStructure;
+import com.alibaba.polardbx.common.utils.memory.ObjectSizeUtils;
+import com.alibaba.polardbx.executor.utils.ExecUtils;
+import com.alibaba.polardbx.executor.utils.OrderByOption;
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.chunk.DecimalBlock;
+import com.alibaba.polardbx.optimizer.chunk.IntegerBlock;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
+import com.alibaba.polardbx.optimizer.chunk.SliceBlock;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import io.airlift.slice.Slice;
+import it.unimi.dsi.fastutil.ints.AbstractIntComparator;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.List;
+
+/**
+ * Type-specialized comparator of a single ORDER BY column.
+ * <p>
+ * Block positions are compared by primitive values (LongBlock, IntegerBlock), decimals (DecimalBlock)
+ * or byte-comparable collation sort keys (SliceBlock) instead of boxing them via getObjectForCmp.
+ * For in-memory sort the keys of a {@link ChunksIndex} are materialized once, so that sorting the
+ * index array only touches unboxed arrays.
+ * Columns of other types, or blocks not matching the expected type, fall back to {@link ExecUtils#comp}
+ */
+public abstract class SortKeyComparator {
+
+    private static final long DECIMAL_KEY_SIZE = ClassLayout.parseClass(Decimal.class).instanceSize()
+        + ClassLayout.parseClass(DecimalStructure.class).instanceSize()
+        + ClassLayout.parseClass(Slice.class).instanceSize();
+
+    private static final long SORT_KEY_SIZE = ClassLayout.parseClass(SortKey.class).instanceSize()
+        + ObjectSizeUtils.ARRAY_HEADER_SIZE;
+
+    protected final int columnIndex;
+    protected final boolean asc;
+
+    SortKeyComparator(int columnIndex, boolean asc) {
+        this.columnIndex = columnIndex;
+        this.asc = asc;
+    }
+
+    public static SortKeyComparator create(OrderByOption orderBy, DataType type) {
+        final Class clazz = type == null ? null : type.getDataClass();
+        if (clazz == Long.class || clazz == Integer.class) {
+            return new LongKeyComparator(orderBy.getIndex(), orderBy.isAsc(), type);
+        } else if (clazz == Decimal.class) {
+            return new DecimalKeyComparator(orderBy.getIndex(), orderBy.isAsc(), type);
+        } else if (clazz == Slice.class) {
+            return new SliceKeyComparator(orderBy.getIndex(), orderBy.isAsc(), type);
+        }
+        return new ObjectKeyComparator(orderBy.getIndex(), orderBy.isAsc(), type);
+    }
+
+    public static SortKeyComparator[] create(List<OrderByOption> orderBys, List<DataType> columnMetas) {
+        SortKeyComparator[] comparators = new SortKeyComparator[orderBys.size()];
+        for (int i = 0; i < orderBys.size(); i++) {
+            OrderByOption orderBy = orderBys.get(i);
+            comparators[i] = create(orderBy, columnMetas.get(orderBy.getIndex()));
+        }
+        return comparators;
+    }
+
+    /**
+     * Compare the given positions of two blocks of this column
+     */
+    public abstract int compare(Block left, int leftPosition, Block right, int rightPosition);
+
+    /**
+     * Materialize the keys of all positions in the chunks index
+     */
+    public abstract MaterializedKeys materialize(ChunksIndex chunksIndex);
+
+    /**
+     * Materialize the keys of all ORDER BY columns into one comparator over positions of the chunks index
+     */
+    public static MaterializedKeys materialize(SortKeyComparator[] comparators, ChunksIndex chunksIndex) {
+        if (comparators.length == 1) {
+            return comparators[0].materialize(chunksIndex);
+        }
+        MaterializedKeys[] columns = new MaterializedKeys[comparators.length];
+        for (int i = 0; i < comparators.length; i++) {
+            columns[i] = comparators[i].materialize(chunksIndex);
+        }
+        return new CompositeKeys(columns);
+    }
+
+    final int order(int n) {
+        return asc ? n : -n;
+    }
+
+    /**
+     * Null is regarded as the minimum value, same as the data types do
+     */
+    final int compareNull(boolean leftNull, boolean rightNull) {
+        if (leftNull && rightNull) {
+            return 0;
+        }
+        return order(leftNull ? -1 : 1);
+    }
+
+    /**
+     * Sort keys of all positions in a chunks index, compared by position
+     */
+    public static abstract class MaterializedKeys extends AbstractIntComparator {
+
+        public abstract long estimateSize();
+    }
+
+    private static class CompositeKeys extends MaterializedKeys {
+
+        private final MaterializedKeys[] columns;
+
+        CompositeKeys(MaterializedKeys[] columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public int compare(int position1, int position2) {
+            for (MaterializedKeys column : columns) {
+                int n = column.compare(position1, position2);
+                if (n != 0) {
+                    return n;
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public long estimateSize() {
+            long size = 0;
+            for (MaterializedKeys column : columns) {
+                size += column.estimateSize();
+            }
+            return size;
+        }
+    }
+
+    private static class ObjectKeyComparator extends SortKeyComparator {
+
+        private final DataType type;
+
+        ObjectKeyComparator(int columnIndex, boolean asc, DataType type) {
+            super(columnIndex, asc);
+            this.type = type;
+        }
+
+        @Override
+        public int compare(Block left, int leftPosition, Block right, int rightPosition) {
+            return compareObject(left.getObjectForCmp(leftPosition), right.getObjectForCmp(rightPosition));
+        }
+
+        private int compareObject(Object o1, Object o2) {
+            if (o1 == null && o2 == null) {
+                return 0;
+            }
+            return ExecUtils.comp(o1, o2, type, asc);
+        }
+
+        @Override
+        public MaterializedKeys materialize(ChunksIndex chunksIndex) {
+            final Object[] keys = new Object[chunksIndex.getPositionCount()];
+            for (int chunkId = 0; chunkId < chunksIndex.getChunkCount(); chunkId++) {
+                final Block block = chunksIndex.getChunk(chunkId).getBlock(columnIndex);
+                final int base = chunksIndex.getChunkOffset(chunkId);
+                for (int i = 0; i < block.getPositionCount(); i++) {
+                    keys[base + i] = block.getObjectForCmp(i);
+                }
+            }
+            return new MaterializedKeys() {
+                @Override
+                public int compare(int position1, int position2) {
+                    return compareObject(keys[position1], keys[position2]);
+                }
+
+                @Override
+                public long estimateSize() {
+                    return (long) keys.length * ObjectSizeUtils.SIZE_OBJ_REF;
+                }
+            };
+        }
+    }
+
+    private static class LongKeyComparator extends SortKeyComparator {
+
+        private final ObjectKeyComparator fallback;
+
+        LongKeyComparator(int columnIndex, boolean asc, DataType type) {
+            super(columnIndex, asc);
+            this.fallback = new ObjectKeyComparator(columnIndex, asc, type);
+        }
+
+        private static boolean accept(Block block) {
+            return block instanceof LongBlock || block instanceof IntegerBlock;
+        }
+
+        private static long getLong(Block block, int position) {
+            return block instanceof LongBlock ? block.getLong(position) : block.getInt(position);
+        }
+
+        @Override
+        public int compare(Block left, int leftPosition, Block right, int rightPosition) {
+            if (!accept(left) || !accept(right)) {
+                return fallback.compare(left, leftPosition, right, rightPosition);
+            }
+            final boolean leftNull = left.isNull(leftPosition);
+            final boolean rightNull = right.isNull(rightPosition);
+            if (leftNull || rightNull) {
+                return compareNull(leftNull, rightNull);
+            }
+            return order(Long.compare(getLong(left, leftPosition), getLong(right, rightPosition)));
+        }
+
+        @Override
+        public MaterializedKeys materialize(ChunksIndex chunksIndex) {
+            for (int chunkId = 0; chunkId < chunksIndex.getChunkCount(); chunkId++) {
+                if (!accept(chunksIndex.getChunk(chunkId).getBlock(columnIndex))) {
+                    return fallback.materialize(chunksIndex);
+                }
+            }
+
+            final long[] keys = new long[chunksIndex.getPositionCount()];
+            final boolean[] nulls = new boolean[keys.length];
+            for (int chunkId = 0; chunkId < chunksIndex.getChunkCount(); chunkId++) {
+                final Block block = chunksIndex.getChunk(chunkId).getBlock(columnIndex);
+                final int base = chunksIndex.getChunkOffset(chunkId);
+                if (block instanceof LongBlock) {
+                    final long[] values = ((LongBlock) block).longArray();
+                    final int offset = ((LongBlock) block).getArrayOffset();
+                    System.arraycopy(values, offset, keys, base, block.getPositionCount());
+                } else {
+                    final int[] values = ((IntegerBlock) block).intArray();
+                    final int offset = ((IntegerBlock) block).getArrayOffset();
+                    for (int i = 0; i < block.getPositionCount(); i++) {
+                        keys[base + i] = values[offset + i];
+                    }
+                }
+                if (block.mayHaveNull()) {
+                    for (int i = 0; i < block.getPositionCount(); i++) {
+                        nulls[base + i] = block.isNull(i);
+                    }
+                }
+            }
+            return new MaterializedKeys() {
+                @Override
+                public int compare(int position1, int position2) {
+                    if (nulls[position1] || nulls[position2]) {
+                        return compareNull(nulls[position1], nulls[position2]);
+                    }
+                    return order(Long.compare(keys[position1], keys[position2]));
+                }
+
+                @Override
+                public long estimateSize() {
+                    return (long) keys.length * (Long.BYTES + Byte.BYTES);
+                }
+            };
+        }
+    }
+
+    private static class DecimalKeyComparator extends SortKeyComparator {
+
+        private final ObjectKeyComparator fallback;
+
+        DecimalKeyComparator(int columnIndex, boolean asc, DataType type) {
+            super(columnIndex, asc);
+            this.fallback = new ObjectKeyComparator(columnIndex, asc, type);
+        }
+
+        @Override
+        public int compare(Block left, int leftPosition, Block right, int rightPosition) {
+            if (!(left instanceof DecimalBlock) || !(right instanceof DecimalBlock)) {
+                return fallback.compare(left, leftPosition, right, rightPosition);
+            }
+            final boolean leftNull = left.isNull(leftPosition);
+            final boolean rightNull = right.isNull(rightPosition);
+            if (leftNull || rightNull) {
+                return compareNull(leftNull, rightNull);
+            }
+            return order(left.getDecimal(leftPosition).compareTo(right.getDecimal(rightPosition)));
+        }
+
+        @Override
+        public MaterializedKeys materialize(ChunksIndex chunksIndex) {
+            for (int chunkId = 0; chunkId < chunksIndex.getChunkCount(); chunkId++) {
+                if (!(chunksIndex.getChunk(chunkId).getBlock(columnIndex) instanceof DecimalBlock)) {
+                    return fallback.materialize(chunksIndex);
+                }
+            }
+
+            // null decimal stands for a null value
+            final Decimal[] keys = new Decimal[chunksIndex.getPositionCount()];
+            for (int chunkId = 0; chunkId < chunksIndex.getChunkCount(); chunkId++) {
+                final Block block = chunksIndex.getChunk(chunkId).getBlock(columnIndex);
+                final int base = chunksIndex.getChunkOffset(chunkId);
+                for (int i = 0; i < block.getPositionCount(); i++) {
+                    keys[base + i] = block.isNull(i) ? null : block.getDecimal(i);
+                }
+            }
+            return new MaterializedKeys() {
+                @Override
+                public int compare(int position1, int position2) {
+                    final Decimal key1 = keys[position1];
+                    final Decimal key2 = keys[position2];
+                    if (key1 == null || key2 == null) {
+                        return compareNull(key1 == null, key2 == null);
+                    }
+                    return order(key1.compareTo(key2));
+                }
+
+                @Override
+                public long estimateSize() {
+                    return (long) keys.length * (ObjectSizeUtils.SIZE_OBJ_REF + DECIMAL_KEY_SIZE);
+                }
+            };
+        }
+    }
+
+    private static class SliceKeyComparator extends SortKeyComparator {
+
+        private final ObjectKeyComparator fallback;
+
+        SliceKeyComparator(int columnIndex, boolean asc, DataType type) {
+            super(columnIndex, asc);
+            this.fallback = new ObjectKeyComparator(columnIndex, asc, type);
+        }
+
+        @Override
+        public int compare(Block left, int leftPosition, Block right, int rightPosition) {
+            if (!(left instanceof SliceBlock) || !(right instanceof SliceBlock)) {
+                return fallback.compare(left, leftPosition, right, rightPosition);
+            }
+            final SortKey key1 = ((SliceBlock) left).getSortKey(leftPosition);
+            final SortKey key2 = ((SliceBlock) right).getSortKey(rightPosition);
+            if (key1 == null || key2 == null) {
+                return compareNull(key1 == null, key2 == null);
+            }
+            return order(key1.compareTo(key2));
+        }
+
+        @Override
+        public MaterializedKeys materialize(ChunksIndex chunksIndex) {
+            for (int chunkId = 0; chunkId < chunksIndex.getChunkCount(); chunkId++) {
+                if (!(chunksIndex.getChunk(chunkId).getBlock(columnIndex) instanceof SliceBlock)) {
+                    return fallback.materialize(chunksIndex);
+                }
+            }
+
+            // collation sort keys are byte-comparable, null sort key stands for a null value
+            final SortKey[] keys = new SortKey[chunksIndex.getPositionCount()];
+            long keyBytes = 0;
+            for (int chunkId = 0; chunkId < chunksIndex.getChunkCount(); chunkId++) {
+                final SliceBlock block = (SliceBlock) chunksIndex.getChunk(chunkId).getBlock(columnIndex);
+                final int base = chunksIndex.getChunkOffset(chunkId);
+                for (int i = 0; i < block.getPositionCount(); i++) {
+                    SortKey sortKey = block.getSortKey(i);
+                    keys[base + i] = sortKey;
+                    if (sortKey != null) {
+                        keyBytes += sortKey.keys.length;
+                    }
+                }
+            }
+            final long estimatedSize = keys.length * (ObjectSizeUtils.SIZE_OBJ_REF + SORT_KEY_SIZE) + keyBytes;
+            return new MaterializedKeys() {
+                @Override
+                public int compare(int position1, int position2) {
+                    final SortKey key1 = keys[position1];
+                    final SortKey key2 = keys[position2];
+                    if (key1 == null || key2 == null) {
+                        return compareNull(key1 == null, key2 == null);
+                    }
+                    return order(key1.compareTo(key2));
+                }
+
+                @Override
+                public long estimateSize() {
+                    return estimatedSize;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.operator.util.bloomfilter;
+
+import com.alibaba.polardbx.common.jdbc.ParameterContext;
+import com.alibaba.polardbx.common.jdbc.ParameterMethod;
+import com.alibaba.polardbx.common.utils.Pair;
+import com.alibaba.polardbx.util.bloomfilter.BloomFilterInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.alibaba.polardbx.optimizer.core.rel.util.RuntimeFilterDynamicParamInfo.ARG_IDX_BLOOM_FILTER_INFO;
+
+/**
+ * Expand the IN-list place holders of runtime filters, which are pushed down as range and IN-list predicates,
+ * to the distinct build keys, and enable the IN-list by setting the preceding skip flag to false.
+ * IN-list with too many values is left skipped, so that only the range takes effect.
+ */
+public class RuntimeFilterInListRewriter {
+
+    /**
+     * @param sql physical sql with '?' as place holders
+     * @param params parameters whose bloom filter infos have been registered
+     * @return rewritten sql and parameters, or null if there is nothing to expand
+     */
+    public static Pair<String, List<ParameterContext>> rewrite(String sql, List<ParameterContext> params,
+                                                               int maxInListSize) {
+        if (params == null || maxInListSize <= 0) {
+            return null;
+        }
+        boolean[] expand = new boolean[params.size()];
+        boolean found = false;
+        for (int i = 1; i < params.size(); i++) {
+            ParameterContext param = params.get(i);
+            if (param.getParameterMethod() == ParameterMethod.setRuntimeFilterInList
+                && params.get(i - 1).getParameterMethod() == ParameterMethod.setRuntimeFilterSkipInList) {
+                long[] inValues = ((BloomFilterInfo) param.getArgs()[ARG_IDX_BLOOM_FILTER_INFO]).getInValues();
+                if (inValues != null && inValues.length > 0 && inValues.length <= maxInListSize) {
+                    expand[i] = true;
+                    found = true;
+                }
+            }
+        }
+        if (!found) {
+            return null;
+        }
+
+        List<Integer> placeHolders = findPlaceHolders(sql);
+        if (placeHolders.size() != params.size()) {
+            return null;
+        }
+
+        StringBuilder builder = new StringBuilder(sql.length());
+        List<ParameterContext> newParams = new ArrayList<>(params.size());
+        int start = 0;
+        for (int i = 0; i < params.size(); i++) {
+            int pos = placeHolders.get(i);
+            builder.append(sql, start, pos);
+            start = pos + 1;
+            if (expand[i]) {
+                long[] inValues =
+                    ((BloomFilterInfo) params.get(i).getArgs()[ARG_IDX_BLOOM_FILTER_INFO]).getInValues();
+                for (int j = 0; j < inValues.length; j++) {
+                    builder.append(j == 0 ? "?" : ",?");
+                    newParams.add(new ParameterContext(ParameterMethod.setLong,
+                        new Object[] {newParams.size() + 1, inValues[j]}));
+                }
+            } else if (i + 1 < params.size() && expand[i + 1]) {
+                // the skip flag of expanded IN-list
+                builder.append('?');
+                newParams.add(new ParameterContext(ParameterMethod.setInt, new Object[] {newParams.size() + 1, 0}));
+            } else {
+                builder.append('?');
+                newParams.add(params.get(i));
+            }
+        }
+        builder.append(sql, start, sql.length());
+        return Pair.of(builder.toString(), newParams);
+    }
+
+    /**
+     * Find positions of '?' which are not in quoted strings, quoted identifiers or comments.
+     */
+    static List<Integer> findPlaceHolders(String sql) {
+        List<Integer> placeHolders = new ArrayList<>();
+        final int length = sql.length();
+        for (int i = 0; i < length; i++) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                // skip quoted string or identifier
+                for (i++; i < length; i++) {
+                    char next = sql.charAt(i);
+                    if (next == '\\' && c != '`') {
+                        i++;
+                    } else if (next == c) {
+                        if (i + 1 < length && sql.charAt(i + 1) == c) {
+                            i++;
+                        } else {
+                            break;
+                        }
+                    }
+                }
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 1;
+            } else if (c == '#' || (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-')) {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? length : end;
+            } else if (c == '?') {
+                placeHolders.add(i);
+            }
+        }
+        return placeHolders;
+    }
+}
@@ -0,0 +1,439 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.statistic;
+
+import com.alibaba.druid.util.JdbcUtils;
+import com.alibaba.polardbx.common.jdbc.IDataSource;
+import com.alibaba.polardbx.common.properties.ConnectionParams;
+import com.alibaba.polardbx.common.properties.ParamManager;
+import com.alibaba.polardbx.common.utils.GeneralUtil;
+import com.alibaba.polardbx.common.utils.logger.Logger;
+import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
+import com.alibaba.polardbx.executor.common.ExecutorContext;
+import com.alibaba.polardbx.executor.statistic.entity.PolarDbXSystemTableColumnShardSketch;
+import com.alibaba.polardbx.executor.statistic.entity.PolarDbXSystemTableColumnShardSketch.ShardSketchRow;
+import com.alibaba.polardbx.executor.statistic.ndv.FlowControl;
+import com.alibaba.polardbx.executor.statistic.ndv.NDVShardSketch;
+import com.alibaba.polardbx.optimizer.OptimizerContext;
+import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
+import com.alibaba.polardbx.optimizer.config.table.statistic.ColumnShardSketch;
+import com.alibaba.polardbx.optimizer.config.table.statistic.Histogram;
+import com.alibaba.polardbx.optimizer.config.table.statistic.StatisticManager;
+import com.alibaba.polardbx.optimizer.config.table.statistic.StatisticUtils;
+import com.alibaba.polardbx.optimizer.config.table.statistic.TopN;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.partition.PartitionInfoManager;
+import com.alibaba.polardbx.rule.TableRule;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.RateLimiter;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.alibaba.polardbx.common.utils.GeneralUtil.unixTimeStamp;
+import static com.alibaba.polardbx.executor.statistic.StatisticBuilder.DATA_MAX_LEN;
+
+/**
+ * Refresh histogram, topN and null count of a sharded table from per physical table sketches.
+ * <p>
+ * Every physical table keeps a quantile sketch and a frequent items sketch of each column in metadb.
+ * A physical table is sampled again only if it has no sketch yet, the rows modified on it since its last sampling
+ * exceed STATISTIC_SHARD_SKETCH_REFRESH_RATIO of its own rows, or its sketches are older than
+ * STATISTIC_SHARD_SKETCH_EXPIRE_TIME,
+ * and then all sketches are merged into the cache line.
+ * Cardinality and count-min sketch are left as they are, ndv is maintained by NDVShardSketch.
+ */
+public class IncrementalStatisticBuilder {
+
+    private static final Logger logger = LoggerFactory.getLogger("statistics");
+
+    private static final String TABLE_ROWS_SQL =
+        "SELECT TABLE_NAME, TABLE_ROWS FROM INFORMATION_SCHEMA.TABLES "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME IN (%s)";
+
+    /**
+     * Sample at least so many rows from every physical table, or the whole table if it is smaller
+     */
+    private static final int MIN_SHARD_SAMPLE_SIZE = 1000;
+
+    private final StatisticManager statisticManager;
+    private final String schemaName;
+    private final String logicalTableName;
+    private final List<ColumnMeta> columnMetaList;
+    private final float refreshRatio;
+    private final long expireTime;
+    private final int histogramBucketSize;
+    private final int analyzeTableSpeedLimit;
+    private final int topNSize;
+    private final int topNMinNum;
+    private final int queryTimeout;
+
+    private String[] shardParts;
+
+    /**
+     * shard part -> column name -> sketch row
+     */
+    private final Map<String, Map<String, ShardSketchRow>> shardSketchRows = new HashMap<>();
+
+    /**
+     * shard part -> column name -> sketch deserialized from the row
+     */
+    private final Map<String, Map<String, ColumnShardSketch>> shardSketches = new HashMap<>();
+
+    private int refreshedShardCount = 0;
+
+    public IncrementalStatisticBuilder(StatisticManager statisticManager, ParamManager paramManager,
+                                       String logicalTableName, List<ColumnMeta> columnMetaList) {
+        this.statisticManager = statisticManager;
+        this.schemaName = statisticManager.getSchemaName();
+        this.logicalTableName = logicalTableName;
+        this.columnMetaList = columnMetaList;
+        this.refreshRatio = paramManager.getFloat(ConnectionParams.STATISTIC_SHARD_SKETCH_REFRESH_RATIO);
+        this.expireTime = paramManager.getInt(ConnectionParams.STATISTIC_SHARD_SKETCH_EXPIRE_TIME);
+        this.histogramBucketSize = paramManager.getInt(ConnectionParams.HISTOGRAM_BUCKET_SIZE);
+        this.analyzeTableSpeedLimit = paramManager.getInt(ConnectionParams.ANALYZE_TABLE_SPEED_LIMITATION);
+        this.topNSize = paramManager.getInt(ConnectionParams.TOPN_SIZE);
+        this.topNMinNum = paramManager.getInt(ConnectionParams.TOPN_MIN_NUM);
+        this.queryTimeout = paramManager.getInt(ConnectionParams.STATISTIC_NDV_SKETCH_QUERY_TIMEOUT);
+    }
+
+    /**
+     * Whether the table could be analyzed incrementally, that is it has more than one physical table
+     * and the column statistics of the cache line have been built by a full analyze.
+     */
+    public static boolean support(StatisticManager statisticManager, String logicalTableName) {
+        StatisticManager.CacheLine cacheLine = statisticManager.getCacheLine(logicalTableName);
+        if (cacheLine.getCardinalityMap() == null || cacheLine.getCountMinSketchMap() == null
+            || cacheLine.getHistogramMap() == null || cacheLine.getNullCountMap() == null
+            || cacheLine.getSampleRate() <= 0f) {
+            return false;
+        }
+        Map<String, Set<String>> topology = getTopology(statisticManager.getSchemaName(), logicalTableName);
+        return topology != null && topology.values().stream().mapToInt(Set::size).sum() > 1;
+    }
+
+    public void prepare() {
+        shardParts = NDVShardSketch.topologyPartToShard(getTopology(schemaName, logicalTableName));
+        Map<String, DataType> columnTypes = new HashMap<>();
+        for (ColumnMeta columnMeta : columnMetaList) {
+            columnTypes.put(columnMeta.getName().toLowerCase(), columnMeta.getField().getDataType());
+        }
+        for (ShardSketchRow row : PolarDbXSystemTableColumnShardSketch.getInstance()
+            .loadByTableName(schemaName, logicalTableName)) {
+            DataType dataType = columnTypes.get(row.getColumnName());
+            ColumnShardSketch sketch = dataType == null ? null :
+                ColumnShardSketch.deserialize(dataType, row.getQuantileSketch(), row.getFrequentItems());
+            if (sketch == null) {
+                // the column is dropped or its type is changed, sample it again
+                continue;
+            }
+            shardSketchRows.computeIfAbsent(row.getShardPart(), k -> new HashMap<>()).put(row.getColumnName(), row);
+            shardSketches.computeIfAbsent(row.getShardPart(), k -> new HashMap<>()).put(row.getColumnName(), sketch);
+        }
+    }
+
+    public void analyze() throws SQLException {
+        StatisticManager.CacheLine cacheLine = statisticManager.getCacheLine(logicalTableName);
+        double sampleRate = cacheLine.getSampleRate();
+        long logicalRowCount = cacheLine.getRowCount();
+        long now = unixTimeStamp();
+        List<String> columnNames = new ArrayList<>(columnMetaList.size());
+        for (ColumnMeta columnMeta : columnMetaList) {
+            columnNames.add(columnMeta.getName().toLowerCase());
+        }
+
+        Map<String, Long> shardRowCounts = null;
+        List<ShardSketchRow> refreshedRows = new ArrayList<>();
+        for (String shardPart : shardParts) {
+            GeneralUtil.checkInterrupted();
+            long modifyCount = statisticManager.getShardModifyCount(logicalTableName, shardPart);
+            if (!needRefresh(shardSketchRows.get(shardPart), columnNames, modifyCount, refreshRatio, expireTime,
+                now)) {
+                continue;
+            }
+            if (shardRowCounts == null) {
+                shardRowCounts = getShardRowCounts();
+            }
+            // only used to size the sample, estimated evenly if the data node fails to tell
+            long rowCount = shardRowCounts.getOrDefault(shardPart, logicalRowCount / shardParts.length);
+            double shardSampleRate =
+                Math.max(sampleRate, Math.min(1D, (double) MIN_SHARD_SAMPLE_SIZE / Math.max(rowCount, 1L)));
+            List<ShardSketchRow> rows = sampleShard(shardPart, rowCount, modifyCount, Math.min(1D, shardSampleRate));
+            if (rows == null) {
+                // canceled by flow control, keep the old sketches of this shard
+                continue;
+            }
+            Map<String, ShardSketchRow> columnRows = shardSketchRows.computeIfAbsent(shardPart, k -> new HashMap<>());
+            for (ShardSketchRow row : rows) {
+                columnRows.put(row.getColumnName(), row);
+            }
+            refreshedRows.addAll(rows);
+            refreshedShardCount++;
+        }
+        if (!refreshedRows.isEmpty()) {
+            PolarDbXSystemTableColumnShardSketch.getInstance().batchReplace(refreshedRows);
+        }
+        StatisticUtils.logInfo(schemaName, "incremental analyze " + logicalTableName + " refreshed "
+            + refreshedShardCount + " of " + shardParts.length + " shards");
+    }
+
+    /**
+     * Merge the sketches of all physical tables into the current cache line, scaled to its sample rate,
+     * so that histogram and topN could be used together with the existing count-min sketch.
+     */
+    public StatisticManager.CacheLine build() {
+        StatisticManager.CacheLine cacheLine = statisticManager.getCacheLine(logicalTableName);
+        double sampleRate = cacheLine.getSampleRate();
+        for (ColumnMeta columnMeta : columnMetaList) {
+            String columnName = columnMeta.getName().toLowerCase();
+            DataType dataType = columnMeta.getField().getDataType();
+
+            List<ColumnShardSketch> sketches = new ArrayList<>(shardParts.length);
+            List<Double> scales = new ArrayList<>(shardParts.length);
+            double nullCount = 0;
+            boolean complete = true;
+            for (String shardPart : shardParts) {
+                Map<String, ShardSketchRow> columnRows = shardSketchRows.get(shardPart);
+                Map<String, ColumnShardSketch> columnSketches = shardSketches.get(shardPart);
+                ShardSketchRow row = columnRows == null ? null : columnRows.get(columnName);
+                ColumnShardSketch sketch = columnSketches == null ? null : columnSketches.get(columnName);
+                if (row == null || sketch == null || row.getSampleRate() <= 0) {
+                    complete = false;
+                    break;
+                }
+                double scale = sampleRate / row.getSampleRate();
+                sketches.add(sketch);
+                scales.add(scale);
+                nullCount += row.getNullCount() * scale;
+            }
+            if (!complete) {
+                // some physical table has not been sampled yet, keep the statistics of last full analyze
+                continue;
+            }
+
+            TopN topN = ColumnShardSketch.buildTopN(dataType, sketches, scales, topNSize, topNMinNum);
+            Histogram histogram =
+                ColumnShardSketch.buildHistogram(dataType, histogramBucketSize, sketches, scales, topN);
+
+            cacheLine.getTopNMap().put(columnName, topN);
+            cacheLine.getHistogramMap().put(columnName, histogram);
+            cacheLine.getNullCountMap().put(columnName, Math.round(nullCount));
+        }
+        cacheLine.setLastModifyTime(unixTimeStamp());
+        return cacheLine;
+    }
+
+    /**
+     * Whether a physical table should be sampled again: some column has no sketch, rows modified on it since
+     * the sketch was sampled exceed refreshRatio of its rows when sampled, or the sketch expired.
+     * <p>
+     * Modify count of every physical table is only kept in memory of this server. A count less than the one
+     * when sampled means it has been reset, e.g. the server restarted, then only the modifications since reset
+     * are counted, and the expire time bounds the staleness of what is missed.
+     *
+     * @param columnRows column name -> sketch row of the physical table, null if never sampled
+     * @param modifyCount rows inserted, updated or deleted on the physical table
+     * @param now unix timestamp in seconds
+     */
+    static boolean needRefresh(Map<String, ShardSketchRow> columnRows, Collection<String> columnNames,
+                               long modifyCount, float refreshRatio, long expireTime, long now) {
+        if (columnRows == null) {
+            return true;
+        }
+        for (String columnName : columnNames) {
+            ShardSketchRow row = columnRows.get(columnName);
+            if (row == null || now - row.getSampleTime() > expireTime) {
+                return true;
+            }
+            long modified = modifyCount >= row.getModifyCount() ? modifyCount - row.getModifyCount() : modifyCount;
+            if (modified > refreshRatio * Math.max(row.getRowCount(), 1L)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sample one physical table and build the sketches of all columns.
+     *
+     * @return null if canceled by flow control
+     */
+    private List<ShardSketchRow> sampleShard(String shardPart, long rowCount, long modifyCount,
+                                             double shardSampleRate) throws SQLException {
+        if (!FlowControl.getInstance(schemaName).acquire()) {
+            return null;
+        }
+        long startTime = System.currentTimeMillis();
+        String[] nodeAndTable = shardPart.split(":");
+        IDataSource ds = ExecutorContext.getContext(schemaName).getTopologyHandler().get(nodeAndTable[0])
+            .getDataSource();
+
+        int columnCount = columnMetaList.size();
+        ColumnShardSketch[] sketches = new ColumnShardSketch[columnCount];
+        long[] nullCounts = new long[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            sketches[i] = new ColumnShardSketch(columnMetaList.get(i).getField().getDataType());
+        }
+
+        String sql = constructSamplingSql(nodeAndTable[1], shardSampleRate);
+        StatisticUtils.logDebug(schemaName, "sample shard sketch from:" + shardPart + "," + sql);
+        Connection connection = null;
+        Statement statement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = ds.getConnection();
+            connection.setNetworkTimeout(null, queryTimeout);
+            statement = connection.createStatement();
+            resultSet = statement.executeQuery(sql);
+            RateLimiter rateLimiter = RateLimiter.create(analyzeTableSpeedLimit);
+            while (resultSet.next()) {
+                GeneralUtil.checkInterrupted();
+                for (int i = 0; i < columnCount; i++) {
+                    Object columnValue = truncate(resultSet.getObject(i + 1));
+                    if (columnValue == null) {
+                        nullCounts[i]++;
+                    } else {
+                        sketches[i].offer(columnValue);
+                    }
+                }
+                rateLimiter.acquire((int) (1.0 / shardSampleRate));
+            }
+        } finally {
+            JdbcUtils.close(resultSet);
+            JdbcUtils.close(statement);
+            JdbcUtils.close(connection);
+            FlowControl.getInstance(schemaName).feedback(System.currentTimeMillis() - startTime);
+        }
+
+        long sampleTime = unixTimeStamp();
+        Map<String, ColumnShardSketch> columnSketches = shardSketches.computeIfAbsent(shardPart, k -> new HashMap<>());
+        List<ShardSketchRow> rows = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            String columnName = columnMetaList.get(i).getName().toLowerCase();
+            rows.add(new ShardSketchRow(schemaName, logicalTableName.toLowerCase(), columnName, shardPart, rowCount,
+                modifyCount, nullCounts[i], shardSampleRate, sketches[i].serializeQuantiles(),
+                sketches[i].serializeFrequentItems(), sampleTime));
+            columnSketches.put(columnName, sketches[i]);
+        }
+        return rows;
+    }
+
+    private String constructSamplingSql(String physicalTableName, double shardSampleRate) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        boolean first = true;
+        for (ColumnMeta columnMeta : columnMetaList) {
+            if (first) {
+                first = false;
+            } else {
+                sql.append(",");
+            }
+            sql.append("`").append(columnMeta.getName()).append("`");
+        }
+        sql.append(" FROM `").append(physicalTableName).append("`");
+        if (shardSampleRate < 1D) {
+            sql.append(" WHERE RAND() < ").append(shardSampleRate);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Get the row count of all physical tables estimated by data node, one query per group.
+     *
+     * @return shard part -> row count
+     */
+    private Map<String, Long> getShardRowCounts() {
+        Map<String, Map<String, String>> groupTables = Maps.newHashMap();
+        for (String shardPart : shardParts) {
+            String[] nodeAndTable = shardPart.split(":");
+            groupTables.computeIfAbsent(nodeAndTable[0], k -> new HashMap<>()).put(nodeAndTable[1], shardPart);
+        }
+
+        Map<String, Long> rowCounts = new HashMap<>();
+        for (Map.Entry<String, Map<String, String>> entry : groupTables.entrySet()) {
+            String nodeName = entry.getKey();
+            Map<String, String> tables = entry.getValue();
+            StringBuilder tableNames = new StringBuilder();
+            for (String table : tables.keySet()) {
+                if (tableNames.length() > 0) {
+                    tableNames.append(",");
+                }
+                tableNames.append("'").append(table).append("'");
+            }
+            IDataSource ds = ExecutorContext.getContext(schemaName).getTopologyHandler().get(nodeName).getDataSource();
+            Connection connection = null;
+            Statement statement = null;
+            ResultSet resultSet = null;
+            try {
+                connection = ds.getConnection();
+                statement = connection.createStatement();
+                resultSet = statement.executeQuery(String.format(TABLE_ROWS_SQL, tableNames));
+                while (resultSet.next()) {
+                    String shardPart = tables.get(resultSet.getString(1).toLowerCase());
+                    if (shardPart != null) {
+                        rowCounts.put(shardPart, resultSet.getLong(2));
+                    }
+                }
+            } catch (SQLException e) {
+                // shards of this group would be skipped and refreshed next time
+                logger.warn("get physical table rows error for " + logicalTableName + " on " + nodeName, e);
+            } finally {
+                JdbcUtils.close(resultSet);
+                JdbcUtils.close(statement);
+                JdbcUtils.close(connection);
+            }
+        }
+        return rowCounts;
+    }
+
+    private static Object truncate(Object columnValue) {
+        // pruning too long data
+        if (columnValue instanceof String) {
+            String s = (String) columnValue;
+            if (s.length() > DATA_MAX_LEN) {
+                return s.substring(0, DATA_MAX_LEN);
+            }
+        } else if (columnValue instanceof byte[]) {
+            byte[] byteArray = (byte[]) columnValue;
+            if (byteArray.length > DATA_MAX_LEN) {
+                return Arrays.copyOfRange(byteArray, 0, DATA_MAX_LEN);
+            }
+        }
+        return columnValue;
+    }
+
+    /**
+     * @return map group node name -> set<table name>
+     */
+    private static Map<String, Set<String>> getTopology(String schemaName, String logicalTableName) {
+        OptimizerContext optimizerContext = OptimizerContext.getContext(schemaName);
+        PartitionInfoManager partitionInfoManager = optimizerContext.getPartitionInfoManager();
+        if (partitionInfoManager.isNewPartDbTable(logicalTableName)) {
+            return partitionInfoManager.getPartitionInfo(logicalTableName).getTopology();
+        }
+        TableRule tableRule = optimizerContext.getRuleManager().getTableRule(logicalTableName);
+        return tableRule == null ? null : tableRule.getActualTopology();
+    }
+}
@@ -33,6 +33,7 @@ import com.alibaba.polardbx.executor.common.ExecutorContext;
 import com.alibaba.polardbx.executor.common.TopologyHandler;
 import com.alibaba.polardbx.executor.cursor.Cursor;
 import com.alibaba.polardbx.executor.spi.IGroupExecutor;
+import com.alibaba.polardbx.executor.statistic.entity.PolarDbXSystemTableColumnShardSketch;
 import com.alibaba.polardbx.executor.sync.SyncManagerHelper;
 import com.alibaba.polardbx.executor.sync.UpdateRowCountSyncAction;
 import com.alibaba.polardbx.executor.sync.UpdateStatisticSyncAction;
@@ -719,14 +720,27 @@ public class MysqlStatisticCollector extends StatisticCollector {
             if (columnMetaList.isEmpty()) {
                 return true;
             }
-            logger.debug("start collectRowCount with scan");
-            StatisticBuilder statisticBuilder = new StatisticBuilder(statisticManager, tDataSource,
-                callerParamManager, logicalTableName,
-                columnMetaList, false);
-
-            statisticBuilder.prepare();
-            statisticBuilder.analyze();
-            StatisticManager.CacheLine cacheLine = statisticBuilder.build();
+            StatisticManager.CacheLine cacheLine;
+            if (callerParamManager.getBoolean(ConnectionParams.ENABLE_INCREMENTAL_STATISTIC)
+                && IncrementalStatisticBuilder.support(statisticManager, logicalTableName)) {
+                logger.debug("start analyzeColumns with shard sketches");
+                IncrementalStatisticBuilder incrementalStatisticBuilder =
+                    new IncrementalStatisticBuilder(statisticManager, callerParamManager, logicalTableName,
+                        columnMetaList);
+
+                incrementalStatisticBuilder.prepare();
+                incrementalStatisticBuilder.analyze();
+                cacheLine = incrementalStatisticBuilder.build();
+            } else {
+                logger.debug("start collectRowCount with scan");
+                StatisticBuilder statisticBuilder = new StatisticBuilder(statisticManager, tDataSource,
+                    callerParamManager, logicalTableName,
+                    columnMetaList, false);
+
+                statisticBuilder.prepare();
+                statisticBuilder.analyze();
+                cacheLine = statisticBuilder.build();
+            }
 
             statisticManager.setCacheLine(logicalTableName, cacheLine);
             /** persist */
@@ -762,6 +776,8 @@ public class MysqlStatisticCollector extends StatisticCollector {
             statisticBuilder.prepare();
             statisticBuilder.analyze();
             StatisticManager.CacheLine cacheLine = statisticBuilder.build();
+            /** shard sketches would be rebuilt by next incremental analyze */
+            PolarDbXSystemTableColumnShardSketch.getInstance().deleteByTableName(schemaName, logicalTableName);
 
             statisticManager.setCacheLine(logicalTableName, cacheLine);
             /** persist */
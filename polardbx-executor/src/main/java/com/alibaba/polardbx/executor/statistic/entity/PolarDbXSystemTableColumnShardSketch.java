@@ -0,0 +1,286 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.statistic.entity;
+
+import com.alibaba.druid.util.JdbcUtils;
+import com.alibaba.polardbx.common.utils.logger.Logger;
+import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
+import com.alibaba.polardbx.config.ConfigDataMode;
+import com.alibaba.polardbx.gms.metadb.GmsSystemTables;
+import com.alibaba.polardbx.gms.metadb.MetaDbDataSource;
+import com.google.common.collect.Lists;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Quantile and frequent items sketches of columns on every physical table, which are merged into
+ * the histogram and topN of the logical table.
+ */
+public class PolarDbXSystemTableColumnShardSketch {
+
+    private static final Logger logger = LoggerFactory.getLogger(PolarDbXSystemTableColumnShardSketch.class);
+
+    public static final String TABLE_NAME = GmsSystemTables.COLUMN_SHARD_SKETCH_STATISTICS;
+
+    private static final String CREATE_TABLE_IF_NOT_EXIST_SQL = "create table if not exists `" + TABLE_NAME + "` (\n"
+        + "  `schema_name` varchar(64) not null default '',\n"
+        + "  `table_name` varchar(64) not null,\n"
+        + "  `column_name` varchar(64) not null,\n"
+        + "  `shard_part` varchar(255) not null,\n"
+        + "  `row_count` bigint(20) not null,\n"
+        + "  `modify_count` bigint(20) not null default 0,\n"
+        + "  `null_count` bigint(20) not null,\n"
+        + "  `sample_rate` double not null,\n"
+        + "  `quantile_sketch` mediumtext not null,\n"
+        + "  `frequent_items` mediumtext not null,\n"
+        + "  `gmt_created` timestamp default current_timestamp,\n"
+        + "  `gmt_modified` timestamp default current_timestamp on update current_timestamp,\n"
+        + "   PRIMARY KEY `logical_table_column` (`schema_name`, `table_name`, `column_name`, `shard_part`)\n"
+        + ") engine=innodb default charset=utf8mb4;";
+
+    private static final String LOAD_BY_TABLE_NAME_SQL =
+        "SELECT `SCHEMA_NAME`, `TABLE_NAME`, `COLUMN_NAME`, `SHARD_PART`, `ROW_COUNT`, `MODIFY_COUNT`, `NULL_COUNT`, "
+            + "`SAMPLE_RATE`, `QUANTILE_SKETCH`, `FREQUENT_ITEMS`, UNIX_TIMESTAMP(`GMT_MODIFIED`) AS `SAMPLE_TIME` FROM `" + TABLE_NAME + "` WHERE SCHEMA_NAME = ? AND TABLE_NAME = ?";
+
+    private static final String REPLACE_SQL = "REPLACE INTO `" + TABLE_NAME
+        + "` (`SCHEMA_NAME`, `TABLE_NAME`, `COLUMN_NAME`, `SHARD_PART`, `ROW_COUNT`, `MODIFY_COUNT`, `NULL_COUNT`, "
+        + "`SAMPLE_RATE`, `QUANTILE_SKETCH`, `FREQUENT_ITEMS`) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String DELETED_BY_TABLENAME_SQL = "DELETE FROM `" + TABLE_NAME + "` WHERE SCHEMA_NAME = ? AND "
+        + "TABLE_NAME = ? ";
+
+    private static PolarDbXSystemTableColumnShardSketch instance = new PolarDbXSystemTableColumnShardSketch();
+
+    private volatile boolean tableCreated = false;
+
+    public static PolarDbXSystemTableColumnShardSketch getInstance() {
+        return instance;
+    }
+
+    /**
+     * Created lazily before the first access, since the table is only used by incremental analyze
+     */
+    public void createTableIfNotExist() {
+        if (tableCreated || !ConfigDataMode.isMasterMode()) {
+            return;
+        }
+        Connection conn = null;
+        PreparedStatement ps = null;
+        try {
+            conn = getConnection();
+            ps = conn.prepareStatement(CREATE_TABLE_IF_NOT_EXIST_SQL);
+            ps.executeUpdate();
+            tableCreated = true;
+        } catch (Exception e) {
+            logger.error("create " + TABLE_NAME + " if not exist error", e);
+        } finally {
+            JdbcUtils.close(ps);
+            JdbcUtils.close(conn);
+        }
+    }
+
+    public List<ShardSketchRow> loadByTableName(String schemaName, String tableName) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        List<ShardSketchRow> rows = Lists.newArrayList();
+        createTableIfNotExist();
+        try {
+            conn = getConnection();
+            ps = conn.prepareStatement(LOAD_BY_TABLE_NAME_SQL);
+            ps.setString(1, schemaName.toLowerCase());
+            ps.setString(2, tableName.toLowerCase());
+            rs = ps.executeQuery();
+
+            while (rs.next()) {
+                try {
+                    rows.add(new ShardSketchRow(
+                        rs.getString("SCHEMA_NAME"),
+                        rs.getString("TABLE_NAME"),
+                        rs.getString("COLUMN_NAME"),
+                        rs.getString("SHARD_PART"),
+                        rs.getLong("ROW_COUNT"),
+                        rs.getLong("MODIFY_COUNT"),
+                        rs.getLong("NULL_COUNT"),
+                        rs.getDouble("SAMPLE_RATE"),
+                        rs.getString("QUANTILE_SKETCH"),
+                        rs.getString("FREQUENT_ITEMS"),
+                        rs.getLong("SAMPLE_TIME")));
+                } catch (Exception e) {
+                    logger.error("parse row of " + TABLE_NAME + " error", e);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("select " + TABLE_NAME + " error", e);
+        } finally {
+            JdbcUtils.close(rs);
+            JdbcUtils.close(ps);
+            JdbcUtils.close(conn);
+        }
+        return rows;
+    }
+
+    public void batchReplace(List<ShardSketchRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        createTableIfNotExist();
+        Connection conn = null;
+        PreparedStatement ps = null;
+        try {
+            conn = getConnection();
+            ps = conn.prepareStatement(REPLACE_SQL);
+            for (ShardSketchRow row : rows) {
+                ps.setString(1, row.getSchemaName().toLowerCase());
+                ps.setString(2, row.getTableName().toLowerCase());
+                ps.setString(3, row.getColumnName().toLowerCase());
+                ps.setString(4, row.getShardPart());
+                ps.setLong(5, row.getRowCount());
+                ps.setLong(6, row.getModifyCount());
+                ps.setLong(7, row.getNullCount());
+                ps.setDouble(8, row.getSampleRate());
+                ps.setString(9, row.getQuantileSketch());
+                ps.setString(10, row.getFrequentItems());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (Exception e) {
+            logger.error("replace " + TABLE_NAME + " error", e);
+        } finally {
+            JdbcUtils.close(ps);
+            JdbcUtils.close(conn);
+        }
+    }
+
+    public void deleteByTableName(String schemaName, String tableName) {
+        if (!ConfigDataMode.isMasterMode()) {
+            return;
+        }
+        Connection conn = null;
+        PreparedStatement ps = null;
+        try {
+            conn = getConnection();
+            ps = conn.prepareStatement(DELETED_BY_TABLENAME_SQL);
+            ps.setString(1, schemaName.toLowerCase());
+            ps.setString(2, tableName.toLowerCase());
+            ps.executeUpdate();
+        } catch (Exception e) {
+            logger.error("delete " + TABLE_NAME + " error, sql = " + DELETED_BY_TABLENAME_SQL, e);
+        } finally {
+            JdbcUtils.close(ps);
+            JdbcUtils.close(conn);
+        }
+    }
+
+    protected Connection getConnection() throws SQLException {
+        return MetaDbDataSource.getInstance().getDataSource().getConnection();
+    }
+
+    public static class ShardSketchRow {
+        private final String schemaName;
+        private final String tableName;
+        private final String columnName;
+
+        /**
+         * physical node:physical table name
+         */
+        private final String shardPart;
+
+        /**
+         * row count of the physical table when sampled
+         */
+        private final long rowCount;
+
+        /**
+         * modify count of the physical table when sampled
+         */
+        private final long modifyCount;
+        private final long nullCount;
+        private final double sampleRate;
+        private final String quantileSketch;
+        private final String frequentItems;
+
+        /**
+         * unix timestamp in seconds
+         */
+        private final long sampleTime;
+
+        public ShardSketchRow(String schemaName, String tableName, String columnName, String shardPart,
+                              long rowCount, long modifyCount, long nullCount, double sampleRate,
+                              String quantileSketch, String frequentItems, long sampleTime) {
+            this.schemaName = schemaName;
+            this.tableName = tableName;
+            this.columnName = columnName;
+            this.shardPart = shardPart;
+            this.rowCount = rowCount;
+            this.modifyCount = modifyCount;
+            this.nullCount = nullCount;
+            this.sampleRate = sampleRate;
+            this.quantileSketch = quantileSketch;
+            this.frequentItems = frequentItems;
+            this.sampleTime = sampleTime;
+        }
+
+        public String getSchemaName() {
+            return schemaName;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+
+        public String getColumnName() {
+            return columnName;
+        }
+
+        public String getShardPart() {
+            return shardPart;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public long getModifyCount() {
+            return modifyCount;
+        }
+
+        public long getNullCount() {
+            return nullCount;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public String getQuantileSketch() {
+            return quantileSketch;
+        }
+
+        public String getFrequentItems() {
+            return frequentItems;
+        }
+
+        public long getSampleTime() {
+            return sampleTime;
+        }
+    }
+}
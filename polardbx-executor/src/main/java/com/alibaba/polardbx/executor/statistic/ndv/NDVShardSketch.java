@@ -27,6 +27,7 @@ import com.alibaba.polardbx.executor.sync.UpdateStatisticSyncAction;
 import com.alibaba.polardbx.optimizer.OptimizerContext;
 import com.alibaba.polardbx.optimizer.config.table.GlobalIndexMeta;
 import com.alibaba.polardbx.optimizer.config.table.TableMeta;
+import com.alibaba.polardbx.optimizer.config.table.statistic.HyperLogLogUtil;
 import com.alibaba.polardbx.optimizer.config.table.statistic.StatisticUtils;
 import com.alibaba.polardbx.optimizer.config.table.statistic.inf.SystemTableNDVSketchStatistic;
 import com.alibaba.polardbx.optimizer.utils.MetaUtils;
@@ -45,8 +46,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import static com.alibaba.polardbx.executor.statistic.ndv.HyperLogLogUtil.buildSketchKey;
-import static com.alibaba.polardbx.executor.statistic.ndv.HyperLogLogUtil.estimate;
+import static com.alibaba.polardbx.optimizer.config.table.statistic.HyperLogLogUtil.buildSketchKey;
+import static com.alibaba.polardbx.optimizer.config.table.statistic.HyperLogLogUtil.estimate;
 import static com.alibaba.polardbx.optimizer.OptimizerContext.getContext;
 
 public class NDVShardSketch {
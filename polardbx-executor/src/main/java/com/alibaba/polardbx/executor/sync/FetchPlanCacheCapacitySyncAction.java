@@ -22,6 +22,7 @@ import com.alibaba.polardbx.executor.cursor.impl.ArrayResultCursor;
 import com.alibaba.polardbx.optimizer.OptimizerContext;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
 import com.alibaba.polardbx.optimizer.core.planner.PlanCache;
+import com.google.common.cache.CacheStats;
 
 public class FetchPlanCacheCapacitySyncAction implements ISyncAction {
 
@@ -48,18 +49,29 @@ public class FetchPlanCacheCapacitySyncAction implements ISyncAction {
 
     @Override
     public ResultCursor sync() {
-        PlanCache.CapacityInfo capacityInfo =
-            OptimizerContext.getContext(schemaName).getPlanManager().getPlanCache().getCurrentCapacityInfo();
+        PlanCache planCache = OptimizerContext.getContext(schemaName).getPlanManager().getPlanCache();
+        PlanCache.CapacityInfo capacityInfo = planCache.getCurrentCapacityInfo();
+        CacheStats stats = planCache.getStats();
 
         ArrayResultCursor result = new ArrayResultCursor("PLAN_CACHE");
         result.addColumn("COMPUTE_NODE", DataTypes.StringType);
         result.addColumn("CACHE_KEY_CNT", DataTypes.LongType);
         result.addColumn("CAPACITY", DataTypes.LongType);
+        result.addColumn("CACHE_WEIGHT", DataTypes.LongType);
+        result.addColumn("HIT_COUNT", DataTypes.LongType);
+        result.addColumn("MISS_COUNT", DataTypes.LongType);
+        result.addColumn("EVICTION_COUNT", DataTypes.LongType);
+        result.addColumn("REJECT_COUNT", DataTypes.LongType);
 
         result.addRow(new Object[] {
             TddlNode.getHost() + ":" + TddlNode.getPort(),
             capacityInfo.getKeyCount(),
-            capacityInfo.getCapacity()
+            capacityInfo.getCapacity(),
+            planCache.getWeightedSize(),
+            stats.hitCount(),
+            stats.missCount(),
+            stats.evictionCount(),
+            planCache.getRejectCount()
         });
 
         return result;
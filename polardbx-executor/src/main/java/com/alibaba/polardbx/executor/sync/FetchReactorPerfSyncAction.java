@@ -44,7 +44,8 @@ public class FetchReactorPerfSyncAction implements ISyncAction {
                 serverInfo, item.getName(),
                 item.getSocketCount(),
                 item.getEventLoopCount(), item.getRegisterCount(), item.getReadCount(), item.getWriteCount(),
-                item.getBufferSize(), item.getBufferChunkSize(), item.getPooledBufferCount()
+                item.getBufferSize(), item.getBufferChunkSize(), item.getPooledBufferCount(),
+                item.getBufferHitCount(), item.getBufferMissCount(), item.getBufferOverflowCount()
             });
         }
 
@@ -67,6 +68,9 @@ public class FetchReactorPerfSyncAction implements ISyncAction {
         resultCursor.addColumn("BUFFER_SIZE", DataTypes.LongType);
         resultCursor.addColumn("BUFFER_CHUNK_SIZE", DataTypes.LongType);
         resultCursor.addColumn("POOLED_BUFFER_COUNT", DataTypes.LongType);
+        resultCursor.addColumn("BUFFER_HIT", DataTypes.LongType);
+        resultCursor.addColumn("BUFFER_MISS", DataTypes.LongType);
+        resultCursor.addColumn("BUFFER_OVERFLOW", DataTypes.LongType);
 
         resultCursor.initMeta();
 
@@ -0,0 +1,78 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.sync;
+
+import com.alibaba.polardbx.common.TddlNode;
+import com.alibaba.polardbx.common.utils.TStringUtil;
+import com.alibaba.polardbx.executor.cursor.ResultCursor;
+import com.alibaba.polardbx.executor.cursor.impl.ArrayResultCursor;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.planner.ResultCache;
+
+import java.util.Map;
+
+public class FetchResultCacheSyncAction implements ISyncAction {
+
+    private String schemaName = null;
+
+    public FetchResultCacheSyncAction() {
+    }
+
+    public FetchResultCacheSyncAction(String schemaName) {
+        this.schemaName = schemaName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public void setSchemaName(String schemaName) {
+        this.schemaName = schemaName;
+    }
+
+    @Override
+    public ResultCursor sync() {
+        ArrayResultCursor result = new ArrayResultCursor("RESULT_CACHE");
+        result.addColumn("COMPUTE_NODE", DataTypes.StringType);
+        result.addColumn("TABLE_NAMES", DataTypes.StringType);
+        result.addColumn("ID", DataTypes.StringType);
+        result.addColumn("HIT_COUNT", DataTypes.LongType);
+        result.addColumn("ROW_COUNT", DataTypes.LongType);
+        result.addColumn("SIZE_IN_BYTES", DataTypes.LongType);
+        result.addColumn("SQL", DataTypes.StringType);
+
+        for (Map.Entry<ResultCache.CacheKey, ResultCache.Entry> entry : ResultCache.getInstance().getEntries()
+            .entrySet()) {
+            ResultCache.CacheKey cacheKey = entry.getKey();
+            if (!schemaName.equalsIgnoreCase(cacheKey.getSchemaName())) {
+                continue;
+            }
+            ResultCache.Entry value = entry.getValue();
+            result.addRow(new Object[] {
+                TddlNode.getHost() + ":" + TddlNode.getPort(),
+                String.join(",", cacheKey.getTables()),
+                TStringUtil.int2FixedLenHexStr(cacheKey.getParameterizedSql().hashCode()),
+                value.getHitCount(),
+                value.getRowCount(),
+                value.getSizeInBytes(),
+                cacheKey.getParameterizedSql()
+            });
+        }
+
+        return result;
+    }
+}
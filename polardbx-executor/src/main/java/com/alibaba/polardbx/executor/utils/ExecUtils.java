@@ -1227,6 +1227,13 @@ public class ExecUtils {
         return MetricLevel.isOperatorMetricEnabled(context.getParamManager().getInt(ConnectionParams.MPP_METRIC_LEVEL));
     }
 
+    public static boolean isOperatorProfileEnabled(ExecutionContext context) {
+        if (context == null) {
+            return false;
+        }
+        return MetricLevel.isOperatorProfileEnabled(context.getParamManager().getInt(ConnectionParams.MPP_METRIC_LEVEL));
+    }
+
     public static void getLsn(
         TopologyHandler topologyHandler, String group, Map<String, Long> lsnMap)
         throws SQLException {
@@ -16,13 +16,26 @@
 
 package com.alibaba.polardbx.executor.vectorized;
 
+import com.alibaba.polardbx.common.utils.time.core.MysqlDateTime;
+import com.alibaba.polardbx.common.utils.time.core.TimeStorage;
+import com.alibaba.polardbx.common.utils.time.parser.TimeParserFlags;
+import com.alibaba.polardbx.optimizer.chunk.DateBlock;
 import com.alibaba.polardbx.optimizer.chunk.LongBlock;
 import com.alibaba.polardbx.optimizer.chunk.MutableChunk;
 import com.alibaba.polardbx.optimizer.chunk.RandomAccessBlock;
+import com.alibaba.polardbx.optimizer.chunk.SliceBlock;
+import com.alibaba.polardbx.optimizer.chunk.TimestampBlock;
 import com.alibaba.polardbx.optimizer.context.EvaluationContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypeUtil;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
 import com.google.common.base.Preconditions;
+import io.airlift.slice.Slice;
 import org.apache.commons.lang.StringUtils;
 
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+
 public class VectorizedExpressionUtils {
     /**
      * propagate the null-value state to output vector's
@@ -164,6 +177,44 @@ public class VectorizedExpressionUtils {
         }
     }
 
+    /**
+     * Get the utf-8 encoded value at the given position of a string vector.
+     * For slice block, the returned slice shares the memory of the block instead of copying it,
+     * so it must not be kept beyond the evaluation of current batch.
+     */
+    public static Slice sliceAt(RandomAccessBlock block, int position) {
+        if (block instanceof SliceBlock) {
+            return ((SliceBlock) block).getRegion(position);
+        }
+        Object value = block.elementAt(position);
+        if (value == null || value instanceof Slice) {
+            return (Slice) value;
+        }
+        return DataTypes.VarcharType.convertFrom(value);
+    }
+
+    /**
+     * Get the packed datetime value (see {@link TimeStorage#writeTimestamp}) at the given position of
+     * a datetime / timestamp / date vector. For timestamp block and date block, the packed long is read
+     * directly without creating any time object.
+     */
+    public static long packedDatetimeAt(RandomAccessBlock block, int position) {
+        if (block instanceof TimestampBlock) {
+            return ((TimestampBlock) block).getPackedLong(position);
+        } else if (block instanceof DateBlock) {
+            return ((DateBlock) block).getPackedLong(position);
+        }
+        Object value = block.elementAt(position);
+        if (value instanceof Timestamp) {
+            return TimeStorage.packDatetime((Timestamp) value);
+        } else if (value instanceof Date) {
+            return TimeStorage.packDate((Date) value);
+        }
+        MysqlDateTime t =
+            DataTypeUtil.toMySQLDatetimeByFlags(value, Types.TIMESTAMP, TimeParserFlags.FLAG_TIME_FUZZY_DATE);
+        return t == null ? 0L : TimeStorage.writeTimestamp(t);
+    }
+
     public static void setNulls(MutableChunk batch, int outputIndex) {
         RandomAccessBlock outputVector = batch.slotIn(outputIndex);
         outputVector.setHasNull(true);
@@ -16,6 +16,7 @@
 
 package com.alibaba.polardbx.executor.vectorized.build;
 
+import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rex.RexCall;
 import org.apache.calcite.rex.RexDynamicParam;
 import org.apache.calcite.rex.RexFieldAccess;
@@ -24,15 +25,19 @@ import org.apache.calcite.rex.RexLiteral;
 import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.rex.RexSubQuery;
 import org.apache.calcite.rex.RexVisitorImpl;
+import org.apache.calcite.sql.SqlKind;
 import org.apache.calcite.sql.fun.SqlRuntimeFilterBuildFunction;
 import org.apache.calcite.sql.fun.SqlRuntimeFilterFunction;
+import org.apache.calcite.sql.type.SqlTypeName;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Used to check whether a rex node can be converted to vectorized expression
  * Currently rex can't be converted when it meets any of following rules:
  * 1. Contains subquery
+ * 2. Contains struct type, except for the constant string list of IN / NOT IN
  */
 public class Rex2VectorizedExpressionChecker extends RexVisitorImpl<Boolean> {
     private static final Rex2VectorizedExpressionChecker SINGLETON = new Rex2VectorizedExpressionChecker();
@@ -72,6 +77,9 @@ public class Rex2VectorizedExpressionChecker extends RexVisitorImpl<Boolean> {
 
     @Override
     public Boolean visitCall(RexCall call) {
+        if (isConstStringInList(call)) {
+            return Optional.ofNullable(call.getOperands().get(0).accept(this)).orElse(false);
+        }
         return !call.getType().isStruct() &&
             !(call.getOperator() instanceof SqlRuntimeFilterBuildFunction) &&
             !(call.getOperator() instanceof SqlRuntimeFilterFunction) &&
@@ -81,6 +89,39 @@ public class Rex2VectorizedExpressionChecker extends RexVisitorImpl<Boolean> {
                 .allMatch(p -> Optional.ofNullable(p).orElse(false));
     }
 
+    /**
+     * IN / NOT IN between string expression and a row of string constants, which
+     * can be evaluated by the vectorized hash-set implementation.
+     */
+    public static boolean isConstStringInList(RexCall call) {
+        if ((call.getKind() != SqlKind.IN && call.getKind() != SqlKind.NOT_IN) || call.getOperands().size() != 2) {
+            return false;
+        }
+        RexNode left = call.getOperands().get(0);
+        RexNode right = call.getOperands().get(1);
+        if (left.getType().isStruct() || !isStringType(left.getType())
+            || !(right instanceof RexCall) || !right.getType().isStruct()) {
+            return false;
+        }
+        List<RexNode> values = ((RexCall) right).getOperands();
+        if (values.isEmpty()) {
+            return false;
+        }
+        SqlTypeName typeName = values.get(0).getType().getSqlTypeName();
+        for (RexNode value : values) {
+            boolean isConst = value instanceof RexLiteral
+                || (value instanceof RexDynamicParam && ((RexDynamicParam) value).getIndex() >= 0);
+            if (!isConst || value.getType().getSqlTypeName() != typeName || !isStringType(value.getType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isStringType(RelDataType type) {
+        return type.getSqlTypeName() == SqlTypeName.CHAR || type.getSqlTypeName() == SqlTypeName.VARCHAR;
+    }
+
     @Override
     public Boolean visitLiteral(RexLiteral literal) {
         return !literal.getType().isStruct();
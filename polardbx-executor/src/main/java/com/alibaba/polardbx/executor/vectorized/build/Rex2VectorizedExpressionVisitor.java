@@ -447,7 +447,7 @@ public class Rex2VectorizedExpressionVisitor extends RexVisitorImpl<VectorizedEx
             }
 
             VectorizedExpression[] children =
-                call.getOperands().stream().map(node -> node.accept(this)).toArray(VectorizedExpression[]::new);
+                flattenOperands(call).stream().map(node -> node.accept(this)).toArray(VectorizedExpression[]::new);
 
             try {
                 VectorizedExpression vecExpr = constructor.get().build(dataType, outputIndex, children);
@@ -466,6 +466,20 @@ public class Rex2VectorizedExpressionVisitor extends RexVisitorImpl<VectorizedEx
         }
     }
 
+    /**
+     * Flatten the constant list of IN / NOT IN, so that the constants are bound to the children
+     * of vectorized expression directly.
+     */
+    private static List<RexNode> flattenOperands(RexCall call) {
+        if (Rex2VectorizedExpressionChecker.isConstStringInList(call)) {
+            List<RexNode> operands = new ArrayList<>();
+            operands.add(call.getOperands().get(0));
+            operands.addAll(((RexCall) call.getOperands().get(1)).getOperands());
+            return operands;
+        }
+        return call.getOperands();
+    }
+
     private DataType getOutputDataType(RexCall call) {
         RelDataType relDataType = call.getType();
         if ((call.op == TddlOperatorTable.CONVERT || call.op == TddlOperatorTable.CAST)
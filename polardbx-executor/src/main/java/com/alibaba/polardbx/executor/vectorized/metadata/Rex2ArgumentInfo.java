@@ -30,7 +30,7 @@ import org.apache.calcite.rex.RexLiteral;
 import org.apache.calcite.rex.RexNode;
 import org.apache.calcite.rex.RexVisitorImpl;
 
-import java.util.Set;
+import java.util.List;
 import java.util.stream.Collectors;
 
 public class Rex2ArgumentInfo extends RexVisitorImpl<ArgumentInfo> {
@@ -52,17 +52,19 @@ public class Rex2ArgumentInfo extends RexVisitorImpl<ArgumentInfo> {
 
     private static DataType<?> convertStructDataType(RelDataType relDataType) {
         Preconditions.checkArgument(relDataType.isStruct());
-        Set<DataType<?>> dataTypes = relDataType.getFieldList().stream()
+        List<DataType<?>> dataTypes = relDataType.getFieldList().stream()
             .map(RelDataTypeField::getType)
             .map(DataTypeUtil::calciteToDrdsType)
             .map(t -> (DataType<?>) t)
-            .collect(Collectors.toSet());
+            .collect(Collectors.toList());
 
-        if (dataTypes.size() > 1) {
+        // Slice types are not singletons, so compare them by class rather than by reference.
+        DataType<?> first = dataTypes.get(0);
+        if (!dataTypes.stream().allMatch(t -> DataTypeUtil.equalsSemantically(t, first))) {
             throw new IllegalArgumentException("Converting " + relDataType + " to argument info is not supported yet!");
         }
 
-        return dataTypes.iterator().next();
+        return first;
     }
 
     @Override
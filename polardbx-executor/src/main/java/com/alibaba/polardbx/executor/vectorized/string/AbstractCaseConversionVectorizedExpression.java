@@ -0,0 +1,90 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpressionUtils;
+import com.alibaba.polardbx.optimizer.chunk.MutableChunk;
+import com.alibaba.polardbx.optimizer.chunk.RandomAccessBlock;
+import com.alibaba.polardbx.optimizer.chunk.ReferenceBlock;
+import com.alibaba.polardbx.optimizer.context.EvaluationContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+
+/**
+ * LOWER / UPPER of string column.
+ * Ascii strings are converted byte by byte, others are converted through java string.
+ */
+public abstract class AbstractCaseConversionVectorizedExpression extends AbstractStringVectorizedExpression {
+    private final boolean toUpper;
+
+    public AbstractCaseConversionVectorizedExpression(DataType<?> outputDataType, int outputIndex,
+                                                      VectorizedExpression[] children, boolean toUpper) {
+        super(outputDataType, outputIndex, children);
+        this.toUpper = toUpper;
+    }
+
+    @Override
+    public void eval(EvaluationContext ctx) {
+        super.evalChildren(ctx);
+
+        MutableChunk chunk = ctx.getPreAllocatedChunk();
+        int batchSize = chunk.batchSize();
+        boolean isSelectionInUse = chunk.isSelectionInUse();
+        int[] sel = chunk.selection();
+
+        RandomAccessBlock outputVectorSlot = chunk.slotIn(outputIndex, outputDataType);
+        RandomAccessBlock inputVectorSlot = chunk.slotIn(children[0].getOutputIndex(), children[0].getOutputDataType());
+
+        Object[] output = ((ReferenceBlock) outputVectorSlot).objectArray();
+        boolean[] outputNulls = outputVectorSlot.nulls();
+
+        VectorizedExpressionUtils.mergeNulls(chunk, outputIndex, children[0].getOutputIndex());
+        outputVectorSlot.setHasNull(inputVectorSlot.hasNull());
+
+        if (isSelectionInUse) {
+            for (int i = 0; i < batchSize; i++) {
+                int j = sel[i];
+                output[j] = outputNulls[j] ? null : convert(VectorizedExpressionUtils.sliceAt(inputVectorSlot, j));
+            }
+        } else {
+            for (int i = 0; i < batchSize; i++) {
+                output[i] = outputNulls[i] ? null : convert(VectorizedExpressionUtils.sliceAt(inputVectorSlot, i));
+            }
+        }
+    }
+
+    private Slice convert(Slice value) {
+        final int length = value.length();
+        byte[] result = new byte[length];
+        for (int i = 0; i < length; i++) {
+            byte b = value.getByte(i);
+            if (b < 0) {
+                // non-ascii string
+                String str = value.toStringUtf8();
+                return Slices.utf8Slice(toUpper ? str.toUpperCase() : str.toLowerCase());
+            }
+            if (toUpper) {
+                result[i] = b >= 'a' && b <= 'z' ? (byte) (b - ('a' - 'A')) : b;
+            } else {
+                result[i] = b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+            }
+        }
+        return Slices.wrappedBuffer(result);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpressionUtils;
+import com.alibaba.polardbx.optimizer.chunk.MutableChunk;
+import com.alibaba.polardbx.optimizer.chunk.RandomAccessBlock;
+import com.alibaba.polardbx.optimizer.chunk.ReferenceBlock;
+import com.alibaba.polardbx.optimizer.context.EvaluationContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+
+/**
+ * CONCAT of two strings, either of which may be constant.
+ * The result is null if any of the arguments is null.
+ */
+public abstract class AbstractConcatVectorizedExpression extends AbstractStringVectorizedExpression {
+    private final boolean isNullResult;
+    private final Slice leftConst;
+    private final Slice rightConst;
+
+    public AbstractConcatVectorizedExpression(DataType<?> outputDataType, int outputIndex,
+                                              VectorizedExpression[] children) {
+        super(outputDataType, outputIndex, children);
+
+        this.leftConst = isConst(children[0]) ? (Slice) constValueOf(children[0]) : null;
+        this.rightConst = isConst(children[1]) ? (Slice) constValueOf(children[1]) : null;
+        this.isNullResult = (isConst(children[0]) && leftConst == null)
+            || (isConst(children[1]) && rightConst == null);
+    }
+
+    @Override
+    public void eval(EvaluationContext ctx) {
+        MutableChunk chunk = ctx.getPreAllocatedChunk();
+        int batchSize = chunk.batchSize();
+        boolean isSelectionInUse = chunk.isSelectionInUse();
+        int[] sel = chunk.selection();
+
+        if (isNullResult) {
+            VectorizedExpressionUtils.setNulls(chunk, outputIndex);
+            return;
+        }
+
+        RandomAccessBlock outputVectorSlot = chunk.slotIn(outputIndex, outputDataType);
+        RandomAccessBlock leftInputVectorSlot = null;
+        RandomAccessBlock rightInputVectorSlot = null;
+
+        if (leftConst == null && rightConst == null) {
+            super.evalChildren(ctx);
+            leftInputVectorSlot = chunk.slotIn(children[0].getOutputIndex(), children[0].getOutputDataType());
+            rightInputVectorSlot = chunk.slotIn(children[1].getOutputIndex(), children[1].getOutputDataType());
+            VectorizedExpressionUtils.mergeNulls(chunk, outputIndex,
+                children[0].getOutputIndex(), children[1].getOutputIndex());
+            outputVectorSlot.setHasNull(leftInputVectorSlot.hasNull() || rightInputVectorSlot.hasNull());
+        } else {
+            VectorizedExpression variable = leftConst == null ? children[0] : children[1];
+            variable.eval(ctx);
+            RandomAccessBlock inputVectorSlot = chunk.slotIn(variable.getOutputIndex(), variable.getOutputDataType());
+            if (leftConst == null) {
+                leftInputVectorSlot = inputVectorSlot;
+            } else {
+                rightInputVectorSlot = inputVectorSlot;
+            }
+            VectorizedExpressionUtils.mergeNulls(chunk, outputIndex, variable.getOutputIndex());
+            outputVectorSlot.setHasNull(inputVectorSlot.hasNull());
+        }
+
+        Object[] output = ((ReferenceBlock) outputVectorSlot).objectArray();
+        boolean[] outputNulls = outputVectorSlot.nulls();
+
+        if (isSelectionInUse) {
+            for (int i = 0; i < batchSize; i++) {
+                int j = sel[i];
+                output[j] = outputNulls[j] ? null : concat(leftInputVectorSlot, rightInputVectorSlot, j);
+            }
+        } else {
+            for (int i = 0; i < batchSize; i++) {
+                output[i] = outputNulls[i] ? null : concat(leftInputVectorSlot, rightInputVectorSlot, i);
+            }
+        }
+    }
+
+    private Slice concat(RandomAccessBlock leftInputVectorSlot, RandomAccessBlock rightInputVectorSlot,
+                         int position) {
+        Slice left = leftConst != null ? leftConst : VectorizedExpressionUtils.sliceAt(leftInputVectorSlot, position);
+        Slice right =
+            rightConst != null ? rightConst : VectorizedExpressionUtils.sliceAt(rightInputVectorSlot, position);
+
+        byte[] result = new byte[left.length() + right.length()];
+        left.getBytes(0, result, 0, left.length());
+        right.getBytes(0, result, left.length(), right.length());
+        return Slices.wrappedBuffer(result);
+    }
+}
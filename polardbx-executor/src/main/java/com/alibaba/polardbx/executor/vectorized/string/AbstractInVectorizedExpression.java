@@ -0,0 +1,107 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpressionUtils;
+import com.alibaba.polardbx.optimizer.chunk.MutableChunk;
+import com.alibaba.polardbx.optimizer.chunk.RandomAccessBlock;
+import com.alibaba.polardbx.optimizer.context.EvaluationContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import io.airlift.slice.Slice;
+
+/**
+ * [NOT] IN between string column and constant string list.
+ * The constants are put into a hash set using the collation of the column, so that each row is
+ * probed once rather than compared with every element of the list.
+ * Follow MySQL behavior: the result is null if no element matches but the list contains null.
+ */
+public abstract class AbstractInVectorizedExpression extends AbstractStringVectorizedExpression {
+    private final boolean isNot;
+    private final SliceHashSet inValues;
+    private final boolean hasNullValue;
+
+    public AbstractInVectorizedExpression(DataType<?> outputDataType, int outputIndex,
+                                          VectorizedExpression[] children, boolean isNot) {
+        super(outputDataType, outputIndex, children);
+        this.isNot = isNot;
+        this.inValues = new SliceHashSet(sliceTypeOf(children[0]), children.length - 1);
+
+        boolean hasNullValue = false;
+        for (int i = 1; i < children.length; i++) {
+            Object value = constValueOf(children[i]);
+            if (value == null) {
+                hasNullValue = true;
+            } else {
+                inValues.add((Slice) value);
+            }
+        }
+        this.hasNullValue = hasNullValue;
+    }
+
+    @Override
+    public void eval(EvaluationContext ctx) {
+        children[0].eval(ctx);
+
+        MutableChunk chunk = ctx.getPreAllocatedChunk();
+        int batchSize = chunk.batchSize();
+        boolean isSelectionInUse = chunk.isSelectionInUse();
+        int[] sel = chunk.selection();
+
+        if (inValues.size() == 0) {
+            // all elements are null.
+            VectorizedExpressionUtils.setNulls(chunk, outputIndex);
+            return;
+        }
+
+        RandomAccessBlock outputVectorSlot = chunk.slotIn(outputIndex, outputDataType);
+        RandomAccessBlock inputVectorSlot = chunk.slotIn(children[0].getOutputIndex(), children[0].getOutputDataType());
+
+        IntegerOutput output = new IntegerOutput(outputVectorSlot);
+        boolean[] outputNulls = outputVectorSlot.nulls();
+
+        VectorizedExpressionUtils.mergeNulls(chunk, outputIndex, children[0].getOutputIndex());
+        outputVectorSlot.setHasNull(inputVectorSlot.hasNull() || hasNullValue);
+
+        if (isSelectionInUse) {
+            for (int i = 0; i < batchSize; i++) {
+                int j = sel[i];
+                if (!outputNulls[j]) {
+                    evalRow(inputVectorSlot, j, output, outputNulls);
+                }
+            }
+        } else {
+            for (int i = 0; i < batchSize; i++) {
+                if (!outputNulls[i]) {
+                    evalRow(inputVectorSlot, i, output, outputNulls);
+                }
+            }
+        }
+    }
+
+    private void evalRow(RandomAccessBlock inputVectorSlot, int position, IntegerOutput output,
+                         boolean[] outputNulls) {
+        Slice value = VectorizedExpressionUtils.sliceAt(inputVectorSlot, position);
+        if (inValues.contains(value)) {
+            output.set(position, !isNot);
+        } else if (hasNullValue) {
+            outputNulls[position] = true;
+        } else {
+            output.set(position, isNot);
+        }
+    }
+}
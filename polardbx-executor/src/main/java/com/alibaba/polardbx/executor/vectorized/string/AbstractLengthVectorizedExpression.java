@@ -0,0 +1,86 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpressionUtils;
+import com.alibaba.polardbx.optimizer.chunk.MutableChunk;
+import com.alibaba.polardbx.optimizer.chunk.RandomAccessBlock;
+import com.alibaba.polardbx.optimizer.context.EvaluationContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.SliceType;
+import io.airlift.slice.Slice;
+
+/**
+ * LENGTH (in bytes of the column charset) / CHAR_LENGTH (in characters) of string column.
+ */
+public abstract class AbstractLengthVectorizedExpression extends AbstractStringVectorizedExpression {
+    private final boolean inCharacters;
+    private final SliceType sliceType;
+
+    public AbstractLengthVectorizedExpression(DataType<?> outputDataType, int outputIndex,
+                                              VectorizedExpression[] children, boolean inCharacters) {
+        super(outputDataType, outputIndex, children);
+        this.inCharacters = inCharacters;
+        this.sliceType = sliceTypeOf(children[0]);
+    }
+
+    @Override
+    public void eval(EvaluationContext ctx) {
+        super.evalChildren(ctx);
+
+        MutableChunk chunk = ctx.getPreAllocatedChunk();
+        int batchSize = chunk.batchSize();
+        boolean isSelectionInUse = chunk.isSelectionInUse();
+        int[] sel = chunk.selection();
+
+        RandomAccessBlock outputVectorSlot = chunk.slotIn(outputIndex, outputDataType);
+        RandomAccessBlock inputVectorSlot = chunk.slotIn(children[0].getOutputIndex(), children[0].getOutputDataType());
+
+        IntegerOutput output = new IntegerOutput(outputVectorSlot);
+        boolean[] outputNulls = outputVectorSlot.nulls();
+
+        VectorizedExpressionUtils.mergeNulls(chunk, outputIndex, children[0].getOutputIndex());
+        outputVectorSlot.setHasNull(inputVectorSlot.hasNull());
+
+        if (isSelectionInUse) {
+            for (int i = 0; i < batchSize; i++) {
+                int j = sel[i];
+                if (!outputNulls[j]) {
+                    output.set(j, length(VectorizedExpressionUtils.sliceAt(inputVectorSlot, j)));
+                }
+            }
+        } else {
+            for (int i = 0; i < batchSize; i++) {
+                if (!outputNulls[i]) {
+                    output.set(i, length(VectorizedExpressionUtils.sliceAt(inputVectorSlot, i)));
+                }
+            }
+        }
+    }
+
+    private long length(Slice value) {
+        if (inCharacters || sliceType.isLatin1Encoding()) {
+            // the byte length of single byte charset equals to the character length
+            return utf8Length(value);
+        }
+        if (sliceType.isUtf8Encoding()) {
+            return value.length();
+        }
+        return sliceType.getCharsetHandler().encodeFromUtf8(value).length();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpressionUtils;
+import com.alibaba.polardbx.optimizer.chunk.MutableChunk;
+import com.alibaba.polardbx.optimizer.chunk.RandomAccessBlock;
+import com.alibaba.polardbx.optimizer.context.EvaluationContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import io.airlift.slice.Slice;
+
+/**
+ * [NOT] LIKE between string column and constant pattern, using the default escape character.
+ * The matching follows the row-based LIKE, which is ascii case-insensitive for any collation.
+ */
+public abstract class AbstractLikeVectorizedExpression extends AbstractStringVectorizedExpression {
+    private final boolean isNot;
+
+    /**
+     * Null if the pattern is null.
+     */
+    private final LikeMatcher matcher;
+
+    public AbstractLikeVectorizedExpression(DataType<?> outputDataType, int outputIndex,
+                                            VectorizedExpression[] children, boolean isNot) {
+        super(outputDataType, outputIndex, children);
+        this.isNot = isNot;
+
+        Object pattern = constValueOf(children[1]);
+        this.matcher = pattern == null ? null : LikeMatcher.compile(((Slice) pattern).toStringUtf8());
+    }
+
+    @Override
+    public void eval(EvaluationContext ctx) {
+        children[0].eval(ctx);
+
+        MutableChunk chunk = ctx.getPreAllocatedChunk();
+        int batchSize = chunk.batchSize();
+        boolean isSelectionInUse = chunk.isSelectionInUse();
+        int[] sel = chunk.selection();
+
+        if (matcher == null) {
+            VectorizedExpressionUtils.setNulls(chunk, outputIndex);
+            return;
+        }
+
+        RandomAccessBlock outputVectorSlot = chunk.slotIn(outputIndex, outputDataType);
+        RandomAccessBlock inputVectorSlot = chunk.slotIn(children[0].getOutputIndex(), children[0].getOutputDataType());
+
+        IntegerOutput output = new IntegerOutput(outputVectorSlot);
+        boolean[] outputNulls = outputVectorSlot.nulls();
+
+        VectorizedExpressionUtils.mergeNulls(chunk, outputIndex, children[0].getOutputIndex());
+        outputVectorSlot.setHasNull(inputVectorSlot.hasNull());
+
+        if (isSelectionInUse) {
+            for (int i = 0; i < batchSize; i++) {
+                int j = sel[i];
+                if (!outputNulls[j]) {
+                    Slice value = VectorizedExpressionUtils.sliceAt(inputVectorSlot, j);
+                    output.set(j, matcher.matches(value) != isNot);
+                }
+            }
+        } else {
+            for (int i = 0; i < batchSize; i++) {
+                if (!outputNulls[i]) {
+                    Slice value = VectorizedExpressionUtils.sliceAt(inputVectorSlot, i);
+                    output.set(i, matcher.matches(value) != isNot);
+                }
+            }
+        }
+    }
+}
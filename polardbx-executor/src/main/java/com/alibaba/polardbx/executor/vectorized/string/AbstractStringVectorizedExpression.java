@@ -0,0 +1,128 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import com.alibaba.polardbx.executor.vectorized.AbstractVectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.LiteralVectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.optimizer.chunk.IntegerBlock;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
+import com.alibaba.polardbx.optimizer.chunk.RandomAccessBlock;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.datatype.SliceType;
+import io.airlift.slice.Slice;
+
+/**
+ * Common utilities of vectorized string expressions.
+ * All string values in vectors are utf-8 encoded slices, no matter what the charset of the column is.
+ */
+public abstract class AbstractStringVectorizedExpression extends AbstractVectorizedExpression {
+    public AbstractStringVectorizedExpression(DataType<?> outputDataType, int outputIndex,
+                                              VectorizedExpression[] children) {
+        super(outputDataType, outputIndex, children);
+    }
+
+    protected static boolean isConst(VectorizedExpression expression) {
+        return expression instanceof LiteralVectorizedExpression;
+    }
+
+    protected static Object constValueOf(VectorizedExpression expression) {
+        return ((LiteralVectorizedExpression) expression).getConvertedValue();
+    }
+
+    /**
+     * Get the slice type (with charset and collation) of the child expression.
+     */
+    protected static SliceType sliceTypeOf(VectorizedExpression expression) {
+        DataType<?> dataType = expression.getOutputDataType();
+        return dataType instanceof SliceType ? (SliceType) dataType : (SliceType) DataTypes.VarcharType;
+    }
+
+    protected static boolean isAscii(Slice slice) {
+        final int length = slice.length();
+        for (int i = 0; i < length; i++) {
+            if (slice.getByte(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Count the characters of utf-8 encoded slice.
+     */
+    protected static int utf8Length(Slice slice) {
+        final int length = slice.length();
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            // skip the continuation bytes 10xxxxxx
+            if ((slice.getByte(i) & 0xC0) != 0x80) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the byte offset of the given character position of utf-8 encoded slice.
+     */
+    protected static int utf8Offset(Slice slice, int charPosition) {
+        final int length = slice.length();
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            if ((slice.getByte(i) & 0xC0) != 0x80) {
+                if (count == charPosition) {
+                    return i;
+                }
+                count++;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Integer output vector which may be backed by integer block or long block,
+     * depending on the return type of the rex call.
+     */
+    protected static final class IntegerOutput {
+        private final int[] ints;
+        private final long[] longs;
+
+        IntegerOutput(RandomAccessBlock outputSlot) {
+            if (outputSlot instanceof IntegerBlock) {
+                this.ints = ((IntegerBlock) outputSlot).intArray();
+                this.longs = null;
+            } else {
+                this.ints = null;
+                this.longs = ((LongBlock) outputSlot).longArray();
+            }
+        }
+
+        void set(int position, long value) {
+            if (ints != null) {
+                ints[position] = (int) value;
+            } else {
+                longs[position] = value;
+            }
+        }
+
+        void set(int position, boolean value) {
+            set(position, value ? LongBlock.TRUE_VALUE : LongBlock.FALSE_VALUE);
+        }
+    }
+}
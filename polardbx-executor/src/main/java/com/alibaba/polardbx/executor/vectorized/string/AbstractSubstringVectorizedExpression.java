@@ -0,0 +1,102 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpressionUtils;
+import com.alibaba.polardbx.optimizer.chunk.MutableChunk;
+import com.alibaba.polardbx.optimizer.chunk.RandomAccessBlock;
+import com.alibaba.polardbx.optimizer.chunk.ReferenceBlock;
+import com.alibaba.polardbx.optimizer.context.EvaluationContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+
+/**
+ * SUBSTRING(str, pos[, len]) with constant position and length.
+ * Follow MySQL behavior: position is 1-based and counts from the end of string if negative,
+ * and the result is empty if position is 0 or length is less than 1.
+ */
+public abstract class AbstractSubstringVectorizedExpression extends AbstractStringVectorizedExpression {
+    private final boolean isNullResult;
+    private final long position;
+    private final long length;
+
+    public AbstractSubstringVectorizedExpression(DataType<?> outputDataType, int outputIndex,
+                                                 VectorizedExpression[] children) {
+        super(outputDataType, outputIndex, children);
+
+        Object pos = constValueOf(children[1]);
+        Object len = children.length > 2 ? constValueOf(children[2]) : Long.MAX_VALUE;
+        this.isNullResult = pos == null || len == null;
+        this.position = pos == null ? 0 : ((Number) pos).longValue();
+        this.length = len == null ? 0 : ((Number) len).longValue();
+    }
+
+    @Override
+    public void eval(EvaluationContext ctx) {
+        children[0].eval(ctx);
+
+        MutableChunk chunk = ctx.getPreAllocatedChunk();
+        int batchSize = chunk.batchSize();
+        boolean isSelectionInUse = chunk.isSelectionInUse();
+        int[] sel = chunk.selection();
+
+        if (isNullResult) {
+            VectorizedExpressionUtils.setNulls(chunk, outputIndex);
+            return;
+        }
+
+        RandomAccessBlock outputVectorSlot = chunk.slotIn(outputIndex, outputDataType);
+        RandomAccessBlock inputVectorSlot = chunk.slotIn(children[0].getOutputIndex(), children[0].getOutputDataType());
+
+        Object[] output = ((ReferenceBlock) outputVectorSlot).objectArray();
+        boolean[] outputNulls = outputVectorSlot.nulls();
+
+        VectorizedExpressionUtils.mergeNulls(chunk, outputIndex, children[0].getOutputIndex());
+        outputVectorSlot.setHasNull(inputVectorSlot.hasNull());
+
+        if (isSelectionInUse) {
+            for (int i = 0; i < batchSize; i++) {
+                int j = sel[i];
+                output[j] = outputNulls[j] ? null : substring(VectorizedExpressionUtils.sliceAt(inputVectorSlot, j));
+            }
+        } else {
+            for (int i = 0; i < batchSize; i++) {
+                output[i] = outputNulls[i] ? null : substring(VectorizedExpressionUtils.sliceAt(inputVectorSlot, i));
+            }
+        }
+    }
+
+    private Slice substring(Slice value) {
+        if (position == 0 || length <= 0) {
+            return Slices.EMPTY_SLICE;
+        }
+        final boolean isAscii = isAscii(value);
+        final int charLength = isAscii ? value.length() : utf8Length(value);
+
+        long start = position > 0 ? position - 1 : charLength + position;
+        if (start < 0 || start >= charLength) {
+            return Slices.EMPTY_SLICE;
+        }
+        long end = Math.min(charLength, start + Math.min(length, charLength));
+
+        int beginOffset = isAscii ? (int) start : utf8Offset(value, (int) start);
+        int endOffset = isAscii ? (int) end : utf8Offset(value, (int) end);
+        return Slices.copyOf(value, beginOffset, endOffset - beginOffset);
+    }
+}
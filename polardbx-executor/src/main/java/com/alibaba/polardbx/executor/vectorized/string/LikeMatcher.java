@@ -0,0 +1,169 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import com.alibaba.polardbx.common.utils.TStringUtil;
+import io.airlift.slice.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+/**
+ * Matcher of constant LIKE pattern, consistent with the row-based {@code Like}: the pattern is trimmed
+ * and matched ascii case-insensitively regardless of the collation.
+ * The patterns in form of 'abc', 'abc%', '%abc' and '%abc%' are matched on utf-8 bytes directly,
+ * and others fall back to the regular expression.
+ */
+public class LikeMatcher {
+    private static final char ESCAPE = '\\';
+
+    enum Kind {
+        EXACT,
+        PREFIX,
+        SUFFIX,
+        CONTAINS,
+        REGEX
+    }
+
+    private final Kind kind;
+
+    /**
+     * The literal part of pattern in lower-cased utf-8 bytes.
+     */
+    private final byte[] literal;
+
+    private final Pattern regex;
+
+    private LikeMatcher(Kind kind, byte[] literal, Pattern regex) {
+        this.kind = kind;
+        this.literal = literal;
+        this.regex = regex;
+    }
+
+    public static LikeMatcher compile(String pattern) {
+        pattern = TStringUtil.trim(pattern);
+        StringBuilder regexBuilder = new StringBuilder(pattern.length() + 16);
+        StringBuilder literalBuilder = new StringBuilder(pattern.length());
+
+        boolean hasSingleWildcard = false;
+        boolean hasInnerWildcard = false;
+        int leadingWildcards = 0;
+        int trailingWildcards = 0;
+
+        final int length = pattern.length();
+        for (int i = 0; i < length; i++) {
+            char c = pattern.charAt(i);
+            if (c == ESCAPE && i + 1 < length) {
+                c = pattern.charAt(++i);
+            } else if (c == '%') {
+                regexBuilder.append(".*");
+                if (literalBuilder.length() == 0) {
+                    leadingWildcards++;
+                } else {
+                    trailingWildcards++;
+                }
+                continue;
+            } else if (c == '_') {
+                regexBuilder.append('.');
+                hasSingleWildcard = true;
+                continue;
+            }
+
+            if (trailingWildcards > 0) {
+                // literal after wildcard, like 'a%b'
+                hasInnerWildcard = true;
+            }
+            literalBuilder.append(c);
+            regexBuilder.append(Pattern.quote(String.valueOf(c)));
+        }
+
+        // without UNICODE_CASE only ascii letters are case folded, the same as the row-based Like
+        Pattern regex = Pattern.compile(regexBuilder.toString(), Pattern.DOTALL | Pattern.CASE_INSENSITIVE);
+
+        if (hasSingleWildcard || hasInnerWildcard) {
+            return new LikeMatcher(Kind.REGEX, null, regex);
+        }
+
+        Kind kind;
+        if (leadingWildcards == 0 && trailingWildcards == 0) {
+            kind = Kind.EXACT;
+        } else if (leadingWildcards == 0) {
+            kind = Kind.PREFIX;
+        } else if (trailingWildcards == 0) {
+            kind = Kind.SUFFIX;
+        } else {
+            kind = Kind.CONTAINS;
+        }
+        String literal = toLowerAscii(literalBuilder.toString());
+        return new LikeMatcher(kind, literal.getBytes(StandardCharsets.UTF_8), regex);
+    }
+
+    public boolean matches(Slice value) {
+        if (kind == Kind.REGEX) {
+            return regex.matcher(value.toStringUtf8()).matches();
+        }
+
+        final int valueLength = value.length();
+        final int literalLength = literal.length;
+        switch (kind) {
+        case EXACT:
+            return valueLength == literalLength && regionMatches(value, 0);
+        case PREFIX:
+            return valueLength >= literalLength && regionMatches(value, 0);
+        case SUFFIX:
+            return valueLength >= literalLength && regionMatches(value, valueLength - literalLength);
+        case CONTAINS:
+            for (int offset = 0; offset <= valueLength - literalLength; offset++) {
+                if (regionMatches(value, offset)) {
+                    return true;
+                }
+            }
+            return false;
+        default:
+            throw new AssertionError("unreachable");
+        }
+    }
+
+    private boolean regionMatches(Slice value, int offset) {
+        // bytes of multi-byte utf-8 characters are never in ascii range, so they are compared as is
+        final int literalLength = literal.length;
+        for (int i = 0; i < literalLength; i++) {
+            if (toLowerAscii(value.getByte(offset + i)) != literal[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    private static byte toLowerAscii(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    private static String toLowerAscii(String str) {
+        char[] chars = str.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] >= 'A' && chars[i] <= 'Z') {
+                chars[i] = (char) (chars[i] + ('a' - 'A'));
+            }
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import com.alibaba.polardbx.optimizer.core.datatype.SliceType;
+import io.airlift.slice.Slice;
+
+/**
+ * Open addressing hash set of constant strings, hashing and comparing by the collation of given slice type.
+ */
+public class SliceHashSet {
+    private final SliceType sliceType;
+    private final Slice[] keys;
+    private final int[] hashes;
+    private final int mask;
+    private int size;
+
+    public SliceHashSet(SliceType sliceType, int expectedSize) {
+        this.sliceType = sliceType;
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 2) * 2 - 1) << 1;
+        this.keys = new Slice[capacity];
+        this.hashes = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public void add(Slice value) {
+        int hash = sliceType.hashcode(value);
+        int pos = mix(hash) & mask;
+        while (keys[pos] != null) {
+            if (hashes[pos] == hash && sliceType.compare(keys[pos], value) == 0) {
+                return;
+            }
+            pos = (pos + 1) & mask;
+        }
+        keys[pos] = value;
+        hashes[pos] = hash;
+        size++;
+    }
+
+    public boolean contains(Slice value) {
+        int hash = sliceType.hashcode(value);
+        int pos = mix(hash) & mask;
+        while (keys[pos] != null) {
+            if (hashes[pos] == hash && sliceType.compare(keys[pos], value) == 0) {
+                return true;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
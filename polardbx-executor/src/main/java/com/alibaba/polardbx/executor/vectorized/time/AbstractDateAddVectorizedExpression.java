@@ -0,0 +1,150 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.time;
+
+import com.alibaba.polardbx.common.utils.time.MySQLTimeTypeUtil;
+import com.alibaba.polardbx.common.utils.time.calculator.MySQLInterval;
+import com.alibaba.polardbx.common.utils.time.calculator.MySQLIntervalType;
+import com.alibaba.polardbx.common.utils.time.calculator.MySQLTimeCalculator;
+import com.alibaba.polardbx.common.utils.time.core.MysqlDateTime;
+import com.alibaba.polardbx.common.utils.time.core.OriginalDate;
+import com.alibaba.polardbx.common.utils.time.core.OriginalTimestamp;
+import com.alibaba.polardbx.common.utils.time.core.TimeStorage;
+import com.alibaba.polardbx.common.utils.time.parser.StringTimeParser;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpressionUtils;
+import com.alibaba.polardbx.optimizer.chunk.MutableChunk;
+import com.alibaba.polardbx.optimizer.chunk.RandomAccessBlock;
+import com.alibaba.polardbx.optimizer.chunk.ReferenceBlock;
+import com.alibaba.polardbx.optimizer.context.EvaluationContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypeUtil;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+
+/**
+ * DATE_ADD / DATE_SUB of temporal column with constant interval value and unit, whose operands
+ * have been flattened into (time, value, unit).
+ * The interval is parsed only once, and each row is read from the packed long instead of
+ * converting the time object.
+ */
+public abstract class AbstractDateAddVectorizedExpression extends AbstractTemporalVectorizedExpression {
+    private final boolean isDateInput;
+    private final MySQLIntervalType intervalType;
+
+    /**
+     * Null if the interval value or unit is null or invalid.
+     */
+    private final MySQLInterval interval;
+
+    public AbstractDateAddVectorizedExpression(DataType<?> outputDataType, int outputIndex,
+                                               VectorizedExpression[] children, boolean isSub) {
+        super(outputDataType, outputIndex, children);
+        this.isDateInput = DataTypeUtil.equalsSemantically(children[0].getOutputDataType(), DataTypes.DateType);
+
+        Object value = constValueOf(children[1]);
+        Object unit = constValueOf(children[2]);
+        this.intervalType = unit == null ? null : MySQLIntervalType.of(DataTypes.StringType.convertFrom(unit));
+        this.interval = value == null || intervalType == null ? null : parseInterval(value, intervalType, isSub);
+    }
+
+    private static MySQLInterval parseInterval(Object value, MySQLIntervalType intervalType, boolean isSub) {
+        MySQLInterval interval;
+        try {
+            interval = MySQLIntervalType.parseInterval(DataTypes.StringType.convertFrom(value), intervalType);
+        } catch (Throwable t) {
+            // for invalid interval value
+            return null;
+        }
+        if (interval != null && isSub) {
+            interval.setNeg(!interval.isNeg());
+        }
+        return interval;
+    }
+
+    @Override
+    public void eval(EvaluationContext ctx) {
+        children[0].eval(ctx);
+
+        MutableChunk chunk = ctx.getPreAllocatedChunk();
+        int batchSize = chunk.batchSize();
+        boolean isSelectionInUse = chunk.isSelectionInUse();
+        int[] sel = chunk.selection();
+
+        if (interval == null) {
+            VectorizedExpressionUtils.setNulls(chunk, outputIndex);
+            return;
+        }
+
+        RandomAccessBlock outputVectorSlot = chunk.slotIn(outputIndex, outputDataType);
+        RandomAccessBlock inputVectorSlot = chunk.slotIn(children[0].getOutputIndex(), children[0].getOutputDataType());
+
+        Object[] output = ((ReferenceBlock) outputVectorSlot).objectArray();
+        boolean[] outputNulls = outputVectorSlot.nulls();
+
+        VectorizedExpressionUtils.mergeNulls(chunk, outputIndex, children[0].getOutputIndex());
+        // the invalid date and the result out of range are null.
+        outputVectorSlot.setHasNull(true);
+
+        if (isSelectionInUse) {
+            for (int i = 0; i < batchSize; i++) {
+                int j = sel[i];
+                if (!outputNulls[j]) {
+                    output[j] = evalRow(VectorizedExpressionUtils.packedDatetimeAt(inputVectorSlot, j));
+                    outputNulls[j] = output[j] == null;
+                }
+            }
+        } else {
+            for (int i = 0; i < batchSize; i++) {
+                if (!outputNulls[i]) {
+                    output[i] = evalRow(VectorizedExpressionUtils.packedDatetimeAt(inputVectorSlot, i));
+                    outputNulls[i] = output[i] == null;
+                }
+            }
+        }
+    }
+
+    private Object evalRow(long packed) {
+        MysqlDateTime t = isDateInput ? TimeStorage.readDate(packed) : TimeStorage.readTimestamp(packed);
+
+        // date_add_interval cannot handle bad dates
+        boolean invalid = MySQLTimeTypeUtil.isDateInvalid(
+            t,
+            MySQLTimeTypeUtil.notZeroDate(t),
+            true,
+            StringTimeParser.TIME_FUZZY_DATE,
+            StringTimeParser.TIME_INVALID_DATES,
+            true);
+        if (invalid) {
+            return null;
+        }
+
+        MysqlDateTime ret = MySQLTimeCalculator.addInterval(t, intervalType, interval);
+
+        // convert mysql datetime to proper type, the same as the row function.
+        if (ret == null || MySQLTimeTypeUtil.isDatetimeRangeInvalid(ret)) {
+            return null;
+        } else if (DataTypeUtil.anyMatchSemantically(outputDataType, DataTypes.TimestampType, DataTypes.DatetimeType)) {
+            return new OriginalTimestamp(ret);
+        } else if (DataTypeUtil.equalsSemantically(outputDataType, DataTypes.DateType)) {
+            return new OriginalDate(ret);
+        } else if (DataTypeUtil.isStringType(outputDataType)) {
+            return outputDataType.convertFrom(ret.toStringBySqlType());
+        } else {
+            return outputDataType.convertFrom(ret.toDatetimeString(MySQLTimeTypeUtil.MAX_FRACTIONAL_SCALE));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.time;
+
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpressionUtils;
+import com.alibaba.polardbx.optimizer.chunk.MutableChunk;
+import com.alibaba.polardbx.optimizer.chunk.RandomAccessBlock;
+import com.alibaba.polardbx.optimizer.context.EvaluationContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.expression.ExtraFunctionManager;
+import com.alibaba.polardbx.optimizer.core.function.calc.AbstractScalarFunction;
+import io.airlift.slice.Slices;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * DATE_FORMAT(col, format) with constant format.
+ * The format is compiled once and each row is formatted from the packed long. The zero dates and
+ * the formats with unsupported specifiers are evaluated by the row function.
+ */
+public abstract class AbstractDateFormatVectorizedExpression extends AbstractTemporalVectorizedExpression {
+    private final Object format;
+
+    /**
+     * Null if the format is null or contains unsupported specifier.
+     */
+    private final PackedDatetimeFormatter formatter;
+
+    private final AbstractScalarFunction rowFunction;
+    private final Object[] rowArgs = new Object[2];
+
+    private final StringBuilder builder = new StringBuilder();
+
+    public AbstractDateFormatVectorizedExpression(DataType<?> outputDataType, int outputIndex,
+                                                  VectorizedExpression[] children) {
+        super(outputDataType, outputIndex, children);
+        this.format = constValueOf(children[1]);
+        this.formatter =
+            format == null ? null : PackedDatetimeFormatter.compile(DataTypes.StringType.convertFrom(format));
+
+        List<DataType> operandTypes =
+            Arrays.asList(children[0].getOutputDataType(), children[1].getOutputDataType());
+        this.rowFunction = ExtraFunctionManager.getExtraFunction("DATE_FORMAT", operandTypes, outputDataType);
+    }
+
+    @Override
+    public void eval(EvaluationContext ctx) {
+        children[0].eval(ctx);
+
+        MutableChunk chunk = ctx.getPreAllocatedChunk();
+        int batchSize = chunk.batchSize();
+        boolean isSelectionInUse = chunk.isSelectionInUse();
+        int[] sel = chunk.selection();
+
+        if (format == null) {
+            VectorizedExpressionUtils.setNulls(chunk, outputIndex);
+            return;
+        }
+
+        RandomAccessBlock outputVectorSlot = chunk.slotIn(outputIndex, outputDataType);
+        RandomAccessBlock inputVectorSlot = chunk.slotIn(children[0].getOutputIndex(), children[0].getOutputDataType());
+
+        boolean[] inputNulls = inputVectorSlot.nulls();
+
+        if (isSelectionInUse) {
+            for (int i = 0; i < batchSize; i++) {
+                int j = sel[i];
+                outputVectorSlot.setElementAt(j, inputNulls[j] ? null : evalRow(ctx, inputVectorSlot, j));
+            }
+        } else {
+            for (int i = 0; i < batchSize; i++) {
+                outputVectorSlot.setElementAt(i, inputNulls[i] ? null : evalRow(ctx, inputVectorSlot, i));
+            }
+        }
+    }
+
+    private Object evalRow(EvaluationContext ctx, RandomAccessBlock inputVectorSlot, int position) {
+        if (formatter != null) {
+            long packed = VectorizedExpressionUtils.packedDatetimeAt(inputVectorSlot, position);
+            if (!isZeroDate(packed)) {
+                builder.setLength(0);
+                formatter.format(packed, builder);
+                return Slices.utf8Slice(builder.toString());
+            }
+        }
+        rowArgs[0] = inputVectorSlot.elementAt(position);
+        rowArgs[1] = format;
+        Object result = rowFunction.compute(rowArgs, ctx.getExecutionContext());
+        return outputDataType.convertFrom(result);
+    }
+}
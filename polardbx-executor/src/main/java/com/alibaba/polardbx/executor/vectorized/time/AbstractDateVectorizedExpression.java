@@ -0,0 +1,81 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.time;
+
+import com.alibaba.polardbx.common.utils.time.core.MysqlDateTime;
+import com.alibaba.polardbx.common.utils.time.core.TimeStorage;
+import com.alibaba.polardbx.common.utils.timezone.InternalTimeZone;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpressionUtils;
+import com.alibaba.polardbx.optimizer.chunk.MutableChunk;
+import com.alibaba.polardbx.optimizer.chunk.RandomAccessBlock;
+import com.alibaba.polardbx.optimizer.chunk.ReferenceBlock;
+import com.alibaba.polardbx.optimizer.context.EvaluationContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypeUtil;
+
+/**
+ * DATE(col) of temporal column, which truncates the time part of the packed long.
+ */
+public abstract class AbstractDateVectorizedExpression extends AbstractTemporalVectorizedExpression {
+    public AbstractDateVectorizedExpression(DataType<?> outputDataType, int outputIndex,
+                                            VectorizedExpression[] children) {
+        super(outputDataType, outputIndex, children);
+    }
+
+    @Override
+    public void eval(EvaluationContext ctx) {
+        children[0].eval(ctx);
+
+        MutableChunk chunk = ctx.getPreAllocatedChunk();
+        int batchSize = chunk.batchSize();
+        boolean isSelectionInUse = chunk.isSelectionInUse();
+        int[] sel = chunk.selection();
+
+        RandomAccessBlock outputVectorSlot = chunk.slotIn(outputIndex, outputDataType);
+        RandomAccessBlock inputVectorSlot = chunk.slotIn(children[0].getOutputIndex(), children[0].getOutputDataType());
+
+        Object[] output = ((ReferenceBlock) outputVectorSlot).objectArray();
+        boolean[] outputNulls = outputVectorSlot.nulls();
+
+        VectorizedExpressionUtils.mergeNulls(chunk, outputIndex, children[0].getOutputIndex());
+        // the date out of range is null.
+        outputVectorSlot.setHasNull(true);
+
+        if (isSelectionInUse) {
+            for (int i = 0; i < batchSize; i++) {
+                int j = sel[i];
+                if (!outputNulls[j]) {
+                    output[j] = dateOf(VectorizedExpressionUtils.packedDatetimeAt(inputVectorSlot, j));
+                    outputNulls[j] = output[j] == null;
+                }
+            }
+        } else {
+            for (int i = 0; i < batchSize; i++) {
+                if (!outputNulls[i]) {
+                    output[i] = dateOf(VectorizedExpressionUtils.packedDatetimeAt(inputVectorSlot, i));
+                    outputNulls[i] = output[i] == null;
+                }
+            }
+        }
+    }
+
+    private Object dateOf(long packed) {
+        MysqlDateTime t = TimeStorage.readDate(TimeStorage.truncateToDate(packed));
+        return DataTypeUtil.fromMySQLDatetime(outputDataType, t, InternalTimeZone.DEFAULT_TIME_ZONE);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.time;
+
+import com.alibaba.polardbx.common.utils.time.core.MysqlDateTime;
+import com.alibaba.polardbx.common.utils.time.core.TimeStorage;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpressionUtils;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
+import com.alibaba.polardbx.optimizer.chunk.MutableChunk;
+import com.alibaba.polardbx.optimizer.chunk.RandomAccessBlock;
+import com.alibaba.polardbx.optimizer.context.EvaluationContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+
+/**
+ * Comparison between temporal column and constant, in either order.
+ * The constant is parsed and packed only once, and each row is compared by its packed long value.
+ */
+public abstract class AbstractTemporalComparisonVectorizedExpression extends AbstractTemporalVectorizedExpression {
+    public enum Operator {
+        EQ, NE, GT, GE, LT, LE;
+
+        /**
+         * The operator with its operands swapped, i.e. a op b <=> b op.mirror() a
+         */
+        Operator mirror() {
+            switch (this) {
+            case GT:
+                return LT;
+            case GE:
+                return LE;
+            case LT:
+                return GT;
+            case LE:
+                return GE;
+            default:
+                return this;
+            }
+        }
+    }
+
+    private final int columnIndex;
+    private final Operator operator;
+    private final boolean constIsNull;
+    private final long constPacked;
+
+    public AbstractTemporalComparisonVectorizedExpression(int outputIndex, VectorizedExpression[] children,
+                                                          Operator operator) {
+        super(DataTypes.LongType, outputIndex, children);
+        // normalize to the form of: column op constant
+        boolean isConstLeft = isConst(children[0]);
+        this.columnIndex = isConstLeft ? 1 : 0;
+        this.operator = isConstLeft ? operator.mirror() : operator;
+
+        MysqlDateTime t = constDatetimeOf(children[isConstLeft ? 0 : 1]);
+        this.constIsNull = t == null;
+        this.constPacked = t == null ? 0L : TimeStorage.writeTimestamp(t);
+    }
+
+    @Override
+    public void eval(EvaluationContext ctx) {
+        VectorizedExpression column = children[columnIndex];
+        column.eval(ctx);
+
+        MutableChunk chunk = ctx.getPreAllocatedChunk();
+        int batchSize = chunk.batchSize();
+        boolean isSelectionInUse = chunk.isSelectionInUse();
+        int[] sel = chunk.selection();
+
+        if (constIsNull) {
+            VectorizedExpressionUtils.setNulls(chunk, outputIndex);
+            return;
+        }
+
+        RandomAccessBlock outputVectorSlot = chunk.slotIn(outputIndex, outputDataType);
+        RandomAccessBlock inputVectorSlot = chunk.slotIn(column.getOutputIndex(), column.getOutputDataType());
+
+        long[] output = ((LongBlock) outputVectorSlot).longArray();
+        boolean[] outputNulls = outputVectorSlot.nulls();
+
+        VectorizedExpressionUtils.mergeNulls(chunk, outputIndex, column.getOutputIndex());
+        outputVectorSlot.setHasNull(inputVectorSlot.hasNull());
+
+        if (isSelectionInUse) {
+            for (int i = 0; i < batchSize; i++) {
+                int j = sel[i];
+                if (!outputNulls[j]) {
+                    long packed = VectorizedExpressionUtils.packedDatetimeAt(inputVectorSlot, j);
+                    output[j] = compare(packed) ? LongBlock.TRUE_VALUE : LongBlock.FALSE_VALUE;
+                }
+            }
+        } else {
+            for (int i = 0; i < batchSize; i++) {
+                if (!outputNulls[i]) {
+                    long packed = VectorizedExpressionUtils.packedDatetimeAt(inputVectorSlot, i);
+                    output[i] = compare(packed) ? LongBlock.TRUE_VALUE : LongBlock.FALSE_VALUE;
+                }
+            }
+        }
+    }
+
+    private boolean compare(long packed) {
+        switch (operator) {
+        case EQ:
+            return packed == constPacked;
+        case NE:
+            return packed != constPacked;
+        case GT:
+            return packed > constPacked;
+        case GE:
+            return packed >= constPacked;
+        case LT:
+            return packed < constPacked;
+        case LE:
+            return packed <= constPacked;
+        default:
+            throw new UnsupportedOperationException("Unsupported temporal comparison: " + operator);
+        }
+    }
+}
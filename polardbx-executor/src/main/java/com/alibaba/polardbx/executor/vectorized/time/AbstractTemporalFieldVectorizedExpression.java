@@ -0,0 +1,134 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.time;
+
+import com.alibaba.polardbx.common.utils.time.calculator.MySQLTimeCalculator;
+import com.alibaba.polardbx.common.utils.time.core.TimeStorage;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpressionUtils;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
+import com.alibaba.polardbx.optimizer.chunk.MutableChunk;
+import com.alibaba.polardbx.optimizer.chunk.RandomAccessBlock;
+import com.alibaba.polardbx.optimizer.context.EvaluationContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+
+/**
+ * Extract a field from temporal column, such as YEAR(col), MONTH(col) or TO_DAYS(col).
+ * The fields are read from the packed long directly.
+ * Follow MySQL behavior: the functions based on day number return null for zero date.
+ */
+public abstract class AbstractTemporalFieldVectorizedExpression extends AbstractTemporalVectorizedExpression {
+    public enum Field {
+        YEAR, QUARTER, MONTH, DAY, HOUR, MINUTE, SECOND, DAY_OF_WEEK, DAY_OF_YEAR, TO_DAYS;
+
+        boolean isNullOnZeroDate() {
+            return this == DAY_OF_WEEK || this == DAY_OF_YEAR || this == TO_DAYS;
+        }
+    }
+
+    private final Field field;
+
+    public AbstractTemporalFieldVectorizedExpression(int outputIndex, VectorizedExpression[] children, Field field) {
+        super(DataTypes.LongType, outputIndex, children);
+        this.field = field;
+    }
+
+    @Override
+    public void eval(EvaluationContext ctx) {
+        children[0].eval(ctx);
+
+        MutableChunk chunk = ctx.getPreAllocatedChunk();
+        int batchSize = chunk.batchSize();
+        boolean isSelectionInUse = chunk.isSelectionInUse();
+        int[] sel = chunk.selection();
+
+        RandomAccessBlock outputVectorSlot = chunk.slotIn(outputIndex, outputDataType);
+        RandomAccessBlock inputVectorSlot = chunk.slotIn(children[0].getOutputIndex(), children[0].getOutputDataType());
+
+        long[] output = ((LongBlock) outputVectorSlot).longArray();
+        boolean[] outputNulls = outputVectorSlot.nulls();
+
+        VectorizedExpressionUtils.mergeNulls(chunk, outputIndex, children[0].getOutputIndex());
+        outputVectorSlot.setHasNull(inputVectorSlot.hasNull() || field.isNullOnZeroDate());
+
+        if (isSelectionInUse) {
+            for (int i = 0; i < batchSize; i++) {
+                int j = sel[i];
+                if (!outputNulls[j]) {
+                    evalRow(VectorizedExpressionUtils.packedDatetimeAt(inputVectorSlot, j), j, output, outputNulls);
+                }
+            }
+        } else {
+            for (int i = 0; i < batchSize; i++) {
+                if (!outputNulls[i]) {
+                    evalRow(VectorizedExpressionUtils.packedDatetimeAt(inputVectorSlot, i), i, output, outputNulls);
+                }
+            }
+        }
+    }
+
+    private void evalRow(long packed, int position, long[] output, boolean[] outputNulls) {
+        if (field.isNullOnZeroDate() && isZeroDate(packed)) {
+            outputNulls[position] = true;
+            return;
+        }
+        switch (field) {
+        case YEAR:
+            output[position] = TimeStorage.readYear(packed);
+            break;
+        case QUARTER:
+            output[position] = (TimeStorage.readMonth(packed) + 2) / 3;
+            break;
+        case MONTH:
+            output[position] = TimeStorage.readMonth(packed);
+            break;
+        case DAY:
+            output[position] = TimeStorage.readDay(packed);
+            break;
+        case HOUR:
+            output[position] = TimeStorage.readHour(packed);
+            break;
+        case MINUTE:
+            output[position] = TimeStorage.readMinute(packed);
+            break;
+        case SECOND:
+            output[position] = TimeStorage.readSecond(packed);
+            break;
+        case DAY_OF_WEEK: {
+            // 1 = Sunday, 2 = Monday, ..., 7 = Saturday
+            long dayNumber = dayNumberOf(packed);
+            output[position] = MySQLTimeCalculator.calWeekDay(dayNumber, true) + 1;
+            break;
+        }
+        case DAY_OF_YEAR: {
+            long year = TimeStorage.readYear(packed);
+            output[position] = dayNumberOf(packed) - MySQLTimeCalculator.calDayNumber(year, 1, 1) + 1;
+            break;
+        }
+        case TO_DAYS:
+            output[position] = dayNumberOf(packed);
+            break;
+        default:
+            throw new UnsupportedOperationException("Unsupported temporal field: " + field);
+        }
+    }
+
+    private static long dayNumberOf(long packed) {
+        return MySQLTimeCalculator.calDayNumber(
+            TimeStorage.readYear(packed), TimeStorage.readMonth(packed), TimeStorage.readDay(packed));
+    }
+}
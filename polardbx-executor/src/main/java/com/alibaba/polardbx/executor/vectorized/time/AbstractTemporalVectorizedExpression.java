@@ -0,0 +1,65 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.time;
+
+import com.alibaba.polardbx.common.utils.time.core.MysqlDateTime;
+import com.alibaba.polardbx.common.utils.time.core.TimeStorage;
+import com.alibaba.polardbx.common.utils.time.parser.TimeParserFlags;
+import com.alibaba.polardbx.executor.vectorized.AbstractVectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.LiteralVectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypeUtil;
+
+import java.sql.Types;
+
+/**
+ * Common utilities of vectorized temporal expressions.
+ * The datetime / timestamp / date values are handled in packed long form (see {@link TimeStorage}),
+ * whose natural order is the same as the order of datetime values.
+ */
+public abstract class AbstractTemporalVectorizedExpression extends AbstractVectorizedExpression {
+    public AbstractTemporalVectorizedExpression(DataType<?> outputDataType, int outputIndex,
+                                                VectorizedExpression[] children) {
+        super(outputDataType, outputIndex, children);
+    }
+
+    protected static boolean isConst(VectorizedExpression expression) {
+        return expression instanceof LiteralVectorizedExpression;
+    }
+
+    protected static Object constValueOf(VectorizedExpression expression) {
+        return ((LiteralVectorizedExpression) expression).getConvertedValue();
+    }
+
+    /**
+     * Parse the constant value into datetime, allowing zero date.
+     *
+     * @return null if the value is null or can not be parsed.
+     */
+    protected static MysqlDateTime constDatetimeOf(VectorizedExpression expression) {
+        Object value = constValueOf(expression);
+        if (value == null) {
+            return null;
+        }
+        return DataTypeUtil.toMySQLDatetimeByFlags(value, Types.TIMESTAMP, TimeParserFlags.FLAG_TIME_FUZZY_DATE);
+    }
+
+    protected static boolean isZeroDate(long packed) {
+        return TimeStorage.readMonth(packed) == 0 || TimeStorage.readDay(packed) == 0;
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.time;
+
+import com.alibaba.polardbx.common.utils.time.calculator.MySQLTimeCalculator;
+import com.alibaba.polardbx.common.utils.time.core.TimeStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formatter of constant DATE_FORMAT pattern, which writes the fields of packed datetime directly.
+ * Only the specifiers whose results are the same as the row function are supported, and the
+ * week specifiers (%U %u %V %v %X %x) and %f are left to the row function.
+ */
+public class PackedDatetimeFormatter {
+    private static final String SUPPORTED_SPECIFIERS = "abcDdeHhIijklMmprSsTWwYy%";
+
+    private static final String[] MONTH_NAMES = {
+        "January", "February", "March", "April", "May", "June",
+        "July", "August", "September", "October", "November", "December"};
+
+    /**
+     * Starts from Monday, the same as MySQLTimeCalculator.calWeekDay(dayNumber, false)
+     */
+    private static final String[] DAY_NAMES = {
+        "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday"};
+
+    private static final String[] ORDER_SUFFIX = {"th", "st", "nd", "rd"};
+
+    /**
+     * The specifier character of each segment, or 0 if the segment is literal.
+     */
+    private final char[] specifiers;
+    private final String[] literals;
+
+    private PackedDatetimeFormatter(char[] specifiers, String[] literals) {
+        this.specifiers = specifiers;
+        this.literals = literals;
+    }
+
+    /**
+     * @return null if the format contains any unsupported specifier.
+     */
+    public static PackedDatetimeFormatter compile(String format) {
+        List<Character> specifierList = new ArrayList<>();
+        List<String> literalList = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        final int length = format.length();
+        for (int i = 0; i < length; i++) {
+            char c = format.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            }
+            if (i + 1 >= length || SUPPORTED_SPECIFIERS.indexOf(format.charAt(i + 1)) < 0) {
+                return null;
+            }
+            char specifier = format.charAt(++i);
+            if (specifier == '%') {
+                literal.append('%');
+                continue;
+            }
+            if (literal.length() > 0) {
+                specifierList.add((char) 0);
+                literalList.add(literal.toString());
+                literal.setLength(0);
+            }
+            specifierList.add(specifier);
+            literalList.add(null);
+        }
+        if (literal.length() > 0) {
+            specifierList.add((char) 0);
+            literalList.add(literal.toString());
+        }
+
+        char[] specifiers = new char[specifierList.size()];
+        for (int i = 0; i < specifiers.length; i++) {
+            specifiers[i] = specifierList.get(i);
+        }
+        return new PackedDatetimeFormatter(specifiers, literalList.toArray(new String[0]));
+    }
+
+    /**
+     * Format the packed datetime, which must not be zero date.
+     */
+    public void format(long packed, StringBuilder builder) {
+        final long year = TimeStorage.readYear(packed);
+        final long month = TimeStorage.readMonth(packed);
+        final long day = TimeStorage.readDay(packed);
+        final long hour = TimeStorage.readHour(packed);
+        final long minute = TimeStorage.readMinute(packed);
+        final long second = TimeStorage.readSecond(packed);
+
+        for (int i = 0; i < specifiers.length; i++) {
+            switch (specifiers[i]) {
+            case 0:
+                builder.append(literals[i]);
+                break;
+            case 'a':
+                builder.append(DAY_NAMES[weekDay(year, month, day, false)], 0, 3);
+                break;
+            case 'b':
+                builder.append(MONTH_NAMES[(int) month - 1], 0, 3);
+                break;
+            case 'c':
+                builder.append(month);
+                break;
+            case 'D':
+                builder.append(day);
+                if (day % 10 < 4 && day / 10 != 1) {
+                    builder.append(ORDER_SUFFIX[(int) (day % 10)]);
+                } else {
+                    builder.append("th");
+                }
+                break;
+            case 'd':
+                appendPadded(builder, day, 2);
+                break;
+            case 'e':
+                builder.append(day);
+                break;
+            case 'H':
+                appendPadded(builder, hour, 2);
+                break;
+            case 'h':
+            case 'I':
+                appendPadded(builder, hour12(hour), 2);
+                break;
+            case 'i':
+                appendPadded(builder, minute, 2);
+                break;
+            case 'j': {
+                long dayOfYear = MySQLTimeCalculator.calDayNumber(year, month, day)
+                    - MySQLTimeCalculator.calDayNumber(year, 1, 1) + 1;
+                appendPadded(builder, dayOfYear, 3);
+                break;
+            }
+            case 'k':
+                builder.append(hour);
+                break;
+            case 'l':
+                builder.append(hour12(hour));
+                break;
+            case 'M':
+                builder.append(MONTH_NAMES[(int) month - 1]);
+                break;
+            case 'm':
+                appendPadded(builder, month, 2);
+                break;
+            case 'p':
+                builder.append(hour < 12 ? "AM" : "PM");
+                break;
+            case 'r':
+                appendPadded(builder, hour12(hour), 2);
+                builder.append(':');
+                appendPadded(builder, minute, 2);
+                builder.append(':');
+                appendPadded(builder, second, 2);
+                builder.append(hour < 12 ? " AM" : " PM");
+                break;
+            case 'S':
+            case 's':
+                appendPadded(builder, second, 2);
+                break;
+            case 'T':
+                appendPadded(builder, hour, 2);
+                builder.append(':');
+                appendPadded(builder, minute, 2);
+                builder.append(':');
+                appendPadded(builder, second, 2);
+                break;
+            case 'W':
+                builder.append(DAY_NAMES[weekDay(year, month, day, false)]);
+                break;
+            case 'w':
+                builder.append(weekDay(year, month, day, true));
+                break;
+            case 'Y':
+                appendPadded(builder, year, 4);
+                break;
+            case 'y':
+                appendPadded(builder, year % 100, 2);
+                break;
+            default:
+                throw new UnsupportedOperationException("Unsupported format specifier: %" + specifiers[i]);
+            }
+        }
+    }
+
+    private static int weekDay(long year, long month, long day, boolean isSundayFirstDayOfWeek) {
+        return MySQLTimeCalculator.calWeekDay(MySQLTimeCalculator.calDayNumber(year, month, day),
+            isSundayFirstDayOfWeek);
+    }
+
+    private static long hour12(long hour) {
+        return hour % 12 == 0 ? 12 : hour % 12;
+    }
+
+    private static void appendPadded(StringBuilder builder, long value, int width) {
+        for (long bound = 10, i = 1; i < width; i++, bound *= 10) {
+            if (value < bound) {
+                builder.append('0');
+            }
+        }
+        builder.append(value);
+    }
+}
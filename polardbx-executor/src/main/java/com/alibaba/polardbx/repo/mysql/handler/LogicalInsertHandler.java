@@ -369,7 +369,12 @@ public class LogicalInsertHandler extends HandlerCommon {
             List<Cursor> inputCursors = new ArrayList<>(inputs.size());
             QueryConcurrencyPolicy queryConcurrencyPolicy =
                 inputs.size() > 1 ? getQueryConcurrencyPolicy(executionContext) : QueryConcurrencyPolicy.SEQUENTIAL;
-            executeWithConcurrentPolicy(executionContext, inputs, queryConcurrencyPolicy, inputCursors, schemaName);
+            // Writes on the same group are pipelined when executed one by one.
+            if (isBroadcast || queryConcurrencyPolicy != QueryConcurrencyPolicy.SEQUENTIAL
+                || !executeGroupPipeline(executionContext, inputs, inputCursors, schemaName)) {
+                executeWithConcurrentPolicy(executionContext, inputs, queryConcurrencyPolicy, inputCursors,
+                    schemaName);
+            }
             return ExecUtils.getAffectRowsByCursors(inputCursors, isBroadcast);
         }
     }
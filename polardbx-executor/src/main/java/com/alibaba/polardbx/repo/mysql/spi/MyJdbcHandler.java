@@ -20,6 +20,7 @@ import com.alibaba.polardbx.common.datatype.UInt64;
 import com.alibaba.polardbx.optimizer.planmanager.feedback.PhyFeedBack;
 import com.google.common.collect.ImmutableList;
 import com.googlecode.protobuf.format.JsonFormat;
+import com.mysql.cj.x.protobuf.PolarxDatatypes;
 import com.mysql.cj.x.protobuf.PolarxExecPlan;
 import com.mysql.jdbc.CommunicationsException;
 import com.mysql.jdbc.Statement;
@@ -60,6 +61,7 @@ import com.alibaba.polardbx.gms.metadb.MetaDbDataSource;
 import com.alibaba.polardbx.group.jdbc.TGroupDataSource;
 import com.alibaba.polardbx.group.jdbc.TGroupDirectConnection;
 import com.alibaba.polardbx.group.utils.StatementStats;
+import com.alibaba.polardbx.optimizer.OptimizerContext;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
 import com.alibaba.polardbx.optimizer.core.CursorMeta;
 import com.alibaba.polardbx.optimizer.core.Xplan.XPlanTemplate;
@@ -107,6 +109,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -1492,6 +1495,11 @@ public class MyJdbcHandler implements GeneralQueryHandler {
                 }
             }
             phyTableModify.setAffectedRows(affectRows[0]);
+            long totalAffectRows = 0;
+            for (int affectRow : affectRows) {
+                totalAffectRows += Math.max(affectRow, 0);
+            }
+            addShardModifyRowCount(phyTableModify, totalAffectRows);
             return affectRows;
         } catch (Throwable e) {
             if (!createConnectionSuccess) {
@@ -1529,6 +1537,233 @@ public class MyJdbcHandler implements GeneralQueryHandler {
         }
     }
 
+    /**
+     * Count rows modified on the physical table of a single table DML, so that incremental analyze
+     * could sample again only the physical tables that changed.
+     */
+    private void addShardModifyRowCount(BaseQueryOperation phyTableModify, long affectRow) {
+        SqlKind kind = phyTableModify.getKind();
+        if (affectRow <= 0 || (kind != SqlKind.INSERT && kind != SqlKind.REPLACE && kind != SqlKind.UPDATE
+            && kind != SqlKind.DELETE)) {
+            return;
+        }
+        String logicalTableName;
+        String groupName;
+        String physicalTableName;
+        if (phyTableModify instanceof PhyTableOperation) {
+            PhyTableOperation phyTableOperation = (PhyTableOperation) phyTableModify;
+            List<String> logicalTableNames = phyTableOperation.getLogicalTableNames();
+            List<List<String>> phyTableNames = phyTableOperation.getTableNames();
+            if (logicalTableNames == null || logicalTableNames.size() != 1
+                || phyTableNames == null || phyTableNames.size() != 1 || phyTableNames.get(0).size() != 1) {
+                // rows of a multi table DML could not be told apart
+                return;
+            }
+            logicalTableName = logicalTableNames.get(0);
+            groupName = phyTableOperation.getDbIndex();
+            physicalTableName = phyTableNames.get(0).get(0);
+        } else if (phyTableModify instanceof SingleTableOperation) {
+            SingleTableOperation singleTableOperation = (SingleTableOperation) phyTableModify;
+            Pair<String, String> groupAndTable = singleTableOperation.getPhyGroupAndPhyTablePair(
+                executionContext.getParams() == null ? null : executionContext.getParams().getCurrentParameter(),
+                executionContext);
+            logicalTableName = singleTableOperation.getTableNames().get(0);
+            groupName = groupAndTable.getKey();
+            physicalTableName = groupAndTable.getValue();
+        } else {
+            return;
+        }
+        String schemaName = phyTableModify.getSchemaName() == null ? executionContext.getSchemaName() :
+            phyTableModify.getSchemaName();
+        OptimizerContext optimizerContext = OptimizerContext.getContext(schemaName);
+        if (optimizerContext == null || groupName == null || physicalTableName == null) {
+            return;
+        }
+        optimizerContext.getStatisticManager()
+            .addShardModifyRowCount(logicalTableName, groupName, physicalTableName, affectRow);
+    }
+
+    /**
+     * Execute simple DMLs on the same group with one X-Protocol session by pipelining,
+     * all statements are sent back to back and the results are consumed in order.
+     * Deferred statements of transaction (XA START, SAVEPOINT, etc.) are flushed in the same pipeline.
+     *
+     * @return affected rows of each operation
+     */
+    public int[] executeUpdatePipeline(List<BaseQueryOperation> phyTableModifies) throws SQLException {
+        final Map<Integer, ParameterContext> currentParams =
+            executionContext.getParams() == null ? null : executionContext.getParams().getCurrentParameter();
+        final List<SqlAndParam> sqlAndParams = new ArrayList<>(phyTableModifies.size());
+        boolean isInsert = false;
+        for (BaseQueryOperation phyTableModify : phyTableModifies) {
+            Pair<String, Map<Integer, ParameterContext>> dbIndexAndParam =
+                phyTableModify.getDbIndexAndParam(currentParams, executionContext);
+            this.groupName = phyTableModify.isUseDbIndex() ? phyTableModify.getDbIndex() : dbIndexAndParam.getKey();
+            SqlAndParam sqlAndParam = new SqlAndParam();
+            sqlAndParam.sql = phyTableModify.getNativeSql();
+            sqlAndParam.param = dbIndexAndParam.getValue() != null ? dbIndexAndParam.getValue() : new HashMap<>();
+            sqlAndParams.add(sqlAndParam);
+            interceptDMLAllTableSql(phyTableModify, sqlAndParam.sql);
+            isInsert |= phyTableModify.getKind() == SqlKind.INSERT || phyTableModify.getKind() == SqlKind.REPLACE;
+        }
+        this.closed = false;
+
+        long startTime = System.currentTimeMillis();
+        long nanoStartTime = System.nanoTime();
+        long sqlCostTime = -1;
+        int executed = 0;
+        int current = 0;
+        final XResult[] results = new XResult[sqlAndParams.size()];
+
+        ITransaction.RW rw = ITransaction.RW.WRITE;
+        try {
+            if (executionContext.getParamManager().getBoolean(ConnectionParams.BROADCAST_DML)) {
+                rw = ITransaction.RW.READ;
+            }
+
+            connection = getPhyConnection(executionContext.getTransaction(), rw, groupName);
+            initConnection(connection, executionContext);
+            final List<String> sqls = new ArrayList<>(sqlAndParams.size());
+            final List<List<PolarxDatatypes.Any>> args = new ArrayList<>(sqlAndParams.size());
+            for (; current < sqlAndParams.size(); ++current) {
+                final SqlAndParam sqlAndParam = sqlAndParams.get(current);
+                String sql = buildSql(sqlAndParam.sql, executionContext);
+                convertParameters(sqlAndParam.param, executionContext.getParamManager());
+                XPreparedStatement xPreparedStatement =
+                    new XPreparedStatement(connection.unwrap(XConnection.class), sql);
+                ParameterMethod.setParameters(xPreparedStatement, sqlAndParam.param);
+                Pair<String, List<PolarxDatatypes.Any>> sqlAndArgs = xPreparedStatement.reorganizeParam();
+                sqls.add(sqlAndArgs.getKey());
+                args.add(sqlAndArgs.getValue());
+            }
+            current = 0;
+
+            final XConnection xConnection = connection.unwrap(XConnection.class);
+            xConnection.setTraceId(executionContext.getTraceId());
+            connection.flushUnsent(); // Deferred sql goes ahead in the same pipeline.
+
+            long startTimeNano = System.nanoTime();
+            executionContext.getStats().physicalRequest.addAndGet(sqls.size());
+            phySqlExecuted = true;
+            executed = sqls.size();
+            xConnection.execUpdatePipeline(sqls, args, results);
+
+            long timeCostNano = System.nanoTime() - startTimeNano;
+            sqlCostTime = timeCostNano / 1000;
+            if (enableTaskProfile) {
+                this.statementStats.addExecuteStmtNano(timeCostNano);
+            }
+            executionContext.getStats().recordPhysicalTimeCost(sqlCostTime);
+
+            final int[] affectRows = new int[results.length];
+            long lastInsertId = 0;
+            long totalAffectRows = 0;
+            for (int i = 0; i < results.length; ++i) {
+                affectRows[i] = (int) results[i].getRowsAffected();
+                totalAffectRows += affectRows[i];
+                phyTableModifies.get(i).setAffectedRows(affectRows[i]);
+                addShardModifyRowCount(phyTableModifies.get(i), affectRows[i]);
+                if (isInsert && lastInsertId == 0 && results[i].isHaveGeneratedInsertId()) {
+                    lastInsertId = results[i].getGeneratedInsertId();
+                }
+            }
+            this.rowsAffect = totalAffectRows;
+
+            if (executionContext.isEnableTrace()) {
+                String currentDbKey = getCurrentDbkey(rw);
+                for (int i = 0; i < results.length; ++i) {
+                    ExecuteSQLOperation op =
+                        new ExecuteSQLOperation(this.groupName, currentDbKey, sqls.get(i), startTimeNano);
+                    op.setParams(new Parameters(sqlAndParams.get(i).param));
+                    op.setTimeCost(System.currentTimeMillis() - startTime);
+                    op.setRowsCount((long) affectRows[i]);
+                    executionContext.getTracer().trace(op);
+                }
+            }
+
+            this.resultSet = new UpdateResultWrapper(affectRows, this);
+            executionType = ExecutionType.PUT;
+            // Get the first key as last insert id.
+            if (lastInsertId != 0) {
+                executionContext.getConnection().setLastInsertId(lastInsertId);
+                executionContext.getConnection().setReturnedLastInsertId(lastInsertId);
+            }
+            return affectRows;
+        } catch (Throwable e) {
+            MatrixStatistics.addSqlErrorCount(executionContext.getAppName(),
+                this.groupName,
+                getCurrentDbkey(rw),
+                1L);
+            // Report the statement that failed rather than the first one of pipeline.
+            final int failed = executed > 0 ? failedInPipeline(results) : current;
+            handleException(phyTableModifies.get(failed), sqlAndParams.get(failed), e, false, rw);
+            return null;
+        } finally {
+            try {
+                resetPhyConnSocketTimeout();
+                for (int i = 0; i < executed; ++i) {
+                    recordSqlLog(sqlAndParams.get(i).sql,
+                        startTime,
+                        nanoStartTime,
+                        sqlCostTime,
+                        -1,
+                        -1,
+                        sqlAndParams.get(i).param,
+                        this.groupName,
+                        rw);
+                }
+            } finally {
+                close();
+                executionContext.getTransaction().clearTrxContext();
+                collectStatementStats();
+            }
+        }
+    }
+
+    /**
+     * @return index of the first result not finished normally, or the last sent one if all results are good
+     */
+    static int failedInPipeline(XResult[] results) {
+        int lastSent = 0;
+        for (int i = 0; i < results.length && results[i] != null; ++i) {
+            if (results[i].getStatus() != XResult.ResultStatus.XResultFinish) {
+                return i;
+            }
+            lastSent = i;
+        }
+        return lastSent;
+    }
+
+    /**
+     * Apply timeout, variables, isolation, encoding and sql mode of the session to the connection,
+     * as what is done by {@link #prepareStatement} for DMLs.
+     */
+    private void initConnection(IConnection conn, ExecutionContext executionContext) throws SQLException {
+        long startInitStmtEnvNano = System.nanoTime();
+        Executor socketTimeoutExecutor = TGroupDirectConnection.socketTimeoutExecutor;
+        Long socketTimeout = executionContext.getParamManager().getLong(ConnectionParams.SOCKET_TIMEOUT);
+        if (socketTimeout >= 0) {
+            phyConnLastSocketTimeout = conn.getNetworkTimeout();
+            conn.setNetworkTimeout(socketTimeoutExecutor, socketTimeout.intValue());
+        } else if (executionContext.getSocketTimeout() >= 0) {
+            phyConnLastSocketTimeout = conn.getNetworkTimeout();
+            conn.setNetworkTimeout(socketTimeoutExecutor, executionContext.getSocketTimeout());
+        }
+
+        conn.setServerVariables(executionContext.getServerVariables());
+        if (executionContext.getTxIsolation() >= 0) {
+            conn.setTransactionIsolation(executionContext.getTxIsolation());
+        }
+        if (executionContext.getEncoding() != null) {
+            conn.setEncoding(executionContext.getEncoding());
+        }
+        if (executionContext.getSqlMode() != null) {
+            conn.setSqlMode(executionContext.getSqlMode());
+        }
+        conn.setStressTestValid(executionContext.isStressTestValid());
+        this.statementStats.addCreateAndInitStmtNano(System.nanoTime() - startInitStmtEnvNano);
+    }
+
     public int executeTableDdl(PhyDdlTableOperation tableOperation) throws SQLException {
         FailPoint.injectFromHint(FailPointKey.FP_RANDOM_PHYSICAL_DDL_EXCEPTION, executionContext, () -> {
             long taskId = executionContext.getPhyDdlExecutionRecord().getTaskId();
@@ -27,11 +27,15 @@ import com.alibaba.polardbx.executor.spi.IGroupExecutor;
 import com.alibaba.polardbx.executor.spi.IRepository;
 import com.alibaba.polardbx.group.jdbc.TGroupDataSource;
 import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.rel.BaseQueryOperation;
 import com.alibaba.polardbx.repo.mysql.handler.CommandHandlerFactoryMyImp;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 
+import java.sql.SQLException;
+import java.util.List;
+
 public class MyRepository extends AbstractLifecycle implements IRepository {
 
     private transient LoadingCache<Group, TddlGroupExecutor> executors;
@@ -166,6 +170,16 @@ public class MyRepository extends AbstractLifecycle implements IRepository {
         return new MyJdbcHandler(executionContext, this);
     }
 
+    /**
+     * Execute the physical DMLs on the same group by pipelining them on one X-Protocol session.
+     *
+     * @return affected rows of each operation
+     */
+    public int[] executeUpdatePipeline(List<BaseQueryOperation> phyTableModifies, ExecutionContext executionContext)
+        throws SQLException {
+        return createQueryHandler(executionContext).executeUpdatePipeline(phyTableModifies);
+    }
+
     public String getAppName() {
         return appName;
     }
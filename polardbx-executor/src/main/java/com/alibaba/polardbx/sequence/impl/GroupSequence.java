@@ -18,25 +18,73 @@ package com.alibaba.polardbx.sequence.impl;
 
 import com.alibaba.polardbx.common.constants.SequenceAttribute.Type;
 import com.alibaba.polardbx.common.logger.LoggerInit;
+import com.alibaba.polardbx.common.properties.DynamicConfig;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
+import com.alibaba.polardbx.common.utils.thread.NamedThreadFactory;
 import com.alibaba.polardbx.sequence.SequenceDao;
 import com.alibaba.polardbx.sequence.SequenceRange;
 import com.alibaba.polardbx.sequence.exception.SequenceException;
+import com.google.common.annotations.VisibleForTesting;
 
 import java.sql.SQLException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static com.alibaba.polardbx.common.constants.SequenceAttribute.DEFAULT_INNER_STEP;
 
+/**
+ * Sequence allocating values from ranges fetched from sequence table.
+ * <p>
+ * The next range is prefetched in background once the remaining values of current range drop below
+ * a watermark, so that callers seldom wait for fetching range when current range is exhausted.
+ * The watermark adapts to the consumption rate: it is set so that the remaining values last about twice
+ * as long as fetching a range.
+ */
 public class GroupSequence extends BaseSequence {
 
+    private static final double MIN_PREFETCH_RATIO = 0.2;
+    private static final double MAX_PREFETCH_RATIO = 1.0;
+    private static final double INITIAL_PREFETCH_RATIO = 0.5;
+
+    /**
+     * Max time to wait for a running prefetch before fetching another range
+     */
+    private static final long PREFETCH_WAIT_TIMEOUT_MILLIS = 3000L;
+
+    private static final ThreadPoolExecutor PREFETCH_EXECUTOR;
+
+    static {
+        PREFETCH_EXECUTOR = new ThreadPoolExecutor(4, 4, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            new NamedThreadFactory("Group-Seq-Prefetch", true));
+        PREFETCH_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
     private final Lock lock = new ReentrantLock();
     protected SequenceDao sequenceDao;
 
     protected volatile SequenceRange currentRange;
 
+    /**
+     * The task fetching the standby range, shared by prefetch and callers switching range, guarded by lock
+     */
+    private volatile FutureTask<SequenceRange> prefetchedRange;
+
+    /**
+     * Prefetch the next range when remaining values of current range is not more than watermark
+     */
+    private volatile long prefetchWatermark = -1;
+    private volatile long fetchRangeNanos;
+    private long rangeSwitchNanos;
+
     private final Lock updateLock = new ReentrantLock();
 
     /**
@@ -81,24 +129,22 @@ public class GroupSequence extends BaseSequence {
 
         checkSequenceRange();
 
-        long value = getSequenceRange().getAndIncrement();
+        SequenceRange range = getSequenceRange();
+        long value = range.getAndIncrement();
         if (value == -1) {
-            lock.lock();
-            try {
-                for (; ; ) {
-                    if (getSequenceRange().isOver()) {
-                        setSequenceRange();
-                    }
-
-                    value = getSequenceRange().getAndIncrement();
-                    if (value == -1) {
-                        continue;
-                    }
+            for (; ; ) {
+                range = getSequenceRange();
+                if (range.isOver()) {
+                    switchRange(range);
+                    continue;
+                }
 
-                    break;
+                value = range.getAndIncrement();
+                if (value == -1) {
+                    continue;
                 }
-            } finally {
-                lock.unlock();
+
+                break;
             }
         }
 
@@ -106,6 +152,7 @@ public class GroupSequence extends BaseSequence {
             throw new SequenceException("Sequence value overflow, value = " + value);
         }
 
+        prefetchIfNecessary(range, value);
         return value;
     }
 
@@ -115,25 +162,23 @@ public class GroupSequence extends BaseSequence {
 
         checkSequenceRange();
 
-        long value = getSequenceRange().getBatch(size);
+        SequenceRange range = getSequenceRange();
+        long value = range.getBatch(size);
 
         if (value == -1) {
-            lock.lock();
-            try {
-                for (; ; ) {
-                    if (getSequenceRange().isOver()) {
-                        setSequenceRange();
-                    }
-
-                    value = getSequenceRange().getBatch(size);
-                    if (value == -1) {
-                        continue;
-                    }
+            for (; ; ) {
+                range = getSequenceRange();
+                if (range.isOver()) {
+                    switchRange(range);
+                    continue;
+                }
 
-                    break;
+                value = range.getBatch(size);
+                if (value == -1) {
+                    continue;
                 }
-            } finally {
-                lock.unlock();
+
+                break;
             }
         }
 
@@ -141,6 +186,7 @@ public class GroupSequence extends BaseSequence {
             throw new SequenceException("Sequence value overflow, value = " + value);
         }
 
+        prefetchIfNecessary(range, value);
         return value;
     }
 
@@ -152,6 +198,7 @@ public class GroupSequence extends BaseSequence {
             if (range != null) {
                 range.setOver(true);
             }
+            discardPrefetchedRange();
         } finally {
             lock.unlock();
         }
@@ -207,10 +254,16 @@ public class GroupSequence extends BaseSequence {
             // The user value exceeds the max value of current range. Let's get the range
             // containing the value to catch up with.
             boolean updated = ((GroupSequenceDao) sequenceDao).updateExplicitValue(name, valueToUpdate);
-            // Invalidate local range
+            // Invalidate local range, as well as the prefetched one which may be less than the value
             if (getSequenceRange() != null) {
                 getSequenceRange().setOver(true);
             }
+            lock.lock();
+            try {
+                discardPrefetchedRange();
+            } finally {
+                lock.unlock();
+            }
             if (updated) {
                 infoMsg.append("[").append(currentAndMax[0]).append(",").append(currentAndMax[1]);
                 infoMsg.append("]' in database in ").append(schemaName);
@@ -252,22 +305,19 @@ public class GroupSequence extends BaseSequence {
 
         long[] currentAndMax = getSequenceRange().getCurrentAndMax();
         if (currentAndMax == null) {
-            lock.lock();
-            try {
-                for (; ; ) {
-                    if (getSequenceRange().isOver()) {
-                        setSequenceRange();
-                    }
-
-                    currentAndMax = getSequenceRange().getCurrentAndMax();
-                    if (currentAndMax == null) {
-                        continue;
-                    }
+            for (; ; ) {
+                SequenceRange range = getSequenceRange();
+                if (range.isOver()) {
+                    switchRange(range);
+                    continue;
+                }
 
-                    break;
+                currentAndMax = range.getCurrentAndMax();
+                if (currentAndMax == null) {
+                    continue;
                 }
-            } finally {
-                lock.unlock();
+
+                break;
             }
         }
 
@@ -279,15 +329,8 @@ public class GroupSequence extends BaseSequence {
     }
 
     protected void checkSequenceRange() {
-        if (getSequenceRange() == null) {
-            lock.lock();
-            try {
-                if (getSequenceRange() == null) {
-                    setSequenceRange();
-                }
-            } finally {
-                lock.unlock();
-            }
+        while (getSequenceRange() == null) {
+            switchRange(null);
         }
     }
 
@@ -299,8 +342,161 @@ public class GroupSequence extends BaseSequence {
         this.currentRange = range;
     }
 
-    protected void setSequenceRange() {
-        setSequenceRange(sequenceDao.nextRange(name));
+    /**
+     * Switch from the exhausted range (null if not initialized yet) to the prefetched range. The range is
+     * fetched or waited for without lock held, so a slow fetch never blocks other callers holding the lock,
+     * and concurrent callers share the same fetch. Callers should retry if the range is still exhausted.
+     */
+    protected void switchRange(SequenceRange exhausted) {
+        FutureTask<SequenceRange> task = pendingRange(exhausted, null);
+        if (task == null) {
+            return;
+        }
+        SequenceRange range;
+        try {
+            range = awaitRange(task);
+        } catch (CancellationException e) {
+            // discarded, or replaced by another caller
+            return;
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("Failed to prefetch range for sequence '" + name + "' in time, fetch it again.", e);
+            // If the prefetch is still running, the range it reserves is skipped, leaving a gap in sequence values
+            task = pendingRange(exhausted, task);
+            if (task == null) {
+                return;
+            }
+            try {
+                range = awaitRange(task);
+            } catch (CancellationException ce) {
+                return;
+            } catch (ExecutionException ee) {
+                if (ee.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ee.getCause();
+                }
+                throw new SequenceException(ee.getCause(), "Failed to fetch range for sequence '" + name + "'");
+            } catch (TimeoutException te) {
+                throw new SequenceException(te, "Timeout to fetch range for sequence '" + name + "'");
+            }
+        }
+
+        lock.lock();
+        try {
+            // the task may be discarded or installed by someone else meanwhile
+            if (getSequenceRange() == exhausted && prefetchedRange == task) {
+                prefetchedRange = null;
+                adjustPrefetchWatermark(range);
+                setSequenceRange(range);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the task fetching the range to switch to, creating one if there is none or it is the failed one
+     *
+     * @return null if the exhausted range has been switched by someone else
+     */
+    private FutureTask<SequenceRange> pendingRange(SequenceRange exhausted, FutureTask<SequenceRange> failed) {
+        lock.lock();
+        try {
+            if (getSequenceRange() != exhausted) {
+                return null;
+            }
+            FutureTask<SequenceRange> task = prefetchedRange;
+            if (task == null || task == failed) {
+                if (task != null) {
+                    task.cancel(false);
+                }
+                task = new FutureTask<>(this::fetchRange);
+                prefetchedRange = task;
+            }
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private SequenceRange awaitRange(FutureTask<SequenceRange> task)
+        throws ExecutionException, TimeoutException {
+        // The prefetch may be queued behind other sequences on the shared executor, so run it in current
+        // thread if not started yet. It is a no-op if the task is running or done.
+        task.run();
+        try {
+            return task.get(PREFETCH_WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SequenceException(e, "Interrupted while fetching range for sequence '" + name + "'");
+        }
+    }
+
+    /**
+     * Fetch a new range from sequence table
+     */
+    protected SequenceRange nextRange() {
+        return sequenceDao.nextRange(name);
+    }
+
+    private SequenceRange fetchRange() {
+        long start = System.nanoTime();
+        SequenceRange range = nextRange();
+        fetchRangeNanos = System.nanoTime() - start;
+        return range;
+    }
+
+    private void prefetchIfNecessary(SequenceRange range, long value) {
+        if (prefetchedRange != null || range.getMax() - value > prefetchWatermark
+            || !DynamicConfig.getInstance().isEnableSequencePrefetch()) {
+            return;
+        }
+        // never block callers, someone else is switching or prefetching range
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            if (prefetchedRange == null && getSequenceRange() == range && !range.isOver()) {
+                FutureTask<SequenceRange> task = new FutureTask<>(this::fetchRange);
+                prefetchedRange = task;
+                PREFETCH_EXECUTOR.execute(task);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Must be called with lock held. If the prefetch is already running, the range it reserves is skipped,
+     * leaving a gap in sequence values.
+     */
+    private void discardPrefetchedRange() {
+        Future<SequenceRange> prefetched = prefetchedRange;
+        prefetchedRange = null;
+        if (prefetched != null) {
+            prefetched.cancel(false);
+        }
+    }
+
+    @VisibleForTesting
+    boolean isRangePrefetched() {
+        Future<SequenceRange> prefetched = prefetchedRange;
+        return prefetched != null && prefetched.isDone();
+    }
+
+    /**
+     * Must be called with lock held
+     */
+    private void adjustPrefetchWatermark(SequenceRange range) {
+        final long now = System.nanoTime();
+        final long rangeSize = range.getMax() - range.getMin() + 1;
+        double ratio = INITIAL_PREFETCH_RATIO;
+        if (rangeSwitchNanos > 0) {
+            // time spent on consuming last range
+            long consumeNanos = now - rangeSwitchNanos;
+            ratio = consumeNanos <= 0 ? MAX_PREFETCH_RATIO : 2.0 * fetchRangeNanos / consumeNanos;
+            ratio = Math.max(MIN_PREFETCH_RATIO, Math.min(MAX_PREFETCH_RATIO, ratio));
+        }
+        rangeSwitchNanos = now;
+        prefetchWatermark = (long) (rangeSize * ratio);
     }
 
     protected void checkBatchSize(int size) {
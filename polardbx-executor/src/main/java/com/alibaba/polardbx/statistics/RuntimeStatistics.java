@@ -55,6 +55,7 @@ import com.alibaba.polardbx.optimizer.statis.TaskMemoryStatisticsGroup;
 import com.alibaba.polardbx.optimizer.utils.SimplePlanVisitor;
 import org.apache.calcite.rel.AbstractRelNode;
 import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.util.trace.RuntimeStatisticsProfile;
 import org.apache.calcite.util.trace.RuntimeStatisticsSketch;
 import org.apache.calcite.util.trace.RuntimeStatisticsSketchExt;
 
@@ -453,6 +454,12 @@ public class RuntimeStatistics extends RuntimeStat implements CpuCollector {
                         .addAndGet(taskOperatorStat.fetchJdbcResultSetDuration.get());
                     serverPointStatisticsGroup.closeAndClearJdbcEnv
                         .addAndGet(taskOperatorStat.closeAndClearJdbcEnv.get());
+                    serverPointStatisticsGroup.columnarFetchRowCount
+                        .addAndGet(taskOperatorStat.columnarFetchRowCount.get());
+                    serverPointStatisticsGroup.columnarFetchDuration
+                        .addAndGet(taskOperatorStat.columnarFetchDuration.get());
+                    serverPointStatisticsGroup.rowFetchRowCount.addAndGet(taskOperatorStat.rowFetchRowCount.get());
+                    serverPointStatisticsGroup.rowFetchDuration.addAndGet(taskOperatorStat.rowFetchDuration.get());
                     //FIXME 需要确认下
                     addPhySqlTimecost(taskOperatorStat.execJdbcStmtDuration.get());
                 }
@@ -625,8 +632,12 @@ public class RuntimeStatistics extends RuntimeStat implements CpuCollector {
             planTmpTbMem += (queryPool.getMaxMemoryUsage() - planMemoryPool.getMaxMemoryUsage());
         }
 
+        long spillUncompressedBytes = 0;
+        long spillCompressedBytes = 0;
         if (executionContext.getQuerySpillSpaceMonitor() != null) {
             spillCnt = executionContext.getQuerySpillSpaceMonitor().getSpillCnt();
+            spillUncompressedBytes = executionContext.getQuerySpillSpaceMonitor().getSpillUncompressedBytes();
+            spillCompressedBytes = executionContext.getQuerySpillSpaceMonitor().getSpillCompressedBytes();
         }
 
         // ====== disable some metrics for non-query sql ========
@@ -659,6 +670,8 @@ public class RuntimeStatistics extends RuntimeStat implements CpuCollector {
         metrics.planTmpTbMem = planTmpTbMem;
 
         metrics.spillCnt = spillCnt;
+        metrics.spillUncompressedBytes = spillUncompressedBytes;
+        metrics.spillCompressedBytes = spillCompressedBytes;
         if (memBlockedFlag) {
             metrics.memBlockedFlag = 1;
         }
@@ -858,6 +871,47 @@ public class RuntimeStatistics extends RuntimeStat implements CpuCollector {
         @JsonProperty
         public int fetchJdbcResultSetParallelism = 0;
 
+        // ========= prefetch of table scan =========
+
+        /**
+         * The max concurrency of prefetched physical result sets
+         */
+        @JsonProperty
+        public AtomicLong prefetchMaxConcurrency = new AtomicLong(0);
+
+        /**
+         * The times of prefetch concurrency being reduced because of the slow consumer
+         */
+        @JsonProperty
+        public AtomicLong prefetchThrottleCount = new AtomicLong(0);
+
+        /**
+         * The count of splits prefetched ahead of the earlier ones on slower storage nodes
+         */
+        @JsonProperty
+        public AtomicLong prefetchReorderedSplitCount = new AtomicLong(0);
+
+        // ========= columnar fetch of table scan =========
+
+        /**
+         * The row count and duration sum of the chunks decoded from X-Protocol chunks column by column,
+         * which can be compared with the ones fetched row by row
+         */
+        @JsonProperty
+        public AtomicLong columnarFetchRowCount = new AtomicLong(0);
+
+        @JsonProperty
+        public AtomicLong columnarFetchDuration = new AtomicLong(0);
+
+        /**
+         * The row count and duration sum of the chunks built row by row
+         */
+        @JsonProperty
+        public AtomicLong rowFetchRowCount = new AtomicLong(0);
+
+        @JsonProperty
+        public AtomicLong rowFetchDuration = new AtomicLong(0);
+
         public OperatorStatisticsGroup(RuntimeStatistics runtimeStat) {
             this.runtimeStat = runtimeStat;
         }
@@ -883,7 +937,15 @@ public class RuntimeStatistics extends RuntimeStat implements CpuCollector {
                                        @JsonProperty("closeAndClearJdbcEnv") long closeAndClearJdbcEnv,
                                        @JsonProperty("phyResultSetRowCount") long phyResultSetRowCount,
                                        @JsonProperty("fetchJdbcResultSetParallelism")
-                                           int fetchJdbcResultSetParallelism) {
+                                           int fetchJdbcResultSetParallelism,
+                                       @JsonProperty("prefetchMaxConcurrency") long prefetchMaxConcurrency,
+                                       @JsonProperty("prefetchThrottleCount") long prefetchThrottleCount,
+                                       @JsonProperty("prefetchReorderedSplitCount")
+                                           long prefetchReorderedSplitCount,
+                                       @JsonProperty("columnarFetchRowCount") long columnarFetchRowCount,
+                                       @JsonProperty("columnarFetchDuration") long columnarFetchDuration,
+                                       @JsonProperty("rowFetchRowCount") long rowFetchRowCount,
+                                       @JsonProperty("rowFetchDuration") long rowFetchDuration) {
             this.statistics = statistics;
             this.hasInputOperator = hasInputOperator;
             this.finishCount.set(finishCount);
@@ -903,6 +965,13 @@ public class RuntimeStatistics extends RuntimeStat implements CpuCollector {
             this.closeAndClearJdbcEnv.set(closeAndClearJdbcEnv);
             this.phyResultSetRowCount.set(phyResultSetRowCount);
             this.fetchJdbcResultSetParallelism = fetchJdbcResultSetParallelism;
+            this.prefetchMaxConcurrency.set(prefetchMaxConcurrency);
+            this.prefetchThrottleCount.set(prefetchThrottleCount);
+            this.prefetchReorderedSplitCount.set(prefetchReorderedSplitCount);
+            this.columnarFetchRowCount.set(columnarFetchRowCount);
+            this.columnarFetchDuration.set(columnarFetchDuration);
+            this.rowFetchRowCount.set(rowFetchRowCount);
+            this.rowFetchDuration.set(rowFetchDuration);
         }
 
         synchronized void add(OperatorStatistics stats) {
@@ -926,6 +995,7 @@ public class RuntimeStatistics extends RuntimeStat implements CpuCollector {
                 memory += statistic.getMemory();
                 workerDuration += statistic.getWorkerDuration();
                 spillCnt += statistic.getSpillCnt();
+                outputBytes += statistic.getOutputBytes();
             }
             double durationSeconds = (double) duration / 1e9;
             double startupDurationSeconds = (double) startupDuration / 1e9;
@@ -936,7 +1006,7 @@ public class RuntimeStatistics extends RuntimeStat implements CpuCollector {
                 n = this.fetchJdbcResultSetParallelism;
             }
 
-            return new RuntimeStatisticsSketch(durationSeconds,
+            RuntimeStatisticsSketch sketch = new RuntimeStatisticsSketch(durationSeconds,
                 startupDurationSeconds,
                 workerDurationSeconds,
                 rowCount,
@@ -944,6 +1014,32 @@ public class RuntimeStatistics extends RuntimeStat implements CpuCollector {
                 memory,
                 n,
                 spillCnt);
+            sketch.setProfile(toProfile());
+            return sketch;
+        }
+
+        /**
+         * Merge the detailed profiles of all instances, or null if none of them is profiled
+         */
+        RuntimeStatisticsProfile toProfile() {
+            RuntimeStatisticsProfile profile = null;
+            for (OperatorStatistics statistic : statistics) {
+                if (statistic.getProcessWallDuration() == 0 && statistic.getBlockedDurations().isEmpty()
+                    && statistic.getInputRowCount() == 0) {
+                    continue;
+                }
+                if (profile == null) {
+                    profile = new RuntimeStatisticsProfile();
+                }
+                profile.addWallDuration((double) statistic.getProcessWallDuration() / 1e9);
+                profile.addInput(statistic.getInputRowCount(), statistic.getInputBytes());
+                for (Map.Entry<String, Long> blocked : statistic.getBlockedDurations().entrySet()) {
+                    profile.addBlockedDuration(blocked.getKey(), (double) blocked.getValue() / 1e9);
+                }
+                profile.addDurationHistogram(statistic.getProcessDurationHistogram());
+                profile.addHashProbe(statistic.getHashProbeCount(), statistic.getHashCollisionCount());
+            }
+            return profile;
         }
 
         RuntimeStatisticsSketch toSketchExt() {
@@ -977,6 +1073,7 @@ public class RuntimeStatistics extends RuntimeStat implements CpuCollector {
                 rowCount += os.getRowCount();
                 memory += os.getMemory();
                 spillCnt += os.getSpillCnt();
+                outputBytes += os.getOutputBytes();
             }
 
             createConnDurationSum = this.createConnDuration.get();
@@ -1003,6 +1100,7 @@ public class RuntimeStatistics extends RuntimeStat implements CpuCollector {
             }
             rsse = new RuntimeStatisticsSketchExt(startupDuration, duration, closeDuration, 0, rowCount, outputBytes,
                 memory, n, hasInputOperator, spillCnt);
+            rsse.setProfile(toProfile());
 
             rsse.setCreateConnDurationNanoSum(createConnDurationSum);
             rsse.setWaitConnDurationNanoSum(waitConnDurationSum);
@@ -1084,6 +1182,11 @@ public class RuntimeStatistics extends RuntimeStat implements CpuCollector {
         public int memBlockedFlag = 0;
 
         public long spillCnt;
+
+        // the bytes of spilled chunks before and after compression
+        public long spillUncompressedBytes;
+
+        public long spillCompressedBytes;
     }
 
     public CpuStat getSqlWholeStageCpuStat() {
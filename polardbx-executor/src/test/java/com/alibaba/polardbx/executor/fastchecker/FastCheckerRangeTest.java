@@ -0,0 +1,242 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.fastchecker;
+
+import com.alibaba.polardbx.executor.common.ExecutorContext;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.google.common.collect.ImmutableList;
+import org.apache.calcite.util.Pair;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FastCheckerRangeTest {
+
+    private static final String SCHEMA = "fastchecker_test";
+
+    @BeforeClass
+    public static void setUp() {
+        ExecutorContext.setContext(SCHEMA, new ExecutorContext());
+    }
+
+    @Test
+    public void testRangeBounds() {
+        Assert.assertEquals(ImmutableList.of(10L, 20L, 30L, 40L, 50L, 60L, 70L, 80L, 90L),
+            FastChecker.buildRangeBounds(BigInteger.valueOf(1), BigInteger.valueOf(100), 100, 10, 1000));
+        // capped by max range count
+        Assert.assertEquals(ImmutableList.of(25L, 50L, 75L),
+            FastChecker.buildRangeBounds(BigInteger.valueOf(1), BigInteger.valueOf(100), 100, 10, 4));
+        // capped by span of keys
+        Assert.assertEquals(ImmutableList.of(1L, 2L),
+            FastChecker.buildRangeBounds(BigInteger.valueOf(1), BigInteger.valueOf(3), 1000, 10, 100));
+        // single range
+        Assert.assertNull(FastChecker.buildRangeBounds(BigInteger.valueOf(1), BigInteger.valueOf(100), 5, 10, 100));
+        Assert.assertNull(FastChecker.buildRangeBounds(BigInteger.valueOf(7), BigInteger.valueOf(7), 1000, 10, 100));
+        // unsigned bigint beyond long
+        final BigInteger max = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        final List<Object> bounds = FastChecker.buildRangeBounds(BigInteger.ZERO, max, 1000, 50, 4);
+        Assert.assertEquals(3, bounds.size());
+        Assert.assertEquals((1L << 62) - 1, bounds.get(0));
+        Assert.assertEquals(Long.MAX_VALUE, bounds.get(1));
+        Assert.assertEquals(BigInteger.valueOf(3).shiftLeft(62).subtract(BigInteger.ONE), bounds.get(2));
+    }
+
+    @Test
+    public void testRangeState() {
+        FastChecker.RangeCheckState state = new FastChecker.RangeCheckState(ImmutableList.of(10L, 20L));
+        Assert.assertEquals(ImmutableList.of(0, 1, 2), new ArrayList<>(state.pendingRanges));
+        Assert.assertNull(state.lowerBound(0));
+        Assert.assertEquals(10L, state.upperBound(0));
+        Assert.assertEquals(10L, state.lowerBound(1));
+        Assert.assertEquals(20L, state.upperBound(1));
+        Assert.assertEquals(20L, state.lowerBound(2));
+        Assert.assertNull(state.upperBound(2));
+    }
+
+    @Test
+    public void testMatch() {
+        MockChecker checker = new MockChecker(keys(1, 100), keys(1, 100));
+        Assert.assertTrue(checker.check(FastChecker.ParallelPolicy.PhyTableParallel));
+        // every key is hashed exactly once on each side
+        Assert.assertEquals(10, checker.srcHashedRanges.size());
+        Assert.assertEquals(keys(1, 100), checker.hashedSrcKeys);
+    }
+
+    @Test
+    public void testRetryFailedRange() {
+        MockChecker checker = new MockChecker(keys(1, 100), keys(1, 100));
+        checker.failTimes.put(3, new AtomicInteger(1));
+        Assert.assertTrue(checker.check(FastChecker.ParallelPolicy.PhyTableParallel));
+        // the failed range is hashed again on all src tables
+        Assert.assertTrue(checker.srcHashedRanges.get(3).get() > MockChecker.GROUPS.length
+            * MockChecker.TABLE_COUNT_PER_GROUP);
+
+        // keep failing
+        checker = new MockChecker(keys(1, 100), keys(1, 100));
+        checker.failTimes.put(3, new AtomicInteger(Integer.MAX_VALUE));
+        Assert.assertFalse(checker.check(FastChecker.ParallelPolicy.PhyTableParallel));
+    }
+
+    @Test
+    public void testMismatch() {
+        final Set<Long> dstKeys = keys(1, 100);
+        dstKeys.remove(55L);
+        MockChecker checker = new MockChecker(keys(1, 100), dstKeys);
+        Assert.assertFalse(checker.check(FastChecker.ParallelPolicy.PhyTableParallel));
+
+        // nothing is kept from the last check, all ranges are checked again
+        dstKeys.add(55L);
+        checker.srcHashedRanges.clear();
+        Assert.assertTrue(checker.check(FastChecker.ParallelPolicy.PhyTableParallel));
+        Assert.assertEquals(10, checker.srcHashedRanges.size());
+    }
+
+    @Test
+    public void testGroupParallel() {
+        MockChecker checker = new MockChecker(keys(1, 100), keys(1, 100));
+        checker.hashSleepMillis = 2;
+        Assert.assertTrue(checker.check(FastChecker.ParallelPolicy.PhyGroupParallel));
+        for (AtomicInteger maxRunning : checker.maxRunningTasks.values()) {
+            Assert.assertEquals(1, maxRunning.get());
+        }
+        Assert.assertEquals(MockChecker.GROUPS.length, checker.maxRunningTasks.size());
+    }
+
+    private static Set<Long> keys(long from, long to) {
+        Set<Long> keys = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        for (long i = from; i <= to; i++) {
+            keys.add(i);
+        }
+        return keys;
+    }
+
+    /**
+     * Keys are spread among physical tables by key % table count, and the hash of a range is the sum of its keys.
+     */
+    private static class MockChecker extends FastChecker {
+        static final String[] GROUPS = {"G_000000", "G_000001"};
+        static final int TABLE_COUNT_PER_GROUP = 3;
+
+        final Set<Long> srcKeys;
+        final Set<Long> dstKeys;
+        final Map<Integer, AtomicInteger> failTimes = new ConcurrentHashMap<>();
+        final Map<Integer, AtomicInteger> srcHashedRanges = new ConcurrentHashMap<>();
+        final Set<Long> hashedSrcKeys = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        final Map<String, AtomicInteger> runningTasks = new ConcurrentHashMap<>();
+        final Map<String, AtomicInteger> maxRunningTasks = new ConcurrentHashMap<>();
+        long hashSleepMillis = 0;
+
+        MockChecker(Set<Long> srcKeys, Set<Long> dstKeys) {
+            super(SCHEMA, "t_src", "t_dst", null, phyTables("t_src"), phyTables("t_dst"), null, null, null, null,
+                null, null, 16, 1);
+            this.srcKeys = srcKeys;
+            this.dstKeys = dstKeys;
+            this.rangeKey = "id";
+            this.rangeRowCount = 10;
+            this.maxRangeCount = 100;
+        }
+
+        static Map<String, Set<String>> phyTables(String logicalTable) {
+            final Map<String, Set<String>> dbAndTb = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (int i = 0; i < GROUPS.length; i++) {
+                final Set<String> tables = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+                for (int j = 0; j < TABLE_COUNT_PER_GROUP; j++) {
+                    tables.add(logicalTable + "_" + (i * TABLE_COUNT_PER_GROUP + j));
+                }
+                dbAndTb.put(GROUPS[i], tables);
+            }
+            return dbAndTb;
+        }
+
+        boolean check(ParallelPolicy policy) {
+            return parallelRangeCheck(phyTables("t_src"), phyTables("t_dst"), new ExecutionContext(SCHEMA), 16,
+                policy);
+        }
+
+        private static boolean inTable(long key, String phyTable) {
+            final int tableIndex = Integer.parseInt(phyTable.substring(phyTable.lastIndexOf('_') + 1));
+            return key % (GROUPS.length * TABLE_COUNT_PER_GROUP) == tableIndex;
+        }
+
+        private static boolean inRange(long key, Object lowerBound, Object upperBound) {
+            return (lowerBound == null || key > (Long) lowerBound) && (upperBound == null || key <= (Long) upperBound);
+        }
+
+        @Override
+        RangeHash hashcheckForSingleRange(String phyDbName, String phyTable, ExecutionContext baseEc,
+                                          boolean isSrcTableTask, int rangeIndex, Object lowerBound,
+                                          Object upperBound) {
+            final int running = runningTasks.computeIfAbsent(phyDbName, k -> new AtomicInteger()).incrementAndGet();
+            maxRunningTasks.computeIfAbsent(phyDbName, k -> new AtomicInteger()).accumulateAndGet(running, Math::max);
+            try {
+                if (hashSleepMillis > 0) {
+                    Thread.sleep(hashSleepMillis);
+                }
+                if (isSrcTableTask) {
+                    srcHashedRanges.computeIfAbsent(rangeIndex, k -> new AtomicInteger()).incrementAndGet();
+                    final AtomicInteger fail = failTimes.get(rangeIndex);
+                    if (fail != null && fail.getAndDecrement() > 0) {
+                        throw new RuntimeException("mock failure of range " + rangeIndex);
+                    }
+                }
+                Long hash = null;
+                for (long key : isSrcTableTask ? srcKeys : dstKeys) {
+                    if (inTable(key, phyTable) && inRange(key, lowerBound, upperBound)) {
+                        hash = hash == null ? key : hash + key;
+                        if (isSrcTableTask) {
+                            hashedSrcKeys.add(key);
+                        }
+                    }
+                }
+                return new RangeHash(rangeIndex, isSrcTableTask, hash);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } finally {
+                runningTasks.get(phyDbName).decrementAndGet();
+            }
+        }
+
+        @Override
+        Pair<BigInteger, BigInteger> selectMinMaxKey(String phyDb, String phyTable, ExecutionContext baseEc) {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (long key : srcKeys) {
+                if (inTable(key, phyTable)) {
+                    min = Math.min(min, key);
+                    max = Math.max(max, key);
+                }
+            }
+            return min > max ? null : Pair.of(BigInteger.valueOf(min), BigInteger.valueOf(max));
+        }
+
+        @Override
+        long estimateRowCount(Map<String, Set<String>> phyDbAndTables) {
+            return srcKeys.size();
+        }
+    }
+}
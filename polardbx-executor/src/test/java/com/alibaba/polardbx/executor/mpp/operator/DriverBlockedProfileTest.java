@@ -0,0 +1,99 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.mpp.operator;
+
+import com.alibaba.polardbx.optimizer.statis.OperatorStatistics;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+public class DriverBlockedProfileTest {
+
+    @Test
+    public void testSameFutureProfiledOnce() throws Exception {
+        CountingStatistics statistics = new CountingStatistics();
+        Set<ListenableFuture<?>> profiling = Sets.newConcurrentHashSet();
+        SettableFuture<?> blocked = SettableFuture.create();
+
+        // the driver is woken up by revoke requests and gets the same blocked future again
+        for (int i = 0; i < 3; i++) {
+            Driver.addBlockedListener(blocked, statistics, BlockedReason.WAITING_FOR_OUTPUT, profiling);
+        }
+        TimeUnit.MILLISECONDS.sleep(5);
+        blocked.set(null);
+
+        Assert.assertEquals(1, statistics.count);
+        long duration = statistics.getBlockedDurations().get(BlockedReason.WAITING_FOR_OUTPUT.name());
+        Assert.assertTrue(duration >= TimeUnit.MILLISECONDS.toNanos(5));
+        Assert.assertTrue(profiling.isEmpty());
+    }
+
+    @Test
+    public void testDurationsByReason() {
+        CountingStatistics statistics = new CountingStatistics();
+        Set<ListenableFuture<?>> profiling = Sets.newConcurrentHashSet();
+        SettableFuture<?> memory = SettableFuture.create();
+        SettableFuture<?> storage1 = SettableFuture.create();
+        SettableFuture<?> storage2 = SettableFuture.create();
+
+        Driver.addBlockedListener(memory, statistics, BlockedReason.WAITING_FOR_MEMORY, profiling);
+        Driver.addBlockedListener(storage1, statistics, BlockedReason.WAITING_FOR_STORAGE, profiling);
+        Assert.assertEquals(2, profiling.size());
+        storage1.set(null);
+        Driver.addBlockedListener(storage2, statistics, BlockedReason.WAITING_FOR_STORAGE, profiling);
+        storage2.set(null);
+
+        // pending futures are not counted
+        Assert.assertEquals(2, statistics.count);
+        Assert.assertFalse(statistics.getBlockedDurations().containsKey(BlockedReason.WAITING_FOR_MEMORY.name()));
+        Assert.assertTrue(statistics.getBlockedDurations().containsKey(BlockedReason.WAITING_FOR_STORAGE.name()));
+
+        memory.set(null);
+        Assert.assertEquals(3, statistics.count);
+        Assert.assertTrue(statistics.getBlockedDurations().containsKey(BlockedReason.WAITING_FOR_MEMORY.name()));
+        Assert.assertTrue(profiling.isEmpty());
+    }
+
+    @Test
+    public void testProfiledAgainAfterDone() {
+        CountingStatistics statistics = new CountingStatistics();
+        Set<ListenableFuture<?>> profiling = Sets.newConcurrentHashSet();
+        SettableFuture<?> blocked = SettableFuture.create();
+
+        Driver.addBlockedListener(blocked, statistics, BlockedReason.WAITING_FOR_INPUT, profiling);
+        blocked.set(null);
+        // a done future runs the listener at once
+        Driver.addBlockedListener(blocked, statistics, BlockedReason.WAITING_FOR_INPUT, profiling);
+        Assert.assertEquals(2, statistics.count);
+        Assert.assertTrue(profiling.isEmpty());
+    }
+
+    private static class CountingStatistics extends OperatorStatistics {
+        private int count = 0;
+
+        @Override
+        public synchronized void addBlockedDuration(String reason, long nanoseconds) {
+            count++;
+            super.addBlockedDuration(reason, nanoseconds);
+        }
+    }
+}
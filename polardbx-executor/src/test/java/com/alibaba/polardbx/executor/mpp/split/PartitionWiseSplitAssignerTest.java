@@ -0,0 +1,172 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.mpp.split;
+
+import com.alibaba.polardbx.executor.mpp.metadata.Split;
+import com.alibaba.polardbx.optimizer.partition.PartitionByDefinition;
+import com.alibaba.polardbx.optimizer.partition.PartitionInfo;
+import com.alibaba.polardbx.optimizer.partition.PartitionLocation;
+import com.alibaba.polardbx.optimizer.partition.PartitionSpec;
+import com.alibaba.polardbx.optimizer.utils.ITransaction;
+import com.alibaba.polardbx.optimizer.utils.QueryConcurrencyPolicy;
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+public class PartitionWiseSplitAssignerTest {
+
+    private static final String[] GROUPS = {"G_000000", "G_000001"};
+
+    @Test
+    public void testAssignByPartition() {
+        PartitionWiseSplitAssigner assigner =
+            new PartitionWiseSplitAssigner(partitionInfo("t1", 4), partitionInfo("t2", 4), 2);
+        SplitInfo[] result = assigner.assign(
+            splitInfo(1, false, split(0, "t1_00000"), split(1, "t1_00001"), split(0, "t1_00002"),
+                split(1, "t1_00003")),
+            splitInfo(2, false, split(1, "t2_00003"), split(0, "t2_00002"), split(1, "t2_00001"),
+                split(0, "t2_00000")));
+        Assert.assertNotNull(result);
+        Assert.assertEquals(2, result.length);
+
+        List<List<Split>> left = buckets(result[0]);
+        List<List<Split>> right = buckets(result[1]);
+        Assert.assertEquals(2, left.size());
+        Assert.assertEquals(2, right.size());
+        for (int i = 0; i < left.size(); i++) {
+            Assert.assertEquals(suffixes(left.get(i)), suffixes(right.get(i)));
+        }
+        Assert.assertTrue(result[0].isPartitionWise());
+        Assert.assertTrue(result[1].isPartitionWise());
+        Assert.assertEquals(1, result[0].getSourceId());
+        Assert.assertEquals(2, result[1].getSourceId());
+    }
+
+    @Test
+    public void testAssignByGroup() {
+        PartitionWiseSplitAssigner assigner =
+            new PartitionWiseSplitAssigner(partitionInfo("t1", 4), partitionInfo("t2", 4), 2);
+        // splits scanning more than one partition are bucketed by group
+        SplitInfo[] result = assigner.assign(
+            splitInfo(1, false, split(0, "t1_00000", "t1_00002"), split(1, "t1_00001", "t1_00003")),
+            splitInfo(2, false, split(1, "t2_00001", "t2_00003"), split(0, "t2_00000", "t2_00002")));
+        Assert.assertNotNull(result);
+
+        List<List<Split>> left = buckets(result[0]);
+        List<List<Split>> right = buckets(result[1]);
+        for (int i = 0; i < left.size(); i++) {
+            Assert.assertEquals(1, left.get(i).size());
+            Assert.assertEquals(1, right.get(i).size());
+            Assert.assertEquals(((JdbcSplit) left.get(i).get(0).getConnectorSplit()).getDbIndex(),
+                ((JdbcSplit) right.get(i).get(0).getConnectorSplit()).getDbIndex());
+        }
+    }
+
+    @Test
+    public void testMoreBucketsThanPartitions() {
+        PartitionWiseSplitAssigner assigner =
+            new PartitionWiseSplitAssigner(partitionInfo("t1", 2), partitionInfo("t2", 2), 4);
+        SplitInfo[] result = assigner.assign(
+            splitInfo(1, false, split(0, "t1_00000"), split(1, "t1_00001")),
+            splitInfo(2, false, split(0, "t2_00000"), split(1, "t2_00001")));
+        Assert.assertNotNull(result);
+
+        // one bucket for each driver even if some are empty
+        Assert.assertEquals(4, buckets(result[0]).size());
+        Assert.assertEquals(4, buckets(result[1]).size());
+        int splitCount = 0;
+        for (List<Split> bucket : buckets(result[0])) {
+            splitCount += bucket.size();
+        }
+        Assert.assertEquals(2, splitCount);
+    }
+
+    @Test
+    public void testNotAligned() {
+        PartitionWiseSplitAssigner assigner =
+            new PartitionWiseSplitAssigner(partitionInfo("t1", 2), partitionInfo("t2", 2), 2);
+        Assert.assertNull(assigner.assign(
+            splitInfo(1, false, split(0, "t1_00000"), split(1, "unknown_00001")),
+            splitInfo(2, false, split(0, "t2_00000"), split(1, "t2_00001"))));
+        Assert.assertNull(assigner.assign(
+            splitInfo(1, true, split(0, "t1_00000"), split(1, "t1_00001")),
+            splitInfo(2, false, split(0, "t2_00000"), split(1, "t2_00001"))));
+    }
+
+    @Test
+    public void testNotPartitionWiseByDefault() {
+        Assert.assertFalse(splitInfo(1, false, split(0, "t1_00000")).isPartitionWise());
+    }
+
+    private static PartitionInfo partitionInfo(String tableName, int partitionCount) {
+        List<PartitionSpec> partitions = new ArrayList<>();
+        for (int i = 0; i < partitionCount; i++) {
+            PartitionSpec spec = new PartitionSpec();
+            spec.setName("p" + (i + 1));
+            spec.setPosition((long) (i + 1));
+            spec.setLocation(new PartitionLocation(GROUPS[i % GROUPS.length], phyTableName(tableName, i), (long) i));
+            partitions.add(spec);
+        }
+        PartitionByDefinition partitionBy = new PartitionByDefinition();
+        partitionBy.setPartitions(partitions);
+        PartitionInfo partitionInfo = new PartitionInfo();
+        partitionInfo.setTableName(tableName);
+        partitionInfo.setPartitionBy(partitionBy);
+        return partitionInfo;
+    }
+
+    private static String phyTableName(String tableName, int index) {
+        return String.format("%s_%05d", tableName, index);
+    }
+
+    private static Split split(int group, String... phyTables) {
+        List<List<String>> tableNames = new ArrayList<>();
+        for (String phyTable : phyTables) {
+            tableNames.add(ImmutableList.of(phyTable));
+        }
+        return new Split(false, new JdbcSplit("catalog", "schema", GROUPS[group], "", "select 1", null,
+            ImmutableList.of(), "127.0.0.1:3306", tableNames, ITransaction.RW.READ, false));
+    }
+
+    private static SplitInfo splitInfo(int sourceId, boolean expand, Split... splits) {
+        List<List<Split>> splitList = new ArrayList<>();
+        for (Split split : splits) {
+            splitList.add(Collections.singletonList(split));
+        }
+        return new SplitInfo(sourceId, expand, QueryConcurrencyPolicy.GROUP_CONCURRENT_BLOCK, splitList,
+            new HashMap<>(), 1, splits.length, false);
+    }
+
+    private static List<List<Split>> buckets(SplitInfo splitInfo) {
+        return new ArrayList<>(splitInfo.getSplits());
+    }
+
+    private static List<String> suffixes(List<Split> splits) {
+        List<String> suffixes = new ArrayList<>();
+        for (Split split : splits) {
+            String phyTable = ((JdbcSplit) split.getConnectorSplit()).getTableNames().get(0).get(0);
+            suffixes.add(phyTable.substring(phyTable.indexOf('_')));
+        }
+        Collections.sort(suffixes);
+        return suffixes;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.operator;
+
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.IntegerBlock;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.expression.calc.Aggregator;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Count;
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.Long2LongMax;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class SortAggExecTest extends BaseExecTest {
+
+    @Test
+    public void testGroupsAcrossChunks() {
+        MockExec inputExec = MockExec.builder(DataTypes.IntegerType, DataTypes.LongType)
+            .withChunk(new Chunk(
+                IntegerBlock.of(0, 0, 1, 1),
+                LongBlock.of(3L, null, 9L, 7L)))
+            .withChunk(new Chunk(
+                IntegerBlock.of(1, 2, 2, 3),
+                LongBlock.of(5L, 1L, 8L, null)))
+            .build();
+        List<DataType> outputColumn = new ArrayList<>();
+        outputColumn.add(DataTypes.IntegerType);
+        outputColumn.add(DataTypes.LongType);
+        outputColumn.add(DataTypes.LongType);
+
+        SortAggExec exec = new SortAggExec(inputExec, new int[] {0}, aggregators(), outputColumn, context);
+        SingleExecTest test = new SingleExecTest.Builder(exec).build();
+        test.exec();
+
+        assertExecResultByRow(test.result(), Collections.singletonList(new Chunk(
+            IntegerBlock.of(0, 1, 2, 3),
+            LongBlock.of(1L, 3L, 2L, 0L),
+            LongBlock.of(3L, 9L, 8L, null)
+        )), true);
+    }
+
+    @Test
+    public void testNoGroupBy() {
+        MockExec inputExec = MockExec.builder(DataTypes.IntegerType, DataTypes.LongType)
+            .withChunk(new Chunk(
+                IntegerBlock.of(0, 0, 1, 1),
+                LongBlock.of(3L, null, 9L, 7L)))
+            .withChunk(new Chunk(
+                IntegerBlock.of(1, 2, 2, 3),
+                LongBlock.of(5L, 1L, 10L, null)))
+            .build();
+        List<DataType> outputColumn = new ArrayList<>();
+        outputColumn.add(DataTypes.LongType);
+        outputColumn.add(DataTypes.LongType);
+
+        SortAggExec exec = new SortAggExec(inputExec, new int[0], aggregators(), outputColumn, context);
+        SingleExecTest test = new SingleExecTest.Builder(exec).build();
+        test.exec();
+
+        assertExecResultByRow(test.result(), Collections.singletonList(new Chunk(
+            LongBlock.of(6L),
+            LongBlock.of(10L)
+        )), true);
+    }
+
+    private static List<Aggregator> aggregators() {
+        List<Aggregator> aggregators = new ArrayList<>();
+        aggregators.add(new Count(new int[] {1}, false, -1));
+        aggregators.add(new Long2LongMax(1, DataTypes.LongType, DataTypes.LongType, -1));
+        return aggregators;
+    }
+}
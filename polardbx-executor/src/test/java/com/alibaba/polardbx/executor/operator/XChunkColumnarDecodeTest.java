@@ -0,0 +1,331 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.operator;
+
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.chunk.DoubleBlock;
+import com.alibaba.polardbx.optimizer.chunk.IntegerBlock;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
+import com.alibaba.polardbx.optimizer.chunk.SliceBlock;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.rpc.result.chunk.BlockDecoder;
+import com.alibaba.polardbx.rpc.result.chunk.block.DoubleBlockDecoder;
+import com.alibaba.polardbx.rpc.result.chunk.block.LongBlockDecoder;
+import com.alibaba.polardbx.rpc.result.chunk.block.SignedLongBlockDecoder;
+import com.alibaba.polardbx.rpc.result.chunk.block.StringBlockDecoder;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.mysql.cj.polarx.protobuf.PolarxResultset;
+import io.airlift.slice.Slice;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Round trip of values encoded into X-Protocol chunk columns, decoded by the bulk methods of block decoders
+ * and by {@link TableScanClient#decodeColumnarBlock}, compared with the values decoded row by row.
+ */
+public class XChunkColumnarDecodeTest {
+
+    private static final int UTF8MB4_GENERAL_CI = 45;
+    private static final int LATIN1_SWEDISH_CI = 8;
+
+    /**
+     * Rows fetched by each call, crossing the bytes of null bitmap and ending at the last row.
+     */
+    private static final int[] FETCH_SIZES = {1, 6, 1, 9, 3};
+
+    private static final Long[] LONGS = {
+        0L, null, 1L, 127L, 128L, null, null, -1L, Long.MAX_VALUE, Long.MIN_VALUE, 300L, null, 42L, 65536L,
+        null, 7L, Integer.MIN_VALUE - 1L, 5L, null, 9L};
+
+    private static final Double[] DOUBLES = {
+        0.0, -0.0, null, 1.5, Double.NaN, Double.MAX_VALUE, null, Double.MIN_VALUE, -3.25, null,
+        Double.NEGATIVE_INFINITY, 1e300, 2.0, null, 3.0, 4.0, null, 5.5, 6.0, null};
+
+    private static final String[] STRINGS = {
+        "", null, "a", "中文", null, "abcdefghijklmnopqrstuvwxyz0123456789", "", null, "x", "\u0000tail",
+        "😀", null, "b", "c", null, "dd", "eee", null, "", "last"};
+
+    @Test
+    public void testNextLongs() throws Exception {
+        PolarxResultset.ColumnMetaData meta = meta(PolarxResultset.ColumnMetaData.FieldType.UINT, 0);
+        PolarxResultset.Chunk chunk = chunk(longColumn(LONGS, false), LONGS.length);
+        assertLongs(new LongBlockDecoder(chunk, 0, meta), new LongBlockDecoder(chunk, 0, meta));
+    }
+
+    @Test
+    public void testNextSignedLongs() throws Exception {
+        PolarxResultset.ColumnMetaData meta = meta(PolarxResultset.ColumnMetaData.FieldType.SINT, 0);
+        PolarxResultset.Chunk chunk = chunk(longColumn(LONGS, true), LONGS.length);
+        assertLongs(new SignedLongBlockDecoder(chunk, 0, meta), new SignedLongBlockDecoder(chunk, 0, meta));
+    }
+
+    @Test
+    public void testNextDoubles() throws Exception {
+        PolarxResultset.ColumnMetaData meta = meta(PolarxResultset.ColumnMetaData.FieldType.DOUBLE, 0);
+        PolarxResultset.Chunk chunk = chunk(doubleColumn(DOUBLES), DOUBLES.length);
+        BlockDecoder bulk = new DoubleBlockDecoder(chunk, 0, meta);
+        BlockDecoder rowByRow = new DoubleBlockDecoder(chunk, 0, meta);
+        for (int fetchSize : FETCH_SIZES) {
+            double[] values = new double[fetchSize];
+            boolean[] nulls = new boolean[fetchSize];
+            boolean hasNull = bulk.nextDoubles(values, nulls, fetchSize);
+            boolean expectHasNull = false;
+            for (int i = 0; i < fetchSize; i++) {
+                Assert.assertTrue(rowByRow.next());
+                Assert.assertEquals(rowByRow.isNull(), nulls[i]);
+                expectHasNull |= rowByRow.isNull();
+                if (!nulls[i]) {
+                    Assert.assertEquals(Double.doubleToLongBits(rowByRow.getDouble()),
+                        Double.doubleToLongBits(values[i]));
+                }
+            }
+            Assert.assertEquals(expectHasNull, hasNull);
+            Assert.assertEquals(rowByRow.isNull(), bulk.isNull());
+            Assert.assertEquals(rowByRow.restCount(), bulk.restCount());
+        }
+        Assert.assertEquals(0, bulk.restCount());
+    }
+
+    @Test
+    public void testNextStrings() throws Exception {
+        PolarxResultset.ColumnMetaData meta =
+            meta(PolarxResultset.ColumnMetaData.FieldType.BYTES, UTF8MB4_GENERAL_CI);
+        PolarxResultset.Chunk chunk = chunk(stringColumn(STRINGS), STRINGS.length);
+        BlockDecoder bulk = new StringBlockDecoder(chunk, 0, meta);
+        BlockDecoder rowByRow = new StringBlockDecoder(chunk, 0, meta);
+        for (int fetchSize : FETCH_SIZES) {
+            int[] ends = new int[fetchSize];
+            boolean[] nulls = new boolean[fetchSize];
+            byte[] buffer = bulk.nextStrings(ends, nulls, fetchSize);
+            int begin = 0;
+            for (int i = 0; i < fetchSize; i++) {
+                Assert.assertTrue(rowByRow.next());
+                Assert.assertEquals(rowByRow.isNull(), nulls[i]);
+                if (nulls[i]) {
+                    Assert.assertEquals(begin, ends[i]);
+                } else {
+                    Assert.assertEquals(toString(rowByRow.getString()),
+                        new String(buffer, begin, ends[i] - begin, StandardCharsets.UTF_8));
+                }
+                begin = ends[i];
+            }
+            // the current value is the last decoded one
+            Assert.assertEquals(rowByRow.isNull(), bulk.isNull());
+            if (!bulk.isNull()) {
+                Assert.assertEquals(toString(rowByRow.getString()), toString(bulk.getString()));
+            }
+        }
+        Assert.assertEquals(0, bulk.restCount());
+    }
+
+    @Test
+    public void testNoNullBitmap() throws Exception {
+        Long[] values = {1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L};
+        PolarxResultset.ColumnMetaData meta = meta(PolarxResultset.ColumnMetaData.FieldType.UINT, 0);
+        PolarxResultset.Chunk chunk = chunk(longColumn(values, false), values.length);
+
+        Block block = TableScanClient.decodeColumnarBlock(DataTypes.LongType, meta,
+            new LongBlockDecoder(chunk, 0, meta), values.length);
+        Assert.assertTrue(block instanceof LongBlock);
+        Assert.assertFalse(block.mayHaveNull());
+        assertBlock(values, 0, block);
+    }
+
+    @Test
+    public void testDecodeColumnarBlock() throws Exception {
+        PolarxResultset.ColumnMetaData longMeta = meta(PolarxResultset.ColumnMetaData.FieldType.SINT, 0);
+        PolarxResultset.ColumnMetaData doubleMeta = meta(PolarxResultset.ColumnMetaData.FieldType.DOUBLE, 0);
+        PolarxResultset.ColumnMetaData stringMeta =
+            meta(PolarxResultset.ColumnMetaData.FieldType.BYTES, UTF8MB4_GENERAL_CI);
+        Integer[] ints = new Integer[LONGS.length];
+        for (int i = 0; i < LONGS.length; i++) {
+            ints[i] = LONGS[i] == null ? null : LONGS[i].intValue();
+        }
+        PolarxResultset.Chunk chunk = chunk(LONGS.length,
+            longColumn(LONGS, true), longColumn(ints, true), doubleColumn(DOUBLES), stringColumn(STRINGS));
+
+        BlockDecoder[] decoders = {
+            new SignedLongBlockDecoder(chunk, 0, longMeta), new SignedLongBlockDecoder(chunk, 1, longMeta),
+            new DoubleBlockDecoder(chunk, 2, doubleMeta), new StringBlockDecoder(chunk, 3, stringMeta)};
+        DataType[] types = {DataTypes.LongType, DataTypes.IntegerType, DataTypes.DoubleType, DataTypes.VarcharType};
+        PolarxResultset.ColumnMetaData[] metas = {longMeta, longMeta, doubleMeta, stringMeta};
+        Class[] blockClasses = {LongBlock.class, IntegerBlock.class, DoubleBlock.class, SliceBlock.class};
+        Object[][] expected = {LONGS, ints, DOUBLES, STRINGS};
+
+        int offset = 0;
+        for (int fetchSize : FETCH_SIZES) {
+            for (int i = 0; i < decoders.length; i++) {
+                Block block = TableScanClient.decodeColumnarBlock(types[i], metas[i], decoders[i], fetchSize);
+                Assert.assertTrue(blockClasses[i].isInstance(block));
+                assertBlock(expected[i], offset, block);
+            }
+            offset += fetchSize;
+        }
+        Assert.assertEquals(LONGS.length, offset);
+    }
+
+    @Test
+    public void testNotColumnar() throws Exception {
+        PolarxResultset.ColumnMetaData meta =
+            meta(PolarxResultset.ColumnMetaData.FieldType.BYTES, LATIN1_SWEDISH_CI);
+        PolarxResultset.Chunk chunk = chunk(stringColumn(STRINGS), STRINGS.length);
+        BlockDecoder decoder = new StringBlockDecoder(chunk, 0, meta);
+
+        // other charsets fall back to block builders, and the decoder is left untouched
+        Assert.assertNull(TableScanClient.decodeColumnarBlock(DataTypes.VarcharType, meta, decoder, 4));
+        Assert.assertEquals(STRINGS.length, decoder.restCount());
+    }
+
+    private static void assertLongs(BlockDecoder bulk, BlockDecoder rowByRow) throws Exception {
+        for (int fetchSize : FETCH_SIZES) {
+            long[] values = new long[fetchSize];
+            boolean[] nulls = new boolean[fetchSize];
+            boolean hasNull = bulk.nextLongs(values, nulls, fetchSize);
+            boolean expectHasNull = false;
+            for (int i = 0; i < fetchSize; i++) {
+                Assert.assertTrue(rowByRow.next());
+                Assert.assertEquals(rowByRow.isNull(), nulls[i]);
+                expectHasNull |= rowByRow.isNull();
+                Assert.assertEquals(rowByRow.isNull() ? 0 : rowByRow.getLong(), values[i]);
+            }
+            Assert.assertEquals(expectHasNull, hasNull);
+            Assert.assertEquals(rowByRow.isNull(), bulk.isNull());
+            if (!bulk.isNull()) {
+                Assert.assertEquals(rowByRow.getLong(), bulk.getLong());
+            }
+            Assert.assertEquals(rowByRow.restCount(), bulk.restCount());
+        }
+        Assert.assertEquals(0, bulk.restCount());
+        Assert.assertFalse(bulk.next());
+    }
+
+    private static void assertBlock(Object[] expected, int offset, Block block) {
+        for (int i = 0; i < block.getPositionCount(); i++) {
+            Object value = expected[offset + i];
+            if (value == null) {
+                Assert.assertTrue(block.isNull(i));
+            } else if (value instanceof String) {
+                Assert.assertFalse(block.isNull(i));
+                Assert.assertEquals(value, ((Slice) block.getObject(i)).toStringUtf8());
+            } else if (value instanceof Double) {
+                Assert.assertFalse(block.isNull(i));
+                Assert.assertEquals(Double.doubleToLongBits((Double) value),
+                    Double.doubleToLongBits((Double) block.getObject(i)));
+            } else {
+                Assert.assertEquals(value, block.getObject(i));
+            }
+        }
+    }
+
+    private static String toString(com.alibaba.polardbx.rpc.result.chunk.Slice slice) {
+        return new String(slice.getData(), slice.getOffset(), slice.getLength(), StandardCharsets.UTF_8);
+    }
+
+    private static PolarxResultset.ColumnMetaData meta(PolarxResultset.ColumnMetaData.FieldType type,
+                                                       int collation) {
+        PolarxResultset.ColumnMetaData.Builder builder = PolarxResultset.ColumnMetaData.newBuilder()
+            .setType(type)
+            .setOriginalType(PolarxResultset.ColumnMetaData.OriginalType.MYSQL_TYPE_LONGLONG);
+        if (collation > 0) {
+            builder.setCollation(collation);
+        }
+        return builder.build();
+    }
+
+    private static PolarxResultset.Chunk chunk(PolarxResultset.Column column, int rowCount) {
+        return chunk(rowCount, column);
+    }
+
+    private static PolarxResultset.Chunk chunk(int rowCount, PolarxResultset.Column... columns) {
+        PolarxResultset.Chunk.Builder builder = PolarxResultset.Chunk.newBuilder().setRowCount(rowCount);
+        for (PolarxResultset.Column column : columns) {
+            builder.addColumns(column);
+        }
+        return builder.build();
+    }
+
+    private static PolarxResultset.Column longColumn(Number[] values, boolean zigZag) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        for (Number value : values) {
+            if (value != null) {
+                long v = value.longValue();
+                out.writeInt64NoTag(zigZag ? CodedOutputStream.encodeZigZag64(v) : v);
+            }
+        }
+        out.flush();
+        return column(values, bytes.toByteArray(), true);
+    }
+
+    private static PolarxResultset.Column doubleColumn(Double[] values) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        for (Double value : values) {
+            if (value != null) {
+                out.writeDoubleNoTag(value);
+            }
+        }
+        out.flush();
+        return column(values, bytes.toByteArray(), true);
+    }
+
+    private static PolarxResultset.Column stringColumn(String[] values) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        for (String value : values) {
+            if (value != null) {
+                byte[] data = value.getBytes(StandardCharsets.UTF_8);
+                // with '\0' tail
+                out.writeInt32NoTag(data.length + 1);
+                out.writeRawBytes(data);
+                out.writeRawByte(0);
+            }
+        }
+        out.flush();
+        return column(values, bytes.toByteArray(), false);
+    }
+
+    private static PolarxResultset.Column column(Object[] values, byte[] data, boolean fixedSize) {
+        PolarxResultset.Column.Builder builder = PolarxResultset.Column.newBuilder();
+        if (fixedSize) {
+            builder.setFixedSizeColumn(
+                PolarxResultset.FixedSizeColumn.newBuilder().setValue(ByteString.copyFrom(data)));
+        } else {
+            builder.setVariableSizeColumn(
+                PolarxResultset.VariableSizeColumn.newBuilder().setValue(ByteString.copyFrom(data)));
+        }
+        byte[] bitmap = new byte[(values.length + Byte.SIZE - 1) / Byte.SIZE];
+        boolean hasNull = false;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                // the first row is the most significant bit
+                bitmap[i / Byte.SIZE] |= (byte) (1 << (7 - i % Byte.SIZE));
+                hasNull = true;
+            }
+        }
+        if (hasNull) {
+            builder.setNullBitmap(ByteString.copyFrom(bitmap));
+        }
+        return builder.build();
+    }
+}
@@ -37,6 +37,8 @@ import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.executor.mpp.execution.buffer.PagesSerde;
 import com.alibaba.polardbx.executor.mpp.execution.buffer.PagesSerdeFactory;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.executor.operator.util.RowChunkBuilder;
+import com.alibaba.polardbx.optimizer.spill.LocalSpillMonitor;
 import com.alibaba.polardbx.optimizer.spill.QuerySpillSpaceMonitor;
 import org.apache.commons.io.FileUtils;
 import org.junit.After;
@@ -51,6 +53,7 @@ import static com.alibaba.polardbx.executor.operator.BaseExecTest.assertExecResu
 import static com.alibaba.polardbx.executor.operator.util.RowChunkBuilder.rowChunkBuilder;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
 
 public class TestFileSingleStreamSpiller {
 
@@ -97,6 +100,40 @@ public class TestFileSingleStreamSpiller {
         assertEquals(0, FileUtils.listFiles(spillPath, null, false).size());
     }
 
+    @Test
+    public void testSpillWithCompressionAndChecksum()
+        throws Exception {
+        PagesSerdeFactory serdeFactory = new PagesSerdeFactory(true, true, true);
+        PagesSerde serde = serdeFactory.createPagesSerde(ImmutableList.of(
+            DataTypes.LongType, DataTypes.StringType));
+        LocalSpillMonitor spillMonitor = new QuerySpillSpaceMonitor().newLocalSpillMonitor();
+        FileSingleStreamSpiller spiller =
+            new FileSingleStreamSpiller(serde, executor, new SyncFileCleaner(), spillPath.toPath(), spillMonitor);
+
+        RowChunkBuilder builder = rowChunkBuilder(DataTypes.LongType, DataTypes.StringType);
+        for (int i = 0; i < 1000; i++) {
+            builder.row((long) i, "polardbx-spill-" + (i % 10));
+        }
+        Chunk page = builder.build();
+
+        // enough chunks to probe both codecs
+        int pageCount = 40;
+        for (int i = 0; i < pageCount; i++) {
+            spiller.spill(page).get();
+        }
+        spiller.flush();
+        ImmutableList<Chunk> spilledPages = ImmutableList.copyOf(spiller.getSpilledChunks());
+
+        assertEquals(pageCount, spilledPages.size());
+        for (Chunk spilledPage : spilledPages) {
+            assertExecResultByRow(ImmutableList.of(page), ImmutableList.of(spilledPage), true);
+        }
+        assertTrue(spillMonitor.totalCompressedBytes() < spillMonitor.totalUncompressedBytes());
+
+        spiller.close();
+        assertEquals(0, FileUtils.listFiles(spillPath, null, false).size());
+    }
+
     private Chunk buildPage() {
         return rowChunkBuilder(DataTypes.LongType, DataTypes.DoubleType)
             .row(42L, 43.0)
@@ -0,0 +1,122 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import com.alibaba.polardbx.executor.mpp.metadata.Split;
+import com.alibaba.polardbx.executor.mpp.split.JdbcSplit;
+import com.alibaba.polardbx.optimizer.utils.ITransaction;
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class AdaptivePrefetchSchedulerTest {
+
+    @Test
+    public void testSlowNodeIsAvoided() {
+        AdaptivePrefetchScheduler scheduler = new AdaptivePrefetchScheduler(4, true);
+        for (int i = 0; i < 4; i++) {
+            scheduler.addSplit(split("slow_group", "10.0.0.1:3306"));
+        }
+        for (int i = 0; i < 4; i++) {
+            scheduler.addSplit(split("fast_group", "10.0.0.2:3306"));
+        }
+
+        // unknown nodes are scheduled in turn
+        JdbcSplit first = jdbcSplit(scheduler.next());
+        JdbcSplit second = jdbcSplit(scheduler.next());
+        Assert.assertEquals("slow_group", first.getDbIndex());
+        Assert.assertEquals("fast_group", second.getDbIndex());
+
+        scheduler.onReady(first, TimeUnit.SECONDS.toNanos(1));
+        scheduler.onReady(second, TimeUnit.MILLISECONDS.toNanos(1));
+        scheduler.onComplete(second);
+
+        // the rest of splits on fast node go ahead of the earlier splits on slow node
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals("fast_group", jdbcSplit(scheduler.next()).getDbIndex());
+        }
+        Assert.assertEquals(4, scheduler.getReorderedCount());
+    }
+
+    @Test
+    public void testFifoIfNotAdaptive() {
+        AdaptivePrefetchScheduler scheduler = new AdaptivePrefetchScheduler(4, false);
+        String[] groups = {"slow_group", "fast_group", "slow_group", "fast_group", "slow_group"};
+        for (String group : groups) {
+            scheduler.addSplit(split(group, group.equals("slow_group") ? "10.0.0.1:3306" : "10.0.0.2:3306"));
+        }
+
+        JdbcSplit first = jdbcSplit(scheduler.next());
+        JdbcSplit second = jdbcSplit(scheduler.next());
+        scheduler.onReady(first, TimeUnit.SECONDS.toNanos(1));
+        scheduler.onReady(second, TimeUnit.MILLISECONDS.toNanos(1));
+        scheduler.onComplete(second);
+
+        // latency of nodes does not change the order
+        Assert.assertEquals(groups[0], first.getDbIndex());
+        Assert.assertEquals(groups[1], second.getDbIndex());
+        for (int i = 2; i < groups.length; i++) {
+            Assert.assertEquals(groups[i], jdbcSplit(scheduler.next()).getDbIndex());
+        }
+        Assert.assertNull(scheduler.next());
+        Assert.assertEquals(0, scheduler.getReorderedCount());
+    }
+
+    @Test
+    public void testSingleNodeIsNotReordered() {
+        AdaptivePrefetchScheduler scheduler = new AdaptivePrefetchScheduler(4, true);
+        for (int i = 0; i < 3; i++) {
+            scheduler.addSplit(split("group_" + i, "10.0.0.1:3306"));
+        }
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals("group_" + i, jdbcSplit(scheduler.next()).getDbIndex());
+        }
+        Assert.assertNull(scheduler.next());
+        Assert.assertEquals(0, scheduler.getReorderedCount());
+    }
+
+    @Test
+    public void testConcurrencyFollowsConsumer() {
+        AdaptivePrefetchScheduler scheduler = new AdaptivePrefetchScheduler(8, true);
+        Assert.assertEquals(8, scheduler.getTargetPrefetch());
+
+        // consumer falls behind
+        scheduler.onConsume(true, 6, 8);
+        Assert.assertEquals(4, scheduler.getTargetPrefetch());
+        Assert.assertEquals(1, scheduler.getThrottleCount());
+
+        // consumer is starved
+        scheduler.onConsume(false, 0, 4);
+        Assert.assertEquals(5, scheduler.getTargetPrefetch());
+        Assert.assertEquals(8, scheduler.getMaxConcurrency());
+
+        AdaptivePrefetchScheduler fixed = new AdaptivePrefetchScheduler(8, false);
+        fixed.onConsume(true, 6, 8);
+        Assert.assertEquals(8, fixed.getTargetPrefetch());
+    }
+
+    private static Split split(String dbIndex, String hostAddress) {
+        return new Split(false, new JdbcSplit("catalog", "schema", dbIndex, "", "select 1", null,
+            ImmutableList.of(), hostAddress, ImmutableList.of(), ITransaction.RW.READ, false));
+    }
+
+    private static JdbcSplit jdbcSplit(Split split) {
+        return (JdbcSplit) split.getConnectorSplit();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.IntegerBlock;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
+import com.alibaba.polardbx.optimizer.chunk.StringBlock;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class GroupOpenHashMapTest {
+
+    @Test
+    public void testSingleLongKey() {
+        GroupOpenHashMap hashMap =
+            new GroupOpenHashMap(new DataType[] {DataTypes.LongType}, 4, 1024, new ExecutionContext());
+
+        int[] groupIds = new int[6];
+        hashMap.innerPutChunk(new Chunk(LongBlock.of(1L, null, 1L, 0L, null, 2L)), groupIds);
+        assertArrayEquals(new int[] {0, 1, 0, 2, 1, 3}, groupIds);
+
+        // row-by-row put should find the same groups
+        Chunk chunk = new Chunk(LongBlock.of(2L, 0L, null, 5L));
+        int[] expected = {3, 2, 1, 4};
+        for (int i = 0; i < chunk.getPositionCount(); i++) {
+            assertEquals(expected[i], hashMap.innerPut(chunk, i, -1));
+        }
+        assertEquals(5, hashMap.getGroupCount());
+    }
+
+    @Test
+    public void testTwoColumnKeyWithRehash() {
+        final int count = 10000;
+        GroupOpenHashMap hashMap = new GroupOpenHashMap(new DataType[] {DataTypes.IntegerType, DataTypes.LongType},
+            16, 1024, new ExecutionContext());
+
+        Integer[] key1 = new Integer[count];
+        Long[] key2 = new Long[count];
+        for (int i = 0; i < count; i++) {
+            key1[i] = i % 100;
+            key2[i] = (long) (i / 100);
+        }
+        int[] groupIds = new int[count];
+        hashMap.innerPutChunk(new Chunk(IntegerBlock.of(key1), LongBlock.of(key2)), groupIds);
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, groupIds[i]);
+        }
+
+        // all keys exist after several rehash
+        int[] groupIdsAgain = new int[count];
+        hashMap.innerPutChunk(new Chunk(IntegerBlock.of(key1), LongBlock.of(key2)), groupIdsAgain);
+        assertArrayEquals(groupIds, groupIdsAgain);
+        assertEquals(count, hashMap.getGroupCount());
+    }
+
+    @Test
+    public void testVariableWidthKey() {
+        GroupOpenHashMap hashMap = new GroupOpenHashMap(new DataType[] {DataTypes.StringType, DataTypes.LongType},
+            4, 1024, new ExecutionContext());
+
+        int[] groupIds = new int[5];
+        hashMap.innerPutChunk(new Chunk(StringBlock.of("a", "b", "a", null, null),
+            LongBlock.of(1L, 1L, 1L, null, 2L)), groupIds);
+        assertArrayEquals(new int[] {0, 1, 0, 2, 3}, groupIds);
+    }
+}
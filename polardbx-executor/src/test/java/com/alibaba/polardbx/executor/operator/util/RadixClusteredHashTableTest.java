@@ -0,0 +1,95 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.IntegerBlock;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class RadixClusteredHashTableTest {
+
+    private static final int CHUNK_COUNT = 20;
+    private static final int CHUNK_SIZE = 1000;
+    private static final int KEY_RANGE = 5000;
+
+    @Test
+    public void testSingleWorker() {
+        doTest(1);
+    }
+
+    @Test
+    public void testMultiWorkers() {
+        doTest(7);
+    }
+
+    private void doTest(int workerCount) {
+        Random random = new Random(42);
+        ChunksIndex keyChunks = new ChunksIndex();
+        List<RadixClusteredHashTable.ClusteredChunk> clusteredChunks = new ArrayList<>();
+        for (int i = 0; i < CHUNK_COUNT; i++) {
+            Chunk keyChunk = new Chunk(IntegerBlock.of(randomKeys(random, CHUNK_SIZE)));
+            RadixClusteredHashTable.ClusteredChunk clusteredChunk = RadixClusteredHashTable.cluster(keyChunk);
+            clusteredChunk.setBasePosition(keyChunks.getPositionCount());
+            keyChunks.addChunk(keyChunk);
+            clusteredChunks.add(clusteredChunk);
+        }
+
+        RadixClusteredHashTable hashTable =
+            new RadixClusteredHashTable(clusteredChunks, keyChunks.getPositionCount());
+        for (int worker = 0; worker < workerCount; worker++) {
+            hashTable.buildPartitions(clusteredChunks, worker, workerCount, null);
+        }
+
+        Chunk probeChunk = new Chunk(IntegerBlock.of(randomKeys(random, CHUNK_SIZE * 2)));
+        int[] hashCodes = probeChunk.hashCodeVector();
+        int[] heads = new int[probeChunk.getPositionCount()];
+        hashTable.getAll(hashCodes, probeChunk.getPositionCount(), heads, null);
+
+        for (int i = 0; i < probeChunk.getPositionCount(); i++) {
+            assertEquals(hashTable.get(hashCodes[i]), heads[i]);
+
+            int expected = 0;
+            for (int position = 0; position < keyChunks.getPositionCount(); position++) {
+                if (keyChunks.equals(position, probeChunk, i)) {
+                    expected++;
+                }
+            }
+            int actual = 0;
+            for (int position = heads[i]; position != RadixClusteredHashTable.NOT_EXISTS;
+                 position = hashTable.next(position)) {
+                if (keyChunks.equals(position, probeChunk, i)) {
+                    actual++;
+                }
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    private static Integer[] randomKeys(Random random, int count) {
+        Integer[] keys = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = random.nextInt(KEY_RANGE);
+        }
+        return keys;
+    }
+}
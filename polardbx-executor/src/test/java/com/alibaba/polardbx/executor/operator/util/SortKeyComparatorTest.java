@@ -0,0 +1,107 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.executor.operator.util;
+
+import com.alibaba.polardbx.executor.utils.ExecUtils;
+import com.alibaba.polardbx.executor.utils.OrderByOption;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.IntegerBlock;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
+import com.alibaba.polardbx.optimizer.chunk.StringBlock;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class SortKeyComparatorTest {
+
+    private final List<DataType> columnMetas =
+        ImmutableList.of(DataTypes.LongType, DataTypes.IntegerType, DataTypes.StringType);
+
+    private final Chunk chunk1 = new Chunk(
+        LongBlock.of(3L, null, -1L, 3L, Long.MIN_VALUE + 1),
+        IntegerBlock.of(1, 2, null, 0, 5),
+        StringBlock.of("b", "a", null, "c", "a"));
+
+    private final Chunk chunk2 = new Chunk(
+        LongBlock.of(null, 7L, 3L, -1L),
+        IntegerBlock.of(null, 2, 1, 3),
+        StringBlock.of("x", null, "b", "y"));
+
+    @Test
+    public void testMaterializedKeys() {
+        for (boolean asc : new boolean[] {true, false}) {
+            List<OrderByOption> orderBys = ImmutableList.of(
+                new OrderByOption(0, asc, false),
+                new OrderByOption(1, !asc, false),
+                new OrderByOption(2, asc, false));
+
+            ChunksIndex chunksIndex = new ChunksIndex();
+            chunksIndex.addChunk(chunk1);
+            chunksIndex.addChunk(chunk2);
+
+            SortKeyComparator.MaterializedKeys keys =
+                SortKeyComparator.materialize(SortKeyComparator.create(orderBys, columnMetas), chunksIndex);
+            for (int i = 0; i < chunksIndex.getPositionCount(); i++) {
+                for (int j = 0; j < chunksIndex.getPositionCount(); j++) {
+                    assertEquals(Integer.signum(expectedCompare(orderBys, chunksIndex, i, j)),
+                        Integer.signum(keys.compare(i, j)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testChunkWithPositionComparator() {
+        List<OrderByOption> orderBys = ImmutableList.of(
+            new OrderByOption(1, false, false),
+            new OrderByOption(0, true, false));
+
+        ChunksIndex chunksIndex = new ChunksIndex();
+        chunksIndex.addChunk(chunk1);
+        chunksIndex.addChunk(chunk2);
+
+        ChunkWithPositionComparator comparator = new ChunkWithPositionComparator(orderBys, columnMetas);
+        for (int i = 0; i < chunk1.getPositionCount(); i++) {
+            for (int j = 0; j < chunk2.getPositionCount(); j++) {
+                assertEquals(Integer.signum(expectedCompare(orderBys, chunksIndex, i, chunk1.getPositionCount() + j)),
+                    Integer.signum(comparator.compareTo(chunk1, i, chunk2, j)));
+            }
+        }
+    }
+
+    private int expectedCompare(List<OrderByOption> orderBys, ChunksIndex chunksIndex, int position1,
+                                int position2) {
+        for (OrderByOption orderBy : orderBys) {
+            Object o1 = chunksIndex.getObjectForCmp(orderBy.getIndex(), position1);
+            Object o2 = chunksIndex.getObjectForCmp(orderBy.getIndex(), position2);
+            if (o1 == null && o2 == null) {
+                continue;
+            }
+            int n = ExecUtils.comp(o1, o2, columnMetas.get(orderBy.getIndex()), orderBy.isAsc());
+            if (n != 0) {
+                return n;
+            }
+        }
+        return 0;
+    }
+}
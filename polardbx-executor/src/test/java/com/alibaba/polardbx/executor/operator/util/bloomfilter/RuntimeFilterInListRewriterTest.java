@@ -0,0 +1,95 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.operator.util.bloomfilter;
+
+import com.alibaba.polardbx.common.jdbc.ParameterContext;
+import com.alibaba.polardbx.common.jdbc.ParameterMethod;
+import com.alibaba.polardbx.common.utils.Pair;
+import com.alibaba.polardbx.util.bloomfilter.BloomFilterInfo;
+import com.alibaba.polardbx.util.bloomfilter.HashMethodInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class RuntimeFilterInListRewriterTest {
+
+    private static final String SQL =
+        "/*DRDS /127.0.0.1/?/ */SELECT `a` FROM `t` WHERE `b` = '?' AND `c` = ? "
+            + "AND (`a` BETWEEN ? AND ? AND (? OR `a` IN (?)))";
+
+    @Test
+    public void testExpandInList() {
+        BloomFilterInfo info = newInfo(new long[] {1, 3, 5});
+        Pair<String, List<ParameterContext>> result = RuntimeFilterInListRewriter.rewrite(SQL, newParams(info), 10);
+
+        Assert.assertNotNull(result);
+        Assert.assertEquals("/*DRDS /127.0.0.1/?/ */SELECT `a` FROM `t` WHERE `b` = '?' AND `c` = ? "
+            + "AND (`a` BETWEEN ? AND ? AND (? OR `a` IN (?,?,?)))", result.getKey());
+
+        List<ParameterContext> params = result.getValue();
+        Assert.assertEquals(7, params.size());
+        Assert.assertEquals(ParameterMethod.setString, params.get(0).getParameterMethod());
+        Assert.assertEquals(ParameterMethod.setRuntimeFilterMinValue, params.get(1).getParameterMethod());
+        Assert.assertEquals(ParameterMethod.setRuntimeFilterMaxValue, params.get(2).getParameterMethod());
+        Assert.assertEquals(ParameterMethod.setInt, params.get(3).getParameterMethod());
+        Assert.assertEquals(0, params.get(3).getValue());
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(ParameterMethod.setLong, params.get(4 + i).getParameterMethod());
+            Assert.assertEquals(2L * i + 1, params.get(4 + i).getValue());
+        }
+    }
+
+    @Test
+    public void testSkipInList() {
+        Assert.assertNull(RuntimeFilterInListRewriter.rewrite(SQL, newParams(newInfo(new long[] {1, 3, 5})), 2));
+        Assert.assertNull(RuntimeFilterInListRewriter.rewrite(SQL, newParams(newInfo(null)), 10));
+        Assert.assertNull(RuntimeFilterInListRewriter.rewrite(SQL, newParams(newInfo(new long[0])), 10));
+    }
+
+    @Test
+    public void testMergeInValues() {
+        BloomFilterInfo info = newInfo(new long[] {1, 3, 5});
+        info.mergeBloomFilter(newInfo(new long[] {2, 3, 7}));
+        Assert.assertArrayEquals(new long[] {1, 2, 3, 5, 7}, info.getInValues());
+        Assert.assertEquals(Long.valueOf(1), info.getMinValue());
+        Assert.assertEquals(Long.valueOf(7), info.getMaxValue());
+
+        info.mergeBloomFilter(newInfo(null));
+        Assert.assertNull(info.getInValues());
+    }
+
+    private static BloomFilterInfo newInfo(long[] inValues) {
+        Long minValue = inValues == null || inValues.length == 0 ? null : inValues[0];
+        Long maxValue = inValues == null || inValues.length == 0 ? null : inValues[inValues.length - 1];
+        return new BloomFilterInfo(1, new long[1], 2, HashMethodInfo.defaultHashMethod(), minValue, maxValue,
+            inValues);
+    }
+
+    private static List<ParameterContext> newParams(BloomFilterInfo info) {
+        List<ParameterContext> params = new ArrayList<>();
+        params.add(new ParameterContext(ParameterMethod.setString, new Object[] {1, "x"}));
+        for (ParameterMethod method : Arrays.asList(ParameterMethod.setRuntimeFilterMinValue,
+            ParameterMethod.setRuntimeFilterMaxValue, ParameterMethod.setRuntimeFilterSkipInList,
+            ParameterMethod.setRuntimeFilterInList)) {
+            params.add(new ParameterContext(method, new Object[] {null, 1, info}));
+        }
+        return params;
+    }
+}
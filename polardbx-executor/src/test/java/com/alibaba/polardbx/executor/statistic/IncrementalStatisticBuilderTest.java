@@ -0,0 +1,114 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.statistic;
+
+import com.alibaba.polardbx.executor.statistic.entity.PolarDbXSystemTableColumnShardSketch.ShardSketchRow;
+import com.alibaba.polardbx.optimizer.config.table.statistic.StatisticManager;
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class IncrementalStatisticBuilderTest {
+
+    private static final List<String> COLUMNS = ImmutableList.of("a", "b");
+
+    private static final long EXPIRE_TIME = 3600;
+
+    private static final long NOW = 1_000_000;
+
+    @Test
+    public void testNeverSampled() {
+        Assert.assertTrue(needRefresh(null, 0));
+        // a column is added since sampled
+        Assert.assertTrue(needRefresh(rows("g0:tb_00", 1000, 100, NOW, "a"), 100));
+    }
+
+    @Test
+    public void testModified() {
+        Map<String, ShardSketchRow> rows = rows("g0:tb_00", 1000, 100, NOW, "a", "b");
+        Assert.assertFalse(needRefresh(rows, 100));
+        Assert.assertFalse(needRefresh(rows, 200));
+        // updates change no row count but are counted as well
+        Assert.assertTrue(needRefresh(rows, 201));
+    }
+
+    @Test
+    public void testModifyCountReset() {
+        Map<String, ShardSketchRow> rows = rows("g0:tb_00", 1000, 5000, NOW, "a", "b");
+        Assert.assertFalse(needRefresh(rows, 50));
+        Assert.assertTrue(needRefresh(rows, 101));
+    }
+
+    @Test
+    public void testExpired() {
+        Assert.assertFalse(needRefresh(rows("g0:tb_00", 1000, 100, NOW - EXPIRE_TIME, "a", "b"), 100));
+        Assert.assertTrue(needRefresh(rows("g0:tb_00", 1000, 100, NOW - EXPIRE_TIME - 1, "a", "b"), 100));
+    }
+
+    @Test
+    public void testOnlyStaleShardRefreshed() {
+        StatisticManager statisticManager = new StatisticManager("db", null, null, null, null, new HashMap<>());
+        String[] shardParts = {"g0:tb_00", "g0:tb_01", "g1:tb_02", "g1:tb_03"};
+        Map<String, Map<String, ShardSketchRow>> shardSketchRows = new HashMap<>();
+        for (String shardPart : shardParts) {
+            shardSketchRows.put(shardPart, rows(shardPart, 1000, 0, NOW, "a", "b"));
+        }
+
+        // modifications spread over the shards stay under the ratio of every shard
+        statisticManager.addShardModifyRowCount("tb", "G0", "TB_00", 60);
+        statisticManager.addShardModifyRowCount("tb", "g0", "tb_01", 100);
+        statisticManager.addShardModifyRowCount("tb", "g1", "tb_02", 100);
+        statisticManager.addShardModifyRowCount("tb", "g1", "tb_03", 100);
+        Assert.assertTrue(staleShards(statisticManager, shardParts, shardSketchRows).isEmpty());
+
+        // only the shard modified over its own rows is stale, although the logical table is not
+        statisticManager.addShardModifyRowCount("tb", "g0", "tb_00", 50);
+        Assert.assertEquals(ImmutableList.of("g0:tb_00"), staleShards(statisticManager, shardParts, shardSketchRows));
+    }
+
+    private static List<String> staleShards(StatisticManager statisticManager, String[] shardParts,
+                                            Map<String, Map<String, ShardSketchRow>> shardSketchRows) {
+        List<String> staleShards = new ArrayList<>();
+        for (String shardPart : shardParts) {
+            long modifyCount = statisticManager.getShardModifyCount("tb", shardPart);
+            if (IncrementalStatisticBuilder.needRefresh(shardSketchRows.get(shardPart), COLUMNS, modifyCount, 0.1f,
+                EXPIRE_TIME, NOW)) {
+                staleShards.add(shardPart);
+            }
+        }
+        return staleShards;
+    }
+
+    private static boolean needRefresh(Map<String, ShardSketchRow> rows, long modifyCount) {
+        return IncrementalStatisticBuilder.needRefresh(rows, COLUMNS, modifyCount, 0.1f, EXPIRE_TIME, NOW);
+    }
+
+    private static Map<String, ShardSketchRow> rows(String shardPart, long rowCount, long modifyCount,
+                                                    long sampleTime, String... columns) {
+        Map<String, ShardSketchRow> rows = new HashMap<>();
+        for (String column : columns) {
+            rows.put(column,
+                new ShardSketchRow("db", "tb", column, shardPart, rowCount, modifyCount, 0, 1D, "", "", sampleTime));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.statistic.entity;
+
+import com.alibaba.polardbx.executor.statistic.entity.PolarDbXSystemTableColumnShardSketch.ShardSketchRow;
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Rows written to and read from the shard sketch system table, which is kept in memory by mocked jdbc
+ */
+public class PolarDbXSystemTableColumnShardSketchTest {
+
+    @Test
+    public void testReplaceAndLoad() {
+        MockShardSketchTable table = new MockShardSketchTable();
+        table.batchReplace(ImmutableList.of(
+            row("t1", "a", "g0:t1_0", 100, 3),
+            row("t1", "b", "g0:t1_0", 100, 3),
+            row("t1", "a", "g1:t1_1", 120, 5),
+            row("t2", "a", "g0:t2_0", 10, 0)));
+        // the table is created before the first write
+        Assert.assertEquals(1, table.createCount);
+
+        List<ShardSketchRow> rows = table.loadByTableName("DB", "T1");
+        Assert.assertEquals(3, rows.size());
+        ShardSketchRow loaded = find(rows, "a", "g1:t1_1");
+        Assert.assertEquals("db", loaded.getSchemaName());
+        Assert.assertEquals("t1", loaded.getTableName());
+        Assert.assertEquals(120, loaded.getRowCount());
+        Assert.assertEquals(5, loaded.getModifyCount());
+        Assert.assertEquals(2, loaded.getNullCount());
+        Assert.assertEquals(0.5, loaded.getSampleRate(), 0);
+        Assert.assertEquals("q_a", loaded.getQuantileSketch());
+        Assert.assertEquals("f_a", loaded.getFrequentItems());
+        Assert.assertTrue(loaded.getSampleTime() > 0);
+
+        // replaced by primary key
+        table.batchReplace(ImmutableList.of(row("t1", "a", "g1:t1_1", 150, 9)));
+        rows = table.loadByTableName("db", "t1");
+        Assert.assertEquals(3, rows.size());
+        Assert.assertEquals(150, find(rows, "a", "g1:t1_1").getRowCount());
+        Assert.assertEquals(9, find(rows, "a", "g1:t1_1").getModifyCount());
+        Assert.assertEquals(100, find(rows, "a", "g0:t1_0").getRowCount());
+
+        table.deleteByTableName("db", "t1");
+        Assert.assertTrue(table.loadByTableName("db", "t1").isEmpty());
+        Assert.assertEquals(1, table.loadByTableName("db", "t2").size());
+        Assert.assertEquals(1, table.createCount);
+    }
+
+    @Test
+    public void testCreateFailed() {
+        MockShardSketchTable table = new MockShardSketchTable();
+        table.failCreate = true;
+        Assert.assertTrue(table.loadByTableName("db", "t1").isEmpty());
+
+        // created on the next access
+        table.failCreate = false;
+        table.batchReplace(ImmutableList.of(row("t1", "a", "g0:t1_0", 100, 3)));
+        Assert.assertEquals(1, table.createCount);
+        Assert.assertEquals(1, table.loadByTableName("db", "t1").size());
+    }
+
+    private static ShardSketchRow row(String table, String column, String shardPart, long rowCount,
+                                      long modifyCount) {
+        return new ShardSketchRow("DB", table, column, shardPart, rowCount, modifyCount, 2, 0.5, "q_" + column,
+            "f_" + column, 0);
+    }
+
+    private static ShardSketchRow find(List<ShardSketchRow> rows, String column, String shardPart) {
+        for (ShardSketchRow row : rows) {
+            if (row.getColumnName().equals(column) && row.getShardPart().equals(shardPart)) {
+                return row;
+            }
+        }
+        throw new AssertionError("row of " + column + " on " + shardPart + " not found");
+    }
+
+    private static class MockShardSketchTable extends PolarDbXSystemTableColumnShardSketch {
+        /**
+         * primary key -> column name in upper case -> value
+         */
+        final Map<List<Object>, Map<String, Object>> rows = new LinkedHashMap<>();
+        int createCount = 0;
+        boolean failCreate = false;
+
+        @Override
+        protected Connection getConnection() throws SQLException {
+            Connection conn = Mockito.mock(Connection.class);
+            when(conn.prepareStatement(anyString())).thenAnswer(invocation -> statement(invocation.getArgument(0)));
+            return conn;
+        }
+
+        private PreparedStatement statement(String sql) throws SQLException {
+            final PreparedStatement ps = Mockito.mock(PreparedStatement.class);
+            final Map<Integer, Object> params = new HashMap<>();
+            final Answer<Void> setParam = invocation -> {
+                params.put(invocation.getArgument(0), invocation.getArgument(1));
+                return null;
+            };
+            doAnswer(setParam).when(ps).setString(anyInt(), any());
+            doAnswer(setParam).when(ps).setLong(anyInt(), anyLong());
+            doAnswer(setParam).when(ps).setDouble(anyInt(), anyDouble());
+
+            final String type = sql.trim().substring(0, 6).toUpperCase();
+            if (type.equals("CREATE")) {
+                when(ps.executeUpdate()).thenAnswer(invocation -> {
+                    if (failCreate) {
+                        throw new SQLException("mock failure of creating table");
+                    }
+                    createCount++;
+                    return 0;
+                });
+            } else if (type.equals("REPLAC")) {
+                doAnswer(invocation -> {
+                    Map<String, Object> row = new HashMap<>();
+                    String[] columns = {
+                        "SCHEMA_NAME", "TABLE_NAME", "COLUMN_NAME", "SHARD_PART", "ROW_COUNT", "MODIFY_COUNT",
+                        "NULL_COUNT", "SAMPLE_RATE", "QUANTILE_SKETCH", "FREQUENT_ITEMS"};
+                    for (int i = 0; i < columns.length; i++) {
+                        row.put(columns[i], params.get(i + 1));
+                    }
+                    row.put("SAMPLE_TIME", System.currentTimeMillis() / 1000);
+                    rows.put(Arrays.asList(params.get(1), params.get(2), params.get(3), params.get(4)), row);
+                    return null;
+                }).when(ps).addBatch();
+                when(ps.executeBatch()).thenReturn(new int[0]);
+            } else if (type.equals("SELECT")) {
+                when(ps.executeQuery()).thenAnswer(invocation -> resultSet(matches(params)));
+            } else if (type.equals("DELETE")) {
+                when(ps.executeUpdate()).thenAnswer(invocation -> {
+                    List<Map<String, Object>> deleted = matches(params);
+                    rows.values().removeAll(deleted);
+                    return deleted.size();
+                });
+            }
+            return ps;
+        }
+
+        private List<Map<String, Object>> matches(Map<Integer, Object> params) {
+            List<Map<String, Object>> result = new ArrayList<>();
+            for (Map<String, Object> row : rows.values()) {
+                if (row.get("SCHEMA_NAME").equals(params.get(1)) && row.get("TABLE_NAME").equals(params.get(2))) {
+                    result.add(row);
+                }
+            }
+            return result;
+        }
+
+        private ResultSet resultSet(List<Map<String, Object>> result) throws SQLException {
+            final ResultSet rs = Mockito.mock(ResultSet.class);
+            final Iterator<Map<String, Object>> iterator = result.iterator();
+            final Map<String, Object>[] current = new Map[1];
+            when(rs.next()).thenAnswer(invocation -> {
+                current[0] = iterator.hasNext() ? iterator.next() : null;
+                return current[0] != null;
+            });
+            when(rs.getString(anyString())).thenAnswer(invocation -> current[0].get(invocation.getArgument(0)));
+            when(rs.getLong(anyString()))
+                .thenAnswer(invocation -> ((Number) current[0].get(invocation.getArgument(0))).longValue());
+            when(rs.getDouble(anyString()))
+                .thenAnswer(invocation -> ((Number) current[0].get(invocation.getArgument(0))).doubleValue());
+            return rs;
+        }
+    }
+}
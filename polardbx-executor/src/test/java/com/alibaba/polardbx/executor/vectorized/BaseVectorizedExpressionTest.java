@@ -89,6 +89,11 @@ public class BaseVectorizedExpressionTest {
         + "  `test_uinteger2` INT UNSIGNED DEFAULT NULL,\n"
         + "  `test_bigint` BIGINT DEFAULT NULL,\n"
         + "  `test_bigint2` BIGINT DEFAULT NULL,\n"
+        + "  `test_varchar` VARCHAR(64) DEFAULT NULL,\n"
+        + "  `test_varchar_bin` VARCHAR(64) CHARACTER SET utf8 COLLATE utf8_bin DEFAULT NULL,\n"
+        + "  `test_date` DATE DEFAULT NULL,\n"
+        + "  `test_datetime` DATETIME DEFAULT NULL,\n"
+        + "  `test_timestamp` TIMESTAMP NULL DEFAULT NULL,\n"
         + "  PRIMARY KEY (`id`)\n"
         + "  ) ENGINE=InnoDB DEFAULT CHARSET=utf8;";
     private FastsqlParser parser;
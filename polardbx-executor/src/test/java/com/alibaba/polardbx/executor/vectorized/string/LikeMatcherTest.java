@@ -0,0 +1,75 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import io.airlift.slice.Slices;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LikeMatcherTest {
+    @Test
+    public void testFastPath() {
+        Assert.assertEquals(LikeMatcher.Kind.EXACT, LikeMatcher.compile("abc").getKind());
+        Assert.assertEquals(LikeMatcher.Kind.PREFIX, LikeMatcher.compile("abc%").getKind());
+        Assert.assertEquals(LikeMatcher.Kind.SUFFIX, LikeMatcher.compile("%abc").getKind());
+        Assert.assertEquals(LikeMatcher.Kind.CONTAINS, LikeMatcher.compile("%%abc%").getKind());
+        Assert.assertEquals(LikeMatcher.Kind.CONTAINS, LikeMatcher.compile("%a\\%c%").getKind());
+        Assert.assertEquals(LikeMatcher.Kind.PREFIX, LikeMatcher.compile("中%").getKind());
+        Assert.assertEquals(LikeMatcher.Kind.REGEX, LikeMatcher.compile("a_c").getKind());
+        Assert.assertEquals(LikeMatcher.Kind.REGEX, LikeMatcher.compile("a%c").getKind());
+    }
+
+    @Test
+    public void testMatch() {
+        assertMatch("abc%", "abcdef", true);
+        assertMatch("abc%", "abd", false);
+        assertMatch("%def", "abcdef", true);
+        assertMatch("%cd%", "abcdef", true);
+        assertMatch("%a\\%c%", "xa%cx", true);
+        assertMatch("%a\\%c%", "xabcx", false);
+        assertMatch("a_c", "a中c", true);
+        assertMatch("中%", "中文", true);
+        assertMatch("", "", true);
+        assertMatch("%", "", true);
+    }
+
+    @Test
+    public void testAsciiCaseInsensitive() {
+        assertMatch("abc%", "ABCdef", true);
+        assertMatch("%CD%", "abcdef", true);
+        assertMatch("%cd%", "中abCD", true);
+        assertMatch("ABC", "abc", true);
+        assertMatch("ABC", "abcd", false);
+        assertMatch("a_C", "A中c", true);
+        // only ascii letters are case folded, the same as the row-based LIKE
+        assertMatch("é%", "Éa", false);
+        assertMatch("é_", "Éa", false);
+        assertMatch("é%", "éA", true);
+    }
+
+    @Test
+    public void testTrimPattern() {
+        assertMatch(" abc% ", "abcdef", true);
+        assertMatch(" abc ", " abc ", false);
+        assertMatch("\tab_\n", "abc", true);
+    }
+
+    private static void assertMatch(String pattern, String value, boolean expected) {
+        LikeMatcher matcher = LikeMatcher.compile(pattern);
+        Assert.assertEquals(value + " LIKE " + pattern, expected, matcher.matches(Slices.utf8Slice(value)));
+    }
+}
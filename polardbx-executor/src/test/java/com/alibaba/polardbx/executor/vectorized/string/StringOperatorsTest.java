@@ -0,0 +1,183 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.string;
+
+import com.alibaba.polardbx.common.utils.Pair;
+import com.alibaba.polardbx.executor.operator.BaseExecTest;
+import com.alibaba.polardbx.executor.operator.MockExec;
+import com.alibaba.polardbx.executor.operator.VectorizedProjectExec;
+import com.alibaba.polardbx.executor.vectorized.BaseVectorizedExpressionTest;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.build.VectorizedExpressionBuilder;
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.MutableChunk;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.expression.calc.IExpression;
+import com.alibaba.polardbx.optimizer.utils.RexUtils;
+import org.apache.calcite.rel.logical.LogicalProject;
+import org.apache.calcite.rex.RexNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.alibaba.polardbx.executor.vectorized.ColumnInput.columnInput;
+
+/**
+ * Compare the vectorized string expressions with the row-based ones, on both case-insensitive
+ * and binary collations.
+ */
+public class StringOperatorsTest extends BaseVectorizedExpressionTest {
+    private static final Object[][] INPUTS = {
+        {"abc", "ABCdef", null, "中文abc", ""},
+        {"Éa", " ab ", "a%c", null, "ABC"},
+        {null, null, null, null, null}
+    };
+
+    private static final int[] SELECTION = {0, 2, 3};
+
+    private static final String[] COLUMNS = {"test_varchar", "test_varchar_bin"};
+
+    @Test
+    public void testLike() {
+        for (String column : COLUMNS) {
+            assertSameAsRowBased("%s LIKE 'abc%%'", column);
+            assertSameAsRowBased("%s NOT LIKE 'abc%%'", column);
+            assertSameAsRowBased("%s LIKE '%%C'", column);
+            assertSameAsRowBased("%s LIKE '%%文%%'", column);
+            assertSameAsRowBased("%s LIKE 'a_c'", column);
+            assertSameAsRowBased("%s LIKE 'a\\\\%%c'", column);
+            assertSameAsRowBased("%s LIKE ' abc '", column);
+            assertSameAsRowBased("%s LIKE 'éA'", column);
+        }
+    }
+
+    @Test
+    public void testIn() {
+        for (String column : COLUMNS) {
+            assertSameAsRowBased("%s IN ('abc', 'Éa')", column);
+            assertSameAsRowBased("%s NOT IN ('abc', 'Éa')", column);
+            assertSameAsRowBased("%s IN ('', 'abcdef', ' ab')", column);
+            assertSameAsRowBased("%s NOT IN ('中文ABC')", column);
+        }
+    }
+
+    @Test
+    public void testSubstring() {
+        for (String column : COLUMNS) {
+            assertSameAsRowBased("SUBSTRING(%s, 2, 3)", column);
+            assertSameAsRowBased("SUBSTRING(%s, 1, 0)", column);
+            assertSameAsRowBased("SUBSTRING(%s, 0, 2)", column);
+            assertSameAsRowBased("SUBSTR(%s, 3, 10)", column);
+            assertSameAsRowBased("SUBSTRING(%s, 10, 1)", column);
+        }
+    }
+
+    @Test
+    public void testConcat() {
+        assertSameAsRowBased("CONCAT(%s, %s)", COLUMNS[0], COLUMNS[1]);
+        assertSameAsRowBased("CONCAT(%s, %s)", COLUMNS[1], COLUMNS[0]);
+        for (String column : COLUMNS) {
+            assertSameAsRowBased("CONCAT(%s, '中')", column);
+            assertSameAsRowBased("CONCAT('x', %s)", column);
+        }
+    }
+
+    @Test
+    public void testCaseConversion() {
+        for (String column : COLUMNS) {
+            assertSameAsRowBased("LOWER(%s)", column);
+            assertSameAsRowBased("LCASE(%s)", column);
+            assertSameAsRowBased("UPPER(%s)", column);
+            assertSameAsRowBased("UCASE(%s)", column);
+        }
+    }
+
+    @Test
+    public void testLength() {
+        for (String column : COLUMNS) {
+            assertSameAsRowBased("LENGTH(%s)", column);
+            assertSameAsRowBased("OCTET_LENGTH(%s)", column);
+            assertSameAsRowBased("CHAR_LENGTH(%s)", column);
+            assertSameAsRowBased("CHARACTER_LENGTH(%s)", column);
+        }
+    }
+
+    private void assertSameAsRowBased(String format, String... columns) {
+        String expression = String.format(format, (Object[]) columns);
+        for (Object[] input : INPUTS) {
+            updateColumns(Arrays.stream(COLUMNS)
+                .map(column -> columnInput(column, input))
+                .collect(Collectors.toList()));
+            // the second column gets the values in reverse order, so binary operators see different pairs
+            Object[] reversed = input.clone();
+            Collections.reverse(Arrays.asList(reversed));
+            updateColumns(Collections.singletonList(columnInput(COLUMNS[1], reversed)));
+
+            RexNode rexNode = ((LogicalProject) sql2Plan("select " + expression + " from `t_table`"))
+                .getProjects().get(0);
+            Block expected = evalRowByRow(rexNode);
+            assertVectorized(expression, rexNode, expected, false);
+            assertVectorized(expression, rexNode, copySelected(expected, SELECTION), true);
+        }
+    }
+
+    private Block evalRowByRow(RexNode rexNode) {
+        IExpression expression = RexUtils.buildRexNode(rexNode, getExecutionContext());
+        MockExec inputExecutor = buildInputFromTableData(null);
+        inputExecutor.open();
+        Chunk chunk = inputExecutor.nextChunk();
+
+        Object[] results = new Object[chunk.getPositionCount()];
+        for (int i = 0; i < chunk.getPositionCount(); i++) {
+            results[i] = expression.eval(chunk.rowAt(i), getExecutionContext());
+        }
+        return output(toVectorizedOutputType(rexNode), results);
+    }
+
+    private DataType<?> toVectorizedOutputType(RexNode rexNode) {
+        List<DataType<?>> inputDataTypes = inputDataTypes(buildInputFromTableData(null));
+        return VectorizedExpressionBuilder.buildVectorizedExpression(inputDataTypes, rexNode, getExecutionContext())
+            .getKey().getOutputDataType();
+    }
+
+    private void assertVectorized(String expression, RexNode rexNode, Block expected, boolean useSelection) {
+        MockExec inputExecutor = buildInputFromTableData(useSelection ? SELECTION : null);
+        List<DataType<?>> inputDataTypes = inputDataTypes(inputExecutor);
+
+        Pair<VectorizedExpression, MutableChunk> result =
+            VectorizedExpressionBuilder.buildVectorizedExpression(inputDataTypes, rexNode, getExecutionContext());
+        Assert.assertTrue(expression + " is not vectorized by string expressions",
+            result.getKey() instanceof AbstractStringVectorizedExpression);
+
+        VectorizedProjectExec projectExec = new VectorizedProjectExec(inputExecutor,
+            Collections.singletonList(result.getKey()), Collections.singletonList(result.getValue()),
+            Collections.<DataType>singletonList(result.getKey().getOutputDataType()), getExecutionContext());
+        BaseExecTest.assertExecResults(projectExec, new Chunk(expected));
+    }
+
+    private static List<DataType<?>> inputDataTypes(MockExec inputExecutor) {
+        return inputExecutor.getDataTypes()
+            .stream()
+            .map(a -> (DataType<?>) a)
+            .collect(Collectors.toList());
+    }
+}
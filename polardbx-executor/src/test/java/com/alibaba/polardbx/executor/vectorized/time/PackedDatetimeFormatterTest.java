@@ -0,0 +1,58 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.time;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PackedDatetimeFormatterTest {
+    @Test
+    public void testFormat() {
+        long packed = pack(2021, 3, 7, 14, 5, 9);
+        assertFormat("%Y-%m-%d %H:%i:%s", packed, "2021-03-07 14:05:09");
+        assertFormat("%y/%c/%e %k:%i:%S", packed, "21/3/7 14:05:09");
+        assertFormat("%a %W %b %M %D", packed, "Sun Sunday Mar March 7th");
+        assertFormat("%w %j %T %r", packed, "0 066 14:05:09 02:05:09 PM");
+        assertFormat("%h %I %l %p", pack(2021, 1, 1, 0, 0, 0), "12 12 12 AM");
+        assertFormat("%D %D %D %D", pack(2021, 1, 1, 0, 0, 0), "1st 1st 1st 1st");
+        assertFormat("%D", pack(2021, 1, 12, 0, 0, 0), "12th");
+        assertFormat("%D", pack(2021, 1, 23, 0, 0, 0), "23rd");
+        assertFormat("%W", pack(2000, 2, 29, 0, 0, 0), "Tuesday");
+        assertFormat("%Y", pack(99, 12, 31, 0, 0, 0), "0099");
+        assertFormat("100%% 年%Y", packed, "100% 年2021");
+    }
+
+    @Test
+    public void testUnsupported() {
+        Assert.assertNull(PackedDatetimeFormatter.compile("%U"));
+        Assert.assertNull(PackedDatetimeFormatter.compile("%f"));
+        Assert.assertNull(PackedDatetimeFormatter.compile("%Y%"));
+        Assert.assertNotNull(PackedDatetimeFormatter.compile("no specifier"));
+    }
+
+    private static void assertFormat(String format, long packed, String expected) {
+        StringBuilder builder = new StringBuilder();
+        PackedDatetimeFormatter.compile(format).format(packed, builder);
+        Assert.assertEquals(expected, builder.toString());
+    }
+
+    private static long pack(long year, long month, long day, long hour, long minute, long second) {
+        long ymd = ((year * 13 + month) << 5) | day;
+        long hms = (hour << 12) | (minute << 6) | second;
+        return ((ymd << 17) | hms) << 24;
+    }
+}
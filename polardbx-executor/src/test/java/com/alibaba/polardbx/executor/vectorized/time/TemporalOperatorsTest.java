@@ -0,0 +1,189 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.executor.vectorized.time;
+
+import com.alibaba.polardbx.common.utils.Pair;
+import com.alibaba.polardbx.executor.operator.BaseExecTest;
+import com.alibaba.polardbx.executor.operator.MockExec;
+import com.alibaba.polardbx.executor.operator.VectorizedProjectExec;
+import com.alibaba.polardbx.executor.vectorized.BaseVectorizedExpressionTest;
+import com.alibaba.polardbx.executor.vectorized.VectorizedExpression;
+import com.alibaba.polardbx.executor.vectorized.build.VectorizedExpressionBuilder;
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.MutableChunk;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.expression.calc.IExpression;
+import com.alibaba.polardbx.optimizer.utils.RexUtils;
+import org.apache.calcite.rel.logical.LogicalProject;
+import org.apache.calcite.rex.RexNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.alibaba.polardbx.executor.vectorized.ColumnInput.columnInput;
+
+/**
+ * Compare the vectorized temporal expressions with the row-based ones, on date, datetime and timestamp
+ * columns with nulls and zero dates.
+ */
+public class TemporalOperatorsTest extends BaseVectorizedExpressionTest {
+    private static final String[] COLUMNS = {"test_date", "test_datetime", "test_timestamp"};
+
+    /**
+     * Values of each column in COLUMNS
+     */
+    private static final Object[][][] INPUTS = {
+        {
+            {"2020-02-29", null, "0000-00-00", "1999-12-31", "2000-01-01"},
+            {"2020-02-29 12:34:56", "0000-00-00 00:00:00", null, "1999-12-31 23:59:59", "2000-01-01 00:00:00"},
+            {"2020-02-29 12:34:56", null, "1999-12-31 23:59:59", "2000-01-01 00:00:00", "2038-01-19 03:14:07"}
+        },
+        {
+            {"0000-00-00", "1970-01-01", "2021-12-31", null, "2024-03-01"},
+            {"2021-12-31 23:59:59", "1970-01-01 00:00:00", "0000-00-00 00:00:00", "2024-03-01 08:00:00", null},
+            {null, "1970-01-02 00:00:00", "2021-12-31 23:59:59", "2024-03-01 08:00:00", "2000-02-29 00:00:01"}
+        },
+        {
+            {null, null, null, null, null},
+            {null, null, null, null, null},
+            {null, null, null, null, null}
+        }
+    };
+
+    private static final int[] SELECTION = {0, 2, 3};
+
+    @Test
+    public void testComparison() {
+        for (String column : COLUMNS) {
+            assertSameAsRowBased("{col} = '2020-02-29 12:34:56'", column);
+            assertSameAsRowBased("{col} != '2020-02-29'", column);
+            assertSameAsRowBased("{col} <> '0000-00-00 00:00:00'", column);
+            assertSameAsRowBased("{col} > '2000-01-01'", column);
+            assertSameAsRowBased("{col} >= '2000-01-01 00:00:00'", column);
+            assertSameAsRowBased("{col} < '1999-12-31 23:59:59'", column);
+            assertSameAsRowBased("{col} <= '2021-12-31'", column);
+            assertSameAsRowBased("'2000-01-01' < {col}", column);
+            assertSameAsRowBased("'2021-12-31 23:59:59' = {col}", column);
+        }
+    }
+
+    @Test
+    public void testField() {
+        for (String column : COLUMNS) {
+            assertSameAsRowBased("YEAR({col})", column);
+            assertSameAsRowBased("QUARTER({col})", column);
+            assertSameAsRowBased("MONTH({col})", column);
+            assertSameAsRowBased("DAY({col})", column);
+            assertSameAsRowBased("DAYOFMONTH({col})", column);
+            assertSameAsRowBased("HOUR({col})", column);
+            assertSameAsRowBased("MINUTE({col})", column);
+            assertSameAsRowBased("SECOND({col})", column);
+            assertSameAsRowBased("DAYOFWEEK({col})", column);
+            assertSameAsRowBased("DAYOFYEAR({col})", column);
+            assertSameAsRowBased("TO_DAYS({col})", column);
+        }
+    }
+
+    @Test
+    public void testDate() {
+        for (String column : COLUMNS) {
+            assertSameAsRowBased("DATE({col})", column);
+        }
+    }
+
+    @Test
+    public void testDateAdd() {
+        for (String column : COLUMNS) {
+            assertSameAsRowBased("DATE_ADD({col}, INTERVAL 1 DAY)", column);
+            assertSameAsRowBased("DATE_ADD({col}, INTERVAL 90 SECOND)", column);
+            assertSameAsRowBased("DATE_ADD({col}, INTERVAL '1:30' HOUR_MINUTE)", column);
+            assertSameAsRowBased("ADDDATE({col}, INTERVAL 1 YEAR)", column);
+            assertSameAsRowBased("DATE_SUB({col}, INTERVAL 1 MONTH)", column);
+            assertSameAsRowBased("SUBDATE({col}, INTERVAL 3 QUARTER)", column);
+        }
+    }
+
+    @Test
+    public void testDateFormat() {
+        for (String column : COLUMNS) {
+            assertSameAsRowBased("DATE_FORMAT({col}, '%Y-%m-%d %H:%i:%s')", column);
+            assertSameAsRowBased("DATE_FORMAT({col}, '%W %M %D %y')", column);
+            assertSameAsRowBased("DATE_FORMAT({col}, '%j %a %b %e %c %p %T')", column);
+            assertSameAsRowBased("DATE_FORMAT({col}, 'no specifier')", column);
+        }
+    }
+
+    private void assertSameAsRowBased(String template, String column) {
+        String expression = template.replace("{col}", column);
+        for (Object[][] input : INPUTS) {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                updateColumns(Collections.singletonList(columnInput(COLUMNS[i], input[i])));
+            }
+
+            RexNode rexNode = ((LogicalProject) sql2Plan("select " + expression + " from `t_table`"))
+                .getProjects().get(0);
+            Block expected = evalRowByRow(rexNode);
+            assertVectorized(expression, rexNode, expected, false);
+            assertVectorized(expression, rexNode, copySelected(expected, SELECTION), true);
+        }
+    }
+
+    private Block evalRowByRow(RexNode rexNode) {
+        IExpression expression = RexUtils.buildRexNode(rexNode, getExecutionContext());
+        MockExec inputExecutor = buildInputFromTableData(null);
+        inputExecutor.open();
+        Chunk chunk = inputExecutor.nextChunk();
+
+        Object[] results = new Object[chunk.getPositionCount()];
+        for (int i = 0; i < chunk.getPositionCount(); i++) {
+            results[i] = expression.eval(chunk.rowAt(i), getExecutionContext());
+        }
+        return output(toVectorizedOutputType(rexNode), results);
+    }
+
+    private DataType<?> toVectorizedOutputType(RexNode rexNode) {
+        List<DataType<?>> inputDataTypes = inputDataTypes(buildInputFromTableData(null));
+        return VectorizedExpressionBuilder.buildVectorizedExpression(inputDataTypes, rexNode, getExecutionContext())
+            .getKey().getOutputDataType();
+    }
+
+    private void assertVectorized(String expression, RexNode rexNode, Block expected, boolean useSelection) {
+        MockExec inputExecutor = buildInputFromTableData(useSelection ? SELECTION : null);
+        List<DataType<?>> inputDataTypes = inputDataTypes(inputExecutor);
+
+        Pair<VectorizedExpression, MutableChunk> result =
+            VectorizedExpressionBuilder.buildVectorizedExpression(inputDataTypes, rexNode, getExecutionContext());
+        Assert.assertTrue(expression + " is not vectorized by temporal expressions",
+            result.getKey() instanceof AbstractTemporalVectorizedExpression);
+
+        VectorizedProjectExec projectExec = new VectorizedProjectExec(inputExecutor,
+            Collections.singletonList(result.getKey()), Collections.singletonList(result.getValue()),
+            Collections.<DataType>singletonList(result.getKey().getOutputDataType()), getExecutionContext());
+        BaseExecTest.assertExecResults(projectExec, new Chunk(expected));
+    }
+
+    private static List<DataType<?>> inputDataTypes(MockExec inputExecutor) {
+        return inputExecutor.getDataTypes()
+            .stream()
+            .map(a -> (DataType<?>) a)
+            .collect(Collectors.toList());
+    }
+}
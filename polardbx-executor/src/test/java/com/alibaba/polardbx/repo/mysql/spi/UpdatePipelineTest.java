@@ -0,0 +1,81 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.repo.mysql.spi;
+
+import com.alibaba.polardbx.rpc.result.XResult;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * The statement reported on failure of update pipeline.
+ */
+public class UpdatePipelineTest {
+
+    @Test
+    public void testFailedInMiddle() {
+        XResult[] results = {
+            result(XResult.ResultStatus.XResultFinish), result(XResult.ResultStatus.XResultFinish),
+            result(XResult.ResultStatus.XResultError), result(XResult.ResultStatus.XResultError), null};
+        Assert.assertEquals(2, MyJdbcHandler.failedInPipeline(results));
+    }
+
+    @Test
+    public void testFailedFirst() {
+        XResult[] results = {
+            result(XResult.ResultStatus.XResultError), result(XResult.ResultStatus.XResultError),
+            result(XResult.ResultStatus.XResultError)};
+        Assert.assertEquals(0, MyJdbcHandler.failedInPipeline(results));
+    }
+
+    @Test
+    public void testFatal() {
+        XResult[] results = {
+            result(XResult.ResultStatus.XResultFinish), result(XResult.ResultStatus.XResultFatal),
+            result(XResult.ResultStatus.XResultRows)};
+        Assert.assertEquals(1, MyJdbcHandler.failedInPipeline(results));
+    }
+
+    @Test
+    public void testNotFinished() {
+        // the error is thrown before the last sent one is done, e.g. timeout or killed
+        XResult[] results = {
+            result(XResult.ResultStatus.XResultFinish), result(XResult.ResultStatus.XResultFinish),
+            result(XResult.ResultStatus.XResultStart), null};
+        Assert.assertEquals(2, MyJdbcHandler.failedInPipeline(results));
+    }
+
+    @Test
+    public void testAllFinished() {
+        XResult[] results = {
+            result(XResult.ResultStatus.XResultFinish), result(XResult.ResultStatus.XResultFinish), null};
+        Assert.assertEquals(1, MyJdbcHandler.failedInPipeline(results));
+    }
+
+    @Test
+    public void testNothingSent() {
+        Assert.assertEquals(0, MyJdbcHandler.failedInPipeline(new XResult[3]));
+    }
+
+    private static XResult result(XResult.ResultStatus status) {
+        XResult result = Mockito.mock(XResult.class);
+        when(result.getStatus()).thenReturn(status);
+        return result;
+    }
+}
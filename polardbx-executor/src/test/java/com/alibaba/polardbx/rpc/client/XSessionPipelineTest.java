@@ -0,0 +1,99 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.rpc.client;
+
+import com.alibaba.polardbx.common.exception.TddlRuntimeException;
+import com.alibaba.polardbx.common.exception.code.ErrorCode;
+import com.alibaba.polardbx.rpc.result.XResult;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.SQLException;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class XSessionPipelineTest {
+
+    @Test
+    public void testConsumeAll() throws Exception {
+        XResult[] results = {ignorable(), ignorable(), last()};
+        Assert.assertNull(XSession.consumePipeline(results, 0, results.length, null));
+        verify(results[0]).waitFinish(true);
+        verify(results[1]).waitFinish(true);
+        verify(results[2]).finishBlockMode();
+    }
+
+    @Test
+    public void testPartialFailure() throws Exception {
+        XResult[] results = {ignorable(), ignorable(), ignorable(), last()};
+        SQLException failed = new SQLException("Duplicate entry '1' for key 'PRIMARY'", "23000", 1062);
+        SQLException skipped = new SQLException("skipped by previous error");
+        doThrow(failed).when(results[1]).waitFinish(true);
+        doThrow(skipped).when(results[2]).waitFinish(true);
+        doThrow(skipped).when(results[3]).finishBlockMode();
+
+        // the results after the failed one are still drained, and only the first error is kept
+        Assert.assertSame(failed, XSession.consumePipeline(results, 0, results.length, null));
+        verify(results[0]).waitFinish(true);
+        verify(results[2]).waitFinish(true);
+        verify(results[3]).finishBlockMode();
+    }
+
+    @Test
+    public void testKeepPreviousError() throws Exception {
+        XResult[] results = {ignorable(), last()};
+        SQLException previous = new SQLException("error of previous batch");
+        doThrow(new SQLException("skipped")).when(results[1]).finishBlockMode();
+
+        Assert.assertSame(previous, XSession.consumePipeline(results, 0, results.length, previous));
+        verify(results[0]).waitFinish(true);
+    }
+
+    @Test
+    public void testFatalError() throws Exception {
+        XResult[] results = {ignorable(), ignorable(), last()};
+        doThrow(new TddlRuntimeException(ErrorCode.ERR_X_PROTOCOL_SESSION, "fatal")).when(results[0])
+            .waitFinish(true);
+
+        // the session is unusable, so the rest results are not consumed
+        try {
+            XSession.consumePipeline(results, 0, results.length, null);
+            Assert.fail("fatal error should be thrown");
+        } catch (TddlRuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains("fatal"));
+        }
+        verify(results[1], never()).waitFinish(true);
+        verify(results[2], never()).finishBlockMode();
+    }
+
+    private static XResult ignorable() throws Exception {
+        XResult result = Mockito.mock(XResult.class);
+        when(result.isIgnorable()).thenReturn(true);
+        when(result.waitFinish(true)).thenReturn(true);
+        return result;
+    }
+
+    private static XResult last() {
+        XResult result = Mockito.mock(XResult.class);
+        when(result.isIgnorable()).thenReturn(false);
+        return result;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.sequence.impl;
+
+import com.alibaba.polardbx.sequence.SequenceRange;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GroupSequencePrefetchTest {
+
+    private static final long RANGE_SIZE = 10;
+
+    @Test
+    public void testPrefetchHit() throws Exception {
+        MockGroupSequence sequence = new MockGroupSequence();
+        for (long i = 1; i <= RANGE_SIZE; i++) {
+            Assert.assertEquals(i, sequence.nextValue());
+        }
+        waitPrefetched(sequence);
+
+        // switch to the prefetched range without fetching
+        Assert.assertEquals(RANGE_SIZE + 1, sequence.nextValue());
+        Assert.assertSame(Thread.currentThread(), sequence.fetchThreads.get(0));
+        for (int i = 1; i < sequence.fetchThreads.size(); i++) {
+            Assert.assertNotSame(Thread.currentThread(), sequence.fetchThreads.get(i));
+        }
+    }
+
+    @Test
+    public void testWaitForRunningPrefetch() throws Exception {
+        MockGroupSequence sequence = new MockGroupSequence();
+        sequence.blockedFetch = 2;
+        try {
+            for (long i = 1; i <= RANGE_SIZE; i++) {
+                Assert.assertEquals(i, sequence.nextValue());
+            }
+            Assert.assertTrue(sequence.blockedFetchStarted.await(10, TimeUnit.SECONDS));
+
+            // wait for the running prefetch instead of fetching another range
+            Thread releaser = new Thread(() -> {
+                sleepQuietly(200);
+                sequence.releaseBlockedFetch.countDown();
+            });
+            releaser.start();
+            Assert.assertEquals(RANGE_SIZE + 1, sequence.nextValue());
+            Assert.assertEquals(2, sequence.fetchThreads.size());
+            releaser.join();
+        } finally {
+            sequence.releaseBlockedFetch.countDown();
+        }
+    }
+
+    @Test
+    public void testSlowFetchNotHoldingLock() throws Exception {
+        MockGroupSequence sequence = new MockGroupSequence();
+        sequence.blockedFetch = 2;
+        try {
+            for (long i = 1; i <= RANGE_SIZE; i++) {
+                Assert.assertEquals(i, sequence.nextValue());
+            }
+            Assert.assertTrue(sequence.blockedFetchStarted.await(10, TimeUnit.SECONDS));
+
+            AtomicLong value = new AtomicLong();
+            Thread caller = new Thread(() -> value.set(sequence.nextValue()));
+            caller.start();
+            sleepQuietly(100);
+
+            // not blocked by the caller waiting for the slow prefetch, which is discarded
+            long start = System.nanoTime();
+            sequence.exhaustValue();
+            Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+
+            // the caller fetches another range without waiting for the discarded one
+            caller.join(10000);
+            Assert.assertFalse(caller.isAlive());
+            Assert.assertEquals(RANGE_SIZE + 1, value.get());
+            Assert.assertSame(caller, sequence.fetchThreads.get(2));
+        } finally {
+            sequence.releaseBlockedFetch.countDown();
+        }
+    }
+
+    @Test
+    public void testPrefetchFailure() throws Exception {
+        MockGroupSequence sequence = new MockGroupSequence();
+        sequence.failedFetch = 2;
+        for (long i = 1; i <= RANGE_SIZE; i++) {
+            Assert.assertEquals(i, sequence.nextValue());
+        }
+        waitPrefetched(sequence);
+
+        // fetch again when prefetch failed
+        Assert.assertEquals(RANGE_SIZE + 1, sequence.nextValue());
+        Assert.assertSame(Thread.currentThread(), sequence.fetchThreads.get(2));
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitPrefetched(GroupSequence sequence) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!sequence.isRangePrefetched()) {
+            Assert.assertTrue("range not prefetched", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Ranges are allocated one after another, and the n-th fetch can be blocked or failed
+     */
+    private static class MockGroupSequence extends GroupSequence {
+        final AtomicLong nextRangeStart = new AtomicLong(1);
+        final List<Thread> fetchThreads = new CopyOnWriteArrayList<>();
+        final CountDownLatch blockedFetchStarted = new CountDownLatch(1);
+        final CountDownLatch releaseBlockedFetch = new CountDownLatch(1);
+        volatile int blockedFetch = -1;
+        volatile int failedFetch = -1;
+
+        MockGroupSequence() {
+            setName("seq_prefetch_test");
+        }
+
+        @Override
+        protected SequenceRange nextRange() {
+            fetchThreads.add(Thread.currentThread());
+            int fetch = fetchThreads.size();
+            if (fetch == blockedFetch) {
+                blockedFetchStarted.countDown();
+                try {
+                    releaseBlockedFetch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (fetch == failedFetch) {
+                throw new RuntimeException("mock failure of fetching range");
+            }
+            long start = nextRangeStart.getAndAdd(RANGE_SIZE);
+            return new SequenceRange(start, start + RANGE_SIZE - 1);
+        }
+    }
+}
@@ -19,6 +19,7 @@ package com.alibaba.polardbx.gms.listener.impl;
 import com.alibaba.polardbx.common.exception.TddlRuntimeException;
 import com.alibaba.polardbx.common.exception.code.ErrorCode;
 import com.alibaba.polardbx.common.model.lifecycle.AbstractLifecycle;
+import com.alibaba.polardbx.common.properties.DynamicConfig;
 import com.alibaba.polardbx.common.utils.GeneralUtil;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
@@ -27,6 +28,7 @@ import com.alibaba.polardbx.common.utils.thread.NamedThreadFactory;
 import com.alibaba.polardbx.config.ConfigDataMode;
 import com.alibaba.polardbx.gms.sync.GmsSyncManagerHelper;
 import com.alibaba.polardbx.gms.sync.IGmsSyncAction;
+import com.alibaba.polardbx.gms.sync.SyncScope;
 import com.alibaba.polardbx.gms.listener.ConfigListener;
 import com.alibaba.polardbx.gms.listener.ConfigManager;
 import com.alibaba.polardbx.gms.metadb.MetaDbDataSource;
@@ -37,11 +39,17 @@ import com.alibaba.polardbx.gms.topology.SystemDbHelper;
 import com.alibaba.polardbx.gms.util.MetaDbLogUtil;
 
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
@@ -50,12 +58,19 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Manager all listener for opVersion update of dataId
+ * <p>
+ * With ENABLE_METADB_CHANGE_PUSH, the node that updates the opVersion of dataIds pushes them to all nodes
+ * by MetaDbConfigChangeAction once the new opVersion is committed, and each node only queries the opVersion
+ * of the pushed dataIds until the new one is seen. The scan of all modified dataIds is kept as a safety net
+ * for the lost pushes, but runs every DEFAULT_SAFETY_SCAN_INTERVAL.
  *
  * @author chenghui.lch
  */
@@ -68,6 +83,14 @@ public class MetaDbConfigManager extends AbstractLifecycle implements ConfigMana
     public final static int DEFAULT_NOTIFY_INTERVAL = 1000;
     public final static int DEFAULT_SCAN_INTERVAL = 1000;
     public final static int DEFAULT_CLEAN_INTERVAL = 10000;
+    public final static int DEFAULT_SAFETY_SCAN_INTERVAL = 10000;
+
+    /**
+     * The change updated in a trx is pushed after it is committed, it is left to the safety scan
+     * if not committed in this time, e.g. the trx is rolled back
+     */
+    public final static int DEFAULT_PUSH_WAIT_COMMIT_TIME = 60000;
+    public final static int DEFAULT_PUSH_RETRY_INTERVAL = 100;
 
     // time interval for scaning the gmtModified of dataId, unit: min
     protected static int TIME_INTERVAL_FOR_SCAN_MODIFIED_DATA_ID = 120;
@@ -87,6 +110,25 @@ public class MetaDbConfigManager extends AbstractLifecycle implements ConfigMana
     protected final ScheduledExecutorService cleanTaskExecutor = Executors
         .newSingleThreadScheduledExecutor(new NamedThreadFactory("DataId-Scanner-Executor", true));
 
+    /**
+     * Wake up notifier once change events are added or listener tasks are completed
+     */
+    protected final Semaphore notifySignal = new Semaphore(0);
+
+    /**
+     * dataId -> the pushed opVersion, which is queried on every scan until it is seen
+     */
+    protected final Map<String, Long> changeHints = new ConcurrentHashMap<>();
+    protected final AtomicBoolean hintScanPending = new AtomicBoolean(false);
+
+    /**
+     * dataId -> the updated opVersion to push once it is committed
+     */
+    protected final Map<String, PendingChange> changesToPush = new ConcurrentHashMap<>();
+    protected final AtomicBoolean pushPending = new AtomicBoolean(false);
+    protected final ScheduledExecutorService changePushExecutor = Executors
+        .newSingleThreadScheduledExecutor(new NamedThreadFactory("DataId-Change-Pusher", true));
+
     protected int listenerTaskExecutorPoolSize = 4;
     protected ThreadPoolExecutor listenerTaskExecutor =
         ExecutorUtil.createExecutor("ListenerTaskExecutor", listenerTaskExecutorPoolSize);
@@ -113,6 +155,18 @@ public class MetaDbConfigManager extends AbstractLifecycle implements ConfigMana
         }
     }
 
+    protected static class PendingChange {
+        protected final long opVersion;
+        protected final boolean committed;
+        protected final long deadline;
+
+        public PendingChange(long opVersion, boolean committed, long deadline) {
+            this.opVersion = opVersion;
+            this.committed = committed;
+            this.deadline = deadline;
+        }
+    }
+
     /**
      * OpVersionChangeEvent means
      */
@@ -142,7 +196,38 @@ public class MetaDbConfigManager extends AbstractLifecycle implements ConfigMana
         }
 
         protected void runInner() {
-            fetchOpVersionChangeEvents();
+            Date lastScan = manager.lastScanTimestamp;
+            if (lastScan == null || !DynamicConfig.getInstance().isEnableMetaDbChangePush()
+                || System.currentTimeMillis() - lastScan.getTime() >= DEFAULT_SAFETY_SCAN_INTERVAL) {
+                fetchOpVersionChangeEvents();
+            }
+            fetchHintedOpVersionChangeEvents();
+        }
+
+        protected void fetchHintedOpVersionChangeEvents() {
+            manager.hintScanPending.set(false);
+            if (manager.changeHints.isEmpty()) {
+                return;
+            }
+            try (Connection conn = MetaDbDataSource.getInstance().getConnection()) {
+                ConfigListenerAccessor configListenerAccessor = new ConfigListenerAccessor();
+                configListenerAccessor.setConnection(conn);
+                List<String> dataIds = new ArrayList<>(manager.changeHints.keySet());
+                List<ConfigListenerRecord> datas = configListenerAccessor.getDataIds(dataIds);
+                boolean changed = false;
+                for (int i = 0; i < datas.size(); i++) {
+                    if (addOpVersionChangeEvent(datas.get(i))) {
+                        changed = true;
+                    }
+                }
+                manager.removeSeenChangeHints(dataIds, datas);
+                if (changed) {
+                    manager.notifySignal.release();
+                }
+            } catch (Throwable ex) {
+                logger.warn(ex);
+                MetaDbLogUtil.META_DB_LOG.warn(ex);
+            }
         }
 
         protected void fetchOpVersionChangeEvents() {
@@ -162,45 +247,56 @@ public class MetaDbConfigManager extends AbstractLifecycle implements ConfigMana
                 }
 
                 for (int i = 0; i < datas.size(); i++) {
-                    ConfigListenerRecord record = datas.get(i);
-                    String dataId = record.dataId;
-                    int dataIdStatus = record.status;
-                    long newOpVersion = record.opVersion;
-                    if (manager.dataIdContextMap.containsKey(dataId)) {
-
-                        if (dataIdStatus == ConfigListenerRecord.DATA_ID_STATUS_REMOVED) {
-                            //manager.disableListenerByDataId(dataId);
-                            continue;
-                        }
-
-                        Timestamp gmtModified = record.gmtModified;
-                        DataIdContext dataIdContext = manager.dataIdContextMap.get(dataId);
-
-                        // Check if newOpVer has already exist in  dataIdInfo.changeEventQueue
-                        // if exists, should ignored
-                        synchronized (dataIdContext) {
-                            if (dataIdContext.currOpVersion < newOpVersion) {
-                                if (dataIdContext.dataIdListener != null) {
-                                    OpVersionChangeEvent lastChangeEvent = dataIdContext.changeEventQueue.peekLast();
-                                    boolean needAddNewEvent = true;
-                                    if (lastChangeEvent != null && lastChangeEvent.opVersion >= newOpVersion) {
-                                        needAddNewEvent = false;
-                                    }
-                                    if (needAddNewEvent) {
-                                        dataIdContext.changeEventQueue
-                                            .add(new OpVersionChangeEvent(dataId, newOpVersion, gmtModified));
-                                    }
-                                }
-                            }
-                        }
-                    }
+                    addOpVersionChangeEvent(datas.get(i));
                 }
+                manager.removeSeenChangeHints(Collections.emptyList(), datas);
                 manager.lastScanTimestamp = new Date();
+                manager.notifySignal.release();
             } catch (Throwable ex) {
                 logger.warn(ex);
                 MetaDbLogUtil.META_DB_LOG.warn(ex);
             }
         }
+
+        /**
+         * @return true if the opVersion of record is newer than the current opVersion of its dataId
+         */
+        protected boolean addOpVersionChangeEvent(ConfigListenerRecord record) {
+            String dataId = record.dataId;
+            int dataIdStatus = record.status;
+            long newOpVersion = record.opVersion;
+            DataIdContext dataIdContext = manager.dataIdContextMap.get(dataId);
+            if (dataIdContext == null) {
+                return false;
+            }
+
+            if (dataIdStatus == ConfigListenerRecord.DATA_ID_STATUS_REMOVED) {
+                //manager.disableListenerByDataId(dataId);
+                return false;
+            }
+
+            Timestamp gmtModified = record.gmtModified;
+
+            // Check if newOpVer has already exist in  dataIdInfo.changeEventQueue
+            // if exists, should ignored
+            synchronized (dataIdContext) {
+                if (dataIdContext.currOpVersion < newOpVersion) {
+                    if (dataIdContext.dataIdListener != null) {
+                        OpVersionChangeEvent lastChangeEvent = dataIdContext.changeEventQueue.peekLast();
+                        boolean needAddNewEvent = true;
+                        if (lastChangeEvent != null && lastChangeEvent.opVersion >= newOpVersion) {
+                            needAddNewEvent = false;
+                        }
+                        if (needAddNewEvent) {
+                            dataIdContext.changeEventQueue
+                                .add(new OpVersionChangeEvent(dataId, newOpVersion, gmtModified));
+                        }
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 
     protected static class Notifier implements Runnable {
@@ -247,7 +343,9 @@ public class MetaDbConfigManager extends AbstractLifecycle implements ConfigMana
                             dataIdInfo.listenerTaskFuture = null;
                         }
                     }
-                    Thread.sleep(DEFAULT_NOTIFY_INTERVAL);
+                    if (manager.notifySignal.tryAcquire(DEFAULT_NOTIFY_INTERVAL, TimeUnit.MILLISECONDS)) {
+                        manager.notifySignal.drainPermits();
+                    }
 
                 } catch (Throwable ex) {
                     logger.warn(ex);
@@ -278,6 +376,7 @@ public class MetaDbConfigManager extends AbstractLifecycle implements ConfigMana
                     // clear op event
                     dataIdContext.changeEventQueue.poll();
                     completeListenTaskQueue.add(dataIdContext);
+                    MetaDbConfigManager.getInstance().notifySignal.release();
                 }
                 return result;
             } catch (Throwable ex) {
@@ -386,17 +485,23 @@ public class MetaDbConfigManager extends AbstractLifecycle implements ConfigMana
         }
 
         logger.info("dataid: " + dataId + " version updated to: " + opVer);
+        pushChanges(Collections.singletonMap(dataId, opVer), isCommitted(conn));
         return opVer;
     }
 
     @Override
     public void notifyMultiple(List<String> dataIds, Connection conn) {
+        final boolean pushEnabled = DynamicConfig.getInstance().isEnableMetaDbChangePush();
+        List<ConfigListenerRecord> records = null;
         if (conn == null) {
             try (Connection metaDbConn = MetaDbDataSource.getInstance().getConnection()) {
                 metaDbConn.setAutoCommit(true);
                 ConfigListenerAccessor configListenerAccessor = new ConfigListenerAccessor();
                 configListenerAccessor.setConnection(metaDbConn);
                 configListenerAccessor.updateMultipleOpVersion(dataIds);
+                if (pushEnabled) {
+                    records = configListenerAccessor.getDataIds(dataIds);
+                }
             } catch (Throwable ex) {
                 throw GeneralUtil.nestedException(ex);
             }
@@ -404,6 +509,17 @@ public class MetaDbConfigManager extends AbstractLifecycle implements ConfigMana
             ConfigListenerAccessor configListenerAccessor = new ConfigListenerAccessor();
             configListenerAccessor.setConnection(conn);
             configListenerAccessor.updateMultipleOpVersion(dataIds);
+            if (pushEnabled) {
+                // the updated opVersions are visible in the trx
+                records = configListenerAccessor.getDataIds(dataIds);
+            }
+        }
+        if (records != null) {
+            Map<String, Long> opVersions = new HashMap<>(records.size());
+            for (ConfigListenerRecord record : records) {
+                opVersions.put(record.dataId, record.opVersion);
+            }
+            pushChanges(opVersions, isCommitted(conn));
         }
     }
 
@@ -413,6 +529,157 @@ public class MetaDbConfigManager extends AbstractLifecycle implements ConfigMana
         return;
     }
 
+    private static boolean isCommitted(Connection conn) {
+        try {
+            return conn == null || conn.getAutoCommit();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Push the dataIds with updated opVersion to all nodes asynchronously, after the opVersions are committed.
+     * The pushes issued before the last one is sent are merged.
+     *
+     * @param committed false if the opVersions are updated in a trx not committed yet
+     */
+    protected void pushChanges(Map<String, Long> opVersions, boolean committed) {
+        if (!DynamicConfig.getInstance().isEnableMetaDbChangePush() || opVersions.isEmpty()) {
+            return;
+        }
+        final long deadline = System.currentTimeMillis() + DEFAULT_PUSH_WAIT_COMMIT_TIME;
+        opVersions.forEach((dataId, opVersion) -> changesToPush.merge(dataId,
+            new PendingChange(opVersion, committed, deadline),
+            (oldChange, newChange) -> oldChange.opVersion >= newChange.opVersion ? oldChange : newChange));
+        schedulePush(0);
+    }
+
+    protected void schedulePush(long delay) {
+        if (pushPending.compareAndSet(false, true)) {
+            changePushExecutor.schedule(this::doPushChanges, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    protected void doPushChanges() {
+        pushPending.set(false);
+        if (changesToPush.isEmpty()) {
+            return;
+        }
+        final Map<String, PendingChange> changes = new HashMap<>(changesToPush);
+
+        // check whether the opVersions updated in trx are committed
+        final List<String> uncommitted = new ArrayList<>();
+        changes.forEach((dataId, change) -> {
+            if (!change.committed) {
+                uncommitted.add(dataId);
+            }
+        });
+        Map<String, Long> committedOpVersions = Collections.emptyMap();
+        if (!uncommitted.isEmpty()) {
+            try {
+                committedOpVersions = queryOpVersions(uncommitted);
+            } catch (Throwable ex) {
+                logger.warn("Failed to query the opVersions of dataIds " + uncommitted, ex);
+            }
+        }
+
+        final long now = System.currentTimeMillis();
+        final Map<String, Long> opVersions = new HashMap<>();
+        for (Map.Entry<String, PendingChange> entry : changes.entrySet()) {
+            final String dataId = entry.getKey();
+            final PendingChange change = entry.getValue();
+            final Long committedOpVersion = committedOpVersions.get(dataId);
+            if (change.committed || (committedOpVersion != null && committedOpVersion >= change.opVersion)) {
+                opVersions.put(dataId, change.opVersion);
+                changesToPush.remove(dataId, change);
+            } else if (change.deadline < now) {
+                // rolled back or the trx takes too long, leave it to the safety scan
+                changesToPush.remove(dataId, change);
+            }
+        }
+
+        if (!opVersions.isEmpty()) {
+            try {
+                sendChanges(opVersions);
+            } catch (Throwable ex) {
+                // the safety scan will catch up the changes
+                logger.warn("Failed to push the changes of dataIds " + opVersions.keySet(), ex);
+                MetaDbLogUtil.META_DB_LOG.warn("Failed to push the changes of dataIds " + opVersions.keySet(), ex);
+            }
+        }
+        if (!changesToPush.isEmpty()) {
+            schedulePush(DEFAULT_PUSH_RETRY_INTERVAL);
+        }
+    }
+
+    protected Map<String, Long> queryOpVersions(List<String> dataIds) throws SQLException {
+        try (Connection conn = MetaDbDataSource.getInstance().getConnection()) {
+            ConfigListenerAccessor configListenerAccessor = new ConfigListenerAccessor();
+            configListenerAccessor.setConnection(conn);
+            Map<String, Long> opVersions = new HashMap<>(dataIds.size());
+            for (ConfigListenerRecord record : configListenerAccessor.getDataIds(dataIds)) {
+                opVersions.put(record.dataId, record.opVersion);
+            }
+            return opVersions;
+        }
+    }
+
+    protected void sendChanges(Map<String, Long> opVersions) {
+        List<String> dataIds = new ArrayList<>(opVersions.keySet());
+        List<Long> versions = new ArrayList<>(dataIds.size());
+        for (String dataId : dataIds) {
+            versions.add(opVersions.get(dataId));
+        }
+        GmsSyncManagerHelper.sync(new MetaDbConfigChangeAction(dataIds, versions), SystemDbHelper.DEFAULT_DB_NAME,
+            SyncScope.ALL);
+    }
+
+    /**
+     * Query the opVersion of the pushed dataIds in scanner instead of waiting for the next scan,
+     * and keep querying them until the pushed opVersions are seen
+     *
+     * @param opVersions the pushed opVersions, null if pushed by a node of old version
+     */
+    protected void receiveChanges(List<String> dataIds, List<Long> opVersions) {
+        for (int i = 0; i < dataIds.size(); i++) {
+            String dataId = dataIds.get(i);
+            DataIdContext dataIdContext = dataIdContextMap.get(dataId);
+            if (dataIdContext == null) {
+                continue;
+            }
+            long opVersion = opVersions != null && i < opVersions.size() ? opVersions.get(i) :
+                dataIdContext.currOpVersion + 1;
+            if (dataIdContext.currOpVersion < opVersion) {
+                changeHints.merge(dataId, opVersion, Math::max);
+            }
+        }
+        if (!changeHints.isEmpty()) {
+            scheduleHintScan();
+        }
+    }
+
+    protected void scheduleHintScan() {
+        if (hintScanPending.compareAndSet(false, true)) {
+            dataIdScanTaskExecutor.submit(scanner::fetchHintedOpVersionChangeEvents);
+        }
+    }
+
+    /**
+     * Remove the hints whose pushed opVersions are seen, or whose dataIds are not found or listened any more
+     *
+     * @param queriedDataIds the dataIds queried for the records
+     */
+    protected void removeSeenChangeHints(List<String> queriedDataIds, List<ConfigListenerRecord> records) {
+        Set<String> notFound = new HashSet<>(queriedDataIds);
+        for (ConfigListenerRecord record : records) {
+            notFound.remove(record.dataId);
+            changeHints.computeIfPresent(record.dataId, (dataId, opVersion) ->
+                record.opVersion >= opVersion || record.status == ConfigListenerRecord.DATA_ID_STATUS_REMOVED ?
+                    null : opVersion);
+        }
+        changeHints.keySet().removeIf(dataId -> notFound.contains(dataId) || !dataIdContextMap.containsKey(dataId));
+    }
+
     protected ConfigListenerRecord addDataIdInfoIntoDb(String dataId, Connection metaDbConn) {
         try {
             ConfigListenerRecord dataIdInfo = null;
@@ -535,6 +802,44 @@ public class MetaDbConfigManager extends AbstractLifecycle implements ConfigMana
         }
     }
 
+    public static class MetaDbConfigChangeAction implements IGmsSyncAction {
+
+        private List<String> dataIds;
+        private List<Long> opVersions;
+
+        public MetaDbConfigChangeAction() {
+        }
+
+        public MetaDbConfigChangeAction(List<String> dataIds, List<Long> opVersions) {
+            this.dataIds = dataIds;
+            this.opVersions = opVersions;
+        }
+
+        @Override
+        public Object sync() {
+            if (dataIds != null) {
+                MetaDbConfigManager.getInstance().receiveChanges(dataIds, opVersions);
+            }
+            return null;
+        }
+
+        public List<String> getDataIds() {
+            return dataIds;
+        }
+
+        public void setDataIds(List<String> dataIds) {
+            this.dataIds = dataIds;
+        }
+
+        public List<Long> getOpVersions() {
+            return opVersions;
+        }
+
+        public void setOpVersions(List<Long> opVersions) {
+            this.opVersions = opVersions;
+        }
+    }
+
     protected void doConfigListenerBySync(String dataId, String schemaName) {
         DataIdContext dataIdContext = dataIdContextMap.get(dataId);
         if (dataIdContext != null) {
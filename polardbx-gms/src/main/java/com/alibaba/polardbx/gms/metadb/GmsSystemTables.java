@@ -85,6 +85,7 @@ public class GmsSystemTables {
     public static final String COLUMN_STATISTICS = "column_statistics";
     public static final String TABLE_STATISTICS = "table_statistics";
     public static final String NDV_SKETCH_STATISTICS = "ndv_sketch_statistics";
+    public static final String COLUMN_SHARD_SKETCH_STATISTICS = "column_shard_sketch_statistics";
 
     /**
      * DDL Job Engine
@@ -53,6 +53,9 @@ public class ConfigListenerAccessor extends AbstractAccessor {
     private static final String SELECT_DATA_ID_SET_BY_GMT_MODIFIED =
         "select * from `" + CONFIG_LISTENER_TABLE + "` where gmt_modified >= DATE_ADD(now(),INTERVAL -1 * ? MINUTE)";
 
+    private static final String SELECT_DATA_ID_SET_BY_DATA_IDS =
+        "select * from `" + CONFIG_LISTENER_TABLE + "` where data_id in (%s)";
+
     private static final String SELECT_DATA_ID =
         "select * from `" + CONFIG_LISTENER_TABLE + "` where data_id = ?";
 
@@ -130,6 +133,17 @@ public class ConfigListenerAccessor extends AbstractAccessor {
         }
     }
 
+    public List<ConfigListenerRecord> getDataIds(List<String> dataIds) {
+        try {
+            return MetaDbUtil.query(String.format(SELECT_DATA_ID_SET_BY_DATA_IDS, concat(dataIds)),
+                ConfigListenerRecord.class, connection);
+        } catch (Exception e) {
+            MetaDbLogUtil.META_DB_LOG.error("Failed to query the system table '" + CONFIG_LISTENER_TABLE + "'", e);
+            throw new TddlRuntimeException(ErrorCode.ERR_GMS_ACCESS_TO_SYSTEM_TABLE, e, "query", CONFIG_LISTENER_TABLE,
+                e.getMessage());
+        }
+    }
+
     public List<ConfigListenerRecord> getDataIdsByStatus(int status) {
         try {
             Map<Integer, ParameterContext> selectParams = Maps.newHashMap();
@@ -0,0 +1,172 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.gms.listener.impl;
+
+import com.alibaba.polardbx.gms.topology.ConfigListenerRecord;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MetaDbConfigManagerPushTest {
+
+    @Test
+    public void testPushAfterCommit() {
+        MockConfigManager manager = new MockConfigManager();
+        manager.pushChanges(ImmutableMap.of("d1", 5L), false);
+
+        // not committed yet
+        manager.doPushChanges();
+        Assert.assertTrue(manager.sent.isEmpty());
+        Assert.assertEquals(ImmutableList.of(0L, (long) MetaDbConfigManager.DEFAULT_PUSH_RETRY_INTERVAL),
+            manager.pushDelays);
+
+        manager.committedOpVersions.put("d1", 5L);
+        manager.doPushChanges();
+        Assert.assertEquals(ImmutableList.of(ImmutableMap.of("d1", 5L)), manager.sent);
+        Assert.assertTrue(manager.changesToPush.isEmpty());
+    }
+
+    @Test
+    public void testPushCommitted() {
+        MockConfigManager manager = new MockConfigManager();
+        manager.pushChanges(ImmutableMap.of("d1", 5L, "d2", 7L), true);
+        manager.doPushChanges();
+        Assert.assertEquals(ImmutableList.of(ImmutableMap.of("d1", 5L, "d2", 7L)), manager.sent);
+        Assert.assertEquals(0, manager.queryCount);
+        Assert.assertTrue(manager.changesToPush.isEmpty());
+    }
+
+    @Test
+    public void testMergePushes() {
+        MockConfigManager manager = new MockConfigManager();
+        manager.pushChanges(ImmutableMap.of("d1", 5L), false);
+        manager.pushChanges(ImmutableMap.of("d1", 6L, "d2", 7L), true);
+        manager.pushChanges(ImmutableMap.of("d1", 4L), true);
+
+        // the latest opVersion of each dataId is pushed
+        manager.doPushChanges();
+        Assert.assertEquals(ImmutableList.of(ImmutableMap.of("d1", 6L, "d2", 7L)), manager.sent);
+        Assert.assertTrue(manager.changesToPush.isEmpty());
+    }
+
+    @Test
+    public void testPushNeverCommitted() {
+        MockConfigManager manager = new MockConfigManager();
+        manager.changesToPush.put("d1",
+            new MetaDbConfigManager.PendingChange(5L, false, System.currentTimeMillis() - 1));
+        manager.committedOpVersions.put("d1", 4L);
+        manager.doPushChanges();
+        // left to the safety scan
+        Assert.assertTrue(manager.sent.isEmpty());
+        Assert.assertTrue(manager.changesToPush.isEmpty());
+    }
+
+    @Test
+    public void testKeepHintUntilSeen() {
+        MockConfigManager manager = new MockConfigManager();
+        manager.listen("d1", 3L);
+        manager.receiveChanges(ImmutableList.of("d1", "unknown"), ImmutableList.of(5L, 1L));
+        Assert.assertEquals(ImmutableMap.of("d1", 5L), manager.changeHints);
+        Assert.assertEquals(1, manager.hintScanCount);
+
+        // older version seen, e.g. the push is from another node
+        manager.removeSeenChangeHints(ImmutableList.of("d1"), ImmutableList.of(record("d1", 4L)));
+        Assert.assertEquals(ImmutableMap.of("d1", 5L), manager.changeHints);
+        manager.removeSeenChangeHints(Collections.emptyList(), Collections.emptyList());
+        Assert.assertEquals(ImmutableMap.of("d1", 5L), manager.changeHints);
+
+        manager.removeSeenChangeHints(Collections.emptyList(), ImmutableList.of(record("d1", 5L)));
+        Assert.assertTrue(manager.changeHints.isEmpty());
+    }
+
+    @Test
+    public void testHintOfRemovedDataId() {
+        MockConfigManager manager = new MockConfigManager();
+        manager.listen("d1", 3L);
+        manager.listen("d2", 3L);
+        manager.receiveChanges(ImmutableList.of("d1", "d2"), ImmutableList.of(5L, 5L));
+
+        manager.dataIdContextMap.remove("d2");
+        manager.removeSeenChangeHints(ImmutableList.of("d1", "d2"), Collections.emptyList());
+        Assert.assertTrue(manager.changeHints.isEmpty());
+    }
+
+    @Test
+    public void testHintWithoutVersion() {
+        MockConfigManager manager = new MockConfigManager();
+        manager.listen("d1", 3L);
+        manager.receiveChanges(ImmutableList.of("d1"), null);
+        Assert.assertEquals(ImmutableMap.of("d1", 4L), manager.changeHints);
+    }
+
+    private static ConfigListenerRecord record(String dataId, long opVersion) {
+        ConfigListenerRecord record = new ConfigListenerRecord();
+        record.dataId = dataId;
+        record.opVersion = opVersion;
+        record.status = ConfigListenerRecord.DATA_ID_STATUS_NORMAL;
+        return record;
+    }
+
+    /**
+     * Pushes and scans are run by the test instead of executors
+     */
+    private static class MockConfigManager extends MetaDbConfigManager {
+        final Map<String, Long> committedOpVersions = new HashMap<>();
+        final List<Map<String, Long>> sent = new ArrayList<>();
+        final List<Long> pushDelays = new ArrayList<>();
+        int queryCount = 0;
+        int hintScanCount = 0;
+
+        void listen(String dataId, long opVersion) {
+            dataIdContextMap.put(dataId, new DataIdContext(dataId, opVersion, null));
+        }
+
+        @Override
+        protected void schedulePush(long delay) {
+            pushDelays.add(delay);
+        }
+
+        @Override
+        protected Map<String, Long> queryOpVersions(List<String> dataIds) {
+            queryCount++;
+            Map<String, Long> opVersions = new HashMap<>();
+            for (String dataId : dataIds) {
+                if (committedOpVersions.containsKey(dataId)) {
+                    opVersions.put(dataId, committedOpVersions.get(dataId));
+                }
+            }
+            return opVersions;
+        }
+
+        @Override
+        protected void sendChanges(Map<String, Long> opVersions) {
+            sent.add(new HashMap<>(opVersions));
+        }
+
+        @Override
+        protected void scheduleHintScan() {
+            hintScanCount++;
+        }
+    }
+}
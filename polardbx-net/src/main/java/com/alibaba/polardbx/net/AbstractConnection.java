@@ -220,7 +220,7 @@ public abstract class AbstractConnection implements NIOConnection {
 
             int length = sslReadBuffer.remaining() > peek.readable() ? peek.readable() : sslReadBuffer.remaining();
 
-            sslReadBuffer.put(peek.array(), peek.readerIndex(), length);
+            sslReadBuffer.put(peek, peek.readerIndex(), length);
             peek.skipBytes(length);
             doRead(sslReadBuffer);
             if (!peek.isReadable()) {
@@ -701,10 +701,9 @@ public abstract class AbstractConnection implements NIOConnection {
             }
             int size = buffer.capacity() << 1;
             size = (size > maxPacketSize) ? maxPacketSize : size;
-            ByteBuffer newBuffer = ByteBuffer.allocate(size);
+            ByteBufferHolder newBufferHolder = processor.getBufferPool().allocate(size);
             buffer.position(offset);
-            newBuffer.put(buffer.getBuffer());
-            ByteBufferHolder newBufferHolder = new ByteBufferHolder(newBuffer);
+            newBufferHolder.getBuffer().put(buffer.getBuffer());
             newBufferHolder.setIndex(buffer.readerIndex(), buffer.writerIndex());
             // 回收扩容前的缓存块
             recycle(buffer);
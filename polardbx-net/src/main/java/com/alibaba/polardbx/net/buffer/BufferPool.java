@@ -14,106 +14,78 @@
  * limitations under the License.
  */
 
+
 package com.alibaba.polardbx.net.buffer;
 
+import com.alibaba.polardbx.common.utils.memory.BufferPoolMetrics;
+import com.alibaba.polardbx.common.utils.memory.DirectBufferPool;
+
 import java.nio.ByteBuffer;
-import java.util.concurrent.locks.ReentrantLock;
+import java.nio.ByteOrder;
 
 /**
+ * Per-processor pool of direct buffers, see {@link DirectBufferPool}.
+ *
  * @author xianmao.hexm
  */
 public final class BufferPool {
 
-    private final int chunkSize;
-    private final ByteBuffer[] items;
-    private final ReentrantLock lock;
-    private int putIndex;
-    private int takeIndex;
-    private int count;
-    private volatile int newCount;
+    /**
+     * chunkSize, 2x, 4x and 8x chunkSize, used when a read buffer grows.
+     */
+    private static final int SIZE_CLASS_COUNT = 4;
+
+    private final DirectBufferPool pool;
 
     public BufferPool(int bufferSize, int chunkSize) {
-        this.chunkSize = chunkSize;
-        int capacity = bufferSize / chunkSize;
-        capacity = (bufferSize % chunkSize == 0) ? capacity : capacity + 1;
-        this.items = new ByteBuffer[capacity];
-        this.lock = new ReentrantLock();
-        for (int i = 0; i < capacity; i++) {
-            insert(create(chunkSize));
-        }
+        this.pool = new DirectBufferPool(bufferSize, chunkSize, SIZE_CLASS_COUNT, ByteOrder.BIG_ENDIAN);
     }
 
     public int capacity() {
-        return items.length;
+        return pool.capacity();
     }
 
     public int size() {
-        return count;
+        return pool.size();
     }
 
     public int getNewCount() {
-        return newCount;
+        return (int) pool.getMetrics().getMissCount();
     }
 
-    public ByteBufferHolder allocate() {
-        ByteBuffer node = null;
-        final ReentrantLock lock = this.lock;
-        lock.lock();
-        try {
-            node = (count == 0) ? null : extract();
-        } finally {
-            lock.unlock();
-        }
-        if (node == null) {
-            ++newCount;
-            node = create(chunkSize);
-        }
-        return new ByteBufferHolder(node);
+    public BufferPoolMetrics getMetrics() {
+        return pool.getMetrics();
     }
 
-    public void recycle(ByteBufferHolder bufferHolder) {
-        // 拒绝回收null和容量大于chunkSize的缓存
-        if (bufferHolder == null || bufferHolder.getBuffer() == null
-            || bufferHolder.getBuffer().capacity() > chunkSize) {
-            return;
-        }
-        final ReentrantLock lock = this.lock;
-        lock.lock();
-        try {
-            ByteBuffer buffer = bufferHolder.getBuffer();
-            if (buffer != null) {
-                if (count != items.length) {
-                    buffer.clear();
-                    insert(buffer);
-                }
-                bufferHolder.setBuffer(null);
-            }
-        } finally {
-            lock.unlock();
-        }
+    public ByteBufferHolder allocate() {
+        return new ByteBufferHolder(pool.allocate());
     }
 
-    private void insert(ByteBuffer buffer) {
-        items[putIndex] = buffer;
-        putIndex = inc(putIndex);
-        ++count;
+    /**
+     * 分配至少size大小的缓存，超过最大规格时分配堆内缓存
+     */
+    public ByteBufferHolder allocate(int size) {
+        return new ByteBufferHolder(pool.allocate(size));
     }
 
-    private ByteBuffer extract() {
-        final ByteBuffer[] items = this.items;
-        ByteBuffer item = items[takeIndex];
-        items[takeIndex] = null;
-        takeIndex = inc(takeIndex);
-        --count;
-        return item;
+    ByteBuffer allocateBuffer(int size) {
+        return pool.allocate(size);
     }
 
-    private int inc(int i) {
-        return (++i == items.length) ? 0 : i;
+    void recycleBuffer(ByteBuffer buffer) {
+        pool.recycle(buffer);
     }
 
-    private ByteBuffer create(int size) {
-        return ByteBuffer.allocate(size);
+    public void recycle(ByteBufferHolder bufferHolder) {
+        if (bufferHolder == null) {
+            return;
+        }
+        ByteBuffer buffer = bufferHolder.getBuffer();
+        if (buffer != null) {
+            // 非direct或非规格大小的缓存由pool直接丢弃
+            pool.recycle(buffer);
+            bufferHolder.setBuffer(null);
+        }
     }
 
 }
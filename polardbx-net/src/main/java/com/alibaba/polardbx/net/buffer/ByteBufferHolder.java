@@ -16,6 +16,7 @@
 
 package com.alibaba.polardbx.net.buffer;
 
+import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
 
 /**
@@ -89,8 +90,15 @@ public class ByteBufferHolder {
     }
 
     public ByteBufferHolder put(ByteBufferHolder src) {
-        buffer.put(src.array(), src.readerIndex, src.writerIndex);
-        this.writerIndex += src.readable();
+        return put(src, src.readerIndex, src.readable());
+    }
+
+    /**
+     * 拷贝src中[srcIndex, srcIndex + length)的内容，src可以是direct缓存
+     */
+    public ByteBufferHolder put(ByteBufferHolder src, int srcIndex, int length) {
+        buffer.put(src.nioBuffer(srcIndex, length));
+        this.writerIndex += length;
         return this;
     }
 
@@ -112,10 +120,28 @@ public class ByteBufferHolder {
         return this;
     }
 
+    /**
+     * 仅对堆内缓存可用，pool分配的缓存是direct的，请使用{@link #writeTo}
+     */
     public final byte[] array() {
         return buffer.array();
     }
 
+    /**
+     * 将[index, index + length)的内容写入out
+     */
+    public void writeTo(ByteArrayOutputStream out, int index, int length) {
+        if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset() + index, length);
+        } else {
+            byte[] bytes = new byte[length];
+            ByteBuffer src = buffer.duplicate();
+            src.clear().position(index);
+            src.get(bytes, 0, length);
+            out.write(bytes, 0, length);
+        }
+    }
+
     public ByteBufferHolder put(byte b) {
         buffer.put(b);
         writerIndex += 1;
@@ -230,18 +256,32 @@ public class ByteBufferHolder {
 
     public ByteBufferHolder ensureWritable(int size) {
         if (buffer.capacity() - writerIndex < size) {
-            int newCap = writerIndex + size;
-            ByteBuffer tmp = ByteBuffer.allocate(newCap);
-            buffer.rewind();
-            tmp.put(buffer);
-            tmp.position(writerIndex);
-            tmp.limit(newCap);
-            buffer = tmp;
-            maxCapacity = buffer.capacity();
+            grow(ByteBuffer.allocate(writerIndex + size));
+        }
+        return this;
+    }
+
+    /**
+     * 扩容时从pool分配新缓存，并将旧缓存归还给pool
+     */
+    public ByteBufferHolder ensureWritable(int size, BufferPool pool) {
+        if (buffer.capacity() - writerIndex < size) {
+            ByteBuffer old = buffer;
+            grow(pool.allocateBuffer(writerIndex + size));
+            pool.recycleBuffer(old);
         }
         return this;
     }
 
+    private void grow(ByteBuffer tmp) {
+        ByteBuffer src = buffer.duplicate();
+        src.clear().limit(writerIndex);
+        tmp.put(src);
+        tmp.limit(tmp.capacity());
+        buffer = tmp;
+        maxCapacity = buffer.capacity();
+    }
+
     public ByteBufferHolder skipBytes(int length) {
         int newReaderIndex = readerIndex + length;
         if (newReaderIndex > writerIndex) {
@@ -48,7 +48,7 @@ import com.alibaba.polardbx.net.util.MySQLMessage;
  */
 public class RowDataPacket extends MySQLPacket {
 
-    protected static final byte NULL_MARK = (byte) 251;
+    public static final byte NULL_MARK = (byte) 251;
 
     public final int fieldCount;
     public final List<byte[]> fieldValues;
@@ -17,6 +17,7 @@
 package com.alibaba.polardbx.net.util;
 
 import com.alibaba.polardbx.net.AbstractConnection;
+import com.alibaba.polardbx.net.buffer.BufferPool;
 import com.alibaba.polardbx.net.buffer.ByteBufferHolder;
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
@@ -331,7 +332,7 @@ public class SslHandler {
         }
     }
 
-    private static SSLEngineResult unwrap(SSLEngine engine, ByteBuffer in, ByteBufferHolder out) throws SSLException {
+    private SSLEngineResult unwrap(SSLEngine engine, ByteBuffer in, ByteBufferHolder out) throws SSLException {
         int overflows = 0;
         for (; ; ) {
             ByteBuffer out0 = out.getBuffer();
@@ -340,12 +341,13 @@ public class SslHandler {
             switch (result.getStatus()) {
             case BUFFER_OVERFLOW:
                 int max = engine.getSession().getApplicationBufferSize();
+                BufferPool pool = source.getProcessor().getBufferPool();
                 switch (overflows++) {
                 case 0:
-                    out.ensureWritable(Math.min(max, in.remaining()));
+                    out.ensureWritable(Math.min(max, in.remaining()), pool);
                     break;
                 default:
-                    out.ensureWritable(max);
+                    out.ensureWritable(max, pool);
                 }
                 break;
             default:
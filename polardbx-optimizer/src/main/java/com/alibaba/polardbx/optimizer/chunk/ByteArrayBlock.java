@@ -51,6 +51,10 @@ public class ByteArrayBlock extends AbstractCommonBlock {
         return Arrays.copyOfRange(data, beginOffset, endOffset);
     }
 
+    public byte[] getData() {
+        return data;
+    }
+
     @Override
     public Object getObject(int position) {
         return isNull(position) ? null : getByteArray(position);
@@ -128,11 +132,17 @@ public class ByteArrayBlock extends AbstractCommonBlock {
         return ExecUtils.arrayEquals(data, pos1, len1, other.data.elements(), pos2, len2);
     }
 
-    private int beginOffset(int position) {
+    /**
+     * Offset of the first byte of the value at {@code position} in the data.
+     */
+    public int beginOffset(int position) {
         return position + arrayOffset > 0 ? offsets[position + arrayOffset - 1] : 0;
     }
 
-    private int endOffset(int position) {
+    /**
+     * Offset after the last byte of the value at {@code position} in the data.
+     */
+    public int endOffset(int position) {
         return offsets[position + arrayOffset];
     }
 
@@ -184,6 +184,13 @@ public class DoubleBlock extends AbstractBlock {
         return values;
     }
 
+    /**
+     * Offset of the first position in {@link #doubleArray()}
+     */
+    public int getArrayOffset() {
+        return arrayOffset;
+    }
+
     @Override
     public void compact(int[] selection) {
         if (selection == null) {
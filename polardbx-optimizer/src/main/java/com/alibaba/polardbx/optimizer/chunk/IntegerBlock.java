@@ -45,7 +45,7 @@ public class IntegerBlock extends AbstractBlock {
         this.values = values;
     }
 
-    IntegerBlock(int arrayOffset, int positionCount, boolean[] valueIsNull, int[] values) {
+    public IntegerBlock(int arrayOffset, int positionCount, boolean[] valueIsNull, int[] values) {
         super(arrayOffset, positionCount, valueIsNull);
         this.values = Preconditions.checkNotNull(values);
         estimatedSize = INSTANCE_SIZE + sizeOf(valueIsNull) + sizeOf(values);
@@ -192,6 +192,13 @@ public class IntegerBlock extends AbstractBlock {
         return values;
     }
 
+    /**
+     * Offset of the first position in {@link #intArray()}
+     */
+    public int getArrayOffset() {
+        return arrayOffset;
+    }
+
     @Override
     public void compact(int[] selection) {
         if (selection == null) {
@@ -189,6 +189,13 @@ public class LongBlock extends AbstractBlock {
         return values;
     }
 
+    /**
+     * Offset of the first position in {@link #longArray()}
+     */
+    public int getArrayOffset() {
+        return arrayOffset;
+    }
+
     @Override
     public void compact(int[] selection) {
         if (selection == null) {
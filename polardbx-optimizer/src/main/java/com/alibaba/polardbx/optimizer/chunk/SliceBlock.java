@@ -40,8 +40,8 @@ public class SliceBlock extends AbstractCommonBlock {
     private int[] offsets;
     private WeakReference<SortKey>[] sortKeys;
 
-    SliceBlock(SliceType dataType, int arrayOffset, int positionCount, boolean[] valueIsNull, int[] offsets,
-               Slice data) {
+    public SliceBlock(SliceType dataType, int arrayOffset, int positionCount, boolean[] valueIsNull, int[] offsets,
+                      Slice data) {
         super(dataType, positionCount, valueIsNull, valueIsNull != null);
         Preconditions.checkNotNull(dataType);
         this.dataType = dataType;
@@ -212,11 +212,17 @@ public class SliceBlock extends AbstractCommonBlock {
         return offsets;
     }
 
-    private int beginOffset(int position) {
+    /**
+     * Offset of the first byte of the value at {@code position} in the data.
+     */
+    public int beginOffset(int position) {
         return position + arrayOffset > 0 ? offsets[position + arrayOffset - 1] : 0;
     }
 
-    private int endOffset(int position) {
+    /**
+     * Offset after the last byte of the value at {@code position} in the data.
+     */
+    public int endOffset(int position) {
         return offsets[position + arrayOffset];
     }
 }
\ No newline at end of file
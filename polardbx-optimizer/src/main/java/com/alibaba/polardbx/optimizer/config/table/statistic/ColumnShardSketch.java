@@ -0,0 +1,268 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.config.table.statistic;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.polardbx.common.utils.logger.Logger;
+import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.yahoo.sketches.ArrayOfDoublesSerDe;
+import com.yahoo.sketches.ArrayOfItemsSerDe;
+import com.yahoo.sketches.ArrayOfLongsSerDe;
+import com.yahoo.sketches.ArrayOfStringsSerDe;
+import com.yahoo.sketches.frequencies.ErrorType;
+import com.yahoo.sketches.memory.NativeMemory;
+import com.yahoo.sketches.quantiles.ItemsSketch;
+import org.apache.commons.lang.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Quantile and frequent items sketches of sketches-core for one column on one physical table.
+ * <p>
+ * Values are kept as Long, Double or String by the encoded type of the column, the same as the values
+ * of histogram and topN once persisted. Sketches of physical tables sampled at different rates are
+ * merged with their scales, which the unions of sketches-core could not do, so histogram is built from
+ * the evenly spaced quantiles of every sketch and topN from the scaled estimates of frequent items.
+ */
+public class ColumnShardSketch {
+
+    private static final Logger logger = LoggerFactory.getLogger("statistics");
+
+    /**
+     * Normalized rank error of quantiles is about 1.7% with k = 128
+     */
+    public static final int QUANTILES_K = 128;
+
+    /**
+     * Max map size of frequent items sketch, must be a power of 2
+     */
+    public static final int FREQUENT_ITEMS_MAP_SIZE = 512;
+
+    /**
+     * Number of evenly spaced quantiles taken from every sketch to build histogram
+     */
+    public static final int QUANTILE_POINTS = 256;
+
+    private final String type;
+
+    private final DataType dataType;
+
+    private final ItemsSketch<Object> quantiles;
+
+    private final com.yahoo.sketches.frequencies.ItemsSketch<Object> frequentItems;
+
+    public ColumnShardSketch(DataType dataType) {
+        this(dataType, ItemsSketch.getInstance(QUANTILES_K, dataType),
+            new com.yahoo.sketches.frequencies.ItemsSketch<>(FREQUENT_ITEMS_MAP_SIZE));
+    }
+
+    private ColumnShardSketch(DataType dataType, ItemsSketch<Object> quantiles,
+                              com.yahoo.sketches.frequencies.ItemsSketch<Object> frequentItems) {
+        this.type = StatisticUtils.encodeDataType(dataType);
+        this.dataType = dataType;
+        this.quantiles = quantiles;
+        this.frequentItems = frequentItems;
+    }
+
+    public DataType getDataType() {
+        return dataType;
+    }
+
+    /**
+     * Count of non-null values offered
+     */
+    public long getN() {
+        return quantiles.getN();
+    }
+
+    public void offer(Object value) {
+        Object item = normalize(value);
+        if (item == null) {
+            return;
+        }
+        quantiles.update(item);
+        frequentItems.update(item);
+    }
+
+    private Object normalize(Object value) {
+        if (value == null) {
+            return null;
+        }
+        switch (type) {
+        case "Int":
+            return DataTypes.LongType.convertFrom(value);
+        case "Double":
+            return DataTypes.DoubleType.convertFrom(value);
+        default:
+            return StatisticUtils.encodeStatisticValue(type, value).toString();
+        }
+    }
+
+    /**
+     * Build topN of the most frequent values whose counts are not less than min, the estimates of
+     * every sketch are multiplied by its scale first.
+     */
+    public static TopN buildTopN(DataType dataType, List<ColumnShardSketch> sketches, List<Double> scales,
+                                 int size, long min) {
+        com.yahoo.sketches.frequencies.ItemsSketch<Object> merged =
+            new com.yahoo.sketches.frequencies.ItemsSketch<>(FREQUENT_ITEMS_MAP_SIZE);
+        for (int i = 0; i < sketches.size(); i++) {
+            for (com.yahoo.sketches.frequencies.ItemsSketch.Row<Object> row : sketches.get(i).frequentItems
+                .getFrequentItems(ErrorType.NO_FALSE_NEGATIVES)) {
+                long count = Math.round(row.getEstimate() * scales.get(i));
+                if (count > 0) {
+                    merged.update(row.getItem(), count);
+                }
+            }
+        }
+
+        List<com.yahoo.sketches.frequencies.ItemsSketch.Row<Object>> rows = new ArrayList<>();
+        for (com.yahoo.sketches.frequencies.ItemsSketch.Row<Object> row : merged
+            .getFrequentItems(ErrorType.NO_FALSE_POSITIVES)) {
+            if (row.getEstimate() >= min) {
+                rows.add(row);
+            }
+        }
+        rows.sort((a, b) -> Long.compare(b.getEstimate(), a.getEstimate()));
+        Map<Object, Long> counts = new HashMap<>();
+        for (int i = 0; i < rows.size() && i < size; i++) {
+            counts.put(rows.get(i).getItem(), rows.get(i).getEstimate());
+        }
+        Object[] valueArr = counts.keySet().toArray();
+        Arrays.sort(valueArr);
+        long[] countArr = new long[valueArr.length];
+        for (int i = 0; i < valueArr.length; i++) {
+            countArr[i] = counts.get(valueArr[i]);
+        }
+        return new TopN(valueArr, countArr, dataType);
+    }
+
+    /**
+     * Build histogram from the evenly spaced quantiles of every sketch, each sketch stands for its count
+     * multiplied by its scale, and values in topN are left out since both are summed up when estimating.
+     */
+    public static Histogram buildHistogram(DataType dataType, int bucketSize, List<ColumnShardSketch> sketches,
+                                           List<Double> scales, TopN topN) {
+        List<Object> points = new ArrayList<>();
+        List<Double> pointWeights = new ArrayList<>();
+        for (int i = 0; i < sketches.size(); i++) {
+            ItemsSketch<Object> quantiles = sketches.get(i).quantiles;
+            if (quantiles.isEmpty()) {
+                continue;
+            }
+            int count = (int) Math.max(2, Math.min(QUANTILE_POINTS, quantiles.getN()));
+            double[] fractions = new double[count];
+            for (int j = 0; j < count; j++) {
+                fractions[j] = (double) j / (count - 1);
+            }
+            double weight = quantiles.getN() * scales.get(i) / count;
+            for (Object point : quantiles.getQuantiles(fractions)) {
+                if (topN == null || topN.get(point) == 0) {
+                    points.add(point);
+                    pointWeights.add(weight);
+                }
+            }
+        }
+
+        Integer[] order = new Integer[points.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> dataType.compare(points.get(a), points.get(b)));
+        Object[] data = new Object[order.length];
+        double[] weights = new double[order.length];
+        for (int i = 0; i < order.length; i++) {
+            data[i] = points.get(order[i]);
+            weights[i] = pointWeights.get(order[i]);
+        }
+        Histogram histogram = new Histogram(bucketSize, dataType, 1f);
+        histogram.buildFromWeightedData(data, weights);
+        return histogram;
+    }
+
+    public String serializeQuantiles() {
+        return toJson(quantiles.toByteArray(serDe(type)));
+    }
+
+    public String serializeFrequentItems() {
+        return toJson(frequentItems.toByteArray(serDe(type)));
+    }
+
+    private String toJson(byte[] bytes) {
+        JSONObject sketchJson = new JSONObject();
+        sketchJson.put("type", type);
+        sketchJson.put("sketch", Base64.getEncoder().encodeToString(bytes));
+        return sketchJson.toJSONString();
+    }
+
+    /**
+     * @return null if broken or the type of column has changed since sampled
+     */
+    public static ColumnShardSketch deserialize(DataType dataType, String quantilesJson, String frequentItemsJson) {
+        if (StringUtils.isEmpty(quantilesJson) || StringUtils.isEmpty(frequentItemsJson)) {
+            return null;
+        }
+        try {
+            String type = StatisticUtils.encodeDataType(dataType);
+            byte[] quantilesBytes = fromJson(type, quantilesJson);
+            byte[] frequentItemsBytes = fromJson(type, frequentItemsJson);
+            if (quantilesBytes == null || frequentItemsBytes == null) {
+                return null;
+            }
+            ArrayOfItemsSerDe<Object> serDe = serDe(type);
+            return new ColumnShardSketch(dataType,
+                ItemsSketch.getInstance(new NativeMemory(quantilesBytes), dataType, serDe),
+                com.yahoo.sketches.frequencies.ItemsSketch.getInstance(new NativeMemory(frequentItemsBytes), serDe));
+        } catch (Throwable e) {
+            logger.error("deserialize column shard sketch error ", e);
+            return null;
+        }
+    }
+
+    private static byte[] fromJson(String type, String json) {
+        JSONObject sketchJson = JSON.parseObject(json);
+        if (!type.equals(sketchJson.getString("type"))) {
+            return null;
+        }
+        return Base64.getDecoder().decode(sketchJson.getString("sketch"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayOfItemsSerDe<Object> serDe(String type) {
+        ArrayOfItemsSerDe<?> serDe;
+        switch (type) {
+        case "Int":
+            serDe = new ArrayOfLongsSerDe();
+            break;
+        case "Double":
+            serDe = new ArrayOfDoublesSerDe();
+            break;
+        default:
+            serDe = new ArrayOfStringsSerDe();
+            break;
+        }
+        return (ArrayOfItemsSerDe<Object>) serDe;
+    }
+}
@@ -86,6 +86,41 @@ public class Histogram {
         }
     }
 
+    /**
+     * Build from the values sorted already, each of which stands for the given number of sampled rows,
+     * e.g. the items merged from the quantile sketches of all physical tables
+     */
+    public void buildFromWeightedData(Object[] sortedData, double[] weights) {
+        if (sortedData == null || sortedData.length == 0) {
+            return;
+        }
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double numPerBucket = Math.ceil(total / maxBucketSize);
+
+        double bucketCount = weights[0];
+        double preSum = 0;
+        buckets.add(newBucket(sortedData[0], 0));
+        for (int i = 1; i < sortedData.length; i++) {
+            Bucket bucket = buckets.get(buckets.size() - 1);
+            if (dataType.compare(bucket.upper, sortedData[i]) == 0) {
+                bucketCount += weights[i];
+            } else if (bucketCount < numPerBucket) {
+                bucketCount += weights[i];
+                bucket.ndv++;
+                bucket.upper = sortedData[i];
+            } else {
+                bucket.count = (int) Math.max(Math.round(bucketCount), 1);
+                preSum += bucketCount;
+                bucketCount = weights[i];
+                buckets.add(newBucket(sortedData[i], (int) Math.round(preSum)));
+            }
+        }
+        buckets.get(buckets.size() - 1).count = (int) Math.max(Math.round(bucketCount), 1);
+    }
+
     private Bucket newBucket(Object value, int preSum) {
         Bucket bucket = new Bucket();
         bucket.lower = value;
@@ -14,7 +14,7 @@
  * limitations under the License.
  */
 
-package com.alibaba.polardbx.executor.statistic.ndv;
+package com.alibaba.polardbx.optimizer.config.table.statistic;
 
 import com.alibaba.polardbx.common.utils.logger.Logger;
 import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
@@ -45,10 +45,38 @@ public class HyperLogLogUtil {
     private static int get(byte[] a, int pos) {
         int bytePos = pos * HLL_BITS / 8;
         int bitRemine = (pos * HLL_BITS) & 7;
+        // registers are unsigned, the sign bits of byte must not leak into the next register
         if (bytePos + 1 == a.length) {
-            return (a[bytePos] >> bitRemine) & HLL_REGISTER_MAX;
+            return ((a[bytePos] & 0xFF) >> bitRemine) & HLL_REGISTER_MAX;
         }
-        return ((a[bytePos] >> bitRemine) | (a[bytePos + 1] << (8 - bitRemine))) & HLL_REGISTER_MAX;
+        return (((a[bytePos] & 0xFF) >> bitRemine) | ((a[bytePos + 1] & 0xFF) << (8 - bitRemine)))
+            & HLL_REGISTER_MAX;
+    }
+
+    /**
+     * Add a 64-bit hash value into the dense registers of HLL_REGBYTES bytes, in the same way as redis does:
+     * the low HLL_P bits choose the register, and the register keeps the max position of the first 1 bit
+     * in the remaining bits.
+     */
+    public static void add(byte[] registers, long hash) {
+        int index = (int) (hash & (HLL_REGISTERS - 1));
+        // a sentinel bit bounds the count when the remaining bits are all zero
+        long remaining = (hash >>> HLL_P) | (1L << HLL_Q);
+        int count = Long.numberOfTrailingZeros(remaining) + 1;
+        if (get(registers, index) < count) {
+            set(registers, index, count);
+        }
+    }
+
+    /**
+     * Estimate the cardinality of the dense registers of HLL_REGBYTES bytes.
+     */
+    public static long estimate(byte[] registers) {
+        double[] reghisto = new double[64];
+        for (int i = 0; i < HLL_REGISTERS; i++) {
+            reghisto[get(registers, i)]++;
+        }
+        return reckon(reghisto);
     }
 
     private static void set(byte[] a, int pos, int val) {
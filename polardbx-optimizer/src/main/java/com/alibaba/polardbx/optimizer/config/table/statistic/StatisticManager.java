@@ -86,6 +86,11 @@ public class StatisticManager extends AbstractLifecycle implements StatisticServ
 
     private Map<String, CacheLine> statisticCache = new ConcurrentHashMap<>();
 
+    /**
+     * logical table -> shard part (group:physical table) -> rows inserted, updated or deleted since server start
+     */
+    private final Map<String, Map<String, AtomicLong>> shardModifyCounts = new ConcurrentHashMap<>();
+
     private final String schemaName;
 
     private ScheduledThreadPoolExecutor scheduler;
@@ -591,6 +596,44 @@ public class StatisticManager extends AbstractLifecycle implements StatisticServ
         }
     }
 
+    /**
+     * Count rows updated in place, which change no row count but make histogram and topN stale
+     */
+    public void addModifyRowCount(String logicalTableName, long affectRow) {
+        if (SystemTables.contains(logicalTableName) || SystemDbHelper.isDBBuildIn(getSchemaName())) {
+            return;
+        }
+        if (affectRow == 0) {
+            return;
+        }
+        getCacheLine(logicalTableName).addModifyCount(affectRow);
+    }
+
+    /**
+     * Count rows inserted, updated or deleted on one physical table, used to find the stale shards
+     */
+    public void addShardModifyRowCount(String logicalTableName, String groupName, String physicalTableName,
+                                       long affectRow) {
+        if (SystemTables.contains(logicalTableName) || SystemDbHelper.isDBBuildIn(getSchemaName())) {
+            return;
+        }
+        if (affectRow <= 0) {
+            return;
+        }
+        shardModifyCounts.computeIfAbsent(logicalTableName.toLowerCase(), k -> new ConcurrentHashMap<>())
+            .computeIfAbsent((groupName + ":" + physicalTableName).toLowerCase(), k -> new AtomicLong(0))
+            .addAndGet(affectRow);
+    }
+
+    /**
+     * @param shardPart group:physical table in lower case
+     */
+    public long getShardModifyCount(String logicalTableName, String shardPart) {
+        Map<String, AtomicLong> counts = shardModifyCounts.get(logicalTableName.toLowerCase());
+        AtomicLong count = counts == null ? null : counts.get(shardPart);
+        return count == null ? 0L : count.get();
+    }
+
     public void collectLogicalTableAsync(String logicalTableName) {
         if (SystemTables.contains(logicalTableName) || SystemDbHelper.isDBBuildIn(getSchemaName())) {
             return;
@@ -642,6 +685,10 @@ public class StatisticManager extends AbstractLifecycle implements StatisticServ
         CacheLine cacheLine = getCacheLine(oldLogicalTableName);
         statisticCache.put(newLogicalTableName.toLowerCase(), cacheLine);
         statisticCache.remove(oldLogicalTableName.toLowerCase());
+        Map<String, AtomicLong> counts = shardModifyCounts.remove(oldLogicalTableName.toLowerCase());
+        if (counts != null) {
+            shardModifyCounts.put(newLogicalTableName.toLowerCase(), counts);
+        }
         systemTableTableStatistic.renameTable(oldLogicalTableName.toLowerCase(), newLogicalTableName.toLowerCase());
         systemTableColumnStatistic.renameTable(oldLogicalTableName.toLowerCase(), newLogicalTableName.toLowerCase());
     }
@@ -684,6 +731,7 @@ public class StatisticManager extends AbstractLifecycle implements StatisticServ
         }
         for (String logicalTableName : logicalTableNameList) {
             this.statisticCache.remove(logicalTableName.toLowerCase());
+            this.shardModifyCounts.remove(logicalTableName.toLowerCase());
         }
         systemTableTableStatistic.removeLogicalTableList(logicalTableNameList);
         systemTableColumnStatistic.removeLogicalTableList(logicalTableNameList);
@@ -784,6 +832,10 @@ public class StatisticManager extends AbstractLifecycle implements StatisticServ
     public static class CacheLine {
         private long originRowCount = 0;
         private AtomicLong updateRowCount = new AtomicLong(0);
+        /**
+         * rows inserted, updated or deleted since this cache line is built
+         */
+        private final AtomicLong modifyCount = new AtomicLong(0);
         private Map<String, Long> cardinalityMap;
         private Map<String, CountMinSketch> countMinSketchMap;
         private Map<String, Long> nullCountMap;
@@ -808,6 +860,7 @@ public class StatisticManager extends AbstractLifecycle implements StatisticServ
         }
 
         public long addUpdateRowCount(long n) {
+            addModifyCount(Math.abs(n));
             long result = this.updateRowCount.addAndGet(n);
             if (result < 0) {
                 this.updateRowCount.set(0);
@@ -820,6 +873,14 @@ public class StatisticManager extends AbstractLifecycle implements StatisticServ
             return updateRowCount.get();
         }
 
+        public long addModifyCount(long n) {
+            return modifyCount.addAndGet(n);
+        }
+
+        public long getModifyCount() {
+            return modifyCount.get();
+        }
+
         public void setRowCount(long rowCount) {
             originRowCount = rowCount;
             updateRowCount.set(rowCount);
@@ -141,6 +141,41 @@ public class StatisticUtils {
         return type;
     }
 
+    /**
+     * Encode a sampled value of the encoded type into json, the same way as histogram does
+     */
+    public static Object encodeStatisticValue(String type, Object value) {
+        if (value == null) {
+            return null;
+        }
+        switch (type) {
+        case "String":
+        case "Timestamp":
+        case "Time":
+        case "Date":
+            return value instanceof byte[] ? new String((byte[]) value) : value.toString();
+        default:
+            return value;
+        }
+    }
+
+    /**
+     * Decode a value from json, so that the values of the same type are comparable and hashed consistently
+     */
+    public static Object decodeStatisticValue(String type, Object value) {
+        if (value == null) {
+            return null;
+        }
+        switch (type) {
+        case "Int":
+            return value instanceof Number ? ((Number) value).longValue() : value;
+        case "Double":
+            return value instanceof Number ? ((Number) value).doubleValue() : value;
+        default:
+            return value;
+        }
+    }
+
     public static boolean isBinaryOrJsonColumn(ColumnMeta columnMeta) {
         switch (columnMeta.getDataType().getSqlType()) {
         case Types.BIT:
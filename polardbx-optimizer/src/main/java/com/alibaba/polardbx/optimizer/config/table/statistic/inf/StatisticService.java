@@ -50,6 +50,11 @@ public interface StatisticService {
 
     public void addUpdateRowCount(String logicalTableName, long affectRow);
 
+    public void addModifyRowCount(String logicalTableName, long affectRow);
+
+    public void addShardModifyRowCount(String logicalTableName, String groupName, String physicalTableName,
+                                       long affectRow);
+
     DataType getDataType(String tableName, String name);
 
     StatisticLogInfo getStatisticLogInfo();
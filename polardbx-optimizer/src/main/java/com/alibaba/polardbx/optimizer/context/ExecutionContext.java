@@ -193,6 +193,9 @@ public class ExecutionContext {
     // INSERT SELECT or UPDATE / DELETE that cannot be pushed down
     private boolean modifySelect;
 
+    // Tables modified in current transaction, their result cache is invalidated again on commit / rollback
+    private Set<Pair<String, String>> trxModifiedTables = ConcurrentHashMap.newKeySet();
+
     private Map<CorrelationId, Row> correlateRowMap = Maps.newHashMap();
     private Map<RexFieldAccess, RexNode> correlateFieldInViewMap = Maps.newHashMap();
 
@@ -777,6 +780,10 @@ public class ExecutionContext {
         this.modifySelect = modifySelect;
     }
 
+    public Set<Pair<String, String>> getTrxModifiedTables() {
+        return trxModifiedTables;
+    }
+
     public ExplainResult getExplain() {
         return explain;
     }
@@ -999,6 +1006,7 @@ public class ExecutionContext {
         ec.originSql = getOriginSql();
         ec.isPrivilegeMode = isPrivilegeMode();
         ec.modifySelect = isModifySelect();
+        ec.trxModifiedTables = getTrxModifiedTables();
         ec.correlateRowMap = Maps.newHashMap(getCorrelateRowMap());
         ec.correlateFieldInViewMap = Maps.newConcurrentMap();
         ec.correlateFieldInViewMap.putAll(correlateFieldInViewMap);
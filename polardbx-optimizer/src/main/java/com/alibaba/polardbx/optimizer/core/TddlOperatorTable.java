@@ -20,6 +20,9 @@ import com.alibaba.polardbx.optimizer.core.function.AddTimeFunction;
 import com.alibaba.polardbx.optimizer.core.function.FunctionWithVariadicArg;
 import com.alibaba.polardbx.optimizer.core.function.FunctionWithoutArg;
 import com.alibaba.polardbx.optimizer.core.function.MySQLMatchAgainst;
+import com.alibaba.polardbx.optimizer.core.function.SqlApproxAggFunction;
+import com.alibaba.polardbx.optimizer.core.function.SqlApproxCountDistinctFunction;
+import com.alibaba.polardbx.optimizer.core.function.SqlApproxPercentileFunction;
 import com.alibaba.polardbx.optimizer.core.function.SqlBitAndFunction;
 import com.alibaba.polardbx.optimizer.core.function.SqlBitOrFunction;
 import com.alibaba.polardbx.optimizer.core.function.SqlBitXorFunction;
@@ -958,6 +961,27 @@ public class TddlOperatorTable extends SqlStdOperatorTable {
 
     public static SqlFunction BIT_XOR = new SqlBitXorFunction();
 
+    /**
+     * Approximate aggregate functions, each in complete, partial and merge phase
+     */
+    public static SqlApproxAggFunction APPROX_COUNT_DISTINCT_COMPLETE =
+        new SqlApproxCountDistinctFunction(SqlApproxAggFunction.Phase.COMPLETE);
+
+    public static SqlApproxAggFunction APPROX_COUNT_DISTINCT_PARTIAL =
+        new SqlApproxCountDistinctFunction(SqlApproxAggFunction.Phase.PARTIAL);
+
+    public static SqlApproxAggFunction APPROX_COUNT_DISTINCT_MERGE =
+        new SqlApproxCountDistinctFunction(SqlApproxAggFunction.Phase.MERGE);
+
+    public static SqlApproxAggFunction APPROX_PERCENTILE_COMPLETE =
+        new SqlApproxPercentileFunction(SqlApproxAggFunction.Phase.COMPLETE);
+
+    public static SqlApproxAggFunction APPROX_PERCENTILE_PARTIAL =
+        new SqlApproxPercentileFunction(SqlApproxAggFunction.Phase.PARTIAL);
+
+    public static SqlApproxAggFunction APPROX_PERCENTILE_MERGE =
+        new SqlApproxPercentileFunction(SqlApproxAggFunction.Phase.MERGE);
+
     /**
      * Variadic operands functions
      */
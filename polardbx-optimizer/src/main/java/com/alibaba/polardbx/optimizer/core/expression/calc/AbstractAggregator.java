@@ -16,6 +16,7 @@
 
 package com.alibaba.polardbx.optimizer.core.expression.calc;
 
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 
 /**
@@ -79,4 +80,13 @@ public abstract class AbstractAggregator implements Aggregator {
     public int[] getInputColumnIndexes() {
         return originTargetIndexes;
     }
+
+    /**
+     * Per-row fallback of batch accumulate, for subclasses whose vectorized path
+     * does not support the input block. Subclasses of an overriding aggregator
+     * (e.g. min over max) can not reach the interface default by super.
+     */
+    protected final void accumulateRowByRow(int[] groupIds, Chunk inputChunk, int[] selection, int selSize) {
+        Aggregator.super.accumulate(groupIds, inputChunk, selection, selSize);
+    }
 }
\ No newline at end of file
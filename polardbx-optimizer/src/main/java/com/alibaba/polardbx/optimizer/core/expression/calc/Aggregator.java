@@ -27,6 +27,27 @@ public interface Aggregator {
      */
     void accumulate(int groupId, Chunk inputChunk, int position);
 
+    /**
+     * @param groupIds id of the target agg group for each position of the input chunk
+     * @param selection selected positions of the input chunk, or null if all positions are selected
+     * @param selSize number of selected positions (or positions of the input chunk if selection is null)
+     * <p>
+     * Accumulate a batch of values into their target groups. Hot aggregators override this with a
+     * tight loop over the underlying block, others fall back to the per-row accumulate
+     */
+    default void accumulate(int[] groupIds, Chunk inputChunk, int[] selection, int selSize) {
+        if (selection == null) {
+            for (int position = 0; position < selSize; position++) {
+                accumulate(groupIds[position], inputChunk, position);
+            }
+        } else {
+            for (int i = 0; i < selSize; i++) {
+                final int position = selection[i];
+                accumulate(groupIds[position], inputChunk, position);
+            }
+        }
+    }
+
     /**
      * write aggregated result to the block builder
      */
@@ -0,0 +1,208 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions;
+
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.chunk.BlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.config.table.statistic.HyperLogLogUtil;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.expression.calc.AbstractAggregator;
+import com.alibaba.polardbx.optimizer.core.function.SqlApproxAggFunction.Phase;
+import com.alibaba.polardbx.optimizer.core.planner.rule.mpp.runtimefilter.RuntimeFilterUtil;
+import com.alibaba.polardbx.optimizer.state.NullableObjectGroupState;
+import com.alibaba.polardbx.util.bloomfilter.Murmur3_128Method;
+import com.alibaba.polardbx.util.bloomfilter.TddlHasher;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * APPROX_COUNT_DISTINCT with one HyperLogLog sketch per group, using the registers and estimation
+ * of {@link HyperLogLogUtil} as the NDV sketches of statistics do.
+ * Values are hashed by murmur3 as the runtime filter does, so the sketches built by different
+ * workers in partial phase are mergeable.
+ */
+public class ApproxCountDistinct extends AbstractAggregator {
+
+    private final Phase phase;
+
+    /**
+     * Whether the input block supports hashing into bloom filter
+     */
+    private final boolean isBlockHashSupported;
+
+    private final TddlHasher hasher = Murmur3_128Method.create().newHasher();
+
+    private NullableObjectGroupState groupState;
+
+    private long sketchSize;
+
+    public ApproxCountDistinct(int index, boolean isDistinct, DataType inputType, DataType outputType, Phase phase,
+                               int filterArg) {
+        super(new int[] {index}, isDistinct, new DataType[] {inputType}, outputType, filterArg);
+        this.phase = phase;
+        this.isBlockHashSupported = inputType != null && RuntimeFilterUtil.supportsRuntimeFilter(inputType);
+    }
+
+    @Override
+    public void open(int capacity) {
+        groupState = new NullableObjectGroupState(capacity);
+        sketchSize = 0;
+    }
+
+    @Override
+    public void appendInitValue() {
+        groupState.appendNull();
+    }
+
+    @Override
+    public void resetToInitValue(int groupId) {
+        groupState.setNull(groupId);
+    }
+
+    @Override
+    public void accumulate(int groupId, Chunk chunk, int position) {
+        Block block = chunk.getBlock(aggIndexInChunk[0]);
+        if (block.isNull(position)) {
+            return;
+        }
+
+        Sketch sketch = (Sketch) groupState.get(groupId);
+        if (sketch == null) {
+            sketch = new Sketch();
+            groupState.set(groupId, sketch);
+        }
+        long sizeBefore = sketch.estimateSize();
+        if (phase == Phase.MERGE) {
+            sketch.merge(block.getByteArray(position));
+        } else {
+            sketch.add(hash(block, position));
+        }
+        sketchSize += sketch.estimateSize() - sizeBefore;
+    }
+
+    private long hash(Block block, int position) {
+        if (isBlockHashSupported) {
+            block.addToBloomFilter(hasher, position);
+        } else {
+            Object value = block.getObject(position);
+            if (value instanceof byte[]) {
+                hasher.putBytes((byte[]) value);
+            } else {
+                hasher.putBytes(value.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return hasher.hash().asLong();
+    }
+
+    @Override
+    public void writeResultTo(int groupId, BlockBuilder bb) {
+        Sketch sketch = (Sketch) groupState.get(groupId);
+        if (phase == Phase.PARTIAL) {
+            if (sketch == null) {
+                bb.appendNull();
+            } else {
+                bb.writeByteArray(sketch.serialize());
+            }
+        } else {
+            bb.writeLong(sketch == null ? 0 : sketch.estimate());
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        return groupState.estimateSize() + sketchSize;
+    }
+
+    /**
+     * Small groups keep their hash values in an exact set, and are converted to the dense registers once
+     * the set grows beyond SPARSE_MAX_SIZE. The set then takes 1024 slots of long (8KB), still less than
+     * the registers (12KB), so that a group with a few distinct values does not pay for the registers.
+     */
+    static final class Sketch {
+        private static final int SPARSE_MAX_SIZE = 512;
+
+        private static final byte SPARSE = 0;
+        private static final byte DENSE = 1;
+
+        /**
+         * Null in dense mode
+         */
+        private LongOpenHashSet sparse = new LongOpenHashSet();
+
+        /**
+         * Null in sparse mode
+         */
+        private byte[] registers;
+
+        void add(long hash) {
+            if (registers != null) {
+                HyperLogLogUtil.add(registers, hash);
+            } else if (sparse.add(hash) && sparse.size() > SPARSE_MAX_SIZE) {
+                toDense();
+            }
+        }
+
+        void merge(byte[] bytes) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            if (buffer.get() == DENSE) {
+                byte[] other = new byte[HyperLogLogUtil.HLL_REGBYTES];
+                buffer.get(other);
+                if (registers == null) {
+                    toDense();
+                }
+                HyperLogLogUtil.merge(registers, other);
+            } else {
+                int size = buffer.getInt();
+                for (int i = 0; i < size; i++) {
+                    add(buffer.getLong());
+                }
+            }
+        }
+
+        long estimate() {
+            return registers == null ? sparse.size() : HyperLogLogUtil.estimate(registers);
+        }
+
+        byte[] serialize() {
+            if (registers != null) {
+                return ByteBuffer.allocate(1 + registers.length).put(DENSE).put(registers).array();
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(1 + Integer.BYTES + sparse.size() * Long.BYTES);
+            buffer.put(SPARSE).putInt(sparse.size());
+            for (LongIterator it = sparse.iterator(); it.hasNext(); ) {
+                buffer.putLong(it.nextLong());
+            }
+            return buffer.array();
+        }
+
+        long estimateSize() {
+            return registers == null ? 2L * sparse.size() * Long.BYTES : registers.length;
+        }
+
+        private void toDense() {
+            registers = new byte[HyperLogLogUtil.HLL_REGBYTES];
+            for (LongIterator it = sparse.iterator(); it.hasNext(); ) {
+                HyperLogLogUtil.add(registers, it.nextLong());
+            }
+            sparse = null;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions;
+
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.chunk.BlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.expression.calc.AbstractAggregator;
+import com.alibaba.polardbx.optimizer.core.function.SqlApproxAggFunction.Phase;
+import com.alibaba.polardbx.optimizer.exception.FunctionException;
+import com.alibaba.polardbx.optimizer.state.NullableObjectGroupState;
+import com.yahoo.sketches.memory.NativeMemory;
+import com.yahoo.sketches.quantiles.DoublesSketch;
+import com.yahoo.sketches.quantiles.DoublesUnion;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * APPROX_PERCENTILE with one quantiles sketch of sketches-core per group.
+ * The fraction is a constant column of input, and is written in front of the serialized sketch
+ * in partial phase, so that merge phase only takes the sketch.
+ */
+public class ApproxPercentile extends AbstractAggregator {
+
+    private final Phase phase;
+
+    private NullableObjectGroupState groupState;
+
+    private long sketchSize;
+
+    /**
+     * NaN until the first non-null value is accumulated
+     */
+    private double fraction = Double.NaN;
+
+    public ApproxPercentile(int[] targetIndexes, DataType inputType, DataType outputType, Phase phase,
+                            int filterArg) {
+        super(targetIndexes, false, new DataType[] {inputType}, outputType, filterArg);
+        this.phase = phase;
+    }
+
+    @Override
+    public void open(int capacity) {
+        groupState = new NullableObjectGroupState(capacity);
+        sketchSize = 0;
+    }
+
+    @Override
+    public void appendInitValue() {
+        groupState.appendNull();
+    }
+
+    @Override
+    public void resetToInitValue(int groupId) {
+        groupState.setNull(groupId);
+    }
+
+    @Override
+    public void accumulate(int groupId, Chunk chunk, int position) {
+        Block block = chunk.getBlock(aggIndexInChunk[0]);
+        if (block.isNull(position)) {
+            return;
+        }
+
+        if (phase == Phase.MERGE) {
+            byte[] bytes = block.getByteArray(position);
+            fraction = ByteBuffer.wrap(bytes).getDouble();
+            DoublesSketch other =
+                DoublesSketch.heapify(new NativeMemory(Arrays.copyOfRange(bytes, Double.BYTES, bytes.length)));
+            Sketch sketch = getOrCreateSketch(groupId);
+            long sizeBefore = sketch.estimateSize();
+            sketch.union.update(other);
+            sketch.count += other.getN();
+            sketchSize += sketch.estimateSize() - sizeBefore;
+            return;
+        }
+
+        Double value = DataTypes.DoubleType.convertFrom(block.getObject(position));
+        if (value == null) {
+            return;
+        }
+        if (Double.isNaN(fraction)) {
+            fraction = fractionAt(chunk.getBlock(aggIndexInChunk[1]), position);
+        }
+        Sketch sketch = getOrCreateSketch(groupId);
+        long sizeBefore = sketch.estimateSize();
+        sketch.union.update(value);
+        sketch.count++;
+        sketchSize += sketch.estimateSize() - sizeBefore;
+    }
+
+    private Sketch getOrCreateSketch(int groupId) {
+        Sketch sketch = (Sketch) groupState.get(groupId);
+        if (sketch == null) {
+            sketch = new Sketch();
+            groupState.set(groupId, sketch);
+        }
+        return sketch;
+    }
+
+    private static double fractionAt(Block block, int position) {
+        Double value = block.isNull(position) ? null : DataTypes.DoubleType.convertFrom(block.getObject(position));
+        if (value == null || value < 0 || value > 1) {
+            throw new FunctionException("fraction of APPROX_PERCENTILE must be between 0 and 1");
+        }
+        return value;
+    }
+
+    @Override
+    public void writeResultTo(int groupId, BlockBuilder bb) {
+        Sketch sketch = (Sketch) groupState.get(groupId);
+        if (sketch == null || sketch.count == 0) {
+            bb.appendNull();
+        } else if (phase == Phase.PARTIAL) {
+            byte[] bytes = sketch.union.getResult().toByteArray();
+            bb.writeByteArray(ByteBuffer.allocate(Double.BYTES + bytes.length).putDouble(fraction).put(bytes).array());
+        } else {
+            bb.writeDouble(sketch.union.getResult().getQuantile(fraction));
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        return groupState.estimateSize() + sketchSize;
+    }
+
+    private static final class Sketch {
+        private static final int K = DoublesSketch.DEFAULT_K;
+
+        final DoublesUnion union = DoublesUnion.builder().build();
+
+        /**
+         * Number of values summarized by the sketch
+         */
+        long count;
+
+        /**
+         * The sketch retains at most 2K values in its base buffer and K values for each level above,
+         * whose number grows logarithmically with the count
+         */
+        long estimateSize() {
+            if (count < 2L * K) {
+                return count * Double.BYTES;
+            }
+            int levels = Long.SIZE - Long.numberOfLeadingZeros(count / (2L * K));
+            return (2L * K + (long) K * levels) * Double.BYTES;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions;
 
+import com.alibaba.polardbx.optimizer.chunk.Block;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
 import com.alibaba.polardbx.optimizer.core.expression.calc.AbstractAggregator;
 import com.alibaba.polardbx.optimizer.state.NullableLongGroupState;
@@ -55,6 +56,34 @@ public class Count extends AbstractAggregator {
         }
     }
 
+    @Override
+    public void accumulate(int[] groupIds, Chunk inputChunk, int[] selection, int selSize) {
+        final Block[] blocks = new Block[aggIndexInChunk.length];
+        boolean mayHaveNull = false;
+        for (int i = 0; i < aggIndexInChunk.length; i++) {
+            blocks[i] = inputChunk.getBlock(aggIndexInChunk[i]);
+            mayHaveNull |= blocks[i].mayHaveNull();
+        }
+
+        for (int i = 0; i < selSize; i++) {
+            final int position = selection == null ? i : selection[i];
+            if (mayHaveNull && anyNull(blocks, position)) {
+                continue;
+            }
+            final int groupId = groupIds[position];
+            groupState.set(groupId, groupState.get(groupId) + 1);
+        }
+    }
+
+    private static boolean anyNull(Block[] blocks, int position) {
+        for (Block block : blocks) {
+            if (block.isNull(position)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public void writeResultTo(int groupId, BlockBuilder bb) {
         if (groupState.isNull(groupId)) {
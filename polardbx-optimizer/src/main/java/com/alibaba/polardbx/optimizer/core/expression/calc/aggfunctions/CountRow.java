@@ -44,6 +44,14 @@ public class CountRow extends AbstractAggregator {
         groupState.set(groupId, groupState.get(groupId) + 1);
     }
 
+    @Override
+    public void accumulate(int[] groupIds, Chunk inputChunk, int[] selection, int selSize) {
+        for (int i = 0; i < selSize; i++) {
+            final int groupId = groupIds[selection == null ? i : selection[i]];
+            groupState.set(groupId, groupState.get(groupId) + 1);
+        }
+    }
+
     @Override
     public void writeResultTo(int position, BlockBuilder bb) {
         bb.writeLong(groupState.get(position));
@@ -67,6 +67,22 @@ public class Decimal2DecimalMax extends AbstractAggregator {
         }
     }
 
+    @Override
+    public void accumulate(int[] groupIds, Chunk inputChunk, int[] selection, int selSize) {
+        Block block = inputChunk.getBlock(aggIndexInChunk[0]);
+        for (int i = 0; i < selSize; i++) {
+            final int position = selection == null ? i : selection[i];
+            if (block.isNull(position)) {
+                continue;
+            }
+            final int groupId = groupIds[position];
+            final Decimal value = block.getDecimal(position);
+            if (groupState.isNull(groupId) || value.compareTo(groupState.get(groupId)) > 0) {
+                groupState.set(groupId, value);
+            }
+        }
+    }
+
     @Override
     public void writeResultTo(int groupId, BlockBuilder bb) {
         if (groupState.isNull(groupId)) {
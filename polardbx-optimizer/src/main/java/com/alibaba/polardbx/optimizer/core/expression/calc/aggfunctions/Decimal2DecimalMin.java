@@ -46,5 +46,21 @@ public class Decimal2DecimalMin extends Decimal2DecimalMax {
             groupState.set(groupId, afterValue);
         }
     }
+
+    @Override
+    public void accumulate(int[] groupIds, Chunk inputChunk, int[] selection, int selSize) {
+        Block block = inputChunk.getBlock(aggIndexInChunk[0]);
+        for (int i = 0; i < selSize; i++) {
+            final int position = selection == null ? i : selection[i];
+            if (block.isNull(position)) {
+                continue;
+            }
+            final int groupId = groupIds[position];
+            final Decimal value = block.getDecimal(position);
+            if (groupState.isNull(groupId) || value.compareTo(groupState.get(groupId)) < 0) {
+                groupState.set(groupId, value);
+            }
+        }
+    }
 }
 
@@ -16,6 +16,7 @@
 
 package com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions;
 
+import com.alibaba.polardbx.optimizer.chunk.DoubleBlock;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.optimizer.core.expression.calc.AbstractAggregator;
 import com.alibaba.polardbx.optimizer.chunk.Block;
@@ -63,6 +64,33 @@ public class Double2DoubleMax extends AbstractAggregator {
         }
     }
 
+    @Override
+    public void accumulate(int[] groupIds, Chunk inputChunk, int[] selection, int selSize) {
+        Block block = inputChunk.getBlock(aggIndexInChunk[0]);
+        if (!(block instanceof DoubleBlock)) {
+            accumulateRowByRow(groupIds, inputChunk, selection, selSize);
+            return;
+        }
+
+        final DoubleBlock doubleBlock = (DoubleBlock) block;
+        final double[] values = doubleBlock.doubleArray();
+        final boolean[] nulls = doubleBlock.mayHaveNull() ? doubleBlock.nulls() : null;
+        final int offset = doubleBlock.getArrayOffset();
+        for (int i = 0; i < selSize; i++) {
+            final int position = selection == null ? i : selection[i];
+            if (nulls != null && nulls[position + offset]) {
+                continue;
+            }
+            final int groupId = groupIds[position];
+            final double value = values[position + offset];
+            if (groupState.isNull(groupId)) {
+                groupState.set(groupId, value);
+            } else {
+                groupState.set(groupId, Math.max(value, groupState.get(groupId)));
+            }
+        }
+    }
+
     @Override
     public void writeResultTo(int groupId, BlockBuilder bb) {
         if (groupState.isNull(groupId)) {
@@ -16,6 +16,7 @@
 
 package com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions;
 
+import com.alibaba.polardbx.optimizer.chunk.DoubleBlock;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.optimizer.chunk.Block;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
@@ -42,5 +43,32 @@ public class Double2DoubleMin extends Double2DoubleMax {
             groupState.set(groupId, afterValue);
         }
     }
+
+    @Override
+    public void accumulate(int[] groupIds, Chunk inputChunk, int[] selection, int selSize) {
+        Block block = inputChunk.getBlock(aggIndexInChunk[0]);
+        if (!(block instanceof DoubleBlock)) {
+            accumulateRowByRow(groupIds, inputChunk, selection, selSize);
+            return;
+        }
+
+        final DoubleBlock doubleBlock = (DoubleBlock) block;
+        final double[] values = doubleBlock.doubleArray();
+        final boolean[] nulls = doubleBlock.mayHaveNull() ? doubleBlock.nulls() : null;
+        final int offset = doubleBlock.getArrayOffset();
+        for (int i = 0; i < selSize; i++) {
+            final int position = selection == null ? i : selection[i];
+            if (nulls != null && nulls[position + offset]) {
+                continue;
+            }
+            final int groupId = groupIds[position];
+            final double value = values[position + offset];
+            if (groupState.isNull(groupId)) {
+                groupState.set(groupId, value);
+            } else {
+                groupState.set(groupId, Math.min(value, groupState.get(groupId)));
+            }
+        }
+    }
 }
 
@@ -16,6 +16,7 @@
 
 package com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions;
 
+import com.alibaba.polardbx.optimizer.chunk.IntegerBlock;
 import com.alibaba.polardbx.optimizer.chunk.Block;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
@@ -41,4 +42,31 @@ public class Int2IntMin extends Int2IntMax {
             groupState.set(groupId, afterValue);
         }
     }
+
+    @Override
+    public void accumulate(int[] groupIds, Chunk inputChunk, int[] selection, int selSize) {
+        Block block = inputChunk.getBlock(aggIndexInChunk[0]);
+        if (!(block instanceof IntegerBlock)) {
+            accumulateRowByRow(groupIds, inputChunk, selection, selSize);
+            return;
+        }
+
+        final IntegerBlock intBlock = (IntegerBlock) block;
+        final int[] values = intBlock.intArray();
+        final boolean[] nulls = intBlock.mayHaveNull() ? intBlock.nulls() : null;
+        final int offset = intBlock.getArrayOffset();
+        for (int i = 0; i < selSize; i++) {
+            final int position = selection == null ? i : selection[i];
+            if (nulls != null && nulls[position + offset]) {
+                continue;
+            }
+            final int groupId = groupIds[position];
+            final int value = values[position + offset];
+            if (groupState.isNull(groupId)) {
+                groupState.set(groupId, value);
+            } else {
+                groupState.set(groupId, Math.min(value, groupState.get(groupId)));
+            }
+        }
+    }
 }
@@ -20,6 +20,7 @@ import com.alibaba.polardbx.common.datatype.Decimal;
 import com.alibaba.polardbx.optimizer.chunk.Block;
 import com.alibaba.polardbx.optimizer.chunk.BlockBuilder;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 import com.alibaba.polardbx.optimizer.core.expression.calc.AbstractAggregator;
 import com.alibaba.polardbx.optimizer.state.NullableLongGroupState;
@@ -47,8 +48,36 @@ public abstract class LittleNum2DecimalSum extends AbstractAggregator {
         if (block.isNull(position)) {
             return;
         }
+        add(groupId, getLong(block, position));
+    }
+
+    @Override
+    public void accumulate(int[] groupIds, Chunk inputChunk, int[] selection, int selSize) {
+        Block block = inputChunk.getBlock(aggIndexInChunk[0]);
+        if (block instanceof LongBlock) {
+            final LongBlock longBlock = (LongBlock) block;
+            final long[] values = longBlock.longArray();
+            final boolean[] nulls = longBlock.mayHaveNull() ? longBlock.nulls() : null;
+            final int offset = longBlock.getArrayOffset();
+            for (int i = 0; i < selSize; i++) {
+                final int position = selection == null ? i : selection[i];
+                if (nulls != null && nulls[position + offset]) {
+                    continue;
+                }
+                add(groupIds[position], values[position + offset]);
+            }
+        } else {
+            for (int i = 0; i < selSize; i++) {
+                final int position = selection == null ? i : selection[i];
+                if (block.isNull(position)) {
+                    continue;
+                }
+                add(groupIds[position], getLong(block, position));
+            }
+        }
+    }
 
-        final long value = getLong(block, position);
+    private void add(int groupId, long value) {
         if (partialGroupState.isNull(groupId)) {
             partialGroupState.set(groupId, value);
         } else {
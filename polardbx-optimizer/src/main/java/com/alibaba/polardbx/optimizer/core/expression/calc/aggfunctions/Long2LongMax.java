@@ -16,6 +16,7 @@
 
 package com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions;
 
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
 import com.alibaba.polardbx.optimizer.chunk.Block;
 import com.alibaba.polardbx.optimizer.chunk.BlockBuilder;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
@@ -62,6 +63,33 @@ public class Long2LongMax extends AbstractAggregator {
         }
     }
 
+    @Override
+    public void accumulate(int[] groupIds, Chunk inputChunk, int[] selection, int selSize) {
+        Block block = inputChunk.getBlock(aggIndexInChunk[0]);
+        if (!(block instanceof LongBlock)) {
+            accumulateRowByRow(groupIds, inputChunk, selection, selSize);
+            return;
+        }
+
+        final LongBlock longBlock = (LongBlock) block;
+        final long[] values = longBlock.longArray();
+        final boolean[] nulls = longBlock.mayHaveNull() ? longBlock.nulls() : null;
+        final int offset = longBlock.getArrayOffset();
+        for (int i = 0; i < selSize; i++) {
+            final int position = selection == null ? i : selection[i];
+            if (nulls != null && nulls[position + offset]) {
+                continue;
+            }
+            final int groupId = groupIds[position];
+            final long value = values[position + offset];
+            if (groupState.isNull(groupId)) {
+                groupState.set(groupId, value);
+            } else {
+                groupState.set(groupId, Math.max(value, groupState.get(groupId)));
+            }
+        }
+    }
+
     @Override
     public void writeResultTo(int groupId, BlockBuilder bb) {
         if (groupState.isNull(groupId)) {
@@ -16,6 +16,7 @@
 
 package com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions;
 
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
 import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.optimizer.core.expression.calc.AbstractAggregator;
 import com.alibaba.polardbx.optimizer.state.LongGroupState;
@@ -53,6 +54,28 @@ public class Long2LongSum0 extends AbstractAggregator {
         groupState.set(groupId, afterValue);
     }
 
+    @Override
+    public void accumulate(int[] groupIds, Chunk inputChunk, int[] selection, int selSize) {
+        Block block = inputChunk.getBlock(aggIndexInChunk[0]);
+        if (!(block instanceof LongBlock)) {
+            accumulateRowByRow(groupIds, inputChunk, selection, selSize);
+            return;
+        }
+
+        final LongBlock longBlock = (LongBlock) block;
+        final long[] values = longBlock.longArray();
+        final boolean[] nulls = longBlock.mayHaveNull() ? longBlock.nulls() : null;
+        final int offset = longBlock.getArrayOffset();
+        for (int i = 0; i < selSize; i++) {
+            final int position = selection == null ? i : selection[i];
+            if (nulls != null && nulls[position + offset]) {
+                continue;
+            }
+            final int groupId = groupIds[position];
+            groupState.set(groupId, groupState.get(groupId) + values[position + offset]);
+        }
+    }
+
     @Override
     public void resetToInitValue(int groupId) {
         groupState.set(groupId, 0L);
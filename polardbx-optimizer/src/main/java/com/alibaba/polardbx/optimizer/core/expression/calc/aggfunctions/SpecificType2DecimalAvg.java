@@ -66,6 +66,24 @@ public abstract class SpecificType2DecimalAvg extends AbstractAggregator {
         }
     }
 
+    @Override
+    public void accumulate(int[] groupIds, Chunk inputChunk, int[] selection, int selSize) {
+        Block block = inputChunk.getBlock(aggIndexInChunk[0]);
+        for (int i = 0; i < selSize; i++) {
+            final int position = selection == null ? i : selection[i];
+            if (block.isNull(position)) {
+                continue;
+            }
+            final int groupId = groupIds[position];
+            final Decimal value = getDecimal(block, position);
+            if (groupState.isNull(groupId)) {
+                groupState.set(groupId, value, 1);
+            } else {
+                groupState.set(groupId, groupState.getDecimal(groupId).add(value), groupState.getLong(groupId) + 1);
+            }
+        }
+    }
+
     abstract Decimal getDecimal(Block block, int position);
 
     @Override
@@ -64,6 +64,24 @@ public abstract class SpecificType2DoubleAvgV2 extends AbstractAggregator {
         }
     }
 
+    @Override
+    public void accumulate(int[] groupIds, Chunk inputChunk, int[] selection, int selSize) {
+        Block block = inputChunk.getBlock(aggIndexInChunk[0]);
+        for (int i = 0; i < selSize; i++) {
+            final int position = selection == null ? i : selection[i];
+            if (block.isNull(position)) {
+                continue;
+            }
+            final int groupId = groupIds[position];
+            final double value = getDouble(block, position);
+            if (groupState.isNull(groupId)) {
+                groupState.set(groupId, value, 1);
+            } else {
+                groupState.set(groupId, groupState.getDouble(groupId) + value, groupState.getLong(groupId) + 1);
+            }
+        }
+    }
+
     abstract double getDouble(Block block, int position);
 
     @Override
@@ -0,0 +1,111 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.core.function;
+
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.sql.SqlAggFunction;
+import org.apache.calcite.sql.SqlCall;
+import org.apache.calcite.sql.SqlFunctionCategory;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.type.InferTypes;
+import org.apache.calcite.sql.type.ReturnTypes;
+import org.apache.calcite.sql.type.SqlOperandTypeChecker;
+import org.apache.calcite.sql.type.SqlReturnTypeInference;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.sql.type.SqlTypeTransforms;
+import org.apache.calcite.sql.validate.SqlValidator;
+import org.apache.calcite.sql.validate.SqlValidatorScope;
+
+/**
+ * Approximate aggregate function backed by a mergeable sketch.
+ * <p>
+ * The function is split into a partial phase which builds a serialized sketch from the input values,
+ * and a merge phase which combines the sketches and produces the final estimation. Each phase is a
+ * separate operator with its own name, so that the phases can be told apart in the plan and in the
+ * serialized plan of MPP fragments. Approximate functions are not supported by MySQL, thus never pushed down.
+ */
+public abstract class SqlApproxAggFunction extends SqlAggFunction {
+
+    public enum Phase {
+        /**
+         * Input values to final estimation, used when the aggregation is not split
+         */
+        COMPLETE,
+        /**
+         * Input values to serialized sketch
+         */
+        PARTIAL,
+        /**
+         * Serialized sketches to final estimation
+         */
+        MERGE
+    }
+
+    protected static final SqlReturnTypeInference SKETCH_RETURN_TYPE =
+        ReturnTypes.cascade(ReturnTypes.explicit(SqlTypeName.VARBINARY), SqlTypeTransforms.FORCE_NULLABLE);
+
+    private final Phase phase;
+
+    protected SqlApproxAggFunction(String name, SqlKind kind, Phase phase,
+                                   SqlReturnTypeInference returnTypeInference,
+                                   SqlOperandTypeChecker operandTypeChecker) {
+        super(
+            phaseName(name, phase),
+            null,
+            kind,
+            phase == Phase.PARTIAL ? SKETCH_RETURN_TYPE : returnTypeInference,
+            InferTypes.FIRST_KNOWN,
+            operandTypeChecker,
+            SqlFunctionCategory.NUMERIC,
+            false,
+            false);
+        this.phase = phase;
+    }
+
+    private static String phaseName(String name, Phase phase) {
+        switch (phase) {
+        case PARTIAL:
+            return "__" + name + "_PARTIAL";
+        case MERGE:
+            return "__" + name + "_MERGE";
+        default:
+            return name;
+        }
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Get the registered operator of the same function in given phase
+     */
+    public abstract SqlApproxAggFunction withPhase(Phase phase);
+
+    /**
+     * The function is resolved by the parser, so skip the lookup by name which may return the
+     * standard APPROX_COUNT_DISTINCT operator (a plain COUNT)
+     */
+    @Override
+    public RelDataType deriveType(SqlValidator validator, SqlValidatorScope scope, SqlCall call) {
+        for (SqlNode operand : call.getOperandList()) {
+            validator.deriveType(scope, operand);
+        }
+        return validateOperands(validator, scope, call);
+    }
+}
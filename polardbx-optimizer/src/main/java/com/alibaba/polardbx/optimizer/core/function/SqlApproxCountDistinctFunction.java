@@ -0,0 +1,44 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.core.function;
+
+import com.alibaba.polardbx.optimizer.core.TddlOperatorTable;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.type.OperandTypes;
+import org.apache.calcite.sql.type.ReturnTypes;
+
+/**
+ * APPROX_COUNT_DISTINCT(expr): estimate the number of distinct non-null values with HyperLogLog
+ */
+public class SqlApproxCountDistinctFunction extends SqlApproxAggFunction {
+
+    public SqlApproxCountDistinctFunction(Phase phase) {
+        super("APPROX_COUNT_DISTINCT", SqlKind.APPROX_COUNT_DISTINCT, phase, ReturnTypes.BIGINT, OperandTypes.ANY);
+    }
+
+    @Override
+    public SqlApproxAggFunction withPhase(Phase phase) {
+        switch (phase) {
+        case PARTIAL:
+            return TddlOperatorTable.APPROX_COUNT_DISTINCT_PARTIAL;
+        case MERGE:
+            return TddlOperatorTable.APPROX_COUNT_DISTINCT_MERGE;
+        default:
+            return TddlOperatorTable.APPROX_COUNT_DISTINCT_COMPLETE;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.core.function;
+
+import com.alibaba.polardbx.optimizer.core.TddlOperatorTable;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.sql.SqlCall;
+import org.apache.calcite.sql.SqlDynamicParam;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.SqlNumericLiteral;
+import org.apache.calcite.sql.type.OperandTypes;
+import org.apache.calcite.sql.type.ReturnTypes;
+import org.apache.calcite.sql.type.SqlTypeFamily;
+import org.apache.calcite.sql.validate.SqlValidator;
+import org.apache.calcite.sql.validate.SqlValidatorScope;
+
+import java.math.BigDecimal;
+
+import static org.apache.calcite.util.Static.RESOURCE;
+
+/**
+ * APPROX_PERCENTILE(expr, fraction): estimate the value at given fraction (between 0 and 1) of the
+ * non-null values with the quantiles sketch of sketches-core, e.g. APPROX_PERCENTILE(expr, 0.5) for the median.
+ * The fraction must be a constant, either a literal or a parameter of the prepared plan which is checked when
+ * executed. The merge phase only takes the sketch, since the fraction is kept in the sketch by the partial phase.
+ */
+public class SqlApproxPercentileFunction extends SqlApproxAggFunction {
+
+    public SqlApproxPercentileFunction(Phase phase) {
+        super("APPROX_PERCENTILE", SqlKind.APPROX_PERCENTILE, phase, ReturnTypes.DOUBLE_NULLABLE,
+            phase == Phase.MERGE ? OperandTypes.ANY : OperandTypes.family(SqlTypeFamily.ANY, SqlTypeFamily.NUMERIC));
+    }
+
+    /**
+     * Operand types are not checked strictly by validateOperands, so check the fraction here
+     */
+    @Override
+    public RelDataType deriveType(SqlValidator validator, SqlValidatorScope scope, SqlCall call) {
+        RelDataType type = super.deriveType(validator, scope, call);
+        if (getPhase() == Phase.MERGE || call.operandCount() < 2) {
+            return type;
+        }
+        SqlNode fraction = call.operand(1);
+        if (fraction instanceof SqlDynamicParam) {
+            return type;
+        }
+        if (!(fraction instanceof SqlNumericLiteral)) {
+            throw validator.newValidationError(fraction, RESOURCE.argumentMustBeLiteral(getName()));
+        }
+        BigDecimal value = ((SqlNumericLiteral) fraction).bigDecimalValue();
+        if (value.compareTo(BigDecimal.ZERO) < 0 || value.compareTo(BigDecimal.ONE) > 0) {
+            throw validator.newValidationError(fraction, RESOURCE.numberLiteralOutOfRange(value.toPlainString()));
+        }
+        return type;
+    }
+
+    @Override
+    public SqlApproxAggFunction withPhase(Phase phase) {
+        switch (phase) {
+        case PARTIAL:
+            return TddlOperatorTable.APPROX_PERCENTILE_PARTIAL;
+        case MERGE:
+            return TddlOperatorTable.APPROX_PERCENTILE_MERGE;
+        default:
+            return TddlOperatorTable.APPROX_PERCENTILE_COMPLETE;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.core.join;
+
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.rel.LogicalView;
+import com.alibaba.polardbx.optimizer.partition.PartitionInfo;
+import org.apache.calcite.rel.core.Join;
+import org.apache.calcite.rel.core.JoinInfo;
+import org.apache.commons.lang.StringUtils;
+
+import java.util.List;
+
+/**
+ * Detect partition-wise join, i.e. both inputs of the join are partitioned tables of the same table group
+ * and the equi-join keys cover all the partition columns. Then each partition of one input can only match
+ * the partition at the same position of the other input, and the join can be done partition by partition.
+ */
+public class PartitionWiseJoinUtils {
+
+    public static boolean isPartitionWise(Join join, ExecutionContext executionContext) {
+        if (!(join.getLeft() instanceof LogicalView) || !(join.getRight() instanceof LogicalView)) {
+            return false;
+        }
+        switch (join.getJoinType()) {
+        case INNER:
+        case LEFT:
+        case RIGHT:
+        case SEMI:
+            break;
+        default:
+            // anti join may be null-aware, whose result depends on all rows of the inner side
+            return false;
+        }
+
+        LogicalView leftView = (LogicalView) join.getLeft();
+        LogicalView rightView = (LogicalView) join.getRight();
+        if (!StringUtils.equalsIgnoreCase(leftView.getSchemaName(), rightView.getSchemaName())) {
+            return false;
+        }
+        PartitionInfo leftPartInfo = getPartitionInfo(leftView, executionContext);
+        PartitionInfo rightPartInfo = getPartitionInfo(rightView, executionContext);
+        if (leftPartInfo == null || rightPartInfo == null) {
+            return false;
+        }
+        if (leftPartInfo.getTableGroupId() == null
+            || !leftPartInfo.getTableGroupId().equals(rightPartInfo.getTableGroupId())) {
+            return false;
+        }
+
+        List<String> leftPartColumns = leftPartInfo.getPartitionColumns();
+        List<String> rightPartColumns = rightPartInfo.getPartitionColumns();
+        if (leftPartColumns.isEmpty() || leftPartColumns.size() != rightPartColumns.size()) {
+            return false;
+        }
+
+        JoinInfo joinInfo = join.analyzeCondition();
+        for (int i = 0; i < leftPartColumns.size(); i++) {
+            int leftRef = leftView.getRefByColumnName(leftView.getShardingTable(), leftPartColumns.get(i), false);
+            int rightRef =
+                rightView.getRefByColumnName(rightView.getShardingTable(), rightPartColumns.get(i), false);
+            if (leftRef < 0 || rightRef < 0 || !isEquiJoinKey(joinInfo, leftRef, rightRef)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the partition info of the only table of logical view, or null if it is not a partitioned table
+     */
+    public static PartitionInfo getPartitionInfo(LogicalView logicalView, ExecutionContext executionContext) {
+        if (!logicalView.isNewPartDbTbl() || logicalView.getTableNames().size() != 1
+            || logicalView.fromTableOperation() != null || logicalView.getJoin() != null) {
+            return null;
+        }
+        PartitionInfo partitionInfo = executionContext.getSchemaManager(logicalView.getSchemaName())
+            .getTddlRuleManager().getPartitionInfoManager().getPartitionInfo(logicalView.getShardingTable());
+        if (partitionInfo == null || partitionInfo.isBroadcastTable() || partitionInfo.isSingleTable()
+            || partitionInfo.getSubPartitionBy() != null) {
+            return null;
+        }
+        return partitionInfo;
+    }
+
+    private static boolean isEquiJoinKey(JoinInfo joinInfo, int leftRef, int rightRef) {
+        for (int i = 0; i < joinInfo.leftKeys.size(); i++) {
+            if (joinInfo.leftKeys.get(i) == leftRef && joinInfo.rightKeys.get(i) == rightRef) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.core.planner;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free count-min sketch of 4-bit counters, estimating the recent access frequency of plan cache keys.
+ * <p>
+ * Every long holds 16 counters, each key maps to one counter of 4 different longs. All counters are halved
+ * once the number of increments reaches the sample size, so that the frequency reflects recent accesses.
+ */
+final class FrequencySketch {
+
+    static final int MAX_FREQUENCY = 15;
+
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private static final int SAMPLE_FACTOR = 10;
+
+    private static final int MAX_TABLE_LENGTH = 1 << 20;
+
+    private final AtomicLongArray table;
+    private final int tableMask;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger(0);
+
+    FrequencySketch(long maximumSize) {
+        int length = (int) Math.min(Math.max(maximumSize, 16), MAX_TABLE_LENGTH);
+        length = Integer.highestOneBit(length - 1) << 1;
+        this.table = new AtomicLongArray(length);
+        this.tableMask = length - 1;
+        this.sampleSize = (int) Math.min((long) length * SAMPLE_FACTOR, Integer.MAX_VALUE);
+    }
+
+    int frequency(long hash) {
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long h = rehash(hash, i);
+            int shift = counterShift(h);
+            int count = (int) ((table.get(indexOf(h)) >>> shift) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    void increment(long hash) {
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long h = rehash(hash, i);
+            added |= incrementAt(indexOf(h), counterShift(h));
+        }
+        if (added && additions.incrementAndGet() >= sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int shift) {
+        long mask = 0xfL << shift;
+        for (; ; ) {
+            long value = table.get(index);
+            if ((value & mask) == mask) {
+                return false;
+            }
+            if (table.compareAndSet(index, value, value + (1L << shift))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Halve all counters. Increments racing with the reset may be lost, which is fine for an estimation.
+     */
+    private void reset() {
+        additions.set(0);
+        for (int i = 0; i < table.length(); i++) {
+            for (; ; ) {
+                long value = table.get(i);
+                if (table.compareAndSet(i, value, (value >>> 1) & RESET_MASK)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private static long rehash(long hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        return h ^ (h >>> 29);
+    }
+
+    private int indexOf(long h) {
+        return (int) h & tableMask;
+    }
+
+    private static int counterShift(long h) {
+        // the top 4 bits choose one of the 16 counters of a long
+        return (int) (h >>> 60) << 2;
+    }
+}
@@ -17,13 +17,17 @@
 package com.alibaba.polardbx.optimizer.core.planner;
 
 import com.alibaba.polardbx.common.eagleeye.EagleeyeHelper;
+import com.alibaba.polardbx.common.properties.ConnectionParams;
+import com.alibaba.polardbx.druid.util.FnvHash;
 import com.alibaba.polardbx.optimizer.config.schema.PerformanceSchema;
 import com.alibaba.polardbx.optimizer.exception.OptimizerException;
 import com.alibaba.polardbx.optimizer.parse.FastsqlParser;
 import com.alibaba.polardbx.optimizer.planmanager.PlanManager;
 import com.alibaba.polardbx.optimizer.planmanager.PlanManagerUtil;
+import com.alibaba.polardbx.optimizer.planmanager.PreparedStmtCache;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.alibaba.polardbx.common.TddlConstants;
@@ -53,18 +57,26 @@ import org.apache.calcite.sql.SqlKind;
 import org.apache.calcite.sql.SqlNode;
 import org.apache.calcite.sql.SqlNodeList;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
+ * Plans are weighed by their estimated memory, the capacity is the total weight of cached plans,
+ * and a plan of simple point query weighs 1. A plan heavier than that is admitted to the cache only
+ * if its cache key is seen frequently according to the frequency sketch, so one-off analytical plans
+ * do not evict lots of small plans.
+ *
  * @author lingce.ldm 2017-11-22 14:38
  */
 public final class PlanCache {
@@ -73,16 +85,35 @@ public final class PlanCache {
 
     private Cache<CacheKey, ExecutionPlan> cache;
 
+    private FrequencySketch sketch;
+
     private final String schemaName;
 
     private static final int MAX_ERROR_COUNT = 16;
 
+    /**
+     * Estimated memory of a plan is counted in this unit
+     */
+    private static final long PLAN_WEIGHT_UNIT = 16 * 1024;
+
+    private static final long ESTIMATED_REL_NODE_SIZE = 2 * 1024;
+
+    private static final int HEAVY_PLAN_ADMISSION_FREQUENCY = 2;
+
     private long currentCapacity;
 
+    /**
+     * stats of the caches replaced by resizing
+     */
+    private volatile CacheStats historyStats = new CacheStats(0, 0, 0, 0, 0, 0);
+
+    private final AtomicLong rejectCount = new AtomicLong(0);
+
     public PlanCache(String schemaName) {
         this.schemaName = schemaName;
         this.currentCapacity = TddlConstants.DEFAULT_OPTIMIZER_CACHE_SIZE;
         this.cache = buildCache(this.currentCapacity);
+        this.sketch = new FrequencySketch(this.currentCapacity);
     }
 
     private Cache<CacheKey, ExecutionPlan> buildCache(long maxSize) {
@@ -93,22 +124,30 @@ public final class PlanCache {
             planCacheExpireTime = 300 * 1000; // 5min
         }
         return CacheBuilder.newBuilder()
-            .maximumSize(maxSize)
+            .maximumWeight(maxSize)
+            .weigher(PlanCache::weigh)
             .expireAfterWrite(planCacheExpireTime, TimeUnit.MILLISECONDS)
             .softValues()
+            .recordStats()
             .build();
     }
 
     /**
      * 执行过的语句可以在prepare协议下获取执行计划
+     *
+     * @param preparedStmtCache the cached plan is bound to it if not null, so that executing the statement
+     * reuses the plan without computing the cache key
      */
     public ExecutionPlan getForPrepare(final SqlParameterized sqlParameterized, final PlannerContext plannerContext,
-                                       boolean testMode)
+                                       boolean testMode, PreparedStmtCache preparedStmtCache)
         throws ExecutionException {
         CacheKey cacheKey = getCacheKey(sqlParameterized, plannerContext, testMode);
         ExecutionPlan plan = null;
         try {
             plan = cache.getIfPresent(cacheKey);
+            if (preparedStmtCache != null) {
+                preparedStmtCache.bindPlan(plan);
+            }
             return plan;
         } catch (UncheckedExecutionException ex) {
             // unwrap and re-throw
@@ -134,6 +173,47 @@ public final class PlanCache {
         }
     }
 
+    /**
+     * Get plan for executing server prepared statement. The plan bound to the statement is reused without
+     * computing the cache key, as long as it is still cached and versions of its tables are not changed.
+     */
+    public ExecutionPlan getForPreparedStmt(final PreparedStmtCache preparedStmtCache,
+                                            final SqlParameterized sqlParameterized,
+                                            final PlannerContext plannerContext,
+                                            boolean testMode)
+        throws ExecutionException {
+        ExecutionPlan plan = preparedStmtCache.getBoundPlan();
+        if (plan != null && isBoundPlanValid(plan, plannerContext.getExecutionContext(), testMode)) {
+            plan.getHitCount().incrementAndGet();
+            plan.setHitCache(true);
+            savePlanCachedKey(plannerContext, plan, plan.getCacheKey());
+            return plan;
+        }
+
+        plan = get(sqlParameterized, plannerContext, testMode);
+        preparedStmtCache.bindPlan(plan);
+        return plan;
+    }
+
+    /**
+     * Same as comparing with the cache key computed by getCacheKey
+     */
+    private boolean isBoundPlanValid(ExecutionPlan plan, ExecutionContext executionContext, boolean testMode) {
+        CacheKey cacheKey = plan.getCacheKey();
+        if (cacheKey.testing != testMode || cacheKey.autoCommit != executionContext.isAutoCommit()) {
+            return false;
+        }
+        for (TableMeta tableMeta : cacheKey.getTableMetas()) {
+            TableMeta currentMeta = executionContext.getSchemaManager(tableMeta.getSchemaName())
+                .getTableWithNull(tableMeta.getTableName());
+            if (currentMeta == null || currentMeta.getVersion() != tableMeta.getVersion()) {
+                return false;
+            }
+        }
+        // the plan may be invalidated or evicted, or the schema is changed
+        return cache.getIfPresent(cacheKey) == plan && ensureValid(cacheKey, plan);
+    }
+
     @Override
     protected Object clone() throws CloneNotSupportedException {
         return super.clone();
@@ -143,7 +223,10 @@ public final class PlanCache {
                                        final PlannerContext plannerContext,
                                        boolean testMode) throws ExecutionException {
         final AtomicBoolean beCached = new AtomicBoolean(true);
+        final AtomicReference<ExecutionPlan> rejectedPlan = new AtomicReference<>();
         CacheKey cacheKey = getCacheKey(sqlParameterized, plannerContext, testMode);
+        final FrequencySketch sketch = this.sketch;
+        sketch.increment(cacheKey.hash);
         final Callable<ExecutionPlan> valueLoader = () -> {
             SqlNodeList astList = new FastsqlParser()
                 .parse(sqlParameterized.getSql(), params, plannerContext.getExecutionContext());
@@ -185,6 +268,11 @@ public final class PlanCache {
                     pc.setPrivilegeVerifyItems(null);
                 }
 
+                if (!admit(sketch, cacheKey, executionPlan, plannerContext.getExecutionContext())) {
+                    // concurrent loaders of the same key get the place holder and build plan by themselves
+                    rejectedPlan.set(executionPlan);
+                    return PlaceHolderExecutionPlan.INSTANCE;
+                }
                 return executionPlan;
             }
         };
@@ -201,6 +289,12 @@ public final class PlanCache {
             }
         }
 
+        if (rejectedPlan.get() != null) {
+            cache.asMap().remove(cacheKey, PlaceHolderExecutionPlan.INSTANCE);
+            rejectCount.incrementAndGet();
+            plan = rejectedPlan.get();
+        }
+
         if (beCached.get()) {
             plan.getHitCount().incrementAndGet();
         }
@@ -214,6 +308,45 @@ public final class PlanCache {
         cache.invalidateAll();
     }
 
+    private static boolean admit(FrequencySketch sketch, CacheKey cacheKey, ExecutionPlan executionPlan,
+                                 ExecutionContext executionContext) {
+        if (executionContext != null
+            && !executionContext.getParamManager().getBoolean(ConnectionParams.ENABLE_PLAN_CACHE_ADMISSION)) {
+            return true;
+        }
+        return weigh(cacheKey, executionPlan) <= 1
+            || sketch.frequency(cacheKey.hash) >= HEAVY_PLAN_ADMISSION_FREQUENCY;
+    }
+
+    /**
+     * Estimate the memory of a plan by its parameterized sql and the number of rel nodes
+     */
+    static int weigh(CacheKey cacheKey, ExecutionPlan executionPlan) {
+        long bytes = (long) cacheKey.parameterizedSql.length() * 2
+            + countRelNodes(executionPlan.getPlan()) * ESTIMATED_REL_NODE_SIZE;
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, bytes / PLAN_WEIGHT_UNIT));
+    }
+
+    private static long countRelNodes(RelNode root) {
+        if (root == null) {
+            return 0;
+        }
+        long count = 0;
+        Deque<RelNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            RelNode node = stack.pop();
+            count++;
+            if (node instanceof LogicalView && ((LogicalView) node).getPushedRelNode() != null) {
+                stack.push(((LogicalView) node).getPushedRelNode());
+            }
+            for (RelNode input : node.getInputs()) {
+                stack.push(input);
+            }
+        }
+        return count;
+    }
+
     private boolean ensureValid(CacheKey cacheKey, ExecutionPlan executionPlan) {
         if (executionPlan == PlaceHolderExecutionPlan.INSTANCE) {
             if (cacheKey != null) {
@@ -246,6 +379,7 @@ public final class PlanCache {
             ExecutionPlan executionPlan = entry.getValue();
             ensureValid(cacheKey, executionPlan);
         }
+        ResultCache.getInstance().invalidateSchema(schemaName);
     }
 
     /**
@@ -276,8 +410,8 @@ public final class PlanCache {
                 versionInfo.append(table.getVersion());
             }
         }
-        return new CacheKey(sqlParameterized.getSql(), versionInfo.toString(), tables, testMode,
-            plannerContext.getExecutionContext().isAutoCommit());
+        return new CacheKey(sqlParameterized.getSql(), sqlParameterized.getSqlHash(), versionInfo.toString(), tables,
+            testMode, plannerContext.getExecutionContext().isAutoCommit());
     }
 
     /**
@@ -287,6 +421,7 @@ public final class PlanCache {
         if (tableName == null || tableName.isEmpty()) {
             return;
         }
+        ResultCache.getInstance().invalidate(schemaName, tableName);
         final String tableNameLowercase = tableName.toLowerCase();
         Set<CacheKey> cacheKeys = Sets.newHashSet();
         cacheKeys.addAll(cache.asMap().keySet());
@@ -312,13 +447,29 @@ public final class PlanCache {
 
         final boolean autoCommit;
 
+        /**
+         * 64-bit hash precomputed from the hash of parameterized sql
+         */
+        final long hash;
+
         public CacheKey(String parameterizedSql, String versionInfo, List<TableMeta> metas, boolean testing,
                         boolean autoCommit) {
+            this(parameterizedSql, FnvHash.fnv1a_64(parameterizedSql), versionInfo, metas, testing, autoCommit);
+        }
+
+        public CacheKey(String parameterizedSql, long sqlHash, String versionInfo, List<TableMeta> metas,
+                        boolean testing, boolean autoCommit) {
             this.parameterizedSql = parameterizedSql;
             this.versionInfo = versionInfo;
             this.testing = testing;
             this.metas = metas;
             this.autoCommit = autoCommit;
+
+            long h = sqlHash;
+            h = h * 31 + versionInfo.hashCode();
+            h = h * 31 + (testing ? 1 : 0);
+            h = h * 31 + (autoCommit ? 1 : 0);
+            this.hash = h;
         }
 
         @Override
@@ -330,15 +481,16 @@ public final class PlanCache {
                 return false;
             }
             CacheKey cacheKey = (CacheKey) o;
-            return testing == cacheKey.testing &&
-                parameterizedSql.equals(cacheKey.parameterizedSql) &&
+            return hash == cacheKey.hash &&
+                testing == cacheKey.testing &&
+                autoCommit == cacheKey.autoCommit &&
                 versionInfo.equals(cacheKey.versionInfo) &&
-                autoCommit == cacheKey.autoCommit;
+                parameterizedSql.equals(cacheKey.parameterizedSql);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(parameterizedSql, versionInfo, testing, autoCommit);
+            return (int) (hash ^ (hash >>> 32));
         }
 
         public List<TableMeta> getTableMetas() {
@@ -552,8 +704,10 @@ public final class PlanCache {
             }
             Cache<CacheKey, ExecutionPlan> oldCache = this.cache;
             this.cache = newCache;
+            this.sketch = new FrequencySketch(newSize);
             this.currentCapacity = newSize;
             oldCache.invalidateAll();
+            this.historyStats = this.historyStats.plus(oldCache.stats());
             newInfo = getCurrentCapacityInfo();
         }
         return new Pair<>(oldInfo, newInfo);
@@ -592,4 +746,29 @@ public final class PlanCache {
     public long getCurrentCapacity() {
         return currentCapacity;
     }
+
+    /**
+     * Total weight of cached plans, same unit as capacity
+     */
+    public long getWeightedSize() {
+        long weightedSize = 0;
+        for (Map.Entry<CacheKey, ExecutionPlan> entry : cache.asMap().entrySet()) {
+            weightedSize += weigh(entry.getKey(), entry.getValue());
+        }
+        return weightedSize;
+    }
+
+    /**
+     * Hit, miss and eviction stats since the plan cache of schema is created
+     */
+    public CacheStats getStats() {
+        return historyStats.plus(cache.stats());
+    }
+
+    /**
+     * Number of plans not admitted to the cache
+     */
+    public long getRejectCount() {
+        return rejectCount.get();
+    }
 }
@@ -120,6 +120,7 @@ import com.alibaba.polardbx.optimizer.hint.util.HintConverter;
 import com.alibaba.polardbx.optimizer.hint.util.HintUtil;
 import com.alibaba.polardbx.optimizer.locality.LocalityManager;
 import com.alibaba.polardbx.optimizer.msha.TddlMshaProcessor;
+import com.alibaba.polardbx.optimizer.parse.FastSqlParameterizer;
 import com.alibaba.polardbx.optimizer.parse.FastsqlParser;
 import com.alibaba.polardbx.optimizer.parse.HintParser;
 import com.alibaba.polardbx.optimizer.parse.SqlParameterizeUtils;
@@ -249,7 +250,7 @@ public class Planner {
 
         preparedStmtCache.setSqlParameterized(parameterized);
         preparedStmtCache.setSqlType(sqlType);
-        return plan(sql, sqlType, parameterized, executionContext, sqlNodeList, true);
+        return plan(sql, sqlType, parameterized, executionContext, sqlNodeList, preparedStmtCache);
     }
 
     public ExecutionPlan plan(ByteString sql, ExecutionContext executionContext) {
@@ -276,16 +277,18 @@ public class Planner {
 
     private ExecutionPlan plan(ByteString sql, SqlType sqlType, SqlParameterized parameterized,
                                ExecutionContext executionContext) {
-        return plan(sql, sqlType, parameterized, executionContext, null, false);
+        return plan(sql, sqlType, parameterized, executionContext, null, null);
     }
 
     /**
      * Sql to ExecutionPlan
+     *
+     * @param preparedStmtCache not null if planning for preparing statement
      */
     private ExecutionPlan plan(ByteString sql, SqlType sqlType,
                                SqlParameterized parameterized, ExecutionContext executionContext,
                                SqlNodeList sqlNodeList,
-                               boolean forPrepare) {
+                               PreparedStmtCache preparedStmtCache) {
         executionContext.setOriginSql(sql.toString());
         // metaquery init
         RelMetadataQuery.THREAD_PROVIDERS.set(JaninoRelMetadataProvider.of(DrdsRelMetadataProvider.INSTANCE));
@@ -304,7 +307,7 @@ public class Planner {
             parameterized = handleExplain(sql, (MySqlExplainStatement) statement, executionContext);
         }
 
-        return doPlan(sqlType, parameterized, executionContext, sqlNodeList, forPrepare);
+        return doPlan(sqlType, parameterized, executionContext, sqlNodeList, preparedStmtCache);
     }
 
     private SqlParameterized parameterize(ByteString afterProcessSql,
@@ -328,8 +331,14 @@ public class Planner {
             startParameterize = ThreadCpuStatUtil.getThreadCpuTimeNano();
         }
 
-        SqlParameterized result =
-            SqlParameterizeUtils.parameterize(afterProcessSql, currentParameter, executionContext, forPrepare);
+        SqlParameterized result;
+        if (!forPrepare && (currentParameter == null || currentParameter.isEmpty())
+            && executionContext.getParamManager().getBoolean(ConnectionParams.ENABLE_FAST_PARAMETERIZE)) {
+            result = FastSqlParameterizer.parameterize(afterProcessSql, executionContext);
+        } else {
+            result =
+                SqlParameterizeUtils.parameterize(afterProcessSql, currentParameter, executionContext, forPrepare);
+        }
 
         if (enableSqlCpu) {
             executionContext.getRuntimeStatistics()
@@ -1631,7 +1640,7 @@ public class Planner {
     private ExecutionPlan doPlan(SqlType sqlType, SqlParameterized sqlParameterized,
                                  ExecutionContext executionContext,
                                  SqlNodeList sqlNodeList,
-                                 boolean forPrepare) {
+                                 PreparedStmtCache preparedStmtCache) {
         processParameter(sqlParameterized.getParameters(), executionContext);
         processMsah(sqlParameterized, executionContext);
         executionContext.setSqlType(sqlType);
@@ -1647,8 +1656,9 @@ public class Planner {
                 // plan management
                 PlanManager planManager =
                     OptimizerContext.getContext(executionContext.getSchemaName()).getPlanManager();
-                if (forPrepare) {
-                    executionPlan = planManager.choosePlanForPrepare(sqlParameterized, sqlNodeList, executionContext);
+                if (preparedStmtCache != null) {
+                    executionPlan = planManager.choosePlanForPrepare(sqlParameterized, sqlNodeList, preparedStmtCache,
+                        executionContext);
                 } else {
                     executionPlan = planManager.choosePlan(sqlParameterized, executionContext);
                 }
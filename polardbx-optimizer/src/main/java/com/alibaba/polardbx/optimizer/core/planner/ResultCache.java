@@ -0,0 +1,445 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.core.planner;
+
+import com.alibaba.polardbx.common.TddlConstants;
+import com.alibaba.polardbx.common.exception.MemoryNotEnoughException;
+import com.alibaba.polardbx.common.jdbc.ParameterContext;
+import com.alibaba.polardbx.common.jdbc.Parameters;
+import com.alibaba.polardbx.common.utils.Pair;
+import com.alibaba.polardbx.common.utils.logger.Logger;
+import com.alibaba.polardbx.common.utils.logger.LoggerFactory;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.memory.MemoryAllocatorCtx;
+import com.alibaba.polardbx.optimizer.memory.MemoryManager;
+import com.alibaba.polardbx.optimizer.memory.MemoryPool;
+import com.alibaba.polardbx.optimizer.memory.MemorySetting;
+import com.alibaba.polardbx.optimizer.memory.MemoryType;
+import com.alibaba.polardbx.optimizer.utils.ExecutionPlanProperties;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.collect.ImmutableList;
+import org.apache.calcite.sql.SqlCall;
+import org.apache.calcite.sql.SqlLiteral;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.SqlOperator;
+import org.apache.calcite.sql.SqlSelect;
+import org.apache.calcite.sql.SqlSystemVar;
+import org.apache.calcite.sql.SqlUserDefVar;
+import org.apache.calcite.sql.util.SqlBasicVisitor;
+import org.apache.calcite.util.Util;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 查询结果缓存
+ * <p>
+ * 以 plan cache key (参数化 SQL + 表版本) 加参数值及 sql_mode 等影响结果的会话变量为 key, 缓存只读查询执行完成后的全部 Chunk.
+ * <ul>
+ * <li>通过 ENABLE_RESULT_CACHE 显式开启 (hint 或 session 变量)</li>
+ * <li>DDL 会修改表版本, 旧 key 不再命中, 随 LRU 淘汰</li>
+ * <li>本节点的 DML 以及事务提交/回滚时失效相关表的缓存; 其他 CN 上的修改依赖 RESULT_CACHE_EXPIRE_TIME 过期</li>
+ * <li>缓存占用的内存记在 MemoryManager 的 cache 内存池下, 总容量受 capacity 限制</li>
+ * </ul>
+ */
+public final class ResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultCache.class);
+
+    private static final String MEMORY_POOL_NAME = "result_cache";
+
+    /**
+     * Rough per entry overhead besides the chunks: key, parameters and bookkeeping
+     */
+    private static final long ENTRY_OVERHEAD = 1024;
+
+    /**
+     * Session variables besides sql_mode, time zone and encoding which may change the result of a query
+     */
+    private static final List<String> RESULT_AFFECTING_VARIABLES = ImmutableList.of(
+        "div_precision_increment", "collation_connection", "character_set_results", "group_concat_max_len");
+
+    private static final ResultCache INSTANCE = new ResultCache();
+
+    private final MemoryAllocatorCtx memoryAllocator;
+
+    private volatile Cache<CacheKey, Entry> cache;
+
+    private volatile long capacity;
+
+    /**
+     * Modification counter of each table ('schema.table' in lower case). Bumped on every invalidation so that
+     * a query started before a modification does not put its (possibly stale) result into the cache.
+     */
+    private final Map<String, AtomicLong> tableModifyCounts = new ConcurrentHashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong invalidateCount = new AtomicLong();
+
+    private ResultCache() {
+        MemoryPool memoryPool = MemoryManager.getInstance().getCacheMemoryPool()
+            .getOrCreatePool(MEMORY_POOL_NAME, MemorySetting.UNLIMITED_SIZE, MemoryType.CACHE);
+        this.memoryAllocator = memoryPool.getMemoryAllocatorCtx();
+        this.capacity = TddlConstants.DEFAULT_RESULT_CACHE_SIZE;
+        this.cache = buildCache(capacity);
+    }
+
+    public static ResultCache getInstance() {
+        return INSTANCE;
+    }
+
+    private Cache<CacheKey, Entry> buildCache(long capacity) {
+        return CacheBuilder.newBuilder()
+            .maximumWeight(capacity)
+            .weigher((CacheKey key, Entry entry) -> (int) Math.min(Integer.MAX_VALUE, entry.sizeInBytes))
+            .removalListener((RemovalListener<CacheKey, Entry>) notification -> {
+                Entry entry = notification.getValue();
+                if (entry != null) {
+                    memoryAllocator.releaseReservedMemory(entry.sizeInBytes, true);
+                }
+            })
+            .build();
+    }
+
+    /**
+     * Whether the result of the plan could be cached: a plain query which was cached by plan cache (so that its
+     * key carries table versions), running in auto-commit mode and without non-deterministic functions.
+     */
+    public static boolean isCacheable(ExecutionPlan plan, ExecutionContext ec) {
+        if (plan.getCacheKey() == null || plan.isExplain() || plan.getAst() == null || !ec.isAutoCommit()) {
+            return false;
+        }
+        if (!plan.checkProperty(ExecutionPlanProperties.QUERY)
+            || plan.checkProperty(ExecutionPlanProperties.SELECT_WITH_LOCK)
+            || plan.checkProperty(ExecutionPlanProperties.MODIFY_TABLE)) {
+            return false;
+        }
+        if (plan.getTableSet() == null || plan.getTableSet().isEmpty()) {
+            return false;
+        }
+        return isDeterministic(plan.getAst());
+    }
+
+    private static boolean isDeterministic(SqlNode ast) {
+        try {
+            ast.accept(new SqlBasicVisitor<Void>() {
+                @Override
+                public Void visit(SqlCall call) {
+                    SqlOperator operator = call.getOperator();
+                    if (operator != null && (operator.isDynamicFunction() || !operator.isDeterministic())) {
+                        throw Util.FoundOne.NULL;
+                    }
+                    if (call instanceof SqlSelect && SqlSelect.LockMode.getLockMode(call) != SqlSelect.LockMode.UNDEF) {
+                        throw Util.FoundOne.NULL;
+                    }
+                    return super.visit(call);
+                }
+
+                @Override
+                public Void visit(SqlLiteral literal) {
+                    // values of variables are not part of the cache key
+                    if (literal instanceof SqlUserDefVar || literal instanceof SqlSystemVar) {
+                        throw Util.FoundOne.NULL;
+                    }
+                    return null;
+                }
+            });
+            return true;
+        } catch (Util.FoundOne e) {
+            return false;
+        }
+    }
+
+    public static CacheKey getCacheKey(ExecutionPlan plan, ExecutionContext ec) {
+        Set<String> tables = new HashSet<>();
+        for (Pair<String, String> table : plan.getTableSet()) {
+            String schema = table.getKey() == null ? ec.getSchemaName() : table.getKey();
+            tables.add(tableName(schema, table.getValue()));
+        }
+        return new CacheKey(ec.getSchemaName(), plan.getCacheKey(), parameterValues(ec.getParams()),
+            ec.getTimeZone() == null ? null : ec.getTimeZone().getMySqlTimeZoneName(), ec.getEncoding(),
+            sessionVariables(ec), tables);
+    }
+
+    /**
+     * sql_mode and other result affecting session variables, so that sessions differing in them do not share results
+     */
+    static Map<String, Object> sessionVariables(ExecutionContext ec) {
+        Map<String, Object> variables = new TreeMap<>();
+        variables.put("sql_mode", ec.getSqlMode());
+        Map<String, Object> serverVariables = ec.getServerVariables();
+        if (serverVariables != null) {
+            for (String name : RESULT_AFFECTING_VARIABLES) {
+                Object value = serverVariables.get(name);
+                variables.put(name, value == null ? null : String.valueOf(value).toLowerCase());
+            }
+        }
+        return variables;
+    }
+
+    private static List<Object> parameterValues(Parameters params) {
+        if (params == null || params.getCurrentParameter() == null || params.getCurrentParameter().isEmpty()) {
+            return Collections.emptyList();
+        }
+        // sort by parameter index
+        Map<Integer, ParameterContext> sorted = new TreeMap<>(params.getCurrentParameter());
+        List<Object> values = new ArrayList<>(sorted.size());
+        for (ParameterContext context : sorted.values()) {
+            Object value = context.getValue();
+            // byte[] has identity equality, wrap it to compare by content
+            values.add(value instanceof byte[] ? ByteBuffer.wrap((byte[]) value) : value);
+        }
+        return values;
+    }
+
+    private static String tableName(String schemaName, String tableName) {
+        return (schemaName + "." + tableName).toLowerCase();
+    }
+
+    /**
+     * @return cached chunks, or null if missing or older than {@code expireTime} milliseconds
+     */
+    public Entry get(CacheKey key, long expireTime) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && System.currentTimeMillis() - entry.createTime > expireTime) {
+            cache.invalidate(key);
+            entry = null;
+        }
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        entry.hitCount.incrementAndGet();
+        return entry;
+    }
+
+    /**
+     * Snapshot of modification counters of the tables, taken before the query executes
+     */
+    public long getModifyStamp(CacheKey key) {
+        long stamp = 0;
+        for (String table : key.tables) {
+            AtomicLong count = tableModifyCounts.get(table);
+            if (count != null) {
+                stamp += count.get();
+            }
+        }
+        return stamp;
+    }
+
+    /**
+     * Put the result into cache unless any of the tables has been modified since {@code modifyStamp} was taken.
+     */
+    public boolean put(CacheKey key, long modifyStamp, List<Chunk> chunks) {
+        long size = ENTRY_OVERHEAD;
+        long rowCount = 0;
+        for (Chunk chunk : chunks) {
+            size += chunk.estimateSize();
+            rowCount += chunk.getPositionCount();
+        }
+        if (size > capacity) {
+            return false;
+        }
+        try {
+            memoryAllocator.allocateReservedMemory(size);
+        } catch (MemoryNotEnoughException e) {
+            logger.warn("Not enough memory for result cache: " + e.getMessage());
+            return false;
+        }
+        Entry entry = new Entry(chunks, size, rowCount);
+        cache.put(key, entry);
+        // check after put to avoid racing with an invalidation in between
+        if (getModifyStamp(key) != modifyStamp) {
+            cache.asMap().remove(key, entry);
+            return false;
+        }
+        return true;
+    }
+
+    public void invalidate(String schemaName, String tableName) {
+        if (tableName == null) {
+            return;
+        }
+        String table = tableName(schemaName, tableName);
+        tableModifyCounts.computeIfAbsent(table, k -> new AtomicLong()).incrementAndGet();
+        invalidateCount.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.tables.contains(table));
+    }
+
+    public void invalidate(Collection<Pair<String, String>> tables) {
+        for (Pair<String, String> table : tables) {
+            invalidate(table.getKey(), table.getValue());
+        }
+    }
+
+    public void invalidateSchema(String schemaName) {
+        String prefix = schemaName.toLowerCase() + ".";
+        invalidateCount.incrementAndGet();
+        for (String table : tableModifyCounts.keySet()) {
+            if (table.startsWith(prefix)) {
+                tableModifyCounts.get(table).incrementAndGet();
+            }
+        }
+        cache.asMap().keySet().removeIf(key -> key.tables.stream().anyMatch(t -> t.startsWith(prefix)));
+    }
+
+    public void clean() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 调整 cache 容量, 已缓存的结果直接丢弃
+     */
+    public synchronized void resize(long newCapacity) {
+        Cache<CacheKey, Entry> old = this.cache;
+        this.capacity = newCapacity;
+        this.cache = buildCache(newCapacity);
+        old.invalidateAll();
+    }
+
+    public Map<CacheKey, Entry> getEntries() {
+        return cache.asMap();
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public long getMemoryUsage() {
+        return memoryAllocator.getReservedAllocated();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getInvalidateCount() {
+        return invalidateCount.get();
+    }
+
+    public static class CacheKey {
+
+        final String schemaName;
+        final PlanCache.CacheKey planCacheKey;
+        final List<Object> parameters;
+        final String timeZone;
+        final String encoding;
+        final Map<String, Object> sessionVariables;
+        final Set<String> tables;
+
+        public CacheKey(String schemaName, PlanCache.CacheKey planCacheKey, List<Object> parameters,
+                        String timeZone, String encoding, Map<String, Object> sessionVariables,
+                        Set<String> tables) {
+            this.schemaName = schemaName == null ? null : schemaName.toLowerCase();
+            this.planCacheKey = planCacheKey;
+            this.parameters = parameters;
+            this.timeZone = timeZone;
+            this.encoding = encoding;
+            this.sessionVariables = sessionVariables;
+            this.tables = tables;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey cacheKey = (CacheKey) o;
+            return Objects.equals(schemaName, cacheKey.schemaName) &&
+                planCacheKey.equals(cacheKey.planCacheKey) &&
+                parameters.equals(cacheKey.parameters) &&
+                Objects.equals(timeZone, cacheKey.timeZone) &&
+                Objects.equals(encoding, cacheKey.encoding) &&
+                Objects.equals(sessionVariables, cacheKey.sessionVariables);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(schemaName, planCacheKey, parameters, timeZone, encoding, sessionVariables);
+        }
+
+        public String getSchemaName() {
+            return schemaName;
+        }
+
+        public String getParameterizedSql() {
+            return planCacheKey.getParameterizedSql();
+        }
+
+        public Set<String> getTables() {
+            return tables;
+        }
+    }
+
+    public static class Entry {
+
+        final List<Chunk> chunks;
+        final long sizeInBytes;
+        final long rowCount;
+        final long createTime;
+        final AtomicLong hitCount = new AtomicLong();
+
+        Entry(List<Chunk> chunks, long sizeInBytes, long rowCount) {
+            this.chunks = chunks;
+            this.sizeInBytes = sizeInBytes;
+            this.rowCount = rowCount;
+            this.createTime = System.currentTimeMillis();
+        }
+
+        public List<Chunk> getChunks() {
+            return chunks;
+        }
+
+        public long getSizeInBytes() {
+            return sizeInBytes;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public long getCreateTime() {
+            return createTime;
+        }
+
+        public long getHitCount() {
+            return hitCount.get();
+        }
+    }
+}
@@ -22,6 +22,8 @@ import com.alibaba.polardbx.optimizer.PlannerContext;
 import com.alibaba.polardbx.optimizer.core.DrdsConvention;
 import com.alibaba.polardbx.optimizer.core.TddlRelDataTypeSystemImpl;
 import com.alibaba.polardbx.optimizer.core.TddlTypeFactoryImpl;
+import com.alibaba.polardbx.optimizer.core.function.SqlApproxAggFunction;
+import com.alibaba.polardbx.optimizer.core.planner.rule.util.CBOUtil;
 import com.alibaba.polardbx.optimizer.core.rel.LogicalView;
 import com.alibaba.polardbx.optimizer.partition.PartitionInfoManager;
 import com.alibaba.polardbx.optimizer.rule.TddlRuleManager;
@@ -73,6 +75,9 @@ public class CBOPushAggRule extends RelOptRule {
     public void onMatch(RelOptRuleCall call) {
         final LogicalAggregate logicalAggregate = (LogicalAggregate) call.rels[0];
         final LogicalView logicalView = (LogicalView) call.rels[1];
+        if (CBOUtil.containsApproxAgg(logicalAggregate)) {
+            return;
+        }
         if (logicalView.isSingleGroup()) {
             LogicalAggregate newLogicalAggregate = logicalAggregate.copy(
                 logicalView.getPushedRelNode(), logicalAggregate.getGroupSet(), logicalAggregate.getAggCallList());
@@ -315,6 +320,37 @@ public class CBOPushAggRule extends RelOptRule {
 
                 partialAggCalls.add(aggCall);
                 break;
+            case APPROX_COUNT_DISTINCT:
+            case APPROX_PERCENTILE:
+                // partial phase builds sketches, and global phase merges them
+                SqlApproxAggFunction approxAggFunction = (SqlApproxAggFunction) function;
+                if (approxAggFunction.getPhase() != SqlApproxAggFunction.Phase.COMPLETE) {
+                    return null;
+                }
+                AggregateCall partialSketchAggCall =
+                    AggregateCall.create(approxAggFunction.withPhase(SqlApproxAggFunction.Phase.PARTIAL),
+                        aggCall.isDistinct(),
+                        true,
+                        aggCall.getArgList(),
+                        aggCall.filterArg,
+                        tddlTypeFactory.createTypeWithNullability(
+                            tddlTypeFactory.createSqlType(SqlTypeName.VARBINARY), true),
+                        "partial_sketch");
+
+                AggregateCall mergeSketchAggCall =
+                    AggregateCall.create(approxAggFunction.withPhase(SqlApproxAggFunction.Phase.MERGE),
+                        false,
+                        true,
+                        ImmutableIntList.of(aggGroupSetCardinality + partialAggCalls.size()),
+                        -1,
+                        aggCall.getType(),
+                        aggCall.getName());
+                globalAggCalls.add(mergeSketchAggCall);
+
+                childExps.add(new RexInputRef(aggGroupSetCardinality + partialAggCalls.size(), aggCall.getType()));
+
+                partialAggCalls.add(partialSketchAggCall);
+                break;
             case GROUP_CONCAT:
                 GroupConcatAggregateCall groupConcatAggregateCall = (GroupConcatAggregateCall) aggCall;
                 if (groupConcatAggregateCall.getOrderList() != null
@@ -58,6 +58,7 @@ import org.apache.calcite.util.ImmutableIntList;
 import java.util.ArrayList;
 import java.util.List;
 
+import static com.alibaba.polardbx.optimizer.core.planner.rule.util.CBOUtil.containsApproxAgg;
 import static com.alibaba.polardbx.optimizer.core.planner.rule.util.CBOUtil.isGroupSets;
 import static com.alibaba.polardbx.optimizer.utils.PlannerUtils.buildNewGroupSet;
 
@@ -124,7 +125,7 @@ public abstract class PushAggRule extends RelOptRule {
                 return false;
             }
 
-            if (isGroupSets(aggregate)) {
+            if (isGroupSets(aggregate) || containsApproxAgg(aggregate)) {
                 return false;
             }
 
@@ -187,7 +188,7 @@ public abstract class PushAggRule extends RelOptRule {
                 return false;
             }
 
-            if (isGroupSets(aggregate)) {
+            if (isGroupSets(aggregate) || containsApproxAgg(aggregate)) {
                 return false;
             }
 
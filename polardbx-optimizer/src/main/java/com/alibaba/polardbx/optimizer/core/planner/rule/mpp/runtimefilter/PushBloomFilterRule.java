@@ -17,6 +17,7 @@
 package com.alibaba.polardbx.optimizer.core.planner.rule.mpp.runtimefilter;
 
 import com.alibaba.polardbx.common.properties.ConnectionParams;
+import com.alibaba.polardbx.common.properties.ParamManager;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypeUtil;
 import com.alibaba.polardbx.optimizer.PlannerContext;
 import com.alibaba.polardbx.optimizer.core.rel.LogicalView;
@@ -27,6 +28,7 @@ import org.apache.calcite.plan.RelOptRuleOperand;
 import org.apache.calcite.plan.RelOptUtil;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.core.Filter;
+import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rel.logical.LogicalFilter;
 import org.apache.calcite.rex.RexCall;
 import org.apache.calcite.rex.RexNode;
@@ -35,10 +37,17 @@ import org.apache.calcite.rex.RexUtil;
 import org.apache.calcite.sql.fun.SqlRuntimeFilterFunction;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static com.alibaba.polardbx.optimizer.core.planner.rule.PushFilterRule.doNotPush;
 
+/**
+ * Push runtime filters into LogicalView. If storage does not support bloom filter, a runtime filter on single
+ * integer column is pushed down as range and IN-list predicates, while the bloom filter is still applied above.
+ */
 public class PushBloomFilterRule extends RelOptRule {
     public static final PushBloomFilterRule LOGICALVIEW = new PushBloomFilterRule(
         operand(Filter.class, operand(LogicalView.class, none())), "LOGICALVIEW");
@@ -49,9 +58,9 @@ public class PushBloomFilterRule extends RelOptRule {
 
     @Override
     public boolean matches(RelOptRuleCall call) {
-        return PlannerContext.getPlannerContext(call).getExecutionContext()
-            .getParamManager()
-            .getBoolean(ConnectionParams.STORAGE_SUPPORTS_BLOOM_FILTER);
+        ParamManager paramManager = PlannerContext.getPlannerContext(call).getExecutionContext().getParamManager();
+        return paramManager.getBoolean(ConnectionParams.STORAGE_SUPPORTS_BLOOM_FILTER)
+            || paramManager.getBoolean(ConnectionParams.ENABLE_RUNTIME_FILTER_RANGE_PUSHDOWN);
     }
 
     @Override
@@ -63,6 +72,12 @@ public class PushBloomFilterRule extends RelOptRule {
             return;
         }
 
+        final boolean usingRange = !PlannerContext.getPlannerContext(call).getExecutionContext()
+            .getParamManager()
+            .getBoolean(ConnectionParams.STORAGE_SUPPORTS_BLOOM_FILTER);
+        final Set<Integer> pushedFilterIds =
+            usingRange ? new HashSet<>(logicalView.getBloomFilters()) : Collections.emptySet();
+
         List<RexNode> conditions = RelOptUtil.conjunctions(filter.getCondition());
 
         List<RexNode> pushToLogicalViewConditions = new ArrayList<>(conditions.size());
@@ -72,6 +87,15 @@ public class PushBloomFilterRule extends RelOptRule {
             boolean canPushDown = true;
             if (condition instanceof RexCall && (((RexCall) condition)
                 .getOperator() instanceof SqlRuntimeFilterFunction)) {
+                if (usingRange) {
+                    RexNode rangeCondition = toRangeCondition(filter, (RexCall) condition, pushedFilterIds);
+                    if (rangeCondition != null) {
+                        pushToLogicalViewConditions.add(rangeCondition);
+                    }
+                    // range is less selective than bloom filter, so keep the bloom filter
+                    reservedConditions.add(condition);
+                    continue;
+                }
                 RelNode filterInput = filter.getInput();
                 canPushDown = ((RexCall) condition).getOperands().stream()
                     .map(input -> (RexSlot) input)
@@ -110,4 +134,19 @@ public class PushBloomFilterRule extends RelOptRule {
 
         call.transformTo(result);
     }
+
+    private static RexNode toRangeCondition(Filter filter, RexCall condition, Set<Integer> pushedFilterIds) {
+        SqlRuntimeFilterFunction filterFunction = (SqlRuntimeFilterFunction) condition.getOperator();
+        if (pushedFilterIds.contains(filterFunction.getId()) || condition.getOperands().size() != 1) {
+            return null;
+        }
+        int index = ((RexSlot) condition.getOperands().get(0)).getIndex();
+        RelDataType keyType = filter.getInput().getRowType().getFieldList().get(index).getType();
+        if (!RuntimeFilterUtil.canPushRuntimeFilterRangeToMysql(DataTypeUtil.calciteToDrdsType(keyType))) {
+            return null;
+        }
+        // selectivity has been counted by the bloom filter kept above
+        SqlRuntimeFilterFunction rangeFunction = new SqlRuntimeFilterFunction(filterFunction.getId(), 1.0, true);
+        return filter.getCluster().getRexBuilder().makeCall(rangeFunction, condition.getOperands());
+    }
 }
@@ -62,10 +62,28 @@ public class RuntimeFilterUtil {
         DataTypes.ULongType,
         DataTypes.DecimalType);
 
+    /**
+     * Types whose values fit in signed long, so that the runtime filter could be pushed down as range and IN-list
+     */
+    private static final Set<DataType<?>> MYSQL_RANGE_FILTER_SUPPORTED_DATATYPES = Sets.newHashSet(
+        DataTypes.TinyIntType,
+        DataTypes.UTinyIntType,
+        DataTypes.SmallIntType,
+        DataTypes.USmallIntType,
+        DataTypes.MediumIntType,
+        DataTypes.UMediumIntType,
+        DataTypes.IntegerType,
+        DataTypes.UIntegerType,
+        DataTypes.LongType);
+
     public static boolean canPushRuntimeFilterToMysql(DataType<?> dataType) {
         return MYSQL_BLOOMFILTER_SUPPORTED_DATATYPES.contains(dataType);
     }
 
+    public static boolean canPushRuntimeFilterRangeToMysql(DataType<?> dataType) {
+        return MYSQL_RANGE_FILTER_SUPPORTED_DATATYPES.contains(dataType);
+    }
+
     public static boolean supportsRuntimeFilter(DataType<?> dataType) {
         // 如果一个类型支持生成的bloomfilter下推到mysql，必定支持类型在polarx这一层生成runtime filter
         return RUNTIME_FILTER_SUPPORTED_TYPES.contains(dataType) ||
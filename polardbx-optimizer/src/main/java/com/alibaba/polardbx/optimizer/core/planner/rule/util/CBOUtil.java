@@ -31,6 +31,7 @@ import com.alibaba.polardbx.optimizer.core.MppConvention;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypeUtil;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.function.SqlApproxAggFunction;
 import com.alibaba.polardbx.optimizer.core.planner.ExecutionPlan;
 import com.alibaba.polardbx.optimizer.core.planner.rule.MysqlAggRule;
 import com.alibaba.polardbx.optimizer.core.planner.rule.MysqlCorrelateRule;
@@ -72,6 +73,7 @@ import org.apache.calcite.rel.RelDistributions;
 import org.apache.calcite.rel.RelFieldCollation;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.RelShuttleImpl;
+import org.apache.calcite.rel.core.Aggregate;
 import org.apache.calcite.rel.core.AggregateCall;
 import org.apache.calcite.rel.core.Join;
 import org.apache.calcite.rel.core.JoinRelType;
@@ -811,6 +813,18 @@ public class CBOUtil {
         return agg.getGroupSets().size() > 1;
     }
 
+    /**
+     * Approximate aggregate functions are not supported by MySQL, so the aggregate must not be pushed down
+     */
+    public static boolean containsApproxAgg(Aggregate agg) {
+        for (AggregateCall aggCall : agg.getAggCallList()) {
+            if (aggCall.getAggregation() instanceof SqlApproxAggFunction) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public static org.apache.calcite.util.Pair<RelTraitSet, List<RelTraitSet>> passThroughTraitsForJoin(
         RelTraitSet required, Join join, JoinRelType joinType,
         int leftInputFieldCount, RelTraitSet joinTraitSet) {
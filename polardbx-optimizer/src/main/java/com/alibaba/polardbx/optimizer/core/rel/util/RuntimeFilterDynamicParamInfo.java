@@ -47,6 +47,14 @@ public class RuntimeFilterDynamicParamInfo implements DynamicParamInfo {
             new RuntimeFilterDynamicParamInfo(InfoType.BLOOM_FILTER_NUM_FUNC, runtimeFilterId));
     }
 
+    public static List<RuntimeFilterDynamicParamInfo> fromRuntimeFilterRange(int runtimeFilterId) {
+        return Lists.newArrayList(
+            new RuntimeFilterDynamicParamInfo(InfoType.RANGE_MIN_VALUE, runtimeFilterId),
+            new RuntimeFilterDynamicParamInfo(InfoType.RANGE_MAX_VALUE, runtimeFilterId),
+            new RuntimeFilterDynamicParamInfo(InfoType.SKIP_IN_LIST, runtimeFilterId),
+            new RuntimeFilterDynamicParamInfo(InfoType.IN_LIST, runtimeFilterId));
+    }
+
     public InfoType getInfoType() {
         return infoType;
     }
@@ -67,6 +75,18 @@ public class RuntimeFilterDynamicParamInfo implements DynamicParamInfo {
         case BLOOM_FILTER_NUM_FUNC:
             method = ParameterMethod.setBloomFilterFuncNum;
             break;
+        case RANGE_MIN_VALUE:
+            method = ParameterMethod.setRuntimeFilterMinValue;
+            break;
+        case RANGE_MAX_VALUE:
+            method = ParameterMethod.setRuntimeFilterMaxValue;
+            break;
+        case SKIP_IN_LIST:
+            method = ParameterMethod.setRuntimeFilterSkipInList;
+            break;
+        case IN_LIST:
+            method = ParameterMethod.setRuntimeFilterInList;
+            break;
         default:
             throw GeneralUtil.nestedException("Unsupported runtime filter info type: " + infoType);
         }
@@ -78,6 +98,7 @@ public class RuntimeFilterDynamicParamInfo implements DynamicParamInfo {
      * 目前runtime filter是通过bloom filter实现的，因此每个runtime filter下推至mysql的时候都需要传递三个参数:
      * bloom filter的数据, bloom filter 数据长度，bloom filter函数个数
      * 具体定义可以参见mysql中实现的bloomfilter的udf的参数
+     * 若以范围和IN-list的形式下推，则需要传递四个参数: 最小值，最大值，是否跳过IN-list，IN-list
      */
     public enum InfoType {
         // bloom filter 二进制数据
@@ -85,6 +106,14 @@ public class RuntimeFilterDynamicParamInfo implements DynamicParamInfo {
         // bloom filter数据长度
         BLOOM_FILTER_DATA_LENGTH,
         // bloom filter函数个数
-        BLOOM_FILTER_NUM_FUNC
+        BLOOM_FILTER_NUM_FUNC,
+        // build key的最小值
+        RANGE_MIN_VALUE,
+        // build key的最大值
+        RANGE_MAX_VALUE,
+        // 是否跳过IN-list
+        SKIP_IN_LIST,
+        // IN-list, 执行前展开为build key的所有值
+        IN_LIST
     }
 }
@@ -0,0 +1,254 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.parse;
+
+import com.alibaba.polardbx.common.utils.Pair;
+import com.alibaba.polardbx.druid.sql.ast.SQLStatement;
+import com.alibaba.polardbx.druid.sql.dialect.mysql.parser.MySqlLexer;
+import com.alibaba.polardbx.druid.sql.parser.ByteString;
+import com.alibaba.polardbx.druid.sql.parser.Token;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.parse.bean.SqlParameterized;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parameterize sql by the token stream of lexer, without building the ast.
+ * <p>
+ * Sql with the same shape (the original text with every literal replaced by '?') is always parameterized
+ * to the same sql, so the result of ast parameterization is kept as the template of its shape. A template
+ * is used only after it is verified, that is, the literals collected by lexer are exactly the parameters
+ * exported from ast, in the same order, for two observations with different literal values.
+ * Otherwise the shape keeps going through the ast path.
+ * <p>
+ * The ast of a template is only used to classify the statement and collect tables,
+ * it does not carry the literals of current sql.
+ */
+public class FastSqlParameterizer {
+
+    private static final int MAX_TEMPLATE_COUNT = 8192;
+
+    /**
+     * Long sql (e.g. batch insert) seldom repeats its shape, not worth caching
+     */
+    private static final int MAX_SQL_LENGTH = 4096;
+
+    private static final BigInteger MAX_UNSIGNED_INT64 = new BigInteger(Long.toUnsignedString(0xffffffffffffffffL));
+
+    private static final BigInteger MIN_SIGNED_INT64 = BigInteger.valueOf(Long.MIN_VALUE);
+
+    private static final BigInteger MAX_SIGNED_INT64 = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private static final Cache<String, Template> TEMPLATES = CacheBuilder.newBuilder()
+        .maximumSize(MAX_TEMPLATE_COUNT)
+        .build();
+
+    public static SqlParameterized parameterize(ByteString sql, ExecutionContext executionContext) {
+        final Tokens tokens = tokenize(sql);
+        if (tokens == null) {
+            return SqlParameterizeUtils.parameterize(sql, null, executionContext, false);
+        }
+
+        final Template template = TEMPLATES.getIfPresent(tokens.shape);
+        if (template != null && template.state == State.VERIFIED) {
+            return new SqlParameterized(sql, template.sql, template.sqlHash, tokens.literals, template.stmt,
+                template.tables);
+        }
+
+        final SqlParameterized result = SqlParameterizeUtils.parameterize(sql, null, executionContext, false);
+        if (result != null && (template == null || template.state == State.UNVERIFIED)) {
+            TEMPLATES.put(tokens.shape, observe(template, tokens.literals, result));
+        }
+        return result;
+    }
+
+    public static void clear() {
+        TEMPLATES.invalidateAll();
+    }
+
+    private static Template observe(Template template, List<Object> literals, SqlParameterized result) {
+        if (!literals.equals(result.getParameters())) {
+            return Template.REJECTED;
+        }
+        if (template == null) {
+            return new Template(State.UNVERIFIED, result, literals);
+        }
+        if (!template.sql.equals(result.getSql())) {
+            // parameterized sql depends on literal values, e.g. alias of select item
+            return Template.REJECTED;
+        }
+        if (isDistinct(literals, template.literals)) {
+            return new Template(State.VERIFIED, result, null);
+        }
+        // can not tell the position of each parameter yet, wait for another observation
+        return template;
+    }
+
+    /**
+     * Literals are distinct from each other and from the literals at the same position of last observation,
+     * so that equal lists means every literal maps to the parameter of the same position.
+     */
+    private static boolean isDistinct(List<Object> literals, List<Object> lastLiterals) {
+        Set<Object> distinct = new HashSet<>(literals);
+        if (distinct.size() != literals.size()) {
+            return false;
+        }
+        for (int i = 0; i < literals.size(); i++) {
+            if (literals.get(i).equals(lastLiterals.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return null if the sql can not be parameterized by lexer
+     */
+    private static Tokens tokenize(ByteString sql) {
+        if (sql.length() > MAX_SQL_LENGTH) {
+            return null;
+        }
+
+        final MySqlLexer lexer = new MySqlLexer(sql, SqlParameterizeUtils.parserFeatures);
+        final StringBuilder shape = new StringBuilder(sql.length());
+        final List<Object> literals = new ArrayList<>();
+        int copied = 0;
+        try {
+            lexer.nextToken();
+            if (!isCacheable(lexer.token())) {
+                return null;
+            }
+
+            for (; ; ) {
+                if (lexer.hasComment()) {
+                    return null;
+                }
+
+                switch (lexer.token()) {
+                case EOF:
+                    shape.append(sql.substring(copied));
+                    return new Tokens(shape.toString(), literals);
+                case LITERAL_INT:
+                    literals.add(normalizeInteger(lexer.integerValue()));
+                    break;
+                case LITERAL_FLOAT:
+                    final String number = lexer.numberString();
+                    if (number.indexOf('e') >= 0 || number.indexOf('E') >= 0) {
+                        // parsed as double
+                        return null;
+                    }
+                    literals.add(new BigDecimal(number));
+                    break;
+                case LITERAL_CHARS:
+                    literals.add(lexer.stringVal());
+                    break;
+                case LITERAL_HEX:
+                case LITERAL_NCHARS:
+                case LITERAL_ALIAS:
+                case LITERAL_PATH:
+                case BITS:
+                case VARIANT:
+                case QUES:
+                case HINT:
+                case LINE_COMMENT:
+                case MULTI_LINE_COMMENT:
+                case SEMI:
+                case ERROR:
+                    return null;
+                default:
+                    lexer.nextToken();
+                    continue;
+                }
+
+                shape.append(sql.substring(copied, lexer.getStartPos())).append('?');
+                copied = lexer.pos();
+                lexer.nextToken();
+            }
+        } catch (Exception e) {
+            // let the ast path report the error
+            return null;
+        }
+    }
+
+    private static boolean isCacheable(Token token) {
+        return token == Token.SELECT
+            || token == Token.INSERT
+            || token == Token.REPLACE
+            || token == Token.UPDATE
+            || token == Token.DELETE;
+    }
+
+    /**
+     * Same as DrdsParameterizeSqlVisitor#printInteger
+     */
+    private static Number normalizeInteger(Number number) {
+        if (number instanceof BigInteger) {
+            BigInteger bigInteger = (BigInteger) number;
+            if (bigInteger.compareTo(MAX_UNSIGNED_INT64) > 0 || bigInteger.compareTo(MIN_SIGNED_INT64) < 0) {
+                return new BigDecimal(bigInteger);
+            } else if (bigInteger.compareTo(MAX_SIGNED_INT64) <= 0) {
+                return bigInteger.longValue();
+            }
+        }
+        return number;
+    }
+
+    private static class Tokens {
+        final String shape;
+        final List<Object> literals;
+
+        Tokens(String shape, List<Object> literals) {
+            this.shape = shape;
+            this.literals = literals;
+        }
+    }
+
+    private enum State {
+        UNVERIFIED, VERIFIED, REJECTED
+    }
+
+    private static class Template {
+        static final Template REJECTED = new Template(State.REJECTED, null, null);
+
+        final State state;
+        final String sql;
+        final long sqlHash;
+        final SQLStatement stmt;
+        final Set<Pair<String, String>> tables;
+
+        /**
+         * literals of the first observation, only kept before verified
+         */
+        final List<Object> literals;
+
+        Template(State state, SqlParameterized parameterized, List<Object> literals) {
+            this.state = state;
+            this.sql = parameterized == null ? null : parameterized.getSql();
+            this.sqlHash = parameterized == null ? 0 : parameterized.getSqlHash();
+            this.stmt = parameterized == null ? null : parameterized.getStmt();
+            this.tables = parameterized == null ? null : parameterized.getTables();
+            this.literals = literals;
+        }
+    }
+}
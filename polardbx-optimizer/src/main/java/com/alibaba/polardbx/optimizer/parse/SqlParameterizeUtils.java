@@ -45,7 +45,7 @@ import java.util.Map;
  */
 public class SqlParameterizeUtils {
 
-    private final static SQLParserFeature[] parserFeatures = {
+    final static SQLParserFeature[] parserFeatures = {
         SQLParserFeature.EnableSQLBinaryOpExprGroup, SQLParserFeature.OptimizedForParameterized,
         SQLParserFeature.TDDLHint, SQLParserFeature.EnableCurrentUserExpr, SQLParserFeature.DRDSAsyncDDL,
         SQLParserFeature.DRDSBaseline, SQLParserFeature.DrdsMisc, SQLParserFeature.DrdsGSI, SQLParserFeature.DrdsCCL
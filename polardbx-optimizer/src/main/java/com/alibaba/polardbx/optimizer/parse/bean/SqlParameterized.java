@@ -25,6 +25,7 @@ import com.alibaba.polardbx.druid.sql.dialect.mysql.ast.statement.MySqlLoadDataI
 import com.alibaba.polardbx.druid.sql.dialect.mysql.ast.statement.MySqlLoadXmlStatement;
 import com.alibaba.polardbx.common.utils.Pair;
 import com.alibaba.polardbx.druid.sql.parser.ByteString;
+import com.alibaba.polardbx.druid.util.FnvHash;
 import com.alibaba.polardbx.optimizer.parse.SqlParameterizeUtils;
 import com.alibaba.polardbx.optimizer.parse.visitor.FastSqlTableNameCollector;
 
@@ -46,6 +47,11 @@ public class SqlParameterized {
      */
     private final String sql;
 
+    /**
+     * 64-bit hash of parameterized sql, used as the hash of plan cache key
+     */
+    private final long sqlHash;
+
     /**
      * parameters
      */
@@ -62,6 +68,7 @@ public class SqlParameterized {
     public SqlParameterized(ByteString originSql, String sql, List<Object> parameters, SQLStatement stmt) {
         this.originSql = originSql;
         this.sql = sql;
+        this.sqlHash = FnvHash.fnv1a_64(sql);
         this.parameters = parameters;
         this.stmt = stmt;
 
@@ -70,6 +77,16 @@ public class SqlParameterized {
         this.tables = collector.getTables();
     }
 
+    public SqlParameterized(ByteString originSql, String sql, long sqlHash, List<Object> parameters,
+                            SQLStatement stmt, Set<Pair<String, String>> tables) {
+        this.originSql = originSql;
+        this.sql = sql;
+        this.sqlHash = sqlHash;
+        this.parameters = parameters;
+        this.stmt = stmt;
+        this.tables = tables;
+    }
+
     public SQLStatement getAst() {
         return this.stmt;
     }
@@ -86,6 +103,10 @@ public class SqlParameterized {
         return stmt;
     }
 
+    public long getSqlHash() {
+        return sqlHash;
+    }
+
     public List<Object> getParameters() {
         return parameters;
     }
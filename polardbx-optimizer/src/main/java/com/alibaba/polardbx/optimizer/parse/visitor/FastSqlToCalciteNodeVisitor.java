@@ -3686,6 +3686,10 @@ public class FastSqlToCalciteNodeVisitor extends CalciteVisitor implements MySql
             functionOperator = SqlStdOperatorTable.AVG;
         } else if (hashCode64 == FnvHash.Constants.GROUP_CONCAT) {
             return visitGroupConcat(x);
+        } else if (hashCode64 == FnvHash.Constants.APPROX_COUNT_DISTINCT) {
+            functionOperator = TddlOperatorTable.APPROX_COUNT_DISTINCT_COMPLETE;
+        } else if (hashCode64 == FnvHash.Constants.APPROX_PERCENTILE) {
+            functionOperator = TddlOperatorTable.APPROX_PERCENTILE_COMPLETE;
         } else if (hashCode64 == FnvHash.Constants.ROW_NUMBER) {
             functionOperator = SqlStdOperatorTable.ROW_NUMBER;
         } else if (hashCode64 == FnvHash.Constants.RANK) {
@@ -416,6 +416,9 @@ public class DRDSRelJson extends RelJson {
             SqlRuntimeFilterFunction filterFunction = (SqlRuntimeFilterFunction) ((RexCall) node).getOperator();
             map.put("runtimeFilterId", filterFunction.getId());
             map.put("guessSelectivity", filterFunction.getGuessSelectivity());
+            if (filterFunction.isUsingRange()) {
+                map.put("usingRange", true);
+            }
             final List<Object> listFilter = jsonBuilder.list();
             for (RexNode operand : ((RexCall) node).getOperands()) {
                 listFilter.add(toJson(operand));
@@ -602,8 +605,9 @@ public class DRDSRelJson extends RelJson {
                 for (Object jsonNode : (List) map.get("operands")) {
                     operands.add(toRex(relInput, jsonNode));
                 }
+                boolean usingRange = Boolean.TRUE.equals(map.get("usingRange"));
                 SqlRuntimeFilterFunction filterFunction =
-                    new SqlRuntimeFilterFunction(runtimeFilterId, guessSelectivity);
+                    new SqlRuntimeFilterFunction(runtimeFilterId, guessSelectivity, usingRange);
                 return rexBuilder.makeCall(filterFunction, operands);
             }
 
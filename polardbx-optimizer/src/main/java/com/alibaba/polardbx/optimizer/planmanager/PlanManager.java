@@ -229,11 +229,14 @@ public class PlanManager extends AbstractLifecycle implements BaselineManageable
 
     public ExecutionPlan choosePlanForPrepare(SqlParameterized sqlParameterized,
                                               SqlNodeList sqlNodeList,
+                                              PreparedStmtCache preparedStmtCache,
                                               ExecutionContext executionContext) {
         PlannerContext plannerContext = PlannerContext.fromExecutionContext(executionContext);
         ExecutionPlan plan = null;
         try {
-            plan = planCache.getForPrepare(sqlParameterized, plannerContext, executionContext.isTestMode());
+            plan = planCache.getForPrepare(sqlParameterized, plannerContext, executionContext.isTestMode(),
+                executionContext.getParamManager().getBoolean(ConnectionParams.ENABLE_PREPARED_PLAN_BINDING) ?
+                    preparedStmtCache : null);
         } catch (ExecutionException e) {
             logger.error(e);
         }
@@ -252,7 +255,13 @@ public class PlanManager extends AbstractLifecycle implements BaselineManageable
         // plan cache
         ExecutionPlan executionPlan = null;
         try {
-            executionPlan = planCache.get(sqlParameterized, plannerContext, executionContext.isTestMode());
+            if (executionContext.isExecutingPreparedStmt() && executionContext.getPreparedStmtCache() != null
+                && executionContext.getParamManager().getBoolean(ConnectionParams.ENABLE_PREPARED_PLAN_BINDING)) {
+                executionPlan = planCache.getForPreparedStmt(executionContext.getPreparedStmtCache(),
+                    sqlParameterized, plannerContext, executionContext.isTestMode());
+            } else {
+                executionPlan = planCache.get(sqlParameterized, plannerContext, executionContext.isTestMode());
+            }
         } catch (ExecutionException e) {
             logger.error(e);
             return Planner.getInstance().doBuildPlan(sqlParameterized, executionContext);
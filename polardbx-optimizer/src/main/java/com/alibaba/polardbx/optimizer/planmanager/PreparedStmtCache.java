@@ -18,6 +18,8 @@ package com.alibaba.polardbx.optimizer.planmanager;
 
 import com.alibaba.polardbx.common.model.SqlType;
 import com.alibaba.polardbx.common.utils.ExecutorMode;
+import com.alibaba.polardbx.optimizer.core.planner.ExecutionPlan;
+import com.alibaba.polardbx.optimizer.core.planner.PlaceHolderExecutionPlan;
 import com.alibaba.polardbx.optimizer.parse.bean.SqlParameterized;
 
 public class PreparedStmtCache {
@@ -26,6 +28,11 @@ public class PreparedStmtCache {
     private SqlType sqlType;
     private ExecutorMode executorMode;
 
+    /**
+     * Plan cache entry bound to this statement, revalidated by the table versions of its cache key before reuse
+     */
+    private ExecutionPlan boundPlan;
+
     public PreparedStmtCache(Statement stmt, SqlParameterized sqlParameterized,
                              SqlType sqlType) {
         this.stmt = stmt;
@@ -64,4 +71,19 @@ public class PreparedStmtCache {
     public void setSqlType(SqlType sqlType) {
         this.sqlType = sqlType;
     }
+
+    public ExecutionPlan getBoundPlan() {
+        return boundPlan;
+    }
+
+    /**
+     * Only plans from plan cache can be bound, since they are revalidated by their cache keys
+     */
+    public void bindPlan(ExecutionPlan plan) {
+        if (plan == null || plan == PlaceHolderExecutionPlan.INSTANCE || plan.getCacheKey() == null) {
+            this.boundPlan = null;
+        } else {
+            this.boundPlan = plan;
+        }
+    }
 }
\ No newline at end of file
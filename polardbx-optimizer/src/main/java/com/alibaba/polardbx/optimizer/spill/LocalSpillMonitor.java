@@ -37,6 +37,8 @@ import static com.google.common.base.Preconditions.checkState;
 public final class LocalSpillMonitor implements SpillMonitor {
     private final SpillMonitor parentMonitor;
     private long spilledBytes;
+    private long uncompressedBytes;
+    private long compressedBytes;
     private boolean closed;
 
     public LocalSpillMonitor(SpillMonitor parentMonitor) {
@@ -50,10 +52,25 @@ public final class LocalSpillMonitor implements SpillMonitor {
         spilledBytes += bytes;
     }
 
+    @Override
+    public synchronized void updateCompressionBytes(long uncompressedBytes, long compressedBytes) {
+        parentMonitor.updateCompressionBytes(uncompressedBytes, compressedBytes);
+        this.uncompressedBytes += uncompressedBytes;
+        this.compressedBytes += compressedBytes;
+    }
+
     public long totalSpilledBytes() {
         return spilledBytes;
     }
 
+    public synchronized long totalUncompressedBytes() {
+        return uncompressedBytes;
+    }
+
+    public synchronized long totalCompressedBytes() {
+        return compressedBytes;
+    }
+
     @Override
     public synchronized void close() {
         if (closed) {
@@ -46,6 +46,10 @@ public class QuerySpillSpaceMonitor extends SpillSpaceMonitor {
 
     private long spillCnt;
 
+    private long spillUncompressedBytes;
+
+    private long spillCompressedBytes;
+
     @VisibleForTesting
     public QuerySpillSpaceMonitor() {
         this.tag = "Test";
@@ -61,6 +65,12 @@ public class QuerySpillSpaceMonitor extends SpillSpaceMonitor {
         SpillSpaceManager.getInstance().updateBytes(bytes);
     }
 
+    @Override
+    public synchronized void updateCompressionBytes(long uncompressedBytes, long compressedBytes) {
+        spillUncompressedBytes += uncompressedBytes;
+        spillCompressedBytes += compressedBytes;
+    }
+
     @Override
     public synchronized long getCurrentMaxSpillBytes() {
         if (MppConfig.getInstance().getMaxQuerySpillSpaceThreshold() != querySpillSpaceThreshold ||
@@ -91,6 +101,14 @@ public class QuerySpillSpaceMonitor extends SpillSpaceMonitor {
         return spillCnt;
     }
 
+    public synchronized long getSpillUncompressedBytes() {
+        return spillUncompressedBytes;
+    }
+
+    public synchronized long getSpillCompressedBytes() {
+        return spillCompressedBytes;
+    }
+
     @Override
     public void close() {
         try {
@@ -42,6 +42,12 @@ public interface SpillMonitor extends Closeable {
 
     void updateBytes(long bytes);
 
+    /**
+     * Report the size of spilled data before and after compression
+     */
+    default void updateCompressionBytes(long uncompressedBytes, long compressedBytes) {
+    }
+
     default LocalSpillMonitor newLocalSpillMonitor() {
         return new LocalSpillMonitor(this);
     }
@@ -20,6 +20,8 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.openjdk.jol.info.ClassLayout;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -63,6 +65,48 @@ public class OperatorStatistics {
 
     protected final AtomicInteger spillCnt = new AtomicInteger(0);
 
+    // ========= detailed profile, only collected with the profile metric level =========
+
+    /**
+     * Number of buckets of the duration histogram. The first bucket counts the durations less than 1 microsecond,
+     * the i-th bucket counts the ones in [2^(i-1), 2^i) microseconds, and the last bucket counts all the longer ones
+     */
+    public static final int DURATION_HISTOGRAM_BUCKETS = 16;
+
+    /**
+     * Wall time during execution in nanoseconds
+     */
+    protected long processWallDuration = 0;
+
+    /**
+     * Histogram of CPU time of each call during execution
+     */
+    protected final long[] processDurationHistogram = new long[DURATION_HISTOGRAM_BUCKETS];
+
+    /**
+     * Count and size of rows consumed by this operator, only for the operators fed by drivers
+     */
+    protected long inputRowCount = 0;
+
+    protected long inputBytes = 0;
+
+    /**
+     * Size of rows produced by this operator
+     */
+    protected long outputBytes = 0;
+
+    /**
+     * Time being blocked in nanoseconds by the name of blocked reason, updated by the threads waking it up
+     */
+    protected final Map<String, Long> blockedDurations = new ConcurrentHashMap<>();
+
+    /**
+     * Count of lookups in the hash table, and the ones colliding with other hash codes
+     */
+    protected long hashProbeCount = 0;
+
+    protected long hashCollisionCount = 0;
+
     public OperatorStatistics() {
 
     }
@@ -73,13 +117,34 @@ public class OperatorStatistics {
                               @JsonProperty("startupDuration") long startupDuration,
                               @JsonProperty("processDuration") long processDuration,
                               @JsonProperty("closeDuration") long closeDuration,
-                              @JsonProperty("spillCnt") int spillCnt) {
+                              @JsonProperty("spillCnt") int spillCnt,
+                              @JsonProperty("processWallDuration") long processWallDuration,
+                              @JsonProperty("processDurationHistogram") long[] processDurationHistogram,
+                              @JsonProperty("inputRowCount") long inputRowCount,
+                              @JsonProperty("inputBytes") long inputBytes,
+                              @JsonProperty("outputBytes") long outputBytes,
+                              @JsonProperty("blockedDurations") Map<String, Long> blockedDurations,
+                              @JsonProperty("hashProbeCount") long hashProbeCount,
+                              @JsonProperty("hashCollisionCount") long hashCollisionCount) {
         this.rowCount = rowCount;
         this.memory = memory;
         this.startupDuration = startupDuration;
         this.processDuration = processDuration;
         this.closeDuration = closeDuration;
         this.spillCnt.addAndGet(spillCnt);
+        this.processWallDuration = processWallDuration;
+        if (processDurationHistogram != null) {
+            System.arraycopy(processDurationHistogram, 0, this.processDurationHistogram, 0,
+                Math.min(processDurationHistogram.length, DURATION_HISTOGRAM_BUCKETS));
+        }
+        this.inputRowCount = inputRowCount;
+        this.inputBytes = inputBytes;
+        this.outputBytes = outputBytes;
+        if (blockedDurations != null) {
+            this.blockedDurations.putAll(blockedDurations);
+        }
+        this.hashProbeCount = hashProbeCount;
+        this.hashCollisionCount = hashCollisionCount;
     }
 
     @JsonProperty
@@ -152,4 +217,75 @@ public class OperatorStatistics {
     public void addSpillCnt(int cnt) {
         this.spillCnt.addAndGet(cnt);
     }
+
+    @JsonProperty
+    public long getProcessWallDuration() {
+        return processWallDuration;
+    }
+
+    public void addProcessWallDuration(long nanoseconds) {
+        this.processWallDuration += nanoseconds;
+    }
+
+    @JsonProperty
+    public long[] getProcessDurationHistogram() {
+        return processDurationHistogram;
+    }
+
+    public void addProcessDurationToHistogram(long nanoseconds) {
+        this.processDurationHistogram[durationHistogramBucket(nanoseconds)]++;
+    }
+
+    public static int durationHistogramBucket(long nanoseconds) {
+        final long micros = nanoseconds / 1000;
+        return Math.min(Long.SIZE - Long.numberOfLeadingZeros(micros), DURATION_HISTOGRAM_BUCKETS - 1);
+    }
+
+    @JsonProperty
+    public long getInputRowCount() {
+        return inputRowCount;
+    }
+
+    @JsonProperty
+    public long getInputBytes() {
+        return inputBytes;
+    }
+
+    public void addInput(long rowCount, long bytes) {
+        this.inputRowCount += rowCount;
+        this.inputBytes += bytes;
+    }
+
+    @JsonProperty
+    public long getOutputBytes() {
+        return outputBytes;
+    }
+
+    public void addOutputBytes(long bytes) {
+        this.outputBytes += bytes;
+    }
+
+    @JsonProperty
+    public Map<String, Long> getBlockedDurations() {
+        return blockedDurations;
+    }
+
+    public void addBlockedDuration(String reason, long nanoseconds) {
+        this.blockedDurations.merge(reason, nanoseconds, Long::sum);
+    }
+
+    @JsonProperty
+    public long getHashProbeCount() {
+        return hashProbeCount;
+    }
+
+    @JsonProperty
+    public long getHashCollisionCount() {
+        return hashCollisionCount;
+    }
+
+    public void addHashProbe(long probeCount, long collisionCount) {
+        this.hashProbeCount += probeCount;
+        this.hashCollisionCount += collisionCount;
+    }
 }
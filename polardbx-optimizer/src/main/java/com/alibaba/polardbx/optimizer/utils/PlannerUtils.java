@@ -531,8 +531,10 @@ public class PlannerUtils {
                 }
                 sqlNodeList.add(((SqlCase) call).getElseOperand());
             } else if (call.getOperator() instanceof SqlRuntimeFilterFunction) {
-                paramInfoList.addAll(RuntimeFilterDynamicParamInfo
-                    .fromRuntimeFilterId(((SqlRuntimeFilterFunction) call.getOperator()).getId()));
+                SqlRuntimeFilterFunction runtimeFilterFunction = (SqlRuntimeFilterFunction) call.getOperator();
+                paramInfoList.addAll(runtimeFilterFunction.isUsingRange() ?
+                    RuntimeFilterDynamicParamInfo.fromRuntimeFilterRange(runtimeFilterFunction.getId()) :
+                    RuntimeFilterDynamicParamInfo.fromRuntimeFilterId(runtimeFilterFunction.getId()));
                 sqlNodeList.addAll(call.getOperandList());
             } else if (call instanceof GroupConcatCall) {
                 sqlNodeList.addAll(call.getOperandList());
@@ -58,6 +58,9 @@ public class InformationSchemaReactorPerf extends VirtualView {
         columns.add(new RelDataTypeFieldImpl("BUFFER_SIZE", 7, typeFactory.createSqlType(SqlTypeName.BIGINT)));
         columns.add(new RelDataTypeFieldImpl("BUFFER_CHUNK_SIZE", 8, typeFactory.createSqlType(SqlTypeName.BIGINT)));
         columns.add(new RelDataTypeFieldImpl("POOLED_BUFFER_COUNT", 9, typeFactory.createSqlType(SqlTypeName.BIGINT)));
+        columns.add(new RelDataTypeFieldImpl("BUFFER_HIT", 10, typeFactory.createSqlType(SqlTypeName.BIGINT)));
+        columns.add(new RelDataTypeFieldImpl("BUFFER_MISS", 11, typeFactory.createSqlType(SqlTypeName.BIGINT)));
+        columns.add(new RelDataTypeFieldImpl("BUFFER_OVERFLOW", 12, typeFactory.createSqlType(SqlTypeName.BIGINT)));
 
         return typeFactory.createStructType(columns);
     }
@@ -1269,7 +1269,23 @@ public class InformationSchemaViewManager extends ViewManager {
             "COMPUTE_NODE",
             "SCHEMA_NAME",
             "CACHE_KEY_CNT",
-            "CAPACITY"
+            "CAPACITY",
+            "CACHE_WEIGHT",
+            "HIT_COUNT",
+            "MISS_COUNT",
+            "EVICTION_COUNT",
+            "REJECT_COUNT"
+        });
+
+        defineVirtualView(VirtualViewType.RESULT_CACHE, new String[] {
+            "COMPUTE_NODE",
+            "SCHEMA_NAME",
+            "TABLE_NAMES",
+            "ID",
+            "HIT_COUNT",
+            "ROW_COUNT",
+            "SIZE_IN_BYTES",
+            "SQL"
         });
 
         defineVirtualView(VirtualViewType.SPM, new String[] {
@@ -1338,7 +1354,10 @@ public class InformationSchemaViewManager extends ViewManager {
 
             "BUFFER_SIZE",
             "BUFFER_CHUNK_SIZE",
-            "POOLED_BUFFER_COUNT"
+            "POOLED_BUFFER_COUNT",
+            "BUFFER_HIT",
+            "BUFFER_MISS",
+            "BUFFER_OVERFLOW"
         });
 
         defineVirtualView(VirtualViewType.DN_PERF, new String[] {
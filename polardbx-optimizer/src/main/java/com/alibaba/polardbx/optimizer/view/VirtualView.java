@@ -231,6 +231,8 @@ public class VirtualView extends AbstractRelNode {
             return new InformationSchemaSPM(cluster, traitSet);
         case PLAN_CACHE_CAPACITY:
             return new InformationSchemaPlanCacheCapacity(cluster, traitSet);
+        case RESULT_CACHE:
+            return new InformationSchemaResultCache(cluster, traitSet);
         case REACTOR_PERF:
             return new InformationSchemaReactorPerf(cluster, traitSet);
         case DN_PERF:
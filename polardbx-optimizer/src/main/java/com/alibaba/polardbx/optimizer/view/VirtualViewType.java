@@ -177,6 +177,8 @@ public enum VirtualViewType {
 
     PLAN_CACHE_CAPACITY,
 
+    RESULT_CACHE,
+
     SPM,
 
     STATISTIC_TASK,
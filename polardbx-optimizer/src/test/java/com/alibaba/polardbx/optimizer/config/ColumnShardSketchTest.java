@@ -0,0 +1,112 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.config;
+
+import com.alibaba.polardbx.optimizer.config.table.statistic.ColumnShardSketch;
+import com.alibaba.polardbx.optimizer.config.table.statistic.Histogram;
+import com.alibaba.polardbx.optimizer.config.table.statistic.TopN;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class ColumnShardSketchTest {
+
+    @Test
+    public void testSerialize() {
+        ColumnShardSketch sketch = new ColumnShardSketch(DataTypes.LongType);
+        for (int i = 0; i < 10000; i++) {
+            sketch.offer(i % 100);
+        }
+        sketch.offer(null);
+
+        ColumnShardSketch copy = ColumnShardSketch.deserialize(DataTypes.LongType, sketch.serializeQuantiles(),
+            sketch.serializeFrequentItems());
+        Assert.assertNotNull(copy);
+        Assert.assertEquals(10000, copy.getN());
+        TopN topN = ColumnShardSketch.buildTopN(DataTypes.LongType, ImmutableList.of(copy), ImmutableList.of(1D),
+            100, 1);
+        Assert.assertEquals(100L, topN.get(7L).longValue());
+
+        // type of the column is changed since sampled
+        Assert.assertNull(ColumnShardSketch.deserialize(DataTypes.StringType, sketch.serializeQuantiles(),
+            sketch.serializeFrequentItems()));
+        Assert.assertNull(ColumnShardSketch.deserialize(DataTypes.LongType, "", ""));
+    }
+
+    /**
+     * shards sampled at different rates weigh the same once scaled
+     */
+    @Test
+    public void testHistogramWithScales() {
+        Random random = new Random(7);
+        ColumnShardSketch denseShard = new ColumnShardSketch(DataTypes.LongType);
+        for (int i = 0; i < 10000; i++) {
+            denseShard.offer((long) random.nextInt(10000));
+        }
+        ColumnShardSketch sparseShard = new ColumnShardSketch(DataTypes.LongType);
+        for (int i = 0; i < 1000; i++) {
+            sparseShard.offer(10000L + random.nextInt(10000));
+        }
+
+        Histogram histogram = ColumnShardSketch.buildHistogram(DataTypes.LongType, 64,
+            ImmutableList.of(denseShard, sparseShard), ImmutableList.of(0.1D, 1D), null);
+        Assert.assertEquals(1000, histogram.rangeCount(null, false, 10000L, false), 100);
+        Assert.assertEquals(1000, histogram.rangeCount(10000L, true, null, false), 100);
+        Assert.assertEquals(500, histogram.rangeCount(0L, true, 5000L, false), 100);
+    }
+
+    /**
+     * heavy hitters survive merging, and are left out of histogram
+     */
+    @Test
+    public void testTopNAndHistogram() {
+        Random random = new Random(7);
+        ImmutableList.Builder<ColumnShardSketch> sketches = ImmutableList.builder();
+        for (int shard = 0; shard < 4; shard++) {
+            ColumnShardSketch sketch = new ColumnShardSketch(DataTypes.LongType);
+            for (int i = 0; i < 10000; i++) {
+                sketch.offer(i % 10 == 0 ? 42L : (long) random.nextInt(100000));
+            }
+            sketches.add(ColumnShardSketch.deserialize(DataTypes.LongType, sketch.serializeQuantiles(),
+                sketch.serializeFrequentItems()));
+        }
+        ImmutableList<Double> scales = ImmutableList.of(1D, 1D, 1D, 0.5D);
+
+        TopN topN = ColumnShardSketch.buildTopN(DataTypes.LongType, sketches.build(), scales, 1, 1);
+        Assert.assertEquals(3500, topN.get(42L), 3500 * 0.05);
+
+        Histogram histogram =
+            ColumnShardSketch.buildHistogram(DataTypes.LongType, 64, sketches.build(), scales, topN);
+        // 9000 rows of each shard except 42, the last one is scaled to half
+        Assert.assertEquals(31500, histogram.rangeCount(0L, true, 100000L, false), 31500 * 0.05);
+    }
+
+    @Test
+    public void testStringTopN() {
+        ColumnShardSketch sketch = new ColumnShardSketch(DataTypes.StringType);
+        for (int i = 0; i < 1000; i++) {
+            sketch.offer(i % 2 == 0 ? "a" : "b" + i);
+        }
+        TopN topN = ColumnShardSketch.buildTopN(DataTypes.StringType, ImmutableList.of(sketch),
+            ImmutableList.of(2D), 10, 10);
+        Assert.assertEquals(1000, topN.get("a"), 1000 * 0.05);
+        Assert.assertEquals(0L, topN.get("b1").longValue());
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions;
+
+import com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions.ApproxCountDistinct.Sketch;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ApproxCountDistinctSketchTest {
+
+    @Test
+    public void testSparse() {
+        Sketch sketch = new Sketch();
+        for (int i = 0; i < 1000; i++) {
+            sketch.add(hash(i % 100));
+        }
+        assertEquals(100, sketch.estimate());
+        assertEquals(100, copyOf(sketch).estimate());
+    }
+
+    @Test
+    public void testDense() {
+        Sketch sketch = new Sketch();
+        for (int i = 0; i < 1000000; i++) {
+            sketch.add(hash(i));
+        }
+        assertTrue(Math.abs(sketch.estimate() - 1000000) < 1000000 * 0.03);
+        assertEquals(sketch.estimate(), copyOf(sketch).estimate());
+    }
+
+    @Test
+    public void testMerge() {
+        Sketch a = new Sketch();
+        Sketch b = new Sketch();
+        Sketch c = new Sketch();
+        for (int i = 0; i < 100000; i++) {
+            a.add(hash(i));
+            // half of the values are shared with a
+            b.add(hash(i + 50000));
+        }
+        for (int i = 0; i < 10; i++) {
+            c.add(hash(i));
+        }
+        Sketch merged = copyOf(a);
+        merged.merge(b.serialize());
+        merged.merge(c.serialize());
+        assertTrue(Math.abs(merged.estimate() - 150000) < 150000 * 0.03);
+
+        c.merge(a.serialize());
+        assertEquals(a.estimate(), c.estimate());
+    }
+
+    private static Sketch copyOf(Sketch sketch) {
+        Sketch copy = new Sketch();
+        copy.merge(sketch.serialize());
+        return copy;
+    }
+
+    private static long hash(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
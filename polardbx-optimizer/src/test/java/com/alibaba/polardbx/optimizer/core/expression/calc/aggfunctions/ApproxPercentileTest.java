@@ -0,0 +1,146 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions;
+
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.chunk.BlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.ByteArrayBlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.DoubleBlockBuilder;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.function.SqlApproxAggFunction.Phase;
+import com.alibaba.polardbx.optimizer.exception.FunctionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class ApproxPercentileTest {
+
+    private static final int N = 100000;
+
+    /**
+     * Normalized rank error of the quantiles sketch with default K is about 1.7%
+     */
+    private static final double RANK_ERROR = 0.02;
+
+    @Test
+    public void testAccuracy() {
+        List<Double> values = shuffledValues();
+        for (double fraction : new double[] {0, 0.01, 0.25, 0.5, 0.9, 0.99, 1}) {
+            ApproxPercentile aggregator = open(Phase.COMPLETE, 2);
+            accumulate(aggregator, values, fraction);
+
+            Block result = writeResult(aggregator, new DoubleBlockBuilder(2), 2);
+            assertRank(fraction, result.getDouble(0));
+            // group 1 only sees nulls
+            Assert.assertTrue(result.isNull(1));
+        }
+    }
+
+    @Test
+    public void testMergePartialStates() {
+        List<Double> values = shuffledValues();
+        double fraction = 0.75;
+        int partialCount = 4;
+
+        ByteArrayBlockBuilder partialStates = new ByteArrayBlockBuilder(partialCount * 2, 1024);
+        for (int i = 0; i < partialCount; i++) {
+            ApproxPercentile partial = open(Phase.PARTIAL, 2);
+            accumulate(partial, values.subList(i * N / partialCount, (i + 1) * N / partialCount), fraction);
+            partial.writeResultTo(0, partialStates);
+            partial.writeResultTo(1, partialStates);
+        }
+        Chunk states = new Chunk(partialStates.build());
+        Assert.assertTrue(states.getBlock(0).isNull(1));
+
+        // the fraction comes with the partial states
+        ApproxPercentile merge = open(Phase.MERGE, 1);
+        for (int position = 0; position < states.getPositionCount(); position++) {
+            merge.accumulate(0, states, position);
+        }
+        Block merged = writeResult(merge, new DoubleBlockBuilder(1), 1);
+        assertRank(fraction, merged.getDouble(0));
+
+        ApproxPercentile complete = open(Phase.COMPLETE, 2);
+        accumulate(complete, values, fraction);
+        Block expected = writeResult(complete, new DoubleBlockBuilder(2), 2);
+        Assert.assertEquals(expected.getDouble(0), merged.getDouble(0), 2 * RANK_ERROR * N);
+    }
+
+    @Test(expected = FunctionException.class)
+    public void testFractionOutOfRange() {
+        accumulate(open(Phase.COMPLETE, 2), shuffledValues(), 1.5);
+    }
+
+    private static void assertRank(double fraction, double value) {
+        // values are 1 to N, so a value is its own rank
+        Assert.assertTrue("fraction " + fraction + " got " + value,
+            Math.abs(value - Math.max(1, fraction * N)) <= RANK_ERROR * N);
+    }
+
+    /**
+     * Accumulate the values into group 0, and nulls into both groups in between
+     */
+    private static void accumulate(ApproxPercentile aggregator, List<Double> values, double fraction) {
+        int positionCount = values.size() * 2;
+        DoubleBlockBuilder valueBuilder = new DoubleBlockBuilder(positionCount);
+        DoubleBlockBuilder fractionBuilder = new DoubleBlockBuilder(positionCount);
+        int[] groupIds = new int[positionCount];
+        for (int i = 0; i < values.size(); i++) {
+            valueBuilder.writeDouble(values.get(i));
+            valueBuilder.appendNull();
+            fractionBuilder.writeDouble(fraction);
+            fractionBuilder.writeDouble(fraction);
+            groupIds[2 * i] = 0;
+            groupIds[2 * i + 1] = i % 2;
+        }
+        Chunk chunk = new Chunk(valueBuilder.build(), fractionBuilder.build());
+        for (int position = 0; position < positionCount; position++) {
+            aggregator.accumulate(groupIds[position], chunk, position);
+        }
+    }
+
+    private static ApproxPercentile open(Phase phase, int groupCount) {
+        ApproxPercentile aggregator = new ApproxPercentile(phase == Phase.MERGE ? new int[] {0} : new int[] {0, 1},
+            DataTypes.DoubleType, DataTypes.DoubleType, phase, -1);
+        aggregator.open(groupCount);
+        for (int groupId = 0; groupId < groupCount; groupId++) {
+            aggregator.appendInitValue();
+        }
+        return aggregator;
+    }
+
+    private static Block writeResult(ApproxPercentile aggregator, BlockBuilder blockBuilder, int groupCount) {
+        for (int groupId = 0; groupId < groupCount; groupId++) {
+            aggregator.writeResultTo(groupId, blockBuilder);
+        }
+        return blockBuilder.build();
+    }
+
+    private static List<Double> shuffledValues() {
+        List<Double> values = new ArrayList<>(N);
+        for (int i = 1; i <= N; i++) {
+            values.add((double) i);
+        }
+        Collections.shuffle(values, new Random(42));
+        return values;
+    }
+}
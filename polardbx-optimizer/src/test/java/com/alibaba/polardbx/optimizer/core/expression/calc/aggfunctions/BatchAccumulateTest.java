@@ -0,0 +1,232 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.optimizer.core.expression.calc.aggfunctions;
+
+import com.alibaba.polardbx.common.datatype.Decimal;
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.chunk.BlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.DecimalBlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.DoubleBlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
+import com.alibaba.polardbx.optimizer.chunk.LongBlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.StringBlockBuilder;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.alibaba.polardbx.optimizer.core.expression.calc.Aggregator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+public class BatchAccumulateTest {
+
+    private static final int GROUP_COUNT = 3;
+
+    private final Chunk chunk = new Chunk(LongBlock.of(1L, null, 3L, Long.MAX_VALUE, -5L, 6L, null, 8L));
+
+    /**
+     * Groups 0 and 2 see only nulls
+     */
+    private final Chunk nullHeavyChunk = new Chunk(LongBlock.of(null, null, null, null, 4L, null, null, null));
+
+    private final Chunk decimalChunk = new Chunk(decimalBlock("1.5", null, "-3.25", "100", null, "0.01", "7", null));
+
+    private final Chunk doubleChunk = new Chunk(doubleBlock(1.5D, null, -3.25D, 1e10D, null, 0.01D, 7D, -0D));
+
+    private final Chunk varcharChunk = new Chunk(varcharBlock("b", null, "a", "", "zz", null, "c", "b"));
+
+    private final int[] groupIds = new int[] {0, 1, 2, 0, 1, 2, 0, 1};
+
+    @Test
+    public void testWithoutSelection() {
+        checkSameAsRowByRow(() -> new Long2LongSum0(0, false, DataTypes.LongType, DataTypes.LongType, -1),
+            LongBlockBuilder::new, null);
+        checkSameAsRowByRow(() -> new Long2DecimalSum(0, false, DataTypes.LongType, DataTypes.DecimalType, -1),
+            DecimalBlockBuilder::new, null);
+        checkSameAsRowByRow(() -> new Count(new int[] {0}, false, -1), LongBlockBuilder::new, null);
+        checkSameAsRowByRow(() -> new CountRow(new int[] {0}, false, -1), LongBlockBuilder::new, null);
+        checkSameAsRowByRow(() -> new Long2LongMax(0, DataTypes.LongType, DataTypes.LongType, -1),
+            LongBlockBuilder::new, null);
+        checkSameAsRowByRow(() -> new Long2LongMin(0, DataTypes.LongType, DataTypes.LongType, -1),
+            LongBlockBuilder::new, null);
+        checkSameAsRowByRow(() -> new Long2DecimalAvg(0, false, DataTypes.LongType, DataTypes.DecimalType, -1),
+            DecimalBlockBuilder::new, null);
+    }
+
+    @Test
+    public void testWithSelection() {
+        final int[] selection = new int[] {1, 2, 4, 7};
+        checkSameAsRowByRow(() -> new Long2LongSum0(0, false, DataTypes.LongType, DataTypes.LongType, -1),
+            LongBlockBuilder::new, selection);
+        checkSameAsRowByRow(() -> new Long2DecimalSum(0, false, DataTypes.LongType, DataTypes.DecimalType, -1),
+            DecimalBlockBuilder::new, selection);
+        checkSameAsRowByRow(() -> new Count(new int[] {0}, false, -1), LongBlockBuilder::new, selection);
+        checkSameAsRowByRow(() -> new Long2LongMax(0, DataTypes.LongType, DataTypes.LongType, -1),
+            LongBlockBuilder::new, selection);
+        checkSameAsRowByRow(() -> new Long2LongMin(0, DataTypes.LongType, DataTypes.LongType, -1),
+            LongBlockBuilder::new, selection);
+    }
+
+    @Test
+    public void testNullHeavy() {
+        for (int[] selection : new int[][] {null, {0, 2, 4, 5, 7}, {0, 3, 6}}) {
+            checkSameAsRowByRow(() -> new Long2LongSum0(0, false, DataTypes.LongType, DataTypes.LongType, -1),
+                LongBlockBuilder::new, nullHeavyChunk, selection);
+            checkSameAsRowByRow(() -> new Long2DecimalSum(0, false, DataTypes.LongType, DataTypes.DecimalType, -1),
+                DecimalBlockBuilder::new, nullHeavyChunk, selection);
+            checkSameAsRowByRow(() -> new Count(new int[] {0}, false, -1), LongBlockBuilder::new, nullHeavyChunk,
+                selection);
+            checkSameAsRowByRow(() -> new Long2LongMax(0, DataTypes.LongType, DataTypes.LongType, -1),
+                LongBlockBuilder::new, nullHeavyChunk, selection);
+            checkSameAsRowByRow(() -> new Long2LongMin(0, DataTypes.LongType, DataTypes.LongType, -1),
+                LongBlockBuilder::new, nullHeavyChunk, selection);
+            checkSameAsRowByRow(() -> new Long2DecimalAvg(0, false, DataTypes.LongType, DataTypes.DecimalType, -1),
+                DecimalBlockBuilder::new, nullHeavyChunk, selection);
+        }
+    }
+
+    @Test
+    public void testDecimal() {
+        for (int[] selection : new int[][] {null, {1, 2, 4, 7}}) {
+            checkSameAsRowByRow(
+                () -> new Decimal2DecimalSum(0, false, DataTypes.DecimalType, DataTypes.DecimalType, -1),
+                DecimalBlockBuilder::new, decimalChunk, selection);
+            checkSameAsRowByRow(
+                () -> new Decimal2DecimalAvg(0, false, DataTypes.DecimalType, DataTypes.DecimalType, -1),
+                DecimalBlockBuilder::new, decimalChunk, selection);
+            checkSameAsRowByRow(() -> new Decimal2DecimalMax(0, DataTypes.DecimalType, DataTypes.DecimalType, -1),
+                DecimalBlockBuilder::new, decimalChunk, selection);
+            checkSameAsRowByRow(() -> new Decimal2DecimalMin(0, DataTypes.DecimalType, DataTypes.DecimalType, -1),
+                DecimalBlockBuilder::new, decimalChunk, selection);
+            checkSameAsRowByRow(() -> new Count(new int[] {0}, false, -1), LongBlockBuilder::new, decimalChunk,
+                selection);
+        }
+    }
+
+    @Test
+    public void testDouble() {
+        for (int[] selection : new int[][] {null, {1, 2, 4, 7}}) {
+            checkSameAsRowByRow(() -> new Double2DoubleSum(0, false, DataTypes.DoubleType, DataTypes.DoubleType, -1),
+                DoubleBlockBuilder::new, doubleChunk, selection);
+            checkSameAsRowByRow(
+                () -> new Double2DoubleAvg(0, false, DataTypes.DoubleType, DataTypes.DoubleType, -1),
+                DoubleBlockBuilder::new, doubleChunk, selection);
+            checkSameAsRowByRow(() -> new Double2DoubleMax(0, DataTypes.DoubleType, DataTypes.DoubleType, -1),
+                DoubleBlockBuilder::new, doubleChunk, selection);
+            checkSameAsRowByRow(() -> new Double2DoubleMin(0, DataTypes.DoubleType, DataTypes.DoubleType, -1),
+                DoubleBlockBuilder::new, doubleChunk, selection);
+        }
+    }
+
+    @Test
+    public void testVarchar() {
+        for (int[] selection : new int[][] {null, {1, 2, 4, 7}}) {
+            checkSameAsRowByRow(() -> new Count(new int[] {0}, false, -1), LongBlockBuilder::new, varcharChunk,
+                selection);
+            checkSameAsRowByRow(() -> new CountRow(new int[] {0}, false, -1), LongBlockBuilder::new, varcharChunk,
+                selection);
+            checkSameAsRowByRow(() -> new Max(0, DataTypes.VarcharType, DataTypes.VarcharType, -1),
+                capacity -> new StringBlockBuilder(capacity, 4), varcharChunk, selection);
+            checkSameAsRowByRow(() -> new Min(0, DataTypes.VarcharType, DataTypes.VarcharType, -1),
+                capacity -> new StringBlockBuilder(capacity, 4), varcharChunk, selection);
+        }
+    }
+
+    private void checkSameAsRowByRow(Supplier<Aggregator> aggregatorSupplier,
+                                     IntFunction<BlockBuilder> builderSupplier,
+                                     int[] selection) {
+        checkSameAsRowByRow(aggregatorSupplier, builderSupplier, chunk, selection);
+    }
+
+    private void checkSameAsRowByRow(Supplier<Aggregator> aggregatorSupplier,
+                                     IntFunction<BlockBuilder> builderSupplier,
+                                     Chunk chunk, int[] selection) {
+        Aggregator rowByRow = open(aggregatorSupplier.get());
+        Aggregator batch = open(aggregatorSupplier.get());
+
+        if (selection == null) {
+            for (int position = 0; position < chunk.getPositionCount(); position++) {
+                rowByRow.accumulate(groupIds[position], chunk, position);
+            }
+            batch.accumulate(groupIds, chunk, null, chunk.getPositionCount());
+        } else {
+            for (int position : selection) {
+                rowByRow.accumulate(groupIds[position], chunk, position);
+            }
+            batch.accumulate(groupIds, chunk, selection, selection.length);
+        }
+
+        Block expected = writeResult(rowByRow, builderSupplier.apply(GROUP_COUNT));
+        Block actual = writeResult(batch, builderSupplier.apply(GROUP_COUNT));
+        for (int groupId = 0; groupId < GROUP_COUNT; groupId++) {
+            Assert.assertEquals(expected.getObject(groupId), actual.getObject(groupId));
+        }
+    }
+
+    private static Block decimalBlock(String... values) {
+        DecimalBlockBuilder blockBuilder = new DecimalBlockBuilder(values.length);
+        for (String value : values) {
+            if (value == null) {
+                blockBuilder.appendNull();
+            } else {
+                blockBuilder.writeDecimal(Decimal.fromString(value));
+            }
+        }
+        return blockBuilder.build();
+    }
+
+    private static Block doubleBlock(Double... values) {
+        DoubleBlockBuilder blockBuilder = new DoubleBlockBuilder(values.length);
+        for (Double value : values) {
+            if (value == null) {
+                blockBuilder.appendNull();
+            } else {
+                blockBuilder.writeDouble(value);
+            }
+        }
+        return blockBuilder.build();
+    }
+
+    private static Block varcharBlock(String... values) {
+        StringBlockBuilder blockBuilder = new StringBlockBuilder(values.length, 4);
+        for (String value : values) {
+            if (value == null) {
+                blockBuilder.appendNull();
+            } else {
+                blockBuilder.writeString(value);
+            }
+        }
+        return blockBuilder.build();
+    }
+
+    private static Aggregator open(Aggregator aggregator) {
+        aggregator.open(GROUP_COUNT);
+        for (int groupId = 0; groupId < GROUP_COUNT; groupId++) {
+            aggregator.appendInitValue();
+        }
+        return aggregator;
+    }
+
+    private static Block writeResult(Aggregator aggregator, BlockBuilder blockBuilder) {
+        for (int groupId = 0; groupId < GROUP_COUNT; groupId++) {
+            aggregator.writeResultTo(groupId, blockBuilder);
+        }
+        return blockBuilder.build();
+    }
+}
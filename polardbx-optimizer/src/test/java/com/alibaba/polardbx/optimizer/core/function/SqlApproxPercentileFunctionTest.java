@@ -0,0 +1,91 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.core.function;
+
+import com.alibaba.polardbx.common.jdbc.Parameters;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.planner.SqlConverter;
+import com.alibaba.polardbx.optimizer.exception.SqlValidateException;
+import com.alibaba.polardbx.optimizer.parse.FastsqlParser;
+import com.alibaba.polardbx.planner.common.BasePlannerTest;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.sql.SQLSyntaxErrorException;
+import java.util.HashMap;
+
+/**
+ * The fraction of APPROX_PERCENTILE must be a constant between 0 and 1
+ */
+public class SqlApproxPercentileFunctionTest extends BasePlannerTest {
+
+    static final String dbName = "optest";
+
+    public SqlApproxPercentileFunctionTest() throws SQLSyntaxErrorException {
+        super(dbName);
+        buildTable(dbName, "create table ap_t1(a int, b double) dbpartition by hash(a)");
+    }
+
+    @Test
+    public void testConstantFraction() {
+        validate("select approx_percentile(b, 0.5) from optest.ap_t1");
+        validate("select approx_percentile(b, 0) from optest.ap_t1");
+        validate("select approx_percentile(b, 1) from optest.ap_t1 group by a");
+    }
+
+    @Test
+    public void testColumnFraction() {
+        assertInvalid("select approx_percentile(b, a) from optest.ap_t1");
+        assertInvalid("select approx_percentile(b, a / 10) from optest.ap_t1");
+    }
+
+    @Test
+    public void testFractionOutOfRange() {
+        assertInvalid("select approx_percentile(b, 1.5) from optest.ap_t1");
+        assertInvalid("select approx_percentile(b, 2) from optest.ap_t1");
+    }
+
+    private void assertInvalid(String sql) {
+        try {
+            validate(sql);
+            Assert.fail("expect validate error: " + sql);
+        } catch (SqlValidateException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().toUpperCase().contains("APPROX_PERCENTILE")
+                || e.getMessage().contains("out of range"));
+        }
+    }
+
+    private void validate(String sql) {
+        ExecutionContext executionContext = new ExecutionContext();
+        executionContext.setSchemaName(appName);
+        executionContext.setParams(new Parameters());
+        executionContext.setServerVariables(new HashMap<>());
+        SqlConverter.getInstance(appName, executionContext).validate(new FastsqlParser().parse(sql).get(0));
+    }
+
+    @Test
+    @Ignore
+    public void testSql() {
+
+    }
+
+    @Override
+    protected String getPlan(String testSql) {
+        return null;
+    }
+}
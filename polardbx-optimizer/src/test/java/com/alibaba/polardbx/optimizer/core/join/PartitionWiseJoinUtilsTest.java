@@ -0,0 +1,116 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.core.join;
+
+import com.alibaba.polardbx.common.jdbc.Parameters;
+import com.alibaba.polardbx.common.properties.ConnectionProperties;
+import com.alibaba.polardbx.optimizer.PlannerContext;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.planner.Planner;
+import com.alibaba.polardbx.optimizer.parse.FastsqlParser;
+import com.alibaba.polardbx.planner.common.BasePlannerTest;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelVisitor;
+import org.apache.calcite.rel.core.Join;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.sql.SQLSyntaxErrorException;
+import java.util.HashMap;
+
+public class PartitionWiseJoinUtilsTest extends BasePlannerTest {
+
+    static final String dbName = "optest";
+
+    public PartitionWiseJoinUtilsTest() throws SQLSyntaxErrorException {
+        super(dbName);
+        buildTable(dbName, "create table pwj_t1(a int, b int) partition by hash(a) partitions 4");
+        buildTable(dbName, "create table pwj_t2(a int, c int) partition by hash(c) partitions 4");
+        buildTable(dbName, "create table pwj_t3(a int, c int) partition by hash(c) partitions 8");
+        buildTable(dbName, "create table pwj_t4(a int, b int) broadcast");
+    }
+
+    @Override
+    protected void initBasePlannerTestEnv() {
+        this.useNewPartDb = true;
+    }
+
+    @Test
+    public void testSameTableGroup() {
+        assertPartitionWise(true, "select * from pwj_t1 join pwj_t2 on pwj_t1.a = pwj_t2.c");
+        assertPartitionWise(true, "select * from pwj_t1 left join pwj_t2 on pwj_t1.a = pwj_t2.c");
+        assertPartitionWise(true, "select * from pwj_t1 join pwj_t2 on pwj_t1.a = pwj_t2.c and pwj_t1.b = pwj_t2.a");
+    }
+
+    @Test
+    public void testNotOnPartitionColumn() {
+        assertPartitionWise(false, "select * from pwj_t1 join pwj_t2 on pwj_t1.b = pwj_t2.c");
+        assertPartitionWise(false, "select * from pwj_t1 join pwj_t2 on pwj_t1.a = pwj_t2.a");
+    }
+
+    @Test
+    public void testDifferentTableGroup() {
+        assertPartitionWise(false, "select * from pwj_t1 join pwj_t3 on pwj_t1.a = pwj_t3.c");
+        assertPartitionWise(false, "select * from pwj_t1 join pwj_t4 on pwj_t1.a = pwj_t4.a");
+    }
+
+    private void assertPartitionWise(boolean expected, String sql) {
+        ExecutionContext executionContext = new ExecutionContext();
+        executionContext.setSchemaName(appName);
+        executionContext.setParams(new Parameters());
+        executionContext.setServerVariables(new HashMap<>());
+        // keep the join from being pushed down, so that both inputs are logical views
+        executionContext.getExtraCmds().put(ConnectionProperties.ENABLE_PUSH_JOIN, false);
+        executionContext.getExtraCmds().put(ConnectionProperties.ENABLE_CBO_PUSH_JOIN, false);
+        executionContext.getExtraCmds().put(ConnectionProperties.PARALLELISM, 0);
+
+        PlannerContext plannerContext = PlannerContext.fromExecutionContext(executionContext);
+        plannerContext.setSchemaName(appName);
+        RelNode plan = Planner.getInstance().getPlan(new FastsqlParser().parse(sql).get(0), plannerContext).getPlan();
+
+        Join join = findJoin(plan);
+        Assert.assertNotNull("no join in plan of " + sql, join);
+        Assert.assertEquals(sql, expected, PartitionWiseJoinUtils.isPartitionWise(join, executionContext));
+    }
+
+    private static Join findJoin(RelNode plan) {
+        final Join[] join = new Join[1];
+        new RelVisitor() {
+            @Override
+            public void visit(RelNode node, int ordinal, RelNode parent) {
+                if (join[0] == null && node instanceof Join) {
+                    join[0] = (Join) node;
+                    return;
+                }
+                super.visit(node, ordinal, parent);
+            }
+        }.go(plan);
+        return join[0];
+    }
+
+    @Test
+    @Ignore
+    public void testSql() {
+
+    }
+
+    @Override
+    protected String getPlan(String testSql) {
+        return null;
+    }
+}
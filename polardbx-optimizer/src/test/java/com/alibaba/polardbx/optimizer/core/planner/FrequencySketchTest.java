@@ -0,0 +1,66 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.core.planner;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+public class FrequencySketchTest {
+
+    @Test
+    public void testIncrement() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+        long hash = new PlanCache.CacheKey("select * from t1 where id = ?", "1", Collections.emptyList(), false,
+            true).hash;
+        Assert.assertEquals(0, sketch.frequency(hash));
+
+        for (int i = 1; i <= 20; i++) {
+            sketch.increment(hash);
+            Assert.assertEquals(Math.min(i, FrequencySketch.MAX_FREQUENCY), sketch.frequency(hash));
+        }
+    }
+
+    @Test
+    public void testAging() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        long hot = 42L;
+        for (int i = 0; i < FrequencySketch.MAX_FREQUENCY; i++) {
+            sketch.increment(hot);
+        }
+
+        // increments of other keys reach the sample size and halve all counters
+        for (long i = 0; i < 1000; i++) {
+            sketch.increment(i * 0x9E3779B97F4A7C15L);
+        }
+        Assert.assertTrue(sketch.frequency(hot) < FrequencySketch.MAX_FREQUENCY);
+    }
+
+    @Test
+    public void testCacheKeyHash() {
+        PlanCache.CacheKey key1 = new PlanCache.CacheKey("select * from t1 where id = ?", "1",
+            Collections.emptyList(), false, true);
+        PlanCache.CacheKey key2 = new PlanCache.CacheKey("select * from t1 where id = ?", "2",
+            Collections.emptyList(), false, true);
+        PlanCache.CacheKey key3 = new PlanCache.CacheKey("select * from t1 where id = ?", "1",
+            Collections.emptyList(), false, true);
+        Assert.assertNotEquals(key1, key2);
+        Assert.assertEquals(key1, key3);
+        Assert.assertEquals(key1.hashCode(), key3.hashCode());
+    }
+}
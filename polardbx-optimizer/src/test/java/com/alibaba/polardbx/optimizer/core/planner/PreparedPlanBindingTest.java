@@ -0,0 +1,134 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.core.planner;
+
+import com.alibaba.polardbx.common.jdbc.Parameters;
+import com.alibaba.polardbx.druid.sql.parser.ByteString;
+import com.alibaba.polardbx.optimizer.PlannerContext;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.parse.SqlParameterizeUtils;
+import com.alibaba.polardbx.optimizer.parse.bean.SqlParameterized;
+import com.alibaba.polardbx.optimizer.planmanager.PreparedStmtCache;
+import com.alibaba.polardbx.planner.common.BasePlannerTest;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.sql.SQLSyntaxErrorException;
+import java.util.HashMap;
+
+/**
+ * Plan cache entries bound to server prepared statements
+ */
+public class PreparedPlanBindingTest extends BasePlannerTest {
+
+    static final String dbName = "optest";
+
+    private static final String SQL = "select * from optest.ppb_t1 where a = 1";
+
+    public PreparedPlanBindingTest() throws SQLSyntaxErrorException {
+        super(dbName);
+        buildTable(dbName, "create table ppb_t1(a int, b int) dbpartition by hash(a)");
+    }
+
+    @Test
+    public void testBindOnPrepare() throws Exception {
+        final PlanCache planCache = new PlanCache(appName);
+        final SqlParameterized parameterized = parameterize();
+
+        // not executed yet, nothing to bind
+        final PreparedStmtCache stmt = new PreparedStmtCache(null);
+        Assert.assertNull(planCache.getForPrepare(parameterized, plannerContext(), false, stmt));
+        Assert.assertNull(stmt.getBoundPlan());
+
+        final ExecutionPlan cached = planCache.get(parameterized, plannerContext(), false);
+        Assert.assertNotNull(cached.getCacheKey());
+
+        // the cached instance is bound, and executing reuses it
+        final PreparedStmtCache newStmt = new PreparedStmtCache(null);
+        Assert.assertSame(cached, planCache.getForPrepare(parameterized, plannerContext(), false, newStmt));
+        Assert.assertSame(cached, newStmt.getBoundPlan());
+        Assert.assertSame(cached, planCache.getForPreparedStmt(newStmt, parameterized, plannerContext(), false));
+
+        // binding disabled
+        Assert.assertSame(cached, planCache.getForPrepare(parameterized, plannerContext(), false, null));
+    }
+
+    @Test
+    public void testBindOnFirstExecute() throws Exception {
+        final PlanCache planCache = new PlanCache(appName);
+        final SqlParameterized parameterized = parameterize();
+        final PreparedStmtCache stmt = new PreparedStmtCache(null);
+
+        final ExecutionPlan plan = planCache.getForPreparedStmt(stmt, parameterized, plannerContext(), false);
+        Assert.assertSame(plan, stmt.getBoundPlan());
+        Assert.assertSame(plan, planCache.getForPreparedStmt(stmt, parameterized, plannerContext(), false));
+        Assert.assertTrue(plan.isHitCache());
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        final PlanCache planCache = new PlanCache(appName);
+        final SqlParameterized parameterized = parameterize();
+        final PreparedStmtCache stmt = new PreparedStmtCache(null);
+        final ExecutionPlan plan = planCache.getForPreparedStmt(stmt, parameterized, plannerContext(), false);
+
+        // the bound plan is not reused once invalidated, and the statement is bound to the new one
+        planCache.invalidate("ppb_t1");
+        final ExecutionPlan newPlan = planCache.getForPreparedStmt(stmt, parameterized, plannerContext(), false);
+        Assert.assertNotSame(plan, newPlan);
+        Assert.assertSame(newPlan, stmt.getBoundPlan());
+
+        planCache.clean();
+        Assert.assertNotSame(newPlan, planCache.getForPreparedStmt(stmt, parameterized, plannerContext(), false));
+
+        // neither when the key does not match, e.g. autocommit is changed
+        final ExecutionPlan boundPlan = stmt.getBoundPlan();
+        final PlannerContext plannerContext = plannerContext();
+        plannerContext.getExecutionContext().setAutoCommit(false);
+        Assert.assertNotSame(boundPlan, planCache.getForPreparedStmt(stmt, parameterized, plannerContext, false));
+    }
+
+    private SqlParameterized parameterize() {
+        return SqlParameterizeUtils.parameterize(ByteString.from(SQL), new HashMap<>(), executionContext(), false);
+    }
+
+    private PlannerContext plannerContext() {
+        PlannerContext plannerContext = PlannerContext.fromExecutionContext(executionContext());
+        plannerContext.setSchemaName(appName);
+        return plannerContext;
+    }
+
+    private ExecutionContext executionContext() {
+        ExecutionContext executionContext = new ExecutionContext();
+        executionContext.setSchemaName(appName);
+        executionContext.setParams(new Parameters());
+        executionContext.setServerVariables(new HashMap<>());
+        return executionContext;
+    }
+
+    @Test
+    @Ignore
+    public void testSql() {
+
+    }
+
+    @Override
+    protected String getPlan(String testSql) {
+        return null;
+    }
+}
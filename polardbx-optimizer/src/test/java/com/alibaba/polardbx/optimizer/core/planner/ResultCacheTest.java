@@ -0,0 +1,101 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.core.planner;
+
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+public class ResultCacheTest {
+
+    private final ResultCache resultCache = ResultCache.getInstance();
+
+    private final List<Chunk> chunks = ImmutableList.of(new Chunk(LongBlock.of(1L, 2L, 3L)));
+
+    @After
+    public void after() {
+        resultCache.clean();
+    }
+
+    private static ResultCache.CacheKey key(String sql, Object... params) {
+        return key(new ExecutionContext("test_db"), sql, params);
+    }
+
+    private static ResultCache.CacheKey key(ExecutionContext ec, String sql, Object... params) {
+        PlanCache.CacheKey planCacheKey = new PlanCache.CacheKey(sql, "1", Collections.emptyList(), false, true);
+        return new ResultCache.CacheKey("test_db", planCacheKey, ImmutableList.copyOf(params), "+08:00", "utf8",
+            ResultCache.sessionVariables(ec), ImmutableSet.of("test_db.t1"));
+    }
+
+    @Test
+    public void testPutAndGet() {
+        ResultCache.CacheKey key = key("select * from t1 where id = ?", 1L);
+        Assert.assertTrue(resultCache.put(key, resultCache.getModifyStamp(key), chunks));
+
+        ResultCache.Entry entry = resultCache.get(key("select * from t1 where id = ?", 1L), Long.MAX_VALUE);
+        Assert.assertNotNull(entry);
+        Assert.assertEquals(3, entry.getRowCount());
+        Assert.assertEquals(1, entry.getHitCount());
+
+        Assert.assertNull(resultCache.get(key("select * from t1 where id = ?", 2L), Long.MAX_VALUE));
+        Assert.assertNull(resultCache.get(key, -1));
+    }
+
+    @Test
+    public void testDifferentSqlMode() {
+        ExecutionContext strict = new ExecutionContext("test_db");
+        strict.setSqlMode("STRICT_TRANS_TABLES,PAD_CHAR_TO_FULL_LENGTH");
+        ExecutionContext nonStrict = new ExecutionContext("test_db");
+        nonStrict.setSqlMode("");
+
+        ResultCache.CacheKey key = key(strict, "select c from t1 where id = ?", 1L);
+        Assert.assertTrue(resultCache.put(key, resultCache.getModifyStamp(key), chunks));
+
+        Assert.assertNotNull(resultCache.get(key(strict, "select c from t1 where id = ?", 1L), Long.MAX_VALUE));
+        Assert.assertNull(resultCache.get(key(nonStrict, "select c from t1 where id = ?", 1L), Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testInvalidate() {
+        ResultCache.CacheKey key = key("select * from t1");
+        resultCache.put(key, resultCache.getModifyStamp(key), chunks);
+
+        resultCache.invalidate("test_db", "t2");
+        Assert.assertNotNull(resultCache.get(key, Long.MAX_VALUE));
+
+        resultCache.invalidate("TEST_DB", "T1");
+        Assert.assertNull(resultCache.get(key, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testModifiedDuringExecution() {
+        ResultCache.CacheKey key = key("select count(*) from t1");
+        long modifyStamp = resultCache.getModifyStamp(key);
+
+        resultCache.invalidate("test_db", "t1");
+        Assert.assertFalse(resultCache.put(key, modifyStamp, chunks));
+        Assert.assertNull(resultCache.get(key, Long.MAX_VALUE));
+    }
+}
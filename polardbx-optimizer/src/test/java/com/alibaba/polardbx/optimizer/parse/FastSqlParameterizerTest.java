@@ -0,0 +1,93 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.parse;
+
+import com.alibaba.polardbx.druid.sql.parser.ByteString;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.parse.bean.SqlParameterized;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FastSqlParameterizerTest {
+
+    @Before
+    public void setUp() {
+        FastSqlParameterizer.clear();
+    }
+
+    @Test
+    public void testPointSelect() {
+        parameterize("select * from t1 where id = 1 and name = 'a'");
+        SqlParameterized verified = parameterize("select * from t1 where id = 2 and name = 'b'");
+
+        SqlParameterized fast = parameterize("select * from t1 where id = 3 and name = 'c'");
+        Assert.assertSame(verified.getStmt(), fast.getStmt());
+        assertSameAsAst(fast, "select * from t1 where id = 3 and name = 'c'");
+    }
+
+    @Test
+    public void testInsert() {
+        parameterize("insert into t1(id, name, price) values (1, 'a', 1.5)");
+        SqlParameterized verified = parameterize("insert into t1(id, name, price) values (2, 'b', 2.5)");
+
+        String sql = "insert into t1(id, name, price) values (18446744073709551615, 'it''s', 3.25)";
+        SqlParameterized fast = parameterize(sql);
+        Assert.assertSame(verified.getStmt(), fast.getStmt());
+        assertSameAsAst(fast, sql);
+    }
+
+    @Test
+    public void testNotVerifiedWithSameLiterals() {
+        parameterize("select * from t1 where id = 1 limit 1");
+        SqlParameterized second = parameterize("select * from t1 where id = 2 limit 2");
+
+        // duplicated literals can not tell the position of parameters
+        SqlParameterized third = parameterize("select * from t1 where id = 3 limit 3");
+        Assert.assertNotSame(second.getStmt(), third.getStmt());
+    }
+
+    @Test
+    public void testRejectLiteralDependentSql() {
+        parameterize("select 1 from t1");
+        parameterize("select 2 from t1");
+
+        String sql = "select 3 from t1";
+        SqlParameterized result = parameterize(sql);
+        assertSameAsAst(result, sql);
+    }
+
+    @Test
+    public void testRejectNegativeNumber() {
+        parameterize("select * from t1 where id = -1.5");
+        parameterize("select * from t1 where id = -2.5");
+
+        String sql = "select * from t1 where id = -3.5";
+        SqlParameterized result = parameterize(sql);
+        assertSameAsAst(result, sql);
+    }
+
+    private static SqlParameterized parameterize(String sql) {
+        return FastSqlParameterizer.parameterize(ByteString.from(sql), new ExecutionContext());
+    }
+
+    private static void assertSameAsAst(SqlParameterized result, String sql) {
+        SqlParameterized expected = SqlParameterizeUtils.parameterize(sql);
+        Assert.assertEquals(expected.getSql(), result.getSql());
+        Assert.assertEquals(expected.getParameters(), result.getParameters());
+    }
+}
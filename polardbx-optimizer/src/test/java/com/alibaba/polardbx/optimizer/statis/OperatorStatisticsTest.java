@@ -0,0 +1,79 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.optimizer.statis;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.alibaba.polardbx.optimizer.statis.OperatorStatistics.DURATION_HISTOGRAM_BUCKETS;
+import static com.alibaba.polardbx.optimizer.statis.OperatorStatistics.durationHistogramBucket;
+
+public class OperatorStatisticsTest {
+
+    @Test
+    public void testDurationHistogramBucket() {
+        // less than 1 microsecond
+        Assert.assertEquals(0, durationHistogramBucket(0));
+        Assert.assertEquals(0, durationHistogramBucket(999));
+
+        // [2^(i-1), 2^i) microseconds
+        Assert.assertEquals(1, durationHistogramBucket(1000));
+        Assert.assertEquals(1, durationHistogramBucket(1999));
+        Assert.assertEquals(2, durationHistogramBucket(2000));
+        Assert.assertEquals(2, durationHistogramBucket(3999));
+        Assert.assertEquals(3, durationHistogramBucket(4000));
+        for (int i = 1; i < DURATION_HISTOGRAM_BUCKETS - 1; i++) {
+            long lower = TimeUnit.MICROSECONDS.toNanos(1L << (i - 1));
+            long upper = TimeUnit.MICROSECONDS.toNanos(1L << i);
+            Assert.assertEquals(i, durationHistogramBucket(lower));
+            Assert.assertEquals(i, durationHistogramBucket(upper - 1));
+        }
+
+        // the last bucket counts all the longer ones
+        long lastLower = TimeUnit.MICROSECONDS.toNanos(1L << (DURATION_HISTOGRAM_BUCKETS - 2));
+        Assert.assertEquals(DURATION_HISTOGRAM_BUCKETS - 1, durationHistogramBucket(lastLower));
+        Assert.assertEquals(DURATION_HISTOGRAM_BUCKETS - 1, durationHistogramBucket(TimeUnit.SECONDS.toNanos(10)));
+        Assert.assertEquals(DURATION_HISTOGRAM_BUCKETS - 1, durationHistogramBucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testAddProcessDurationToHistogram() {
+        OperatorStatistics statistics = new OperatorStatistics();
+        statistics.addProcessDurationToHistogram(500);
+        statistics.addProcessDurationToHistogram(1500);
+        statistics.addProcessDurationToHistogram(1800);
+        statistics.addProcessDurationToHistogram(TimeUnit.MINUTES.toNanos(1));
+
+        long[] histogram = statistics.getProcessDurationHistogram();
+        Assert.assertEquals(DURATION_HISTOGRAM_BUCKETS, histogram.length);
+        Assert.assertEquals(1, histogram[0]);
+        Assert.assertEquals(2, histogram[1]);
+        Assert.assertEquals(1, histogram[DURATION_HISTOGRAM_BUCKETS - 1]);
+    }
+
+    @Test
+    public void testAddBlockedDuration() {
+        OperatorStatistics statistics = new OperatorStatistics();
+        statistics.addBlockedDuration("WAITING_FOR_INPUT", 100);
+        statistics.addBlockedDuration("WAITING_FOR_INPUT", 200);
+        statistics.addBlockedDuration("WAITING_FOR_STORAGE", 50);
+        Assert.assertEquals(300L, statistics.getBlockedDurations().get("WAITING_FOR_INPUT").longValue());
+        Assert.assertEquals(50L, statistics.getBlockedDurations().get("WAITING_FOR_STORAGE").longValue());
+    }
+}
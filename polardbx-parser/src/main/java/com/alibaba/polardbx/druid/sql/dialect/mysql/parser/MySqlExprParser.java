@@ -89,6 +89,8 @@ public class MySqlExprParser extends SQLExprParser {
         String[] strings = {
                 "AVG",
                 "ANY_VALUE",
+                "APPROX_COUNT_DISTINCT",
+                "APPROX_PERCENTILE",
                 "BIT_AND",
                 "BIT_OR",
                 "BIT_XOR",
@@ -464,6 +464,8 @@ public final class FnvHash {
         long SUM = fnv1a_64_lower("SUM");
         long ARBITRARY = fnv1a_64_lower("ARBITRARY");
         long GROUP_CONCAT = fnv1a_64_lower("GROUP_CONCAT");
+        long APPROX_COUNT_DISTINCT = fnv1a_64_lower("APPROX_COUNT_DISTINCT");
+        long APPROX_PERCENTILE = fnv1a_64_lower("APPROX_PERCENTILE");
         long CONVERT_TZ = fnv1a_64_lower("CONVERT_TZ");
         long DEDUPLICATION = fnv1a_64_lower("DEDUPLICATION");
         long CONVERT = fnv1a_64_lower("CONVERT");
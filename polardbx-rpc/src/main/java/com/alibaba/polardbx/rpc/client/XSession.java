@@ -19,6 +19,7 @@ package com.alibaba.polardbx.rpc.client;
 import com.alibaba.polardbx.common.constants.ServerVariables;
 import com.alibaba.polardbx.common.exception.TddlRuntimeException;
 import com.alibaba.polardbx.common.exception.code.ErrorCode;
+import com.alibaba.polardbx.common.utils.GeneralUtil;
 import com.alibaba.polardbx.common.utils.TStringUtil;
 import com.alibaba.polardbx.common.utils.logger.MDC;
 import com.alibaba.polardbx.rpc.XConfig;
@@ -1546,6 +1547,77 @@ public class XSession implements Comparable<XSession>, AutoCloseable {
     // Return 0 if ignore result.
     public synchronized XResult execUpdate(XConnection connection, String sql, List<PolarxDatatypes.Any> args,
                                            boolean ignoreResult, ByteString digest) throws SQLException {
+        return execUpdate(connection, sql, args, ignoreResult, digest, true);
+    }
+
+    /**
+     * Send updates back to back without waiting for the previous ones, and then consume the results in order.
+     * All the updates but the last are sent as ignorable requests, so the server skips the rest of them once
+     * one of them fails (or the query is canceled), and the first error is thrown after all the results
+     * are consumed, which keeps the session clean for the next request.
+     * Fatal errors are thrown immediately because the session is unusable.
+     * <p>
+     * Results are filled in the same order with sqls once sent, so the failed one can be told by its status
+     * when error is thrown: it is the first one not finished normally, and the ones after it are skipped.
+     */
+    public synchronized void execUpdatePipeline(XConnection connection, List<String> sqls,
+                                                List<List<PolarxDatatypes.Any>> args, XResult[] results)
+        throws SQLException {
+        final int size = sqls.size();
+        if (XConfig.GALAXY_X_PROTOCOL) {
+            // Pipeline not supported now.
+            for (int i = 0; i < size; ++i) {
+                results[i] = execUpdate(connection, sqls.get(i), args.get(i), false, null, true);
+            }
+            return;
+        }
+
+        SQLException firstError = null;
+        int consumed = 0;
+        for (int i = 0; i < size; ++i) {
+            final boolean last = i == size - 1;
+            if (last || i - consumed >= XConfig.MAX_QUEUED_BATCH_REQUEST) {
+                // Flush on the last one or drain the queued ones.
+                results[i] = execUpdate(connection, sqls.get(i), args.get(i), false, null, false);
+                firstError = consumePipeline(results, consumed, i + 1, firstError);
+                consumed = i + 1;
+                if (firstError != null) {
+                    // Error state is reset by the non-ignorable one, so stop sending the rest.
+                    break;
+                }
+            } else {
+                results[i] = execUpdate(connection, sqls.get(i), args.get(i), true, null, false);
+                results[i].setFatalOnIgnorable(false); // Error on this should not fatal the session.
+            }
+        }
+        if (firstError != null) {
+            throw firstError;
+        }
+    }
+
+    static SQLException consumePipeline(XResult[] results, int from, int to, SQLException firstError)
+        throws SQLException {
+        for (int i = from; i < to; ++i) {
+            try {
+                if (results[i].isIgnorable()) {
+                    results[i].waitFinish(true);
+                } else {
+                    results[i].finishBlockMode();
+                }
+            } catch (SQLException e) {
+                // Rest ones are skipped by server, and just keep the error caused by the failed one.
+                if (null == firstError) {
+                    firstError = e;
+                }
+            } catch (InterruptedException e) {
+                throw GeneralUtil.nestedException(e);
+            }
+        }
+        return firstError;
+    }
+
+    private XResult execUpdate(XConnection connection, String sql, List<PolarxDatatypes.Any> args,
+                               boolean ignoreResult, ByteString digest, boolean waitResult) throws SQLException {
         if (digest != null && XConfig.GALAXY_X_PROTOCOL) {
             throw new TddlRuntimeException(ErrorCode.ERR_X_PROTOCOL_SESSION, "Digest not supported in galaxy.");
         }
@@ -1699,7 +1771,7 @@ public class XSession implements Comparable<XSession>, AutoCloseable {
             throw t;
         }
         // Finish block mode outside here so exception will not fatal the session.
-        if (!ignoreResult) {
+        if (!ignoreResult && waitResult) {
             result.finishBlockMode();
         }
         return result;
@@ -16,6 +16,7 @@
 
 package com.alibaba.polardbx.rpc.net;
 
+import com.alibaba.polardbx.common.utils.memory.BufferPoolMetrics;
 import com.alibaba.polardbx.rpc.perf.ReactorPerfItem;
 import com.alibaba.polardbx.rpc.utils.BufferPool;
 
@@ -82,6 +83,10 @@ public class NIOProcessor {
         item.setBufferSize((long) bufferPool.getChunkSize() * bufferPool.capacity());
         item.setBufferChunkSize(bufferPool.getChunkSize());
         item.setPooledBufferCount(bufferPool.size());
+        final BufferPoolMetrics metrics = bufferPool.getMetrics();
+        item.setBufferHitCount(metrics.getHitCount());
+        item.setBufferMissCount(metrics.getMissCount());
+        item.setBufferOverflowCount(metrics.getOverflowCount());
 
         return item;
     }
@@ -35,6 +35,9 @@ public class ReactorPerfItem {
     private long bufferSize = 0;
     private long bufferChunkSize = 0;
     private long pooledBufferCount = 0;
+    private long bufferHitCount = 0;
+    private long bufferMissCount = 0;
+    private long bufferOverflowCount = 0;
 
     public String getName() {
         return name;
@@ -108,4 +111,28 @@ public class ReactorPerfItem {
         this.pooledBufferCount = pooledBufferCount;
     }
 
+    public long getBufferHitCount() {
+        return bufferHitCount;
+    }
+
+    public void setBufferHitCount(long bufferHitCount) {
+        this.bufferHitCount = bufferHitCount;
+    }
+
+    public long getBufferMissCount() {
+        return bufferMissCount;
+    }
+
+    public void setBufferMissCount(long bufferMissCount) {
+        this.bufferMissCount = bufferMissCount;
+    }
+
+    public long getBufferOverflowCount() {
+        return bufferOverflowCount;
+    }
+
+    public void setBufferOverflowCount(long bufferOverflowCount) {
+        this.bufferOverflowCount = bufferOverflowCount;
+    }
+
 }
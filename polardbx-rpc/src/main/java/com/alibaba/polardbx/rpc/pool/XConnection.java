@@ -299,6 +299,12 @@ public class XConnection implements AutoCloseable, Connection {
         return session.execUpdate(this, sql, args, ignoreResult, digest);
     }
 
+    public synchronized void execUpdatePipeline(List<String> sqls, List<List<PolarxDatatypes.Any>> args,
+                                                XResult[] results) throws SQLException {
+        check();
+        session.execUpdatePipeline(this, sqls, args, results);
+    }
+
     public synchronized XResult execUpdateReturning(String sql, List<PolarxDatatypes.Any> args, String returning)
         throws SQLException {
         check();
@@ -478,6 +478,19 @@ public class XConnectionManager {
         return connection;
     }
 
+    /**
+     * Active sessions of all client pools to the given host, which reflects the load of the storage node.
+     */
+    public long getSessionActiveCount(String host) {
+        long count = 0;
+        for (XClientPool pool : instancePool.values()) {
+            if (pool.getHost().equals(host)) {
+                count += pool.getPerfCollection().getSessionActiveCount().get();
+            }
+        }
+        return count;
+    }
+
     public static String digest(String host, int port, String username) {
         return username + "@" + host + ":" + port;
     }
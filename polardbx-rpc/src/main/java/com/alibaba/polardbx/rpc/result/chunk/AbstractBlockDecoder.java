@@ -21,6 +21,7 @@ import com.google.protobuf.CodedInputStream;
 import com.mysql.cj.polarx.protobuf.PolarxResultset;
 import com.alibaba.polardbx.common.exception.NotSupportException;
 
+import java.util.Arrays;
 import java.util.Set;
 
 /**
@@ -88,6 +89,17 @@ public abstract class AbstractBlockDecoder implements BlockDecoder {
         return false;
     }
 
+    /**
+     * Move to next row without decoding the value, used by bulk decoding.
+     *
+     * @return whether the row is null
+     */
+    protected final boolean nextNull() {
+        ++rowIndex;
+        currentNull = internalIsNull();
+        return currentNull;
+    }
+
     @Override
     public boolean isNull() throws Exception {
         return currentNull;
@@ -142,4 +154,55 @@ public abstract class AbstractBlockDecoder implements BlockDecoder {
     public Slice getString() throws Exception {
         throw new NotSupportException("XChunkDecoder getString from " + this.getClass().getSimpleName());
     }
+
+    @Override
+    public boolean nextLongs(long[] values, boolean[] nulls, int count) throws Exception {
+        boolean hasNull = false;
+        for (int i = 0; i < count; ++i) {
+            next();
+            if (currentNull) {
+                nulls[i] = true;
+                hasNull = true;
+            } else {
+                values[i] = getLong();
+            }
+        }
+        return hasNull;
+    }
+
+    @Override
+    public boolean nextDoubles(double[] values, boolean[] nulls, int count) throws Exception {
+        boolean hasNull = false;
+        for (int i = 0; i < count; ++i) {
+            next();
+            if (currentNull) {
+                nulls[i] = true;
+                hasNull = true;
+            } else {
+                values[i] = getDouble();
+            }
+        }
+        return hasNull;
+    }
+
+    @Override
+    public byte[] nextStrings(int[] ends, boolean[] nulls, int count) throws Exception {
+        byte[] buffer = new byte[Math.max(count, 16)];
+        int end = 0;
+        for (int i = 0; i < count; ++i) {
+            next();
+            if (currentNull) {
+                nulls[i] = true;
+            } else {
+                final Slice slice = getString();
+                if (end + slice.getLength() > buffer.length) {
+                    buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, end + slice.getLength()));
+                }
+                System.arraycopy(slice.getData(), slice.getOffset(), buffer, end, slice.getLength());
+                end += slice.getLength();
+            }
+            ends[i] = end;
+        }
+        return buffer;
+    }
 }
@@ -49,4 +49,24 @@ public interface BlockDecoder {
     Set<Slice> getSet() throws Exception;
 
     Slice getString() throws Exception;
+
+    // Bulk decoding, which moves forward count rows and leaves the values of null rows as zero.
+    // Caller should make sure that count is not larger than restCount().
+
+    /**
+     * @return whether any of the decoded values is null
+     */
+    boolean nextLongs(long[] values, boolean[] nulls, int count) throws Exception;
+
+    /**
+     * @return whether any of the decoded values is null
+     */
+    boolean nextDoubles(double[] values, boolean[] nulls, int count) throws Exception;
+
+    /**
+     * Decode strings into one contiguous buffer, where ends[i] is the end offset of the i-th value.
+     *
+     * @return the buffer, which may be longer than ends[count - 1]
+     */
+    byte[] nextStrings(int[] ends, boolean[] nulls, int count) throws Exception;
 }
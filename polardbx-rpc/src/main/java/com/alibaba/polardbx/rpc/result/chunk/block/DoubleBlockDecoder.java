@@ -50,6 +50,23 @@ public class DoubleBlockDecoder extends AbstractBlockDecoder {
         return false;
     }
 
+    @Override
+    public boolean nextDoubles(double[] values, boolean[] nulls, int count) throws Exception {
+        boolean hasNull = false;
+        for (int i = 0; i < count; ++i) {
+            if (nextNull()) {
+                nulls[i] = true;
+                hasNull = true;
+            } else {
+                values[i] = stream.readDouble();
+            }
+        }
+        if (count > 0) {
+            currentValue = currentNull ? 0 : values[count - 1];
+        }
+        return hasNull;
+    }
+
     @Override
     public Object getObject() throws Exception {
         return currentNull ? null : getDouble();
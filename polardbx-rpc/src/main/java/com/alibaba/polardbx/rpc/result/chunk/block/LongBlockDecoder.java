@@ -48,6 +48,23 @@ public class LongBlockDecoder extends AbstractBlockDecoder {
         return false;
     }
 
+    @Override
+    public boolean nextLongs(long[] values, boolean[] nulls, int count) throws Exception {
+        boolean hasNull = false;
+        for (int i = 0; i < count; ++i) {
+            if (nextNull()) {
+                nulls[i] = true;
+                hasNull = true;
+            } else {
+                values[i] = stream.readInt64();
+            }
+        }
+        if (count > 0) {
+            currentValue = currentNull ? 0 : values[count - 1];
+        }
+        return hasNull;
+    }
+
     @Override
     public Object getObject() throws Exception {
         return currentNull ? null : getLong();
@@ -19,6 +19,7 @@ package com.alibaba.polardbx.rpc.result.chunk.block;
 import com.alibaba.polardbx.rpc.result.chunk.AbstractBlockDecoder;
 import com.alibaba.polardbx.rpc.result.chunk.Decimal;
 import com.alibaba.polardbx.rpc.result.chunk.Slice;
+import com.google.protobuf.ByteString;
 import com.mysql.cj.polarx.protobuf.PolarxResultset;
 import com.alibaba.polardbx.common.exception.TddlRuntimeException;
 import com.alibaba.polardbx.common.exception.code.ErrorCode;
@@ -32,10 +33,18 @@ public class StringBlockDecoder extends AbstractBlockDecoder {
 
     private Slice currentValue;
 
+    /**
+     * Raw data of the column, the stream reads from the beginning of it.
+     */
+    private final ByteString data;
+
     public StringBlockDecoder(PolarxResultset.Chunk chunk, int columnIndex,
                               PolarxResultset.ColumnMetaData meta) {
         super(chunk, columnIndex, meta);
         this.currentValue = null;
+        final PolarxResultset.Column column = chunk.getColumns(columnIndex);
+        this.data = column.hasFixedSizeColumn() ? column.getFixedSizeColumn().getValue() :
+            column.getVariableSizeColumn().getValue();
     }
 
     @Override
@@ -58,6 +67,35 @@ public class StringBlockDecoder extends AbstractBlockDecoder {
         return false;
     }
 
+    /**
+     * Copy the strings from the column data to the buffer directly, without allocating a byte array for each value.
+     */
+    @Override
+    public byte[] nextStrings(int[] ends, boolean[] nulls, int count) throws Exception {
+        // The rest of column data is the upper bound of the buffer size.
+        final byte[] buffer = new byte[Math.max(data.size() - stream.getTotalBytesRead(), 0)];
+        int end = 0;
+        for (int i = 0; i < count; ++i) {
+            if (nextNull()) {
+                nulls[i] = true;
+            } else {
+                final int length = stream.readInt32(); // With '\0' tail.
+                if (length <= 0) {
+                    throw new TddlRuntimeException(ErrorCode.ERR_X_PROTOCOL_RESULT, "Read chunk string more than 2G.");
+                }
+                data.copyTo(buffer, stream.getTotalBytesRead(), end, length - 1);
+                stream.skipRawBytes(length);
+                end += length - 1;
+            }
+            ends[i] = end;
+        }
+        if (count > 0) {
+            final int begin = count > 1 ? ends[count - 2] : 0;
+            currentValue = currentNull ? null : new Slice(buffer, begin, ends[count - 1] - begin);
+        }
+        return buffer;
+    }
+
     @Override
     public Object getObject() throws Exception {
         return currentNull ? null : getString();
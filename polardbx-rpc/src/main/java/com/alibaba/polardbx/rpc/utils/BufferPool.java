@@ -14,93 +14,48 @@
  * limitations under the License.
  */
 
+
 package com.alibaba.polardbx.rpc.utils;
 
+import com.alibaba.polardbx.common.utils.memory.BufferPoolMetrics;
+import com.alibaba.polardbx.common.utils.memory.DirectBufferPool;
+
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.concurrent.locks.ReentrantLock;
 
 public final class BufferPool {
 
-    private final int chunkSize;
-    private final ByteBuffer[] items;
-    private final ReentrantLock lock;
-    private int putIndex;
-    private int takeIndex;
-    private volatile int count;
+    private final DirectBufferPool pool;
 
     public BufferPool(int bufferSize, int chunkSize) {
-        this.chunkSize = chunkSize;
-        int capacity = bufferSize / chunkSize;
-        capacity = (bufferSize % chunkSize == 0) ? capacity : capacity + 1;
-        this.items = new ByteBuffer[capacity];
-        this.lock = new ReentrantLock();
-        for (int i = 0; i < capacity; i++) {
-            insert(ByteBuffer.allocateDirect(chunkSize).order(ByteOrder.LITTLE_ENDIAN)); // Only reuse direct buffer.
-        }
+        // Only chunk sized buffers are pooled, bigger ones are allocated by the caller.
+        this.pool = new DirectBufferPool(bufferSize, chunkSize, 1, ByteOrder.LITTLE_ENDIAN);
     }
 
     public int capacity() {
-        return items.length;
+        return pool.capacity();
     }
 
     public int size() {
-        return count;
+        return pool.size();
     }
 
     public int getChunkSize() {
-        return chunkSize;
+        return pool.getChunkSize();
+    }
+
+    public BufferPoolMetrics getMetrics() {
+        return pool.getMetrics();
     }
 
     public ByteBuffer allocate() {
-        ByteBuffer node;
-        final ReentrantLock lock = this.lock;
-        lock.lock();
-        try {
-            node = (count == 0) ? null : extract();
-        } finally {
-            lock.unlock();
-        }
-        if (node == null) {
-            node = ByteBuffer.allocate(chunkSize).order(ByteOrder.LITTLE_ENDIAN); // Allocate non-direct.
-        }
-        return node;
+        // Non-direct buffer is allocated when the pool is drained.
+        return pool.allocate();
     }
 
     public void recycle(ByteBuffer buffer) {
         // Ignore big or non-direct.
-        if (buffer == null || buffer.capacity() > chunkSize || !buffer.isDirect()) {
-            return;
-        }
-        final ReentrantLock lock = this.lock;
-        lock.lock();
-        try {
-            if (count != items.length) {
-                buffer.clear();
-                insert(buffer);
-            }
-        } finally {
-            lock.unlock();
-        }
-    }
-
-    private void insert(ByteBuffer buffer) {
-        items[putIndex] = buffer;
-        putIndex = inc(putIndex);
-        ++count;
-    }
-
-    private ByteBuffer extract() {
-        final ByteBuffer[] items = this.items;
-        ByteBuffer item = items[takeIndex];
-        items[takeIndex] = null;
-        takeIndex = inc(takeIndex);
-        --count;
-        return item;
-    }
-
-    private int inc(int i) {
-        return (++i == items.length) ? 0 : i;
+        pool.recycle(buffer);
     }
 
 }
@@ -18,6 +18,7 @@ package com.alibaba.polardbx.manager.response;
 
 import com.alibaba.polardbx.CobarServer;
 import com.alibaba.polardbx.Fields;
+import com.alibaba.polardbx.common.utils.memory.BufferPoolMetrics;
 import com.alibaba.polardbx.manager.ManagerConnection;
 import com.alibaba.polardbx.net.NIOProcessor;
 import com.alibaba.polardbx.net.buffer.ByteBufferHolder;
@@ -39,7 +40,7 @@ import com.alibaba.polardbx.server.util.PacketUtil;
  */
 public final class ShowProcessor {
 
-    private static final int FIELD_COUNT = 10;
+    private static final int FIELD_COUNT = 13;
     private static final ResultSetHeaderPacket header = PacketUtil.getHeader(FIELD_COUNT);
     private static final FieldPacket[] fields = new FieldPacket[FIELD_COUNT];
     private static final EOFPacket eof = new EOFPacket();
@@ -79,6 +80,15 @@ public final class ShowProcessor {
         fields[i] = PacketUtil.getField("BC_COUNT", Fields.FIELD_TYPE_LONG);
         fields[i++].packetId = ++packetId;
 
+        fields[i] = PacketUtil.getField("BUFFER_HIT", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("BUFFER_MISS", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
+        fields[i] = PacketUtil.getField("BUFFER_OVERFLOW", Fields.FIELD_TYPE_LONGLONG);
+        fields[i++].packetId = ++packetId;
+
         eof.packetId = ++packetId;
     }
 
@@ -127,6 +137,10 @@ public final class ShowProcessor {
         row.add(IntegerUtil.toBytes(processor.getBufferPool().capacity()));
         row.add(IntegerUtil.toBytes(processor.getFrontends().size()));
         row.add(IntegerUtil.toBytes(0));
+        BufferPoolMetrics metrics = processor.getBufferPool().getMetrics();
+        row.add(LongUtil.toBytes(metrics.getHitCount()));
+        row.add(LongUtil.toBytes(metrics.getMissCount()));
+        row.add(LongUtil.toBytes(metrics.getOverflowCount()));
         return row;
     }
 
@@ -76,6 +76,7 @@ import com.alibaba.polardbx.optimizer.context.MultiDdlContext;
 import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
 import com.alibaba.polardbx.optimizer.core.planner.ExecutionPlan;
 import com.alibaba.polardbx.optimizer.core.planner.Planner;
+import com.alibaba.polardbx.optimizer.core.planner.ResultCache;
 import com.alibaba.polardbx.optimizer.core.rel.BroadcastTableModify;
 import com.alibaba.polardbx.optimizer.core.rel.DirectTableOperation;
 import com.alibaba.polardbx.optimizer.core.rel.LogicalInsert;
@@ -786,6 +787,10 @@ public class TConnection implements IConnection {
             OptimizerContext.getContext(executionContext.getSchemaName()).getStatisticManager()
                 .addUpdateRowCount(logicalTableName, -affectRow);
         }
+        if (sqlKind == SqlKind.UPDATE) {
+            OptimizerContext.getContext(executionContext.getSchemaName()).getStatisticManager()
+                .addModifyRowCount(logicalTableName, affectRow);
+        }
     }
 
     /**
@@ -954,6 +959,26 @@ public class TConnection implements IConnection {
         mdlContext.releaseTransactionalLocks(ec.getTransaction().getId());
     }
 
+    /**
+     * 事务成功提交后失效事务内修改过的表的结果缓存, 提交前失效会让其他会话在提交前重新缓存旧数据
+     */
+    private void invalidateResultCache(ExecutionContext ec) {
+        if (ec == null || ec.getTrxModifiedTables().isEmpty()) {
+            return;
+        }
+        ResultCache.getInstance().invalidate(ec.getTrxModifiedTables());
+        ec.getTrxModifiedTables().clear();
+    }
+
+    /**
+     * 事务回滚或提交失败时修改未生效, 只需丢弃记录的表
+     */
+    private void clearTrxModifiedTables(ExecutionContext ec) {
+        if (ec != null) {
+            ec.getTrxModifiedTables().clear();
+        }
+    }
+
     /**
      * Load db privilege from connection properties if exists.
      */
@@ -1084,8 +1109,10 @@ public class TConnection implements IConnection {
         this.isAutoCommit = autoCommit;
 
         if (this.trx != null) {
+            boolean committed = false;
             try {
                 this.trx.commit();
+                committed = true;
             } catch (TddlRuntimeException ex) {
                 // Ignore ERR_TRANS_TERMINATED in case of connection pool error
                 if (ex.getErrorCode() != ErrorCode.ERR_TRANS_TERMINATED.getCode()) {
@@ -1096,8 +1123,11 @@ public class TConnection implements IConnection {
                 this.trx = null;
                 refreshTableMeta();
                 releaseTransactionalMdl(getExecutionContext());
-
+                if (!committed) {
+                    clearTrxModifiedTables(getExecutionContext());
+                }
             }
+            invalidateResultCache(getExecutionContext());
         }
 
         // HACK: Keep compatible with DataX
@@ -1130,6 +1160,7 @@ public class TConnection implements IConnection {
             } catch (Throwable e) {
                 // 增加打印事务异常日志
                 logger.error(e);
+                clearTrxModifiedTables(executionContext);
                 throw GeneralUtil.nestedException(e);
             } finally {
                 if (isAutoCommit) {
@@ -1146,6 +1177,8 @@ public class TConnection implements IConnection {
                 releaseTransactionalMdl(executionContext);
             }
         }
+        // 没有事务时修改已随语句提交
+        invalidateResultCache(executionContext);
     }
 
     public void newExecutionContext() {
@@ -1182,6 +1215,7 @@ public class TConnection implements IConnection {
                 this.trx = null;
                 refreshTableMeta();
                 releaseTransactionalMdl(executionContext);
+                clearTrxModifiedTables(executionContext);
             }
         }
     }
@@ -1961,6 +1995,8 @@ public class TConnection implements IConnection {
                     this.trx = null;
                     this.trxPolicy = null;
                 }
+                // 自动提交的语句执行失败时没有经过 commit, 丢弃记录的表
+                clearTrxModifiedTables(executionContext);
             }
             lock.unlock();
         }
@@ -25,6 +25,7 @@ import com.alibaba.polardbx.executor.cursor.Cursor;
 import com.alibaba.polardbx.executor.cursor.ResultCursor;
 import com.alibaba.polardbx.executor.cursor.impl.AffectRowCursor;
 import com.alibaba.polardbx.executor.cursor.impl.AffectRowSumCursor;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
 import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
 import com.alibaba.polardbx.optimizer.core.datatype.BooleanType;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
@@ -132,6 +133,25 @@ public class TResultSet implements ResultSet {
         return currentKVPair;
     }
 
+    /**
+     * Point the result set at the given row, used to read single rows of a chunk consumed through
+     * {@link #skipCurrentChunk()} with the usual getters.
+     */
+    public void setCurrentKVPair(Row row) {
+        this.currentKVPair = row;
+    }
+
+    /**
+     * Skip the remaining rows of the chunk holding the current row, so that they can be read from
+     * the chunk directly. Returns false if the current row does not come from a chunk.
+     */
+    public boolean skipCurrentChunk() {
+        if (!(currentKVPair instanceof Chunk.ChunkRow) || cacheRowToBuildMeta != null) {
+            return false;
+        }
+        return resultCursor.skipCurrentChunk();
+    }
+
     @Override
     public synchronized int findColumn(String columnName) throws SQLException {
         Integer index;
@@ -31,6 +31,7 @@ import com.alibaba.druid.proxy.jdbc.ResultSetMetaDataProxy;
 import com.mysql.jdbc.CharsetMapping;
 import com.mysql.jdbc.Field;
 import com.alibaba.polardbx.common.exception.NotSupportException;
+import com.alibaba.polardbx.matrix.jdbc.TResultSet;
 import com.alibaba.polardbx.matrix.jdbc.TResultSetMetaData;
 import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
 import com.alibaba.polardbx.optimizer.core.datatype.DataType;
@@ -148,6 +149,12 @@ public class BinaryResultSetUtil {
             }
         }
 
+        // 执行器产出的chunk在输出header后直接按chunk编码
+        ChunkRowEncoder chunkEncoder = null;
+        if (rs instanceof TResultSet && packet.fieldPackets != null) {
+            chunkEncoder = new ChunkRowEncoder((TResultSet) rs, packet.fieldPackets, charset, true);
+        }
+
         ByteBufferHolder buffer = c.allocate();
         IPacketOutputProxy proxy = PacketOutputProxyFactory.getInstance().createProxy(c, buffer);
         proxy.packetBegin();
@@ -160,6 +167,13 @@ public class BinaryResultSetUtil {
         List<BinaryRowDataPacket> lazyRaws = new ArrayList<BinaryRowDataPacket>();
         if (existNext) {
             do {
+                if (chunkEncoder != null && !existUndecidedType) {
+                    int rows = chunkEncoder.writeCurrentChunk(proxy);
+                    if (rows > 0) {
+                        affectRow.addAndGet(rows);
+                        continue;
+                    }
+                }
                 BinaryRowDataPacket row = new BinaryRowDataMultiPacket(colunmCount);
                 for (int i = 0; i < colunmCount; i++) {
                     int j = i + 1;
@@ -0,0 +1,489 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.polardbx.server.executor.utils;
+
+import com.alibaba.polardbx.common.charset.CharsetName;
+import com.alibaba.polardbx.matrix.jdbc.TResultSet;
+import com.alibaba.polardbx.net.FrontendConnection;
+import com.alibaba.polardbx.net.compress.IPacketOutputProxy;
+import com.alibaba.polardbx.net.packet.BinaryRowDataMultiPacket;
+import com.alibaba.polardbx.net.packet.BinaryRowDataPacket;
+import com.alibaba.polardbx.net.packet.FieldPacket;
+import com.alibaba.polardbx.net.packet.RowDataMultiPacket;
+import com.alibaba.polardbx.net.packet.RowDataPacket;
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.chunk.ByteArrayBlock;
+import com.alibaba.polardbx.optimizer.chunk.ByteBlock;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.chunk.DecimalBlock;
+import com.alibaba.polardbx.optimizer.chunk.DoubleBlock;
+import com.alibaba.polardbx.optimizer.chunk.FloatBlock;
+import com.alibaba.polardbx.optimizer.chunk.IntegerBlock;
+import com.alibaba.polardbx.optimizer.chunk.LongBlock;
+import com.alibaba.polardbx.optimizer.chunk.ShortBlock;
+import com.alibaba.polardbx.optimizer.chunk.SliceBlock;
+import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
+import com.alibaba.polardbx.optimizer.core.CursorMeta;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypeUtil;
+import com.alibaba.polardbx.optimizer.core.row.Row;
+import io.airlift.slice.Slice;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encode rows of executor chunks as MySQL text or binary protocol rows, writing the cells straight
+ * into the output proxy instead of building a byte[] per cell like {@link RowDataMultiPacket}.
+ * <p>
+ * Integers, floating numbers (binary protocol), strings and binary strings are read from the
+ * blocks directly. The other cells are read with the getters of {@link TResultSet}, so the bytes
+ * on the wire are the same as the row by row path in {@link ResultSetUtil} and
+ * {@link BinaryResultSetUtil}.
+ */
+public class ChunkRowEncoder {
+
+    /**
+     * Rows not shorter than this are split into several packets, leave them to the multi packets.
+     */
+    private static final int MAX_PACKET_PAYLOAD_LENGTH = 0xffffff;
+
+    /**
+     * Values longer than this are not copied into the reusable buffer.
+     */
+    private static final int MAX_BUFFER_SIZE = 64 * 1024;
+
+    private static final byte[] MIN_LONG_DIGITS = Long.toString(Long.MIN_VALUE).getBytes();
+
+    /**
+     * Read with the getters of result set
+     */
+    private static final int FALLBACK = 0;
+    /**
+     * Integer in text protocol
+     */
+    private static final int DIGITS = 1;
+    /**
+     * UTF-8 bytes of a slice, length encoded
+     */
+    private static final int SLICE = 2;
+    /**
+     * Binary string, length encoded
+     */
+    private static final int BYTES = 3;
+    /**
+     * Decimal in text protocol
+     */
+    private static final int DECIMAL = 4;
+    /**
+     * Little endian integer in binary protocol
+     */
+    private static final int FIXED_INT = 5;
+    private static final int FIXED_FLOAT = 6;
+    private static final int FIXED_DOUBLE = 7;
+
+    private final TResultSet rs;
+    private final FieldPacket[] fields;
+    private final List<ColumnMeta> columnMetas;
+    private final String charset;
+    private final boolean utf8;
+    private final boolean binary;
+    private final int columnCount;
+
+    private final int[] kinds;
+    /**
+     * Length of each value in the current row, -1 for null
+     */
+    private final int[] lengths;
+    /**
+     * Values of the current row which are not encoded from the block
+     */
+    private final byte[][] values;
+    private final byte[] nullBitmap;
+    private final byte[] digits = new byte[20];
+    private byte[] buffer = new byte[256];
+
+    private CursorMeta cursorMeta;
+
+    public ChunkRowEncoder(TResultSet rs, FieldPacket[] fields, String charset, boolean binary)
+        throws SQLException {
+        this.rs = rs;
+        this.fields = fields;
+        this.columnMetas = rs.getMetaData().getColumnMetas();
+        this.charset = charset;
+        this.utf8 = CharsetName.isUTF8(charset);
+        this.binary = binary;
+        this.columnCount = fields.length;
+        this.kinds = new int[columnCount];
+        this.lengths = new int[columnCount];
+        this.values = new byte[columnCount][];
+        // the first two bits are reserved in binary protocol
+        this.nullBitmap = new byte[(columnCount + 7 + 2) / 8];
+    }
+
+    /**
+     * Write the current row of the result set together with the remaining rows of its chunk.
+     *
+     * @return number of rows written, or 0 if the current row does not come from a chunk and has to
+     * be written row by row
+     */
+    public int writeCurrentChunk(IPacketOutputProxy proxy) throws SQLException {
+        final Row current = rs.getCurrentKVPair();
+        if (!rs.skipCurrentChunk()) {
+            return 0;
+        }
+        final Chunk.ChunkRow first = (Chunk.ChunkRow) current;
+        final Chunk chunk = first.getChunk();
+        this.cursorMeta = first.getParentCursorMeta();
+        for (int i = 0; i < columnCount; i++) {
+            kinds[i] = kindOf(i, chunk.getBlock(i));
+        }
+        final int positionCount = chunk.getPositionCount();
+        for (int position = first.getPosition(); position < positionCount; position++) {
+            writeRow(chunk, position, proxy);
+        }
+        return positionCount - first.getPosition();
+    }
+
+    private int kindOf(int column, Block block) {
+        final int type = fields[column].type & 0xff;
+        if (type == MysqlDefs.FIELD_TYPE_BIT) {
+            return FALLBACK;
+        }
+        if (binary) {
+            if (isIntegerBlock(block)) {
+                switch (type) {
+                case MysqlDefs.FIELD_TYPE_TINY:
+                case MysqlDefs.FIELD_TYPE_SHORT:
+                case MysqlDefs.FIELD_TYPE_LONG:
+                case MysqlDefs.FIELD_TYPE_INT24:
+                case MysqlDefs.FIELD_TYPE_LONGLONG:
+                    return FIXED_INT;
+                default:
+                    return FALLBACK;
+                }
+            } else if (block instanceof DoubleBlock && type == MysqlDefs.FIELD_TYPE_DOUBLE) {
+                return FIXED_DOUBLE;
+            } else if (block instanceof FloatBlock && type == MysqlDefs.FIELD_TYPE_FLOAT) {
+                return FIXED_FLOAT;
+            } else if (block instanceof SliceBlock && utf8 && (type == MysqlDefs.FIELD_TYPE_VAR_STRING
+                || type == MysqlDefs.FIELD_TYPE_VARCHAR || type == MysqlDefs.FIELD_TYPE_STRING)) {
+                return SLICE;
+            } else if (block instanceof ByteArrayBlock && (type == MysqlDefs.FIELD_TYPE_TINY_BLOB
+                || type == MysqlDefs.FIELD_TYPE_MEDIUM_BLOB || type == MysqlDefs.FIELD_TYPE_LONG_BLOB
+                || type == MysqlDefs.FIELD_TYPE_BLOB)) {
+                return BYTES;
+            }
+            return FALLBACK;
+        }
+
+        if (isIntegerBlock(block)) {
+            // other types (e.g. temporal or bit) are formatted by their data types
+            ColumnMeta columnMeta = columnMetas != null && column < columnMetas.size() ? columnMetas.get(column) : null;
+            if (columnMeta != null && DataTypeUtil.isUnderLongType(columnMeta.getDataType())) {
+                return DIGITS;
+            }
+            return FALLBACK;
+        } else if (block instanceof SliceBlock && utf8) {
+            return SLICE;
+        } else if (block instanceof ByteArrayBlock) {
+            return BYTES;
+        } else if (block instanceof DecimalBlock) {
+            return DECIMAL;
+        }
+        return FALLBACK;
+    }
+
+    private static boolean isIntegerBlock(Block block) {
+        return block instanceof LongBlock || block instanceof IntegerBlock || block instanceof ShortBlock
+            || block instanceof ByteBlock;
+    }
+
+    private void writeRow(Chunk chunk, int position, IPacketOutputProxy proxy) throws SQLException {
+        boolean positioned = false;
+        long payload = binary ? 1 + nullBitmap.length : 0;
+        for (int i = 0; i < columnCount; i++) {
+            final Block block = chunk.getBlock(i);
+            final int kind = kinds[i];
+            int length;
+            if (kind == FALLBACK) {
+                if (!positioned) {
+                    positionAt(chunk, position);
+                    positioned = true;
+                }
+                values[i] = fallbackValue(i);
+                length = values[i] == null ? -1 : values[i].length;
+            } else if (block.isNull(position)) {
+                length = -1;
+            } else {
+                length = valueLength(kind, i, block, position);
+            }
+            lengths[i] = length;
+            payload += encodedLength(kind, length);
+        }
+
+        if (payload >= MAX_PACKET_PAYLOAD_LENGTH) {
+            writeLargeRow(chunk, position, proxy);
+            Arrays.fill(values, null);
+            return;
+        }
+
+        final FrontendConnection c = proxy.getConnection();
+        proxy.packetBegin();
+        proxy.checkWriteCapacity(c.getPacketHeaderSize());
+        proxy.writeUB3((int) payload);
+        proxy.write(c.getNewPacketId());
+
+        if (binary) {
+            writeNullBitmap(proxy);
+        }
+        for (int i = 0; i < columnCount; i++) {
+            writeCell(i, chunk.getBlock(i), position, proxy);
+        }
+        proxy.packetEnd();
+        Arrays.fill(values, null);
+    }
+
+    private int valueLength(int kind, int column, Block block, int position) {
+        switch (kind) {
+        case DIGITS:
+            return formatDigits(longValue(block, position));
+        case SLICE:
+            return ((SliceBlock) block).endOffset(position) - ((SliceBlock) block).beginOffset(position);
+        case BYTES:
+            return ((ByteArrayBlock) block).endOffset(position) - ((ByteArrayBlock) block).beginOffset(position);
+        case DECIMAL:
+            values[column] = ((DecimalBlock) block).getDecimal(position).toBytes();
+            return values[column].length;
+        case FIXED_INT:
+            return fixedIntWidth(fields[column].type & 0xff);
+        case FIXED_FLOAT:
+            return 4;
+        case FIXED_DOUBLE:
+            return 8;
+        default:
+            throw new AssertionError("unreachable");
+        }
+    }
+
+    /**
+     * Number of bytes the value takes in the row, including the length header if any.
+     */
+    private int encodedLength(int kind, int length) {
+        if (length < 0) {
+            // text protocol writes NULL_MARK, binary protocol sets the null bitmap
+            return binary ? 0 : 1;
+        }
+        if (!binary || kind == SLICE || kind == BYTES) {
+            return lengthOfLength(length) + length;
+        }
+        return length;
+    }
+
+    private void writeNullBitmap(IPacketOutputProxy proxy) {
+        Arrays.fill(nullBitmap, (byte) 0);
+        int bit = 4;
+        int nullMaskPos = 0;
+        for (int i = 0; i < columnCount; i++) {
+            if (lengths[i] < 0) {
+                nullBitmap[nullMaskPos] |= bit;
+            }
+            // refer to mysql connector MysqlIO.unpackBinaryResultSetRow
+            if (((bit <<= 1) & 255) == 0) {
+                bit = 1;
+                nullMaskPos++;
+            }
+        }
+        proxy.checkWriteCapacity(1 + nullBitmap.length);
+        proxy.write((byte) 0);
+        proxy.write(nullBitmap);
+    }
+
+    private void writeCell(int column, Block block, int position, IPacketOutputProxy proxy) {
+        final int length = lengths[column];
+        if (length < 0) {
+            if (!binary) {
+                proxy.checkWriteCapacity(1);
+                proxy.write(RowDataPacket.NULL_MARK);
+            }
+            return;
+        }
+        final int kind = kinds[column];
+        switch (kind) {
+        case FALLBACK:
+        case DECIMAL:
+            if (!binary) {
+                writeLength(length, proxy);
+            }
+            proxy.write(values[column], 0, length);
+            break;
+        case DIGITS:
+            writeLength(length, proxy);
+            formatDigits(longValue(block, position));
+            proxy.write(digits, digits.length - length, length);
+            break;
+        case SLICE: {
+            writeLength(length, proxy);
+            SliceBlock sliceBlock = (SliceBlock) block;
+            writeSlice(sliceBlock.getData(), sliceBlock.beginOffset(position), length, proxy);
+            break;
+        }
+        case BYTES: {
+            writeLength(length, proxy);
+            ByteArrayBlock bytesBlock = (ByteArrayBlock) block;
+            proxy.write(bytesBlock.getData(), bytesBlock.beginOffset(position), length);
+            break;
+        }
+        case FIXED_INT: {
+            long value = longValue(block, position);
+            proxy.checkWriteCapacity(length);
+            for (int i = 0; i < length; i++) {
+                proxy.write((byte) (value >>> (i << 3)));
+            }
+            break;
+        }
+        case FIXED_FLOAT:
+            proxy.checkWriteCapacity(4);
+            proxy.writeFloat(((FloatBlock) block).getFloat(position));
+            break;
+        case FIXED_DOUBLE:
+            proxy.checkWriteCapacity(8);
+            proxy.writeDouble(((DoubleBlock) block).getDouble(position));
+            break;
+        default:
+            throw new AssertionError("unreachable");
+        }
+    }
+
+    private void writeLength(int length, IPacketOutputProxy proxy) {
+        proxy.checkWriteCapacity(lengthOfLength(length));
+        proxy.writeLength(length);
+    }
+
+    private void writeSlice(Slice data, int offset, int length, IPacketOutputProxy proxy) {
+        byte[] bytes = buffer;
+        if (length > bytes.length) {
+            if (length <= MAX_BUFFER_SIZE) {
+                buffer = bytes = new byte[Math.max(length, bytes.length << 1)];
+            } else {
+                bytes = new byte[length];
+            }
+        }
+        data.getBytes(offset, bytes, 0, length);
+        proxy.write(bytes, 0, length);
+    }
+
+    /**
+     * Rows longer than a packet are rare, build them with the multi packets.
+     */
+    private void writeLargeRow(Chunk chunk, int position, IPacketOutputProxy proxy) throws SQLException {
+        positionAt(chunk, position);
+        if (binary) {
+            BinaryRowDataPacket row = new BinaryRowDataMultiPacket(columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                row.fieldValues.add(kinds[i] == FALLBACK ? values[i] : fallbackValue(i));
+            }
+            row.write(proxy);
+        } else {
+            final FrontendConnection c = proxy.getConnection();
+            RowDataPacket row = new RowDataMultiPacket(columnCount, c::getNewPacketId);
+            for (int i = 0; i < columnCount; i++) {
+                row.fieldValues.add(kinds[i] == FALLBACK ? values[i] : fallbackValue(i));
+            }
+            row.write(proxy);
+        }
+    }
+
+    private void positionAt(Chunk chunk, int position) {
+        Row row = chunk.rowAt(position);
+        row.setCursorMeta(cursorMeta);
+        rs.setCurrentKVPair(row);
+    }
+
+    private byte[] fallbackValue(int column) throws SQLException {
+        final int index = column + 1;
+        if (binary) {
+            return MysqlDefs.resultSetToByte(rs, index, MysqlDefs.MySQLTypeUInt(fields[column].type),
+                ResultSetUtil.isUnsigned(fields[column].flags), charset);
+        }
+        return rs.getBytes(index, charset);
+    }
+
+    private static long longValue(Block block, int position) {
+        if (block instanceof LongBlock) {
+            return ((LongBlock) block).getLong(position);
+        } else if (block instanceof IntegerBlock) {
+            return ((IntegerBlock) block).getInt(position);
+        } else if (block instanceof ShortBlock) {
+            return ((ShortBlock) block).getShort(position);
+        } else {
+            return ((ByteBlock) block).getByte(position);
+        }
+    }
+
+    private static int fixedIntWidth(int type) {
+        switch (type) {
+        case MysqlDefs.FIELD_TYPE_TINY:
+            return 1;
+        case MysqlDefs.FIELD_TYPE_SHORT:
+            return 2;
+        case MysqlDefs.FIELD_TYPE_LONG:
+        case MysqlDefs.FIELD_TYPE_INT24:
+            return 4;
+        default:
+            return 8;
+        }
+    }
+
+    private static int lengthOfLength(long length) {
+        if (length < 251) {
+            return 1;
+        } else if (length < 0x10000L) {
+            return 3;
+        } else if (length < 0x1000000L) {
+            return 4;
+        } else {
+            return 9;
+        }
+    }
+
+    /**
+     * Format the decimal digits of value into the tail of {@link #digits}.
+     *
+     * @return number of bytes written
+     */
+    private int formatDigits(long value) {
+        final byte[] digits = this.digits;
+        int pos = digits.length;
+        if (value == Long.MIN_VALUE) {
+            final byte[] min = MIN_LONG_DIGITS;
+            System.arraycopy(min, 0, digits, pos - min.length, min.length);
+            return min.length;
+        }
+        final boolean negative = value < 0;
+        long v = negative ? -value : value;
+        do {
+            digits[--pos] = (byte) ('0' + (v % 10));
+            v /= 10;
+        } while (v != 0);
+        if (negative) {
+            digits[--pos] = '-';
+        }
+        return digits.length - pos;
+    }
+}
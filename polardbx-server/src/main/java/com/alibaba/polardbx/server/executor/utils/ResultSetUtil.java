@@ -235,6 +235,12 @@ public class ResultSetUtil {
             }
         }
 
+        // 执行器产出的chunk在输出header后直接按chunk编码
+        ChunkRowEncoder chunkEncoder = null;
+        if (rs instanceof TResultSet && packet.fieldPackets != null) {
+            chunkEncoder = new ChunkRowEncoder((TResultSet) rs, packet.fieldPackets, charset, false);
+        }
+
         IPacketOutputProxy proxy = null;
 
         // 如果未出现未决类型，先输出header
@@ -251,6 +257,14 @@ public class ResultSetUtil {
                 // 不存在记录，直接退出
                 break;
             }
+            if (chunkEncoder != null && !existUndecidedType) {
+                int rows = chunkEncoder.writeCurrentChunk(proxy);
+                if (rows > 0) {
+                    affectRow.addAndGet(rows);
+                    existNext = rs.next();
+                    continue;
+                }
+            }
             RowDataPacket row = null;
             row = new RowDataMultiPacket(colunmCount, c::getNewPacketId);
             final XRowSet xRowSet =
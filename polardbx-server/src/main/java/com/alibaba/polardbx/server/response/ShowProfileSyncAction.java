@@ -49,6 +49,7 @@ import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.RelVisitor;
 import org.apache.calcite.sql.SqlShowProfile;
 import org.apache.calcite.util.trace.RuntimeStatisticsSketch;
+import org.apache.calcite.util.trace.RuntimeStatisticsProfile;
 import org.apache.calcite.util.trace.RuntimeStatisticsSketchExt;
 import org.apache.commons.lang3.StringUtils;
 
@@ -243,6 +244,7 @@ public class ShowProfileSyncAction implements ISyncAction {
                 relNodeItem.rowCount = statSketch.getRowCount();
 
                 relNodeItemList.add(relNodeItem);
+                buildProfileItems(statSketch.getProfile());
             }
 
             if (isLvOrLm && statSketch != null) {
@@ -315,6 +317,31 @@ public class ShowProfileSyncAction implements ISyncAction {
 
         }
 
+        /**
+         * Sub items of wall time, input rows and blocked time by reason, only if the operator is profiled
+         */
+        protected void buildProfileItems(RuntimeStatisticsProfile profile) {
+            if (profile == null) {
+                return;
+            }
+            RelNodeItem newItem = new RelNodeItem();
+            newItem.relNodeId = 0;
+            newItem.relNodeName = buildStageTagsWithIndents(relNodeStack.size() + 1, "WallTime");
+            newItem.timeCost = (long) (profile.getWallDuration() * 1e9);
+            newItem.rowCount = profile.getInputRowCount();
+            relNodeItemList.add(newItem);
+
+            for (Map.Entry<String, Double> blocked : profile.getBlockedDurations().entrySet()) {
+                newItem = new RelNodeItem();
+                newItem.relNodeId = 0;
+                newItem.relNodeName = buildStageTagsWithIndents(relNodeStack.size() + 1, blocked.getKey());
+                newItem.timeCost = (long) (blocked.getValue() * 1e9);
+                if (newItem.timeCost > 0) {
+                    relNodeItemList.add(newItem);
+                }
+            }
+        }
+
         protected String buildStageTagsWithIndents(int stackDeep, String stageTags) {
             StringBuilder stageTagsWithIndents = new StringBuilder("");
             for (int i = 0; i < stackDeep + 1; i++) {
@@ -215,6 +215,12 @@ public class LogUtils {
                         printMetric(sqlInfo, QueryMetricsAttribute.FETCH_RS_TIMECOST, statMetrics.fetchRsTc);
                         printMetric(sqlInfo, QueryMetricsAttribute.PHYSICAL_CONN_TIMECOST, statMetrics.phyConnTc);
                         printMetric(sqlInfo, QueryMetricsAttribute.SPILL_COUNT, statMetrics.spillCnt);
+                        if (statMetrics.spillCnt > 0) {
+                            printMetric(sqlInfo, QueryMetricsAttribute.SPILL_UNCOMPRESSED_BYTES,
+                                statMetrics.spillUncompressedBytes);
+                            printMetric(sqlInfo, QueryMetricsAttribute.SPILL_COMPRESSED_BYTES,
+                                statMetrics.spillCompressedBytes);
+                        }
                         printMetric(sqlInfo, QueryMetricsAttribute.MEM_BLOCKED, statMetrics.memBlockedFlag);
 
                         if (cclTrigger) {
@@ -437,6 +443,8 @@ public class LogUtils {
         public static final String WORKLOAD_TYPE = ",wt=";
         public static final String EXECUTOR_MODE = ",em=";
         public static final String SPILL_COUNT = ",sct=";
+        public static final String SPILL_UNCOMPRESSED_BYTES = ",subs=";
+        public static final String SPILL_COMPRESSED_BYTES = ",scbs=";
         public static final String MEM_BLOCKED = ",mbt=";
         public static final String CPU_COST = ",lcpu=";
         public static final String MEMORY_COST = ",lmem=";
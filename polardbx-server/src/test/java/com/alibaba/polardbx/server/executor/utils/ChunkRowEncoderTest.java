@@ -0,0 +1,369 @@
+/*
+ * Copyright [2013-2021], Alibaba Group Holding Limited
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.polardbx.server.executor.utils;
+
+import com.alibaba.polardbx.common.datatype.Decimal;
+import com.alibaba.polardbx.executor.cursor.ExecutorCursor;
+import com.alibaba.polardbx.executor.cursor.ResultCursor;
+import com.alibaba.polardbx.executor.operator.Executor;
+import com.alibaba.polardbx.executor.operator.ProducerExecutor;
+import com.alibaba.polardbx.matrix.jdbc.TResultSet;
+import com.alibaba.polardbx.net.FrontendConnection;
+import com.alibaba.polardbx.net.compress.PacketStreamOutputProxy;
+import com.alibaba.polardbx.net.packet.FieldPacket;
+import com.alibaba.polardbx.net.packet.RowDataPacket;
+import com.alibaba.polardbx.optimizer.chunk.Block;
+import com.alibaba.polardbx.optimizer.chunk.BlockBuilder;
+import com.alibaba.polardbx.optimizer.chunk.BlockBuilders;
+import com.alibaba.polardbx.optimizer.chunk.Chunk;
+import com.alibaba.polardbx.optimizer.config.table.ColumnMeta;
+import com.alibaba.polardbx.optimizer.config.table.Field;
+import com.alibaba.polardbx.optimizer.context.ExecutionContext;
+import com.alibaba.polardbx.optimizer.core.CursorMeta;
+import com.alibaba.polardbx.optimizer.core.datatype.DataType;
+import com.alibaba.polardbx.optimizer.core.datatype.DataTypes;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ChunkRowEncoderTest {
+
+    private static final String LONG_STRING = String.join("", Collections.nCopies(100, "abc"));
+
+    private static final Object[][] TEXT_ROWS = {
+        {Long.MIN_VALUE, Integer.MAX_VALUE, (short) -32768, (short) 127, "hello", new byte[] {0, 1, -1},
+            Decimal.fromString("-123.450")},
+        {null, null, null, null, null, null, null},
+        {Long.MAX_VALUE, 0, (short) 0, (short) -1, "", new byte[0], Decimal.fromString("0")},
+        {-1L, -7, (short) 12, (short) 0, LONG_STRING, new byte[300], Decimal.fromString("99999999.99")},
+    };
+
+    private static final Object[][] BINARY_ROWS = {
+        {Long.MIN_VALUE, Integer.MIN_VALUE, (short) -32768, (byte) -128, 1.5d, -2.25f, "你好", new byte[] {0, 1, -1}},
+        {null, null, null, null, null, null, null, null},
+        {Long.MAX_VALUE, Integer.MAX_VALUE, (short) 32767, (byte) 127, Double.MAX_VALUE, Float.MIN_VALUE, LONG_STRING,
+            new byte[300]},
+        {0L, null, (short) 0, null, 0d, null, "", null},
+    };
+
+    @Test
+    public void testTextProtocol() throws Exception {
+        DataType[] types = {
+            DataTypes.LongType, DataTypes.IntegerType, DataTypes.SmallIntType, DataTypes.TinyIntType,
+            DataTypes.VarcharType, DataTypes.BinaryType, DataTypes.DecimalType};
+        int[] fieldTypes = {
+            MysqlDefs.FIELD_TYPE_LONGLONG, MysqlDefs.FIELD_TYPE_LONG, MysqlDefs.FIELD_TYPE_SHORT,
+            MysqlDefs.FIELD_TYPE_TINY, MysqlDefs.FIELD_TYPE_VAR_STRING, MysqlDefs.FIELD_TYPE_BLOB,
+            MysqlDefs.FIELD_TYPE_NEW_DECIMAL};
+
+        List<byte[]> payloads = encode(types, fieldTypes, TEXT_ROWS, false);
+        Assert.assertEquals(TEXT_ROWS.length, payloads.size());
+        for (int row = 0; row < TEXT_ROWS.length; row++) {
+            ByteBuffer payload = ByteBuffer.wrap(payloads.get(row));
+            for (int column = 0; column < types.length; column++) {
+                Object expected = TEXT_ROWS[row][column];
+                byte[] actual = readTextCell(payload);
+                if (expected == null) {
+                    Assert.assertNull(actual);
+                } else {
+                    Assert.assertArrayEquals("row " + row + " column " + column, textBytes(expected), actual);
+                }
+            }
+            Assert.assertFalse(payload.hasRemaining());
+        }
+    }
+
+    @Test
+    public void testBinaryProtocol() throws Exception {
+        DataType[] types = {
+            DataTypes.LongType, DataTypes.IntegerType, DataTypes.SmallIntType, DataTypes.ByteType,
+            DataTypes.DoubleType, DataTypes.FloatType, DataTypes.VarcharType, DataTypes.BinaryType};
+        int[] fieldTypes = {
+            MysqlDefs.FIELD_TYPE_LONGLONG, MysqlDefs.FIELD_TYPE_LONG, MysqlDefs.FIELD_TYPE_SHORT,
+            MysqlDefs.FIELD_TYPE_TINY, MysqlDefs.FIELD_TYPE_DOUBLE, MysqlDefs.FIELD_TYPE_FLOAT,
+            MysqlDefs.FIELD_TYPE_VAR_STRING, MysqlDefs.FIELD_TYPE_BLOB};
+
+        List<byte[]> payloads = encode(types, fieldTypes, BINARY_ROWS, true);
+        Assert.assertEquals(BINARY_ROWS.length, payloads.size());
+        for (int row = 0; row < BINARY_ROWS.length; row++) {
+            ByteBuffer payload = ByteBuffer.wrap(payloads.get(row)).order(ByteOrder.LITTLE_ENDIAN);
+            Assert.assertEquals(0, payload.get());
+            byte[] nullBitmap = new byte[(types.length + 7 + 2) / 8];
+            payload.get(nullBitmap);
+            for (int column = 0; column < types.length; column++) {
+                Object expected = BINARY_ROWS[row][column];
+                int bit = column + 2;
+                boolean isNull = (nullBitmap[bit >> 3] & (1 << (bit & 7))) != 0;
+                Assert.assertEquals("row " + row + " column " + column, expected == null, isNull);
+                if (expected == null) {
+                    continue;
+                }
+                switch (fieldTypes[column]) {
+                case MysqlDefs.FIELD_TYPE_LONGLONG:
+                    Assert.assertEquals(expected, payload.getLong());
+                    break;
+                case MysqlDefs.FIELD_TYPE_LONG:
+                    Assert.assertEquals(expected, payload.getInt());
+                    break;
+                case MysqlDefs.FIELD_TYPE_SHORT:
+                    Assert.assertEquals(expected, payload.getShort());
+                    break;
+                case MysqlDefs.FIELD_TYPE_TINY:
+                    Assert.assertEquals(expected, payload.get());
+                    break;
+                case MysqlDefs.FIELD_TYPE_DOUBLE:
+                    Assert.assertEquals(expected, payload.getDouble());
+                    break;
+                case MysqlDefs.FIELD_TYPE_FLOAT:
+                    Assert.assertEquals(expected, payload.getFloat());
+                    break;
+                default:
+                    Assert.assertArrayEquals(textBytes(expected), readTextCell(payload));
+                }
+            }
+            Assert.assertFalse(payload.hasRemaining());
+        }
+    }
+
+    @Test
+    public void testSeveralChunks() throws Exception {
+        DataType[] types = {DataTypes.LongType, DataTypes.VarcharType};
+        int[] fieldTypes = {MysqlDefs.FIELD_TYPE_LONGLONG, MysqlDefs.FIELD_TYPE_VAR_STRING};
+        Object[][] rows = {{1L, "a"}, {2L, null}, {null, "c"}};
+
+        List<Chunk> chunks = ImmutableList.of(buildChunk(types, rows), buildChunk(types, rows));
+        TResultSet rs = buildResultSet(types, chunks);
+        TestProxy proxy = new TestProxy();
+        ChunkRowEncoder encoder = new ChunkRowEncoder(rs, buildFields(fieldTypes), "utf8", false);
+
+        // the first row is consumed by next() before writing, the encoder picks up the rest of its chunk
+        Assert.assertTrue(rs.next());
+        Assert.assertEquals(rows.length, encoder.writeCurrentChunk(proxy));
+        Assert.assertTrue(rs.next());
+        Assert.assertEquals(rows.length, encoder.writeCurrentChunk(proxy));
+        Assert.assertFalse(rs.next());
+
+        List<byte[]> payloads = proxy.payloads();
+        Assert.assertEquals(rows.length * 2, payloads.size());
+        for (int i = 0; i < payloads.size(); i++) {
+            ByteBuffer payload = ByteBuffer.wrap(payloads.get(i));
+            Object[] expected = rows[i % rows.length];
+            for (Object value : expected) {
+                byte[] actual = readTextCell(payload);
+                Assert.assertArrayEquals(value == null ? null : textBytes(value), actual);
+            }
+        }
+    }
+
+    private static List<byte[]> encode(DataType[] types, int[] fieldTypes, Object[][] rows, boolean binary)
+        throws Exception {
+        TResultSet rs = buildResultSet(types, ImmutableList.of(buildChunk(types, rows)));
+        TestProxy proxy = new TestProxy();
+        ChunkRowEncoder encoder = new ChunkRowEncoder(rs, buildFields(fieldTypes), "utf8", binary);
+        Assert.assertTrue(rs.next());
+        Assert.assertEquals(rows.length, encoder.writeCurrentChunk(proxy));
+        Assert.assertFalse(rs.next());
+        return proxy.payloads();
+    }
+
+    private static Chunk buildChunk(DataType[] types, Object[][] rows) {
+        ExecutionContext context = new ExecutionContext();
+        Block[] blocks = new Block[types.length];
+        for (int column = 0; column < types.length; column++) {
+            BlockBuilder builder = BlockBuilders.create(types[column], context);
+            for (Object[] row : rows) {
+                Object value = row[column];
+                if (value == null) {
+                    builder.appendNull();
+                } else if (value instanceof String) {
+                    builder.writeString((String) value);
+                } else {
+                    builder.writeObject(value);
+                }
+            }
+            blocks[column] = builder.build();
+        }
+        return new Chunk(blocks);
+    }
+
+    private static TResultSet buildResultSet(DataType[] types, List<Chunk> chunks) {
+        List<ColumnMeta> columns = new ArrayList<>();
+        for (int i = 0; i < types.length; i++) {
+            columns.add(new ColumnMeta("t", "c" + i, null, new Field(types[i])));
+        }
+        CursorMeta cursorMeta = CursorMeta.build(columns);
+        ResultCursor resultCursor = new ResultCursor(new ExecutorCursor(new ChunkListExec(types, chunks), cursorMeta));
+        resultCursor.setCursorMeta(cursorMeta);
+        return new TResultSet(resultCursor, null);
+    }
+
+    private static FieldPacket[] buildFields(int[] fieldTypes) {
+        FieldPacket[] fields = new FieldPacket[fieldTypes.length];
+        for (int i = 0; i < fieldTypes.length; i++) {
+            fields[i] = new FieldPacket();
+            fields[i].type = (byte) fieldTypes[i];
+        }
+        return fields;
+    }
+
+    private static byte[] textBytes(Object value) {
+        if (value instanceof byte[]) {
+            return (byte[]) value;
+        } else if (value instanceof Decimal) {
+            return ((Decimal) value).toBytes();
+        }
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read a length encoded cell, null for NULL_MARK.
+     */
+    private static byte[] readTextCell(ByteBuffer payload) {
+        int first = payload.get() & 0xff;
+        long length;
+        if (first == (RowDataPacket.NULL_MARK & 0xff)) {
+            return null;
+        } else if (first < 251) {
+            length = first;
+        } else if (first == 252) {
+            length = (payload.get() & 0xff) | (payload.get() & 0xff) << 8;
+        } else if (first == 253) {
+            length = (payload.get() & 0xff) | (payload.get() & 0xff) << 8 | (payload.get() & 0xff) << 16;
+        } else {
+            length = payload.order(ByteOrder.LITTLE_ENDIAN).getLong(payload.position());
+            payload.position(payload.position() + 8);
+        }
+        byte[] bytes = new byte[(int) length];
+        payload.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Collects the packets into memory.
+     */
+    private static class TestProxy extends PacketStreamOutputProxy {
+
+        private final FrontendConnection connection;
+
+        TestProxy() {
+            super(new ByteArrayOutputStream());
+            this.waitForCompressStream = (ByteArrayOutputStream) out;
+            this.connection = Mockito.mock(FrontendConnection.class);
+            final AtomicInteger packetId = new AtomicInteger();
+            Mockito.when(connection.getPacketHeaderSize()).thenReturn(4);
+            Mockito.when(connection.getNewPacketId()).thenAnswer(invocation -> (byte) packetId.incrementAndGet());
+        }
+
+        @Override
+        public FrontendConnection getConnection() {
+            return connection;
+        }
+
+        @Override
+        public void checkWriteCapacity(int capacity) {
+        }
+
+        @Override
+        public void write(byte[] src) {
+            write(src, 0, src.length);
+        }
+
+        @Override
+        public void write(byte[] src, int off, int len) {
+            waitForCompressStream.write(src, off, len);
+        }
+
+        @Override
+        public void packetBegin() {
+        }
+
+        @Override
+        public void packetEnd() {
+        }
+
+        List<byte[]> payloads() {
+            ByteBuffer buffer = ByteBuffer.wrap(waitForCompressStream.toByteArray());
+            List<byte[]> payloads = new ArrayList<>();
+            byte expectedPacketId = 1;
+            while (buffer.hasRemaining()) {
+                int length = (buffer.get() & 0xff) | (buffer.get() & 0xff) << 8 | (buffer.get() & 0xff) << 16;
+                Assert.assertEquals(expectedPacketId++, buffer.get());
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                payloads.add(payload);
+            }
+            return payloads;
+        }
+    }
+
+    private static class ChunkListExec implements Executor {
+
+        private final List<DataType> types;
+        private final List<Chunk> chunks;
+        private int next = 0;
+
+        ChunkListExec(DataType[] types, List<Chunk> chunks) {
+            this.types = Arrays.asList(types);
+            this.chunks = chunks;
+        }
+
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public Chunk nextChunk() {
+            return next < chunks.size() ? chunks.get(next++) : null;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public List<DataType> getDataTypes() {
+            return types;
+        }
+
+        @Override
+        public List<Executor> getInputs() {
+            return ImmutableList.of();
+        }
+
+        @Override
+        public boolean produceIsFinished() {
+            return next >= chunks.size();
+        }
+
+        @Override
+        public ListenableFuture<?> produceIsBlocked() {
+            return ProducerExecutor.NOT_BLOCKED;
+        }
+    }
+}